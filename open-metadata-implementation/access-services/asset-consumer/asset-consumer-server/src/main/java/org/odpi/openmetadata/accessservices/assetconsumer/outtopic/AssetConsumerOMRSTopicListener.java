@@ -8,16 +8,20 @@ import org.odpi.openmetadata.commonservices.generichandlers.AssetHandler;
 import org.odpi.openmetadata.commonservices.generichandlers.OpenMetadataAPIMapper;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicListenerBase;
+import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicListenerInterest;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -59,6 +63,30 @@ public class AssetConsumerOMRSTopicListener extends OMRSTopicListenerBase
         this.supportedZones = supportedZones;
         this.localServerUserId = localServerUserId;
         this.eventPublisher = eventPublisher;
+
+        /*
+         * Only entity events about assets are published so the topic connector can discard the other events
+         * before they are passed to this listener.
+         */
+        OMRSTopicListenerInterest eventInterest = new OMRSTopicListenerInterest();
+
+        eventInterest.setRegistryEvents(false);
+        eventInterest.setTypeDefEvents(false);
+        eventInterest.setInstanceEventTypes(Arrays.asList(OMRSInstanceEventType.NEW_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.UPDATED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.CLASSIFIED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.DECLASSIFIED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.RECLASSIFIED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.DELETED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.DELETE_PURGED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.RESTORED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.RE_IDENTIFIED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.RETYPED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.REFRESHED_ENTITY_EVENT,
+                                                          OMRSInstanceEventType.BATCH_INSTANCES_EVENT));
+        eventInterest.setInstanceTypeNames(Collections.singletonList(OpenMetadataAPIMapper.ASSET_TYPE_NAME));
+
+        super.setEventInterest(eventInterest);
     }
 
 
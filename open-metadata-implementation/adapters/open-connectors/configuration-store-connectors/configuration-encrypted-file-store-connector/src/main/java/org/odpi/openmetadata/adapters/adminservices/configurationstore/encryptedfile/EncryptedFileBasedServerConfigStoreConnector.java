@@ -2,7 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.adminservices.configurationstore.encryptedfile;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.crypto.tink.*;
 import com.google.crypto.tink.aead.AeadConfig;
 import com.google.crypto.tink.aead.AeadKeyTemplates;
@@ -15,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.odpi.openmetadata.adminservices.store.OMAGServerConfigStoreConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.odpi.openmetadata.adminservices.configuration.properties.OMAGServerConfig;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
@@ -129,8 +129,7 @@ public class EncryptedFileBasedServerConfigStoreConnector extends OMAGServerConf
                 log.debug("Writing encrypted server configuration.");
                 Aead aead = getAead(true);
                 if (aead != null) {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    String configStoreFileContents = objectMapper.writeValueAsString(omagServerConfig);
+                    String configStoreFileContents = OMRSJSONCodec.writeValueAsString(omagServerConfig);
                     byte[] ciphertext = aead.encrypt(configStoreFileContents.getBytes(StandardCharsets.UTF_8), null);
                     FileUtils.writeByteArrayToFile(configStoreFile, ciphertext, false);
                 } else {
@@ -168,8 +167,7 @@ public class EncryptedFileBasedServerConfigStoreConnector extends OMAGServerConf
             try {
                 log.debug("Attempting to retrieve clear-text server configuration properties");
                 String configStoreFileContents = FileUtils.readFileToString(configStoreFile, "UTF-8");
-                ObjectMapper objectMapper = new ObjectMapper();
-                newConfigProperties = objectMapper.readValue(configStoreFileContents, OMAGServerConfig.class);
+                newConfigProperties = OMRSJSONCodec.readValue(configStoreFileContents, OMAGServerConfig.class);
                 // Assuming we are able to read it (unencrypted), immediately auto-encrypt it
                 log.info("Found unencrypted configuration document -- automatically encrypting it.");
                 saveServerConfig(newConfigProperties);
@@ -196,8 +194,7 @@ public class EncryptedFileBasedServerConfigStoreConnector extends OMAGServerConf
                         byte[] ciphertext = FileUtils.readFileToByteArray(configStoreFile);
                         byte[] decrypted = aead.decrypt(ciphertext, null);
                         String configStoreFileContents = new String(decrypted, StandardCharsets.UTF_8);
-                        ObjectMapper objectMapper = new ObjectMapper();
-                        newConfigProperties = objectMapper.readValue(configStoreFileContents, OMAGServerConfig.class);
+                        newConfigProperties = OMRSJSONCodec.readValue(configStoreFileContents, OMAGServerConfig.class);
                     } else {
                         // If we have a configuration file, but no key anywhere to use to decrypt it, throw an error immediately
                         throw new OCFRuntimeException(DocStoreErrorCode.NO_KEYSTORE.getMessageDefinition(),
@@ -2,7 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.adminservices.configurationstore.file;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.adminservices.store.OMAGServerConfigStoreRetrieveAll;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.OCFRuntimeException;
@@ -11,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.odpi.openmetadata.adminservices.store.OMAGServerConfigStoreConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.odpi.openmetadata.adminservices.configuration.properties.OMAGServerConfig;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
@@ -114,9 +114,7 @@ public class FileBasedServerConfigStoreConnector extends OMAGServerConfigStoreCo
             }
             else
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                String configStoreFileContents = objectMapper.writeValueAsString(omagServerConfig);
+                String configStoreFileContents = OMRSJSONCodec.writeValueAsString(omagServerConfig);
 
                 FileUtils.writeStringToFile(configStoreFile, configStoreFileContents, (String)null,false);
             }
@@ -145,9 +143,7 @@ public class FileBasedServerConfigStoreConnector extends OMAGServerConfigStoreCo
 
             String configStoreFileContents = FileUtils.readFileToString(configStoreFile, "UTF-8");
 
-            ObjectMapper objectMapper = new ObjectMapper();
-
-            newConfigProperties = objectMapper.readValue(configStoreFileContents, OMAGServerConfig.class);
+            newConfigProperties = OMRSJSONCodec.readValue(configStoreFileContents, OMAGServerConfig.class);
         }
         catch (IOException ioException)
         {
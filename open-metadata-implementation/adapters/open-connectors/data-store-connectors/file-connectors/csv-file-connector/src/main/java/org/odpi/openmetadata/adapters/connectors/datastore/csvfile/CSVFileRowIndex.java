@@ -0,0 +1,295 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.datastore.csvfile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+/**
+ * CSVFileRowIndex records the byte offset of the start of each row in a CSV file so that any row can be read
+ * without scanning the rows before it.  The index is built with a single buffered pass over the file and
+ * describes the file as it was at that time.  The connector builds a new index when the modification time or
+ * length of the file changes.
+ * <p>
+ * Rows are separated by new line characters.  Trailing rows that contain only white space are not counted,
+ * matching the behaviour of the Scanner that was previously used to read the file.
+ */
+class CSVFileRowIndex
+{
+    private static final int bufferSize = 64 * 1024;
+
+    private final File    file;
+    private final long    lastModified;
+    private final long    fileLength;
+    private final long[]  rowOffsets;    /* offset of each row plus the offset of the end of the last row */
+    private final int     rowCount;
+
+
+    /**
+     * Constructor used by build.
+     *
+     * @param file file that was indexed
+     * @param lastModified modification time of the file when it was indexed
+     * @param fileLength length of the file when it was indexed
+     * @param rowOffsets start of each row followed by the end of the last row
+     * @param rowCount number of rows
+     */
+    private CSVFileRowIndex(File    file,
+                            long    lastModified,
+                            long    fileLength,
+                            long[]  rowOffsets,
+                            int     rowCount)
+    {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.fileLength = fileLength;
+        this.rowOffsets = rowOffsets;
+        this.rowCount = rowCount;
+    }
+
+
+    /**
+     * Scan the file and record where each row starts.
+     *
+     * @param file file to index
+     * @return new index
+     * @throws IOException unable to read the file
+     */
+    static CSVFileRowIndex build(File file) throws IOException
+    {
+        long    lastModified    = file.lastModified();
+        long[]  rowOffsets      = new long[1024];
+        int     lineCount       = 0;
+        int     rowCount        = 0;
+        boolean lineHasContent  = false;
+        long    position        = 0;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+
+            rowOffsets[lineCount ++] = 0;
+
+            while (channel.read(buffer) > 0)
+            {
+                buffer.flip();
+
+                while (buffer.hasRemaining())
+                {
+                    byte character = buffer.get();
+
+                    position ++;
+
+                    if (character == '\n')
+                    {
+                        if (lineHasContent)
+                        {
+                            rowCount = lineCount;
+                        }
+
+                        if (lineCount == rowOffsets.length)
+                        {
+                            rowOffsets = Arrays.copyOf(rowOffsets, rowOffsets.length * 2);
+                        }
+
+                        rowOffsets[lineCount ++] = position;
+                        lineHasContent = false;
+                    }
+                    else if (! isWhiteSpace(character))
+                    {
+                        lineHasContent = true;
+                    }
+                }
+
+                buffer.clear();
+            }
+        }
+
+        if (lineHasContent)
+        {
+            /*
+             * The last row is not followed by a new line.
+             */
+            rowCount = lineCount;
+
+            if (lineCount == rowOffsets.length)
+            {
+                rowOffsets = Arrays.copyOf(rowOffsets, rowOffsets.length + 1);
+            }
+
+            rowOffsets[lineCount] = position;
+        }
+
+        return new CSVFileRowIndex(file, lastModified, position, rowOffsets, rowCount);
+    }
+
+
+    /**
+     * Test whether a byte is one of the ASCII white space characters.
+     *
+     * @param character byte from the file
+     * @return boolean flag
+     */
+    private static boolean isWhiteSpace(byte character)
+    {
+        return (character == ' ') || (character == '\t') || (character == '\r') || (character == '\f') || (character == 0x0B);
+    }
+
+
+    /**
+     * Return whether the file has changed since the index was built.
+     *
+     * @param currentFile file as it is now
+     * @return boolean flag
+     */
+    boolean isStale(File currentFile)
+    {
+        return (! file.equals(currentFile)) ||
+               (currentFile.lastModified() != lastModified) ||
+               (currentFile.length() != fileLength);
+    }
+
+
+    /**
+     * Return the number of rows in the file, including any row of column names.
+     *
+     * @return count
+     */
+    int getRowCount()
+    {
+        return rowCount;
+    }
+
+
+    /**
+     * Open a reader for the rows in the file.  The reader must be closed by the caller.
+     *
+     * @return reader
+     * @throws IOException unable to open the file
+     */
+    RowReader openReader() throws IOException
+    {
+        return new RowReader();
+    }
+
+
+    /**
+     * RowReader reads rows from the file through a buffer.  Rows that are read in order are usually served from the
+     * buffer without going back to the file.
+     */
+    class RowReader implements Closeable
+    {
+        private final FileChannel channel;
+        private final Charset     charset     = Charset.defaultCharset();
+        private ByteBuffer        buffer      = ByteBuffer.allocate(bufferSize);
+        private long              bufferStart = 0;
+
+
+        /**
+         * Open the file.
+         *
+         * @throws IOException unable to open the file
+         */
+        private RowReader() throws IOException
+        {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+            buffer.limit(0);
+        }
+
+
+        /**
+         * Return the text of the requested row without its line terminator.
+         *
+         * @param rowNumber row number starting at zero
+         * @return row text
+         * @throws IOException unable to read the file
+         */
+        String readRow(int rowNumber) throws IOException
+        {
+            long rowStart  = rowOffsets[rowNumber];
+            long rowEnd    = rowOffsets[rowNumber + 1];
+            int  rowLength = (int)(rowEnd - rowStart);
+
+            if ((rowStart < bufferStart) || (rowEnd > bufferStart + buffer.limit()))
+            {
+                this.fillBuffer(rowStart, rowLength);
+            }
+
+            int position = (int)(rowStart - bufferStart);
+
+            /*
+             * Remove the line terminator.
+             */
+            while ((rowLength > 0) &&
+                   ((buffer.get(position + rowLength - 1) == '\n') || (buffer.get(position + rowLength - 1) == '\r')))
+            {
+                rowLength --;
+            }
+
+            return new String(buffer.array(), position, rowLength, charset);
+        }
+
+
+        /**
+         * Read the file into the buffer from the start of the requested row.  The buffer is enlarged if the row
+         * does not fit.
+         *
+         * @param rowStart offset of the row in the file
+         * @param rowLength length of the row in bytes
+         * @throws IOException unable to read the file or the file has been truncated
+         */
+        private void fillBuffer(long rowStart,
+                                int  rowLength) throws IOException
+        {
+            if (rowLength > buffer.capacity())
+            {
+                buffer = ByteBuffer.allocate(rowLength);
+            }
+
+            buffer.clear();
+            bufferStart = rowStart;
+
+            long position = rowStart;
+
+            while (buffer.hasRemaining())
+            {
+                int bytesRead = channel.read(buffer, position);
+
+                if (bytesRead < 0)
+                {
+                    break;
+                }
+
+                position = position + bytesRead;
+            }
+
+            buffer.flip();
+
+            if (buffer.limit() < rowLength)
+            {
+                throw new IOException("File " + file.getName() + " changed while it was being read");
+            }
+        }
+
+
+        /**
+         * Close the file.
+         *
+         * @throws IOException problem closing the file
+         */
+        @Override
+        public void close() throws IOException
+        {
+            channel.close();
+        }
+    }
+}
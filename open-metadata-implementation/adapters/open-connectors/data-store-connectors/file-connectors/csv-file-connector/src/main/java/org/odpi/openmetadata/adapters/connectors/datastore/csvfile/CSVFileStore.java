@@ -42,8 +42,8 @@ public interface CSVFileStore extends BasicFileStore
 
 
     /**
-     * Return the number of records in the file.  This is achieved by scanning the file and counting the records -
-     * not recommended for very large files.
+     * Return the number of records in the file.  The file is scanned the first time this is called and again
+     * only when the file changes.
      *
      * @return count
      * @throws FileException there is a problem accessing the file
@@ -74,4 +74,21 @@ public interface CSVFileStore extends BasicFileStore
      * @throws FileReadException unable to find, open or read the file, or the file does not include the requested record.
      */
     List<String>      readRecord(int  rowNumber) throws FileException, FileReadException;
+
+
+    /**
+     * Return a batch of consecutive data records.  The file is opened once for the batch and the records are
+     * read in order, so calling this method repeatedly with successive start record numbers streams through
+     * the file.  The first record is record 0.  If the first line of the file is the column names then record 0
+     * is the line following the column names.
+     *
+     * @param startRecordNumber first record to return
+     * @param maximumRecords maximum number of records to return
+     * @return list of records, each a list of column values.  The list is empty if startRecordNumber is
+     *         beyond the end of the file.
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException unable to find, open or read the file, or the record numbers are negative.
+     */
+    List<List<String>> readRecords(int  startRecordNumber,
+                                   int  maximumRecords) throws FileException, FileReadException;
 }
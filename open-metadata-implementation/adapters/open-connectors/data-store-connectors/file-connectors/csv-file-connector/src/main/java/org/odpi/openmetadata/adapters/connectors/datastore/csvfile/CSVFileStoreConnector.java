@@ -29,6 +29,11 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     private char           delimiterChar     = ',';
     private char           quoteChar         = '"';
 
+    /*
+     * Location of each row in the file.  It is rebuilt when the file changes.
+     */
+    private CSVFileRowIndex rowIndex         = null;
+
     /*
      * Variables used for logging and debug.
      */
@@ -127,42 +132,56 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
 
 
     /**
-     * Return the number of records in the file.  This is achieved by scanning the file and counting the records -
-     * not recommended for very large files.
+     * Return the index of the rows in the file, building it if this is the first request or the file
+     * has changed since it was last indexed.
      *
-     * @return count
+     * @param methodName calling method
+     * @return row index
      * @throws FileException problem accessing the file
-     * @throws FileReadException unable to find, open or scan the file.
+     * @throws FileReadException unable to scan the file.
      */
-    public long     getRecordCount() throws FileException, FileReadException
+    private synchronized CSVFileRowIndex getRowIndex(String methodName) throws FileException, FileReadException
     {
-        final String  methodName = "getRecordCount";
-
-        long    rowCount = 0;
-
         File fileStore = getFile(methodName);
 
-        try (Scanner scanner  = new Scanner(fileStore))
+        if ((rowIndex == null) || (rowIndex.isStale(fileStore)))
         {
-            while (scanner.hasNext())
+            try
             {
-                scanner.nextLine();
-                rowCount ++;
+                rowIndex = CSVFileRowIndex.build(fileStore);
             }
-
-            if ((rowCount > 0) && (columnNames == null))
+            catch (IOException  error)
             {
-                rowCount = rowCount - 1;
+                throw new FileReadException(CSVFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
+                                                                                                                   error.getMessage()),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            error,
+                                            fileStoreName);
             }
         }
-        catch (IOException  error)
+
+        return rowIndex;
+    }
+
+
+    /**
+     * Return the number of records in the file.  The file is scanned the first time this is called and again
+     * only when the file changes.
+     *
+     * @return count
+     * @throws FileException problem accessing the file
+     * @throws FileReadException unable to find, open or scan the file.
+     */
+    public long     getRecordCount() throws FileException, FileReadException
+    {
+        final String  methodName = "getRecordCount";
+
+        long rowCount = getRowIndex(methodName).getRowCount();
+
+        if ((rowCount > 0) && (columnNames == null))
         {
-            throw new FileReadException(CSVFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
-                                                                                                               error.getMessage()),
-                                        this.getClass().getName(),
-                                        methodName,
-                                        error,
-                                        fileStoreName);
+            rowCount = rowCount - 1;
         }
 
         return rowCount;
@@ -221,43 +240,94 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
 
 
     /**
-     * Return the requested row in the file.  The first record is record 0.
+     * Return a batch of consecutive data records.  The file is opened once for the batch and the records are
+     * read in order, so calling this method repeatedly with successive start record numbers streams through
+     * the file.  The first record is record 0.  If the first line of the file is the column names then record 0
+     * is the line following the column names.
      *
-     * @param recordLocation long
-     * @param methodName name of calling method
-     * @return List of strings, each string is the value from the column.
+     * @param startRecordNumber first record to return
+     * @param maximumRecords maximum number of records to return
+     * @return list of records, each a list of column values.  The list is empty if startRecordNumber is
+     *         beyond the end of the file.
      * @throws FileException problem accessing the file
-     * @throws FileReadException unable to find, open or read the file, or the file does not include the requested record.
+     * @throws FileReadException unable to find, open or read the file, or the record numbers are negative.
      */
-    private List<String>      readRow(int     recordLocation,
-                                      String  methodName) throws FileException, FileReadException
+    public List<List<String>> readRecords(int  startRecordNumber,
+                                          int  maximumRecords) throws FileException, FileReadException
     {
+        final String  methodName = "readRecords";
+
+        if ((startRecordNumber < 0) || (maximumRecords < 0))
+        {
+            throw new FileReadException(CSVFileConnectorErrorCode.NEGATIVE_RECORD_NUMBER.getMessageDefinition(Integer.toString(startRecordNumber),
+                                                                                                              Integer.toString(maximumRecords),
+                                                                                                              fileStoreName),
+                                        this.getClass().getName(),
+                                        methodName,
+                                        fileStoreName);
+        }
 
-        File fileStore = super.getFile(methodName);
+        CSVFileRowIndex index    = getRowIndex(methodName);
+        int             startRow = startRecordNumber;
 
-        try (Scanner scanner = new Scanner(fileStore))
+        if (columnNames == null)
         {
+            startRow = startRow + 1;
+        }
 
-            int rowCounter = 0;
-            while (scanner.hasNext())
+        int                endRow  = (int)Math.min((long)startRow + maximumRecords, index.getRowCount());
+        List<List<String>> records = new ArrayList<>();
+
+        if (startRow < endRow)
+        {
+            try (CSVFileRowIndex.RowReader reader = index.openReader())
             {
-                if (rowCounter == recordLocation)
-                {
-                    return parseRecord(scanner.nextLine());
-                }
-                else
+                for (int row = startRow; row < endRow; row ++)
                 {
-                    scanner.nextLine();
+                    records.add(parseRecord(reader.readRow(row)));
                 }
-                rowCounter ++;
             }
+            catch (IOException  error)
+            {
+                throw new FileReadException(CSVFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
+                                                                                                                   error.getMessage()),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            error,
+                                            fileStoreName);
+            }
+        }
 
+        return records;
+    }
+
+
+    /**
+     * Return the requested row in the file.  The first record is record 0.
+     *
+     * @param recordLocation long
+     * @param methodName name of calling method
+     * @return List of strings, each string is the value from the column.
+     * @throws FileException problem accessing the file
+     * @throws FileReadException unable to find, open or read the file, or the file does not include the requested record.
+     */
+    private List<String>      readRow(int     recordLocation,
+                                      String  methodName) throws FileException, FileReadException
+    {
+        CSVFileRowIndex index = getRowIndex(methodName);
+
+        if ((recordLocation < 0) || (recordLocation >= index.getRowCount()))
+        {
             throw new FileReadException(CSVFileConnectorErrorCode.FILE_TOO_SHORT.getMessageDefinition(fileStoreName,
                                                                                                       Integer.toString(recordLocation)),
                                         this.getClass().getName(),
                                         methodName,
                                         fileStoreName);
+        }
 
+        try (CSVFileRowIndex.RowReader reader = index.openReader())
+        {
+            return parseRecord(reader.readRow(recordLocation));
         }
         catch (IOException  error)
         {
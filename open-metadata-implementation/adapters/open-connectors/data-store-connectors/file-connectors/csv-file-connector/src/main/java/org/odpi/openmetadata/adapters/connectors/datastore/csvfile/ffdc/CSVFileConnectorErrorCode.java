@@ -43,6 +43,10 @@ public enum CSVFileConnectorErrorCode implements ExceptionMessageSet
             "File {0} does not have {1} rows",
             "The connector is unable to retrieve the requested record because the file is too short.",
             "Ensure the record number requested is within the size of the file.  Method getRecordCount will provide information on the number of data records in the file"),
+    NEGATIVE_RECORD_NUMBER(400, "CSV-FILE-CONNECTOR-400-005",
+            "The start record number {0} and maximum number of records {1} requested from file {2} must not be negative",
+            "The connector is unable to retrieve the requested records because the request does not describe a valid range of records.",
+            "Correct the calling code so that the start record number and maximum number of records are zero or greater."),
     FILE_NOT_FOUND(404, "CSV-FILE-CONNECTOR-404-001",
              "The file named {0} in the Connection object {1} does not exist",
              "The connector is unable to open the structure file.",
@@ -10,8 +10,12 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorTyp
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -101,6 +105,25 @@ public class CSVFileStoreConnectorTest
             assertTrue(columnNames.size() == columns.size());
         }
 
+        /*
+         * Stream through the file in batches and check that each record matches the record read on its own.
+         */
+        int recordNumber = 0;
+        List<List<String>> batch = connector.readRecords(recordNumber, 4);
+
+        while (! batch.isEmpty())
+        {
+            for (List<String> columns : batch)
+            {
+                assertEquals(columns, connector.readRecord(recordNumber));
+                recordNumber ++;
+            }
+
+            batch = connector.readRecords(recordNumber, 4);
+        }
+
+        assertEquals(recordNumber, connector.getRecordCount());
+
         try
         {
             connector.readRecord(10000);
@@ -206,6 +229,47 @@ public class CSVFileStoreConnectorTest
         }
     }
 
+    @Test public void testChangedFile() throws Exception
+    {
+        File                  file      = File.createTempFile("CSVFileStoreConnectorTest", ".csv");
+        CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+        try
+        {
+            Files.write(file.toPath(), "Id,Name\r\n1,One\r\n2,Two\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+
+            connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+            connector.start();
+
+            assertEquals(connector.getRecordCount(), 2);
+            assertEquals(connector.readRecord(1), Arrays.asList("2", "Two"));
+
+            try
+            {
+                connector.readRecords(-1, 10);
+                assertTrue(false);
+            }
+            catch (FileReadException error)
+            {
+                assertTrue(error.getReportedErrorMessageId().equals("CSV-FILE-CONNECTOR-400-005"));
+            }
+
+            Files.write(file.toPath(), "Id,Name\n1,One\n2,Two\n3,Three".getBytes(StandardCharsets.UTF_8));
+
+            assertEquals(connector.getRecordCount(), 3);
+            assertEquals(connector.readRecord(2), Arrays.asList("3", "Three"));
+            assertEquals(connector.readRecords(1, 10).size(), 2);
+            assertTrue(connector.readRecords(3, 10).isEmpty());
+
+            connector.disconnect();
+        }
+        finally
+        {
+            assertTrue(file.delete());
+        }
+    }
+
+
     @Test public void testNullFileName()
     {
         CSVFileStoreConnector connector = new CSVFileStoreConnector();
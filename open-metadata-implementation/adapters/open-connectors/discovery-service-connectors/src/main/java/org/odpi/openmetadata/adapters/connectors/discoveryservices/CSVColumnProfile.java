@@ -0,0 +1,559 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.discoveryservices;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+
+/**
+ * CSVColumnProfile accumulates the profile of the values in one column of a CSV file.  The memory it uses
+ * is fixed, however many values are added, and two profiles of the same column built from different parts
+ * of the file can be merged.
+ * <p>
+ * Empty values are counted as nulls.  The data type is the most specific of boolean, int, long, float,
+ * date (ISO yyyy-MM-dd), char and string that matches every other value.  The minimum, maximum and average
+ * of an int or long column are calculated from the exact values rather than their nearest doubles.
+ */
+class CSVColumnProfile
+{
+    final static String STRING_TYPE_NAME  = "string";
+    final static String CHAR_TYPE_NAME    = "char";
+    final static String DATE_TYPE_NAME    = "date";
+    final static String INT_TYPE_NAME     = "int";
+    final static String LONG_TYPE_NAME    = "long";
+    final static String BOOLEAN_TYPE_NAME = "boolean";
+    final static String FLOAT_TYPE_NAME   = "float";
+
+    private final static String BOOLEAN_UC_TRUE  = "TRUE";
+    private final static String BOOLEAN_LC_TRUE  = "true";
+    private final static String BOOLEAN_UC_FALSE = "FALSE";
+    private final static String BOOLEAN_LC_FALSE = "false";
+
+    private final HyperLogLogSketch   distinctValues = new HyperLogLogSketch();
+    private final FrequentValueSketch frequentValues;
+
+    private long    valueCount    = 0;
+    private long    nullCount     = 0;
+    private long    totalLength   = 0;
+    private int     minimumLength = Integer.MAX_VALUE;
+    private int     maximumLength = 0;
+    private String  minimumValue  = null;
+    private String  maximumValue  = null;
+
+    /*
+     * Numeric statistics are only meaningful if every value is a number.  Whole numbers are also kept
+     * as longs since a double can not hold every long exactly.  The total of the whole numbers is kept in a
+     * long until it overflows, when it is moved to integerOverflowTotal.
+     */
+    private double     minimumNumber        = Double.POSITIVE_INFINITY;
+    private double     maximumNumber        = Double.NEGATIVE_INFINITY;
+    private double     numberTotal          = 0;
+    private long       minimumInteger       = Long.MAX_VALUE;
+    private long       maximumInteger       = Long.MIN_VALUE;
+    private long       integerTotal         = 0;
+    private BigInteger integerOverflowTotal = BigInteger.ZERO;
+
+    private boolean allBoolean    = true;
+    private boolean allInt        = true;
+    private boolean allLong       = true;
+    private boolean allFloat      = true;
+    private boolean allDate       = true;
+    private boolean allChar       = true;
+
+
+    /**
+     * Constructor.
+     *
+     * @param frequentValueCapacity number of counters used to track the most frequent values
+     */
+    CSVColumnProfile(int frequentValueCapacity)
+    {
+        this.frequentValues = new FrequentValueSketch(frequentValueCapacity);
+    }
+
+
+    /**
+     * Add a value from the column.
+     *
+     * @param value field value
+     */
+    void add(String value)
+    {
+        if ((value == null) || (value.isEmpty()))
+        {
+            nullCount++;
+            return;
+        }
+
+        valueCount++;
+
+        int length = value.length();
+
+        totalLength = totalLength + length;
+        minimumLength = Math.min(minimumLength, length);
+        maximumLength = Math.max(maximumLength, length);
+
+        if ((minimumValue == null) || (value.compareTo(minimumValue) < 0))
+        {
+            minimumValue = value;
+        }
+
+        if ((maximumValue == null) || (value.compareTo(maximumValue) > 0))
+        {
+            maximumValue = value;
+        }
+
+        distinctValues.add(value);
+        frequentValues.add(value);
+
+        this.inferType(value);
+    }
+
+
+    /**
+     * Update the type flags and numeric statistics with a new value.  Each test is skipped once a value
+     * has failed it.
+     *
+     * @param value non-empty field value
+     */
+    private void inferType(String value)
+    {
+        allChar = allChar && (value.length() == 1);
+
+        allBoolean = allBoolean && ((BOOLEAN_LC_TRUE.equals(value)) ||
+                                    (BOOLEAN_UC_TRUE.equals(value)) ||
+                                    (BOOLEAN_LC_FALSE.equals(value)) ||
+                                    (BOOLEAN_UC_FALSE.equals(value)));
+
+        if (allDate)
+        {
+            allDate = isDate(value);
+        }
+
+        if (allFloat)
+        {
+            double number;
+
+            if ((allLong) && (isInteger(value)))
+            {
+                try
+                {
+                    long longValue = Long.parseLong(value);
+
+                    allInt = allInt && (longValue >= Integer.MIN_VALUE) && (longValue <= Integer.MAX_VALUE);
+                    number = longValue;
+
+                    this.addInteger(longValue);
+                }
+                catch (NumberFormatException tooLarge)
+                {
+                    allInt = false;
+                    allLong = false;
+                    number = Double.parseDouble(value);
+                }
+            }
+            else
+            {
+                allInt = false;
+                allLong = false;
+
+                if (! isDecimal(value))
+                {
+                    allFloat = false;
+                    return;
+                }
+
+                try
+                {
+                    number = Double.parseDouble(value);
+                }
+                catch (NumberFormatException notANumber)
+                {
+                    allFloat = false;
+                    return;
+                }
+            }
+
+            minimumNumber = Math.min(minimumNumber, number);
+            maximumNumber = Math.max(maximumNumber, number);
+            numberTotal = numberTotal + number;
+        }
+        else
+        {
+            allInt = false;
+            allLong = false;
+        }
+    }
+
+
+    /**
+     * Update the statistics for whole numbers with a new value.
+     *
+     * @param value value that fits in a long
+     */
+    private void addInteger(long value)
+    {
+        minimumInteger = Math.min(minimumInteger, value);
+        maximumInteger = Math.max(maximumInteger, value);
+
+        this.addIntegerTotal(value);
+    }
+
+
+    /**
+     * Add to the total of the whole numbers.
+     *
+     * @param value amount to add
+     */
+    private void addIntegerTotal(long value)
+    {
+        try
+        {
+            integerTotal = Math.addExact(integerTotal, value);
+        }
+        catch (ArithmeticException overflow)
+        {
+            integerOverflowTotal = integerOverflowTotal.add(BigInteger.valueOf(integerTotal));
+            integerTotal = value;
+        }
+    }
+
+
+    /**
+     * Return whether the value is an optionally signed string of digits.
+     *
+     * @param value field value
+     * @return boolean flag
+     */
+    private static boolean isInteger(String value)
+    {
+        int start = ((value.charAt(0) == '-') || (value.charAt(0) == '+')) ? 1 : 0;
+
+        if (start == value.length())
+        {
+            return false;
+        }
+
+        for (int index = start; index < value.length(); index++)
+        {
+            if ((value.charAt(index) < '0') || (value.charAt(index) > '9'))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return whether the value only contains the characters of a decimal number and at least one digit.
+     * This avoids the cost of a failed parse for most non-numeric values.
+     *
+     * @param value field value
+     * @return boolean flag
+     */
+    private static boolean isDecimal(String value)
+    {
+        boolean hasDigit = false;
+
+        for (int index = 0; index < value.length(); index++)
+        {
+            char character = value.charAt(index);
+
+            if ((character >= '0') && (character <= '9'))
+            {
+                hasDigit = true;
+            }
+            else if ((character != '.') && (character != '-') && (character != '+') && (character != 'e') && (character != 'E'))
+            {
+                return false;
+            }
+        }
+
+        return hasDigit;
+    }
+
+
+    /**
+     * Return whether the value is an ISO date (yyyy-MM-dd).
+     *
+     * @param value field value
+     * @return boolean flag
+     */
+    private static boolean isDate(String value)
+    {
+        if ((value.length() != 10) || (value.charAt(4) != '-') || (value.charAt(7) != '-'))
+        {
+            return false;
+        }
+
+        try
+        {
+            LocalDate.parse(value);
+
+            return true;
+        }
+        catch (DateTimeParseException notADate)
+        {
+            return false;
+        }
+    }
+
+
+    /**
+     * Combine the profile of another part of the same column into this profile.
+     *
+     * @param other profile to merge
+     */
+    void merge(CSVColumnProfile other)
+    {
+        distinctValues.merge(other.distinctValues);
+        frequentValues.merge(other.frequentValues);
+
+        valueCount = valueCount + other.valueCount;
+        nullCount = nullCount + other.nullCount;
+        totalLength = totalLength + other.totalLength;
+        minimumLength = Math.min(minimumLength, other.minimumLength);
+        maximumLength = Math.max(maximumLength, other.maximumLength);
+
+        if ((other.minimumValue != null) && ((minimumValue == null) || (other.minimumValue.compareTo(minimumValue) < 0)))
+        {
+            minimumValue = other.minimumValue;
+        }
+
+        if ((other.maximumValue != null) && ((maximumValue == null) || (other.maximumValue.compareTo(maximumValue) > 0)))
+        {
+            maximumValue = other.maximumValue;
+        }
+
+        minimumNumber = Math.min(minimumNumber, other.minimumNumber);
+        maximumNumber = Math.max(maximumNumber, other.maximumNumber);
+        numberTotal = numberTotal + other.numberTotal;
+        minimumInteger = Math.min(minimumInteger, other.minimumInteger);
+        maximumInteger = Math.max(maximumInteger, other.maximumInteger);
+        integerOverflowTotal = integerOverflowTotal.add(other.integerOverflowTotal);
+        this.addIntegerTotal(other.integerTotal);
+
+        allBoolean = allBoolean && other.allBoolean;
+        allInt = allInt && other.allInt;
+        allLong = allLong && other.allLong;
+        allFloat = allFloat && other.allFloat;
+        allDate = allDate && other.allDate;
+        allChar = allChar && other.allChar;
+    }
+
+
+    /**
+     * Return the most specific data type that matches all of the values.
+     *
+     * @return type name
+     */
+    String getInferredDataType()
+    {
+        if (valueCount == 0)
+        {
+            return STRING_TYPE_NAME;
+        }
+        else if (allBoolean)
+        {
+            return BOOLEAN_TYPE_NAME;
+        }
+        else if (allInt)
+        {
+            return INT_TYPE_NAME;
+        }
+        else if (allLong)
+        {
+            return LONG_TYPE_NAME;
+        }
+        else if (allFloat)
+        {
+            return FLOAT_TYPE_NAME;
+        }
+        else if (allDate)
+        {
+            return DATE_TYPE_NAME;
+        }
+        else if (allChar)
+        {
+            return CHAR_TYPE_NAME;
+        }
+
+        return STRING_TYPE_NAME;
+    }
+
+
+    /**
+     * Return whether the values are all numbers.
+     *
+     * @return boolean flag
+     */
+    boolean isNumeric()
+    {
+        return (valueCount > 0) && (allFloat);
+    }
+
+
+    /**
+     * Return the number of non-empty values.
+     *
+     * @return count
+     */
+    long getValueCount()
+    {
+        return valueCount;
+    }
+
+
+    /**
+     * Return the number of empty values.
+     *
+     * @return count
+     */
+    long getNullCount()
+    {
+        return nullCount;
+    }
+
+
+    /**
+     * Return the number of distinct non-empty values.  This is exact if isDistinctValueCountExact returns true.
+     *
+     * @return count
+     */
+    long getDistinctValueCount()
+    {
+        if (frequentValues.isExact())
+        {
+            return frequentValues.getTrackedValueCount();
+        }
+
+        return distinctValues.getEstimate();
+    }
+
+
+    /**
+     * Return whether the distinct value count and the counts of the most frequent values are exact.
+     * This is the case when the number of distinct values fits within the frequent value counters.
+     *
+     * @return boolean flag
+     */
+    boolean isDistinctValueCountExact()
+    {
+        return frequentValues.isExact();
+    }
+
+
+    /**
+     * Return the most frequent values and their counts, most frequent first.  Unless the counts are exact,
+     * each count is a lower bound.
+     *
+     * @param maximumValues maximum number of values to return
+     * @return map of value to count
+     */
+    Map<String, Long> getTopValues(int maximumValues)
+    {
+        return frequentValues.getTopValues(maximumValues);
+    }
+
+
+    /**
+     * Return the total number of characters in the non-empty values.
+     *
+     * @return count
+     */
+    long getTotalLength()
+    {
+        return totalLength;
+    }
+
+
+    /**
+     * Return the length of the shortest non-empty value.
+     *
+     * @return length
+     */
+    int getMinimumLength()
+    {
+        return (valueCount == 0) ? 0 : minimumLength;
+    }
+
+
+    /**
+     * Return the length of the longest value.
+     *
+     * @return length
+     */
+    int getMaximumLength()
+    {
+        return maximumLength;
+    }
+
+
+    /**
+     * Return the lowest value.  Numbers are compared numerically and other values alphabetically.
+     *
+     * @return formatted value or null if there are no values
+     */
+    String getMinimumValue()
+    {
+        if ((this.isNumeric()) && (allLong))
+        {
+            return Long.toString(minimumInteger);
+        }
+        else if (this.isNumeric())
+        {
+            return Double.toString(minimumNumber);
+        }
+
+        return minimumValue;
+    }
+
+
+    /**
+     * Return the highest value.  Numbers are compared numerically and other values alphabetically.
+     *
+     * @return formatted value or null if there are no values
+     */
+    String getMaximumValue()
+    {
+        if ((this.isNumeric()) && (allLong))
+        {
+            return Long.toString(maximumInteger);
+        }
+        else if (this.isNumeric())
+        {
+            return Double.toString(maximumNumber);
+        }
+
+        return maximumValue;
+    }
+
+
+    /**
+     * Return the average of a numeric column.
+     *
+     * @return formatted average or null if the column is not numeric
+     */
+    String getAverageValue()
+    {
+        if ((this.isNumeric()) && (allLong))
+        {
+            BigDecimal total = new BigDecimal(integerOverflowTotal.add(BigInteger.valueOf(integerTotal)));
+
+            return Double.toString(total.divide(BigDecimal.valueOf(valueCount), MathContext.DECIMAL64).doubleValue());
+        }
+        else if (this.isNumeric())
+        {
+            return Double.toString(numberTotal / valueCount);
+        }
+
+        return null;
+    }
+}
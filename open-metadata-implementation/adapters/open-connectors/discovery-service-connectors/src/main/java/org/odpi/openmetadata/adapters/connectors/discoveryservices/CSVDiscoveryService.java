@@ -9,130 +9,114 @@ import org.odpi.openmetadata.frameworks.discovery.properties.*;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 
 /**
  * CSVDiscoveryService is a discovery service implementation for analysing CSV Files to
- * discovery columns and profile the data in them.
+ * discovery columns and profile the data in them.  Each column is profiled with fixed size sketches
+ * (see CSVColumnProfile) so large files can be profiled without holding their values in memory.
  */
 public class CSVDiscoveryService extends AuditableDiscoveryService
 {
-    private final static String STRING_TYPE_NAME  = "string";
-    private final static String CHAR_TYPE_NAME    = "char";
-    private final static String DATE_TYPE_NAME    = "date";
-    private final static String INT_TYPE_NAME     = "int";
-    private final static String LONG_TYPE_NAME    = "long";
-    private final static String BOOLEAN_TYPE_NAME = "boolean";
-    private final static String FLOAT_TYPE_NAME   = "float";
-    private final static String BOOLEAN_UC_TRUE   = "TRUE";
-    private final static String BOOLEAN_LC_TRUE   = "true";
-    private final static String BOOLEAN_UC_FALSE  = "FALSE";
-    private final static String BOOLEAN_LC_FALSE  = "false";
+    /*
+     * The number of counters used to find the most frequent values of a column, as a multiple of the
+     * number of values reported.  More counters give more accurate counts.
+     */
+    private final static int FREQUENT_VALUE_CAPACITY_MULTIPLIER = 10;
 
+    private final static String VALUE_COUNT_NAME          = "valueCount";
+    private final static String NULL_COUNT_NAME           = "nullCount";
+    private final static String DISTINCT_VALUE_COUNT_NAME = "distinctValueCount";
+    private final static String MINIMUM_LENGTH_NAME       = "minimumLength";
+    private final static String MAXIMUM_LENGTH_NAME       = "maximumLength";
+    private final static String COUNTS_ARE_EXACT_NAME     = "distinctValueCountsAreExact";
 
 
     /**
-     * Return the best guess for the data field type.
+     * Return the value of a numeric configuration property.
      *
-     * @param existingType current type guess
-     * @param newFieldValue next field value to process
-     * @return new best guess
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
      */
-    private String getDataFieldType(String  existingType, String newFieldValue)
+    private int getIntProperty(String propertyName,
+                               int    defaultValue)
     {
-        if (STRING_TYPE_NAME.equals(existingType))
-        {
-            return STRING_TYPE_NAME;
-        }
-
-        if (newFieldValue == null)
+        if ((connectionProperties != null) && (connectionProperties.getConfigurationProperties() != null))
         {
-            return existingType;
-        }
-
-        if ((BOOLEAN_LC_TRUE.equals(newFieldValue)) ||
-            (BOOLEAN_UC_TRUE.equals(newFieldValue)) ||
-            (BOOLEAN_LC_FALSE.equals(newFieldValue)) ||
-            (BOOLEAN_UC_FALSE.equals(newFieldValue)))
+            Object propertyValue = connectionProperties.getConfigurationProperties().get(propertyName);
 
-        {
-            if ((existingType == null) || (existingType.equals(BOOLEAN_TYPE_NAME)))
+            if (propertyValue instanceof Number)
             {
-                return BOOLEAN_TYPE_NAME;
+                return ((Number)propertyValue).intValue();
             }
-            else
+            else if (propertyValue != null)
             {
-                return STRING_TYPE_NAME;
+                try
+                {
+                    return Integer.parseInt(propertyValue.toString());
+                }
+                catch (NumberFormatException badValue)
+                {
+                    return defaultValue;
+                }
             }
         }
-        return STRING_TYPE_NAME;
+
+        return defaultValue;
     }
 
 
     /**
-     * Return the updated value count for this column.
+     * Build the data profile annotation for a column.
      *
-     * @param existingValueCount current value count
-     * @param newFieldValue next field value to process
-     * @return new value count
+     * @param columnProfile profile of the column's values
+     * @param topValueCount number of most frequent values to report
+     * @return annotation
      */
-    private Map<String, Integer> getValueCount(Map<String, Integer> existingValueCount, String newFieldValue)
+    private DataProfileAnnotation getDataProfile(CSVColumnProfile columnProfile,
+                                                 int              topValueCount)
     {
-        if (existingValueCount == null)
-        {
-            Map<String, Integer> newValueCount = new HashMap<>();
-
-            newValueCount.put(newFieldValue, 1);
-
-            return newValueCount;
-        }
-
-        Integer   countForValue = existingValueCount.get(newFieldValue);
+        DataProfileAnnotation dataProfile = new DataProfileAnnotation();
+        Map<String, Integer>  valueCount  = new LinkedHashMap<>();
 
-        if (countForValue == null)
+        for (Map.Entry<String, Long> topValue : columnProfile.getTopValues(topValueCount).entrySet())
         {
-            existingValueCount.put(newFieldValue, 1);
-        }
-        else
-        {
-            existingValueCount.put(newFieldValue, countForValue + 1);
+            valueCount.put(topValue.getKey(), (int)Math.min(topValue.getValue(), Integer.MAX_VALUE));
         }
 
-        return existingValueCount;
-    }
+        Map<String, Long> profileCounts = new HashMap<>();
 
+        profileCounts.put(VALUE_COUNT_NAME, columnProfile.getValueCount());
+        profileCounts.put(NULL_COUNT_NAME, columnProfile.getNullCount());
+        profileCounts.put(DISTINCT_VALUE_COUNT_NAME, columnProfile.getDistinctValueCount());
+        profileCounts.put(MINIMUM_LENGTH_NAME, (long)columnProfile.getMinimumLength());
+        profileCounts.put(MAXIMUM_LENGTH_NAME, (long)columnProfile.getMaximumLength());
 
-    /**
-     * Return the updated value list.
-     *
-     * @param existingValueList existing value list
-     * @param newFieldValue next field value to process
-     * @return updated value list
-     */
-    private List<String> getValueList(List<String> existingValueList, String newFieldValue)
-    {
-        if (existingValueList == null)
-        {
-            List<String> newValueList = new ArrayList<>();
-
-            newValueList.add(newFieldValue);
+        Map<String, Boolean> profileFlags = new HashMap<>();
 
-            return newValueList;
-        }
+        profileFlags.put(COUNTS_ARE_EXACT_NAME, columnProfile.isDistinctValueCountExact());
 
-        if (! existingValueList.contains(newFieldValue))
-        {
-            existingValueList.add(newFieldValue);
-        }
+        dataProfile.setInferredDataType(columnProfile.getInferredDataType());
+        dataProfile.setInferredLength(columnProfile.getMaximumLength());
+        dataProfile.setValueCount(valueCount);
+        dataProfile.setValueList(new ArrayList<>(valueCount.keySet()));
+        dataProfile.setValueRangeFrom(columnProfile.getMinimumValue());
+        dataProfile.setValueRangeTo(columnProfile.getMaximumValue());
+        dataProfile.setAverageValue(columnProfile.getAverageValue());
+        dataProfile.setProfileCounts(profileCounts);
+        dataProfile.setProfileFlags(profileFlags);
 
-        return existingValueList;
+        return dataProfile;
     }
 
 
     /**
      * Indicates that the discovery service is completely configured and can begin processing.
+     * The file is read once, in parallel, and a profile annotation is added for each column.
      *
      * @throws ConnectorCheckedException there is a problem within the discovery service.
      */
@@ -147,9 +131,18 @@ public class CSVDiscoveryService extends AuditableDiscoveryService
         {
             CSVFileStoreConnector    assetConnector  = (CSVFileStoreConnector)discoveryContext.getAssetStore().getConnectorToAsset();
             DiscoveryAnnotationStore annotationStore = discoveryContext.getAnnotationStore();
-            int                      size            = 0;
+            long                     size            = 0;
             int                      delimiterCount  = 0;
             long                     recordCount     = assetConnector.getRecordCount();
+            int                      topValueCount   = getIntProperty(CSVDiscoveryServiceProvider.topValueCountProperty,
+                                                                      CSVDiscoveryServiceProvider.defaultTopValueCount);
+            int                      parallelism     = getIntProperty(CSVDiscoveryServiceProvider.parallelismProperty,
+                                                                      CSVDiscoveryServiceProvider.defaultParallelism);
+
+            if (parallelism <= 0)
+            {
+                parallelism = Runtime.getRuntime().availableProcessors();
+            }
 
             SchemaAnalysisAnnotation  schemaAnnotation      = new SchemaAnalysisAnnotation();
 
@@ -159,9 +152,8 @@ public class CSVDiscoveryService extends AuditableDiscoveryService
 
             String schemaAnnotationGUID = annotationStore.addAnnotationToDiscoveryReport(schemaAnnotation);
 
-            List<String>                        columnNames = assetConnector.getColumnNames();
-            Map<Integer, DataField>             dataFields  = new HashMap<>();
-            Map<Integer, DataProfileAnnotation> dataProfiles  = new HashMap<>();
+            List<String>     columnNames = assetConnector.getColumnNames();
+            List<DataField>  dataFields  = new ArrayList<>();
 
             if (columnNames != null)
             {
@@ -175,11 +167,7 @@ public class CSVDiscoveryService extends AuditableDiscoveryService
 
                         dataField.setDataFieldPosition(position);
                         dataField.setDataFieldName(columnName);
-                        dataFields.put(position, dataField);
-
-                        DataProfileAnnotation dataProfile = new DataProfileAnnotation();
-
-                        dataProfiles.put(position, dataProfile);
+                        dataFields.add(dataField);
 
                         size = size + columnName.length();
                         position++;
@@ -193,39 +181,25 @@ public class CSVDiscoveryService extends AuditableDiscoveryService
 
                 size = size + delimiterCount;
 
-                for (int recordNumber=0; recordNumber < recordCount ; recordNumber++)
-                {
-                    List<String>  recordValues = assetConnector.readRecord(recordNumber);
-
-                    if ((recordValues != null) && (! recordValues.isEmpty()))
-                    {
-                        int columnPosition = 0;
-                        int recordLength = 0;
-
-                        for (String fieldValue : recordValues)
-                        {
-                            DataField             dataField   = dataFields.get(columnPosition);
-                            DataProfileAnnotation dataProfile = dataProfiles.get(columnPosition);
-
-                            dataField.setDataFieldType(this.getDataFieldType(dataField.getDataFieldType(), fieldValue));
+                CSVFileProfiler        profiler       = new CSVFileProfiler(assetConnector,
+                                                                            dataFields.size(),
+                                                                            Math.max(topValueCount, 1) * FREQUENT_VALUE_CAPACITY_MULTIPLIER,
+                                                                            parallelism);
+                List<CSVColumnProfile> columnProfiles = profiler.profileRecords((int)recordCount);
 
-                            dataProfile.setValueCount(this.getValueCount(dataProfile.getValueCount(), fieldValue));
-                            dataProfile.setValueList(this.getValueList(dataProfile.getValueList(), fieldValue));
+                size = size + recordCount * delimiterCount;
 
-                            recordLength = recordLength + fieldValue.length();
+                for (int columnNumber = 0 ; columnNumber < dataFields.size(); columnNumber++)
+                {
+                    DataField        dataField     = dataFields.get(columnNumber);
+                    CSVColumnProfile columnProfile = columnProfiles.get(columnNumber);
 
-                            columnPosition++;
-                        }
+                    dataField.setDataFieldType(columnProfile.getInferredDataType());
+                    size = size + columnProfile.getTotalLength();
 
-                        size = size + recordLength + delimiterCount;
-                    }
-                }
-
-                for (int columnNumber=0 ; columnNumber < columnNames.size(); columnNumber++)
-                {
-                    String  dataFieldGUID = annotationStore.addDataFieldToDiscoveryReport(schemaAnnotationGUID, dataFields.get(columnNumber));
+                    String  dataFieldGUID = annotationStore.addDataFieldToDiscoveryReport(schemaAnnotationGUID, dataField);
 
-                    annotationStore.addAnnotationToDataField(dataFieldGUID, dataProfiles.get(columnNumber));
+                    annotationStore.addAnnotationToDataField(dataFieldGUID, this.getDataProfile(columnProfile, topValueCount));
                 }
             }
 
@@ -237,7 +211,7 @@ public class CSVDiscoveryService extends AuditableDiscoveryService
 
             measurementAnnotation.setModifiedTime(assetConnector.getLastUpdateDate());
             measurementAnnotation.setDataSourceProperties(measurementProperties);
-            measurementAnnotation.setSize(size);
+            measurementAnnotation.setSize((int)Math.min(size, Integer.MAX_VALUE));
 
             annotationStore.addAnnotationToDiscoveryReport(measurementAnnotation);
         }
@@ -5,6 +5,9 @@ package org.odpi.openmetadata.adapters.connectors.discoveryservices;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
 import org.odpi.openmetadata.frameworks.discovery.DiscoveryServiceProvider;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * CSVDiscoveryServiceProvider provides the connector provider for the CSV Discovery Service
  */
@@ -14,6 +17,18 @@ public class CSVDiscoveryServiceProvider extends DiscoveryServiceProvider
     static final String  connectorTypeName = "CSV Discovery Service Connector";
     static final String  connectorTypeDescription = "Connector supports the discovery of metadata about a CSV file.";
 
+    /**
+     * Configuration property for the number of most frequent values reported for each column.
+     */
+    public static final String topValueCountProperty = "topValueCount";
+    public static final int    defaultTopValueCount  = 20;
+
+    /**
+     * Configuration property for the number of threads used to profile the file.  Zero means one per processor.
+     */
+    public static final String parallelismProperty   = "parallelism";
+    public static final int    defaultParallelism    = 0;
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * OMRS Connector implementation.
@@ -34,6 +49,11 @@ public class CSVDiscoveryServiceProvider extends DiscoveryServiceProvider
         connectorType.setDescription(connectorTypeDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
 
+        List<String> recognizedConfigurationProperties = new ArrayList<>();
+        recognizedConfigurationProperties.add(topValueCountProperty);
+        recognizedConfigurationProperties.add(parallelismProperty);
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
+
         super.connectorTypeBean = connectorType;
     }
 }
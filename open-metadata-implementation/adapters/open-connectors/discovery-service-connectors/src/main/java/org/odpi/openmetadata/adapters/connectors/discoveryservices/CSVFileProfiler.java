@@ -0,0 +1,199 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.discoveryservices;
+
+import org.odpi.openmetadata.adapters.connectors.datastore.csvfile.CSVFileStoreConnector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * CSVFileProfiler profiles the columns of a CSV file in a single pass.  The records are divided into ranges
+ * that are profiled in parallel on a fork/join pool.  The CSV file connector's row index means each range
+ * starts on a line boundary and is read without scanning the records before it.  The profiles of the
+ * ranges are merged as the tasks complete.
+ * <p>
+ * Each task reads its records in batches and keeps one fixed size profile per column, so the memory used
+ * depends on the number of columns and the degree of parallelism rather than the number of records.
+ */
+class CSVFileProfiler
+{
+    private static final int batchSize             = 1000;
+    private static final int minimumRecordsPerTask = 10000;
+    private static final int tasksPerThread        = 4;
+
+    private final CSVFileStoreConnector assetConnector;
+    private final int                   columnCount;
+    private final int                   frequentValueCapacity;
+    private final int                   parallelism;
+
+
+    /**
+     * Constructor.
+     *
+     * @param assetConnector connector to the CSV file
+     * @param columnCount number of columns to profile
+     * @param frequentValueCapacity number of counters used to track the most frequent values of each column
+     * @param parallelism number of threads used to read the file
+     */
+    CSVFileProfiler(CSVFileStoreConnector assetConnector,
+                    int                   columnCount,
+                    int                   frequentValueCapacity,
+                    int                   parallelism)
+    {
+        this.assetConnector = assetConnector;
+        this.columnCount = columnCount;
+        this.frequentValueCapacity = frequentValueCapacity;
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+
+    /**
+     * Profile the data records of the file.
+     *
+     * @param recordCount number of data records in the file
+     * @return one profile per column
+     * @throws Exception problem reading the file
+     */
+    List<CSVColumnProfile> profileRecords(int recordCount) throws Exception
+    {
+        int          splitSize = Math.max(minimumRecordsPerTask, recordCount / (parallelism * tasksPerThread));
+        ForkJoinPool pool      = new ForkJoinPool(parallelism);
+
+        try
+        {
+            return pool.invoke(new ProfileTask(0, recordCount, splitSize));
+        }
+        catch (CompletionException error)
+        {
+            /*
+             * The pool may wrap the exception from another thread in a further CompletionException.
+             */
+            Throwable cause = error.getCause();
+
+            while (cause instanceof CompletionException)
+            {
+                cause = cause.getCause();
+            }
+
+            if (cause instanceof Exception)
+            {
+                throw (Exception)cause;
+            }
+
+            throw error;
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+
+    /**
+     * Return a new profile for each column.
+     *
+     * @return list of empty profiles
+     */
+    private List<CSVColumnProfile> getEmptyProfiles()
+    {
+        List<CSVColumnProfile> columnProfiles = new ArrayList<>(columnCount);
+
+        for (int columnNumber = 0; columnNumber < columnCount; columnNumber++)
+        {
+            columnProfiles.add(new CSVColumnProfile(frequentValueCapacity));
+        }
+
+        return columnProfiles;
+    }
+
+
+    /**
+     * ProfileTask profiles a range of records, dividing it into two tasks if it is too large.
+     */
+    private class ProfileTask extends RecursiveTask<List<CSVColumnProfile>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int startRecord;
+        private final int endRecord;
+        private final int splitSize;
+
+
+        /**
+         * Constructor.
+         *
+         * @param startRecord first record in the range
+         * @param endRecord record after the last one in the range
+         * @param splitSize largest range that is profiled without dividing it
+         */
+        ProfileTask(int startRecord,
+                    int endRecord,
+                    int splitSize)
+        {
+            this.startRecord = startRecord;
+            this.endRecord = endRecord;
+            this.splitSize = splitSize;
+        }
+
+
+        /**
+         * Profile the range.
+         *
+         * @return one profile per column
+         */
+        @Override
+        protected List<CSVColumnProfile> compute()
+        {
+            if (endRecord - startRecord > splitSize)
+            {
+                int         midRecord = startRecord + (endRecord - startRecord) / 2;
+                ProfileTask firstHalf = new ProfileTask(startRecord, midRecord, splitSize);
+
+                firstHalf.fork();
+
+                List<CSVColumnProfile> columnProfiles    = new ProfileTask(midRecord, endRecord, splitSize).compute();
+                List<CSVColumnProfile> firstHalfProfiles = firstHalf.join();
+
+                for (int columnNumber = 0; columnNumber < columnCount; columnNumber++)
+                {
+                    firstHalfProfiles.get(columnNumber).merge(columnProfiles.get(columnNumber));
+                }
+
+                return firstHalfProfiles;
+            }
+
+            List<CSVColumnProfile> columnProfiles = getEmptyProfiles();
+
+            try
+            {
+                for (int batchStart = startRecord; batchStart < endRecord; batchStart = batchStart + batchSize)
+                {
+                    for (List<String> recordValues : assetConnector.readRecords(batchStart, Math.min(batchSize, endRecord - batchStart)))
+                    {
+                        if (recordValues != null)
+                        {
+                            /*
+                             * A record with missing trailing columns has null values for those columns.
+                             */
+                            for (int columnNumber = 0; columnNumber < columnCount; columnNumber++)
+                            {
+                                columnProfiles.get(columnNumber).add((columnNumber < recordValues.size()) ? recordValues.get(columnNumber) : null);
+                            }
+                        }
+                    }
+                }
+            }
+            catch (Exception error)
+            {
+                throw new CompletionException(error);
+            }
+
+            return columnProfiles;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.discoveryservices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * FrequentValueSketch tracks the most frequent values added to it using a fixed number of counters
+ * (the Misra-Gries summary).  While there are fewer distinct values than counters, the counts are exact.
+ * After that, each count may be lower than the true count by at most the total number of decrements, which is
+ * no more than the number of values added divided by the number of counters.  Two sketches can be merged to
+ * give the summary of the combined values.
+ */
+class FrequentValueSketch
+{
+    private final int               capacity;
+    private final Map<String, Long> counters       = new HashMap<>();
+    private long                    decrementTotal = 0;
+
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of counters
+     */
+    FrequentValueSketch(int capacity)
+    {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+
+    /**
+     * Add a value to the sketch.
+     *
+     * @param value value to add
+     */
+    void add(String value)
+    {
+        Long count = counters.get(value);
+
+        if (count != null)
+        {
+            counters.put(value, count + 1);
+        }
+        else if (counters.size() < capacity)
+        {
+            counters.put(value, 1L);
+        }
+        else
+        {
+            /*
+             * The new value and one occurrence of every tracked value cancel out.
+             */
+            this.subtractFromAll(1);
+        }
+    }
+
+
+    /**
+     * Combine the values from another sketch into this one.
+     *
+     * @param other sketch to merge
+     */
+    void merge(FrequentValueSketch other)
+    {
+        for (Map.Entry<String, Long> counter : other.counters.entrySet())
+        {
+            counters.merge(counter.getKey(), counter.getValue(), Long::sum);
+        }
+
+        decrementTotal = decrementTotal + other.decrementTotal;
+
+        if (counters.size() > capacity)
+        {
+            long[] counts = new long[counters.size()];
+            int    index  = 0;
+
+            for (long count : counters.values())
+            {
+                counts[index++] = count;
+            }
+
+            Arrays.sort(counts);
+
+            /*
+             * Subtracting the count that is just outside the capacity leaves at most capacity counters.
+             */
+            this.subtractFromAll(counts[counts.length - capacity - 1]);
+        }
+    }
+
+
+    /**
+     * Reduce every counter by the same amount and remove the counters that reach zero.
+     *
+     * @param amount amount to subtract
+     */
+    private void subtractFromAll(long amount)
+    {
+        Iterator<Map.Entry<String, Long>> iterator = counters.entrySet().iterator();
+
+        while (iterator.hasNext())
+        {
+            Map.Entry<String, Long> counter = iterator.next();
+            long                    count   = counter.getValue() - amount;
+
+            if (count > 0)
+            {
+                counter.setValue(count);
+            }
+            else
+            {
+                iterator.remove();
+            }
+        }
+
+        decrementTotal = decrementTotal + amount;
+    }
+
+
+    /**
+     * Return whether the counts are exact because no counter has ever been reduced.
+     *
+     * @return boolean flag
+     */
+    boolean isExact()
+    {
+        return decrementTotal == 0;
+    }
+
+
+    /**
+     * Return the number of values being tracked.  If the sketch is exact, this is the number of distinct
+     * values added.
+     *
+     * @return count
+     */
+    int getTrackedValueCount()
+    {
+        return counters.size();
+    }
+
+
+    /**
+     * Return the most frequent values with their counts, most frequent first.
+     *
+     * @param maximumValues maximum number of values to return
+     * @return map of value to count in descending order of count
+     */
+    Map<String, Long> getTopValues(int maximumValues)
+    {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counters.entrySet());
+
+        entries.sort((entry1, entry2) ->
+                     {
+                         int result = Long.compare(entry2.getValue(), entry1.getValue());
+
+                         if (result == 0)
+                         {
+                             result = entry1.getKey().compareTo(entry2.getKey());
+                         }
+
+                         return result;
+                     });
+
+        Map<String, Long> topValues = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Long> entry : entries)
+        {
+            if (topValues.size() == maximumValues)
+            {
+                break;
+            }
+
+            topValues.put(entry.getKey(), entry.getValue());
+        }
+
+        return topValues;
+    }
+}
@@ -0,0 +1,116 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.discoveryservices;
+
+
+/**
+ * HyperLogLogSketch estimates the number of distinct values added to it using a fixed amount of memory
+ * (4096 single byte registers).  The standard error of the estimate is about 1.6%.  Small counts are
+ * estimated with linear counting, which is close to exact.  Two sketches can be merged to give the
+ * estimate for the combined values.
+ */
+class HyperLogLogSketch
+{
+    private static final int    precision     = 12;
+    private static final int    registerCount = 1 << precision;
+    private static final double alpha         = 0.7213 / (1.0 + 1.079 / registerCount);
+
+    private final byte[] registers = new byte[registerCount];
+
+
+    /**
+     * Add a value to the sketch.
+     *
+     * @param value value to add
+     */
+    void add(String value)
+    {
+        long hash          = hash(value);
+        int  registerIndex = (int)(hash >>> (Long.SIZE - precision));
+
+        /*
+         * The guard bit limits the rank to the number of bits left after the register index.
+         */
+        byte rank = (byte)(Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+
+        if (rank > registers[registerIndex])
+        {
+            registers[registerIndex] = rank;
+        }
+    }
+
+
+    /**
+     * Combine the values from another sketch into this one.
+     *
+     * @param other sketch to merge
+     */
+    void merge(HyperLogLogSketch other)
+    {
+        for (int registerIndex = 0; registerIndex < registerCount; registerIndex++)
+        {
+            if (other.registers[registerIndex] > registers[registerIndex])
+            {
+                registers[registerIndex] = other.registers[registerIndex];
+            }
+        }
+    }
+
+
+    /**
+     * Return the estimated number of distinct values added to the sketch.
+     *
+     * @return estimate
+     */
+    long getEstimate()
+    {
+        double sum           = 0;
+        int    zeroRegisters = 0;
+
+        for (byte register : registers)
+        {
+            sum = sum + 1.0 / (1L << register);
+
+            if (register == 0)
+            {
+                zeroRegisters++;
+            }
+        }
+
+        double estimate = alpha * registerCount * registerCount / sum;
+
+        if ((estimate <= 2.5 * registerCount) && (zeroRegisters > 0))
+        {
+            estimate = registerCount * Math.log((double)registerCount / zeroRegisters);
+        }
+
+        return Math.round(estimate);
+    }
+
+
+    /**
+     * Return a well mixed 64 bit hash of a string.  The characters are combined with FNV-1a and the result
+     * finished with the MurmurHash3 64 bit mixer.
+     *
+     * @param value string to hash
+     * @return hash code
+     */
+    private static long hash(String value)
+    {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int index = 0; index < value.length(); index++)
+        {
+            hash = hash ^ value.charAt(index);
+            hash = hash * 0x100000001b3L;
+        }
+
+        hash = hash ^ (hash >>> 33);
+        hash = hash * 0xff51afd7ed558ccdL;
+        hash = hash ^ (hash >>> 33);
+        hash = hash * 0xc4ceb93fe53a87e3L;
+        hash = hash ^ (hash >>> 33);
+
+        return hash;
+    }
+}
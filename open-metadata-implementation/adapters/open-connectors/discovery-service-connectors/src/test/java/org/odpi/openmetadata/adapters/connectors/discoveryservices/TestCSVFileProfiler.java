@@ -0,0 +1,233 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.discoveryservices;
+
+import org.odpi.openmetadata.adapters.connectors.datastore.csvfile.CSVFileStoreConnector;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.testng.annotations.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that CSVFileProfiler produces the same profile in parallel as the values would give if profiled
+ * one by one, and that the sketches stay within their expected error.
+ */
+public class TestCSVFileProfiler
+{
+    private static final int recordCount = 100000;
+
+
+    /**
+     * Profile a file that is large enough to be divided between several tasks.
+     *
+     * @throws Exception problem with the test
+     */
+    @Test public void testProfileRecords() throws Exception
+    {
+        File file = File.createTempFile("TestCSVFileProfiler", ".csv");
+
+        try
+        {
+            try (BufferedWriter writer = Files.newBufferedWriter(file.toPath()))
+            {
+                writer.write("Id,Flag,Colour,Amount,Day,Note");
+                writer.newLine();
+
+                for (int recordNumber = 0; recordNumber < recordCount; recordNumber++)
+                {
+                    String colour = (recordNumber % 10 < 6) ? "red" : (recordNumber % 10 < 9) ? "green" : "blue";
+
+                    writer.write(recordNumber + "," +
+                                 (recordNumber % 2 == 0) + "," +
+                                 colour + "," +
+                                 (recordNumber % 100) + ".5," +
+                                 "2020-01-" + String.format("%02d", recordNumber % 28 + 1) + "," +
+                                 ((recordNumber % 4 == 0) ? "" : "n" + recordNumber));
+                    writer.newLine();
+                }
+            }
+
+            Endpoint endpoint = new Endpoint();
+
+            endpoint.setAddress(file.getPath());
+
+            Connection connection = new Connection();
+
+            connection.setEndpoint(endpoint);
+
+            CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+            connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+            connector.start();
+
+            assertEquals(connector.getRecordCount(), recordCount);
+
+            List<CSVColumnProfile> columnProfiles = new CSVFileProfiler(connector, 6, 100, 4).profileRecords(recordCount);
+
+            connector.disconnect();
+
+            CSVColumnProfile idProfile = columnProfiles.get(0);
+
+            assertEquals(idProfile.getInferredDataType(), CSVColumnProfile.INT_TYPE_NAME);
+            assertEquals(idProfile.getValueCount(), recordCount);
+            assertEquals(idProfile.getMinimumValue(), "0");
+            assertEquals(idProfile.getMaximumValue(), Integer.toString(recordCount - 1));
+            assertFalse(idProfile.isDistinctValueCountExact());
+            assertTrue(Math.abs(idProfile.getDistinctValueCount() - recordCount) < recordCount * 0.05);
+
+            assertEquals(columnProfiles.get(1).getInferredDataType(), CSVColumnProfile.BOOLEAN_TYPE_NAME);
+
+            CSVColumnProfile colourProfile = columnProfiles.get(2);
+
+            assertEquals(colourProfile.getInferredDataType(), CSVColumnProfile.STRING_TYPE_NAME);
+            assertTrue(colourProfile.isDistinctValueCountExact());
+            assertEquals(colourProfile.getDistinctValueCount(), 3);
+
+            Map<String, Long> topValues = colourProfile.getTopValues(2);
+
+            assertEquals(topValues.size(), 2);
+            assertEquals(topValues.keySet().iterator().next(), "red");
+            assertEquals((long)topValues.get("red"), recordCount * 6 / 10);
+            assertEquals((long)topValues.get("green"), recordCount * 3 / 10);
+
+            CSVColumnProfile amountProfile = columnProfiles.get(3);
+
+            assertEquals(amountProfile.getInferredDataType(), CSVColumnProfile.FLOAT_TYPE_NAME);
+            assertEquals(amountProfile.getMinimumValue(), "0.5");
+            assertEquals(amountProfile.getMaximumValue(), "99.5");
+            assertEquals(amountProfile.getAverageValue(), "50.0");
+
+            assertEquals(columnProfiles.get(4).getInferredDataType(), CSVColumnProfile.DATE_TYPE_NAME);
+
+            CSVColumnProfile noteProfile = columnProfiles.get(5);
+
+            assertEquals(noteProfile.getNullCount(), recordCount / 4);
+            assertEquals(noteProfile.getValueCount(), recordCount - recordCount / 4);
+        }
+        finally
+        {
+            assertTrue(file.delete());
+        }
+    }
+
+
+    /**
+     * Check that records with missing trailing columns count as nulls for those columns.
+     *
+     * @throws Exception problem with the test
+     */
+    @Test public void testMissingTrailingColumns() throws Exception
+    {
+        File file = File.createTempFile("TestCSVFileProfiler", ".csv");
+
+        try
+        {
+            try (BufferedWriter writer = Files.newBufferedWriter(file.toPath()))
+            {
+                writer.write("Id,Name,Note");
+                writer.newLine();
+                writer.write("1,one,first");
+                writer.newLine();
+                writer.write("2,two");
+                writer.newLine();
+                writer.write("3");
+                writer.newLine();
+            }
+
+            Endpoint endpoint = new Endpoint();
+
+            endpoint.setAddress(file.getPath());
+
+            Connection connection = new Connection();
+
+            connection.setEndpoint(endpoint);
+
+            CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+            connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+            connector.start();
+
+            List<CSVColumnProfile> columnProfiles = new CSVFileProfiler(connector, 3, 100, 1).profileRecords(3);
+
+            connector.disconnect();
+
+            assertEquals(columnProfiles.get(0).getNullCount(), 0);
+            assertEquals(columnProfiles.get(1).getValueCount(), 2);
+            assertEquals(columnProfiles.get(1).getNullCount(), 1);
+            assertEquals(columnProfiles.get(2).getValueCount(), 1);
+            assertEquals(columnProfiles.get(2).getNullCount(), 2);
+        }
+        finally
+        {
+            assertTrue(file.delete());
+        }
+    }
+
+
+    /**
+     * Check that whole numbers too large for a double to hold exactly keep their values, including when
+     * profiles are merged and the total overflows a long.
+     */
+    @Test public void testLargeIntegers()
+    {
+        CSVColumnProfile firstProfile  = new CSVColumnProfile(10);
+        CSVColumnProfile secondProfile = new CSVColumnProfile(10);
+
+        firstProfile.add("9007199254740993");
+        firstProfile.add(Long.toString(Long.MAX_VALUE));
+        secondProfile.add(Long.toString(Long.MAX_VALUE - 1));
+        secondProfile.add("-9007199254740993");
+
+        firstProfile.merge(secondProfile);
+
+        assertEquals(firstProfile.getInferredDataType(), CSVColumnProfile.LONG_TYPE_NAME);
+        assertEquals(firstProfile.getMinimumValue(), "-9007199254740993");
+        assertEquals(firstProfile.getMaximumValue(), Long.toString(Long.MAX_VALUE));
+        assertEquals(firstProfile.getAverageValue(), Double.toString((Long.MAX_VALUE * 2.0 - 1) / 4));
+
+        CSVColumnProfile smallProfile = new CSVColumnProfile(10);
+
+        smallProfile.add("1");
+        smallProfile.add("2");
+
+        assertEquals(smallProfile.getAverageValue(), "1.5");
+    }
+
+
+    /**
+     * Check that the frequent value counts stay within the Misra-Gries error bound when the values are
+     * spread across two merged sketches.
+     */
+    @Test public void testFrequentValueMerge()
+    {
+        FrequentValueSketch firstSketch  = new FrequentValueSketch(10);
+        FrequentValueSketch secondSketch = new FrequentValueSketch(10);
+
+        for (int valueNumber = 0; valueNumber < 10000; valueNumber++)
+        {
+            FrequentValueSketch sketch = (valueNumber % 2 == 0) ? firstSketch : secondSketch;
+
+            sketch.add((valueNumber % 3 == 0) ? "common" : "rare" + valueNumber);
+        }
+
+        firstSketch.merge(secondSketch);
+
+        Map<String, Long> topValues = firstSketch.getTopValues(1);
+        long              count     = topValues.get("common");
+
+        assertTrue(count <= 3334);
+        assertTrue(count >= 3334 - 10000 / 11);
+        assertFalse(firstSketch.isExact());
+    }
+}
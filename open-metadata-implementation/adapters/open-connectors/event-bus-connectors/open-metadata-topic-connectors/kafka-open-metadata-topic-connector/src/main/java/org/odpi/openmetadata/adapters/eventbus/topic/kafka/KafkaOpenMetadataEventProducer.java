@@ -2,9 +2,12 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
 
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.errors.RetriableException;
 import org.apache.kafka.common.errors.WakeupException;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
@@ -12,12 +15,13 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedExceptio
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * KafkaOpenMetadataEventProducer manages the sending of events on Apache Kafka.  This is done through called to
@@ -26,22 +30,41 @@ import java.util.concurrent.TimeUnit;
  * Kafka is not always running.  When this occurs, the call to publish events hangs and this is disruptive to the
  * rest of the server.  So the role of this class is to manage the sending of events in a separate thread
  * and manage the logging of errors to alert the operations team that Kafka needs restarting.
+ * <p>
+ * By default, events are sent in pipelined mode.  Each event is handed to Kafka without waiting for the broker
+ * to acknowledge the previous one, so Kafka is able to batch events together.  The acknowledgements are
+ * picked up in a callback.  The number of unacknowledged events is bounded by the max_in_flight_sends property.
+ * Failed sends are retried by Kafka itself using an idempotent producer, so events are written to the topic
+ * once and in the order they were sent.
+ * If pipelined_sends is set to false, the producer waits for the broker to acknowledge each event before
+ * sending the next one.
  */
 public class KafkaOpenMetadataEventProducer implements Runnable {
     private static final Logger log = LoggerFactory.getLogger(KafkaOpenMetadataEventProducer.class);
-    private final List<String> sendBuffer = Collections.synchronizedList(new ArrayList<>());
+
+    /*
+     * An idempotent producer only keeps events in order if there are no more than 5 requests in flight.
+     */
+    private static final int MAX_IDEMPOTENT_IN_FLIGHT_REQUESTS = 5;
+
+    private final BlockingDeque<String> sendBuffer = new LinkedBlockingDeque<>();
     private final AuditLog auditLog;
     private final String topicName;
     private final String localServerId;
     private final Properties producerProperties;
+    private final boolean pipelinedSends;
+    private final int maxSendRetries;
+    private final long pollTimeout;
+    private final Semaphore inFlightSends;
     private volatile boolean running = true;
+    private volatile Exception pipelinedSendError = null;
     private Producer<String, String> producer = null;
-    private long messageSendCount = 0;
+    private final AtomicLong messageSendCount = new AtomicLong(0);
     private long kafkaSendAttemptCount = 0;
     private long messagePublishRequestCount = 0;
     private long inmemoryPutMessageCount = 0;
-    private long kafkaSendFailCount = 0;
-    private long messageFailedSendCount = 0;
+    private final AtomicLong kafkaSendFailCount = new AtomicLong(0);
+    private final AtomicLong messageFailedSendCount = new AtomicLong(0);
 
 
     /**
@@ -49,47 +72,140 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
      *
      * @param topicName          name of the topic to listen on.
      * @param localServerId      identifier to enable receiver to identify that an event came from this server.
-     * @param producerProperties properties for the consumer.
+     * @param producerConfig     configuration of the egeria producer.
+     * @param producerProperties properties for the producer.
      * @param auditLog           audit log for this component.
      */
-    KafkaOpenMetadataEventProducer(String topicName, String localServerId, Properties producerProperties,
+    KafkaOpenMetadataEventProducer(String topicName, String localServerId,
+                                   KafkaOpenMetadataEventProducerConfiguration producerConfig,
+                                   Properties producerProperties,
                                    AuditLog auditLog) {
         this.auditLog = auditLog;
         this.topicName = topicName;
         this.localServerId = localServerId;
-        this.producerProperties = producerProperties;
+        this.pipelinedSends = producerConfig.getBooleanProperty(KafkaOpenMetadataEventProducerProperty.PIPELINED_SENDS);
+        this.maxSendRetries = producerConfig.getIntProperty(KafkaOpenMetadataEventProducerProperty.MAX_SEND_RETRIES);
+        this.pollTimeout = producerConfig.getLongProperty(KafkaOpenMetadataEventProducerProperty.POLL_TIMEOUT);
+        this.inFlightSends = new Semaphore(Math.max(1, producerConfig.getIntProperty(KafkaOpenMetadataEventProducerProperty.MAX_IN_FLIGHT_SENDS)));
 
         final String           actionDescription = "new producer";
 
+        /*
+         * Batching only helps when sends are pipelined.  Explicit values for linger.ms and batch.size
+         * in the producer properties always take precedence.
+         */
+        this.producerProperties = new Properties();
+        this.producerProperties.putAll(producerProperties);
+        if (pipelinedSends) {
+            this.producerProperties.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG,
+                                                producerConfig.getProperty(KafkaOpenMetadataEventProducerProperty.LINGER_TIME));
+            this.producerProperties.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG,
+                                                producerConfig.getProperty(KafkaOpenMetadataEventProducerProperty.BATCH_SIZE));
+
+            /*
+             * Failed sends are retried by Kafka rather than put back in the send buffer, since an event sent again
+             * from the buffer would arrive after the events sent while it was failing.  An idempotent producer
+             * retries without duplicating or reordering events.  It requires acks=all, so any other configured acks
+             * value is replaced and reported.  If idempotence is turned off in the producer properties, the configured
+             * acks value is kept and only one request may be in flight to keep the events in order.
+             */
+            this.producerProperties.putIfAbsent(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+            if (Boolean.parseBoolean(this.producerProperties.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG).toString())) {
+                Object acks = this.producerProperties.get(ProducerConfig.ACKS_CONFIG);
+
+                if ((acks != null) && (! "all".equals(acks.toString().trim())) && (! "-1".equals(acks.toString().trim()))) {
+                    if (auditLog != null) {
+                        auditLog.logMessage(actionDescription,
+                                            KafkaOpenMetadataTopicConnectorAuditCode.PRODUCER_ACKS_OVERRIDDEN.getMessageDefinition(
+                                                    acks.toString(), topicName));
+                    } else {
+                        log.warn("Replacing acks={} with acks=all for the idempotent producer on topic {}", acks, topicName);
+                    }
+                }
+                this.producerProperties.put(ProducerConfig.ACKS_CONFIG, "all");
+                this.limitProducerProperty(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, MAX_IDEMPOTENT_IN_FLIGHT_REQUESTS);
+            } else {
+                this.limitProducerProperty(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
+            }
+            if (getIntProducerProperty(ProducerConfig.RETRIES_CONFIG, 0) < maxSendRetries) {
+                this.producerProperties.put(ProducerConfig.RETRIES_CONFIG, Integer.toString(maxSendRetries));
+            }
+        } else {
+            this.producerProperties.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, "0");
+            this.producerProperties.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, "16384");
+        }
+
         if (auditLog != null) {
             auditLog.logMessage(actionDescription,
                                 KafkaOpenMetadataTopicConnectorAuditCode.SERVICE_PRODUCER_PROPERTIES.getMessageDefinition(
-                                        Integer.toString(producerProperties.size()), topicName),
-                                producerProperties.toString());
+                                        Integer.toString(this.producerProperties.size()), topicName),
+                                this.producerProperties.toString());
         }
     }
 
 
     /**
-     * Sends the supplied event to the topic.  It retries if Kafka is not responding.
+     * Return the value of an integer producer property.
      *
-     * @param event object containing the event properties.
-     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     * @param propertyName name of the property
+     * @param defaultValue value to return if the property is not set
+     * @return property value
      */
-    private void publishEvent(String event) throws ConnectorCheckedException {
-        final String methodName = "publishEvent";
-        final String messageFailedCountString = "Metrics: messageFailedSendCount {}";
+    private int getIntProducerProperty(String propertyName, int defaultValue) {
+        Object value = producerProperties.get(propertyName);
 
-        boolean eventSent = false;
-        long eventRetryCount = 0;
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return Integer.parseInt(value.toString().trim());
+    }
+
+
+    /**
+     * Set a producer property to the maximum value if it is not set or is set to a larger value.
+     *
+     * @param propertyName name of the property
+     * @param maximumValue largest value allowed
+     */
+    private void limitProducerProperty(String propertyName, int maximumValue) {
+        if (getIntProducerProperty(propertyName, Integer.MAX_VALUE) > maximumValue) {
+            producerProperties.put(propertyName, Integer.toString(maximumValue));
+        }
+    }
 
-        messagePublishRequestCount++;
-        log.debug("Metrics: messagePublishRequestCount {}", messagePublishRequestCount);
 
+    /**
+     * Return the properties used to create the Kafka producer.
+     *
+     * @return producer properties
+     */
+    Properties getProducerProperties() {
+        return producerProperties;
+    }
+
+
+    /**
+     * Create a new Kafka producer.
+     *
+     * @return producer
+     */
+    Producer<String, String> newKafkaProducer() {
+        return new KafkaProducer<>(producerProperties);
+    }
+
+
+    /**
+     * Create the Kafka producer if it does not exist.
+     *
+     * @param methodName calling method
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    private void createProducer(String methodName) throws ConnectorCheckedException {
         if (producer == null) {
             try {
                 log.debug("Creating new producer for topic {}", topicName);
-                producer = new KafkaProducer<>(producerProperties);
+                producer = newKafkaProducer();
             } catch (Exception error) {
                 if (auditLog != null) {
                     auditLog.logException(methodName,
@@ -102,6 +218,28 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
                                 error.getMessage()), this.getClass().getName(), methodName, error);
             }
         }
+    }
+
+
+    /**
+     * Sends the supplied event to the topic and waits for the broker to acknowledge it.
+     * It retries if Kafka is not responding.
+     *
+     * @param event object containing the event properties.
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    private void publishEvent(String event) throws ConnectorCheckedException {
+        final String methodName = "publishEvent";
+        final String messageFailedCountString = "Metrics: messageFailedSendCount {}";
+
+        boolean eventSent = false;
+        long eventRetryCount = 0;
+
+        messagePublishRequestCount++;
+        log.debug("Metrics: messagePublishRequestCount {}", messagePublishRequestCount);
+
+        this.createProducer(methodName);
+
         while (!eventSent) {
             try {
                 log.debug("Sending message try {} [0 based] : {}", eventRetryCount,event);
@@ -110,11 +248,9 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
                 log.debug("Metrics: kafkaSendAttemptCount {}", kafkaSendAttemptCount);
                 producer.send(producerRecord).get();
                 eventSent = true;
-                messageSendCount++;
-                log.debug("Metrics: messageSendCount {}", messageSendCount);
+                log.debug("Metrics: messageSendCount {}", messageSendCount.incrementAndGet());
             } catch (ExecutionException error) {
-                kafkaSendFailCount++;
-                log.debug("Metrics: kafkaSendFailCount {}", kafkaSendFailCount);
+                log.debug("Metrics: kafkaSendFailCount {}", kafkaSendFailCount.incrementAndGet());
                 /*
                  * This may be a simple timeout or something else more
                  */
@@ -128,20 +264,18 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
                     producer.close();
                     producer = null;
 
-                    messageFailedSendCount++;
-                    log.warn(messageFailedCountString, messageFailedSendCount);
+                    log.warn(messageFailedCountString, messageFailedSendCount.incrementAndGet());
 
                     throw new ConnectorCheckedException(
                             KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(
                                     error.getClass().getName(), topicName, error.getMessage()),
                             this.getClass().getName(), methodName, error);
                 }
-                if (eventRetryCount == 10) {
+                if (eventRetryCount == maxSendRetries) {
                     /* we've retried now let the caller retry */
                     producer.close();
                     producer = null;
-                    messageFailedSendCount++;
-                    log.warn(messageFailedCountString, messageFailedSendCount);
+                    log.warn(messageFailedCountString, messageFailedSendCount.incrementAndGet());
                     log.error("Retryable Exception closed producer after {} tries", eventRetryCount);
                     break;
                 } else {
@@ -150,7 +284,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
                         if (auditLog != null) {
                             auditLog.logMessage(methodName,
                                                 KafkaOpenMetadataTopicConnectorAuditCode.EVENT_SEND_IN_ERROR_LOOP.getMessageDefinition(
-                                                        topicName, Long.toString(messageSendCount),
+                                                        topicName, Long.toString(messageSendCount.get()),
                                                         Long.toString(this.getSendBufferSize()), error.getMessage()));
                         }
                     }
@@ -170,8 +304,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
                     Thread.currentThread().interrupt();
                 }
 
-                messageFailedSendCount++;
-                log.warn(messageFailedCountString, messageFailedSendCount);
+                log.warn(messageFailedCountString, messageFailedSendCount.incrementAndGet());
 
                 throw new ConnectorCheckedException(
                         KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(
@@ -183,6 +316,126 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
     }
 
 
+    /**
+     * Hands the supplied event to Kafka without waiting for the broker to acknowledge it.  The result is
+     * processed by a PipelinedSendCallback.  This method waits if the maximum number of events are
+     * already in flight.  If the event is not handed to Kafka, it is put back at the front of the send buffer
+     * so it is sent before the events that follow it.
+     *
+     * @param event event to send.
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     * @throws InterruptedException the thread was interrupted while waiting for an in-flight event to complete
+     */
+    private void publishEventPipelined(String event) throws ConnectorCheckedException, InterruptedException {
+        final String methodName = "publishEventPipelined";
+
+        messagePublishRequestCount++;
+        log.debug("Metrics: messagePublishRequestCount {}", messagePublishRequestCount);
+
+        boolean eventSent = false;
+
+        try {
+            this.checkPipelinedSendError(methodName);
+            this.createProducer(methodName);
+
+            inFlightSends.acquire();
+
+            try {
+                log.debug("Sending message : {}", event);
+                ProducerRecord<String, String> producerRecord = new ProducerRecord<>(topicName, localServerId, event);
+                kafkaSendAttemptCount++;
+                log.debug("Metrics: kafkaSendAttemptCount {}", kafkaSendAttemptCount);
+                producer.send(producerRecord, new PipelinedSendCallback(event));
+                eventSent = true;
+            } catch (Exception error) {
+                inFlightSends.release();
+
+                producer.close();
+                producer = null;
+                log.warn("Closed producer due to Exception in sendEvent {}", error.getMessage());
+
+                throw new ConnectorCheckedException(
+                        KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(
+                                error.getClass().getName(), topicName, error.getMessage()), this.getClass().getName(),
+                        methodName, error);
+            }
+        } finally {
+            if (!eventSent) {
+                sendBuffer.offerFirst(event);
+            }
+        }
+    }
+
+
+    /**
+     * Kafka calls the producer back on its own I/O thread, so an error that Kafka can not recover from is passed
+     * to the producer thread to close the producer and report it in the same way as a synchronous send.
+     *
+     * @param methodName calling method
+     * @throws ConnectorCheckedException a previous pipelined send failed with an error that is not retryable
+     */
+    private void checkPipelinedSendError(String methodName) throws ConnectorCheckedException {
+        Exception error = pipelinedSendError;
+
+        if (error != null) {
+            pipelinedSendError = null;
+
+            if (producer != null) {
+                producer.close();
+                producer = null;
+            }
+            log.debug("Exception not retryable, closed producer");
+
+            throw new ConnectorCheckedException(
+                    KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(
+                            error.getClass().getName(), topicName, error.getMessage()),
+                    this.getClass().getName(), methodName, error);
+        }
+    }
+
+
+    /**
+     * PipelinedSendCallback processes the acknowledgement from the broker for an event sent in pipelined mode.
+     * Kafka has already retried the send by the time an error is reported, so the event is not sent again.
+     */
+    private class PipelinedSendCallback implements Callback {
+        private final String event;
+
+        PipelinedSendCallback(String event) {
+            this.event = event;
+        }
+
+        @Override
+        public void onCompletion(RecordMetadata metadata, Exception error) {
+            final String methodName = "onCompletion";
+
+            inFlightSends.release();
+
+            if (error == null) {
+                log.debug("Metrics: messageSendCount {}", messageSendCount.incrementAndGet());
+                return;
+            }
+
+            log.debug("Metrics: kafkaSendFailCount {}", kafkaSendFailCount.incrementAndGet());
+            log.debug("Kafka had trouble sending event: {} : Exception  message is {}", event, error.getMessage());
+            log.warn("Metrics: messageFailedSendCount {}", messageFailedSendCount.incrementAndGet());
+
+            if (error instanceof RetriableException) {
+                log.error("Retryable Exception discarded event after {} retries", maxSendRetries);
+
+                if (auditLog != null) {
+                    auditLog.logMessage(methodName,
+                                        KafkaOpenMetadataTopicConnectorAuditCode.EVENT_SEND_IN_ERROR_LOOP.getMessageDefinition(
+                                                topicName, Long.toString(messageSendCount.get()),
+                                                Long.toString(getSendBufferSize()), error.getMessage()));
+                }
+            } else {
+                pipelinedSendError = error;
+            }
+        }
+    }
+
+
     /**
      * This is the method that provides the behaviour of the thread.
      */
@@ -204,24 +457,29 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
         }
 
         log.info("Main loop started for topic {}", topicName);
-        int sleepTime = 1000;
         while (isRunning()) {
             try {
-                String bufferedEvent = this.getEvent();
-
                 /*
-                 * If there are no events waiting then sleep
+                 * Wait for an event rather than sleeping so that new events are sent straight away.
                  */
-                if (bufferedEvent == null) {
-                    TimeUnit.MILLISECONDS.sleep(sleepTime);
+                String event = sendBuffer.poll(pollTimeout, TimeUnit.MILLISECONDS);
+
+                if (event == null) {
+                    if (pipelinedSends) {
+                        this.checkPipelinedSendError(actionDescription);
+                    }
                 } else {
                     log.debug("Processing buffered events");
                     /*
                      * Send all waiting events
                      */
-                    while (bufferedEvent != null) {
-                        publishEvent(bufferedEvent);
-                        bufferedEvent = this.getEvent();
+                    while (event != null) {
+                        if (pipelinedSends) {
+                            publishEventPipelined(event);
+                        } else {
+                            publishEvent(event);
+                        }
+                        event = sendBuffer.poll();
                     }
                 }
             } catch (InterruptedException error) {
@@ -242,9 +500,12 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
         }
         log.info("Exiting main loop for topic {} & cleaning up", topicName);
 
-        /* producer may have already closed by exception handler in publishEvent */
+        /*
+         * Producer may have already closed by exception handler in publishEvent.  Closing the producer waits
+         * for any pipelined events to be acknowledged.
+         */
         if (producer != null) {
-            log.debug("");
+            log.debug("Closing producer for topic {}", topicName);
             producer.close();
             producer = null;
         }
@@ -253,7 +514,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
             auditLog.logMessage(actionDescription,
                                 KafkaOpenMetadataTopicConnectorAuditCode.KAFKA_PRODUCER_SHUTDOWN.getMessageDefinition(
                                         topicName, Integer.toString(getSendBufferSize()),
-                                        Long.toString(messageSendCount)), this.producerProperties.toString());
+                                        Long.toString(messageSendCount.get())), this.producerProperties.toString());
         }
     }
 
@@ -267,7 +528,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
         inmemoryPutMessageCount++;
         log.debug("Metrics: inmemoryPutMessageCount {}", inmemoryPutMessageCount);
         log.debug("Metrics: sendBufferSize {}", sendBuffer.size());
-        sendBuffer.add(newEvent);
+        sendBuffer.offerLast(newEvent);
     }
 
 
@@ -276,25 +537,11 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
      *
      * @return int
      */
-    private int getSendBufferSize() {
+    int getSendBufferSize() {
         return sendBuffer.size();
     }
 
 
-    /**
-     * Returns all the events found on the in memory OMRS Topic.
-     *
-     * @return list of received events.
-     */
-    private String getEvent() {
-        if (sendBuffer.isEmpty()) {
-            return null;
-        }
-
-        return sendBuffer.remove(0);
-    }
-
-
     /**
      * Sends the supplied event to the topic.
      *
@@ -349,16 +596,15 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
     private boolean isExceptionRetryable(Exception error) {
 
         /*
-        This code would probably be more elegant if it used Throwables
-        however I don't want to add Throwabales to the search and I didn't want to cast
+         * Walk down the chain of causes looking for an exception that Kafka considers retryable.
          */
-        Throwable nested = null;
-        while ((nested = error.getCause()) != null) {
+        Throwable nested = error.getCause();
+        while (nested != null) {
             if (nested instanceof RetriableException) {
                 return true;
             }
 
-            error = new Exception(error.getCause());
+            nested = nested.getCause();
         }
         return false;
     }
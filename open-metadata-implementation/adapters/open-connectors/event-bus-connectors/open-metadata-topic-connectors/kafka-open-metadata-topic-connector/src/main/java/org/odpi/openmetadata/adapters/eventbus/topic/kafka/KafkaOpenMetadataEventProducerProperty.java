@@ -0,0 +1,72 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+/**
+ * Configurable properties for the KafkaOpenMetadataEventProducer
+ *
+ */
+public enum KafkaOpenMetadataEventProducerProperty
+{
+	/*
+	 * Controls whether events are sent in pipelined mode.  In pipelined mode, the producer
+	 * hands each event to Kafka and carries on with the next one.  The result of the send
+	 * is picked up in a callback.  If this is false, the producer waits for the broker to
+	 * acknowledge each event before sending the next one.
+	 */
+	PIPELINED_SENDS("pipelined_sends", "true"),
+
+	/*
+	 * The maximum number of events that have been handed to Kafka in pipelined mode
+	 * but are still waiting to be acknowledged by the broker.  When this number is reached,
+	 * the producer waits for an acknowledgement before sending more events.
+	 */
+	MAX_IN_FLIGHT_SENDS("max_in_flight_sends", "1000"),
+
+	/*
+	 * The value for the Kafka linger.ms property in pipelined mode.  This is the time (in ms)
+	 * that Kafka waits for more events to add to a batch before it is sent to the broker.
+	 * It is only used if linger.ms is not set in the producer properties.
+	 */
+	LINGER_TIME("linger_ms", "5"),
+
+	/*
+	 * The value for the Kafka batch.size property in pipelined mode.  This is the maximum
+	 * size (in bytes) of a batch of events sent to a partition in a single request.
+	 * It is only used if batch.size is not set in the producer properties.
+	 */
+	BATCH_SIZE("batch_size", "65536"),
+
+	/*
+	 * The time (in ms) that the producer waits for a new event to send before checking
+	 * whether it has been asked to shut down.
+	 */
+	POLL_TIMEOUT("poll_timeout_ms", "1000"),
+
+	/*
+	 * The number of times an event is sent again after Kafka reports an error that
+	 * it considers retryable.  After this, the event is discarded.  In pipelined mode
+	 * the retries are made by Kafka, and this is the lowest value used for the Kafka
+	 * retries property.
+	 */
+	MAX_SEND_RETRIES("max_send_retries", "10");
+
+	private final String propertyName;
+	private final String defaultValue;
+
+	KafkaOpenMetadataEventProducerProperty(String name, String defaultValue)
+	{
+		this.propertyName = name;
+		this.defaultValue = defaultValue;
+	}
+	
+	public String getPropertyName() {
+		return propertyName;
+	}
+	
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+
+}
@@ -15,10 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -39,6 +36,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
     
     private final Properties producerProperties = new Properties();
+    private final Properties producerEgeriaProperties = new Properties();
     private final Properties consumerEgeriaProperties = new Properties();
     private final Properties consumerProperties = new Properties();
 
@@ -49,9 +47,6 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     private String       topicName          = null;
     private String       serverId           = null;
 
-    /* this buffer is for consumed events */
-    private final List<IncomingEvent> incomingEventsList = Collections.synchronizedList(new ArrayList<>());
-
     private KafkaConsumerExecutor consumerExecutor = null;
     private KafkaProducerExecutor producerExecutor = null;
 
@@ -108,7 +103,8 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
      * Constructor sets up the default properties for the producer and consumer.  Any properties passed through
      * the connection's additional properties will override these values.  For most environments,
      * The caller only needs to provide details of the bootstrap servers as the default properties
-     * will support the open metadata workloads.
+     * will support the open metadata workloads.  The defaults for batch.size and linger.ms depend on
+     * whether the producer is pipelining its sends and so are set by the producer.
      */
     public KafkaOpenMetadataTopicConnector()
     {
@@ -117,8 +113,6 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         producerProperties.put("bootstrap.servers", "localhost:9092");
         producerProperties.put("acks", "all");
         producerProperties.put("retries", 1);
-        producerProperties.put("batch.size", 16384);
-        producerProperties.put("linger.ms", 0);
         producerProperties.put("buffer.memory", 33554432);
         producerProperties.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
         producerProperties.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
@@ -217,6 +211,9 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
             propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.producerPropertyName);
             copyProperties(propertiesObject, producerProperties);
 
+            propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.egeriaProducerPropertyName);
+            copyProperties(propertiesObject, producerEgeriaProperties);
+
             propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.consumerPropertyName);
             copyProperties(propertiesObject, consumerProperties);
             
@@ -322,7 +319,8 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
     private void initializeProducerAndProducerThread() {
 
-        producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerProperties, auditLog);
+        KafkaOpenMetadataEventProducerConfiguration producerConfig = new KafkaOpenMetadataEventProducerConfiguration(producerEgeriaProperties, auditLog);
+        producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerConfig, producerProperties, auditLog);
         producerThread = new Thread(producer, threadHeader + "Producer-" + topicName);
     }
 
@@ -343,31 +341,6 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
 
 
-    /**
-     * Look to see if there is one of more new events to process.
-     *
-     * @return a list of received events or null
-     */
-    @Override
-    protected List<IncomingEvent> checkForIncomingEvents()
-    {
-        List<IncomingEvent> newEvents = null;
-
-        // This method is called periodically from a independent thread managed by OpenMetadataTopic
-        // (superclass) so it should not block.
-
-        if ((incomingEventsList != null) && (!incomingEventsList.isEmpty()))
-        {
-            log.debug("Checking for events.  Number of found events: {}", incomingEventsList.size());
-            newEvents = new ArrayList<>(incomingEventsList);
-
-            // empty incomingEventsList otherwise same events will be sent again
-            incomingEventsList.removeAll(newEvents);
-        }
-
-        return newEvents;
-    }
-
     /**
      * Distribute events to other listeners.
      *
@@ -376,7 +349,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     void distributeToListeners(IncomingEvent event)
     {
         log.debug("distribute event to listeners" + event);
-        incomingEventsList.add(event);
+        super.pushIncomingEvent(event);
     }
 
 
@@ -447,12 +420,13 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
     
     /**
-     * Gets the number of events that have not been processed yet.
+     * Gets the number of events that have not been processed yet.  This includes the events waiting for
+     * the listener worker threads.
      * 
      * @return int
      */
     int getNumberOfUnprocessedEvents() {
-    	return incomingEventsList.size();
+    	return super.getUnprocessedEventCount();
     }
 
     private class KafkaStatusChecker {
@@ -141,6 +141,13 @@ public enum KafkaOpenMetadataTopicConnectorAuditCode implements AuditLogMessageS
             "Check the  Kafka error logs for related messages that could " +
                     "indicate the cause of this error.  Work to clear the underlying error.  " +
                     "Once fixed, it may be necessary to restart the server to cause a reconnect to Kafka."),
+
+    PRODUCER_ACKS_OVERRIDDEN("OCF-KAFKA-TOPIC-CONNECTOR-0020",
+            OMRSAuditLogRecordSeverity.ACTION,
+            "The acks value {0} in the Apache Kafka producer properties for topic {1} has been replaced by all because the producer is idempotent",
+            "An idempotent Kafka producer requires acks to be all.  The producer waits for every in-sync replica to acknowledge each event.",
+            "Remove acks from the producer properties or set it to all.  If the configured acks value is needed, " +
+                    "set enable.idempotence to false in the producer properties.  Events are then sent one request at a time to keep them in order."),
     ;
 
     private final AuditLogMessageDefinition messageDefinition;
@@ -0,0 +1,317 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogDestination;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
+import org.odpi.openmetadata.frameworks.auditlog.ComponentDevelopmentStatus;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate that the pipelined sends of KafkaOpenMetadataEventProducer leave the retries to an idempotent
+ * Kafka producer and do not lose or reorder events when a send fails.
+ */
+public class KafkaOpenMetadataEventProducerTest {
+    private static final String topicName = "testTopic";
+    private static final String serverId  = "testServer";
+
+
+    /**
+     * Create the Kafka producer properties set up by the topic connector.
+     *
+     * @return producer properties
+     */
+    private Properties getProducerProperties() {
+        Properties producerProperties = new Properties();
+
+        producerProperties.put("bootstrap.servers", "localhost:9092");
+        producerProperties.put("acks", "all");
+        producerProperties.put("retries", 1);
+
+        return producerProperties;
+    }
+
+
+    /**
+     * Create the producer properties with an extra property.
+     *
+     * @param propertyName name of the property
+     * @param propertyValue value of the property
+     * @return producer properties
+     */
+    private Properties getProducerPropertiesWith(String propertyName,
+                                                 String propertyValue) {
+        Properties producerProperties = getProducerProperties();
+
+        producerProperties.put(propertyName, propertyValue);
+
+        return producerProperties;
+    }
+
+
+    /**
+     * Create an event producer that sends events to a mock producer.
+     *
+     * @param egeriaProperties egeria producer properties
+     * @param mockProducer producer that receives the events
+     * @return event producer
+     */
+    private KafkaOpenMetadataEventProducer getEventProducer(Properties                   egeriaProperties,
+                                                            MockProducer<String, String> mockProducer) {
+        return new KafkaOpenMetadataEventProducer(topicName,
+                                                  serverId,
+                                                  new KafkaOpenMetadataEventProducerConfiguration(egeriaProperties, null),
+                                                  getProducerProperties(),
+                                                  null) {
+            @Override
+            Producer<String, String> newKafkaProducer() {
+                return mockProducer;
+            }
+        };
+    }
+
+
+    /**
+     * Return the events received by the mock producer.
+     *
+     * @param mockProducer producer
+     * @return events in the order they were sent
+     */
+    private List<String> getSentEvents(MockProducer<String, String> mockProducer) {
+        List<String> events = new ArrayList<>();
+
+        for (ProducerRecord<String, String> producerRecord : mockProducer.history()) {
+            events.add(producerRecord.value());
+        }
+
+        return events;
+    }
+
+
+    /**
+     * Wait for a condition to become true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + 10000L;
+
+        while ((! condition.getAsBoolean()) && (System.currentTimeMillis() < endTime)) {
+            Thread.sleep(10L);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+
+    @Test
+    public void testPipelinedSendsUseIdempotentProducer() {
+        KafkaOpenMetadataEventProducer eventProducer = getEventProducer(new Properties(), null);
+        Properties                     properties    = eventProducer.getProducerProperties();
+
+        assertEquals(properties.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG), "true");
+        assertEquals(properties.get(ProducerConfig.ACKS_CONFIG), "all");
+        assertEquals(properties.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION), "5");
+        assertEquals(properties.get(ProducerConfig.RETRIES_CONFIG),
+                     KafkaOpenMetadataEventProducerProperty.MAX_SEND_RETRIES.getDefaultValue());
+    }
+
+
+    @Test
+    public void testInFlightRequestsAreLimited() {
+        Properties egeriaProperties = new Properties();
+
+        egeriaProperties.put(KafkaOpenMetadataEventProducerProperty.MAX_SEND_RETRIES.getPropertyName(), "3");
+
+        KafkaOpenMetadataEventProducer eventProducer = new KafkaOpenMetadataEventProducer(topicName,
+                                                                                          serverId,
+                                                                                          new KafkaOpenMetadataEventProducerConfiguration(egeriaProperties, null),
+                                                                                          getProducerPropertiesWith(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "10"),
+                                                                                          null);
+        Properties properties = eventProducer.getProducerProperties();
+
+        assertEquals(properties.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION), "5");
+        assertEquals(properties.get(ProducerConfig.RETRIES_CONFIG), "3");
+
+        /*
+         * Without idempotence, only one request may be in flight to keep the events in order.
+         */
+        Properties producerProperties = getProducerPropertiesWith(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "false");
+
+        producerProperties.put(ProducerConfig.RETRIES_CONFIG, "20");
+
+        eventProducer = new KafkaOpenMetadataEventProducer(topicName,
+                                                           serverId,
+                                                           new KafkaOpenMetadataEventProducerConfiguration(egeriaProperties, null),
+                                                           producerProperties,
+                                                           null);
+        properties = eventProducer.getProducerProperties();
+
+        assertEquals(properties.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG), "false");
+        assertEquals(properties.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION), "1");
+        assertEquals(properties.get(ProducerConfig.RETRIES_CONFIG), "20");
+    }
+
+
+    @Test
+    public void testReplacedAcksIsReported() {
+        List<AuditLogRecord> logRecords = new ArrayList<>();
+        AuditLog             auditLog   = new AuditLog(new AuditLogDestination(null) {
+                                                           @Override
+                                                           public void addLogRecord(AuditLogRecord logRecord) {
+                                                               logRecords.add(logRecord);
+                                                           }
+                                                       },
+                                                       0,
+                                                       ComponentDevelopmentStatus.STABLE,
+                                                       "KafkaTest",
+                                                       "Kafka producer test",
+                                                       null);
+        String overriddenMessageId = KafkaOpenMetadataTopicConnectorAuditCode.PRODUCER_ACKS_OVERRIDDEN.getMessageDefinition().getMessageId();
+
+        KafkaOpenMetadataEventProducer eventProducer = new KafkaOpenMetadataEventProducer(topicName,
+                                                                                          serverId,
+                                                                                          new KafkaOpenMetadataEventProducerConfiguration(new Properties(), null),
+                                                                                          getProducerPropertiesWith(ProducerConfig.ACKS_CONFIG, "1"),
+                                                                                          auditLog);
+
+        assertEquals(eventProducer.getProducerProperties().get(ProducerConfig.ACKS_CONFIG), "all");
+        assertTrue(logRecords.stream().anyMatch(logRecord -> overriddenMessageId.equals(logRecord.getMessageId())));
+
+        /*
+         * Without idempotence the configured acks value is kept.
+         */
+        logRecords.clear();
+
+        Properties producerProperties = getProducerPropertiesWith(ProducerConfig.ACKS_CONFIG, "1");
+
+        producerProperties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "false");
+
+        eventProducer = new KafkaOpenMetadataEventProducer(topicName,
+                                                           serverId,
+                                                           new KafkaOpenMetadataEventProducerConfiguration(new Properties(), null),
+                                                           producerProperties,
+                                                           auditLog);
+
+        assertEquals(eventProducer.getProducerProperties().get(ProducerConfig.ACKS_CONFIG), "1");
+        assertFalse(logRecords.stream().anyMatch(logRecord -> overriddenMessageId.equals(logRecord.getMessageId())));
+    }
+
+
+    @Test
+    public void testSynchronousSendsAreUnchanged() {
+        Properties egeriaProperties = new Properties();
+
+        egeriaProperties.put(KafkaOpenMetadataEventProducerProperty.PIPELINED_SENDS.getPropertyName(), "false");
+
+        Properties properties = getEventProducer(egeriaProperties, null).getProducerProperties();
+
+        assertNull(properties.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertNull(properties.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
+        assertEquals(properties.get(ProducerConfig.RETRIES_CONFIG), 1);
+    }
+
+
+    @Test
+    public void testFailedSendsAreNotSentAgain() throws Exception {
+        Properties egeriaProperties = new Properties();
+
+        egeriaProperties.put(KafkaOpenMetadataEventProducerProperty.POLL_TIMEOUT.getPropertyName(), "50");
+
+        MockProducer<String, String>   mockProducer   = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        KafkaOpenMetadataEventProducer eventProducer  = getEventProducer(egeriaProperties, mockProducer);
+        Thread                         producerThread = new Thread(eventProducer);
+
+        producerThread.start();
+
+        try {
+            eventProducer.sendEvent("event1");
+            eventProducer.sendEvent("event2");
+            eventProducer.sendEvent("event3");
+
+            waitFor(() -> mockProducer.history().size() == 3);
+
+            /*
+             * Kafka has given up on the first event after its own retries.  Sending it again would put it
+             * after the events that followed it.
+             */
+            assertTrue(mockProducer.errorNext(new TimeoutException("test")));
+            assertTrue(mockProducer.completeNext());
+            assertTrue(mockProducer.completeNext());
+
+            eventProducer.sendEvent("event4");
+
+            waitFor(() -> mockProducer.history().size() == 4);
+            Thread.sleep(200L);
+
+            assertEquals(getSentEvents(mockProducer), Arrays.asList("event1", "event2", "event3", "event4"));
+            assertEquals(eventProducer.getSendBufferSize(), 0);
+            assertTrue(producerThread.isAlive());
+        } finally {
+            eventProducer.safeCloseProducer();
+            producerThread.join(10000L);
+        }
+
+        assertFalse(producerThread.isAlive());
+    }
+
+
+    @Test
+    public void testEventIsKeptWhenPreviousSendFailed() throws Exception {
+        Properties egeriaProperties = new Properties();
+
+        /*
+         * The producer thread is waiting for the next event when the error is reported.
+         */
+        egeriaProperties.put(KafkaOpenMetadataEventProducerProperty.POLL_TIMEOUT.getPropertyName(), "60000");
+
+        MockProducer<String, String>   mockProducer   = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        KafkaOpenMetadataEventProducer eventProducer  = getEventProducer(egeriaProperties, mockProducer);
+        Thread                         producerThread = new Thread(eventProducer);
+
+        producerThread.start();
+
+        try {
+            eventProducer.sendEvent("event1");
+
+            waitFor(() -> mockProducer.history().size() == 1);
+
+            assertTrue(mockProducer.errorNext(new RecordTooLargeException("test")));
+
+            /*
+             * The next event is taken from the buffer before the error is picked up.  It is not sent, and
+             * it is not lost.
+             */
+            eventProducer.sendEvent("event2");
+
+            producerThread.join(10000L);
+
+            assertFalse(producerThread.isAlive());
+            assertEquals(getSentEvents(mockProducer), Arrays.asList("event1"));
+            assertEquals(eventProducer.getSendBufferSize(), 1);
+        } finally {
+            eventProducer.safeCloseProducer();
+            producerThread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,680 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FileBasedAuditLogSegment is one of the files of the file based audit log.  Each line of the file is an
+ * audit log record in JSON format (NDJSON).  Records are only appended to the newest segment.  Once the segment
+ * is full it is sealed and a new segment is started.
+ * <p>
+ * The segment keeps an index of its records in memory.  It is rebuilt from the file when the connector starts.
+ * <ul>
+ *     <li>
+ *         The sparse time index divides the records into blocks of 64 records.  For each block it holds the file
+ *         offset of the first record and the earliest and latest time stamps in the block.  This means a query
+ *         only reads the blocks that overlap its time period.
+ *     </li>
+ *     <li>
+ *         The severity and component bitmaps have a bit set for each record with that severity or that was
+ *         logged by that component.  A query by severity or component only reads the records with the bit set and
+ *         can skip over the records before its offset without reading them.
+ *     </li>
+ *     <li>
+ *         The GUID index holds a hash of each record's unique identifier.  A lookup by unique identifier only
+ *         reads the records whose hash matches.
+ *     </li>
+ * </ul>
+ * Once a segment is sealed its index does not change, so it can be read without holding the connector's lock.
+ */
+class FileBasedAuditLogSegment
+{
+    private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogSegment.class);
+
+    private static final String segmentFilePrefix = "audit-log-segment-";
+    private static final String segmentFileSuffix = ".ndjson";
+    private static final int    blockSize         = 64;
+    private static final int    bufferSize        = 65536;
+
+    private final File segmentFile;
+    private final long sequenceNumber;
+    private final long creationTime;
+
+    private int  recordCount       = 0;
+    private long segmentSize       = 0;
+    private long earliestTimeStamp = Long.MAX_VALUE;
+    private long latestTimeStamp   = Long.MIN_VALUE;
+
+    private long[] blockOffsets       = new long[16];
+    private long[] blockEarliestTimes = new long[16];
+    private long[] blockLatestTimes   = new long[16];
+    private int[]  recordGUIDHashes   = new int[16 * blockSize];
+
+    private final Map<String, BitSet> severityBitmaps  = new HashMap<>();
+    private final Map<String, BitSet> componentBitmaps = new HashMap<>();
+
+    private OutputStream     outputStream = null;
+    private volatile boolean deleted      = false;
+
+
+    /**
+     * Constructor
+     *
+     * @param segmentFile file holding the records
+     * @param sequenceNumber position of the segment in the audit log
+     * @param creationTime time that the segment was started
+     */
+    private FileBasedAuditLogSegment(File segmentFile,
+                                     long sequenceNumber,
+                                     long creationTime)
+    {
+        this.segmentFile = segmentFile;
+        this.sequenceNumber = sequenceNumber;
+        this.creationTime = creationTime;
+    }
+
+
+    /**
+     * Return the sequence number of a segment from its file name.
+     *
+     * @param fileName name of a file in the audit log directory
+     * @return sequence number or -1 if the file is not a segment
+     */
+    static long getSequenceNumber(String fileName)
+    {
+        if ((fileName != null) && (fileName.startsWith(segmentFilePrefix)) && (fileName.endsWith(segmentFileSuffix)))
+        {
+            try
+            {
+                return Long.parseLong(fileName.substring(segmentFilePrefix.length(), fileName.length() - segmentFileSuffix.length()));
+            }
+            catch (NumberFormatException notSegment)
+            {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Start a new segment.
+     *
+     * @param directory audit log directory
+     * @param sequenceNumber position of the segment in the audit log
+     * @return new segment open for writing
+     * @throws IOException unable to create the file
+     */
+    static FileBasedAuditLogSegment create(File directory,
+                                           long sequenceNumber) throws IOException
+    {
+        File                     segmentFile = new File(directory, segmentFilePrefix + String.format("%020d", sequenceNumber) + segmentFileSuffix);
+        FileBasedAuditLogSegment segment     = new FileBasedAuditLogSegment(segmentFile, sequenceNumber, System.currentTimeMillis());
+
+        segment.outputStream = new BufferedOutputStream(new FileOutputStream(segmentFile, false), bufferSize);
+
+        return segment;
+    }
+
+
+    /**
+     * Rebuild the index of an existing segment.  The segment is sealed.
+     *
+     * @param segmentFile file holding the records
+     * @param sequenceNumber position of the segment in the audit log
+     * @return loaded segment
+     * @throws IOException unable to read the file
+     */
+    static FileBasedAuditLogSegment load(File segmentFile,
+                                         long sequenceNumber) throws IOException
+    {
+        FileBasedAuditLogSegment segment = new FileBasedAuditLogSegment(segmentFile, sequenceNumber, segmentFile.lastModified());
+
+        try (InputStream inputStream = new BufferedInputStream(Channels.newInputStream(FileChannel.open(segmentFile.toPath(), StandardOpenOption.READ)), bufferSize))
+        {
+            byte[] line = readLine(inputStream);
+
+            while (line != null)
+            {
+                OMRSAuditLogRecord logRecord = null;
+
+                try
+                {
+                    logRecord = OMRSJSONCodec.readValue(new String(line, StandardCharsets.UTF_8), OMRSAuditLogRecord.class);
+                }
+                catch (Exception badRecord)
+                {
+                    log.debug("Unreadable record in audit log segment " + segmentFile.getName() + ": " + badRecord.getMessage());
+                }
+
+                /*
+                 * An unreadable line is still indexed so that record numbers match line numbers.
+                 */
+                segment.indexRecord(logRecord, line.length + 1);
+
+                line = readLine(inputStream);
+            }
+        }
+
+        return segment;
+    }
+
+
+    /**
+     * Append a record to the segment.  The record is not written to the file until the segment is flushed.
+     *
+     * @param logRecord log record
+     * @param jsonLogRecord log record in JSON format
+     * @throws IOException unable to write to the file
+     */
+    void append(OMRSAuditLogRecord logRecord,
+                String             jsonLogRecord) throws IOException
+    {
+        byte[] recordBytes = jsonLogRecord.getBytes(StandardCharsets.UTF_8);
+
+        outputStream.write(recordBytes);
+        outputStream.write('\n');
+
+        this.indexRecord(logRecord, recordBytes.length + 1);
+    }
+
+
+    /**
+     * Add a record to the index.
+     *
+     * @param logRecord log record or null if the record is unreadable
+     * @param recordLength number of bytes used by the record in the file
+     */
+    private void indexRecord(OMRSAuditLogRecord logRecord,
+                             long               recordLength)
+    {
+        int recordNumber = recordCount;
+        int blockNumber  = recordNumber / blockSize;
+
+        if (blockNumber == blockOffsets.length)
+        {
+            blockOffsets = Arrays.copyOf(blockOffsets, blockNumber * 2);
+            blockEarliestTimes = Arrays.copyOf(blockEarliestTimes, blockNumber * 2);
+            blockLatestTimes = Arrays.copyOf(blockLatestTimes, blockNumber * 2);
+        }
+
+        if (recordNumber == recordGUIDHashes.length)
+        {
+            recordGUIDHashes = Arrays.copyOf(recordGUIDHashes, recordNumber * 2);
+        }
+
+        if (recordNumber % blockSize == 0)
+        {
+            blockOffsets[blockNumber] = segmentSize;
+            blockEarliestTimes[blockNumber] = Long.MAX_VALUE;
+            blockLatestTimes[blockNumber] = Long.MIN_VALUE;
+        }
+
+        if (logRecord != null)
+        {
+            if (logRecord.getGUID() != null)
+            {
+                recordGUIDHashes[recordNumber] = logRecord.getGUID().hashCode();
+            }
+
+            if (logRecord.getTimeStamp() != null)
+            {
+                long timeStamp = logRecord.getTimeStamp().getTime();
+
+                blockEarliestTimes[blockNumber] = Math.min(blockEarliestTimes[blockNumber], timeStamp);
+                blockLatestTimes[blockNumber] = Math.max(blockLatestTimes[blockNumber], timeStamp);
+                earliestTimeStamp = Math.min(earliestTimeStamp, timeStamp);
+                latestTimeStamp = Math.max(latestTimeStamp, timeStamp);
+            }
+
+            if (logRecord.getSeverity() != null)
+            {
+                severityBitmaps.computeIfAbsent(logRecord.getSeverity(), severity -> new BitSet()).set(recordNumber);
+            }
+
+            String componentName = getComponentName(logRecord);
+
+            if (componentName != null)
+            {
+                componentBitmaps.computeIfAbsent(componentName, component -> new BitSet()).set(recordNumber);
+            }
+        }
+
+        recordCount++;
+        segmentSize = segmentSize + recordLength;
+    }
+
+
+    /**
+     * Return the name of the component that logged a record.
+     *
+     * @param logRecord log record
+     * @return component name or null
+     */
+    static String getComponentName(OMRSAuditLogRecord logRecord)
+    {
+        if ((logRecord.getOriginatorComponent() != null) && (logRecord.getOriginatorComponent().getComponentName() != null))
+        {
+            return logRecord.getOriginatorComponent().getComponentName();
+        }
+
+        if (logRecord.getReportingComponent() != null)
+        {
+            return logRecord.getReportingComponent().getComponentName();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Write the appended records to the file.
+     *
+     * @throws IOException unable to write to the file
+     */
+    void flush() throws IOException
+    {
+        if (outputStream != null)
+        {
+            outputStream.flush();
+        }
+    }
+
+
+    /**
+     * Write the appended records to the file and close it.  No more records can be appended.
+     *
+     * @throws IOException unable to write to the file
+     */
+    void seal() throws IOException
+    {
+        if (outputStream != null)
+        {
+            outputStream.close();
+            outputStream = null;
+        }
+    }
+
+
+    /**
+     * Return whether records can no longer be appended to the segment.
+     *
+     * @return boolean
+     */
+    boolean isSealed()
+    {
+        return outputStream == null;
+    }
+
+
+    /**
+     * Remove the segment's file.  Called by the retention policy.
+     *
+     * @return boolean indicating whether the file was deleted
+     */
+    boolean delete()
+    {
+        try
+        {
+            this.seal();
+        }
+        catch (IOException error)
+        {
+            log.debug("Unable to close audit log segment " + segmentFile.getName() + ": " + error.getMessage());
+        }
+
+        deleted = true;
+
+        return segmentFile.delete();
+    }
+
+
+    /**
+     * Return whether the segment has been removed by the retention policy.
+     *
+     * @return boolean
+     */
+    boolean isDeleted()
+    {
+        return deleted;
+    }
+
+
+    /**
+     * Return the file holding the records.
+     *
+     * @return file
+     */
+    File getSegmentFile()
+    {
+        return segmentFile;
+    }
+
+
+    /**
+     * Return the position of the segment in the audit log.
+     *
+     * @return sequence number
+     */
+    long getSequenceNumber()
+    {
+        return sequenceNumber;
+    }
+
+
+    /**
+     * Return the time that the segment was started.
+     *
+     * @return milliseconds since the epoch
+     */
+    long getCreationTime()
+    {
+        return creationTime;
+    }
+
+
+    /**
+     * Return the number of records in the segment.
+     *
+     * @return count
+     */
+    int getRecordCount()
+    {
+        return recordCount;
+    }
+
+
+    /**
+     * Return the size of the segment's file.
+     *
+     * @return number of bytes
+     */
+    long getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+
+    /**
+     * Return the latest time stamp of the records in the segment.
+     *
+     * @return milliseconds since the epoch or Long.MIN_VALUE if the segment is empty
+     */
+    long getLatestTimeStamp()
+    {
+        return latestTimeStamp;
+    }
+
+
+    /**
+     * Return whether any of the records in the segment may have been logged in the time period.
+     *
+     * @param startTime start of the time period
+     * @param endTime end of the time period
+     * @return boolean
+     */
+    boolean overlaps(long startTime,
+                     long endTime)
+    {
+        return (earliestTimeStamp <= endTime) && (latestTimeStamp >= startTime);
+    }
+
+
+    /**
+     * Return whether all the records in the segment were logged in the time period.
+     *
+     * @param startTime start of the time period
+     * @param endTime end of the time period
+     * @return boolean
+     */
+    boolean isWithin(long startTime,
+                     long endTime)
+    {
+        return (earliestTimeStamp >= startTime) && (latestTimeStamp <= endTime);
+    }
+
+
+    /**
+     * Return whether any of the records in a block may have been logged in the time period.
+     *
+     * @param recordNumber number of a record in the block
+     * @param startTime start of the time period
+     * @param endTime end of the time period
+     * @return boolean
+     */
+    boolean blockOverlaps(int  recordNumber,
+                          long startTime,
+                          long endTime)
+    {
+        int blockNumber = recordNumber / blockSize;
+
+        return (blockEarliestTimes[blockNumber] <= endTime) && (blockLatestTimes[blockNumber] >= startTime);
+    }
+
+
+    /**
+     * Return the number of the first record in the block after the block holding the record.
+     *
+     * @param recordNumber number of a record
+     * @return record number
+     */
+    int getNextBlockStart(int recordNumber)
+    {
+        return ((recordNumber / blockSize) + 1) * blockSize;
+    }
+
+
+    /**
+     * Return the number of the latest record, before the supplied record number, that may have the requested
+     * unique identifier.  The index only holds a hash of the unique identifier so the record must be read to
+     * confirm the match.
+     *
+     * @param guid unique identifier of the record
+     * @param recordNumber number of the record to search back from - the record itself is not included
+     * @return record number or -1 if there are no more candidate records
+     */
+    int findPreviousRecord(String guid,
+                           int    recordNumber)
+    {
+        int guidHash = guid.hashCode();
+
+        for (int candidate = Math.min(recordNumber, recordCount) - 1; candidate >= 0; candidate--)
+        {
+            if (recordGUIDHashes[candidate] == guidHash)
+            {
+                return candidate;
+            }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Return the records with the requested severity and component.
+     *
+     * @param severity severity of the records or null for any severity
+     * @param componentName name of the component that logged the records or null for any component
+     * @return bitmap of record numbers or null for all records
+     */
+    BitSet getMatchingRecords(String severity,
+                              String componentName)
+    {
+        BitSet matchingRecords = null;
+
+        if (severity != null)
+        {
+            matchingRecords = severityBitmaps.getOrDefault(severity, new BitSet());
+        }
+
+        if (componentName != null)
+        {
+            BitSet componentRecords = componentBitmaps.getOrDefault(componentName, new BitSet());
+
+            if (matchingRecords == null)
+            {
+                matchingRecords = componentRecords;
+            }
+            else
+            {
+                matchingRecords = (BitSet)matchingRecords.clone();
+                matchingRecords.and(componentRecords);
+            }
+        }
+
+        return matchingRecords;
+    }
+
+
+    /**
+     * Open a reader for the segment.
+     *
+     * @return reader
+     * @throws IOException unable to open the file
+     */
+    SegmentReader openReader() throws IOException
+    {
+        return new SegmentReader();
+    }
+
+
+    /**
+     * Read a line from the stream.
+     *
+     * @param inputStream stream positioned at the start of a line
+     * @return bytes of the line without the line end, or null at the end of the stream
+     * @throws IOException unable to read the stream
+     */
+    private static byte[] readLine(InputStream inputStream) throws IOException
+    {
+        ByteArrayOutputStream line     = new ByteArrayOutputStream(1024);
+        int                   nextByte = inputStream.read();
+
+        if (nextByte == -1)
+        {
+            return null;
+        }
+
+        while ((nextByte != -1) && (nextByte != '\n'))
+        {
+            line.write(nextByte);
+            nextByte = inputStream.read();
+        }
+
+        return line.toByteArray();
+    }
+
+
+    /**
+     * Skip to the start of the next line.
+     *
+     * @param inputStream stream positioned in a line
+     * @throws IOException unable to read the stream
+     */
+    private static void skipLine(InputStream inputStream) throws IOException
+    {
+        int nextByte = inputStream.read();
+
+        while ((nextByte != -1) && (nextByte != '\n'))
+        {
+            nextByte = inputStream.read();
+        }
+    }
+
+
+    /**
+     * SegmentReader reads records from the segment by record number.  It is most efficient when the records are
+     * read in ascending order since it only goes back to the index when it moves to a later block.
+     */
+    class SegmentReader implements Closeable
+    {
+        private final FileChannel fileChannel;
+
+        private InputStream inputStream      = null;
+        private int         nextRecordNumber = 0;
+
+
+        /**
+         * Constructor opens the file.
+         *
+         * @throws IOException unable to open the file
+         */
+        private SegmentReader() throws IOException
+        {
+            this.fileChannel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.READ);
+        }
+
+
+        /**
+         * Return the JSON for a record.
+         *
+         * @param recordNumber number of the record in the segment
+         * @return record in JSON format or null if the record is not in the file
+         * @throws IOException unable to read the file
+         */
+        String readRecord(int recordNumber) throws IOException
+        {
+            if ((inputStream == null) || (recordNumber < nextRecordNumber) ||
+                        (recordNumber / blockSize > nextRecordNumber / blockSize))
+            {
+                int blockNumber = recordNumber / blockSize;
+
+                fileChannel.position(blockOffsets[blockNumber]);
+                inputStream = new BufferedInputStream(Channels.newInputStream(fileChannel), bufferSize);
+                nextRecordNumber = blockNumber * blockSize;
+            }
+
+            while (nextRecordNumber < recordNumber)
+            {
+                skipLine(inputStream);
+                nextRecordNumber++;
+            }
+
+            byte[] line = readLine(inputStream);
+
+            nextRecordNumber++;
+
+            if (line == null)
+            {
+                return null;
+            }
+
+            return new String(line, StandardCharsets.UTF_8);
+        }
+
+
+        /**
+         * Close the file.
+         *
+         * @throws IOException unable to close the file
+         */
+        @Override
+        public void close() throws IOException
+        {
+            fileChannel.close();
+        }
+    }
+}
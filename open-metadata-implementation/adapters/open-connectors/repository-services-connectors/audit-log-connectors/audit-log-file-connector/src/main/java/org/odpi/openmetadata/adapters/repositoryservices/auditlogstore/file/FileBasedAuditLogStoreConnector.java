@@ -2,9 +2,10 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.FileUtils;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
@@ -16,21 +17,50 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * FileBasedAuditLogStoreConnector provides a connector implementation for a file based audit log.
- * The audit log is stored in a directory and each audit log record is stored as a file with a filename build
- * from the record's unique identifier (guid).
+ * The audit log is stored in a directory as a series of segment files.  Each segment file holds one audit log
+ * record in JSON format per line.  A new segment is started when the current one reaches its maximum size or age,
+ * and old segments are removed once they are older than the retention period or there are too many of them.
+ * <p>
+ * Each segment keeps an index of its records so the query methods only read the records that may match
+ * the query.
  */
 public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorBase
 {
     private static final String defaultDirectoryTemplate = "omag.server.auditlog";
 
+    private static final long megabyte = 1024L * 1024L;
+    private static final long hour     = 60L * 60L * 1000L;
+    private static final long day      = 24L * hour;
+
     private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogStoreConnector.class);
 
     private String logStoreTemplateName = null;
+    private File   logStoreDirectory    = null;
+
+    private long maxSegmentSize  = FileBasedAuditLogStoreProvider.defaultMaxSegmentSizeMB * megabyte;
+    private long maxSegmentAge   = FileBasedAuditLogStoreProvider.defaultMaxSegmentAgeHours * hour;
+    private long retentionPeriod = FileBasedAuditLogStoreProvider.defaultRetentionDays * day;
+    private long maxSegmentCount = FileBasedAuditLogStoreProvider.defaultMaxSegmentCount;
+
+    /*
+     * The segments are in the order they were written.  The last segment is the one being written to.
+     * The write lock is held while records are written or segments are added and removed.  The queries
+     * take a copy of the list under the read lock and then only hold the read lock while they read the last
+     * segment.  The other segments are sealed, so their files and indexes no longer change.
+     */
+    private final List<FileBasedAuditLogSegment> segments    = new ArrayList<>();
+    private final ReadWriteLock                  segmentLock = new ReentrantReadWriteLock();
 
 
     /**
@@ -42,7 +72,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
 
 
     /**
-     * Set up the name of the file store
+     * Set up the directory of the file store and rebuild the index of the existing segments.
      *
      * @throws ConnectorCheckedException something went wrong
      */
@@ -63,16 +93,182 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
             logStoreTemplateName = defaultDirectoryTemplate;
         }
 
+        maxSegmentSize  = getLongProperty(FileBasedAuditLogStoreProvider.maxSegmentSizeMBProperty,
+                                          FileBasedAuditLogStoreProvider.defaultMaxSegmentSizeMB) * megabyte;
+        maxSegmentAge   = getLongProperty(FileBasedAuditLogStoreProvider.maxSegmentAgeHoursProperty,
+                                          FileBasedAuditLogStoreProvider.defaultMaxSegmentAgeHours) * hour;
+        retentionPeriod = getLongProperty(FileBasedAuditLogStoreProvider.retentionDaysProperty,
+                                          FileBasedAuditLogStoreProvider.defaultRetentionDays) * day;
+        maxSegmentCount = getLongProperty(FileBasedAuditLogStoreProvider.maxSegmentCountProperty,
+                                          FileBasedAuditLogStoreProvider.defaultMaxSegmentCount);
+
+        segmentLock.writeLock().lock();
+
         try
         {
-            File         auditLogStoreDirectory = new File(logStoreTemplateName);
+            logStoreDirectory = new File(logStoreTemplateName);
 
-            FileUtils.forceMkdir(auditLogStoreDirectory);
+            FileUtils.forceMkdir(logStoreDirectory);
+
+            this.loadSegments();
+
+            /*
+             * A new segment is always started since the last segment may end with a partly written record.
+             */
+            this.startNewSegment();
         }
         catch (IOException ioException)
         {
             log.error("Unusable Server Audit Log Store :(", ioException);
         }
+        finally
+        {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Return the value of a numeric configuration property.
+     *
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
+     */
+    private long getLongProperty(String propertyName,
+                                 long   defaultValue)
+    {
+        if ((connectionProperties != null) && (connectionProperties.getConfigurationProperties() != null))
+        {
+            Object propertyValue = connectionProperties.getConfigurationProperties().get(propertyName);
+
+            if (propertyValue instanceof Number)
+            {
+                return ((Number)propertyValue).longValue();
+            }
+            else if (propertyValue != null)
+            {
+                try
+                {
+                    return Long.parseLong(propertyValue.toString());
+                }
+                catch (NumberFormatException error)
+                {
+                    log.debug("Ignoring invalid value for " + propertyName + ": " + propertyValue);
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Rebuild the index for each of the segments in the directory.
+     */
+    private void loadSegments()
+    {
+        File[] files = logStoreDirectory.listFiles();
+
+        if (files != null)
+        {
+            Map<Long, File> segmentFiles = new TreeMap<>();
+
+            for (File file : files)
+            {
+                long sequenceNumber = FileBasedAuditLogSegment.getSequenceNumber(file.getName());
+
+                if (sequenceNumber >= 0)
+                {
+                    segmentFiles.put(sequenceNumber, file);
+                }
+            }
+
+            for (Map.Entry<Long, File> segmentFile : segmentFiles.entrySet())
+            {
+                try
+                {
+                    segments.add(FileBasedAuditLogSegment.load(segmentFile.getValue(), segmentFile.getKey()));
+                }
+                catch (IOException ioException)
+                {
+                    log.error("Unreadable Server Audit Log Store segment " + segmentFile.getValue().getName(), ioException);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Seal the current segment, start a new one and remove any segments that are no longer retained.
+     * Called with the write lock held.
+     *
+     * @throws IOException unable to create the new segment
+     */
+    private void startNewSegment() throws IOException
+    {
+        long nextSequenceNumber = 0;
+
+        if (! segments.isEmpty())
+        {
+            FileBasedAuditLogSegment currentSegment = segments.get(segments.size() - 1);
+
+            currentSegment.seal();
+            nextSequenceNumber = currentSegment.getSequenceNumber() + 1;
+        }
+
+        segments.add(FileBasedAuditLogSegment.create(logStoreDirectory, nextSequenceNumber));
+
+        long now = System.currentTimeMillis();
+
+        while (segments.size() > 1)
+        {
+            FileBasedAuditLogSegment oldestSegment = segments.get(0);
+
+            boolean tooMany = (maxSegmentCount > 0) && (segments.size() > maxSegmentCount);
+            boolean tooOld  = (retentionPeriod > 0) && (oldestSegment.getLatestTimeStamp() < now - retentionPeriod);
+
+            if ((! tooMany) && (! tooOld))
+            {
+                break;
+            }
+
+            segments.remove(0);
+
+            if (! oldestSegment.delete())
+            {
+                log.error("Unable to remove expired Server Audit Log Store segment " + oldestSegment.getSegmentFile().getName());
+            }
+        }
+    }
+
+
+    /**
+     * Return the segment to write to, starting a new segment if the current one is full or too old.
+     * Called with the write lock held.
+     *
+     * @return segment
+     * @throws IOException unable to create a new segment
+     */
+    private FileBasedAuditLogSegment getCurrentSegment() throws IOException
+    {
+        if ((segments.isEmpty()) || (segments.get(segments.size() - 1).isSealed()))
+        {
+            this.startNewSegment();
+        }
+
+        FileBasedAuditLogSegment currentSegment = segments.get(segments.size() - 1);
+
+        if ((currentSegment.getRecordCount() > 0) &&
+                    ((currentSegment.getSegmentSize() >= maxSegmentSize) ||
+                     ((maxSegmentAge > 0) && (System.currentTimeMillis() - currentSegment.getCreationTime() >= maxSegmentAge))))
+        {
+            this.startNewSegment();
+
+            currentSegment = segments.get(segments.size() - 1);
+        }
+
+        return currentSegment;
     }
 
 
@@ -92,19 +288,25 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
 
         if (isSupportedSeverity(logRecord))
         {
+            String jsonLogRecord = super.getJSONLogRecord(logRecord, methodName);
+
+            segmentLock.writeLock().lock();
+
             try
             {
-                File configStoreFile =
-                        new File(logStoreTemplateName + "/log-record-" + logRecord.getGUID());
-                ObjectMapper objectMapper    = new ObjectMapper();
+                FileBasedAuditLogSegment currentSegment = this.getCurrentSegment();
 
-                String configStoreFileContents = objectMapper.writeValueAsString(logRecord);
-                FileUtils.writeStringToFile(configStoreFile, configStoreFileContents, (String)null, false);
+                currentSegment.append(logRecord, jsonLogRecord);
+                currentSegment.flush();
             }
             catch (IOException ioException)
             {
                 log.error("Unusable Server Audit Log Store :(", ioException);
             }
+            finally
+            {
+                segmentLock.writeLock().unlock();
+            }
         }
 
         return logRecord.getGUID();
@@ -112,7 +314,71 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
 
 
     /**
-     * Retrieve a specific audit log record.
+     * Store a batch of audit log records in the audit log store.  The records are written to the file together.
+     *
+     * @param logRecords  log records to store
+     * @return unique identifiers assigned to the log records
+     * @throws InvalidParameterException indicates that one of the log records is invalid.
+     */
+    @Override
+    public List<String> storeLogRecords(List<OMRSAuditLogRecord> logRecords) throws InvalidParameterException
+    {
+        final String   methodName = "storeLogRecords";
+
+        List<String>             logRecordIds     = new ArrayList<>();
+        List<OMRSAuditLogRecord> supportedRecords = new ArrayList<>();
+        List<String>             jsonLogRecords   = new ArrayList<>();
+
+        if (logRecords == null)
+        {
+            return logRecordIds;
+        }
+
+        for (OMRSAuditLogRecord logRecord : logRecords)
+        {
+            super.validateLogRecord(logRecord, methodName);
+
+            if (isSupportedSeverity(logRecord))
+            {
+                supportedRecords.add(logRecord);
+                jsonLogRecords.add(super.getJSONLogRecord(logRecord, methodName));
+            }
+
+            logRecordIds.add(logRecord.getGUID());
+        }
+
+        if (! supportedRecords.isEmpty())
+        {
+            segmentLock.writeLock().lock();
+
+            try
+            {
+                FileBasedAuditLogSegment currentSegment = this.getCurrentSegment();
+
+                for (int recordIndex = 0; recordIndex < supportedRecords.size(); recordIndex++)
+                {
+                    currentSegment.append(supportedRecords.get(recordIndex), jsonLogRecords.get(recordIndex));
+                }
+
+                currentSegment.flush();
+            }
+            catch (IOException ioException)
+            {
+                log.error("Unusable Server Audit Log Store :(", ioException);
+            }
+            finally
+            {
+                segmentLock.writeLock().unlock();
+            }
+        }
+
+        return logRecordIds;
+    }
+
+
+    /**
+     * Retrieve a specific audit log record.  The segments are searched starting with the most recent, and only
+     * the records whose GUID hash matches are read.
      *
      * @param logRecordId unique identifier for the log record
      * @return requested audit log record
@@ -123,7 +389,65 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     public OMRSAuditLogRecord getAuditLogRecord(String logRecordId) throws InvalidParameterException,
                                                                            RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecord";
+        final String methodName    = "getAuditLogRecord";
+        final String parameterName = "logRecordId";
+
+        if (logRecordId == null)
+        {
+            throw new InvalidParameterException(OMRSErrorCode.INVALID_AUDIT_LOG_QUERY_PARAMETER.getMessageDefinition(parameterName,
+                                                                                                                     methodName,
+                                                                                                                     super.getDestinationName()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                parameterName);
+        }
+
+        List<FileBasedAuditLogSegment> segmentSnapshot = this.getSegmentSnapshot();
+
+        for (int segmentIndex = segmentSnapshot.size() - 1; segmentIndex >= 0; segmentIndex--)
+        {
+            FileBasedAuditLogSegment segment       = segmentSnapshot.get(segmentIndex);
+            boolean                  activeSegment = (segmentIndex == segmentSnapshot.size() - 1);
+
+            if (activeSegment)
+            {
+                segmentLock.readLock().lock();
+            }
+
+            try
+            {
+                int recordNumber = segment.findPreviousRecord(logRecordId, segment.getRecordCount());
+
+                if (recordNumber >= 0)
+                {
+                    try (FileBasedAuditLogSegment.SegmentReader segmentReader = segment.openReader())
+                    {
+                        while (recordNumber >= 0)
+                        {
+                            OMRSAuditLogRecord logRecord = this.getLogRecord(segmentReader.readRecord(recordNumber));
+
+                            if ((logRecord != null) && (logRecordId.equals(logRecord.getGUID())))
+                            {
+                                return logRecord;
+                            }
+
+                            recordNumber = segment.findPreviousRecord(logRecordId, recordNumber);
+                        }
+                    }
+                }
+            }
+            catch (IOException ioException)
+            {
+                this.handleReadError(segment, ioException, methodName);
+            }
+            finally
+            {
+                if (activeSegment)
+                {
+                    segmentLock.readLock().unlock();
+                }
+            }
+        }
 
         return null;
     }
@@ -152,7 +476,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     {
         final String methodName = "getAuditLogRecordsByTimeStamp";
 
-        return null;
+        return this.queryLogRecords(null, null, startDate, endDate, offset, maximumRecords, methodName);
     }
 
 
@@ -179,9 +503,20 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                                             PagingErrorException,
                                                                                             RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecordsBySeverity";
+        final String methodName    = "getAuditLogRecordsBySeverity";
+        final String parameterName = "severity";
 
-        return null;
+        if (severity == null)
+        {
+            throw new InvalidParameterException(OMRSErrorCode.INVALID_AUDIT_LOG_QUERY_PARAMETER.getMessageDefinition(parameterName,
+                                                                                                                     methodName,
+                                                                                                                     super.getDestinationName()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                parameterName);
+        }
+
+        return this.queryLogRecords(severity, null, startDate, endDate, offset, maximumRecords, methodName);
     }
 
 
@@ -208,7 +543,301 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                                                 PagingErrorException,
                                                                                                 RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecordsByComponent";
+        final String methodName    = "getAuditLogRecordsByComponent";
+        final String parameterName = "component";
+
+        if (component == null)
+        {
+            throw new InvalidParameterException(OMRSErrorCode.INVALID_AUDIT_LOG_QUERY_PARAMETER.getMessageDefinition(parameterName,
+                                                                                                                     methodName,
+                                                                                                                     super.getDestinationName()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                parameterName);
+        }
+
+        return this.queryLogRecords(null, component, startDate, endDate, offset, maximumRecords, methodName);
+    }
+
+
+    /**
+     * Return the log records that match a query, oldest first.  The segments and blocks that can not contain
+     * a matching record are not read.  When all the records in a segment are in the time period, the records
+     * before the offset are skipped using the segment's bitmaps.
+     *
+     * @param severity severity of the records or null for any severity
+     * @param component name of the component that logged the records or null for any component
+     * @param startDate start of time period - null means no start
+     * @param endDate end of time period - null means no end
+     * @param offset number of matching records to skip
+     * @param maximumRecords maximum number of log records to return - zero means no limit
+     * @param methodName calling method
+     * @return list of log records or null if there are none
+     * @throws InvalidParameterException the start date is after the end date
+     * @throws PagingErrorException the offset or the maximumRecords parameters are negative
+     * @throws RepositoryErrorException unable to read the segments
+     */
+    private List<OMRSAuditLogRecord> queryLogRecords(String severity,
+                                                     String component,
+                                                     Date   startDate,
+                                                     Date   endDate,
+                                                     int    offset,
+                                                     int    maximumRecords,
+                                                     String methodName) throws InvalidParameterException,
+                                                                               PagingErrorException,
+                                                                               RepositoryErrorException
+    {
+        this.validatePagingParameter(offset, "offset", methodName);
+        this.validatePagingParameter(maximumRecords, "maximumRecords", methodName);
+
+        long startTime = (startDate == null) ? Long.MIN_VALUE : startDate.getTime();
+        long endTime   = (endDate == null) ? Long.MAX_VALUE : endDate.getTime();
+
+        if (startTime > endTime)
+        {
+            final String parameterName = "startDate";
+
+            throw new InvalidParameterException(OMRSErrorCode.INVALID_AUDIT_LOG_QUERY_PARAMETER.getMessageDefinition(parameterName,
+                                                                                                                     methodName,
+                                                                                                                     super.getDestinationName()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                parameterName);
+        }
+
+        List<OMRSAuditLogRecord>       results         = new ArrayList<>();
+        int                            recordsToSkip   = offset;
+        List<FileBasedAuditLogSegment> segmentSnapshot = this.getSegmentSnapshot();
+
+        for (int segmentIndex = 0; segmentIndex < segmentSnapshot.size(); segmentIndex++)
+        {
+            FileBasedAuditLogSegment segment       = segmentSnapshot.get(segmentIndex);
+            boolean                  activeSegment = (segmentIndex == segmentSnapshot.size() - 1);
+
+            if (activeSegment)
+            {
+                segmentLock.readLock().lock();
+            }
+
+            try
+            {
+                if ((segment.getRecordCount() == 0) || (! segment.overlaps(startTime, endTime)))
+                {
+                    continue;
+                }
+
+                BitSet  matchingRecords = segment.getMatchingRecords(severity, component);
+                boolean segmentInPeriod = segment.isWithin(startTime, endTime);
+                int     recordNumber    = 0;
+
+                if (segmentInPeriod)
+                {
+                    /*
+                     * Every record in the bitmap matches so the records to skip can be counted without reading them.
+                     */
+                    int matchCount = (matchingRecords == null) ? segment.getRecordCount() : matchingRecords.cardinality();
+
+                    if (recordsToSkip >= matchCount)
+                    {
+                        recordsToSkip = recordsToSkip - matchCount;
+                        continue;
+                    }
+
+                    if (matchingRecords == null)
+                    {
+                        recordNumber = recordsToSkip;
+                    }
+                    else
+                    {
+                        recordNumber = matchingRecords.nextSetBit(0);
+
+                        for (int skipped = 0; skipped < recordsToSkip; skipped++)
+                        {
+                            recordNumber = matchingRecords.nextSetBit(recordNumber + 1);
+                        }
+                    }
+
+                    recordsToSkip = 0;
+                }
+
+                try (FileBasedAuditLogSegment.SegmentReader segmentReader = segment.openReader())
+                {
+                    while (recordNumber < segment.getRecordCount())
+                    {
+                        if (matchingRecords != null)
+                        {
+                            recordNumber = matchingRecords.nextSetBit(recordNumber);
+
+                            if (recordNumber < 0)
+                            {
+                                break;
+                            }
+                        }
+
+                        if ((! segmentInPeriod) && (! segment.blockOverlaps(recordNumber, startTime, endTime)))
+                        {
+                            recordNumber = segment.getNextBlockStart(recordNumber);
+                            continue;
+                        }
+
+                        OMRSAuditLogRecord logRecord = this.getLogRecord(segmentReader.readRecord(recordNumber));
+
+                        if ((logRecord != null) && ((segmentInPeriod) || (isInPeriod(logRecord, startTime, endTime))))
+                        {
+                            if (recordsToSkip > 0)
+                            {
+                                recordsToSkip--;
+                            }
+                            else
+                            {
+                                results.add(logRecord);
+
+                                if (results.size() == maximumRecords)
+                                {
+                                    return results;
+                                }
+                            }
+                        }
+
+                        recordNumber++;
+                    }
+                }
+            }
+            catch (IOException ioException)
+            {
+                this.handleReadError(segment, ioException, methodName);
+            }
+            finally
+            {
+                if (activeSegment)
+                {
+                    segmentLock.readLock().unlock();
+                }
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return a copy of the list of segments.  All but the last segment are sealed.
+     *
+     * @return segments in the order they were written
+     */
+    private List<FileBasedAuditLogSegment> getSegmentSnapshot()
+    {
+        segmentLock.readLock().lock();
+
+        try
+        {
+            return new ArrayList<>(segments);
+        }
+        finally
+        {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Handle an error reading a segment.  A segment that has been removed by the retention policy since the
+     * query started is skipped.
+     *
+     * @param segment segment being read
+     * @param ioException error from reading the segment
+     * @param methodName calling method
+     * @throws RepositoryErrorException the audit log store is not available
+     */
+    private void handleReadError(FileBasedAuditLogSegment segment,
+                                 IOException              ioException,
+                                 String                   methodName) throws RepositoryErrorException
+    {
+        if (segment.isDeleted())
+        {
+            log.debug("Skipping expired Server Audit Log Store segment " + segment.getSegmentFile().getName());
+            return;
+        }
+
+        throw new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(super.getDestinationName(),
+                                                                                                            ioException.getMessage()),
+                                           this.getClass().getName(),
+                                           methodName,
+                                           ioException);
+    }
+
+
+    /**
+     * Validate that a paging parameter is not negative.
+     *
+     * @param parameterValue value of the parameter
+     * @param parameterName name of the parameter
+     * @param methodName calling method
+     * @throws PagingErrorException the parameter is negative
+     */
+    private void validatePagingParameter(int    parameterValue,
+                                         String parameterName,
+                                         String methodName) throws PagingErrorException
+    {
+        if (parameterValue < 0)
+        {
+            throw new PagingErrorException(OMRSErrorCode.NEGATIVE_AUDIT_LOG_PAGING_PARAMETER.getMessageDefinition(Integer.toString(parameterValue),
+                                                                                                                  parameterName,
+                                                                                                                  methodName,
+                                                                                                                  super.getDestinationName()),
+                                           this.getClass().getName(),
+                                           methodName);
+        }
+    }
+
+
+    /**
+     * Return whether a log record was logged in the time period.
+     *
+     * @param logRecord log record
+     * @param startTime start of time period
+     * @param endTime end of time period
+     * @return boolean
+     */
+    private boolean isInPeriod(OMRSAuditLogRecord logRecord,
+                               long               startTime,
+                               long               endTime)
+    {
+        if (logRecord.getTimeStamp() == null)
+        {
+            return (startTime == Long.MIN_VALUE) && (endTime == Long.MAX_VALUE);
+        }
+
+        long timeStamp = logRecord.getTimeStamp().getTime();
+
+        return (timeStamp >= startTime) && (timeStamp <= endTime);
+    }
+
+
+    /**
+     * Convert a line from a segment into a log record.
+     *
+     * @param jsonLogRecord log record in JSON format
+     * @return log record or null if the line is not a log record
+     */
+    private OMRSAuditLogRecord getLogRecord(String jsonLogRecord)
+    {
+        if (jsonLogRecord != null)
+        {
+            try
+            {
+                return OMRSJSONCodec.readValue(jsonLogRecord, OMRSAuditLogRecord.class);
+            }
+            catch (Exception badRecord)
+            {
+                log.debug("Ignoring unreadable audit log record: " + badRecord.getMessage());
+            }
+        }
 
         return null;
     }
@@ -222,6 +851,24 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     @Override
     public  void disconnect() throws ConnectorCheckedException
     {
+        segmentLock.writeLock().lock();
+
+        try
+        {
+            if (! segments.isEmpty())
+            {
+                segments.get(segments.size() - 1).seal();
+            }
+        }
+        catch (IOException ioException)
+        {
+            log.error("Unable to close Server Audit Log Store :(", ioException);
+        }
+        finally
+        {
+            segmentLock.writeLock().unlock();
+        }
+
         super.disconnect();
     }
 }
@@ -5,6 +5,8 @@ package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreProviderBase;
 
+import java.util.List;
+
 /**
  * FileBasedAuditLogStoreProvider is the OCF connector provider for the file based audit log store.
  */
@@ -20,7 +22,31 @@ public class FileBasedAuditLogStoreProvider extends OMRSAuditLogStoreProviderBas
      */
     private static final String connectorQualifiedName = "Egeria:AuditLogDestinationConnector:Files";
     private static final String connectorDisplayName   = "File-based Audit Log Destination Connector";
-    private static final String connectorDescription   = "Connector supports the distribution of audit log record to a directory where each file is a JSON formatted log record.";
+    private static final String connectorDescription   = "Connector supports the distribution of audit log records to a directory of segment files where each line is a JSON formatted log record.";
+
+    /**
+     * Configuration property for the size in megabytes at which a new segment file is started.
+     */
+    public static final String maxSegmentSizeMBProperty   = "maxSegmentSizeMB";
+    public static final long   defaultMaxSegmentSizeMB    = 64;
+
+    /**
+     * Configuration property for the age in hours at which a new segment file is started.  Zero means no limit.
+     */
+    public static final String maxSegmentAgeHoursProperty = "maxSegmentAgeHours";
+    public static final long   defaultMaxSegmentAgeHours  = 24;
+
+    /**
+     * Configuration property for the number of days that log records are kept.  Zero means no limit.
+     */
+    public static final String retentionDaysProperty      = "retentionDays";
+    public static final long   defaultRetentionDays       = 30;
+
+    /**
+     * Configuration property for the maximum number of segment files that are kept.  Zero means no limit.
+     */
+    public static final String maxSegmentCountProperty    = "maxSegmentCount";
+    public static final long   defaultMaxSegmentCount     = 0;
 
     /*
      * Class of the connector.
@@ -51,7 +77,15 @@ public class FileBasedAuditLogStoreProvider extends OMRSAuditLogStoreProviderBas
         connectorType.setDisplayName(connectorDisplayName);
         connectorType.setDescription(connectorDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
-        connectorType.setRecognizedConfigurationProperties(super.getRecognizedConfigurationProperties());
+
+        List<String> recognizedConfigurationProperties = super.getRecognizedConfigurationProperties();
+
+        recognizedConfigurationProperties.add(maxSegmentSizeMBProperty);
+        recognizedConfigurationProperties.add(maxSegmentAgeHoursProperty);
+        recognizedConfigurationProperties.add(retentionDaysProperty);
+        recognizedConfigurationProperties.add(maxSegmentCountProperty);
+
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
 
         super.connectorTypeBean = connectorType;
     }
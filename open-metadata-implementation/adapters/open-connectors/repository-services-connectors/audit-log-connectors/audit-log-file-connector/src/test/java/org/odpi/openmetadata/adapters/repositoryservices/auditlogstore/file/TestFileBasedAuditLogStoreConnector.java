@@ -0,0 +1,327 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogReportingComponent;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test that the FileBasedAuditLogStoreConnector stores records in segments, pages through query results
+ * and rebuilds its index when restarted.
+ */
+public class TestFileBasedAuditLogStoreConnector
+{
+    private static final int  recordCount = 500;
+    private static final long startTime   = 1600000000000L;
+
+
+    /**
+     * Create and start a connector.
+     *
+     * @param directory audit log directory
+     * @return started connector
+     * @throws Exception problem starting the connector
+     */
+    private FileBasedAuditLogStoreConnector getConnector(File directory) throws Exception
+    {
+        return getConnector(directory, 0);
+    }
+
+
+    /**
+     * Create and start a connector that keeps a limited number of segments.
+     *
+     * @param directory audit log directory
+     * @param maxSegmentCount maximum number of segments to keep - zero means no limit
+     * @return started connector
+     * @throws Exception problem starting the connector
+     */
+    private FileBasedAuditLogStoreConnector getConnector(File directory,
+                                                         int  maxSegmentCount) throws Exception
+    {
+        Endpoint endpoint = new Endpoint();
+
+        endpoint.setAddress(directory.getAbsolutePath());
+
+        /*
+         * A zero segment size means each store request starts a new segment.
+         */
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(FileBasedAuditLogStoreProvider.maxSegmentSizeMBProperty, 0);
+        configurationProperties.put(FileBasedAuditLogStoreProvider.retentionDaysProperty, 0);
+        configurationProperties.put(FileBasedAuditLogStoreProvider.maxSegmentCountProperty, maxSegmentCount);
+
+        Connection connection = new Connection();
+
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        FileBasedAuditLogStoreConnector connector = new FileBasedAuditLogStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+        connector.start();
+
+        return connector;
+    }
+
+
+    /**
+     * Create a log record.  The records alternate between two severities, every third record is from
+     * ComponentA and the records are logged a second apart.
+     *
+     * @param recordNumber position of the record in the test
+     * @return log record
+     */
+    private OMRSAuditLogRecord getLogRecord(int recordNumber)
+    {
+        AuditLogReportingComponent component = new AuditLogReportingComponent();
+
+        component.setComponentName(recordNumber % 3 == 0 ? "ComponentA" : "ComponentB");
+
+        Map<String, String> originatorProperties = new HashMap<>();
+
+        originatorProperties.put("serverName", "TestServer");
+
+        OMRSAuditLogRecord logRecord = new OMRSAuditLogRecord();
+
+        logRecord.setGUID("guid-" + recordNumber);
+        logRecord.setTimeStamp(new Date(startTime + recordNumber * 1000L));
+        logRecord.setOriginatorProperties(originatorProperties);
+        logRecord.setOriginatorComponent(component);
+        logRecord.setSeverity(recordNumber % 2 == 0 ? "Information" : "Error");
+        logRecord.setMessageText("Message " + recordNumber);
+
+        return logRecord;
+    }
+
+
+    /**
+     * Return the record numbers of the records.
+     *
+     * @param logRecords returned records
+     * @return list of record numbers
+     */
+    private List<Integer> getRecordNumbers(List<OMRSAuditLogRecord> logRecords)
+    {
+        List<Integer> recordNumbers = new ArrayList<>();
+
+        if (logRecords != null)
+        {
+            for (OMRSAuditLogRecord logRecord : logRecords)
+            {
+                recordNumbers.add(Integer.parseInt(logRecord.getGUID().substring("guid-".length())));
+            }
+        }
+
+        return recordNumbers;
+    }
+
+
+    /**
+     * Run the queries that are checked before and after a restart.
+     *
+     * @param connector connector to query
+     * @throws Exception problem with the query
+     */
+    private void checkQueries(FileBasedAuditLogStoreConnector connector) throws Exception
+    {
+        assertEquals(connector.getAuditLogRecord("guid-123").getMessageText(), "Message 123");
+        assertNull(connector.getAuditLogRecord("guid-unknown"));
+
+        /*
+         * Page through all the records.
+         */
+        List<Integer> allRecordNumbers = new ArrayList<>();
+
+        for (int offset = 0; offset < recordCount; offset = offset + 70)
+        {
+            allRecordNumbers.addAll(getRecordNumbers(connector.getAuditLogRecordsByTimeStamp(null, null, offset, 70)));
+        }
+
+        assertEquals(allRecordNumbers.size(), recordCount);
+
+        for (int recordNumber = 0; recordNumber < recordCount; recordNumber++)
+        {
+            assertEquals((int)allRecordNumbers.get(recordNumber), recordNumber);
+        }
+
+        /*
+         * Records 100 to 199 inclusive, skipping the first 10.
+         */
+        List<Integer> periodRecordNumbers = getRecordNumbers(connector.getAuditLogRecordsByTimeStamp(new Date(startTime + 100000L),
+                                                                                                     new Date(startTime + 199000L),
+                                                                                                     10,
+                                                                                                     0));
+        assertEquals(periodRecordNumbers.size(), 90);
+        assertEquals((int)periodRecordNumbers.get(0), 110);
+
+        /*
+         * The Error records are the odd numbered ones.
+         */
+        List<Integer> errorRecordNumbers = getRecordNumbers(connector.getAuditLogRecordsBySeverity("Error", null, null, 100, 20));
+
+        assertEquals(errorRecordNumbers.size(), 20);
+        assertEquals((int)errorRecordNumbers.get(0), 201);
+        assertEquals((int)errorRecordNumbers.get(19), 239);
+
+        /*
+         * ComponentA logged every third record.
+         */
+        List<Integer> componentRecordNumbers = getRecordNumbers(connector.getAuditLogRecordsByComponent("ComponentA",
+                                                                                                        new Date(startTime + 30000L),
+                                                                                                        new Date(startTime + 60000L),
+                                                                                                        0,
+                                                                                                        0));
+        assertEquals(componentRecordNumbers.size(), 11);
+        assertEquals((int)componentRecordNumbers.get(0), 30);
+
+        assertNull(connector.getAuditLogRecordsBySeverity("Trace", null, null, 0, 0));
+    }
+
+
+    /**
+     * Store records, query them, restart the connector and query them again.
+     *
+     * @throws Exception problem with the test
+     */
+    @Test public void testStoreAndQuery() throws Exception
+    {
+        File directory = Files.createTempDirectory("audit-log-test").toFile();
+
+        try
+        {
+            FileBasedAuditLogStoreConnector connector = getConnector(directory);
+
+            List<OMRSAuditLogRecord> batch = new ArrayList<>();
+
+            for (int recordNumber = 0; recordNumber < recordCount; recordNumber++)
+            {
+                if (recordNumber < recordCount / 2)
+                {
+                    connector.storeLogRecord(getLogRecord(recordNumber));
+                }
+                else
+                {
+                    batch.add(getLogRecord(recordNumber));
+                }
+            }
+
+            connector.storeLogRecords(batch);
+
+            File[] segmentFiles = directory.listFiles();
+
+            assertNotNull(segmentFiles);
+            assertTrue(segmentFiles.length > 1);
+
+            checkQueries(connector);
+
+            try
+            {
+                connector.getAuditLogRecordsByTimeStamp(null, null, -1, 10);
+                fail("Negative offset accepted");
+            }
+            catch (PagingErrorException expected)
+            {
+                // expected
+            }
+
+            connector.disconnect();
+
+            connector = getConnector(directory);
+
+            checkQueries(connector);
+
+            connector.disconnect();
+        }
+        finally
+        {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+
+    /**
+     * Look up and query records while another thread is writing, and while the retention policy removes
+     * the oldest segments.
+     *
+     * @throws Exception problem with the test
+     */
+    @Test public void testQueryWhileWriting() throws Exception
+    {
+        File            directory = Files.createTempDirectory("audit-log-test").toFile();
+        ExecutorService writer    = Executors.newSingleThreadExecutor();
+
+        try
+        {
+            FileBasedAuditLogStoreConnector connector = getConnector(directory, 50);
+
+            for (int recordNumber = 0; recordNumber < 100; recordNumber++)
+            {
+                connector.storeLogRecord(getLogRecord(recordNumber));
+            }
+
+            Future<?> writing = writer.submit(() ->
+            {
+                for (int recordNumber = 100; recordNumber < 300; recordNumber++)
+                {
+                    connector.storeLogRecord(getLogRecord(recordNumber));
+                }
+
+                return null;
+            });
+
+            while (! writing.isDone())
+            {
+                connector.getAuditLogRecord("guid-10");
+                connector.getAuditLogRecordsBySeverity("Error", null, null, 0, 10);
+            }
+
+            writing.get();
+
+            /*
+             * Each record is in its own segment, so only the last 50 records are kept.
+             */
+            assertNull(connector.getAuditLogRecord("guid-10"));
+            assertNull(connector.getAuditLogRecord("guid-249"));
+            assertEquals(connector.getAuditLogRecord("guid-250").getMessageText(), "Message 250");
+            assertEquals(connector.getAuditLogRecord("guid-299").getMessageText(), "Message 299");
+
+            List<Integer> recordNumbers = getRecordNumbers(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0));
+
+            assertEquals(recordNumbers.size(), 50);
+            assertEquals((int)recordNumbers.get(0), 250);
+
+            connector.disconnect();
+        }
+        finally
+        {
+            writer.shutdownNow();
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+}
@@ -2,10 +2,10 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.directory;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.FileUtils;
 import org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.directory.ffdc.DirectoryBasedOpenMetadataArchiveStoreConnectorAuditCode;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.RepositoryElementHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,8 +24,6 @@ public class DirectoryBasedOpenMetadataArchiveStoreIterator<T extends Repository
     private int                                    pointer = 0;
     private AuditLog                               auditLog;
 
-    private ObjectMapper objectMapper = new ObjectMapper();
-
 
     public DirectoryBasedOpenMetadataArchiveStoreIterator(DirectoryBasedOpenMetadataArchiveStore archiveStore,
                                                           List<File>                             files,
@@ -60,7 +58,7 @@ public class DirectoryBasedOpenMetadataArchiveStoreIterator<T extends Repository
         {
             String archiveStoreFileContents = FileUtils.readFileToString(elementFile, "UTF-8");
 
-            return (T)objectMapper.readValue(archiveStoreFileContents, RepositoryElementHeader.class);
+            return (T)OMRSJSONCodec.readValue(archiveStoreFileContents, RepositoryElementHeader.class);
         }
         catch (Exception error)
         {
@@ -56,6 +56,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -421,6 +422,64 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // getEntitiesDetail
+    @Override
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            UserNotAuthorizedException
+    {
+        final String methodName = "getEntitiesDetail";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstancesParameterValidation(userId, guids, methodName);
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        /*
+         * Perform operation - the entities are retrieved with a single traversal of the graph and then
+         * returned in the order they were requested.  Deleted entities are left out.
+         */
+        Set<String>               requestedGUIDs = new LinkedHashSet<>(guids);
+        Map<String, EntityDetail> entities       = new HashMap<>();
+
+        for (EntityDetail entity : graphStore.getEntityDetailsFromStore(requestedGUIDs))
+        {
+            try
+            {
+                repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
+
+                entities.put(entity.getGUID(), entity);
+            }
+            catch (EntityNotKnownException error)
+            {
+                log.debug("{} skipping deleted entity {}", methodName, entity.getGUID());
+            }
+        }
+
+        List<EntityDetail> results = new ArrayList<>();
+
+        for (String guid : requestedGUIDs)
+        {
+            EntityDetail entity = entities.get(guid);
+
+            if (entity != null)
+            {
+                results.add(entity);
+            }
+        }
+
+        return results.isEmpty() ? null : results;
+    }
+
+
     // addRelationship
     @Override
     public Relationship addRelationship(String               userId,
@@ -608,6 +667,64 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // getRelationshipsByGUIDs
+    @Override
+    public List<Relationship> getRelationshipsByGUIDs(String       userId,
+                                                      List<String> guids)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipsByGUIDs";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstancesParameterValidation(userId, guids, methodName);
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        /*
+         * Process operation - the relationships are retrieved with a single traversal of the graph and then
+         * returned in the order they were requested.  Deleted relationships are left out.
+         */
+        Set<String>               requestedGUIDs = new LinkedHashSet<>(guids);
+        Map<String, Relationship> relationships  = new HashMap<>();
+
+        for (Relationship relationship : graphStore.getRelationshipsFromStore(requestedGUIDs))
+        {
+            try
+            {
+                repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
+
+                relationships.put(relationship.getGUID(), relationship);
+            }
+            catch (RelationshipNotKnownException error)
+            {
+                log.debug("{} skipping deleted relationship {}", methodName, relationship.getGUID());
+            }
+        }
+
+        List<Relationship> results = new ArrayList<>();
+
+        for (String guid : requestedGUIDs)
+        {
+            Relationship relationship = relationships.get(guid);
+
+            if (relationship != null)
+            {
+                results.add(relationship);
+            }
+        }
+
+        return results.isEmpty() ? null : results;
+    }
+
+
     // updateEntityStatus
     @Override
     public EntityDetail updateEntityStatus(String           userId,
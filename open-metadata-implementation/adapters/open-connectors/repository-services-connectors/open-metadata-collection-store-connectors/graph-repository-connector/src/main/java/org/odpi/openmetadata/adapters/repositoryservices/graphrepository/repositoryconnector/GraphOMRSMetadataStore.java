@@ -38,6 +38,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSSearchPlan;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityProxyOnlyException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.FunctionNotSupportedException;
@@ -51,10 +52,12 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -116,6 +119,22 @@ class GraphOMRSMetadataStore {
     private GraphOMRSEntityMapper entityMapper;
     private GraphOMRSClassificationMapper classificationMapper;
 
+    // Search strings already converted for JanusGraph - a find using the Iterate strategy converts the same
+    // search string for every type it queries.
+
+    private static final int MAX_CACHED_SEARCH_STRINGS = 1000;
+
+    private final Map<String, String> janusSearchStrings = Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+        {
+            return size() > MAX_CACHED_SEARCH_STRINGS;
+        }
+    });
+
 
     /**
      * Typical constructor
@@ -706,6 +725,52 @@ class GraphOMRSMetadataStore {
         return entity;
     }
 
+    synchronized List<EntityDetail> getEntityDetailsFromStore(Collection<String> guids)
+
+    throws RepositoryErrorException
+    {
+        String methodName = "getEntityDetailsFromStore";
+
+        List<EntityDetail> entities = new ArrayList<>();
+
+        // Look in the graph for all of the requested entities with a single traversal - proxies are left out.
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        GraphTraversal<Vertex, Vertex> gt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, within(guids));
+
+        gt = gt.has(PROPERTY_KEY_ENTITY_IS_PROXY, false);
+
+        try
+        {
+            while (gt.hasNext())
+            {
+                Vertex vertex = gt.next();
+                log.debug("{} found entity vertex {}", methodName, vertex);
+
+                EntityDetail entity = new EntityDetail();
+                entityMapper.mapVertexToEntityDetail(vertex, entity);
+                entities.add(entity);
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
+            g.tx().rollback();
+
+            throw new RepositoryErrorException(
+                    GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
+                            guids.toString(), methodName,
+                            this.getClass().getName(),
+                            repositoryName),
+                    this.getClass().getName(),
+                    methodName, e);
+        }
+
+        g.tx().commit();
+
+        return entities;
+    }
+
     synchronized EntitySummary getEntitySummaryFromStore(String guid)
 
     throws EntityNotKnownException,
@@ -1232,6 +1297,74 @@ class GraphOMRSMetadataStore {
     }
 
 
+    synchronized List<Relationship> getRelationshipsFromStore(Collection<String> guids)
+
+    throws RepositoryErrorException
+
+    {
+        String methodName = "getRelationshipsFromStore";
+
+        List<Relationship> relationships = new ArrayList<>();
+
+        // Look in the graph for all of the requested relationships with a single traversal.
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        Iterator<Edge> edgeIt = g.E().hasLabel("Relationship").has(PROPERTY_KEY_RELATIONSHIP_GUID, within(guids));
+
+        try
+        {
+            while (edgeIt.hasNext())
+            {
+                Edge edge = edgeIt.next();
+                log.debug("{} found existing edge {}", methodName, edge);
+
+                Relationship relationship = new Relationship();
+
+                // Map the properties
+                relationshipMapper.mapEdgeToRelationship(edge, relationship);
+
+                // Set the relationship ends - either end may be a full entity or a proxy
+                Vertex vertex = edge.outVertex();
+
+                if (vertex != null)
+                {
+                    EntityProxy entityOneProxy = new EntityProxy();
+                    entityMapper.mapVertexToEntityProxy(vertex, entityOneProxy);
+                    relationship.setEntityOneProxy(entityOneProxy);
+                }
+
+                vertex = edge.inVertex();
+
+                if (vertex != null)
+                {
+                    EntityProxy entityTwoProxy = new EntityProxy();
+                    entityMapper.mapVertexToEntityProxy(vertex, entityTwoProxy);
+                    relationship.setEntityTwoProxy(entityTwoProxy);
+                }
+
+                relationships.add(relationship);
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("{} Caught exception from relationship mapper {}", methodName, e.getMessage());
+            g.tx().rollback();
+
+            throw new RepositoryErrorException(
+                    GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND.getMessageDefinition(
+                            guids.toString(), methodName,
+                            this.getClass().getName(),
+                            repositoryName),
+                    this.getClass().getName(),
+                    methodName, e);
+        }
+
+        g.tx().commit();
+
+        return relationships;
+    }
+
+
     synchronized void updateEntityInStore(EntityDetail entity)
 
     throws RepositoryErrorException
@@ -1935,8 +2068,9 @@ class GraphOMRSMetadataStore {
 
                                 // The graph connector has to map from Egeria's internal regex convention to a format that is supported by JanusGraph.
 
-                                String searchString = convertSearchStringToJanusRegex((String) primValue);
+                                String searchString = getJanusSearchString((String) primValue);
                                 log.debug("{} primitive match property search string {}", methodName, searchString);
+                                String exactMatchLiteral = getExactMatchLiteral((String) primValue);
 
                                 // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
                                 if (mapping == GraphOMRSGraphFactory.MixedIndexMapping.Text)
@@ -1951,6 +2085,11 @@ class GraphOMRSMetadataStore {
                                         String ANYCHARS = ".*";
                                         t = t.has(propNameToSearch, Text.textRegex(ANYCHARS + searchString + ANYCHARS));         // for a field indexed using String mapping use textRegex
                                     }
+                                    else if (exactMatchLiteral != null)
+                                    {
+                                        // A full match of a literal value is an equality test...
+                                        t = t.has(propNameToSearch, exactMatchLiteral);
+                                    }
                                     else
                                     {
                                         // Must be a full match...
@@ -2358,7 +2497,7 @@ class GraphOMRSMetadataStore {
 
                                     // The graph connector has to map from Egeria's internal regex convention to a format that is supported by JanusGraph.
 
-                                    String searchString = convertSearchStringToJanusRegex((String) primValue);
+                                    String searchString = getJanusSearchString((String) primValue);
                                     log.debug("{} primitive match property search string {}", methodName, searchString);
 
                                     // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
@@ -2819,7 +2958,7 @@ class GraphOMRSMetadataStore {
 
                                     // The graph connector has to map from Egeria's internal regex convention to a format that is supported by JanusGraph.
 
-                                    String searchString = convertSearchStringToJanusRegex((String) primValue);
+                                    String searchString = getJanusSearchString((String) primValue);
                                     log.debug("{} primitive match property search string {}", methodName, searchString);
 
                                     // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
@@ -3252,8 +3391,9 @@ class GraphOMRSMetadataStore {
 
                                 // The graph connector has to map from Egeria's internal regex convention to a format that is supported by JanusGraph.
 
-                                String searchString = convertSearchStringToJanusRegex((String) primValue);
+                                String searchString = getJanusSearchString((String) primValue);
                                 log.debug("{} primitive match property search string {}", methodName, searchString);
+                                String exactMatchLiteral = getExactMatchLiteral((String) primValue);
 
                                 // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
                                 if (mapping == GraphOMRSGraphFactory.MixedIndexMapping.Text)
@@ -3268,6 +3408,11 @@ class GraphOMRSMetadataStore {
                                         String ANYCHARS = ".*";
                                         t = t.has(propNameToSearch, Text.textRegex(ANYCHARS + searchString + ANYCHARS));         // for a field indexed using String mapping use textRegex
                                     }
+                                    else if (exactMatchLiteral != null)
+                                    {
+                                        // A full match of a literal value is an equality test...
+                                        t = t.has(propNameToSearch, exactMatchLiteral);
+                                    }
                                     else
                                     {
                                         // Must be a full match...
@@ -3699,7 +3844,7 @@ class GraphOMRSMetadataStore {
 
                                     // The graph connector has to map from Egeria's internal regex convention to a format that is supported by JanusGraph.
 
-                                    String searchString = convertSearchStringToJanusRegex((String) primValue);
+                                    String searchString = getJanusSearchString((String) primValue);
                                     log.debug("{} primitive match property search string {}", methodName, searchString);
 
                                     // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
@@ -4170,7 +4315,7 @@ class GraphOMRSMetadataStore {
 
                                     // The graph connector has to map from Egeria's internal regex convention to a format that is supported by JanusGraph.
 
-                                    String searchString = convertSearchStringToJanusRegex((String) primValue);
+                                    String searchString = getJanusSearchString((String) primValue);
                                     log.debug("{} primitive match property search string {}", methodName, searchString);
 
                                     // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
@@ -4368,6 +4513,50 @@ class GraphOMRSMetadataStore {
 
 
 
+    /*
+     * Return the JanusGraph form of an Egeria regex, converting it only the first time it is seen.
+     */
+    private String getJanusSearchString(String str)
+    {
+        if (str == null)
+        {
+            return null;
+        }
+
+        String janusSearchString = janusSearchStrings.get(str);
+
+        if (janusSearchString == null)
+        {
+            janusSearchString = convertSearchStringToJanusRegex(str);
+
+            if (janusSearchString != null)
+            {
+                janusSearchStrings.put(str, janusSearchString);
+            }
+        }
+
+        return janusSearchString;
+    }
+
+
+    /*
+     * Return the literal value of an Egeria regex that is a case-sensitive exact match (as produced by
+     * getExactMatchRegex) so that a full match can use an equality test rather than a regex.  Any other
+     * regex returns null.
+     */
+    private String getExactMatchLiteral(String str)
+    {
+        OMRSSearchPlan searchPlan = OMRSSearchPlan.getSearchPlan(str);
+
+        if ((searchPlan != null) && (searchPlan.getMatchType() == OMRSSearchPlan.MatchType.EXACT) && (! searchPlan.isCaseInsensitive()))
+        {
+            return searchPlan.getLiteral();
+        }
+
+        return null;
+    }
+
+
     /*
      * This method converts an Egeria regex into an expression that can be used with the JanusGraph
      * text predicates.
@@ -5149,7 +5338,7 @@ class GraphOMRSMetadataStore {
 
                                     // The graph connector has to map from Egeria's internal regex convention to a format that is supported by JanusGraph.
 
-                                    String searchString = convertSearchStringToJanusRegex((String) primValue);
+                                    String searchString = getJanusSearchString((String) primValue);
                                     log.debug("{} primitive match property search string {}", methodName, searchString);
 
                                     // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
@@ -9425,8 +9614,9 @@ class GraphOMRSMetadataStore {
          */
         if (operator == LIKE)
         {
-            String searchString = convertSearchStringToJanusRegex((String) primValue);
+            String searchString = getJanusSearchString((String) primValue);
             log.debug("{} primitive match property search string {}", methodName, searchString);
+            String exactMatchLiteral = getExactMatchLiteral((String) primValue);
 
             // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
             if (mapping == GraphOMRSGraphFactory.MixedIndexMapping.Text)
@@ -9441,6 +9631,10 @@ class GraphOMRSMetadataStore {
                     String ANYCHARS = ".*";
                     t = t.has(propNameInGraph, Text.textRegex(ANYCHARS + searchString + ANYCHARS));   // for a field indexed using String mapping use textRegex
                 }
+                else if (exactMatchLiteral != null) // A full match of a literal value is an equality test...
+                {
+                    t = t.has(propNameInGraph, exactMatchLiteral);
+                }
                 else // Must be a full match...
                 {
                     t = t.has(propNameInGraph, Text.textRegex(searchString));
@@ -9575,8 +9769,9 @@ class GraphOMRSMetadataStore {
          */
         if (operator == LIKE)
         {
-            String searchString = convertSearchStringToJanusRegex((String) primValue);
+            String searchString = getJanusSearchString((String) primValue);
             log.debug("{} primitive match property search string {}", methodName, searchString);
+            String exactMatchLiteral = getExactMatchLiteral((String) primValue);
 
             // NB This is using a JG specific approach to text predicates - see the static import above. From TP 3.4.0 try to use the TP text predicates.
             if (mapping == GraphOMRSGraphFactory.MixedIndexMapping.Text)
@@ -9591,6 +9786,10 @@ class GraphOMRSMetadataStore {
                     String ANYCHARS = ".*";
                     t = t.has(propNameInGraph, Text.textRegex(ANYCHARS + searchString + ANYCHARS));   // for a field indexed using String mapping use textRegex
                 }
+                else if (exactMatchLiteral != null) // A full match of a literal value is an equality test...
+                {
+                    t = t.has(propNameInGraph, exactMatchLiteral);
+                }
                 else // Must be a full match...
                 {
                     t = t.has(propNameInGraph, Text.textRegex(searchString));
@@ -0,0 +1,648 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertiesDifferences;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * InMemoryInstanceHistory holds the previous versions of an instance in a compact form.  Only the most recent
+ * previous version keeps its full set of properties.  Each older version stores its header (without properties)
+ * and the differences between its properties and those of the version that replaced it.  Consecutive versions
+ * with the same classifications share a single classification list.  The version numbers and start times
+ * of the versions are held in primitive arrays (oldest first) so that the version that was active at a
+ * particular time can be located with a binary search.
+ *
+ * Versions are rebuilt on request by walking back from the most recent version and undoing the property
+ * changes.  Only the versions that are returned are rebuilt in full.
+ *
+ * The history is not thread-safe.  It is maintained under the control of the InMemoryOMRSMetadataStore.
+ *
+ * @param <T> type of instance - EntityDetail or Relationship
+ */
+class InMemoryInstanceHistory<T extends InstanceHeader>
+{
+    private static final int INITIAL_CAPACITY = 2;
+
+    private final Function<T, InstanceProperties>   propertiesGetter;
+    private final BiConsumer<T, InstanceProperties> propertiesSetter;
+    private final UnaryOperator<T>                  copier;
+
+    private long[]   versions   = new long[INITIAL_CAPACITY];
+    private long[]   startTimes = new long[INITIAL_CAPACITY];
+    private Object[] headers    = new Object[INITIAL_CAPACITY];
+    private Object[] deltas     = new Object[INITIAL_CAPACITY];
+    private int      size       = 0;
+
+    private InstanceProperties   newestProperties      = null;
+    private List<Classification> newestClassifications = null;
+    private long                 newestSupersededTime  = 0;
+
+
+    /**
+     * Constructor
+     *
+     * @param propertiesGetter function to extract the properties from an instance
+     * @param propertiesSetter function to set the properties in an instance
+     * @param copier function to copy an instance
+     */
+    InMemoryInstanceHistory(Function<T, InstanceProperties>   propertiesGetter,
+                            BiConsumer<T, InstanceProperties> propertiesSetter,
+                            UnaryOperator<T>                  copier)
+    {
+        this.propertiesGetter = propertiesGetter;
+        this.propertiesSetter = propertiesSetter;
+        this.copier = copier;
+    }
+
+
+    /**
+     * Return the number of previous versions that are retained.
+     *
+     * @return count
+     */
+    int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Return the time that an instance version became active.
+     *
+     * @param instance instance version
+     * @return time in milliseconds
+     */
+    static long getStartTime(InstanceHeader instance)
+    {
+        if (instance.getUpdateTime() != null)
+        {
+            return instance.getUpdateTime().getTime();
+        }
+        else if (instance.getCreateTime() != null)
+        {
+            return instance.getCreateTime().getTime();
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Add the version that has just been replaced to the history and then remove any versions
+     * that fall outside the retention policy.
+     *
+     * @param instance previous version of the instance
+     * @param maxVersions maximum number of versions to retain (negative means no limit)
+     * @param maxAge maximum time (in milliseconds) to retain a version after it is replaced (zero or less means no limit)
+     */
+    void add(T    instance,
+             int  maxVersions,
+             long maxAge)
+    {
+        long               now        = System.currentTimeMillis();
+        InstanceProperties properties = propertiesGetter.apply(instance);
+        T                  header     = copier.apply(instance);
+
+        propertiesSetter.accept(header, null);
+
+        if (header instanceof EntitySummary)
+        {
+            EntitySummary        entityHeader    = (EntitySummary)header;
+            List<Classification> classifications = entityHeader.getClassifications();
+
+            if ((classifications != null) && (classifications.equals(newestClassifications)))
+            {
+                classifications = newestClassifications;
+            }
+
+            entityHeader.setClassifications(classifications);
+            newestClassifications = classifications;
+        }
+
+        if (size == versions.length)
+        {
+            int newCapacity = versions.length * 2;
+
+            versions = Arrays.copyOf(versions, newCapacity);
+            startTimes = Arrays.copyOf(startTimes, newCapacity);
+            headers = Arrays.copyOf(headers, newCapacity);
+            deltas = Arrays.copyOf(deltas, newCapacity);
+        }
+
+        if (size > 0)
+        {
+            deltas[size - 1] = new PropertiesDelta(newestProperties, properties);
+        }
+
+        versions[size] = instance.getVersion();
+        startTimes[size] = getStartTime(instance);
+        headers[size] = header;
+        deltas[size] = null;
+        size++;
+
+        newestProperties = properties;
+        newestSupersededTime = now;
+
+        applyRetentionPolicy(maxVersions, maxAge, now);
+    }
+
+
+    /**
+     * Remove the oldest versions that are outside the retention policy.
+     *
+     * @param maxVersions maximum number of versions to retain (negative means no limit)
+     * @param maxAge maximum time (in milliseconds) to retain a version after it is replaced (zero or less means no limit)
+     * @param now current time
+     */
+    private void applyRetentionPolicy(int  maxVersions,
+                                      long maxAge,
+                                      long now)
+    {
+        int removeCount = 0;
+
+        if ((maxVersions >= 0) && (size > maxVersions))
+        {
+            removeCount = size - maxVersions;
+        }
+
+        if (maxAge > 0)
+        {
+            while ((removeCount < size) && (getSupersededTime(removeCount) < now - maxAge))
+            {
+                removeCount++;
+            }
+        }
+
+        if (removeCount >= size)
+        {
+            clear();
+        }
+        else if (removeCount > 0)
+        {
+            int remaining = size - removeCount;
+
+            System.arraycopy(versions, removeCount, versions, 0, remaining);
+            System.arraycopy(startTimes, removeCount, startTimes, 0, remaining);
+            System.arraycopy(headers, removeCount, headers, 0, remaining);
+            System.arraycopy(deltas, removeCount, deltas, 0, remaining);
+            Arrays.fill(headers, remaining, size, null);
+            Arrays.fill(deltas, remaining, size, null);
+
+            size = remaining;
+        }
+    }
+
+
+    /**
+     * Return the time that a version in the history was replaced.
+     *
+     * @param index index of the version (oldest first)
+     * @return time in milliseconds
+     */
+    private long getSupersededTime(int index)
+    {
+        if (index < size - 1)
+        {
+            return startTimes[index + 1];
+        }
+
+        return newestSupersededTime;
+    }
+
+
+    /**
+     * Remove all versions from the history.
+     */
+    void clear()
+    {
+        Arrays.fill(headers, 0, size, null);
+        Arrays.fill(deltas, 0, size, null);
+
+        size = 0;
+        newestProperties = null;
+        newestClassifications = null;
+    }
+
+
+    /**
+     * Return the version number of a version in the history.
+     *
+     * @param index index of the version (oldest first)
+     * @return version number
+     */
+    long getVersion(int index)
+    {
+        return versions[index];
+    }
+
+
+    /**
+     * Return the most recent previous version.
+     *
+     * @return instance version or null if the history is empty
+     */
+    T getNewest()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+
+        return getVersions(size - 1, size - 1).get(0);
+    }
+
+
+    /**
+     * Rebuild a range of versions from the history.
+     *
+     * @param oldestIndex index of the oldest version to return
+     * @param newestIndex index of the newest version to return
+     * @return list of instance versions (oldest first)
+     */
+    List<T> getVersions(int oldestIndex,
+                        int newestIndex)
+    {
+        List<T> results = new ArrayList<>(Collections.nCopies(newestIndex - oldestIndex + 1, null));
+
+        Map<String, InstancePropertyValue> workingProperties;
+
+        if ((newestProperties != null) && (newestProperties.getInstanceProperties() != null))
+        {
+            workingProperties = newestProperties.getInstanceProperties();
+        }
+        else
+        {
+            workingProperties = new HashMap<>();
+        }
+
+        for (int index = size - 1; index >= oldestIndex; index--)
+        {
+            InstanceProperties properties = newestProperties;
+
+            if (index < size - 1)
+            {
+                PropertiesDelta delta = (PropertiesDelta)deltas[index];
+
+                properties = delta.undo(workingProperties, index <= newestIndex);
+            }
+
+            if (index <= newestIndex)
+            {
+                @SuppressWarnings("unchecked")
+                T instance = copier.apply((T)headers[index]);
+
+                if ((index == size - 1) && (properties != null))
+                {
+                    properties = new InstanceProperties(properties);
+                }
+
+                propertiesSetter.accept(instance, properties);
+                results.set(index - oldestIndex, instance);
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return the version that was active at the requested time.
+     *
+     * @param asOfTime time of interest
+     * @param current current version of the instance (or null if there is none)
+     * @param endTime time that the last version was removed (or null if it is still active)
+     * @return selected version or null if the instance was not active at this time
+     */
+    T getVersionAsOf(Date asOfTime,
+                     T    current,
+                     Date endTime)
+    {
+        long asOf = asOfTime.getTime();
+
+        if ((endTime != null) && (asOf > endTime.getTime()))
+        {
+            return null;
+        }
+
+        if ((current != null) && (getStartTime(current) <= asOf))
+        {
+            return current;
+        }
+
+        int index = getLastStartedBy(asOf, size);
+
+        if (index < 0)
+        {
+            return null;
+        }
+
+        return getVersions(index, index).get(0);
+    }
+
+
+    /**
+     * Return a page of the versions of the instance that were active between the "from" and "to" times.
+     * The timeline covers the previous versions followed by the current version.
+     *
+     * @param fromTime starting time (null means no limit)
+     * @param toTime ending time (null means no limit)
+     * @param current current version of the instance (or null if there is none)
+     * @param endTime time that the last version was removed (or null if it is still active)
+     * @param oldestFirst ordering of results
+     * @param startFromElement starting element of the page
+     * @param pageSize maximum number of elements to return (zero means no limit)
+     * @return list of instance versions
+     */
+    List<T> getVersions(Date    fromTime,
+                        Date    toTime,
+                        T       current,
+                        Date    endTime,
+                        boolean oldestFirst,
+                        int     startFromElement,
+                        int     pageSize)
+    {
+        List<T> results      = new ArrayList<>();
+        int     timelineSize = size;
+
+        if (current != null)
+        {
+            timelineSize++;
+        }
+
+        long from = Long.MIN_VALUE;
+        long to   = Long.MAX_VALUE;
+
+        if (fromTime != null)
+        {
+            from = fromTime.getTime();
+        }
+
+        if (toTime != null)
+        {
+            to = toTime.getTime();
+        }
+
+        /*
+         * The start times are in ascending order so the versions in range are a contiguous block.
+         */
+        int newestInRange = getLastStartedBy(to, timelineSize, current);
+        int oldestInRange = getFirstEndedAfter(from, timelineSize, current, endTime);
+
+        int rangeSize = newestInRange - oldestInRange + 1;
+
+        if ((rangeSize <= 0) || (startFromElement >= rangeSize))
+        {
+            return results;
+        }
+
+        int resultCount = rangeSize - startFromElement;
+
+        if ((pageSize > 0) && (pageSize < resultCount))
+        {
+            resultCount = pageSize;
+        }
+
+        int pageOldest;
+
+        if (oldestFirst)
+        {
+            pageOldest = oldestInRange + startFromElement;
+        }
+        else
+        {
+            pageOldest = newestInRange - startFromElement - resultCount + 1;
+        }
+
+        int pageNewest = pageOldest + resultCount - 1;
+
+        if (pageOldest < size)
+        {
+            results.addAll(getVersions(pageOldest, Math.min(pageNewest, size - 1)));
+        }
+
+        if (pageNewest == size)
+        {
+            results.add(current);
+        }
+
+        if (! oldestFirst)
+        {
+            Collections.reverse(results);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Binary search for the last version in the history that started at or before the requested time.
+     *
+     * @param time time of interest
+     * @param timelineSize number of versions to search
+     * @return index or -1 if none
+     */
+    private int getLastStartedBy(long time,
+                                 int  timelineSize)
+    {
+        return getLastStartedBy(time, timelineSize, null);
+    }
+
+
+    /**
+     * Binary search for the last version in the timeline that started at or before the requested time.
+     *
+     * @param time time of interest
+     * @param timelineSize number of versions to search
+     * @param current current version that follows the history (or null)
+     * @return index or -1 if none
+     */
+    private int getLastStartedBy(long time,
+                                 int  timelineSize,
+                                 T    current)
+    {
+        int low  = 0;
+        int high = timelineSize - 1;
+
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+
+            if (getTimelineStartTime(middle, current) <= time)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        return high;
+    }
+
+
+    /**
+     * Binary search for the first version in the timeline that was still active at or after the requested time.
+     *
+     * @param time time of interest
+     * @param timelineSize number of versions to search
+     * @param current current version that follows the history (or null)
+     * @param endTime time that the last version was removed (or null if it is still active)
+     * @return index (timelineSize if none)
+     */
+    private int getFirstEndedAfter(long time,
+                                   int  timelineSize,
+                                   T    current,
+                                   Date endTime)
+    {
+        int low  = 0;
+        int high = timelineSize - 1;
+
+        while (low <= high)
+        {
+            int  middle = (low + high) >>> 1;
+            long middleEndTime;
+
+            if (middle < timelineSize - 1)
+            {
+                middleEndTime = getTimelineStartTime(middle + 1, current);
+            }
+            else if (endTime != null)
+            {
+                middleEndTime = endTime.getTime();
+            }
+            else
+            {
+                middleEndTime = Long.MAX_VALUE;
+            }
+
+            if (middleEndTime >= time)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+
+    /**
+     * Return the start time of a version in the timeline.
+     *
+     * @param index index of the version (oldest first)
+     * @param current current version that follows the history
+     * @return time in milliseconds
+     */
+    private long getTimelineStartTime(int index,
+                                      T   current)
+    {
+        if (index < size)
+        {
+            return startTimes[index];
+        }
+
+        return getStartTime(current);
+    }
+
+
+    /**
+     * The changes needed to turn the properties of one version back into the properties of the version it replaced.
+     */
+    private static class PropertiesDelta
+    {
+        private final String[]                names;
+        private final InstancePropertyValue[] olderValues;
+        private final boolean                 olderHasProperties;
+        private final Date                    olderEffectiveFromTime;
+        private final Date                    olderEffectiveToTime;
+
+
+        /**
+         * Capture the differences between the properties of two versions.
+         *
+         * @param olderProperties properties of the older version
+         * @param newerProperties properties of the version that replaced it
+         */
+        PropertiesDelta(InstanceProperties olderProperties,
+                        InstanceProperties newerProperties)
+        {
+            InstancePropertiesDifferences differences = new InstancePropertiesDifferences();
+
+            differences.check(olderProperties, newerProperties);
+
+            Set<String> differingNames = differences.getNames();
+
+            names = differingNames.toArray(new String[0]);
+            olderValues = new InstancePropertyValue[names.length];
+
+            for (int index = 0; index < names.length; index++)
+            {
+                olderValues[index] = (InstancePropertyValue)differences.getLeftValue(names[index]);
+            }
+
+            olderHasProperties = (olderProperties != null);
+
+            if (olderProperties != null)
+            {
+                olderEffectiveFromTime = olderProperties.getEffectiveFromTime();
+                olderEffectiveToTime = olderProperties.getEffectiveToTime();
+            }
+            else
+            {
+                olderEffectiveFromTime = null;
+                olderEffectiveToTime = null;
+            }
+        }
+
+
+        /**
+         * Update the working properties from the newer version to the older version.
+         *
+         * @param workingProperties property values of the newer version - updated to the older version
+         * @param buildProperties whether the properties object for the older version is needed
+         * @return properties of the older version (null if not requested or there are none)
+         */
+        InstanceProperties undo(Map<String, InstancePropertyValue> workingProperties,
+                                boolean                            buildProperties)
+        {
+            for (int index = 0; index < names.length; index++)
+            {
+                if (olderValues[index] == null)
+                {
+                    workingProperties.remove(names[index]);
+                }
+                else
+                {
+                    workingProperties.put(names[index], olderValues[index]);
+                }
+            }
+
+            if ((! buildProperties) || (! olderHasProperties))
+            {
+                return null;
+            }
+
+            InstanceProperties properties = new InstanceProperties();
+
+            properties.setInstanceProperties(new HashMap<>(workingProperties));
+            properties.setEffectiveFromTime(olderEffectiveFromTime);
+            properties.setEffectiveToTime(olderEffectiveToTime);
+
+            return properties;
+        }
+    }
+}
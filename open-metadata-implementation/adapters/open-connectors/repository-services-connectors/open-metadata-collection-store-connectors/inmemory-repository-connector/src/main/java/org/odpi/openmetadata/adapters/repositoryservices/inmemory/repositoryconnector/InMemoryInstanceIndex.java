@@ -0,0 +1,407 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+import java.util.*;
+
+/**
+ * InMemoryInstanceIndex maintains the secondary indexes for the current versions of the instances in the
+ * InMemoryOMRSMetadataStore.  The indexes map type names, classification names, statuses and (for relationships)
+ * the GUIDs of the entities at each end to the GUIDs of the instances that match.  They are used to narrow
+ * down the instances that a query needs to examine.  The candidates returned are a superset of the
+ * matching instances - the caller is still responsible for checking each candidate against the full
+ * search criteria.
+ *
+ * The index is not thread-safe.  It is maintained under the control of the InMemoryOMRSMetadataStore.
+ */
+class InMemoryInstanceIndex
+{
+    private final Map<String, Set<String>>         typeNameIndex       = new HashMap<>();
+    private final Map<String, Set<String>>         classificationIndex = new HashMap<>();
+    private final Map<InstanceStatus, Set<String>> statusIndex         = new HashMap<>();
+    private final Map<String, Set<String>>         entityEndIndex      = new HashMap<>();
+    private final Map<String, IndexedKeys>         indexedInstances    = new HashMap<>();
+
+
+    /**
+     * Default constructor
+     */
+    InMemoryInstanceIndex()
+    {
+    }
+
+
+    /**
+     * Add (or refresh) the index entries for the current version of an entity.  A null entity
+     * removes any existing entries (for example, only the proxy is known).
+     *
+     * @param guid unique identifier of the entity
+     * @param entity current version of the entity
+     */
+    void indexEntity(String       guid,
+                     EntityDetail entity)
+    {
+        if (entity == null)
+        {
+            removeInstance(guid);
+            return;
+        }
+
+        List<String> classificationNames = null;
+
+        if (entity.getClassifications() != null)
+        {
+            classificationNames = new ArrayList<>();
+
+            for (Classification classification : entity.getClassifications())
+            {
+                if ((classification != null) && (classification.getName() != null))
+                {
+                    classificationNames.add(classification.getName());
+                }
+            }
+        }
+
+        indexInstance(guid, new IndexedKeys(getTypeName(entity), classificationNames, entity.getStatus(), null));
+    }
+
+
+    /**
+     * Add (or refresh) the index entries for the current version of a relationship.  A null relationship
+     * removes any existing entries (for example, it has been purged).
+     *
+     * @param guid unique identifier of the relationship
+     * @param relationship current version of the relationship
+     */
+    void indexRelationship(String       guid,
+                           Relationship relationship)
+    {
+        if (relationship == null)
+        {
+            removeInstance(guid);
+            return;
+        }
+
+        List<String> entityEndGUIDs = new ArrayList<>();
+
+        addProxyGUID(relationship.getEntityOneProxy(), entityEndGUIDs);
+        addProxyGUID(relationship.getEntityTwoProxy(), entityEndGUIDs);
+
+        indexInstance(guid, new IndexedKeys(getTypeName(relationship), null, relationship.getStatus(), entityEndGUIDs));
+    }
+
+
+    /**
+     * Remove all index entries for an instance.
+     *
+     * @param guid unique identifier of the instance
+     */
+    void removeInstance(String guid)
+    {
+        IndexedKeys oldKeys = indexedInstances.remove(guid);
+
+        if (oldKeys != null)
+        {
+            removeKey(typeNameIndex, oldKeys.typeName, guid);
+            removeKey(statusIndex, oldKeys.status, guid);
+
+            if (oldKeys.classificationNames != null)
+            {
+                for (String classificationName : oldKeys.classificationNames)
+                {
+                    removeKey(classificationIndex, classificationName, guid);
+                }
+            }
+
+            if (oldKeys.entityEndGUIDs != null)
+            {
+                for (String entityGUID : oldKeys.entityEndGUIDs)
+                {
+                    removeKey(entityEndIndex, entityGUID, guid);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the unique identifiers of the instances that could match the supplied criteria.  Each supplied
+     * criterion narrows the search and the smallest matching set of instances is returned.
+     *
+     * @param typeNames names of the types (including subtypes) of interest - null means any type
+     * @param classificationNames names of the classifications that must all be present - null means any
+     * @param limitResultsByStatus statuses of interest - null means any
+     * @param entityGUID unique identifier of an entity that must be at one end of the relationship - null means any
+     * @return set of instance GUIDs or null if the criteria do not restrict the search
+     */
+    Set<String> getCandidates(Set<String>          typeNames,
+                              List<String>         classificationNames,
+                              List<InstanceStatus> limitResultsByStatus,
+                              String               entityGUID)
+    {
+        Set<String> candidates = null;
+
+        if (entityGUID != null)
+        {
+            candidates = getIndexedGUIDs(entityEndIndex, entityGUID);
+        }
+
+        if (classificationNames != null)
+        {
+            for (String classificationName : classificationNames)
+            {
+                candidates = smallest(candidates, getIndexedGUIDs(classificationIndex, classificationName));
+            }
+        }
+
+        if (typeNames != null)
+        {
+            candidates = smallest(candidates, getUnion(typeNameIndex, typeNames));
+        }
+
+        if ((limitResultsByStatus != null) && (! limitResultsByStatus.isEmpty()))
+        {
+            candidates = smallest(candidates, getUnion(statusIndex, limitResultsByStatus));
+        }
+
+        return candidates;
+    }
+
+
+    /**
+     * Return the unique identifiers of the relationships that are connected to an entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return set of relationship GUIDs (empty if none)
+     */
+    Set<String> getRelationshipsForEntity(String entityGUID)
+    {
+        return getIndexedGUIDs(entityEndIndex, entityGUID);
+    }
+
+
+    /**
+     * Replace the index entries for an instance with its new keys.
+     *
+     * @param guid unique identifier of the instance
+     * @param newKeys keys extracted from the latest version of the instance
+     */
+    private void indexInstance(String      guid,
+                               IndexedKeys newKeys)
+    {
+        removeInstance(guid);
+
+        indexedInstances.put(guid, newKeys);
+
+        addKey(typeNameIndex, newKeys.typeName, guid);
+        addKey(statusIndex, newKeys.status, guid);
+
+        if (newKeys.classificationNames != null)
+        {
+            for (String classificationName : newKeys.classificationNames)
+            {
+                addKey(classificationIndex, classificationName, guid);
+            }
+        }
+
+        if (newKeys.entityEndGUIDs != null)
+        {
+            for (String entityGUID : newKeys.entityEndGUIDs)
+            {
+                addKey(entityEndIndex, entityGUID, guid);
+            }
+        }
+    }
+
+
+    /**
+     * Extract the type name from an instance.
+     *
+     * @param instance instance header
+     * @return type name or null
+     */
+    private String getTypeName(InstanceHeader instance)
+    {
+        InstanceType instanceType = instance.getType();
+
+        if (instanceType != null)
+        {
+            return instanceType.getTypeDefName();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Add the GUID of the entity proxy to the list.
+     *
+     * @param entityProxy proxy from a relationship end
+     * @param entityEndGUIDs list to add to
+     */
+    private void addProxyGUID(EntityProxy  entityProxy,
+                              List<String> entityEndGUIDs)
+    {
+        if ((entityProxy != null) && (entityProxy.getGUID() != null))
+        {
+            entityEndGUIDs.add(entityProxy.getGUID());
+        }
+    }
+
+
+    /**
+     * Add an instance GUID to one of the indexes.
+     *
+     * @param index index to update
+     * @param key key value extracted from the instance
+     * @param guid unique identifier of the instance
+     * @param <K> type of key
+     */
+    private <K> void addKey(Map<K, Set<String>> index,
+                            K                   key,
+                            String              guid)
+    {
+        if (key != null)
+        {
+            index.computeIfAbsent(key, newKey -> new HashSet<>()).add(guid);
+        }
+    }
+
+
+    /**
+     * Remove an instance GUID from one of the indexes, tidying up any empty entries.
+     *
+     * @param index index to update
+     * @param key key value extracted from the instance
+     * @param guid unique identifier of the instance
+     * @param <K> type of key
+     */
+    private <K> void removeKey(Map<K, Set<String>> index,
+                               K                   key,
+                               String              guid)
+    {
+        if (key != null)
+        {
+            Set<String> guids = index.get(key);
+
+            if (guids != null)
+            {
+                guids.remove(guid);
+
+                if (guids.isEmpty())
+                {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the GUIDs stored under a key.
+     *
+     * @param index index to query
+     * @param key key to look up
+     * @param <K> type of key
+     * @return set of GUIDs (empty if none)
+     */
+    private <K> Set<String> getIndexedGUIDs(Map<K, Set<String>> index,
+                                            K                   key)
+    {
+        Set<String> guids = index.get(key);
+
+        if (guids == null)
+        {
+            return Collections.emptySet();
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Return the GUIDs stored under any of the keys.
+     *
+     * @param index index to query
+     * @param keys keys to look up
+     * @param <K> type of key
+     * @return set of GUIDs (empty if none)
+     */
+    private <K> Set<String> getUnion(Map<K, Set<String>> index,
+                                     Collection<K>       keys)
+    {
+        if (keys.size() == 1)
+        {
+            return getIndexedGUIDs(index, keys.iterator().next());
+        }
+
+        Set<String> union = new HashSet<>();
+
+        for (K key : keys)
+        {
+            union.addAll(getIndexedGUIDs(index, key));
+        }
+
+        return union;
+    }
+
+
+    /**
+     * Return the smaller of two candidate sets.  Null means unrestricted.
+     *
+     * @param currentCandidates candidates so far
+     * @param newCandidates candidates from the next criterion
+     * @return smaller set
+     */
+    private Set<String> smallest(Set<String> currentCandidates,
+                                 Set<String> newCandidates)
+    {
+        if ((currentCandidates == null) || (newCandidates.size() < currentCandidates.size()))
+        {
+            return newCandidates;
+        }
+
+        return currentCandidates;
+    }
+
+
+    /**
+     * The keys that an instance is currently indexed under.  They are retained so that the old
+     * entries can be removed when the instance changes.
+     */
+    private static class IndexedKeys
+    {
+        final String         typeName;
+        final List<String>   classificationNames;
+        final InstanceStatus status;
+        final List<String>   entityEndGUIDs;
+
+
+        /**
+         * Constructor
+         *
+         * @param typeName name of the instance's type
+         * @param classificationNames names of the classifications attached to an entity
+         * @param status instance status
+         * @param entityEndGUIDs unique identifiers of the entities at the ends of a relationship
+         */
+        IndexedKeys(String         typeName,
+                    List<String>   classificationNames,
+                    InstanceStatus status,
+                    List<String>   entityEndGUIDs)
+        {
+            this.typeName = typeName;
+            this.classificationNames = classificationNames;
+            this.status = status;
+            this.entityEndGUIDs = entityEndGUIDs;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.AuditLogMessageDefinition;
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.AuditLogMessageSet;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLogRecordSeverity;
+
+
+/**
+ * The InMemoryOMRSAuditCode is used to define the message content for the OMRS Audit Log.
+ *
+ * The 5 fields in the enum are:
+ * <ul>
+ *     <li>Log Message Id - to uniquely identify the message</li>
+ *     <li>Severity - is this an event, decision, action, error or exception</li>
+ *     <li>Log Message Text - includes placeholder to allow additional values to be captured</li>
+ *     <li>SystemAction - describes the result of the situation</li>
+ *     <li>UserAction - describes how a user should correct the situation</li>
+ * </ul>
+ */
+public enum InMemoryOMRSAuditCode implements AuditLogMessageSet
+{
+    REPOSITORY_RECOVERED("OMRS-IN-MEMORY-REPOSITORY-0001",
+            OMRSAuditLogRecordSeverity.STARTUP,
+            "The in-memory repository {0} has recovered {1} entities and {2} relationships from persistence directory {3}",
+            "The local server has restored the content of the in-memory repository from its last snapshot and journal.  " +
+                    "All further changes to the repository are written to the journal in this directory.",
+            "No action is required.  If the repository is empty on the first start of the server then this is expected."),
+
+    SNAPSHOT_FAILED("OMRS-IN-MEMORY-REPOSITORY-0002",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The in-memory repository {0} is unable to write a snapshot to persistence directory {1} because of a {2} exception with message {3}",
+            "The journal is retained so no changes are lost.  However the journal will continue to grow until a snapshot can be written.",
+            "Check that the persistence directory is accessible to the server and that there is free space in the file system."),
+    ;
+
+    private final AuditLogMessageDefinition messageDefinition;
+
+
+    /**
+     * The constructor for InMemoryOMRSAuditCode expects to be passed one of the enumeration rows defined in
+     * InMemoryOMRSAuditCode above.   For example:
+     *
+     *     InMemoryOMRSAuditCode   auditCode = InMemoryOMRSAuditCode.REPOSITORY_RECOVERED;
+     *
+     * This will expand out to the 5 parameters shown below.
+     *
+     * @param messageId unique Id for the message
+     * @param severity severity of the message
+     * @param message text for the message
+     * @param systemAction description of the action taken by the system when the condition happened
+     * @param userAction instructions for resolving the situation, if any
+     */
+    InMemoryOMRSAuditCode(String                     messageId,
+                          OMRSAuditLogRecordSeverity severity,
+                          String                     message,
+                          String                     systemAction,
+                          String                     userAction)
+    {
+        messageDefinition = new AuditLogMessageDefinition(messageId,
+                                                          severity,
+                                                          message,
+                                                          systemAction,
+                                                          userAction);
+    }
+
+
+    /**
+     * Retrieve a message definition object for logging.  This method is used when there are no message inserts.
+     *
+     * @return message definition object.
+     */
+    @Override
+    public AuditLogMessageDefinition getMessageDefinition()
+    {
+        return messageDefinition;
+    }
+
+
+    /**
+     * Retrieve a message definition object for logging.  This method is used when there are values to be inserted into the message.
+     *
+     * @param params array of parameters (all strings).  They are inserted into the message according to the numbering in the message text.
+     * @return message definition object.
+     */
+    @Override
+    public AuditLogMessageDefinition getMessageDefinition(String ...params)
+    {
+        messageDefinition.setMessageParameters(params);
+
+        return messageDefinition;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return string of property names and values for this enum
+     */
+    @Override
+    public String toString()
+    {
+        return "InMemoryOMRSAuditCode{" +
+                       "messageDefinition=" + messageDefinition +
+                       '}';
+    }
+}
@@ -0,0 +1,112 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.ExceptionMessageDefinition;
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.ExceptionMessageSet;
+
+
+/**
+ * The InMemoryOMRSErrorCode is used to define first failure data capture (FFDC) for errors that occur within the
+ * in-memory repository connector.  It is used in conjunction with both Checked and Runtime (unchecked) exceptions.
+ *
+ * The 5 fields in the enum are:
+ * <ul>
+ *     <li>HTTP Error Code for translating between REST and JAVA. Typically the numbers used are:</li>
+ *     <li><ul>
+ *         <li>500: internal error</li>
+ *         <li>501: not implemented </li>
+ *         <li>503: Service not available</li>
+ *         <li>400: invalid parameters</li>
+ *         <li>401: unauthorized</li>
+ *         <li>404: not found</li>
+ *         <li>405: method not allowed</li>
+ *         <li>409: data conflict errors, for example an item is already defined</li>
+ *     </ul></li>
+ *     <li>Error Message Id: to uniquely identify the message</li>
+ *     <li>Error Message Text: includes placeholder to allow additional values to be captured</li>
+ *     <li>SystemAction: describes the result of the error</li>
+ *     <li>UserAction: describes how a user should correct the error</li>
+ * </ul>
+ */
+public enum InMemoryOMRSErrorCode implements ExceptionMessageSet
+{
+    CANNOT_RECOVER_REPOSITORY(500, "OMRS-IN-MEMORY-REPOSITORY-500-001",
+            "The in-memory repository {0} is unable to recover its content from persistence directory {1} because of a {2} exception with message {3}",
+            "The repository connector is not able to start.",
+            "Check that the persistence directory is accessible to the server and that its journal and snapshot files " +
+                    "have not been damaged.  Then restart the server."),
+    CANNOT_WRITE_JOURNAL(500, "OMRS-IN-MEMORY-REPOSITORY-500-002",
+            "The in-memory repository {0} is unable to write to its journal in persistence directory {1} because of a {2} exception with message {3}",
+            "The request is rejected because the change could not be made durable.  The repository is unchanged.",
+            "Check that the persistence directory is accessible to the server and that there is free space in the file system.  " +
+                    "Then retry the request."),
+    ;
+
+    private final ExceptionMessageDefinition messageDefinition;
+
+
+    /**
+     * The constructor for InMemoryOMRSErrorCode expects to be passed one of the enumeration rows defined in
+     * InMemoryOMRSErrorCode above.   For example:
+     *
+     *     InMemoryOMRSErrorCode   errorCode = InMemoryOMRSErrorCode.CANNOT_WRITE_JOURNAL;
+     *
+     * This will expand out to the 5 parameters shown below.
+     *
+     * @param httpErrorCode   error code to use over REST calls
+     * @param errorMessageId   unique Id for the message
+     * @param errorMessage   text for the message
+     * @param systemAction   description of the action taken by the system when the error condition happened
+     * @param userAction   instructions for resolving the error
+     */
+    InMemoryOMRSErrorCode(int  httpErrorCode, String errorMessageId, String errorMessage, String systemAction, String userAction)
+    {
+        this.messageDefinition = new ExceptionMessageDefinition(httpErrorCode,
+                                                                errorMessageId,
+                                                                errorMessage,
+                                                                systemAction,
+                                                                userAction);
+    }
+
+
+    /**
+     * Retrieve a message definition object for an exception.  This method is used when there are no message inserts.
+     *
+     * @return message definition object.
+     */
+    @Override
+    public ExceptionMessageDefinition getMessageDefinition()
+    {
+        return messageDefinition;
+    }
+
+
+    /**
+     * Retrieve a message definition object for an exception.  This method is used when there are values to be inserted into the message.
+     *
+     * @param params array of parameters (all strings).  They are inserted into the message according to the numbering in the message text.
+     * @return message definition object.
+     */
+    @Override
+    public ExceptionMessageDefinition getMessageDefinition(String... params)
+    {
+        messageDefinition.setMessageParameters(params);
+
+        return messageDefinition;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return string of property names and values for this enum
+     */
+    @Override
+    public String toString()
+    {
+        return "InMemoryOMRSErrorCode{" +
+                       "messageDefinition=" + messageDefinition +
+                       '}';
+    }
+}
@@ -0,0 +1,232 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+/**
+ * InMemoryOMRSJournalRecord describes a single change to the InMemoryOMRSMetadataStore.  The records are written
+ * to the journal (and snapshot) of a persistent in-memory repository and replayed in order to recover the
+ * content of the store when the repository restarts.  Only the properties needed by the record type are set.
+ */
+class InMemoryOMRSJournalRecord
+{
+    /**
+     * The type of change recorded.  Each value matches one of the update methods of the store.
+     */
+    enum RecordType
+    {
+        ENTITY_SAVED,
+        ENTITY_PROXY_SAVED,
+        CLASSIFICATION_SAVED,
+        CLASSIFICATION_REMOVED_FROM_ENTITY,
+        CLASSIFICATION_REMOVED_FROM_PROXY,
+        ENTITY_PURGED,
+        RELATIONSHIP_SAVED,
+        RELATIONSHIP_REMOVED,
+        RELATIONSHIP_PURGED
+    }
+
+    private RecordType     recordType         = null;
+    private String         guid               = null;
+    private EntityDetail   entity             = null;
+    private EntityProxy    entityProxy        = null;
+    private Relationship   relationship       = null;
+    private Classification classification     = null;
+    private String         classificationName = null;
+
+
+    /**
+     * Default constructor used when reading the record back from the journal.
+     */
+    public InMemoryOMRSJournalRecord()
+    {
+    }
+
+
+    /**
+     * Constructor for a new record.
+     *
+     * @param recordType type of change
+     * @param guid unique identifier of the instance that changed
+     */
+    InMemoryOMRSJournalRecord(RecordType recordType,
+                              String     guid)
+    {
+        this.recordType = recordType;
+        this.guid = guid;
+    }
+
+
+    /**
+     * Return the type of change.
+     *
+     * @return enum
+     */
+    public RecordType getRecordType()
+    {
+        return recordType;
+    }
+
+
+    /**
+     * Set up the type of change.
+     *
+     * @param recordType enum
+     */
+    public void setRecordType(RecordType recordType)
+    {
+        this.recordType = recordType;
+    }
+
+
+    /**
+     * Return the unique identifier of the instance that changed.
+     *
+     * @return guid
+     */
+    public String getGUID()
+    {
+        return guid;
+    }
+
+
+    /**
+     * Set up the unique identifier of the instance that changed.
+     *
+     * @param guid guid
+     */
+    public void setGUID(String guid)
+    {
+        this.guid = guid;
+    }
+
+
+    /**
+     * Return the entity that was saved.
+     *
+     * @return entity
+     */
+    public EntityDetail getEntity()
+    {
+        return entity;
+    }
+
+
+    /**
+     * Set up the entity that was saved.
+     *
+     * @param entity entity
+     */
+    public void setEntity(EntityDetail entity)
+    {
+        this.entity = entity;
+    }
+
+
+    /**
+     * Return the entity proxy that was saved.
+     *
+     * @return entity proxy
+     */
+    public EntityProxy getEntityProxy()
+    {
+        return entityProxy;
+    }
+
+
+    /**
+     * Set up the entity proxy that was saved.
+     *
+     * @param entityProxy entity proxy
+     */
+    public void setEntityProxy(EntityProxy entityProxy)
+    {
+        this.entityProxy = entityProxy;
+    }
+
+
+    /**
+     * Return the relationship that was saved or removed.
+     *
+     * @return relationship
+     */
+    public Relationship getRelationship()
+    {
+        return relationship;
+    }
+
+
+    /**
+     * Set up the relationship that was saved or removed.
+     *
+     * @param relationship relationship
+     */
+    public void setRelationship(Relationship relationship)
+    {
+        this.relationship = relationship;
+    }
+
+
+    /**
+     * Return the classification that was saved.
+     *
+     * @return classification
+     */
+    public Classification getClassification()
+    {
+        return classification;
+    }
+
+
+    /**
+     * Set up the classification that was saved.
+     *
+     * @param classification classification
+     */
+    public void setClassification(Classification classification)
+    {
+        this.classification = classification;
+    }
+
+
+    /**
+     * Return the name of the classification that was removed.
+     *
+     * @return classification name
+     */
+    public String getClassificationName()
+    {
+        return classificationName;
+    }
+
+
+    /**
+     * Set up the name of the classification that was removed.
+     *
+     * @param classificationName classification name
+     */
+    public void setClassificationName(String classificationName)
+    {
+        this.classificationName = classificationName;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "InMemoryOMRSJournalRecord{" +
+                       "recordType=" + recordType +
+                       ", guid='" + guid + '\'' +
+                       ", classificationName='" + classificationName + '\'' +
+                       '}';
+    }
+}
@@ -2,6 +2,7 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
 
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSDynamicTypeMetadataCollectionBase;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
@@ -15,6 +16,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -54,6 +56,44 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Set up the limits on the number of previous versions of each instance that are kept in the repository.
+     *
+     * @param maxHistoryVersions maximum number of previous versions to retain for each instance (negative means no limit)
+     * @param maxHistoryAge maximum time (in milliseconds) to retain a previous version (zero or less means no limit)
+     */
+    void setHistoryRetention(int  maxHistoryVersions,
+                             long maxHistoryAge)
+    {
+        repositoryStore.setHistoryRetention(maxHistoryVersions, maxHistoryAge);
+    }
+
+
+    /**
+     * Recover the instances from the persistence directory and journal all further changes to it.
+     *
+     * @param directoryName name of the persistence directory
+     * @param snapshotFrequency number of changes between snapshots of the repository
+     * @param auditLog audit log for the connector
+     * @throws IOException unable to read the persistence directory
+     */
+    void startPersistence(String   directoryName,
+                          int      snapshotFrequency,
+                          AuditLog auditLog) throws IOException
+    {
+        repositoryStore.startJournal(new InMemoryOMRSStoreJournal(directoryName, snapshotFrequency), auditLog);
+    }
+
+
+    /**
+     * Write a final snapshot of the instances to the persistence directory (if any) and stop journaling.
+     */
+    void stopPersistence()
+    {
+        repositoryStore.stopJournal();
+    }
+
+
     /* ===================================================
      * Group 3: Locating entity and relationship instances
      */
@@ -214,7 +254,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        EntityDetail  entity = repositoryStore.timeWarpEntityStore(asOfTime).get(guid);
+        EntityDetail  entity = repositoryStore.getEntity(guid, asOfTime);
         if (entity == null)
         {
             EntityProxy  entityProxy = repositoryStore.getEntityProxy(guid);
@@ -232,6 +272,75 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the header, classifications and properties of each of the requested entities.  The entities are
+     * retrieved from the store under a single read lock.  Entities that are not known, are only stored as
+     * proxies, or are soft-deleted are omitted from the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of the entities that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           UserNotAuthorizedException
+    {
+        final String  methodName = "getEntitiesDetail";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstancesParameterValidation(userId, guids, methodName);
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        /*
+         * Perform operation
+         */
+        Set<String>               uniqueGUIDs = new LinkedHashSet<>(guids);
+        Map<String, EntityDetail> entities    = repositoryStore.getEntities(uniqueGUIDs);
+        List<EntityDetail>        results     = new ArrayList<>();
+
+        for (String guid : uniqueGUIDs)
+        {
+            EntityDetail entity = entities.get(guid);
+
+            if (entity != null)
+            {
+                try
+                {
+                    repositoryValidator.validateEntityFromStore(repositoryName, guid, entity, methodName);
+                    repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
+
+                    results.add(entity);
+                }
+                catch (EntityNotKnownException deleted)
+                {
+                    /*
+                     * Omitted from the results.
+                     */
+                }
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
     /**
      * Return the relationships for a specific entity.
      *
@@ -303,9 +412,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
         List<Relationship> entityRelationships = new ArrayList<>();
 
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
-
-        for (Relationship  storedRelationship : relationshipStore.values())
+        for (Relationship  storedRelationship : repositoryStore.findRelationships(asOfTime, null, entityGUID, null))
         {
             if (storedRelationship != null)
             {
@@ -396,6 +503,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                 PagingErrorException,
                                                                                                 UserNotAuthorizedException
     {
+        final String  methodName = "findEntitiesByProperty";
+
         /*
          * Validate parameters
          */
@@ -414,13 +523,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The repository store uses its indexes to narrow down the entities that are examined.
          */
-        List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        List<EntityDetail>  foundEntities = new ArrayList<>();
+        List<EntityDetail>  candidateEntities = repositoryStore.findEntities(asOfTime,
+                                                                            this.getTypeNamesForSearch(entityTypeGUID, null, methodName),
+                                                                            limitResultsByClassification,
+                                                                            limitResultsByStatus);
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -493,6 +604,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                       PagingErrorException,
                                                                                       UserNotAuthorizedException
     {
+        final String  methodName = "findEntities";
+
         /*
          * Validate parameters
          */
@@ -511,13 +624,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The repository store uses its indexes to narrow down the entities that are examined.
          */
-        List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        List<EntityDetail>  foundEntities = new ArrayList<>();
+        List<EntityDetail>  candidateEntities = repositoryStore.findEntities(asOfTime,
+                                                                            this.getTypeNamesForSearch(entityTypeGUID, entitySubtypeGUIDs, methodName),
+                                                                            null,
+                                                                            limitResultsByStatus);
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -591,6 +706,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                        PagingErrorException,
                                                                                                        UserNotAuthorizedException
     {
+        final String  methodName = "findEntitiesByClassification";
+
         /*
          * Validate parameters
          */
@@ -609,16 +726,19 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The repository store uses its indexes to narrow down the entities that are examined.
          */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
         List<EntityDetail>          foundEntities = new ArrayList<>();
 
         List<String>                classificationList = new ArrayList<>();
         classificationList.add(classificationName);
 
-        for (EntityDetail  entity : entityStore.values())
+        List<EntityDetail>          candidateEntities = repositoryStore.findEntities(asOfTime,
+                                                                                     this.getTypeNamesForSearch(entityTypeGUID, null, methodName),
+                                                                                     classificationList,
+                                                                                     limitResultsByStatus);
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -734,12 +854,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Process operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The repository store uses its indexes to narrow down the entities that are examined.
          */
         List<EntityDetail>   foundEntities = new ArrayList<>();
+        List<EntityDetail>   candidateEntities = repositoryStore.findEntities(asOfTime,
+                                                                             this.getTypeNamesForSearch(entityTypeGUID, null, methodName),
+                                                                             limitResultsByClassification,
+                                                                             limitResultsByStatus);
 
-        for (EntityDetail  entity : repositoryStore.timeWarpEntityStore(asOfTime).values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -864,7 +987,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        Relationship  relationship = repositoryStore.timeWarpRelationshipStore(asOfTime).get(guid);
+        Relationship  relationship = repositoryStore.getRelationship(guid, asOfTime);
 
         repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
         repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
@@ -873,6 +996,75 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the current version of each of the requested relationships.  The relationships are retrieved from
+     * the store under a single read lock.  Relationships that are not known or are soft-deleted are omitted from
+     * the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of the relationships that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<Relationship> getRelationshipsByGUIDs(String       userId,
+                                                      List<String> guids) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipsByGUIDs";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstancesParameterValidation(userId, guids, methodName);
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        /*
+         * Process operation
+         */
+        Set<String>               uniqueGUIDs   = new LinkedHashSet<>(guids);
+        Map<String, Relationship> relationships = repositoryStore.getRelationships(uniqueGUIDs);
+        List<Relationship>        results       = new ArrayList<>();
+
+        for (String guid : uniqueGUIDs)
+        {
+            Relationship relationship = relationships.get(guid);
+
+            if (relationship != null)
+            {
+                try
+                {
+                    repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
+                    repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
+
+                    results.add(relationship);
+                }
+                catch (RelationshipNotKnownException deleted)
+                {
+                    /*
+                     * Omitted from the results.
+                     */
+                }
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
     /**
      * Return all historical versions of a relationship within the bounds of the provided timestamps. To retrieve all
      * historical versions of a relationship, set both the 'fromTime' and 'toTime' to null.
@@ -916,32 +1108,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
          * Perform operation
          */
         boolean oldestFirst = (sequencingOrder == HistorySequencingOrder.FORWARDS);
-        List<Relationship> relationshipHistory = repositoryStore.getRelationshipHistory(guid, fromTime, toTime, oldestFirst);
+        List<Relationship> relationshipHistory = repositoryStore.getRelationshipHistory(guid, fromTime, toTime, oldestFirst, startFromElement, pageSize);
 
         if (relationshipHistory == null)
         {
             repositoryValidator.validateRelationshipFromStore(repositoryName, guid, null, methodName);
         }
-        else
+        else if (! relationshipHistory.isEmpty())
         {
-            if (relationshipHistory.isEmpty())
-            {
-                return null;
-            }
-
-            if (startFromElement > relationshipHistory.size())
-            {
-                return null;
-            }
-
-            if ((pageSize == 0) || (pageSize >= relationshipHistory.size()))
-            {
-                return new ArrayList<>(relationshipHistory.subList(startFromElement, relationshipHistory.size() - 1));
-            }
-            else
-            {
-                return new ArrayList<>(relationshipHistory.subList(startFromElement, pageSize - 1));
-            }
+            return relationshipHistory;
         }
 
         return  null;
@@ -1002,6 +1177,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                             FunctionNotSupportedException,
                                                                                             UserNotAuthorizedException
     {
+        final String  methodName = "findRelationships";
+
         /*
          * Validate parameters
          */
@@ -1020,13 +1197,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all
-         * the stored entities.
+         * The repository store uses its indexes to narrow down the relationships that are examined.
          */
-        List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        List<Relationship>  foundRelationships = new ArrayList<>();
+        List<Relationship>  candidateRelationships = repositoryStore.findRelationships(asOfTime,
+                                                                                      this.getTypeNamesForSearch(relationshipTypeGUID, relationshipSubtypeGUIDs, methodName),
+                                                                                      null,
+                                                                                      limitResultsByStatus);
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1101,6 +1280,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                       FunctionNotSupportedException,
                                                                                                       UserNotAuthorizedException
     {
+        final String  methodName = "findRelationshipsByProperty";
+
         /*
          * Validate parameters
          */
@@ -1119,13 +1300,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all
-         * the stored entities.
+         * The repository store uses its indexes to narrow down the relationships that are examined.
          */
-        List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        List<Relationship>  foundRelationships = new ArrayList<>();
+        List<Relationship>  candidateRelationships = repositoryStore.findRelationships(asOfTime,
+                                                                                      this.getTypeNamesForSearch(relationshipTypeGUID, null, methodName),
+                                                                                      null,
+                                                                                      limitResultsByStatus);
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1218,12 +1401,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all
-         * the stored relationships.
+         * The repository store uses its indexes to narrow down the relationships that are examined.
          */
         List<Relationship>  foundRelationships = new ArrayList<>();
+        List<Relationship>  candidateRelationships = repositoryStore.findRelationships(asOfTime,
+                                                                                      this.getTypeNamesForSearch(relationshipTypeGUID, null, methodName),
+                                                                                      null,
+                                                                                      limitResultsByStatus);
 
-        for (Relationship  relationship : repositoryStore.timeWarpRelationshipStore(asOfTime).values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1335,10 +1521,33 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         }
 
         /*
-         * Time warp the stores
+         * Current queries only need the instances that can be reached from the starting entity.
+         * Historical queries time warp the stores.
          */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        Map<String, EntityDetail>   entityStore;
+        Map<String, Relationship>   relationshipStore;
+
+        if (asOfTime == null)
+        {
+            relationshipStore = repositoryStore.getRelationshipNeighbourhood(entityGUID, getNeighbourhoodTraversalLevel(level));
+
+            Set<String> entityGUIDs = new HashSet<>();
+
+            entityGUIDs.add(entityGUID);
+
+            for (Relationship relationship : relationshipStore.values())
+            {
+                entityGUIDs.add(relationship.getEntityOneProxy().getGUID());
+                entityGUIDs.add(relationship.getEntityTwoProxy().getGUID());
+            }
+
+            entityStore = repositoryStore.getEntities(entityGUIDs);
+        }
+        else
+        {
+            entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+            relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        }
 
         InMemoryEntityNeighbourhood inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
                                                                                                   repositoryName,
@@ -1357,6 +1566,85 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the names of the types that an instance must have to match the requested type (and optional subtypes).
+     * These names are used by the repository store to select candidate instances from its type index.
+     * Null is returned if there is no type restriction, or the type is not known - in which case the
+     * repository store examines all instances.
+     *
+     * @param typeGUID unique identifier of the type of interest - null means any type
+     * @param subtypeGUIDs optional list of unique identifiers of subtypes of the type of interest
+     * @param methodName calling method
+     * @return set of type names or null
+     */
+    private Set<String> getTypeNamesForSearch(String       typeGUID,
+                                              List<String> subtypeGUIDs,
+                                              String       methodName)
+    {
+        final String  typeGUIDParameterName = "typeGUID";
+
+        List<String>  requestedTypeGUIDs = subtypeGUIDs;
+
+        if ((requestedTypeGUIDs == null) || (requestedTypeGUIDs.isEmpty()))
+        {
+            if (typeGUID == null)
+            {
+                return null;
+            }
+
+            requestedTypeGUIDs = Collections.singletonList(typeGUID);
+        }
+
+        Set<String> typeNames = new HashSet<>();
+
+        try
+        {
+            for (String requestedTypeGUID : requestedTypeGUIDs)
+            {
+                TypeDef typeDef = repositoryHelper.getTypeDef(repositoryName, typeGUIDParameterName, requestedTypeGUID, methodName);
+
+                if ((typeDef == null) || (typeDef.getName() == null))
+                {
+                    return null;
+                }
+
+                typeNames.add(typeDef.getName());
+
+                List<String> subTypeNames = repositoryHelper.getSubTypesOf(repositoryName, typeDef.getName());
+
+                if (subTypeNames != null)
+                {
+                    typeNames.addAll(subTypeNames);
+                }
+            }
+        }
+        catch (TypeErrorException error)
+        {
+            return null;
+        }
+
+        return typeNames;
+    }
+
+
+    /**
+     * Return the number of relationships to traverse out from the starting entity when gathering an entity's
+     * neighbourhood.  This matches the limits set by InMemoryEntityNeighbourhood.
+     *
+     * @param level requested level
+     * @return level to use
+     */
+    private int getNeighbourhoodTraversalLevel(int level)
+    {
+        if ((level < 0) || (level > 100))
+        {
+            return 100;
+        }
+
+        return level;
+    }
+
+
     /* ======================================================
      * Group 4: Maintaining entity and relationship instances
      */
@@ -2799,32 +3087,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
          * Perform operation
          */
         boolean oldestFirst = (sequencingOrder == HistorySequencingOrder.FORWARDS);
-        List<EntityDetail> entityHistory = repositoryStore.getEntityHistory(guid, fromTime, toTime, oldestFirst);
+        List<EntityDetail> entityHistory = repositoryStore.getEntityHistory(guid, fromTime, toTime, oldestFirst, startFromElement, pageSize);
 
         if (entityHistory == null)
         {
             repositoryValidator.validateEntityFromStore(repositoryName, guid, null, methodName);
         }
-        else
+        else if (! entityHistory.isEmpty())
         {
-            if (entityHistory.isEmpty())
-            {
-                return null;
-            }
-
-            if (startFromElement > entityHistory.size())
-            {
-                return null;
-            }
-
-            if ((pageSize == 0) || (pageSize >= entityHistory.size()))
-            {
-                return new ArrayList<>(entityHistory.subList(startFromElement, entityHistory.size() - 1));
-            }
-            else
-            {
-                return new ArrayList<>(entityHistory.subList(startFromElement, pageSize - 1));
-            }
+            return entityHistory;
         }
 
         return null;
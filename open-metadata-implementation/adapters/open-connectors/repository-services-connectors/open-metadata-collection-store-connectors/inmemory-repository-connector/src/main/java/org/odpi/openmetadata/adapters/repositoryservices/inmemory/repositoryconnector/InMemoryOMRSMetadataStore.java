@@ -3,21 +3,43 @@
 package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
 
 
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.InMemoryOMRSJournalRecord.RecordType;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * InMemoryOMRSMetadataStore provides the in memory store for the InMemoryRepositoryConnector.
+ *
+ * Updates to the store (and its indexes) are serialized through the write lock.  Queries that scan the store,
+ * its indexes or an instance's history share the read lock and so run concurrently with one another.
+ * Retrieving the current version of a single instance takes no lock at all.  This is possible because
+ * the stored instances are never changed once they are published - each update stores a new copy.
+ *
+ * The store may optionally be made durable by starting a journal.  Each update is then written to the journal
+ * (under the write lock) before it is made to the store.  Reads are unaffected.  When a snapshot is due, the
+ * records describing the store are copied under the write lock (this is cheap because the stored instances are
+ * never changed) and then serialized and written to disk by a background thread.
  */
 class InMemoryOMRSMetadataStore
 {
@@ -25,45 +47,22 @@ class InMemoryOMRSMetadataStore
     private final OMRSRepositoryHelper repositoryHelper;
     private final String               localMetadataCollectionId;
 
-    private final Map<String, StoredEntity>       entityStore       = new HashMap<>();
-    private final Map<String, StoredRelationship> relationshipStore = new HashMap<>();
+    private final Map<String, StoredEntity>       entityStore       = new ConcurrentHashMap<>();
+    private final Map<String, StoredRelationship> relationshipStore = new ConcurrentHashMap<>();
 
-    private static final Logger log = LoggerFactory.getLogger(InMemoryOMRSMetadataStore.class);
-
-
-    /**
-     * Determine is an instance was active between the from and to date.
-     *
-     * @param fromTime starting time
-     * @param toTime ending time
-     * @param instanceHeader instance version
-     * @param versionEndTime time when this version was superseded
-     * @return boolean flag - true means it is valid
-     */
-    static boolean checkInclusiveDate(Date           fromTime,
-                                      Date           toTime,
-                                      InstanceHeader instanceHeader,
-                                      Date           versionEndTime)
-    {
-        Date versionStartTime = instanceHeader.getUpdateTime();
+    private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
 
-        if (versionStartTime == null)
-        {
-            versionStartTime = instanceHeader.getCreateTime();
-        }
+    private final InMemoryInstanceIndex entityIndex       = new InMemoryInstanceIndex();
+    private final InMemoryInstanceIndex relationshipIndex = new InMemoryInstanceIndex();
 
-        if (toTime.before(versionStartTime))
-        {
-            return false;
-        }
+    private InMemoryOMRSStoreJournal journal        = null;
+    private ExecutorService          snapshotWriter = null;
+    private AuditLog                 auditLog       = null;
 
-        if (versionEndTime == null)
-        {
-            return true;
-        }
+    private volatile int  maxHistoryVersions = -1;
+    private volatile long maxHistoryAge      = 0;
 
-        return ! fromTime.after(versionEndTime);
-    }
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOMRSMetadataStore.class);
 
 
     /**
@@ -83,13 +82,28 @@ class InMemoryOMRSMetadataStore
     }
 
 
+    /**
+     * Set up the retention policy for the previous versions of the instances.  It is applied as each instance
+     * is updated.
+     *
+     * @param maxHistoryVersions maximum number of previous versions to retain for each instance (negative means no limit)
+     * @param maxHistoryAge maximum time (in milliseconds) to retain a previous version (zero or less means no limit)
+     */
+    void setHistoryRetention(int  maxHistoryVersions,
+                             long maxHistoryAge)
+    {
+        this.maxHistoryVersions = maxHistoryVersions;
+        this.maxHistoryAge = maxHistoryAge;
+    }
+
+
     /**
      * Return the entity identified by the guid.
      *
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntityDetail  getEntity(String guid)
+    EntityDetail  getEntity(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -108,7 +122,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntitySummary  getEntitySummary(String guid)
+    EntitySummary  getEntitySummary(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -134,7 +148,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier
      * @return entity proxy object
      */
-    synchronized EntityProxy  getEntityProxy(String guid)
+    EntityProxy  getEntityProxy(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -154,21 +168,156 @@ class InMemoryOMRSMetadataStore
      * @param asOfTime - time for the store (or null means now)
      * @return entity store for the requested time
      */
-    synchronized Map<String, EntityDetail>  timeWarpEntityStore(Date asOfTime)
+    Map<String, EntityDetail>  timeWarpEntityStore(Date asOfTime)
     {
-        Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+        storeLock.readLock().lock();
 
-        for (StoredEntity storedEntity : entityStore.values())
+        try
+        {
+            Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+
+            for (StoredEntity storedEntity : entityStore.values())
+            {
+                EntityDetail entityDetail = storedEntity.getEntity(asOfTime);
+
+                if (entityDetail != null)
+                {
+                    timeWarpedEntityStore.put(entityDetail.getGUID(), entityDetail);
+                }
+            }
+
+            return timeWarpedEntityStore;
+        }
+        finally
         {
-            EntityDetail entityDetail = storedEntity.getEntity(asOfTime);
+            storeLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Return the entity identified by the guid as it was at the time supplied in the asOfTime parameter.
+     *
+     * @param guid - unique identifier for the entity
+     * @param asOfTime - time for the query (or null means now)
+     * @return entity object or null
+     */
+    EntityDetail  getEntity(String guid,
+                            Date   asOfTime)
+    {
+        storeLock.readLock().lock();
+
+        try
+        {
+            StoredEntity storedEntity = entityStore.get(guid);
+
+            if (storedEntity != null)
+            {
+                return storedEntity.getEntity(asOfTime);
+            }
+
+            return null;
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Return the entities that may match the supplied criteria.  For current queries, the indexes are used
+     * to select the candidate entities.  Historical queries (asOfTime is set) need to examine every entity
+     * since the indexes only cover the current versions.  The caller must still verify each of the returned
+     * entities against its search criteria.
+     *
+     * @param asOfTime - time for the query (or null means now)
+     * @param typeNames - names of the types (including subtypes) of interest - null means any type
+     * @param classificationNames - names of the classifications that must be present - null means any
+     * @param limitResultsByStatus - statuses of interest - null means any
+     * @return list of candidate entities
+     */
+    List<EntityDetail>  findEntities(Date                 asOfTime,
+                                     Set<String>          typeNames,
+                                     List<String>         classificationNames,
+                                     List<InstanceStatus> limitResultsByStatus)
+    {
+        storeLock.readLock().lock();
+
+        try
+        {
+            List<EntityDetail> candidateEntities = new ArrayList<>();
+
+            if (asOfTime == null)
+            {
+                Set<String> candidateGUIDs = entityIndex.getCandidates(typeNames, classificationNames, limitResultsByStatus, null);
+
+                if (candidateGUIDs != null)
+                {
+                    for (String guid : candidateGUIDs)
+                    {
+                        StoredEntity storedEntity = entityStore.get(guid);
+
+                        if ((storedEntity != null) && (storedEntity.getEntity() != null))
+                        {
+                            candidateEntities.add(storedEntity.getEntity());
+                        }
+                    }
+
+                    return candidateEntities;
+                }
+            }
 
-            if (entityDetail != null)
+            for (StoredEntity storedEntity : entityStore.values())
             {
-                timeWarpedEntityStore.put(entityDetail.getGUID(), entityDetail);
+                EntityDetail entityDetail = storedEntity.getEntity(asOfTime);
+
+                if (entityDetail != null)
+                {
+                    candidateEntities.add(entityDetail);
+                }
             }
+
+            return candidateEntities;
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
         }
+    }
 
-        return timeWarpedEntityStore;
+
+    /**
+     * Return the current versions of the requested entities.  Unknown entities (or those where only the proxy is
+     * stored) are skipped.
+     *
+     * @param guids - unique identifiers of the entities
+     * @return map of entity GUIDs to entities
+     */
+    Map<String, EntityDetail>  getEntities(Set<String> guids)
+    {
+        storeLock.readLock().lock();
+
+        try
+        {
+            Map<String, EntityDetail> entities = new HashMap<>();
+
+            for (String guid : guids)
+            {
+                StoredEntity storedEntity = entityStore.get(guid);
+
+                if ((storedEntity != null) && (storedEntity.getEntity() != null))
+                {
+                    entities.put(guid, storedEntity.getEntity());
+                }
+            }
+
+            return entities;
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
+        }
     }
 
 
@@ -178,7 +327,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the relationship
      * @return relationship object
      */
-    synchronized Relationship  getRelationship(String guid)
+    Relationship  getRelationship(String guid)
     {
         StoredRelationship storedRelationship = relationshipStore.get(guid);
 
@@ -192,423 +341,1298 @@ class InMemoryOMRSMetadataStore
 
 
     /**
-     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the current versions of the requested relationships.  Unknown relationships are skipped.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return relationship store for the requested time
+     * @param guids - unique identifiers of the relationships
+     * @return map of relationship GUIDs to relationships
      */
-    synchronized Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    Map<String, Relationship>  getRelationships(Set<String> guids)
     {
-        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+        storeLock.readLock().lock();
 
-        for (StoredRelationship storedRelationship : relationshipStore.values())
+        try
         {
-            Relationship relationship = storedRelationship.getRelationship(asOfTime);
+            Map<String, Relationship> relationships = new HashMap<>();
 
-            if (relationship != null)
+            for (String guid : guids)
             {
-                timeWarpedRelationshipStore.put(relationship.getGUID(), relationship);
+                StoredRelationship storedRelationship = relationshipStore.get(guid);
+
+                if ((storedRelationship != null) && (storedRelationship.getRelationship() != null))
+                {
+                    relationships.put(guid, storedRelationship.getRelationship());
+                }
             }
-        }
 
-        return timeWarpedRelationshipStore;
+            return relationships;
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
+        }
     }
 
 
     /**
-     * Create a new entity in the entity store.
+     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
+     * parameter
      *
-     * @param entity - new version of the entity
-     * @return entity with potentially updated GUID
-     * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
+     * @param asOfTime - time for the store (or null means now)
+     * @return relationship store for the requested time
      */
-    synchronized EntityDetail createEntityInStore(EntityDetail entity) throws RepositoryErrorException
+    Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
     {
-        StoredEntity newStoredEntity = new StoredEntity(entity);
+        storeLock.readLock().lock();
 
-        /*
-         * There is a small chance the randomly generated GUID will clash with an existing entity.
-         * If this happens a new GUID is generated for the entity and the process repeats.
-         */
-        StoredEntity existingStoredEntity = entityStore.put(entity.getGUID(), newStoredEntity);
+        try
+        {
+            Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+
+            for (StoredRelationship storedRelationship : relationshipStore.values())
+            {
+                Relationship relationship = storedRelationship.getRelationship(asOfTime);
+
+                if (relationship != null)
+                {
+                    timeWarpedRelationshipStore.put(relationship.getGUID(), relationship);
+                }
+            }
 
-        while (existingStoredEntity != null)
+            return timeWarpedRelationshipStore;
+        }
+        finally
         {
-            entityStore.put(entity.getGUID(), existingStoredEntity);
-            entity.setGUID(UUID.randomUUID().toString());
-            newStoredEntity = new StoredEntity(entity);
-            existingStoredEntity = entityStore.put(entity.getGUID(), newStoredEntity);
+            storeLock.readLock().unlock();
         }
-
-        return entity;
     }
 
 
     /**
-     * Create a new relationship in the relationship store.
+     * Return the relationship identified by the guid as it was at the time supplied in the asOfTime parameter.
      *
-     * @param relationship - new version of the relationship
-     * @return relationship with potentially updated GUID
+     * @param guid - unique identifier for the relationship
+     * @param asOfTime - time for the query (or null means now)
+     * @return relationship object or null
      */
-    synchronized Relationship createRelationshipInStore(Relationship relationship)
+    Relationship  getRelationship(String guid,
+                                  Date   asOfTime)
     {
-        StoredRelationship newStoredRelationship = new StoredRelationship(relationship);
+        storeLock.readLock().lock();
 
-        /*
-         * There is a small chance the randomly generated GUID will clash with an existing relationship.
-         * If this happens a new GUID is generated for the relationship and the process repeats.
-         */
-        StoredRelationship existingStoredRelationship = relationshipStore.put(relationship.getGUID(), newStoredRelationship);
+        try
+        {
+            StoredRelationship storedRelationship = relationshipStore.get(guid);
 
-        while (existingStoredRelationship != null)
+            if (storedRelationship != null)
+            {
+                return storedRelationship.getRelationship(asOfTime);
+            }
+
+            return null;
+        }
+        finally
         {
-            relationshipStore.put(relationship.getGUID(), existingStoredRelationship);
-            relationship.setGUID(UUID.randomUUID().toString());
-            newStoredRelationship = new StoredRelationship(relationship);
-            existingStoredRelationship = relationshipStore.put(relationship.getGUID(), newStoredRelationship);
+            storeLock.readLock().unlock();
         }
-
-        return relationship;
     }
 
 
     /**
-     * Save an entity to the entity store.
+     * Return the relationships that may match the supplied criteria.  For current queries, the indexes are used
+     * to select the candidate relationships.  Historical queries (asOfTime is set) need to examine every relationship
+     * since the indexes only cover the current versions.  The caller must still verify each of the returned
+     * relationships against its search criteria.
      *
-     * @param entityDetail - entity object to add
-     * @throws RepositoryErrorException unable to create proxy
+     * @param asOfTime - time for the query (or null means now)
+     * @param typeNames - names of the types (including subtypes) of interest - null means any type
+     * @param entityGUID - unique identifier of an entity that must be at one end of the relationship - null means any
+     * @param limitResultsByStatus - statuses of interest - null means any
+     * @return list of candidate relationships
      */
-    synchronized void addEntityToStore(EntityDetail entityDetail) throws RepositoryErrorException
+    List<Relationship>  findRelationships(Date                 asOfTime,
+                                          Set<String>          typeNames,
+                                          String               entityGUID,
+                                          List<InstanceStatus> limitResultsByStatus)
     {
-        StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
+        storeLock.readLock().lock();
 
-        if (storedEntity == null)
+        try
         {
-            entityStore.put(entityDetail.getGUID(), new StoredEntity(entityDetail));
+            List<Relationship> candidateRelationships = new ArrayList<>();
+
+            if (asOfTime == null)
+            {
+                Set<String> candidateGUIDs = relationshipIndex.getCandidates(typeNames, null, limitResultsByStatus, entityGUID);
+
+                if (candidateGUIDs != null)
+                {
+                    for (String guid : candidateGUIDs)
+                    {
+                        StoredRelationship storedRelationship = relationshipStore.get(guid);
+
+                        if (storedRelationship != null)
+                        {
+                            Relationship relationship = storedRelationship.getRelationship();
+
+                            if (relationship != null)
+                            {
+                                candidateRelationships.add(relationship);
+                            }
+                        }
+                    }
+
+                    return candidateRelationships;
+                }
+            }
+
+            for (StoredRelationship storedRelationship : relationshipStore.values())
+            {
+                Relationship relationship = storedRelationship.getRelationship(asOfTime);
+
+                if (relationship != null)
+                {
+                    candidateRelationships.add(relationship);
+                }
+            }
+
+            return candidateRelationships;
         }
-        else
+        finally
         {
-            storedEntity.saveEntity(entityDetail);
+            storeLock.readLock().unlock();
         }
     }
 
 
-
     /**
-     * Save an entity proxy to the entity store.
+     * Return the current relationships that can be reached from the starting entity by traversing up to the
+     * requested number of relationships.  This is used to limit the instances that need to be examined
+     * when building an entity's neighbourhood.
      *
-     * @param entityProxy - entity proxy object to add
+     * @param entityGUID - unique identifier of the starting entity
+     * @param level - the number of relationships to traverse out from the starting entity
+     * @return map of relationship GUIDs to relationships
      */
-    synchronized void addEntityProxyToStore(EntityProxy entityProxy)
+    Map<String, Relationship>  getRelationshipNeighbourhood(String entityGUID,
+                                                            int    level)
     {
-        StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
+        storeLock.readLock().lock();
 
-        if (storedEntity == null)
+        try
         {
-            entityStore.put(entityProxy.getGUID(), new StoredEntity(entityProxy));
+            Map<String, Relationship> neighbourhood  = new HashMap<>();
+            Set<String>               visitedEntities = new HashSet<>();
+            List<String>              currentLevel   = new ArrayList<>();
+
+            currentLevel.add(entityGUID);
+            visitedEntities.add(entityGUID);
+
+            for (int currentDepth = 0; (currentDepth < level) && (! currentLevel.isEmpty()); currentDepth++)
+            {
+                List<String> nextLevel = new ArrayList<>();
+
+                for (String currentEntityGUID : currentLevel)
+                {
+                    for (String relationshipGUID : relationshipIndex.getRelationshipsForEntity(currentEntityGUID))
+                    {
+                        if (! neighbourhood.containsKey(relationshipGUID))
+                        {
+                            StoredRelationship storedRelationship = relationshipStore.get(relationshipGUID);
+
+                            if (storedRelationship != null)
+                            {
+                                Relationship relationship = storedRelationship.getRelationship();
+
+                                if (relationship != null)
+                                {
+                                    neighbourhood.put(relationshipGUID, relationship);
+
+                                    addUnvisitedEntity(relationship.getEntityOneProxy(), visitedEntities, nextLevel);
+                                    addUnvisitedEntity(relationship.getEntityTwoProxy(), visitedEntities, nextLevel);
+                                }
+                            }
+                        }
+                    }
+                }
+
+                currentLevel = nextLevel;
+            }
+
+            return neighbourhood;
         }
-        else
+        finally
         {
-            storedEntity.saveEntityProxy(entityProxy);
+            storeLock.readLock().unlock();
         }
     }
 
 
     /**
-     * Save an entity proxy to the entity store.
+     * Add the entity at the end of a relationship to the next level of the traversal if it has not already been visited.
      *
-     * @param relationship - entity proxy object to add
+     * @param entityProxy - proxy from the relationship end
+     * @param visitedEntities - entities already traversed
+     * @param nextLevel - entities to traverse next
      */
-    synchronized void addRelationshipToStore(Relationship relationship)
+    private void addUnvisitedEntity(EntityProxy  entityProxy,
+                                    Set<String>  visitedEntities,
+                                    List<String> nextLevel)
     {
-        StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
-
-        if (storedRelationship == null)
-        {
-            relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
-        }
-        else
+        if ((entityProxy != null) && (entityProxy.getGUID() != null) && (visitedEntities.add(entityProxy.getGUID())))
         {
-            storedRelationship.saveRelationship(relationship);
+            nextLevel.add(entityProxy.getGUID());
         }
     }
 
 
     /**
-     * Maintain a history of entities as they are stored into the entity store to ensure old version can be restored.
-     * The history is maintained with the latest changes first in the list.
+     * Create a new entity in the entity store.
      *
      * @param entity - new version of the entity
+     * @return entity with potentially updated GUID
      * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
      */
-    synchronized void updateEntityInStore(EntityDetail entity) throws RepositoryErrorException
+    EntityDetail createEntityInStore(EntityDetail entity) throws RepositoryErrorException
     {
-        StoredEntity storedEntity = entityStore.get(entity.getGUID());
+        final String methodName = "createEntityInStore";
+
+        storeLock.writeLock().lock();
 
-        if (storedEntity == null)
+        try
         {
-            entityStore.put(entity.getGUID(), new StoredEntity(entity));
+            /*
+             * There is a small chance the randomly generated GUID will clash with an existing entity.
+             * If this happens a new GUID is generated for the entity and the process repeats.
+             */
+            while (entityStore.containsKey(entity.getGUID()))
+            {
+                entity.setGUID(UUID.randomUUID().toString());
+            }
+
+            journalEntity(RecordType.ENTITY_SAVED, entity, methodName);
+
+            StoredEntity newStoredEntity = new StoredEntity(entity);
+
+            entityStore.put(entity.getGUID(), newStoredEntity);
+            entityIndex.indexEntity(entity.getGUID(), newStoredEntity.getEntity());
+
+            return entity;
         }
-        else
+        finally
         {
-            storedEntity.saveEntity(entity);
+            storeLock.writeLock().unlock();
         }
     }
 
 
     /**
-     * Maintain a classification within the entity proxy.
+     * Create a new relationship in the relationship store.
      *
-     * @param entityGUID unique identifier of entity
-     * @param classification classification to update
+     * @param relationship - new version of the relationship
+     * @return relationship with potentially updated GUID
      */
-    synchronized void saveClassification(String          entityGUID,
-                                         Classification  classification)
+    Relationship createRelationshipInStore(Relationship relationship)
     {
-        StoredEntity storedEntity = entityStore.get(entityGUID);
+        final String methodName = "createRelationshipInStore";
 
-        if (storedEntity != null)
+        storeLock.writeLock().lock();
+
+        try
+        {
+            /*
+             * There is a small chance the randomly generated GUID will clash with an existing relationship.
+             * If this happens a new GUID is generated for the relationship and the process repeats.
+             */
+            while (relationshipStore.containsKey(relationship.getGUID()))
+            {
+                relationship.setGUID(UUID.randomUUID().toString());
+            }
+
+            journalRelationship(RecordType.RELATIONSHIP_SAVED, relationship, methodName);
+
+            StoredRelationship newStoredRelationship = new StoredRelationship(relationship);
+
+            relationshipStore.put(relationship.getGUID(), newStoredRelationship);
+            relationshipIndex.indexRelationship(relationship.getGUID(), newStoredRelationship.relationship);
+
+            return relationship;
+        }
+        finally
         {
-           storedEntity.saveClassification(classification);
+            storeLock.writeLock().unlock();
         }
     }
 
 
     /**
-     * Maintain a classification within the entity.
+     * Save an entity to the entity store.
      *
-     * @param entityDetail entity
-     * @param classificationName name of classification to remove
+     * @param entityDetail - entity object to add
+     * @throws RepositoryErrorException unable to create proxy
      */
-    synchronized EntityDetail removeClassificationFromEntity(EntityDetail entityDetail,
-                                                             String       classificationName)
+    void addEntityToStore(EntityDetail entityDetail) throws RepositoryErrorException
     {
-        StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
+        final String methodName = "addEntityToStore";
 
-        if (storedEntity != null)
+        storeLock.writeLock().lock();
+
+        try
         {
-            return storedEntity.removeClassificationFromEntity(classificationName);
-        }
+            journalEntity(RecordType.ENTITY_SAVED, entityDetail, methodName);
 
-        return null;
+            StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
+
+            if (storedEntity == null)
+            {
+                storedEntity = new StoredEntity(entityDetail);
+                entityStore.put(entityDetail.getGUID(), storedEntity);
+            }
+            else
+            {
+                storedEntity.saveEntity(entityDetail);
+            }
+
+            entityIndex.indexEntity(entityDetail.getGUID(), storedEntity.getEntity());
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
     }
 
 
+
     /**
-     * Maintain a classification within the entity proxy.
+     * Save an entity proxy to the entity store.
      *
-     * @param entityProxy entity
-     * @param classificationName name of classification to remove
+     * @param entityProxy - entity proxy object to add
      */
-    synchronized Classification removeClassificationFromProxy(EntityProxy entityProxy,
-                                                              String      classificationName)
+    void addEntityProxyToStore(EntityProxy entityProxy)
     {
-        StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
+        final String methodName = "addEntityProxyToStore";
 
-        if (storedEntity != null)
+        storeLock.writeLock().lock();
+
+        try
         {
-            return storedEntity.removeClassificationFromEntityProxy(classificationName);
-        }
+            InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(RecordType.ENTITY_PROXY_SAVED, entityProxy.getGUID());
+
+            record.setEntityProxy(entityProxy);
+            journalChange(record, methodName);
+
+            StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
+
+            if (storedEntity == null)
+            {
+                entityStore.put(entityProxy.getGUID(), new StoredEntity(entityProxy));
+            }
+            else
+            {
+                storedEntity.saveEntityProxy(entityProxy);
+
+                /*
+                 * Saving the proxy may have added home classifications to the entity.
+                 */
+                entityIndex.indexEntity(entityProxy.getGUID(), storedEntity.getEntity());
+            }
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Save an entity proxy to the entity store.
+     *
+     * @param relationship - entity proxy object to add
+     */
+    void addRelationshipToStore(Relationship relationship)
+    {
+        final String methodName = "addRelationshipToStore";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            journalRelationship(RecordType.RELATIONSHIP_SAVED, relationship, methodName);
+
+            StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
+
+            if (storedRelationship == null)
+            {
+                storedRelationship = new StoredRelationship(relationship);
+                relationshipStore.put(relationship.getGUID(), storedRelationship);
+            }
+            else
+            {
+                storedRelationship.saveRelationship(relationship);
+            }
+
+            relationshipIndex.indexRelationship(relationship.getGUID(), storedRelationship.relationship);
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Maintain a history of entities as they are stored into the entity store to ensure old version can be restored.
+     * The history is maintained with the latest changes first in the list.
+     *
+     * @param entity - new version of the entity
+     * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
+     */
+    void updateEntityInStore(EntityDetail entity) throws RepositoryErrorException
+    {
+        final String methodName = "updateEntityInStore";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            journalEntity(RecordType.ENTITY_SAVED, entity, methodName);
+
+            StoredEntity storedEntity = entityStore.get(entity.getGUID());
+
+            if (storedEntity == null)
+            {
+                storedEntity = new StoredEntity(entity);
+                entityStore.put(entity.getGUID(), storedEntity);
+            }
+            else
+            {
+                storedEntity.saveEntity(entity);
+            }
+
+            entityIndex.indexEntity(entity.getGUID(), storedEntity.getEntity());
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Maintain a classification within the entity proxy.
+     *
+     * @param entityGUID unique identifier of entity
+     * @param classification classification to update
+     */
+    void saveClassification(String          entityGUID,
+                            Classification  classification)
+    {
+        final String methodName = "saveClassification";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            StoredEntity storedEntity = entityStore.get(entityGUID);
+
+            if (storedEntity != null)
+            {
+                InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(RecordType.CLASSIFICATION_SAVED, entityGUID);
+
+                record.setClassification(classification);
+                journalChange(record, methodName);
+
+                storedEntity.saveClassification(classification);
+                entityIndex.indexEntity(entityGUID, storedEntity.getEntity());
+            }
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Maintain a classification within the entity.
+     *
+     * @param entityDetail entity
+     * @param classificationName name of classification to remove
+     */
+    EntityDetail removeClassificationFromEntity(EntityDetail entityDetail,
+                                                String       classificationName)
+    {
+        final String methodName = "removeClassificationFromEntity";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
+
+            if (storedEntity != null)
+            {
+                journalClassificationRemoval(RecordType.CLASSIFICATION_REMOVED_FROM_ENTITY, entityDetail.getGUID(), classificationName, methodName);
+
+                EntityDetail updatedEntity = storedEntity.removeClassificationFromEntity(classificationName);
+
+                entityIndex.indexEntity(entityDetail.getGUID(), storedEntity.getEntity());
+
+                return updatedEntity;
+            }
+
+            return null;
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Maintain a classification within the entity proxy.
+     *
+     * @param entityProxy entity
+     * @param classificationName name of classification to remove
+     */
+    Classification removeClassificationFromProxy(EntityProxy entityProxy,
+                                                 String      classificationName)
+    {
+        final String methodName = "removeClassificationFromProxy";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
+
+            if (storedEntity != null)
+            {
+                journalClassificationRemoval(RecordType.CLASSIFICATION_REMOVED_FROM_PROXY, entityProxy.getGUID(), classificationName, methodName);
+
+                Classification removedClassification = storedEntity.removeClassificationFromEntityProxy(classificationName);
+
+                entityIndex.indexEntity(entityProxy.getGUID(), storedEntity.getEntity());
+
+                return removedClassification;
+            }
+
+            return null;
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Maintain a history of relationships as they are stored into the relationship store to ensure old version
+     * can be restored.  The history is maintained with the latest changes first in the list.
+     *
+     * @param relationship - new version of the relationship
+     */
+    void updateRelationshipInStore(Relationship relationship)
+    {
+        final String methodName = "updateRelationshipInStore";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            journalRelationship(RecordType.RELATIONSHIP_SAVED, relationship, methodName);
+
+            StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
+
+            if (storedRelationship == null)
+            {
+                storedRelationship = new StoredRelationship(relationship);
+                relationshipStore.put(relationship.getGUID(), storedRelationship);
+            }
+            else
+            {
+                storedRelationship.saveRelationship(relationship);
+            }
+
+            relationshipIndex.indexRelationship(relationship.getGUID(), storedRelationship.relationship);
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Retrieve the previous version of a Relationship.  This is the first instance of this element that
+     * appears in the history.
+     *
+     * @param guid - unique identifier for the required element
+     * @return - previous version of this relationship - or null if not found
+     */
+    Relationship retrievePreviousVersionOfRelationship(String   guid)
+    {
+        storeLock.readLock().lock();
+
+        try
+        {
+            StoredRelationship storedRelationship = relationshipStore.get(guid);
+
+            if (storedRelationship != null)
+            {
+                return storedRelationship.retrievePreviousVersion();
+            }
+
+            return null;
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Retrieve the previous version of an Entity from the history store and restore it in the entity store.
+     * This is the first instance of this element that appears in the history.
+     *
+     * @param guid - unique identifier for the required element
+     * @return - previous version of this Entity - or null if not found
+     */
+    EntityDetail retrievePreviousVersionOfEntity(String   guid)
+    {
+        storeLock.readLock().lock();
+
+        try
+        {
+            StoredEntity storedEntity = entityStore.get(guid);
+
+            if (storedEntity != null)
+            {
+                return storedEntity.retrievePreviousVersion();
+            }
+
+            return null;
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Return the list of home classifications for an entity.
+     *
+     * @param guid unique identifier of the entity
+     * @return list of classifications or null
+     */
+    List<Classification> getHomeClassifications(String guid)
+    {
+        storeLock.readLock().lock();
+
+        try
+        {
+            StoredEntity storedEntity = entityStore.get(guid);
+
+            if (storedEntity != null)
+            {
+                return storedEntity.getHomeClassifications();
+            }
+
+            return null;
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Return the versions of the instance that where active between the "from" and "to" times.
+     *
+     * @param guid unique identifier of the instance
+     * @param fromTime starting time (null means no limit)
+     * @param toTime ending time (null means no limit)
+     * @param oldestFirst ordering
+     * @param startFromElement starting element of the page of results
+     * @param pageSize maximum number of results (zero means no limit)
+     * @return list of instance versions
+     */
+    List<EntityDetail> getEntityHistory(String  guid,
+                                        Date    fromTime,
+                                        Date    toTime,
+                                        boolean oldestFirst,
+                                        int     startFromElement,
+                                        int     pageSize)
+    {
+        storeLock.readLock().lock();
+
+        try
+        {
+            StoredEntity storedEntity = entityStore.get(guid);
+
+            if (storedEntity == null)
+            {
+                return null;
+            }
+
+            return storedEntity.getEntityHistory(fromTime, toTime, oldestFirst, startFromElement, pageSize);
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Return the versions of the instance that where active between the "from" and "to" times.
+     *
+     * @param guid unique identifier of the instance
+     * @param fromTime starting time (null means no limit)
+     * @param toTime ending time (null means no limit)
+     * @param oldestFirst ordering
+     * @param startFromElement starting element of the page of results
+     * @param pageSize maximum number of results (zero means no limit)
+     * @return list of instance versions
+     */
+    List<Relationship> getRelationshipHistory(String  guid,
+                                              Date    fromTime,
+                                              Date    toTime,
+                                              boolean oldestFirst,
+                                              int     startFromElement,
+                                              int     pageSize)
+    {
+        storeLock.readLock().lock();
+
+        try
+        {
+            StoredRelationship storedRelationship = relationshipStore.get(guid);
+
+            if (storedRelationship == null)
+            {
+                return null;
+            }
+
+            return storedRelationship.getRelationshipHistory(fromTime, toTime, oldestFirst, startFromElement, pageSize);
+        }
+        finally
+        {
+            storeLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Remove all record of an entity - including its history.
+     *
+     * @param guid - entity to remove
+     */
+    void purgeEntityFromStore(String guid)
+    {
+        final String methodName = "purgeEntityFromStore";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            StoredEntity storedEntity = entityStore.get(guid);
+
+            if (storedEntity != null)
+            {
+                journalChange(new InMemoryOMRSJournalRecord(RecordType.ENTITY_PURGED, guid), methodName);
+
+                entityStore.remove(guid);
+                entityIndex.removeInstance(guid);
+            }
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Remove a relationship from the active store and add it to the history store.
+     * This occurs when an entity is deleted.
+     *
+     * @param relationship - relationship to remove
+     */
+    void removeRelationshipFromStore(Relationship     relationship)
+    {
+        final String methodName = "removeRelationshipFromStore";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            journalRelationship(RecordType.RELATIONSHIP_REMOVED, relationship, methodName);
+
+            StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
+
+            if (storedRelationship == null)
+            {
+                storedRelationship = new StoredRelationship(relationship);
+
+                relationshipStore.put(relationship.getGUID(), storedRelationship);
+            }
+
+            storedRelationship.purgeRelationship();
+            relationshipIndex.removeInstance(relationship.getGUID());
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Remove a reference relationship from the active store and add it to the history store.
+     *
+     * @param guid - relationship to remove
+     */
+    void purgeRelationshipFromStore(String guid)
+    {
+        final String methodName = "purgeRelationshipFromStore";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            StoredRelationship storedRelationship = relationshipStore.get(guid);
+
+            if (storedRelationship != null)
+            {
+                journalChange(new InMemoryOMRSJournalRecord(RecordType.RELATIONSHIP_PURGED, guid), methodName);
+
+                relationshipStore.remove(guid);
+                relationshipIndex.removeInstance(guid);
+            }
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Make the store durable.  The content of the store is recovered from the snapshot and journal in the
+     * journal's persistence directory and then every subsequent update is written to the journal.
+     *
+     * @param journal journal for the persistence directory
+     * @param auditLog audit log for reporting the recovery and any problems with the snapshots
+     * @throws IOException unable to read the persistence directory
+     */
+    void startJournal(InMemoryOMRSStoreJournal journal,
+                      AuditLog                 auditLog) throws IOException
+    {
+        final String methodName = "startJournal";
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            /*
+             * The records are replayed through the normal update methods before the journal is
+             * attached to the store so that they are not written back to the journal.
+             */
+            for (InMemoryOMRSJournalRecord record : journal.open())
+            {
+                replayRecord(record);
+            }
+
+            this.journal = journal;
+            this.auditLog = auditLog;
+            this.snapshotWriter = Executors.newSingleThreadExecutor(runnable ->
+            {
+                Thread thread = new Thread(runnable, "InMemoryRepositorySnapshot-" + repositoryName);
+
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            if (auditLog != null)
+            {
+                auditLog.logMessage(methodName,
+                                    InMemoryOMRSAuditCode.REPOSITORY_RECOVERED.getMessageDefinition(repositoryName,
+                                                                                                   Integer.toString(entityStore.size()),
+                                                                                                   Integer.toString(relationshipStore.size()),
+                                                                                                   journal.getDirectoryName()));
+            }
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Write a final snapshot and close the journal.  The store is no longer durable after this call.
+     */
+    void stopJournal()
+    {
+        InMemoryOMRSStoreJournal        stoppedJournal;
+        ExecutorService                 stoppedSnapshotWriter;
+        List<InMemoryOMRSJournalRecord> records;
+
+        storeLock.writeLock().lock();
+
+        try
+        {
+            if (journal == null)
+            {
+                return;
+            }
+
+            stoppedJournal = journal;
+            stoppedSnapshotWriter = snapshotWriter;
+            records = getSnapshotRecords();
+
+            journal = null;
+            snapshotWriter = null;
+        }
+        finally
+        {
+            storeLock.writeLock().unlock();
+        }
+
+        /*
+         * The journal is detached from the store so the final snapshot can be written without the lock once
+         * any snapshot that is already in progress is complete.
+         */
+        stoppedSnapshotWriter.shutdown();
+
+        try
+        {
+            if (! stoppedSnapshotWriter.awaitTermination(1, TimeUnit.MINUTES))
+            {
+                log.debug("Snapshot writer for " + repositoryName + " did not stop");
+            }
+
+            stoppedJournal.startSnapshot();
+            writeSnapshot(stoppedJournal, records);
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException error)
+        {
+            logSnapshotFailure(stoppedJournal, error);
+        }
+
+        try
+        {
+            stoppedJournal.close();
+        }
+        catch (IOException error)
+        {
+            log.debug("Unable to close journal", error);
+        }
+    }
+
+
+    /**
+     * Wait for any snapshot that is being written in the background to complete.
+     */
+    void waitForSnapshot()
+    {
+        ExecutorService currentSnapshotWriter = snapshotWriter;
+
+        if (currentSnapshotWriter != null)
+        {
+            try
+            {
+                currentSnapshotWriter.submit(() -> { }).get();
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException error)
+            {
+                log.debug("Unable to wait for snapshot", error);
+            }
+        }
+    }
+
+
+    /**
+     * Apply a record read from the snapshot or journal to the store.  A record that can not be applied is skipped
+     * since it was also rejected when the original request was made.
+     *
+     * @param record description of the change
+     */
+    private void replayRecord(InMemoryOMRSJournalRecord record)
+    {
+        try
+        {
+            switch (record.getRecordType())
+            {
+                case ENTITY_SAVED:
+                    addEntityToStore(record.getEntity());
+                    break;
+
+                case ENTITY_PROXY_SAVED:
+                    addEntityProxyToStore(record.getEntityProxy());
+                    break;
+
+                case CLASSIFICATION_SAVED:
+                    saveClassification(record.getGUID(), record.getClassification());
+                    break;
+
+                case CLASSIFICATION_REMOVED_FROM_ENTITY:
+                    EntityDetail entity = new EntityDetail();
+
+                    entity.setGUID(record.getGUID());
+                    removeClassificationFromEntity(entity, record.getClassificationName());
+                    break;
+
+                case CLASSIFICATION_REMOVED_FROM_PROXY:
+                    EntityProxy entityProxy = new EntityProxy();
+
+                    entityProxy.setGUID(record.getGUID());
+                    removeClassificationFromProxy(entityProxy, record.getClassificationName());
+                    break;
 
-        return null;
-    }
+                case ENTITY_PURGED:
+                    purgeEntityFromStore(record.getGUID());
+                    break;
 
+                case RELATIONSHIP_SAVED:
+                    addRelationshipToStore(record.getRelationship());
+                    break;
 
-    /**
-     * Maintain a history of relationships as they are stored into the relationship store to ensure old version
-     * can be restored.  The history is maintained with the latest changes first in the list.
-     *
-     * @param relationship - new version of the relationship
-     */
-    synchronized void updateRelationshipInStore(Relationship relationship)
-    {
-        StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
+                case RELATIONSHIP_REMOVED:
+                    removeRelationshipFromStore(record.getRelationship());
+                    break;
 
-        if (storedRelationship == null)
-        {
-            relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
+                case RELATIONSHIP_PURGED:
+                    purgeRelationshipFromStore(record.getGUID());
+                    break;
+            }
         }
-        else
+        catch (Exception error)
         {
-            storedRelationship.saveRelationship(relationship);
+            log.debug("Skipping journal record " + record, error);
         }
     }
 
 
     /**
-     * Retrieve the previous version of a Relationship.  This is the first instance of this element that
-     * appears in the history.
+     * Return the records that describe the current content of the store.  This is called under the write lock.
+     * The records refer to the stored instances, which are never changed, so they can be serialized later
+     * without the lock.
      *
-     * @param guid - unique identifier for the required element
-     * @return - previous version of this relationship - or null if not found
+     * @return compacted content of the store
      */
-    synchronized Relationship retrievePreviousVersionOfRelationship(String   guid)
+    private List<InMemoryOMRSJournalRecord> getSnapshotRecords()
     {
-        StoredRelationship storedRelationship = relationshipStore.get(guid);
+        List<InMemoryOMRSJournalRecord> records = new ArrayList<>();
 
-        if (storedRelationship != null)
+        for (StoredEntity storedEntity : entityStore.values())
         {
-            return storedRelationship.retrievePreviousVersion();
+            storedEntity.addSnapshotRecords(records);
         }
 
-        return null;
+        for (StoredRelationship storedRelationship : relationshipStore.values())
+        {
+            storedRelationship.addSnapshotRecords(records);
+        }
+
+        return records;
     }
 
 
     /**
-     * Retrieve the previous version of an Entity from the history store and restore it in the entity store.
-     * This is the first instance of this element that appears in the history.
-     *
-     * @param guid - unique identifier for the required element
-     * @return - previous version of this Entity - or null if not found
+     * Start a new snapshot.  This is called under the write lock.  The journal is moved aside along with
+     * a copy of the records describing the store.  The snapshot is then written by the background thread.
+     * A failure is reported to the audit log but does not affect the store since the journal still
+     * holds all of the changes.
      */
-    synchronized EntityDetail retrievePreviousVersionOfEntity(String   guid)
+    private void startSnapshot()
     {
-        StoredEntity storedEntity = entityStore.get(guid);
+        List<InMemoryOMRSJournalRecord> records = getSnapshotRecords();
 
-        if (storedEntity != null)
+        try
+        {
+            journal.startSnapshot();
+        }
+        catch (IOException error)
         {
-            return storedEntity.retrievePreviousVersion();
+            logSnapshotFailure(journal, error);
+            return;
         }
 
-        return null;
+        InMemoryOMRSStoreJournal snapshotJournal = journal;
+
+        snapshotWriter.execute(() -> writeSnapshot(snapshotJournal, records));
     }
 
 
     /**
-     * Return the list of home classifications for an entity.
+     * Write the snapshot records to disk.  This runs without the lock.
      *
-     * @param guid unique identifier of the entity
-     * @return list of classifications or null
+     * @param snapshotJournal journal that started the snapshot
+     * @param records compacted content of the store
      */
-    synchronized List<Classification> getHomeClassifications(String guid)
+    private void writeSnapshot(InMemoryOMRSStoreJournal        snapshotJournal,
+                               List<InMemoryOMRSJournalRecord> records)
     {
-        StoredEntity storedEntity = entityStore.get(guid);
-
-        if (storedEntity != null)
+        try
         {
-            return storedEntity.getHomeClassifications();
+            snapshotJournal.writeSnapshot(records);
+        }
+        catch (IOException error)
+        {
+            logSnapshotFailure(snapshotJournal, error);
         }
-
-        return null;
     }
 
 
     /**
-     * Return the versions of the instance that where active between the "from" and "to" times.
+     * Report that a snapshot could not be written.
      *
-     * @param guid unique identifier of the instance
-     * @param fromTime starting time
-     * @param toTime ending time
-     * @param oldestFirst ordering
-     * @return list of instance versions
+     * @param snapshotJournal journal that was being compacted
+     * @param error exception from the file system
      */
-    synchronized List<EntityDetail> getEntityHistory(String  guid,
-                                                     Date    fromTime,
-                                                     Date    toTime,
-                                                     boolean oldestFirst)
+    private void logSnapshotFailure(InMemoryOMRSStoreJournal snapshotJournal,
+                                    IOException              error)
     {
-        StoredEntity storedEntity = entityStore.get(guid);
+        final String methodName = "writeSnapshot";
 
-        if (storedEntity == null)
+        if (auditLog != null)
         {
-            return null;
+            auditLog.logException(methodName,
+                                  InMemoryOMRSAuditCode.SNAPSHOT_FAILED.getMessageDefinition(repositoryName,
+                                                                                            snapshotJournal.getDirectoryName(),
+                                                                                            error.getClass().getName(),
+                                                                                            error.getMessage()),
+                                  error);
         }
-
-        return storedEntity.getEntityHistory(fromTime, toTime, oldestFirst);
     }
 
 
     /**
-     * Return the versions of the instance that where active between the "from" and "to" times.
+     * Write a change to the journal (if the store is durable).  This is called under the write lock before the change
+     * is made to the store.  If a new snapshot is due, it is written first.
      *
-     * @param guid unique identifier of the instance
-     * @param fromTime starting time
-     * @param toTime ending time
-     * @param oldestFirst ordering
-     * @return list of instance versions
+     * @param record description of the change
+     * @param methodName calling method
      */
-    synchronized  List<Relationship> getRelationshipHistory(String  guid,
-                                                            Date    fromTime,
-                                                            Date    toTime,
-                                                            boolean oldestFirst)
+    private void journalChange(InMemoryOMRSJournalRecord record,
+                               String                    methodName)
     {
-        StoredRelationship storedRelationship = relationshipStore.get(guid);
-
-        if (storedRelationship == null)
+        if (journal != null)
         {
-            return null;
-        }
+            if (journal.isSnapshotDue())
+            {
+                startSnapshot();
+            }
 
-        return storedRelationship.getRelationshipHistory(fromTime, toTime, oldestFirst);
+            try
+            {
+                journal.append(record);
+            }
+            catch (IOException error)
+            {
+                throw new OMRSLogicErrorException(InMemoryOMRSErrorCode.CANNOT_WRITE_JOURNAL.getMessageDefinition(repositoryName,
+                                                                                                                  journal.getDirectoryName(),
+                                                                                                                  error.getClass().getName(),
+                                                                                                                  error.getMessage()),
+                                                  this.getClass().getName(),
+                                                  methodName,
+                                                  error);
+            }
+        }
     }
 
 
     /**
-     * Remove all record of an entity - including its history.
+     * Write a change to an entity to the journal.
      *
-     * @param guid - entity to remove
+     * @param recordType type of change
+     * @param entity new version of the entity
+     * @param methodName calling method
      */
-    synchronized void purgeEntityFromStore(String guid)
+    private void journalEntity(RecordType   recordType,
+                               EntityDetail entity,
+                               String       methodName)
     {
-        StoredEntity storedEntity = entityStore.get(guid);
-
-        if (storedEntity != null)
+        if (journal != null)
         {
-            entityStore.remove(guid);
+            InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(recordType, entity.getGUID());
+
+            record.setEntity(entity);
+            journalChange(record, methodName);
         }
     }
 
 
     /**
-     * Remove a relationship from the active store and add it to the history store.
-     * This occurs when an entity is deleted.
+     * Write a change to a relationship to the journal.
      *
-     * @param relationship - relationship to remove
+     * @param recordType type of change
+     * @param relationship new version of the relationship
+     * @param methodName calling method
      */
-    synchronized void removeRelationshipFromStore(Relationship     relationship)
+    private void journalRelationship(RecordType   recordType,
+                                     Relationship relationship,
+                                     String       methodName)
     {
-        StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
-
-        if (storedRelationship == null)
+        if (journal != null)
         {
-            storedRelationship = new StoredRelationship(relationship);
+            InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(recordType, relationship.getGUID());
 
-            relationshipStore.put(relationship.getGUID(), storedRelationship);
+            record.setRelationship(relationship);
+            journalChange(record, methodName);
         }
-
-        storedRelationship.purgeRelationship();
     }
 
 
     /**
-     * Remove a reference relationship from the active store and add it to the history store.
+     * Write the removal of a classification to the journal.
      *
-     * @param guid - relationship to remove
+     * @param recordType type of change
+     * @param entityGUID unique identifier of the classified entity
+     * @param classificationName name of the classification that is removed
+     * @param methodName calling method
      */
-    synchronized void purgeRelationshipFromStore(String guid)
+    private void journalClassificationRemoval(RecordType recordType,
+                                              String     entityGUID,
+                                              String     classificationName,
+                                              String     methodName)
     {
-        StoredRelationship storedRelationship = relationshipStore.get(guid);
-
-        if (storedRelationship != null)
+        if (journal != null)
         {
-            relationshipStore.remove(guid);
+            InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(recordType, entityGUID);
+
+            record.setClassificationName(classificationName);
+            journalChange(record, methodName);
         }
     }
 
 
     /**
      * Provides storage for an entity, its proxy and classifications.  It is proactively keeping the stored entity
-     * and entity proxy up-to-date with the latest known classifications.
+     * and entity proxy up-to-date with the latest known classifications.  The entity and entity proxy are
+     * replaced (rather than updated) when they change so that they can be read without locking.
      */
     private class StoredEntity
     {
         private final Map<String, HomeClassification> homeClassifications = new HashMap<>();
-        private final List<EntityDetail>              entityHistory       = new ArrayList<>();
+        private final InMemoryInstanceHistory<EntityDetail> entityHistory = new InMemoryInstanceHistory<>(EntityDetail::getProperties,
+                                                                                                          EntityDetail::setProperties,
+                                                                                                          EntityDetail::new);
 
-        private EntityDetail entity = null;
-        private EntityProxy  entityProxy = null;
+        private volatile EntityDetail entity = null;
+        private volatile EntityProxy  entityProxy = null;
 
         /**
          * Constructor for when the first element stored is an entity
@@ -893,16 +1917,38 @@ class InMemoryOMRSMetadataStore
              */
             if ((this.entity == null) || (entity.getVersion() >= this.entity.getVersion()))
             {
-                entityHistory.add(0, this.entity);
-                this.entity = new EntityDetail(entity);
-            }
+                if (this.entity != null)
+                {
+                    entityHistory.add(this.entity, maxHistoryVersions, maxHistoryAge);
+                }
 
-            addHomeClassifications(this.entity);
+                publishEntity(entity);
+            }
+            else
+            {
+                publishEntity(this.entity);
+            }
 
             this.entityProxy = repositoryHelper.getNewEntityProxy(repositoryName, this.entity);
         }
 
 
+        /**
+         * Store a copy of the entity that includes the home classifications.  The copy is made before the
+         * classifications are added so that readers never see a partially updated entity.
+         *
+         * @param entity latest version of the entity
+         */
+        private void publishEntity(EntityDetail entity)
+        {
+            EntityDetail newEntity = new EntityDetail(entity);
+
+            addHomeClassifications(newEntity);
+
+            this.entity = newEntity;
+        }
+
+
         /**
          * Save an entity proxy - this may come from a relationship - or from a classification
          *
@@ -917,16 +1963,24 @@ class InMemoryOMRSMetadataStore
              */
             saveHomeClassifications(entityProxy);
 
+            EntityProxy newEntityProxy;
+
             if ((this.entityProxy == null) || (entityProxy.getVersion() >= this.entityProxy.getVersion()))
             {
-                this.entityProxy = new EntityProxy(entityProxy);
+                newEntityProxy = new EntityProxy(entityProxy);
+            }
+            else
+            {
+                newEntityProxy = new EntityProxy(this.entityProxy);
             }
 
-            addHomeClassifications(this.entityProxy);
+            addHomeClassifications(newEntityProxy);
+
+            this.entityProxy = newEntityProxy;
 
             if (this.entity != null)
             {
-                addHomeClassifications(this.entity);
+                publishEntity(this.entity);
             }
         }
 
@@ -946,12 +2000,12 @@ class InMemoryOMRSMetadataStore
 
                 if (this.entity != null)
                 {
-                    repositoryHelper.addClassificationToEntity(repositoryName, this.entity, new Classification(classification), methodName);
+                    this.entity = repositoryHelper.addClassificationToEntity(repositoryName, this.entity, new Classification(classification), methodName);
                 }
 
                 if (this.entityProxy != null)
                 {
-                    repositoryHelper.addClassificationToEntity(repositoryName, this.entityProxy, new Classification(classification), methodName);
+                    this.entityProxy = repositoryHelper.addClassificationToEntity(repositoryName, this.entityProxy, new Classification(classification), methodName);
                 }
             }
         }
@@ -992,130 +2046,87 @@ class InMemoryOMRSMetadataStore
                 return getEntity();
             }
 
-            if (this.entity != null)
-            {
-                /*
-                 * The requested time is before the element was created.
-                 */
-                if (asOfTime.before(entity.getCreateTime()))
-                {
-                    return null;
-                }
-
-                /*
-                 * The element has never been updated so the initial version is still valid.
-                 */
-                if (entity.getUpdateTime() != null)
-                {
-                    return entity;
-                }
-
-                if ((asOfTime.equals(entity.getUpdateTime())) ||
-                            (asOfTime.after(entity.getUpdateTime())))
-                {
-                    /*
-                     * The asOfTime is within the window of when this instance is valid.
-                     */
-                    return entity;
-                }
-            }
-
-            for (EntityDetail historicalEntity : entityHistory)
-            {
-                if (historicalEntity.getUpdateTime() == null)
-                {
-                    /*
-                     * This is the first version of the instance.
-                     */
-                    return historicalEntity;
-                }
-
-                if ((asOfTime.equals(historicalEntity.getUpdateTime())) ||
-                            (asOfTime.after(historicalEntity.getUpdateTime())))
-                {
-                    /*
-                     * The asOfTime is within the window of when this instance was valid.
-                     */
-                    return historicalEntity;
-                }
-            }
-
-            return null;
+            return entityHistory.getVersionAsOf(asOfTime, this.entity, null);
         }
 
 
         /**
-         * Return the instances that match the history.
+         * Return a page of the versions of the entity that were active between the "from" and "to" times.
          *
-         * @param fromTime starting time
-         * @param toTime ending time
+         * @param fromTime starting time (null means no limit)
+         * @param toTime ending time (null means no limit)
          * @param oldestFirst ordering of results
-         * @return list of versions of this relationship
+         * @param startFromElement starting element of the page of results
+         * @param pageSize maximum number of results (zero means no limit)
+         * @return list of versions of this entity
          */
         List<EntityDetail> getEntityHistory(Date    fromTime,
                                             Date    toTime,
-                                            boolean oldestFirst)
+                                            boolean oldestFirst,
+                                            int     startFromElement,
+                                            int     pageSize)
         {
-            List<EntityDetail> historyResults = new ArrayList<>();
-            Date               followingUpdateTime = null;
+            return entityHistory.getVersions(fromTime, toTime, this.entity, null, oldestFirst, startFromElement, pageSize);
+        }
 
-            if (this.entity != null)
-            {
-                if (toTime.before(this.entity.getCreateTime()))
-                {
-                    /*
-                     * The entity is known - but none of its instances are in the requested date range.
-                     */
-                    return historyResults;
-                }
-                else
-                {
-                    /*
-                     * The current version of the entity is in range.
-                     */
-                    if (oldestFirst)
-                    {
-                        historyResults.add(this.entity);
-                    }
-                    else
-                    {
-                        historyResults.add(0, this.entity);
-                    }
 
-                    followingUpdateTime = this.entity.getUpdateTime();
-                }
-            }
+        /**
+         * Retrieve the previous version of the instance.
+         *
+         * @return most recent version in the history
+         */
+        EntityDetail retrievePreviousVersion()
+        {
+            return entityHistory.getNewest();
+        }
 
 
-            if (! this.entityHistory.isEmpty())
+        /**
+         * Add the records needed to recreate this entity to a snapshot.  The history is replayed oldest first so
+         * that it is rebuilt in the same order.  The proxy is only needed if there is no entity, or it is more
+         * recent than the entity since otherwise it is regenerated from the entity.
+         *
+         * @param records snapshot records
+         */
+        void addSnapshotRecords(List<InMemoryOMRSJournalRecord> records)
+        {
+            if (entityHistory.size() > 0)
             {
-                for (EntityDetail historicalInstance : this.entityHistory)
+                for (EntityDetail previousVersion : entityHistory.getVersions(0, entityHistory.size() - 1))
                 {
-                    if (checkInclusiveDate(fromTime, toTime, historicalInstance, followingUpdateTime))
-                    {
-                        historyResults.add(historicalInstance);
-                        followingUpdateTime = historicalInstance.getUpdateTime();
-                    }
+                    addEntityRecord(previousVersion, records);
                 }
             }
 
-            return historyResults;
+            addEntityRecord(this.entity, records);
+
+            if ((this.entityProxy != null) &&
+                        ((this.entity == null) || (this.entityProxy.getVersion() > this.entity.getVersion())))
+            {
+                InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(RecordType.ENTITY_PROXY_SAVED, this.entityProxy.getGUID());
+
+                record.setEntityProxy(this.entityProxy);
+                records.add(record);
+            }
         }
 
 
         /**
-         * Retrieve the previous version of the instance.
+         * Add a record for a version of the entity to a snapshot.
          *
-         * @return first element in the history
+         * @param entityVersion version of the entity (may be null)
+         * @param records snapshot records
          */
-        EntityDetail retrievePreviousVersion()
+        private void addEntityRecord(EntityDetail                    entityVersion,
+                                     List<InMemoryOMRSJournalRecord> records)
         {
-            if (! entityHistory.isEmpty())
+            if (entityVersion != null)
             {
-                return entityHistory.get(0);
-            }
+                InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(RecordType.ENTITY_SAVED, entityVersion.getGUID());
 
-            return null;
+                record.setEntity(entityVersion);
+                records.add(record);
+            }
         }
 
 
@@ -1205,7 +2216,9 @@ class InMemoryOMRSMetadataStore
      */
     private class StoredRelationship
     {
-        private final List<Relationship> relationshipHistory = new ArrayList<>();
+        private final InMemoryInstanceHistory<Relationship> relationshipHistory = new InMemoryInstanceHistory<>(Relationship::getProperties,
+                                                                                                                Relationship::setProperties,
+                                                                                                                Relationship::new);
 
         private volatile Relationship relationship = null;
         private volatile Date         purgeTime = null;
@@ -1223,7 +2236,7 @@ class InMemoryOMRSMetadataStore
 
 
         /**
-         * Save the new instance in the store and move the current instance to the front of the history.
+         * Save the new instance in the store and move the current instance to the history.
          *
          * @param relationship new instance
          */
@@ -1231,7 +2244,7 @@ class InMemoryOMRSMetadataStore
         {
             if (this.relationship != null)
             {
-                this.relationshipHistory.add(0, this.relationship);
+                this.relationshipHistory.add(this.relationship, maxHistoryVersions, maxHistoryAge);
             }
 
             this.relationship = refreshRelationshipProxies(relationship);
@@ -1245,7 +2258,7 @@ class InMemoryOMRSMetadataStore
         {
             if (this.relationship != null)
             {
-                this.relationshipHistory.add(this.relationship);
+                this.relationshipHistory.add(this.relationship, maxHistoryVersions, maxHistoryAge);
                 this.purgeTime = new Date();
             }
 
@@ -1282,141 +2295,91 @@ class InMemoryOMRSMetadataStore
                 return getRelationship();
             }
 
-            if (this.relationship != null)
-            {
-                /*
-                 * The requested time is before the element was created.
-                 */
-                if (asOfTime.before(relationship.getCreateTime()))
-                {
-                    return null;
-                }
+            return relationshipHistory.getVersionAsOf(asOfTime, this.relationship, purgeTime);
+        }
 
-                /*
-                 * The element has never been updated so the initial version is still valid.
-                 */
-                if (relationship.getUpdateTime() != null)
-                {
-                    return relationship;
-                }
 
-                if ((asOfTime.equals(relationship.getUpdateTime())) ||
-                            (asOfTime.after(relationship.getUpdateTime())))
-                {
-                    /*
-                     * The asOfTime is within the window of when this instance is valid.
-                     */
-                    return relationship;
-                }
-            }
+        /**
+         * Return a page of the versions of the relationship that were active between the "from" and "to" times.
+         *
+         * @param fromTime starting time (null means no limit)
+         * @param toTime ending time (null means no limit)
+         * @param oldestFirst ordering of results
+         * @param startFromElement starting element of the page of results
+         * @param pageSize maximum number of results (zero means no limit)
+         * @return list of versions of this relationship
+         */
+        List<Relationship> getRelationshipHistory(Date    fromTime,
+                                                  Date    toTime,
+                                                  boolean oldestFirst,
+                                                  int     startFromElement,
+                                                  int     pageSize)
+        {
+            Date endTime = null;
 
-            for (Relationship historicalRelationship : relationshipHistory)
+            if (this.relationship == null)
             {
-                if (historicalRelationship.getUpdateTime() == null)
-                {
-                    /*
-                     * This is the first version of the instance.
-                     */
-                    return historicalRelationship;
-                }
-
-                if ((asOfTime.equals(historicalRelationship.getUpdateTime())) ||
-                            (asOfTime.after(historicalRelationship.getUpdateTime())))
-                {
-                    /*
-                     * The asOfTime is within the window of when this instance was valid.
-                     */
-                    return historicalRelationship;
-                }
+                endTime = purgeTime;
             }
 
-            return null;
+            return relationshipHistory.getVersions(fromTime, toTime, this.relationship, endTime, oldestFirst, startFromElement, pageSize);
         }
 
 
         /**
-         * Return the instances that match the history.
+         * Retrieve the previous version of the instance.
          *
-         * @param fromTime starting time
-         * @param toTime ending time
-         * @param oldestFirst ordering of results
-         * @return list of versions of this relationship
+         * @return most recent version in the history
          */
-        List<Relationship> getRelationshipHistory(Date    fromTime,
-                                                  Date    toTime,
-                                                  boolean oldestFirst)
+        Relationship retrievePreviousVersion()
         {
-            List<Relationship> historyResults = new ArrayList<>();
-            Date               followingUpdateTime = null;
+            return relationshipHistory.getNewest();
+        }
 
-            if (this.relationship != null)
-            {
-                if (toTime.before(this.relationship.getCreateTime()))
-                {
-                    /*
-                     * The entity is known - but none of its instances are in the requested date range.
-                     */
-                    return historyResults;
-                }
-                else
-                {
-                    /*
-                     * The current version of the entity is in range.
-                     */
-                    if (oldestFirst)
-                    {
-                        historyResults.add(this.relationship);
-                    }
-                    else
-                    {
-                        historyResults.add(0, this.relationship);
-                    }
 
-                    followingUpdateTime = this.relationship.getUpdateTime();
-                }
-            }
-            else if (purgeTime != null)
+        /**
+         * Add the records needed to recreate this relationship to a snapshot.  The history is replayed oldest first
+         * so that it is rebuilt in the same order.  When the relationship has been removed from the active store, its
+         * last version is the most recent version in the history.  It is saved and then removed again.
+         *
+         * @param records snapshot records
+         */
+        void addSnapshotRecords(List<InMemoryOMRSJournalRecord> records)
+        {
+            if (relationshipHistory.size() > 0)
             {
-                if (fromTime.after(purgeTime))
+                for (Relationship previousVersion : relationshipHistory.getVersions(0, relationshipHistory.size() - 1))
                 {
-                    /*
-                     * The entity has been purged before the "fromTime".
-                     */
-                    return historyResults;
+                    addRelationshipRecord(RecordType.RELATIONSHIP_SAVED, previousVersion, records);
                 }
-
-                followingUpdateTime = purgeTime;
             }
 
-            if (! this.relationshipHistory.isEmpty())
+            if (this.relationship != null)
             {
-                for (Relationship historicalInstance : this.relationshipHistory)
-                {
-                    if (checkInclusiveDate(fromTime, toTime, historicalInstance, followingUpdateTime))
-                    {
-                        historyResults.add(historicalInstance);
-                        followingUpdateTime = historicalInstance.getUpdateTime();
-                    }
-                }
+                addRelationshipRecord(RecordType.RELATIONSHIP_SAVED, this.relationship, records);
+            }
+            else if (relationshipHistory.size() > 0)
+            {
+                addRelationshipRecord(RecordType.RELATIONSHIP_REMOVED, relationshipHistory.getNewest(), records);
             }
-
-            return historyResults;
         }
 
 
         /**
-         * Retrieve the previous version of the instance.
+         * Add a record for a version of the relationship to a snapshot.
          *
-         * @return first element in the history
+         * @param recordType type of change
+         * @param relationshipVersion version of the relationship
+         * @param records snapshot records
          */
-        Relationship retrievePreviousVersion()
+        private void addRelationshipRecord(RecordType                      recordType,
+                                           Relationship                    relationshipVersion,
+                                           List<InMemoryOMRSJournalRecord> records)
         {
-            if (! relationshipHistory.isEmpty())
-            {
-                return relationshipHistory.get(0);
-            }
+            InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(recordType, relationshipVersion.getGUID());
 
-            return null;
+            record.setRelationship(relationshipVersion);
+            records.add(record);
         }
 
 
@@ -3,12 +3,19 @@
 package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
 
 
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 
+import java.io.IOException;
+import java.util.Map;
+
 /**
  * The InMemoryOMRSRepositoryConnector is a connector to a local in memory repository.  It is used for test,
  * small scale fixed or temporary repositories where the initial content comes from open metadata archives and
  * other members of connected open metadata repository cohorts.
+ *
+ * If the persistenceDirectory configuration property is set, the instances are journaled to that directory
+ * and recovered from it when the connector restarts.
  */
 public class InMemoryOMRSRepositoryConnector extends OMRSRepositoryConnector
 {
@@ -45,4 +52,103 @@ public class InMemoryOMRSRepositoryConnector extends OMRSRepositoryConnector
                                                                           metadataCollectionId);
         }
     }
+
+
+    /**
+     * Indicates that the connector is completely configured and can begin processing.  If a persistence directory is
+     * configured, the content of the repository is recovered from it.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    @Override
+    public void start() throws ConnectorCheckedException
+    {
+        final String methodName = "start";
+
+        super.start();
+
+        Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+        if ((configurationProperties != null) && (super.metadataCollection instanceof InMemoryOMRSMetadataCollection))
+        {
+            int maxHistoryVersions = getIntegerProperty(configurationProperties,
+                                                        InMemoryOMRSRepositoryConnectorProvider.MAX_HISTORY_VERSIONS_PROPERTY,
+                                                        -1);
+            int maxHistoryAge      = getIntegerProperty(configurationProperties,
+                                                        InMemoryOMRSRepositoryConnectorProvider.MAX_HISTORY_AGE_PROPERTY,
+                                                        0);
+
+            ((InMemoryOMRSMetadataCollection)super.metadataCollection).setHistoryRetention(maxHistoryVersions, maxHistoryAge * 1000L);
+        }
+
+        if ((configurationProperties != null) &&
+                    (configurationProperties.get(InMemoryOMRSRepositoryConnectorProvider.PERSISTENCE_DIRECTORY_PROPERTY) != null) &&
+                    (super.metadataCollection instanceof InMemoryOMRSMetadataCollection))
+        {
+            String directoryName     = configurationProperties.get(InMemoryOMRSRepositoryConnectorProvider.PERSISTENCE_DIRECTORY_PROPERTY).toString();
+            int    snapshotFrequency = getIntegerProperty(configurationProperties,
+                                                          InMemoryOMRSRepositoryConnectorProvider.SNAPSHOT_FREQUENCY_PROPERTY,
+                                                          InMemoryOMRSRepositoryConnectorProvider.DEFAULT_SNAPSHOT_FREQUENCY);
+
+            try
+            {
+                ((InMemoryOMRSMetadataCollection)super.metadataCollection).startPersistence(directoryName, snapshotFrequency, auditLog);
+            }
+            catch (IOException error)
+            {
+                throw new ConnectorCheckedException(InMemoryOMRSErrorCode.CANNOT_RECOVER_REPOSITORY.getMessageDefinition(repositoryName,
+                                                                                                                        directoryName,
+                                                                                                                        error.getClass().getName(),
+                                                                                                                        error.getMessage()),
+                                                    this.getClass().getName(),
+                                                    methodName,
+                                                    error);
+            }
+        }
+    }
+
+
+    /**
+     * Return the value of an integer configuration property.
+     *
+     * @param configurationProperties configuration properties from the connection
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
+     */
+    private int getIntegerProperty(Map<String, Object> configurationProperties,
+                                   String              propertyName,
+                                   int                 defaultValue)
+    {
+        Object propertyValue = configurationProperties.get(propertyName);
+
+        if (propertyValue instanceof Number)
+        {
+            return ((Number)propertyValue).intValue();
+        }
+        else if (propertyValue != null)
+        {
+            return Integer.parseInt(propertyValue.toString());
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Free up any resources held since the connector is no longer needed.  The content of a persistent
+     * repository is saved in a final snapshot.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    @Override
+    public void disconnect() throws ConnectorCheckedException
+    {
+        if (super.metadataCollection instanceof InMemoryOMRSMetadataCollection)
+        {
+            ((InMemoryOMRSMetadataCollection)super.metadataCollection).stopPersistence();
+        }
+
+        super.disconnect();
+    }
 }
\ No newline at end of file
@@ -8,6 +8,9 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorTyp
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnectorProviderBase;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * In the Open Connector Framework (OCF), a ConnectorProvider is a factory for a specific type of connector.
  * The InMemoryOMRSRepositoryConnectorProvider is the connector provider for the InMemoryOMRSRepositoryConnector.
@@ -44,6 +47,21 @@ public class InMemoryOMRSRepositoryConnectorProvider extends OMRSRepositoryConne
      */
     private static final Class<?> connectorClass       = InMemoryOMRSRepositoryConnector.class;
 
+    /*
+     * Names of configuration properties.  If the persistence directory is set, every change to the repository is
+     * written to a journal in this directory and the content of the repository is recovered from it when the
+     * server restarts.  The snapshot frequency is the number of journal records that are written before the
+     * journal is compacted into a new snapshot of the repository.  The maximum history versions and maximum
+     * history age (in seconds) limit the previous versions of each instance that are kept by the repository.
+     * By default, all previous versions are kept.
+     */
+    public  static final String PERSISTENCE_DIRECTORY_PROPERTY = "persistenceDirectory";
+    public  static final String SNAPSHOT_FREQUENCY_PROPERTY    = "snapshotFrequency";
+    public  static final String MAX_HISTORY_VERSIONS_PROPERTY  = "maxHistoryVersions";
+    public  static final String MAX_HISTORY_AGE_PROPERTY       = "maxHistoryAge";
+
+    static final int DEFAULT_SNAPSHOT_FREQUENCY = 10000;
+
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -69,6 +87,13 @@ public class InMemoryOMRSRepositoryConnectorProvider extends OMRSRepositoryConne
         connectorType.setDescription(connectorDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
 
+        List<String> recognizedConfigurationProperties = new ArrayList<>();
+        recognizedConfigurationProperties.add(PERSISTENCE_DIRECTORY_PROPERTY);
+        recognizedConfigurationProperties.add(SNAPSHOT_FREQUENCY_PROPERTY);
+        recognizedConfigurationProperties.add(MAX_HISTORY_VERSIONS_PROPERTY);
+        recognizedConfigurationProperties.add(MAX_HISTORY_AGE_PROPERTY);
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
+
         super.connectorTypeBean = connectorType;
 
         /*
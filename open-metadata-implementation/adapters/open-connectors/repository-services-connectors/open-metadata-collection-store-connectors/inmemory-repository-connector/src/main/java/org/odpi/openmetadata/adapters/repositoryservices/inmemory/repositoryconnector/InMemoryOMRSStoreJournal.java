@@ -0,0 +1,414 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * InMemoryOMRSStoreJournal manages the files that make the content of the InMemoryOMRSMetadataStore durable.
+ * There are two files in the persistence directory.  The snapshot holds a compacted copy of the store as it was
+ * when it was last written.  The journal holds the changes made to the store since then.  Each change is appended
+ * to the journal (and forced to disk) before it is made to the store.
+ *
+ * Both files are a sequence of records.  Each record is the length of its content, a checksum of the content and
+ * then the content itself (a JSON serialized InMemoryOMRSJournalRecord).  The files are memory-mapped when they
+ * are read back during recovery.  A partially written record at the end of the journal (for example, because the
+ * server stopped part way through an update) fails its checksum and is discarded along with anything after it.
+ *
+ * A new snapshot is taken in two steps.  First, under the store's write lock, the journal is moved aside to the
+ * compacting journal and a new, empty journal is started.  Then, without the lock, the snapshot is written to a
+ * temporary file.  Once it is on disk, the compacting journal is deleted and the temporary file is renamed over the
+ * old snapshot.  During recovery, a temporary snapshot is only used if the compacting journal has gone, so there
+ * is always a consistent copy of the store on disk.
+ *
+ * The records are serialized with the shared OMRSJSONCodec so they have the same format as the instances sent
+ * between the cohort members.
+ *
+ * Apart from writeSnapshot(), the journal is not thread-safe.  It is called under the control of the
+ * InMemoryOMRSMetadataStore's write lock.  Only one snapshot is written at a time.
+ */
+class InMemoryOMRSStoreJournal
+{
+    private static final String JOURNAL_FILE_NAME      = "inmemory-repository.journal";
+    private static final String SNAPSHOT_FILE_NAME     = "inmemory-repository.snapshot";
+    private static final String NEW_SNAPSHOT_FILE_NAME = "inmemory-repository.snapshot.new";
+    private static final String COMPACTING_FILE_NAME   = "inmemory-repository.journal.compacting";
+
+    private static final int  RECORD_HEADER_LENGTH = Integer.BYTES + Long.BYTES;
+    private static final long MAX_MAPPED_REGION    = 64L * 1024 * 1024;
+
+    private final Path         directory;
+    private final Path         journalFile;
+    private final Path         snapshotFile;
+    private final Path         newSnapshotFile;
+    private final Path         compactingFile;
+    private final int          snapshotFrequency;
+    private final ObjectReader recordReader = OMRSJSONCodec.getReader(InMemoryOMRSJournalRecord.class);
+    private final ObjectWriter recordWriter = OMRSJSONCodec.getWriter(InMemoryOMRSJournalRecord.class);
+
+    private FileChannel      journalChannel        = null;
+    private int              recordsSinceSnapshot = 0;
+    private volatile boolean snapshotInProgress   = false;
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOMRSStoreJournal.class);
+
+
+    /**
+     * Constructor
+     *
+     * @param directoryName name of the persistence directory
+     * @param snapshotFrequency number of journal records that are written before a new snapshot is due
+     */
+    InMemoryOMRSStoreJournal(String directoryName,
+                             int    snapshotFrequency)
+    {
+        this.directory = Paths.get(directoryName);
+        this.journalFile = directory.resolve(JOURNAL_FILE_NAME);
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE_NAME);
+        this.newSnapshotFile = directory.resolve(NEW_SNAPSHOT_FILE_NAME);
+        this.compactingFile = directory.resolve(COMPACTING_FILE_NAME);
+        this.snapshotFrequency = snapshotFrequency;
+    }
+
+
+    /**
+     * Return the name of the persistence directory for messages.
+     *
+     * @return directory name
+     */
+    String getDirectoryName()
+    {
+        return directory.toString();
+    }
+
+
+    /**
+     * Read the records from the snapshot and the journal and then open the journal ready for new records.
+     * Any damaged records at the end of the journal are removed.
+     *
+     * @return records in the order they should be replayed
+     * @throws IOException unable to access the files in the persistence directory
+     */
+    List<InMemoryOMRSJournalRecord> open() throws IOException
+    {
+        List<InMemoryOMRSJournalRecord> records = new ArrayList<>();
+
+        Files.createDirectories(directory);
+
+        /*
+         * A left-over new snapshot is incomplete if the compacting journal is still present.  The old snapshot and
+         * the compacting journal are still intact.  Otherwise, the server stopped between deleting the compacting
+         * journal and renaming the new snapshot, so the new snapshot is complete.
+         */
+        if (Files.exists(newSnapshotFile))
+        {
+            if (Files.exists(compactingFile))
+            {
+                Files.delete(newSnapshotFile);
+            }
+            else
+            {
+                Files.move(newSnapshotFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+
+        if (Files.exists(snapshotFile))
+        {
+            readRecords(snapshotFile, records);
+        }
+
+        if (Files.exists(compactingFile))
+        {
+            readRecords(compactingFile, records);
+        }
+
+        int  snapshotRecordCount = records.size();
+        long journalLength       = 0;
+
+        if (Files.exists(journalFile))
+        {
+            journalLength = readRecords(journalFile, records);
+        }
+
+        journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        journalChannel.truncate(journalLength);
+        journalChannel.position(journalLength);
+
+        recordsSinceSnapshot = records.size() - snapshotRecordCount;
+
+        return records;
+    }
+
+
+    /**
+     * Append a record to the journal.  The record is on disk when this method returns.
+     *
+     * @param record description of the change
+     * @throws IOException unable to write to the journal
+     */
+    void append(InMemoryOMRSJournalRecord record) throws IOException
+    {
+        writeRecord(journalChannel, record);
+        journalChannel.force(false);
+
+        recordsSinceSnapshot++;
+    }
+
+
+    /**
+     * Return whether enough records have been written to the journal to make a new snapshot worthwhile.
+     *
+     * @return boolean
+     */
+    boolean isSnapshotDue()
+    {
+        return (! snapshotInProgress) && (recordsSinceSnapshot >= snapshotFrequency);
+    }
+
+
+    /**
+     * Start a new snapshot by moving the content of the journal to the compacting journal and starting a new,
+     * empty journal.  The records for the snapshot must be copied from the store at the same time (under the same
+     * lock) and then passed to writeSnapshot().  If the previous snapshot failed, the compacting journal is still
+     * present and the journal is added to the end of it.
+     *
+     * @throws IOException unable to move the journal - the journal is unchanged
+     */
+    void startSnapshot() throws IOException
+    {
+        journalChannel.force(true);
+
+        /*
+         * A complete new snapshot that could not be renamed must be in place before the journal is moved aside.
+         */
+        if ((Files.exists(newSnapshotFile)) && (! Files.exists(compactingFile)))
+        {
+            Files.move(newSnapshotFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        if (Files.exists(compactingFile))
+        {
+            try (FileChannel compactingChannel = FileChannel.open(compactingFile, StandardOpenOption.WRITE))
+            {
+                long compactingSize = compactingChannel.size();
+                long position       = 0;
+                long size           = journalChannel.size();
+
+                try (FileChannel journalReader = FileChannel.open(journalFile, StandardOpenOption.READ))
+                {
+                    while (position < size)
+                    {
+                        position = position + journalReader.transferTo(position, size - position, compactingChannel.position(compactingSize + position));
+                    }
+
+                    compactingChannel.force(true);
+                }
+                catch (IOException error)
+                {
+                    /*
+                     * Remove any partial copy so that the compacting journal still ends with a complete record.
+                     */
+                    compactingChannel.truncate(compactingSize);
+                    throw error;
+                }
+            }
+
+            journalChannel.truncate(0);
+            journalChannel.force(true);
+        }
+        else
+        {
+            journalChannel.close();
+
+            try
+            {
+                Files.move(journalFile, compactingFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                journalChannel.position(journalChannel.size());
+            }
+        }
+
+        recordsSinceSnapshot = 0;
+        snapshotInProgress = true;
+    }
+
+
+    /**
+     * Replace the snapshot with the supplied records and remove the compacting journal.  This is called after
+     * startSnapshot() and does not need the store's lock.
+     *
+     * @param records compacted content of the store at the time that startSnapshot() was called
+     * @throws IOException unable to write the snapshot - the compacting journal is left in place and the next snapshot
+     *                     is attempted once another full set of records has been written to the journal
+     */
+    void writeSnapshot(List<InMemoryOMRSJournalRecord> records) throws IOException
+    {
+        try
+        {
+            try (FileChannel snapshotChannel = FileChannel.open(newSnapshotFile,
+                                                                StandardOpenOption.CREATE,
+                                                                StandardOpenOption.TRUNCATE_EXISTING,
+                                                                StandardOpenOption.WRITE))
+            {
+                for (InMemoryOMRSJournalRecord record : records)
+                {
+                    writeRecord(snapshotChannel, record);
+                }
+
+                snapshotChannel.force(true);
+            }
+
+            Files.delete(compactingFile);
+            Files.move(newSnapshotFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            snapshotInProgress = false;
+        }
+    }
+
+
+    /**
+     * Close the journal.
+     *
+     * @throws IOException problem closing the file
+     */
+    void close() throws IOException
+    {
+        if (journalChannel != null)
+        {
+            journalChannel.close();
+            journalChannel = null;
+        }
+    }
+
+
+    /**
+     * Write a single record to the end of a file.
+     *
+     * @param channel file to write to
+     * @param record record to write
+     * @throws IOException unable to serialize or write the record
+     */
+    private void writeRecord(FileChannel               channel,
+                             InMemoryOMRSJournalRecord record) throws IOException
+    {
+        byte[] content = recordWriter.writeValueAsBytes(record);
+        CRC32  checksum = new CRC32();
+
+        checksum.update(content);
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_LENGTH + content.length);
+
+        buffer.putInt(content.length);
+        buffer.putLong(checksum.getValue());
+        buffer.put(content);
+        buffer.flip();
+
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+    }
+
+
+    /**
+     * Read the records from a file.  The file is mapped into memory a region at a time.  Reading stops at the first
+     * record that is incomplete or fails its checksum.
+     *
+     * @param file file to read
+     * @param records list to add the records to
+     * @return length of the file that holds complete records
+     * @throws IOException unable to read the file or a record with a valid checksum could not be parsed
+     */
+    private long readRecords(Path                            file,
+                             List<InMemoryOMRSJournalRecord> records) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long fileSize   = channel.size();
+            long position   = 0;
+            long regionSize = MAX_MAPPED_REGION;
+
+            while (position < fileSize)
+            {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+                                                      position,
+                                                      Math.min(fileSize - position, regionSize));
+                boolean          damaged = false;
+
+                regionSize = MAX_MAPPED_REGION;
+
+                while ((! damaged) && (region.remaining() >= RECORD_HEADER_LENGTH))
+                {
+                    int  contentLength    = region.getInt(region.position());
+                    long expectedChecksum = region.getLong(region.position() + Integer.BYTES);
+
+                    if ((contentLength < 0) || (position + region.position() + RECORD_HEADER_LENGTH + contentLength > fileSize))
+                    {
+                        damaged = true;
+                    }
+                    else if (region.remaining() < RECORD_HEADER_LENGTH + contentLength)
+                    {
+                        /*
+                         * The record runs over the end of this region - it is read from the next one which
+                         * must be big enough to hold it.
+                         */
+                        regionSize = Math.max(MAX_MAPPED_REGION, RECORD_HEADER_LENGTH + contentLength);
+                        break;
+                    }
+                    else
+                    {
+                        byte[] content  = new byte[contentLength];
+                        CRC32  checksum = new CRC32();
+
+                        region.position(region.position() + RECORD_HEADER_LENGTH);
+                        region.get(content);
+                        checksum.update(content);
+
+                        if (checksum.getValue() == expectedChecksum)
+                        {
+                            records.add(recordReader.readValue(content));
+                        }
+                        else
+                        {
+                            region.position(region.position() - RECORD_HEADER_LENGTH - contentLength);
+                            damaged = true;
+                        }
+                    }
+                }
+
+                if ((damaged) || ((region.position() == 0) && (regionSize == MAX_MAPPED_REGION)))
+                {
+                    log.warn("Ignoring damaged records from offset " + (position + region.position()) + " of " + file);
+
+                    return position + region.position();
+                }
+
+                position = position + region.position();
+            }
+
+            return position;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RelationshipNotKnownException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+
+/**
+ * Validate that getEntitiesDetail and getRelationshipsByGUIDs in the in-memory repository return the requested
+ * instances in the order they were requested, and leave out the instances that are unknown, proxies or deleted.
+ */
+public class TestInMemoryBatchRetrieval
+{
+    private static final String USER_ID                = "testUser";
+    private static final String REPOSITORY_NAME        = "TestRepository";
+    private static final String METADATA_COLLECTION_ID = "TestMetadataCollection";
+    private static final String HOME_COLLECTION_ID     = "HomeMetadataCollection";
+
+    @Mock
+    private InMemoryOMRSRepositoryConnector parentConnector;
+    @Mock
+    private OMRSRepositoryValidator         repositoryValidator;
+    @Mock
+    private OMRSRepositoryHelper            repositoryHelper;
+
+    private InMemoryOMRSMetadataCollection metadataCollection;
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        MockitoAnnotations.openMocks(this);
+
+        doAnswer(invocation ->
+        {
+            InstanceHeader instance = invocation.getArgument(1);
+
+            if (instance.getStatus() == InstanceStatus.DELETED)
+            {
+                throw new EntityNotKnownException(OMRSErrorCode.ENTITY_NOT_KNOWN.getMessageDefinition(instance.getGUID(), "test", REPOSITORY_NAME),
+                                                  this.getClass().getName(),
+                                                  "test");
+            }
+
+            return null;
+        }).when(repositoryValidator).validateEntityIsNotDeleted(anyString(), any(InstanceHeader.class), anyString());
+
+        doAnswer(invocation ->
+        {
+            InstanceHeader instance = invocation.getArgument(1);
+
+            if (instance.getStatus() == InstanceStatus.DELETED)
+            {
+                throw new RelationshipNotKnownException(OMRSErrorCode.RELATIONSHIP_NOT_KNOWN.getMessageDefinition(instance.getGUID(), "test", REPOSITORY_NAME),
+                                                        this.getClass().getName(),
+                                                        "test");
+            }
+
+            return null;
+        }).when(repositoryValidator).validateRelationshipIsNotDeleted(anyString(), any(InstanceHeader.class), anyString());
+
+        metadataCollection = new InMemoryOMRSMetadataCollection(parentConnector,
+                                                                REPOSITORY_NAME,
+                                                                repositoryHelper,
+                                                                repositoryValidator,
+                                                                METADATA_COLLECTION_ID);
+
+        metadataCollection.saveEntityReferenceCopy(USER_ID, getEntity("1111", InstanceStatus.ACTIVE));
+        metadataCollection.saveEntityReferenceCopy(USER_ID, getEntity("2222", InstanceStatus.ACTIVE));
+        metadataCollection.saveEntityReferenceCopy(USER_ID, getEntity("3333", InstanceStatus.ACTIVE));
+        metadataCollection.saveEntityReferenceCopy(USER_ID, getEntity("4444", InstanceStatus.DELETED));
+
+        /*
+         * 5555 is only stored as a proxy.
+         */
+        metadataCollection.saveRelationshipReferenceCopy(USER_ID, getRelationship("7777", "1111", "5555", InstanceStatus.ACTIVE));
+        metadataCollection.saveRelationshipReferenceCopy(USER_ID, getRelationship("8888", "2222", "3333", InstanceStatus.ACTIVE));
+        metadataCollection.saveRelationshipReferenceCopy(USER_ID, getRelationship("9999", "2222", "1111", InstanceStatus.DELETED));
+    }
+
+
+    @Test
+    void testGetEntitiesDetail() throws Exception
+    {
+        List<EntityDetail> entities = metadataCollection.getEntitiesDetail(USER_ID, Arrays.asList("3333",
+                                                                                                  "missing",
+                                                                                                  "1111",
+                                                                                                  "5555",
+                                                                                                  "4444",
+                                                                                                  "3333",
+                                                                                                  "2222"));
+
+        /*
+         * Request order is kept, duplicates are returned once, and the unknown, proxy-only and deleted
+         * entities are left out.
+         */
+        assertEquals(getGUIDs(entities), Arrays.asList("3333", "1111", "2222"));
+        assertEquals(entities.get(0).getMetadataCollectionId(), HOME_COLLECTION_ID);
+
+        assertNull(metadataCollection.getEntitiesDetail(USER_ID, Arrays.asList("missing", "5555", "4444")));
+        assertNull(metadataCollection.getEntitiesDetail(USER_ID, Collections.emptyList()));
+        assertNull(metadataCollection.getEntitiesDetail(USER_ID, null));
+    }
+
+
+    @Test
+    void testGetRelationshipsByGUIDs() throws Exception
+    {
+        List<Relationship> relationships = metadataCollection.getRelationshipsByGUIDs(USER_ID, Arrays.asList("8888",
+                                                                                                             "missing",
+                                                                                                             "9999",
+                                                                                                             "7777",
+                                                                                                             "8888"));
+
+        assertEquals(getGUIDs(relationships), Arrays.asList("8888", "7777"));
+
+        assertNull(metadataCollection.getRelationshipsByGUIDs(USER_ID, Arrays.asList("missing", "9999")));
+    }
+
+
+    /**
+     * Return the unique identifiers of the instances.
+     *
+     * @param instances retrieved instances
+     * @return unique identifiers
+     */
+    private List<String> getGUIDs(List<? extends InstanceHeader> instances)
+    {
+        List<String> guids = new ArrayList<>();
+
+        if (instances != null)
+        {
+            for (InstanceHeader instance : instances)
+            {
+                guids.add(instance.getGUID());
+            }
+        }
+
+        return guids;
+    }
+
+
+    private EntityDetail getEntity(String guid, InstanceStatus status)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setMetadataCollectionId(HOME_COLLECTION_ID);
+        entity.setType(getType("Asset"));
+        entity.setStatus(status);
+        entity.setVersion(1L);
+
+        return entity;
+    }
+
+
+    private EntityProxy getEntityProxy(String guid)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(guid);
+        entityProxy.setMetadataCollectionId(HOME_COLLECTION_ID);
+        entityProxy.setType(getType("Asset"));
+        entityProxy.setStatus(InstanceStatus.ACTIVE);
+        entityProxy.setVersion(1L);
+
+        return entityProxy;
+    }
+
+
+    private Relationship getRelationship(String guid, String entityOneGUID, String entityTwoGUID, InstanceStatus status)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setMetadataCollectionId(HOME_COLLECTION_ID);
+        relationship.setType(getType("AssetLink"));
+        relationship.setStatus(status);
+        relationship.setVersion(1L);
+        relationship.setEntityOneProxy(getEntityProxy(entityOneGUID));
+        relationship.setEntityTwoProxy(getEntityProxy(entityTwoGUID));
+
+        return relationship;
+    }
+
+
+    private InstanceType getType(String typeName)
+    {
+        InstanceType type = new InstanceType();
+
+        type.setTypeDefGUID(typeName + "-guid");
+        type.setTypeDefName(typeName);
+
+        return type;
+    }
+}
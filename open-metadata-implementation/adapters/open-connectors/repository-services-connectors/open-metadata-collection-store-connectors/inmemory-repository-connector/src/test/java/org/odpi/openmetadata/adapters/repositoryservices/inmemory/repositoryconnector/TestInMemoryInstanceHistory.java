@@ -0,0 +1,301 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Checks that the versions held in an InMemoryInstanceHistory are rebuilt correctly from their property deltas.
+ */
+public class TestInMemoryInstanceHistory
+{
+    private static final long START_TIME = 1000000L;
+    private static final long INTERVAL   = 1000L;
+
+
+    @Test
+    void testRebuildVersions()
+    {
+        InMemoryInstanceHistory<EntityDetail> history = getHistory();
+
+        for (long version = 1; version <= 5; version++)
+        {
+            history.add(getEntity(version), -1, 0);
+        }
+
+        assertEquals(history.size(), 5);
+
+        List<EntityDetail> versions = history.getVersions(0, 4);
+
+        for (int index = 0; index < 5; index++)
+        {
+            validateEntity(versions.get(index), index + 1);
+        }
+
+        validateEntity(history.getNewest(), 5L);
+        validateEntity(history.getVersions(1, 1).get(0), 2L);
+    }
+
+
+    @Test
+    void testVersionAsOf()
+    {
+        InMemoryInstanceHistory<EntityDetail> history = getHistory();
+
+        for (long version = 1; version <= 4; version++)
+        {
+            history.add(getEntity(version), -1, 0);
+        }
+
+        EntityDetail current = getEntity(5L);
+
+        assertNull(history.getVersionAsOf(new Date(START_TIME - 1), current, null));
+        validateEntity(history.getVersionAsOf(new Date(START_TIME), current, null), 1L);
+        validateEntity(history.getVersionAsOf(new Date(START_TIME + INTERVAL + 1), current, null), 2L);
+        validateEntity(history.getVersionAsOf(new Date(START_TIME + 3 * INTERVAL + 1), current, null), 4L);
+        assertSame(history.getVersionAsOf(new Date(START_TIME + 10 * INTERVAL), current, null), current);
+
+        /*
+         * Once removed, nothing is returned after the end time.
+         */
+        Date endTime = new Date(START_TIME + 4 * INTERVAL);
+
+        validateEntity(history.getVersionAsOf(new Date(START_TIME + 3 * INTERVAL + 1), null, endTime), 4L);
+        assertNull(history.getVersionAsOf(new Date(START_TIME + 4 * INTERVAL + 1), null, endTime));
+    }
+
+
+    @Test
+    void testPaging()
+    {
+        InMemoryInstanceHistory<EntityDetail> history = getHistory();
+
+        for (long version = 1; version <= 9; version++)
+        {
+            history.add(getEntity(version), -1, 0);
+        }
+
+        EntityDetail current = getEntity(10L);
+
+        List<EntityDetail> page = history.getVersions(null, null, current, null, true, 2, 3);
+
+        assertEquals(page.size(), 3);
+        validateEntity(page.get(0), 3L);
+        validateEntity(page.get(2), 5L);
+
+        page = history.getVersions(null, null, current, null, false, 0, 2);
+
+        assertEquals(page.size(), 2);
+        assertSame(page.get(0), current);
+        validateEntity(page.get(1), 9L);
+
+        page = history.getVersions(null, null, current, null, true, 8, 0);
+
+        assertEquals(page.size(), 2);
+        validateEntity(page.get(0), 9L);
+        assertSame(page.get(1), current);
+
+        /*
+         * Version 3 is still active at the from time and version 6 starts at the to time.
+         */
+        page = history.getVersions(new Date(START_TIME + 2 * INTERVAL + 1),
+                                   new Date(START_TIME + 5 * INTERVAL),
+                                   current,
+                                   null,
+                                   false,
+                                   0,
+                                   0);
+
+        assertEquals(page.size(), 4);
+        validateEntity(page.get(0), 6L);
+        validateEntity(page.get(3), 3L);
+
+        assertTrue(history.getVersions(null, null, current, null, true, 10, 0).isEmpty());
+        assertTrue(history.getVersions(null, new Date(START_TIME - 1), current, null, true, 0, 0).isEmpty());
+    }
+
+
+    @Test
+    void testRetention()
+    {
+        InMemoryInstanceHistory<EntityDetail> history = getHistory();
+
+        for (long version = 1; version <= 6; version++)
+        {
+            history.add(getEntity(version), 3, 0);
+        }
+
+        assertEquals(history.size(), 3);
+        assertEquals(history.getVersion(0), 4L);
+
+        List<EntityDetail> versions = history.getVersions(0, 2);
+
+        validateEntity(versions.get(0), 4L);
+        validateEntity(versions.get(2), 6L);
+
+        /*
+         * The versions created in the test are replaced long ago so only the latest survives an age limit.
+         */
+        history.add(getEntity(7L), -1, INTERVAL);
+
+        assertEquals(history.size(), 1);
+        validateEntity(history.getNewest(), 7L);
+
+        history.add(getEntity(8L), 0, 0);
+
+        assertEquals(history.size(), 0);
+        assertNull(history.getNewest());
+    }
+
+
+    /**
+     * Every version of a wide entity is rebuilt, whether one property or all of them change in each update.
+     */
+    @Test
+    void testWideEntityVersions()
+    {
+        final int propertyCount = 20;
+        final int versionCount  = 50;
+
+        for (int changedCount : new int[] {1, propertyCount})
+        {
+            InMemoryInstanceHistory<EntityDetail> history = getHistory();
+
+            for (long version = 1; version <= versionCount; version++)
+            {
+                history.add(getWideEntity(version, propertyCount, changedCount), -1, 0);
+            }
+
+            EntityDetail current = getWideEntity(versionCount + 1, propertyCount, changedCount);
+
+            for (long version = 1; version <= versionCount; version++)
+            {
+                Date asOfTime = new Date(START_TIME + (version - 1) * INTERVAL);
+
+                validateWideEntity(history.getVersionAsOf(asOfTime, current, null), version, propertyCount, changedCount);
+            }
+
+            List<EntityDetail> versions = history.getVersions(null, null, current, null, false, 0, 0);
+
+            assertEquals(versions.size(), versionCount + 1);
+            assertSame(versions.get(0), current);
+
+            for (int index = 1; index <= versionCount; index++)
+            {
+                validateWideEntity(versions.get(index), versionCount + 1 - index, propertyCount, changedCount);
+            }
+        }
+    }
+
+
+    private InMemoryInstanceHistory<EntityDetail> getHistory()
+    {
+        return new InMemoryInstanceHistory<>(EntityDetail::getProperties, EntityDetail::setProperties, EntityDetail::new);
+    }
+
+
+    /**
+     * Each version changes one property, adds a property and (on alternate versions) removes one.
+     *
+     * @param version version number
+     * @return entity
+     */
+    private EntityDetail getEntity(long version)
+    {
+        EntityDetail       entity     = new EntityDetail();
+        InstanceProperties properties = new InstanceProperties();
+
+        entity.setGUID("1111");
+        entity.setVersion(version);
+        entity.setCreateTime(new Date(START_TIME));
+
+        if (version > 1)
+        {
+            entity.setUpdateTime(new Date(START_TIME + (version - 1) * INTERVAL));
+        }
+
+        properties.setProperty("name", getValue("name-" + version));
+        properties.setProperty("added-" + version, getValue("added"));
+
+        if (version % 2 == 0)
+        {
+            properties.setProperty("even", getValue("even"));
+        }
+
+        entity.setProperties(properties);
+
+        return entity;
+    }
+
+
+    /**
+     * Each version has the same number of properties.  The first changedCount properties hold the version
+     * number, so that many properties change in each update.
+     *
+     * @param version version number
+     * @param propertyCount number of properties
+     * @param changedCount number of properties that change in each update
+     * @return entity
+     */
+    private EntityDetail getWideEntity(long version,
+                                       int  propertyCount,
+                                       int  changedCount)
+    {
+        EntityDetail       entity     = new EntityDetail();
+        InstanceProperties properties = new InstanceProperties();
+
+        entity.setGUID("2222");
+        entity.setVersion(version);
+        entity.setCreateTime(new Date(START_TIME));
+        entity.setUpdateTime(new Date(START_TIME + (version - 1) * INTERVAL));
+
+        for (int index = 0; index < propertyCount; index++)
+        {
+            properties.setProperty("property-" + index, getValue(index < changedCount ? "value-" + version : "value"));
+        }
+
+        entity.setProperties(properties);
+
+        return entity;
+    }
+
+
+    private void validateWideEntity(EntityDetail entity,
+                                    long         version,
+                                    int          propertyCount,
+                                    int          changedCount)
+    {
+        assertEquals(entity.getVersion(), version);
+        assertEquals(entity.getProperties(), getWideEntity(version, propertyCount, changedCount).getProperties());
+    }
+
+
+    private void validateEntity(EntityDetail entity,
+                                long         version)
+    {
+        assertEquals(entity.getVersion(), version);
+        assertEquals(entity.getProperties(), getEntity(version).getProperties());
+    }
+
+
+    private PrimitivePropertyValue getValue(String value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(value);
+
+        return propertyValue;
+    }
+}
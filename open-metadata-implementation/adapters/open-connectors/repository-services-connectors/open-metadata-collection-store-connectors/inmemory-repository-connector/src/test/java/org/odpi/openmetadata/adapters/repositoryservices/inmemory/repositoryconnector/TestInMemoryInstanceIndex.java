@@ -0,0 +1,146 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestInMemoryInstanceIndex
+{
+    @Test
+    void testEntityIndex()
+    {
+        InMemoryInstanceIndex index = new InMemoryInstanceIndex();
+
+        index.indexEntity("1111", getEntity("1111", "Asset", InstanceStatus.ACTIVE, "Confidentiality"));
+        index.indexEntity("2222", getEntity("2222", "GlossaryTerm", InstanceStatus.ACTIVE));
+        index.indexEntity("3333", getEntity("3333", "Asset", InstanceStatus.DELETED));
+
+        assertNull(index.getCandidates(null, null, null, null));
+        assertEquals(index.getCandidates(Collections.singleton("Asset"), null, null, null), new HashSet<>(Arrays.asList("1111", "3333")));
+        assertEquals(index.getCandidates(new HashSet<>(Arrays.asList("Asset", "GlossaryTerm")), null, null, null).size(), 3);
+        assertEquals(index.getCandidates(Collections.singleton("Asset"), Collections.singletonList("Confidentiality"), null, null),
+                     Collections.singleton("1111"));
+        assertEquals(index.getCandidates(null, null, Collections.singletonList(InstanceStatus.DELETED), null),
+                     Collections.singleton("3333"));
+        assertTrue(index.getCandidates(Collections.singleton("Process"), null, null, null).isEmpty());
+
+        /*
+         * Declassify and retype an entity
+         */
+        index.indexEntity("1111", getEntity("1111", "GlossaryTerm", InstanceStatus.ACTIVE));
+
+        assertTrue(index.getCandidates(null, Collections.singletonList("Confidentiality"), null, null).isEmpty());
+        assertEquals(index.getCandidates(Collections.singleton("Asset"), null, null, null), Collections.singleton("3333"));
+        assertEquals(index.getCandidates(Collections.singleton("GlossaryTerm"), null, null, null), new HashSet<>(Arrays.asList("1111", "2222")));
+
+        /*
+         * Only a proxy remains
+         */
+        index.indexEntity("2222", null);
+        index.removeInstance("3333");
+
+        assertEquals(index.getCandidates(new HashSet<>(Arrays.asList("Asset", "GlossaryTerm")), null, null, null), Collections.singleton("1111"));
+    }
+
+
+    @Test
+    void testRelationshipIndex()
+    {
+        InMemoryInstanceIndex index = new InMemoryInstanceIndex();
+
+        index.indexRelationship("5555", getRelationship("5555", "1111", "2222"));
+        index.indexRelationship("6666", getRelationship("6666", "2222", "3333"));
+
+        assertEquals(index.getRelationshipsForEntity("1111"), Collections.singleton("5555"));
+        assertEquals(index.getRelationshipsForEntity("2222"), new HashSet<>(Arrays.asList("5555", "6666")));
+        assertEquals(index.getCandidates(null, null, null, "3333"), Collections.singleton("6666"));
+        assertTrue(index.getRelationshipsForEntity("4444").isEmpty());
+
+        /*
+         * Re-point a relationship and then purge it
+         */
+        index.indexRelationship("6666", getRelationship("6666", "2222", "4444"));
+
+        assertTrue(index.getRelationshipsForEntity("3333").isEmpty());
+        assertEquals(index.getRelationshipsForEntity("4444"), Collections.singleton("6666"));
+
+        index.indexRelationship("6666", null);
+
+        assertEquals(index.getRelationshipsForEntity("2222"), Collections.singleton("5555"));
+        assertTrue(index.getRelationshipsForEntity("4444").isEmpty());
+    }
+
+
+    private EntityDetail getEntity(String         guid,
+                                   String         typeName,
+                                   InstanceStatus status,
+                                   String...      classificationNames)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setType(getType(typeName));
+        entity.setStatus(status);
+
+        if (classificationNames.length > 0)
+        {
+            List<Classification> classifications = new ArrayList<>();
+
+            for (String classificationName : classificationNames)
+            {
+                Classification classification = new Classification();
+
+                classification.setName(classificationName);
+                classifications.add(classification);
+            }
+
+            entity.setClassifications(classifications);
+        }
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(String guid,
+                                         String end1GUID,
+                                         String end2GUID)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setType(getType("SemanticAssignment"));
+        relationship.setStatus(InstanceStatus.ACTIVE);
+        relationship.setEntityOneProxy(getEntityProxy(end1GUID));
+        relationship.setEntityTwoProxy(getEntityProxy(end2GUID));
+
+        return relationship;
+    }
+
+
+    private EntityProxy getEntityProxy(String guid)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(guid);
+
+        return entityProxy;
+    }
+
+
+    private InstanceType getType(String typeName)
+    {
+        InstanceType type = new InstanceType();
+
+        type.setTypeDefName(typeName);
+
+        return type;
+    }
+}
@@ -0,0 +1,228 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Drives concurrent creates, classifies and searches through the InMemoryOMRSMetadataStore and checks that
+ * every search sees a consistent state of the store.
+ */
+public class TestInMemoryOMRSMetadataStoreConcurrency
+{
+    private static final String TYPE_NAME           = "Asset";
+    private static final String CLASSIFICATION_NAME = "Confidentiality";
+    private static final int    WRITER_COUNT        = 4;
+    private static final int    READER_COUNT        = 4;
+    private static final int    ENTITIES_PER_WRITER = 500;
+
+    @Mock
+    private OMRSRepositoryHelper repositoryHelper;
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        MockitoAnnotations.openMocks(this);
+
+        when(repositoryHelper.getNewEntityProxy(anyString(), any(EntityDetail.class))).thenAnswer(invocation ->
+        {
+            EntityDetail entity = invocation.getArgument(1);
+            EntityProxy  entityProxy = new EntityProxy();
+
+            entityProxy.setGUID(entity.getGUID());
+            entityProxy.setType(entity.getType());
+            entityProxy.setVersion(entity.getVersion());
+            entityProxy.setClassifications(entity.getClassifications());
+
+            return entityProxy;
+        });
+
+        when(repositoryHelper.addClassificationToEntity(anyString(), any(EntityDetail.class), any(Classification.class), anyString())).thenAnswer(invocation ->
+        {
+            EntityDetail         updatedEntity   = new EntityDetail((EntityDetail)invocation.getArgument(1));
+            List<Classification> classifications = new ArrayList<>();
+
+            if (updatedEntity.getClassifications() != null)
+            {
+                classifications.addAll(updatedEntity.getClassifications());
+            }
+
+            classifications.add(invocation.getArgument(2));
+            updatedEntity.setClassifications(classifications);
+
+            return updatedEntity;
+        });
+
+        when(repositoryHelper.addClassificationToEntity(anyString(), any(EntityProxy.class), any(Classification.class), anyString())).thenAnswer(invocation ->
+        {
+            EntityProxy updatedProxy = new EntityProxy((EntityProxy)invocation.getArgument(1));
+
+            updatedProxy.setClassifications(Collections.singletonList(invocation.getArgument(2)));
+
+            return updatedProxy;
+        });
+    }
+
+
+    @Test
+    void testConcurrentCreateClassifySearch() throws Exception
+    {
+        InMemoryOMRSMetadataStore store      = new InMemoryOMRSMetadataStore("TestRepository", repositoryHelper, "TestMetadataCollection");
+        ExecutorService           executor   = Executors.newFixedThreadPool(WRITER_COUNT + READER_COUNT);
+        AtomicBoolean             writing    = new AtomicBoolean(true);
+        CountDownLatch            startLatch = new CountDownLatch(1);
+        List<Future<?>>           writers    = new ArrayList<>();
+        List<Future<?>>           readers    = new ArrayList<>();
+        Set<String>               typeNames  = Collections.singleton(TYPE_NAME);
+        List<String>              classificationNames = Collections.singletonList(CLASSIFICATION_NAME);
+
+        for (int writer = 0; writer < WRITER_COUNT; writer++)
+        {
+            final int writerNumber = writer;
+
+            writers.add(executor.submit(() ->
+            {
+                startLatch.await();
+
+                for (int count = 0; count < ENTITIES_PER_WRITER; count++)
+                {
+                    String guid = writerNumber + "-" + count;
+
+                    store.createEntityInStore(getEntity(guid));
+
+                    if (count % 2 == 0)
+                    {
+                        store.saveClassification(guid, getClassification());
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        for (int reader = 0; reader < READER_COUNT; reader++)
+        {
+            readers.add(executor.submit(() ->
+            {
+                int lastEntityCount     = 0;
+                int lastClassifiedCount = 0;
+
+                startLatch.await();
+
+                while (writing.get())
+                {
+                    List<EntityDetail> entities   = store.findEntities(null, typeNames, null, null);
+                    List<EntityDetail> classified = store.findEntities(null, typeNames, classificationNames, null);
+
+                    /*
+                     * Nothing is ever removed so later searches must see at least as much as earlier ones.
+                     */
+                    assertTrue(entities.size() >= lastEntityCount);
+                    assertTrue(classified.size() >= lastClassifiedCount);
+
+                    for (EntityDetail entity : classified)
+                    {
+                        assertTrue(isClassified(entity));
+                    }
+
+                    lastEntityCount = entities.size();
+                    lastClassifiedCount = classified.size();
+                }
+
+                return null;
+            }));
+        }
+
+        startLatch.countDown();
+
+        for (Future<?> writer : writers)
+        {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+
+        writing.set(false);
+
+        for (Future<?> reader : readers)
+        {
+            reader.get(60, TimeUnit.SECONDS);
+        }
+
+        executor.shutdown();
+
+        assertEquals(store.findEntities(null, typeNames, null, null).size(), WRITER_COUNT * ENTITIES_PER_WRITER);
+        assertEquals(store.findEntities(null, typeNames, classificationNames, null).size(), WRITER_COUNT * ENTITIES_PER_WRITER / 2);
+
+        for (int writer = 0; writer < WRITER_COUNT; writer++)
+        {
+            for (int count = 0; count < ENTITIES_PER_WRITER; count++)
+            {
+                EntityDetail entity = store.getEntity(writer + "-" + count);
+
+                assertNotNull(entity);
+                assertEquals(isClassified(entity), count % 2 == 0);
+            }
+        }
+    }
+
+
+    private boolean isClassified(EntityDetail entity)
+    {
+        if (entity.getClassifications() != null)
+        {
+            for (Classification classification : entity.getClassifications())
+            {
+                if (CLASSIFICATION_NAME.equals(classification.getName()))
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    private EntityDetail getEntity(String guid)
+    {
+        EntityDetail entity = new EntityDetail();
+        InstanceType type   = new InstanceType();
+
+        type.setTypeDefName(TYPE_NAME);
+
+        entity.setGUID(guid);
+        entity.setType(type);
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setVersion(1L);
+        entity.setCreateTime(new Date());
+
+        return entity;
+    }
+
+
+    private Classification getClassification()
+    {
+        Classification classification = new Classification();
+
+        classification.setName(CLASSIFICATION_NAME);
+        classification.setVersion(1L);
+
+        return classification;
+    }
+}
@@ -0,0 +1,338 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Checks that the content of a journaled InMemoryOMRSMetadataStore is recovered after a restart, including
+ * when the last journal record was only partially written or the server stopped while a snapshot was being written.
+ */
+public class TestInMemoryOMRSStoreJournal
+{
+    private static final String TYPE_NAME              = "Asset";
+    private static final String RELATIONSHIP_TYPE_NAME = "SemanticAssignment";
+    private static final String CLASSIFICATION_NAME    = "Confidentiality";
+    private static final int    SNAPSHOT_FREQUENCY     = 3;
+
+    @Mock
+    private OMRSRepositoryHelper repositoryHelper;
+
+    private Path persistenceDirectory;
+
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        MockitoAnnotations.openMocks(this);
+
+        persistenceDirectory = Files.createTempDirectory("inmemory-journal");
+
+        when(repositoryHelper.getNewEntityProxy(anyString(), any(EntityDetail.class))).thenAnswer(invocation ->
+        {
+            EntityDetail entity = invocation.getArgument(1);
+            EntityProxy  entityProxy = new EntityProxy();
+
+            entityProxy.setGUID(entity.getGUID());
+            entityProxy.setType(entity.getType());
+            entityProxy.setVersion(entity.getVersion());
+            entityProxy.setClassifications(entity.getClassifications());
+
+            return entityProxy;
+        });
+
+        when(repositoryHelper.addClassificationToEntity(anyString(), any(EntityDetail.class), any(Classification.class), anyString())).thenAnswer(invocation ->
+        {
+            EntityDetail updatedEntity = new EntityDetail((EntityDetail)invocation.getArgument(1));
+
+            updatedEntity.setClassifications(Collections.singletonList(invocation.getArgument(2)));
+
+            return updatedEntity;
+        });
+
+        when(repositoryHelper.addClassificationToEntity(anyString(), any(EntityProxy.class), any(Classification.class), anyString())).thenAnswer(invocation ->
+        {
+            EntityProxy updatedProxy = new EntityProxy((EntityProxy)invocation.getArgument(1));
+
+            updatedProxy.setClassifications(Collections.singletonList(invocation.getArgument(2)));
+
+            return updatedProxy;
+        });
+    }
+
+
+    @AfterMethod
+    public void tearDown()
+    {
+        File[] files = persistenceDirectory.toFile().listFiles();
+
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                file.delete();
+            }
+        }
+
+        persistenceDirectory.toFile().delete();
+    }
+
+
+    @Test
+    void testRecovery() throws Exception
+    {
+        InMemoryOMRSMetadataStore store = startStore();
+
+        store.createEntityInStore(getEntity("1111", 1L));
+        store.createEntityInStore(getEntity("2222", 1L));
+        store.createEntityInStore(getEntity("3333", 1L));
+        store.saveClassification("1111", getClassification());
+        store.updateEntityInStore(getEntity("2222", 2L));
+        store.createRelationshipInStore(getRelationship("5555", "1111", "2222"));
+        store.createRelationshipInStore(getRelationship("6666", "2222", "3333"));
+        store.removeRelationshipFromStore(getRelationship("6666", "2222", "3333"));
+        store.purgeEntityFromStore("3333");
+        store.waitForSnapshot();
+
+        /*
+         * The first store is abandoned without a final snapshot - as if the server had stopped.
+         */
+        validateStore(startStore());
+
+        /*
+         * Simulate a partially written record at the end of the journal.
+         */
+        Files.write(persistenceDirectory.resolve("inmemory-repository.journal"),
+                    new byte[]{0, 0, 0, 4, 0, 0, 0, 0, 0, 0, 0, 9, 1, 2, 3, 4},
+                    StandardOpenOption.APPEND);
+
+        InMemoryOMRSMetadataStore recoveredStore = startStore();
+
+        validateStore(recoveredStore);
+
+        /*
+         * A clean shutdown leaves everything in the snapshot.
+         */
+        recoveredStore.stopJournal();
+
+        assertEquals(Files.size(persistenceDirectory.resolve("inmemory-repository.journal")), 0L);
+
+        validateStore(startStore());
+    }
+
+
+    @Test
+    void testSnapshotWhileUpdating() throws Exception
+    {
+        InMemoryOMRSMetadataStore store = startStore();
+
+        store.createEntityInStore(getEntity("1111", 1L));
+
+        for (int version = 2; version <= SNAPSHOT_FREQUENCY * 10; version++)
+        {
+            store.updateEntityInStore(getEntity("1111", version));
+
+            /*
+             * Reads of the store are not blocked by the snapshots.
+             */
+            assertEquals(store.getEntity("1111").getVersion(), version);
+        }
+
+        store.waitForSnapshot();
+
+        assertTrue(Files.exists(persistenceDirectory.resolve("inmemory-repository.snapshot")));
+        assertFalse(Files.exists(persistenceDirectory.resolve("inmemory-repository.journal.compacting")));
+
+        InMemoryOMRSMetadataStore recoveredStore = startStore();
+
+        assertEquals(recoveredStore.getEntity("1111").getVersion(), SNAPSHOT_FREQUENCY * 10);
+        assertEquals(recoveredStore.retrievePreviousVersionOfEntity("1111").getVersion(), SNAPSHOT_FREQUENCY * 10 - 1);
+    }
+
+
+    @Test
+    void testInterruptedSnapshot() throws Exception
+    {
+        InMemoryOMRSStoreJournal journal = new InMemoryOMRSStoreJournal(persistenceDirectory.toString(), SNAPSHOT_FREQUENCY);
+
+        assertEquals(journal.open().size(), 0);
+
+        journal.append(getEntityRecord("1111"));
+        journal.append(getEntityRecord("2222"));
+        journal.startSnapshot();
+        journal.append(getEntityRecord("3333"));
+
+        /*
+         * The server stops part way through writing the new snapshot.  The compacting journal is still present
+         * so the partial snapshot is ignored.
+         */
+        Files.write(persistenceDirectory.resolve("inmemory-repository.snapshot.new"), new byte[]{0, 0, 0, 9, 1, 2});
+        journal.close();
+
+        journal = new InMemoryOMRSStoreJournal(persistenceDirectory.toString(), SNAPSHOT_FREQUENCY);
+
+        assertEquals(getGUIDs(journal.open()), Arrays.asList("1111", "2222", "3333"));
+        assertFalse(Files.exists(persistenceDirectory.resolve("inmemory-repository.snapshot.new")));
+
+        /*
+         * A new snapshot starts while the previous compacting journal is still present.  The journal is added to it.
+         */
+        journal.append(getEntityRecord("4444"));
+        journal.startSnapshot();
+        journal.append(getEntityRecord("5555"));
+        journal.writeSnapshot(Arrays.asList(getEntityRecord("1111"), getEntityRecord("2222"), getEntityRecord("3333"), getEntityRecord("4444")));
+        journal.close();
+
+        /*
+         * The server stops after the compacting journal is removed but before the new snapshot is renamed.
+         */
+        Files.move(persistenceDirectory.resolve("inmemory-repository.snapshot"),
+                   persistenceDirectory.resolve("inmemory-repository.snapshot.new"));
+
+        journal = new InMemoryOMRSStoreJournal(persistenceDirectory.toString(), SNAPSHOT_FREQUENCY);
+
+        assertEquals(getGUIDs(journal.open()), Arrays.asList("1111", "2222", "3333", "4444", "5555"));
+        assertTrue(Files.exists(persistenceDirectory.resolve("inmemory-repository.snapshot")));
+        journal.close();
+    }
+
+
+    private InMemoryOMRSJournalRecord getEntityRecord(String guid)
+    {
+        InMemoryOMRSJournalRecord record = new InMemoryOMRSJournalRecord(InMemoryOMRSJournalRecord.RecordType.ENTITY_SAVED, guid);
+
+        record.setEntity(getEntity(guid, 1L));
+
+        return record;
+    }
+
+
+    private List<String> getGUIDs(List<InMemoryOMRSJournalRecord> records)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (InMemoryOMRSJournalRecord record : records)
+        {
+            guids.add(record.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    private InMemoryOMRSMetadataStore startStore() throws Exception
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore("TestRepository", repositoryHelper, "TestMetadataCollection");
+
+        store.startJournal(new InMemoryOMRSStoreJournal(persistenceDirectory.toString(), SNAPSHOT_FREQUENCY), null);
+
+        return store;
+    }
+
+
+    private void validateStore(InMemoryOMRSMetadataStore store)
+    {
+        Set<String> typeNames = Collections.singleton(TYPE_NAME);
+
+        assertEquals(store.findEntities(null, typeNames, null, null).size(), 2);
+        assertEquals(store.findEntities(null, typeNames, Collections.singletonList(CLASSIFICATION_NAME), null).size(), 1);
+        assertNull(store.getEntity("3333"));
+
+        EntityDetail updatedEntity = store.getEntity("2222");
+
+        assertNotNull(updatedEntity);
+        assertEquals(updatedEntity.getVersion(), 2L);
+        assertEquals(store.retrievePreviousVersionOfEntity("2222").getVersion(), 1L);
+
+        assertNotNull(store.getRelationship("5555"));
+        assertNull(store.getRelationship("6666"));
+        assertEquals(store.findRelationships(null, null, "2222", null).size(), 1);
+        assertNotNull(store.retrievePreviousVersionOfRelationship("6666"));
+    }
+
+
+    private EntityDetail getEntity(String guid,
+                                   long   version)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setType(getType(TYPE_NAME));
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setVersion(version);
+        entity.setCreateTime(new Date());
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(String guid,
+                                         String end1GUID,
+                                         String end2GUID)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setType(getType(RELATIONSHIP_TYPE_NAME));
+        relationship.setStatus(InstanceStatus.ACTIVE);
+        relationship.setVersion(1L);
+        relationship.setCreateTime(new Date());
+        relationship.setEntityOneProxy(getEntityProxy(end1GUID));
+        relationship.setEntityTwoProxy(getEntityProxy(end2GUID));
+
+        return relationship;
+    }
+
+
+    private EntityProxy getEntityProxy(String guid)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(guid);
+
+        return entityProxy;
+    }
+
+
+    private Classification getClassification()
+    {
+        Classification classification = new Classification();
+
+        classification.setName(CLASSIFICATION_NAME);
+        classification.setVersion(1L);
+
+        return classification;
+    }
+
+
+    private InstanceType getType(String typeName)
+    {
+        InstanceType type = new InstanceType();
+
+        type.setTypeDefName(typeName);
+
+        return type;
+    }
+}
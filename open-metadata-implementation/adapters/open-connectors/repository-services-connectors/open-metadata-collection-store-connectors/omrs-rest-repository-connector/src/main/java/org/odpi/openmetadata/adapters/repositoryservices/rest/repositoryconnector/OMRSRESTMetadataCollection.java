@@ -998,6 +998,51 @@ public class OMRSRESTMetadataCollection extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Return the header, classifications and properties of each of the requested entities in a single call to the
+     * remote repository.  Entities that are not known, or are only stored as proxies, are omitted from the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of the entities that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException     one of the guids is null.
+     * @throws RepositoryErrorException      there is a problem communicating with the metadata repository where
+     *                                       the metadata collection is stored.
+     * @throws FunctionNotSupportedException the remote repository does not support batch retrieval.
+     * @throws UserNotAuthorizedException    the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           FunctionNotSupportedException,
+                                                                           UserNotAuthorizedException
+    {
+        final String methodName  = "getEntitiesDetail";
+
+        if (isfunctionSupported(methodName))
+        {
+            validateClient(methodName);
+
+            try
+            {
+                return omrsClient.getEntitiesDetail(userId, guids);
+            }
+            catch (FunctionNotSupportedException error)
+            {
+                markFunctionUnsupported(methodName);
+                throw error;
+            }
+        }
+        else
+        {
+            reportUnsupportedOptionalFunction(methodName);
+        }
+
+        return null;
+    }
+
+
     /**
      * Return all historical versions of an entity within the bounds of the provided timestamps. To retrieve all historical
      * versions of an entity, set both the 'fromTime' and 'toTime' to null.
@@ -1478,6 +1523,51 @@ public class OMRSRESTMetadataCollection extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Return the current version of each of the requested relationships in a single call to the remote repository.
+     * Relationships that are not known are omitted from the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of the relationships that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException     one of the guids is null.
+     * @throws RepositoryErrorException      there is a problem communicating with the metadata repository where
+     *                                       the metadata collection is stored.
+     * @throws FunctionNotSupportedException the remote repository does not support batch retrieval.
+     * @throws UserNotAuthorizedException    the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<Relationship> getRelationshipsByGUIDs(String       userId,
+                                                      List<String> guids) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 FunctionNotSupportedException,
+                                                                                 UserNotAuthorizedException
+    {
+        final String methodName  = "getRelationshipsByGUIDs";
+
+        if (isfunctionSupported(methodName))
+        {
+            validateClient(methodName);
+
+            try
+            {
+                return omrsClient.getRelationshipsByGUIDs(userId, guids);
+            }
+            catch (FunctionNotSupportedException error)
+            {
+                markFunctionUnsupported(methodName);
+                throw error;
+            }
+        }
+        else
+        {
+            reportUnsupportedOptionalFunction(methodName);
+        }
+
+        return null;
+    }
+
+
     /**
      * Return all historical versions of a relationship within the bounds of the provided timestamps. To retrieve all
      * historical versions of a relationship, set both the 'fromTime' and 'toTime' to null.
@@ -25,6 +25,9 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  *
  *     <li>An array of EngineServiceConfig properties, one for each engine service to run.</li>
  * </ul>
+ *
+ * The optional limits on the governance services that run concurrently are shared by all engine services.
+ * A value of zero means the engine host uses its default.
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -33,8 +36,11 @@ public class EngineHostServicesConfig extends OMAGServerClientConfig
 {
     private static final long    serialVersionUID = 1L;
 
-    
-    private List<EngineServiceConfig> engineServiceConfigs = null;
+
+    private List<EngineServiceConfig> engineServiceConfigs       = null;
+    private int                       maxServiceWorkerThreads    = 0;
+    private int                       maxActiveServicesPerEngine = 0;
+    private int                       maxQueuedServicesPerEngine = 0;
 
 
     /**
@@ -58,6 +64,9 @@ public class EngineHostServicesConfig extends OMAGServerClientConfig
         if (template != null)
         {
             engineServiceConfigs = template.getEngineServiceConfigs();
+            maxServiceWorkerThreads = template.getMaxServiceWorkerThreads();
+            maxActiveServicesPerEngine = template.getMaxActiveServicesPerEngine();
+            maxQueuedServicesPerEngine = template.getMaxQueuedServicesPerEngine();
         }
     }
 
@@ -84,6 +93,78 @@ public class EngineHostServicesConfig extends OMAGServerClientConfig
     }
 
 
+    /**
+     * Return the maximum number of threads that run governance services across all the governance engines
+     * in this server.  Zero means use the default.
+     *
+     * @return thread count
+     */
+    public int getMaxServiceWorkerThreads()
+    {
+        return maxServiceWorkerThreads;
+    }
+
+
+    /**
+     * Set up the maximum number of threads that run governance services across all the governance engines
+     * in this server.  Zero means use the default.
+     *
+     * @param maxServiceWorkerThreads thread count
+     */
+    public void setMaxServiceWorkerThreads(int maxServiceWorkerThreads)
+    {
+        this.maxServiceWorkerThreads = maxServiceWorkerThreads;
+    }
+
+
+    /**
+     * Return the maximum number of governance services that a single governance engine can run at the same time.
+     * Zero means use the default.
+     *
+     * @return service count
+     */
+    public int getMaxActiveServicesPerEngine()
+    {
+        return maxActiveServicesPerEngine;
+    }
+
+
+    /**
+     * Set up the maximum number of governance services that a single governance engine can run at the same time.
+     * Zero means use the default.
+     *
+     * @param maxActiveServicesPerEngine service count
+     */
+    public void setMaxActiveServicesPerEngine(int maxActiveServicesPerEngine)
+    {
+        this.maxActiveServicesPerEngine = maxActiveServicesPerEngine;
+    }
+
+
+    /**
+     * Return the maximum number of governance service requests that can wait to run for a single governance engine.
+     * Further requests are rejected.  Zero means use the default.
+     *
+     * @return request count
+     */
+    public int getMaxQueuedServicesPerEngine()
+    {
+        return maxQueuedServicesPerEngine;
+    }
+
+
+    /**
+     * Set up the maximum number of governance service requests that can wait to run for a single governance engine.
+     * Further requests are rejected.  Zero means use the default.
+     *
+     * @param maxQueuedServicesPerEngine request count
+     */
+    public void setMaxQueuedServicesPerEngine(int maxQueuedServicesPerEngine)
+    {
+        this.maxQueuedServicesPerEngine = maxQueuedServicesPerEngine;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -94,6 +175,9 @@ public class EngineHostServicesConfig extends OMAGServerClientConfig
     {
         return "EngineHostServicesConfig{" +
                        "engineServiceConfigs=" + engineServiceConfigs +
+                       ", maxServiceWorkerThreads=" + maxServiceWorkerThreads +
+                       ", maxActiveServicesPerEngine=" + maxActiveServicesPerEngine +
+                       ", maxQueuedServicesPerEngine=" + maxQueuedServicesPerEngine +
                        ", OMAGServerPlatformRootURL='" + getOMAGServerPlatformRootURL() + '\'' +
                        ", OMAGServerName='" + getOMAGServerName() + '\'' +
                        '}';
@@ -122,7 +206,10 @@ public class EngineHostServicesConfig extends OMAGServerClientConfig
             return false;
         }
         EngineHostServicesConfig that = (EngineHostServicesConfig) objectToCompare;
-        return Objects.equals(engineServiceConfigs, that.engineServiceConfigs);
+        return maxServiceWorkerThreads == that.maxServiceWorkerThreads &&
+                       maxActiveServicesPerEngine == that.maxActiveServicesPerEngine &&
+                       maxQueuedServicesPerEngine == that.maxQueuedServicesPerEngine &&
+                       Objects.equals(engineServiceConfigs, that.engineServiceConfigs);
     }
 
 
@@ -134,6 +221,7 @@ public class EngineHostServicesConfig extends OMAGServerClientConfig
     @Override
     public int hashCode()
     {
-        return Objects.hash(super.hashCode(), engineServiceConfigs);
+        return Objects.hash(super.hashCode(), engineServiceConfigs, maxServiceWorkerThreads, maxActiveServicesPerEngine,
+                            maxQueuedServicesPerEngine);
     }
 }
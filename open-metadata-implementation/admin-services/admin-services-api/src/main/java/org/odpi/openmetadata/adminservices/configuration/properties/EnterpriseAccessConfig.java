@@ -35,6 +35,14 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  *     <li>
  *         remoteEnterpriseOMRSTopicConnection - connection for the remote (external) enterprise OMRS Topic connector.
  *     </li>
+ *     <li>
+ *         enterpriseInstanceCacheSize - maximum number of instances cached by each enterprise repository connector.
+ *                                     Zero (the default) means there is no cache.
+ *     </li>
+ *     <li>
+ *         enterpriseInstanceCacheTimeToLive - maximum time (in milliseconds) that an instance is cached.  Zero means
+ *                                           use the default time to live.
+ *     </li>
  * </ul>
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
@@ -49,6 +57,8 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     private Connection                       enterpriseOMRSTopicConnection       = null;
     private OpenMetadataEventProtocolVersion enterpriseOMRSTopicProtocolVersion  = null;
     private Connection                       remoteEnterpriseOMRSTopicConnection = null;
+    private int                              enterpriseInstanceCacheSize         = 0;
+    private long                             enterpriseInstanceCacheTimeToLive   = 0;
 
 
     /**
@@ -76,6 +86,8 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
             this.enterpriseOMRSTopicConnection = template.getEnterpriseOMRSTopicConnection();
             this.enterpriseOMRSTopicProtocolVersion = template.getEnterpriseOMRSTopicProtocolVersion();
             this.remoteEnterpriseOMRSTopicConnection = template.getRemoteEnterpriseOMRSTopicConnection();
+            this.enterpriseInstanceCacheSize = template.getEnterpriseInstanceCacheSize();
+            this.enterpriseInstanceCacheTimeToLive = template.getEnterpriseInstanceCacheTimeToLive();
         }
     }
 
@@ -219,6 +231,54 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return the maximum number of instances cached by each enterprise repository connector.
+     * Zero means the enterprise repository connectors do not cache instances.
+     *
+     * @return int
+     */
+    public int getEnterpriseInstanceCacheSize()
+    {
+        return enterpriseInstanceCacheSize;
+    }
+
+
+    /**
+     * Set up the maximum number of instances cached by each enterprise repository connector.
+     * Zero means the enterprise repository connectors do not cache instances.
+     *
+     * @param enterpriseInstanceCacheSize int
+     */
+    public void setEnterpriseInstanceCacheSize(int enterpriseInstanceCacheSize)
+    {
+        this.enterpriseInstanceCacheSize = enterpriseInstanceCacheSize;
+    }
+
+
+    /**
+     * Return the maximum time that an instance is cached by an enterprise repository connector.
+     * Zero means use the default time to live.
+     *
+     * @return time in milliseconds
+     */
+    public long getEnterpriseInstanceCacheTimeToLive()
+    {
+        return enterpriseInstanceCacheTimeToLive;
+    }
+
+
+    /**
+     * Set up the maximum time that an instance is cached by an enterprise repository connector.
+     * Zero means use the default time to live.
+     *
+     * @param enterpriseInstanceCacheTimeToLive time in milliseconds
+     */
+    public void setEnterpriseInstanceCacheTimeToLive(long enterpriseInstanceCacheTimeToLive)
+    {
+        this.enterpriseInstanceCacheTimeToLive = enterpriseInstanceCacheTimeToLive;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -233,6 +293,8 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
                        ", enterpriseOMRSTopicConnection=" + enterpriseOMRSTopicConnection +
                        ", enterpriseOMRSTopicProtocolVersion=" + enterpriseOMRSTopicProtocolVersion +
                        ", remoteEnterpriseOMRSTopicConnection=" + remoteEnterpriseOMRSTopicConnection +
+                       ", enterpriseInstanceCacheSize=" + enterpriseInstanceCacheSize +
+                       ", enterpriseInstanceCacheTimeToLive=" + enterpriseInstanceCacheTimeToLive +
                        '}';
     }
 
@@ -255,7 +317,9 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
             return false;
         }
         EnterpriseAccessConfig that = (EnterpriseAccessConfig) objectToCompare;
-        return Objects.equals(enterpriseMetadataCollectionName, that.enterpriseMetadataCollectionName) &&
+        return enterpriseInstanceCacheSize == that.enterpriseInstanceCacheSize &&
+                       enterpriseInstanceCacheTimeToLive == that.enterpriseInstanceCacheTimeToLive &&
+                       Objects.equals(enterpriseMetadataCollectionName, that.enterpriseMetadataCollectionName) &&
                        Objects.equals(enterpriseMetadataCollectionId, that.enterpriseMetadataCollectionId) &&
                        Objects.equals(enterpriseOMRSTopicConnection, that.enterpriseOMRSTopicConnection) &&
                        enterpriseOMRSTopicProtocolVersion == that.enterpriseOMRSTopicProtocolVersion &&
@@ -273,6 +337,7 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     public int hashCode()
     {
         return Objects.hash(enterpriseMetadataCollectionName, enterpriseMetadataCollectionId, enterpriseOMRSTopicConnection,
-                            enterpriseOMRSTopicProtocolVersion, remoteEnterpriseOMRSTopicConnection);
+                            enterpriseOMRSTopicProtocolVersion, remoteEnterpriseOMRSTopicConnection,
+                            enterpriseInstanceCacheSize, enterpriseInstanceCacheTimeToLive);
     }
 }
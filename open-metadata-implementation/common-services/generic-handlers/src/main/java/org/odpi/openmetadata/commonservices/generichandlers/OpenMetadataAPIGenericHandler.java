@@ -8159,23 +8159,69 @@ public class OpenMetadataAPIGenericHandler<B>
             return null;
         }
 
-        List<B>  results = new ArrayList<>();
+        /*
+         * Work out which entity each relationship links to and then retrieve them all with a single call.
+         */
+        final String guidParameterName = "relationship.end.guid";
+
+        List<Relationship> attachedRelationships = new ArrayList<>();
+        List<String>       attachedGUIDs         = new ArrayList<>();
 
         for (Relationship  relationship : relationships)
         {
             if (relationship != null)
+            {
+                try
+                {
+                    EntityProxy entityProxy = this.getAttachedEntityProxy(startingGUID,
+                                                                          startingTypeName,
+                                                                          relationship,
+                                                                          selectionEnd,
+                                                                          methodName);
+
+                    if ((entityProxy != null) && (entityProxy.getGUID() != null))
+                    {
+                        attachedRelationships.add(relationship);
+                        attachedGUIDs.add(entityProxy.getGUID());
+                    }
+                }
+                catch (InvalidParameterException wrongEnd)
+                {
+                    // skip relationships that do not link to the starting entity's type
+                    if (log.isDebugEnabled())
+                    {
+                        log.debug("Skipping relationship: " + wrongEnd);
+                    }
+                }
+            }
+        }
+
+        Map<String, EntityDetail> attachedEntities = repositoryHandler.getEntitiesByGUIDs(userId,
+                                                                                          attachedGUIDs,
+                                                                                          guidParameterName,
+                                                                                          attachmentEntityTypeName,
+                                                                                          forLineage,
+                                                                                          forDuplicateProcessing,
+                                                                                          effectiveTime,
+                                                                                          methodName);
+
+        List<B>  results = new ArrayList<>();
+
+        for (int attachmentNumber = 0; attachmentNumber < attachedRelationships.size(); attachmentNumber++)
+        {
+            EntityDetail entity = attachedEntities.get(attachedGUIDs.get(attachmentNumber));
+
+            if (entity != null)
             {
                 try
                 {
                     B bean = this.getAttachedElement(userId,
-                                                     startingGUID,
-                                                     startingGUIDParameterName,
-                                                     startingTypeName,
-                                                     relationship,
+                                                     attachedRelationships.get(attachmentNumber),
+                                                     entity,
+                                                     guidParameterName,
                                                      attachmentEntityTypeName,
                                                      requiredClassificationName,
                                                      omittedClassificationName,
-                                                     selectionEnd,
                                                      forLineage,
                                                      forDuplicateProcessing,
                                                      serviceSupportedZones,
@@ -8209,36 +8255,70 @@ public class OpenMetadataAPIGenericHandler<B>
 
 
     /**
-     * Retrieve the requested element from the supplied relationship.
+     * Return the proxy for the requested end of the supplied relationship.
      *
-     * @param userId       calling user
      * @param startingGUID identifier for the entity that the identifier is attached to
-     * @param startingGUIDParameterName name of parameter supplying the GUID
      * @param startingTypeName name of the type of object being attached to
-     * @param relationship relationship between the requested element and the related keyword
+     * @param relationship relationship between the starting element and the requested element
+     * @param selectionEnd 0 means either end, 1 means only take from end 1, 2 means only take from end 2
+     * @param methodName   calling method
+     * @return proxy for the requested element or null
+     * @throws InvalidParameterException the starting entity is not of the expected type
+     */
+    private EntityProxy getAttachedEntityProxy(String        startingGUID,
+                                               String        startingTypeName,
+                                               Relationship  relationship,
+                                               int           selectionEnd,
+                                               String        methodName) throws InvalidParameterException
+    {
+        if (selectionEnd == 0)
+        {
+            return repositoryHandler.getOtherEnd(startingGUID,
+                                                 startingTypeName,
+                                                 relationship,
+                                                 selectionEnd,
+                                                 methodName);
+        }
+        else if (selectionEnd == 1)
+        {
+            return relationship.getEntityOneProxy();
+        }
+        else if (selectionEnd == 2)
+        {
+            return relationship.getEntityTwoProxy();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Convert the requested element retrieved from the end of the supplied relationship into a bean.
+     *
+     * @param userId       calling user
+     * @param relationship relationship between the requested element and the starting element
+     * @param entity requested element retrieved from the repository
+     * @param guidParameterName name of parameter supplying the requested element's GUID
      * @param attachmentEntityTypeName unique name of the attached entity's type
      * @param requiredClassificationName  String the name of the classification that must be on the attached entity
      * @param omittedClassificationName   String the name of a classification that must not be on the attached entity
-     * @param selectionEnd 0 means either end, 1 means only take from end 1, 2 means only take from end 2
      * @param forLineage the request is to support lineage retrieval this means entities with the Memento classification can be returned
      * @param forDuplicateProcessing the request is for duplicate processing and so must not deduplicate
      * @param serviceSupportedZones supported zones for calling service
      * @param effectiveTime the time that the retrieved elements must be effective for (null for any time, new Date() for now)
      * @param methodName   calling method
-     * @return new bean
+     * @return new bean or null if the element does not have the required classifications
      * @throws InvalidParameterException  the parameters are invalid
      * @throws UserNotAuthorizedException user not authorized to issue this request
      * @throws PropertyServerException    problem accessing the repositories
      */
     private B getAttachedElement(String        userId,
-                                 String        startingGUID,
-                                 String        startingGUIDParameterName,
-                                 String        startingTypeName,
                                  Relationship  relationship,
+                                 EntityDetail  entity,
+                                 String        guidParameterName,
                                  String        attachmentEntityTypeName,
                                  String        requiredClassificationName,
                                  String        omittedClassificationName,
-                                 int           selectionEnd,
                                  boolean       forLineage,
                                  boolean       forDuplicateProcessing,
                                  List<String>  serviceSupportedZones,
@@ -8247,100 +8327,61 @@ public class OpenMetadataAPIGenericHandler<B>
                                                                   PropertyServerException,
                                                                   UserNotAuthorizedException
     {
-        final String guidParameterName = "relationship.end.guid";
+        this.validateAnchorEntity(userId,
+                                  entity.getGUID(),
+                                  attachmentEntityTypeName,
+                                  entity,
+                                  guidParameterName,
+                                  false,
+                                  forLineage,
+                                  forDuplicateProcessing,
+                                  serviceSupportedZones,
+                                  effectiveTime,
+                                  methodName);
 
-        invalidParameterHandler.validateUserId(userId, methodName);
-        invalidParameterHandler.validateGUID(startingGUID, startingGUIDParameterName, methodName);
+        boolean beanValid = true;
 
-        if (relationship != null)
+        if (requiredClassificationName != null)
         {
-            EntityProxy entityProxy = null;
-
-            if (selectionEnd == 0)
-            {
-                entityProxy = repositoryHandler.getOtherEnd(startingGUID,
-                                                            startingTypeName,
-                                                            relationship,
-                                                            selectionEnd,
-                                                            methodName);
-            }
-            else if (selectionEnd == 1)
+            try
             {
-                entityProxy = relationship.getEntityOneProxy();
+                if (repositoryHelper.getClassificationFromEntity(serviceName, entity, requiredClassificationName, methodName) == null)
+                {
+                    beanValid = false;
+                }
             }
-            else if (selectionEnd == 2)
+            catch (ClassificationErrorException error)
             {
-                entityProxy = relationship.getEntityTwoProxy();
+                /*
+                 * Since this classification is not supported, it can not be attached to the entity
+                 */
+                beanValid = false;
             }
+        }
 
-            if (entityProxy != null)
-            { 
-                EntityDetail entity = repositoryHandler.getEntityByGUID(userId,
-                                                                        entityProxy.getGUID(),
-                                                                        guidParameterName,
-                                                                        attachmentEntityTypeName,
-                                                                        forLineage,
-                                                                        forDuplicateProcessing,
-                                                                        effectiveTime,
-                                                                        methodName);
-
-                this.validateAnchorEntity(userId,
-                                          entityProxy.getGUID(),
-                                          attachmentEntityTypeName,
-                                          entity,
-                                          guidParameterName,
-                                          false,
-                                          forLineage,
-                                          forDuplicateProcessing,
-                                          serviceSupportedZones,
-                                          effectiveTime,
-                                          methodName);
-
-                boolean beanValid = true;
-
-                if (requiredClassificationName != null)
-                {
-                    try
-                    {
-                        if (repositoryHelper.getClassificationFromEntity(serviceName, entity, requiredClassificationName, methodName) == null)
-                        {
-                            beanValid = false;
-                        }
-                    }
-                    catch (ClassificationErrorException error)
-                    {
-                        /*
-                         * Since this classification is not supported, it can not be attached to the entity
-                         */
-                        beanValid = false;
-                    }
-                }
-
-                if (omittedClassificationName != null)
-                {
-                    try
-                    {
-                        if (repositoryHelper.getClassificationFromEntity(serviceName, entity, omittedClassificationName, methodName) != null)
-                        {
-                            beanValid = false;
-                        }
-                    }
-                    catch (ClassificationErrorException error)
-                    {
-                        /*
-                         * Since this classification is not supported, it can not be attached to the entity
-                         */
-                    }
-                }
-
-                if (beanValid)
+        if (omittedClassificationName != null)
+        {
+            try
+            {
+                if (repositoryHelper.getClassificationFromEntity(serviceName, entity, omittedClassificationName, methodName) != null)
                 {
-                    /*
-                     * Valid entity to return since no exception occurred.
-                     */
-                    return converter.getNewBean(beanClass, entity, relationship, methodName);
+                    beanValid = false;
                 }
             }
+            catch (ClassificationErrorException error)
+            {
+                /*
+                 * Since this classification is not supported, it can not be attached to the entity
+                 */
+            }
+        }
+
+        if (beanValid)
+        {
+            /*
+             * Valid entity to return since no exception occurred.
+             */
+            return converter.getNewBean(beanClass, entity, relationship, methodName);
         }
 
         return null;
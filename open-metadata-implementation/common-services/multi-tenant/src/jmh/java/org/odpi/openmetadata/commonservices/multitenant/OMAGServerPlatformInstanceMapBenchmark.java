@@ -0,0 +1,185 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.multitenant;
+
+import org.odpi.openmetadata.commonservices.ffdc.exceptions.InvalidParameterException;
+import org.odpi.openmetadata.commonservices.ffdc.exceptions.PropertyServerException;
+import org.odpi.openmetadata.commonservices.ffdc.exceptions.UserNotAuthorizedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OMAGServerPlatformInstanceMapBenchmark measures the rate at which inbound requests can be routed to their
+ * service instance on a platform hosting many servers, each running several services.  The same routing call
+ * is measured with one thread, four threads and one thread per core so the scaling can be compared.
+ * Run it with "mvn -Djmh integration-test" from the multi-tenant module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OMAGServerPlatformInstanceMapBenchmark
+{
+    private static final String userId            = "benchmarkUser";
+    private static final String serverUserId      = "benchmarkServer";
+    private static final String operationName     = "benchmarkOperation";
+    private static final int    servicesPerServer = 5;
+
+    @Param({"1", "50"})
+    public int serverCount;
+
+    private final OMAGServerPlatformInstanceMap platformInstanceMap = new OMAGServerPlatformInstanceMap();
+
+    private String[] serverNames;
+    private String[] serviceNames;
+
+
+    /**
+     * BenchmarkServiceInstance is a service instance with no extra state.  It registers itself with the
+     * platform map when it is created.
+     */
+    private static class BenchmarkServiceInstance extends OMAGServerServiceInstance
+    {
+        /**
+         * Constructor.
+         *
+         * @param serverName name of the server
+         * @param serviceName name of the service
+         */
+        BenchmarkServiceInstance(String serverName,
+                                 String serviceName)
+        {
+            super(serverName, serviceName, 100);
+        }
+    }
+
+
+    /**
+     * Start the servers and register their services.
+     *
+     * @throws InvalidParameterException unable to start a server
+     */
+    @Setup
+    public void setUp() throws InvalidParameterException
+    {
+        serverNames = new String[serverCount];
+        serviceNames = new String[servicesPerServer];
+
+        for (int serviceNumber = 0; serviceNumber < servicesPerServer; serviceNumber++)
+        {
+            serviceNames[serviceNumber] = "BenchmarkService" + serviceNumber;
+        }
+
+        for (int serverNumber = 0; serverNumber < serverCount; serverNumber++)
+        {
+            serverNames[serverNumber] = "BenchmarkServer" + serverNumber;
+
+            platformInstanceMap.startUpServerInstance(serverUserId, serverNames[serverNumber], null, null);
+
+            for (String serviceName : serviceNames)
+            {
+                new BenchmarkServiceInstance(serverNames[serverNumber], serviceName);
+            }
+        }
+    }
+
+
+    /**
+     * Remove the services and shut down the servers.
+     *
+     * @throws InvalidParameterException server not known
+     * @throws PropertyServerException services still registered
+     */
+    @TearDown
+    public void tearDown() throws InvalidParameterException, PropertyServerException
+    {
+        for (String serverName : serverNames)
+        {
+            for (String serviceName : serviceNames)
+            {
+                platformInstanceMap.removeServiceInstanceFromPlatform(serverName, serviceName);
+            }
+
+            platformInstanceMap.shutdownServerInstance(serverUserId, serverName, operationName);
+        }
+    }
+
+
+    /**
+     * Route a request to a randomly chosen server and service.
+     *
+     * @return service instance
+     * @throws InvalidParameterException server not known
+     * @throws UserNotAuthorizedException user not authorized
+     * @throws PropertyServerException service not known
+     */
+    private OMAGServerServiceInstance routeRequest() throws InvalidParameterException,
+                                                            UserNotAuthorizedException,
+                                                            PropertyServerException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        return platformInstanceMap.getServiceInstance(userId,
+                                                      serverNames[random.nextInt(serverNames.length)],
+                                                      serviceNames[random.nextInt(serviceNames.length)],
+                                                      operationName);
+    }
+
+
+    /**
+     * Route requests from a single thread.
+     *
+     * @return service instance
+     * @throws Exception routing failed
+     */
+    @Benchmark
+    @Threads(1)
+    public OMAGServerServiceInstance routeOneThread() throws Exception
+    {
+        return routeRequest();
+    }
+
+
+    /**
+     * Route requests from four threads.
+     *
+     * @return service instance
+     * @throws Exception routing failed
+     */
+    @Benchmark
+    @Threads(4)
+    public OMAGServerServiceInstance routeFourThreads() throws Exception
+    {
+        return routeRequest();
+    }
+
+
+    /**
+     * Route requests from one thread per core.
+     *
+     * @return service instance
+     * @throws Exception routing failed
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public OMAGServerServiceInstance routeAllCores() throws Exception
+    {
+        return routeRequest();
+    }
+}
@@ -16,15 +16,24 @@ import java.util.*;
 /**
  * OMAGServerInstance represents an instance of a service in an OMAG Server.
  * It is also responsible for registering itself in the instance map.
+ *
+ * The map of registered services is never updated in place.  Registering or removing a service publishes a new,
+ * unmodifiable copy of the map, so the lookup made for every inbound request reads it without taking a lock.
  */
 class OMAGServerInstance
 {
-    private final String                             serverName;
-    private String                                   serverType;
-    private final List<OMAGServerInstanceHistory>    serverHistory      = new ArrayList<>();
-    private Map<String, OMAGServerServiceInstance>   serviceInstanceMap = new HashMap<>();
-    private Date                                     serverStartTime    = new Date();
-    private final OpenMetadataServerSecurityVerifier securityVerifier   = new OpenMetadataServerSecurityVerifier();
+    private final String                                     serverName;
+    private volatile String                                  serverType;
+    private final List<OMAGServerInstanceHistory>            serverHistory      = new ArrayList<>();
+    private volatile Map<String, OMAGServerServiceInstance>  serviceInstanceMap = Collections.emptyMap();
+    private volatile Date                                    serverStartTime    = new Date();
+    private final OpenMetadataServerSecurityVerifier         securityVerifier   = new OpenMetadataServerSecurityVerifier();
+
+    /*
+     * Written after the security connector is registered so that request threads that read it see the
+     * connector set up by the registration.
+     */
+    private volatile OpenMetadataServerSecurityVerifier      publishedSecurityVerifier = securityVerifier;
 
 
     /**
@@ -85,7 +94,7 @@ class OMAGServerInstance
      *
      * @return list of service names
      */
-    synchronized List<String> getConfiguredServices()
+    List<String> getConfiguredServices()
     {
         Set<String>  keySet = serviceInstanceMap.keySet();
 
@@ -105,7 +114,7 @@ class OMAGServerInstance
      *
      * @return start time
      */
-    synchronized Date getServerStartTime()
+    Date getServerStartTime()
     {
         return serverStartTime;
     }
@@ -172,6 +181,8 @@ class OMAGServerInstance
             throw new InvalidParameterException(error.getReportedErrorMessage(), error);
         }
 
+        this.publishedSecurityVerifier = securityVerifier;
+
         return this.securityVerifier;
     }
 
@@ -181,9 +192,9 @@ class OMAGServerInstance
      *
      * @return connector
      */
-    synchronized OpenMetadataServerSecurityVerifier  getSecurityVerifier()
+    OpenMetadataServerSecurityVerifier  getSecurityVerifier()
     {
-        return securityVerifier;
+        return publishedSecurityVerifier;
     }
 
 
@@ -198,8 +209,12 @@ class OMAGServerInstance
     {
         if (serviceInstance != null)
         {
-            serviceInstanceMap.put(serviceName, serviceInstance);
+            Map<String, OMAGServerServiceInstance> newServiceInstanceMap = new HashMap<>(serviceInstanceMap);
+
             serviceInstance.setSecurityVerifier(securityVerifier);
+            newServiceInstanceMap.put(serviceName, serviceInstance);
+
+            serviceInstanceMap = Collections.unmodifiableMap(newServiceInstanceMap);
         }
     }
 
@@ -215,11 +230,13 @@ class OMAGServerInstance
      * @throws UserNotAuthorizedException calling user not authorized to call the request
      * @throws PropertyServerException service is not running in this server
      */
-    synchronized OMAGServerServiceInstance getRegisteredService(String    userId,
-                                                                String    serviceName,
-                                                                String    serviceOperationName) throws UserNotAuthorizedException,
-                                                                                                       PropertyServerException
+    OMAGServerServiceInstance getRegisteredService(String    userId,
+                                                   String    serviceName,
+                                                   String    serviceOperationName) throws UserNotAuthorizedException,
+                                                                                          PropertyServerException
     {
+        OpenMetadataServerSecurityVerifier securityVerifier = publishedSecurityVerifier;
+
         try
         {
             securityVerifier.validateUserForService(userId, serviceName);
@@ -252,7 +269,14 @@ class OMAGServerInstance
      */
     synchronized  void unRegisterService(String   serviceName)
     {
-        serviceInstanceMap.remove(serviceName);
+        if (serviceInstanceMap.containsKey(serviceName))
+        {
+            Map<String, OMAGServerServiceInstance> newServiceInstanceMap = new HashMap<>(serviceInstanceMap);
+
+            newServiceInstanceMap.remove(serviceName);
+
+            serviceInstanceMap = Collections.unmodifiableMap(newServiceInstanceMap);
+        }
     }
 
 
@@ -269,9 +293,11 @@ class OMAGServerInstance
 
         if (!serviceInstanceMap.isEmpty())
         {
-            this.serviceInstanceMap = new HashMap<>();
+            Set<String> residualServices = serviceInstanceMap.keySet();
+
+            this.serviceInstanceMap = Collections.emptyMap();
             throw new PropertyServerException(OMAGServerInstanceErrorCode.SERVICES_NOT_SHUTDOWN.getMessageDefinition(serverName,
-                                                                                                                     serviceInstanceMap.keySet().toString()),
+                                                                                                                     residualServices.toString()),
                                               this.getClass().getName(),
                                               methodName);
         }
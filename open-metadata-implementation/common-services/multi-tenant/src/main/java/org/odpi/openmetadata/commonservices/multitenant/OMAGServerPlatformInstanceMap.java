@@ -20,18 +20,23 @@ import org.odpi.openmetadata.metadatasecurity.server.OpenMetadataServerSecurityV
 import org.odpi.openmetadata.platformservices.properties.OMAGServerInstanceHistory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OMAGServerPlatformInstanceMap provides part of the mapping for inbound REST requests to the appropriate
  * service instances for the requested server.  It manages the server name to server instance mapping.
  * The map is maintained in a static, so it is scoped to the class loader.
  *
- * Instances of this class call the synchronized static methods to work with the map.
+ * Instances of this class call the static methods to work with the map.  The maps are concurrent so the
+ * lookups made for every inbound request do not take a lock.  Only the methods that start, stop or
+ * register services with a server are synchronized.  A server that moves between the active and inactive
+ * maps is added to its new map before it is removed from the old one, so it is never missing from both.
+ * A lookup of both maps that misses is repeated holding the lock, since the reads of the two maps may straddle a move.
  */
 public class OMAGServerPlatformInstanceMap
 {
-    private static final Map<String, OMAGServerInstance> activeServerInstanceMap   = new HashMap<>();
-    private static final Map<String, OMAGServerInstance> inActiveServerInstanceMap = new HashMap<>();
+    private static final Map<String, OMAGServerInstance> activeServerInstanceMap   = new ConcurrentHashMap<>();
+    private static final Map<String, OMAGServerInstance> inActiveServerInstanceMap = new ConcurrentHashMap<>();
 
 
     /**
@@ -496,10 +501,10 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      * @throws InvalidParameterException the server name is not known
      */
-    private static synchronized String getServerInstanceType(String  userId,
-                                                             String  serverName,
-                                                             String  serviceOperationName) throws InvalidParameterException,
-                                                                                                  UserNotAuthorizedException
+    private static String getServerInstanceType(String  userId,
+                                                String  serverName,
+                                                String  serviceOperationName) throws InvalidParameterException,
+                                                                                     UserNotAuthorizedException
     {
         validateUserAsInvestigatorForPlatform(userId);
 
@@ -531,8 +536,8 @@ public class OMAGServerPlatformInstanceMap
      * @return boolean
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized boolean isServerInstanceActive(String  userId,
-                                                               String  serverName) throws UserNotAuthorizedException
+    private static boolean isServerInstanceActive(String  userId,
+                                                  String  serverName) throws UserNotAuthorizedException
     {
         validateUserAsInvestigatorForPlatform(userId);
 
@@ -551,13 +556,47 @@ public class OMAGServerPlatformInstanceMap
      * @return boolean
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized boolean isServerInstanceKnown(String  userId,
-                                                              String  serverName) throws UserNotAuthorizedException
+    private static boolean isServerInstanceKnown(String  userId,
+                                                 String  serverName) throws UserNotAuthorizedException
     {
         validateUserAsInvestigatorForPlatform(userId);
 
-        return ((activeServerInstanceMap.get(serverName) != null) ||
-                (inActiveServerInstanceMap.get(serverName) != null));
+        return (getKnownServerInstance(serverName) != null);
+    }
+
+
+    /**
+     * Return the instance for a server that is either active or inactive.  A server that is restarted is added to
+     * the active map before it is removed from the inactive map, but a reader may check the active map just before
+     * the server is added and the inactive map just after it is removed.  So a miss is checked again holding the
+     * lock that the moves are made under.  Misses are rare so this does not slow down the inbound requests.
+     *
+     * @param serverName name of the server
+     * @return server instance or null if the server is not known
+     */
+    private static OMAGServerInstance getKnownServerInstance(String serverName)
+    {
+        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+
+        if (serverInstance == null)
+        {
+            serverInstance = inActiveServerInstanceMap.get(serverName);
+        }
+
+        if (serverInstance == null)
+        {
+            synchronized (OMAGServerPlatformInstanceMap.class)
+            {
+                serverInstance = activeServerInstanceMap.get(serverName);
+
+                if (serverInstance == null)
+                {
+                    serverInstance = inActiveServerInstanceMap.get(serverName);
+                }
+            }
+        }
+
+        return serverInstance;
     }
 
 
@@ -574,12 +613,12 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      * @throws PropertyServerException the service name is not know - indicating a logic error
      */
-    private static synchronized OMAGServerServiceInstance getInstanceForPlatform(String  userId,
-                                                                                 String  serverName,
-                                                                                 String  serviceName,
-                                                                                 String  serviceOperationName) throws InvalidParameterException,
-                                                                                                                      UserNotAuthorizedException,
-                                                                                                                      PropertyServerException
+    private static OMAGServerServiceInstance getInstanceForPlatform(String  userId,
+                                                                    String  serverName,
+                                                                    String  serviceName,
+                                                                    String  serviceOperationName) throws InvalidParameterException,
+                                                                                                         UserNotAuthorizedException,
+                                                                                                         PropertyServerException
     {
         OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
 
@@ -619,7 +658,7 @@ public class OMAGServerPlatformInstanceMap
      * @return list of OMAG server names
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized List<String> getActiveServerListForPlatform(String userId) throws UserNotAuthorizedException
+    private static List<String> getActiveServerListForPlatform(String userId) throws UserNotAuthorizedException
     {
         try
         {
@@ -650,7 +689,7 @@ public class OMAGServerPlatformInstanceMap
      * @return list of OMAG server names
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized List<String> getKnownServerListForPlatform(String userId) throws UserNotAuthorizedException
+    private static List<String> getKnownServerListForPlatform(String userId) throws UserNotAuthorizedException
     {
         try
         {
@@ -661,8 +700,13 @@ public class OMAGServerPlatformInstanceMap
             throw new UserNotAuthorizedException(error);
         }
 
-        List<String> knownServerList = new ArrayList<>(activeServerInstanceMap.keySet());
-        knownServerList.addAll(inActiveServerInstanceMap.keySet());
+        /*
+         * A server that is moving between the maps may briefly appear in both.
+         */
+        Set<String> knownServerSet = new LinkedHashSet<>(activeServerInstanceMap.keySet());
+        knownServerSet.addAll(inActiveServerInstanceMap.keySet());
+
+        List<String> knownServerList = new ArrayList<>(knownServerSet);
 
         if (knownServerList.isEmpty())
         {
@@ -682,8 +726,8 @@ public class OMAGServerPlatformInstanceMap
      * @param serverInstance instance for the server
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized void validateUserAsServerInvestigator(String              userId,
-                                                                      OMAGServerInstance  serverInstance) throws UserNotAuthorizedException
+    private static void validateUserAsServerInvestigator(String              userId,
+                                                         OMAGServerInstance  serverInstance) throws UserNotAuthorizedException
     {
         if (serverInstance != null)
         {
@@ -711,18 +755,13 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException the serverName is not known.
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized  Date getServerStartTimeFromPlatform(String  userId,
-                                                                     String  serverName) throws InvalidParameterException,
-                                                                                                UserNotAuthorizedException
+    private static  Date getServerStartTimeFromPlatform(String  userId,
+                                                        String  serverName) throws InvalidParameterException,
+                                                                                   UserNotAuthorizedException
     {
         final String  methodName = "getServerStartTimeFromPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
-
-        if (serverInstance == null)
-        {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
-        }
+        OMAGServerInstance  serverInstance = getKnownServerInstance(serverName);
 
         if (serverInstance != null)
         {
@@ -748,18 +787,13 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException the serverName is not known.
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized  Date getServerEndTimeFromPlatform(String  userId,
-                                                                   String  serverName) throws InvalidParameterException,
-                                                                                              UserNotAuthorizedException
+    private static  Date getServerEndTimeFromPlatform(String  userId,
+                                                      String  serverName) throws InvalidParameterException,
+                                                                                 UserNotAuthorizedException
     {
         final String  methodName = "getServerEndTimeFromPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
-
-        if (serverInstance == null)
-        {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
-        }
+        OMAGServerInstance  serverInstance = getKnownServerInstance(serverName);
 
         if (serverInstance != null)
         {
@@ -785,18 +819,13 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException the serverName is not known.
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized  List<OMAGServerInstanceHistory> getServerHistoryFromPlatform(String  userId,
-                                                                                              String  serverName) throws InvalidParameterException,
-                                                                                                                         UserNotAuthorizedException
+    private static  List<OMAGServerInstanceHistory> getServerHistoryFromPlatform(String  userId,
+                                                                                 String  serverName) throws InvalidParameterException,
+                                                                                                            UserNotAuthorizedException
     {
         final String  methodName = "getServerHistoryFromPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
-
-        if (serverInstance == null)
-        {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
-        }
+        OMAGServerInstance  serverInstance = getKnownServerInstance(serverName);
 
         if (serverInstance != null)
         {
@@ -821,9 +850,9 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException the server name is not known
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized List<String>   getActiveServiceListForServerOnPlatform(String userId,
-                                                                                       String serverName) throws InvalidParameterException,
-                                                                                                                 UserNotAuthorizedException
+    private static List<String>   getActiveServiceListForServerOnPlatform(String userId,
+                                                                          String serverName) throws InvalidParameterException,
+                                                                                                    UserNotAuthorizedException
     {
         final String  methodName = "getActiveServiceListForServerOnPlatform";
 
@@ -837,7 +866,7 @@ public class OMAGServerPlatformInstanceMap
         }
         else /* server is not active */
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = getKnownServerInstance(serverName);
 
             if (serverInstance != null)
             {
@@ -919,8 +948,8 @@ public class OMAGServerPlatformInstanceMap
      * @return OpenMetadataServerSecurityVerifier object - never null
      * @throws InvalidParameterException the server name is not known
      */
-    private static synchronized OpenMetadataServerSecurityVerifier getServerSecurityVerifierForPlatform(String    userId,
-                                                                                                        String    serverName) throws InvalidParameterException
+    private static OpenMetadataServerSecurityVerifier getServerSecurityVerifierForPlatform(String    userId,
+                                                                                           String    serverName) throws InvalidParameterException
     {
         final String  methodName = "getServerSecurityVerifierForPlatform";
 
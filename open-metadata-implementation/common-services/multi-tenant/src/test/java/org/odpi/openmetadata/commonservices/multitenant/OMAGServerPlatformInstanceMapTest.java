@@ -0,0 +1,329 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.multitenant;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate that requests are routed to the right service instance while other threads start servers, register
+ * services and restart servers on the same platform.
+ */
+public class OMAGServerPlatformInstanceMapTest
+{
+    private static final String userId        = "testUser";
+    private static final String serverUserId  = "testServerUser";
+    private static final String operationName = "testOperation";
+    private static final String stableService = "StableService";
+
+    private final OMAGServerPlatformInstanceMap platformInstanceMap = new OMAGServerPlatformInstanceMap();
+
+    private ExecutorService                 executor;
+    private List<String>                    startedServers;
+    private List<OMAGServerServiceInstance> registeredServices;
+
+
+    /**
+     * Service instance with no extra state.  It registers itself with the platform map when it is created.
+     */
+    private static class TestServiceInstance extends OMAGServerServiceInstance
+    {
+        /**
+         * Constructor.
+         *
+         * @param serverName name of the server
+         * @param serviceName name of the service
+         */
+        TestServiceInstance(String serverName,
+                            String serviceName)
+        {
+            super(serverName, serviceName, 100);
+        }
+    }
+
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = Executors.newCachedThreadPool();
+        startedServers = new CopyOnWriteArrayList<>();
+        registeredServices = new CopyOnWriteArrayList<>();
+    }
+
+
+    /**
+     * The platform map is static so the servers are removed after each test.
+     *
+     * @throws Exception unable to shutdown a server
+     */
+    @AfterMethod
+    public void tearDown() throws Exception
+    {
+        executor.shutdownNow();
+
+        for (OMAGServerServiceInstance serviceInstance : registeredServices)
+        {
+            serviceInstance.shutdown();
+        }
+
+        for (String serverName : startedServers)
+        {
+            if (platformInstanceMap.isServerActive(userId, serverName))
+            {
+                platformInstanceMap.shutdownServerInstance(serverUserId, serverName, operationName);
+            }
+        }
+    }
+
+
+    /**
+     * Start a server.
+     *
+     * @param serverName name of the server
+     * @throws Exception unable to start the server
+     */
+    private void startServer(String serverName) throws Exception
+    {
+        platformInstanceMap.startUpServerInstance(serverUserId, serverName, null, null);
+        startedServers.add(serverName);
+    }
+
+
+    /**
+     * Create a service instance, which registers it with its server.
+     *
+     * @param serverName name of the server
+     * @param serviceName name of the service
+     * @return service instance
+     */
+    private OMAGServerServiceInstance registerService(String serverName,
+                                                      String serviceName)
+    {
+        OMAGServerServiceInstance serviceInstance = new TestServiceInstance(serverName, serviceName);
+
+        registeredServices.add(serviceInstance);
+
+        return serviceInstance;
+    }
+
+
+    /**
+     * Run the tasks at the same time and wait for them to complete.  Any error from a task fails the test.
+     *
+     * @param tasks tasks to run
+     * @throws Exception a task failed
+     */
+    private void runConcurrently(List<Callable<Void>> tasks) throws Exception
+    {
+        List<Future<Void>> results = new ArrayList<>();
+
+        for (Callable<Void> task : tasks)
+        {
+            results.add(executor.submit(task));
+        }
+
+        for (Future<Void> result : results)
+        {
+            result.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+
+    @Test
+    public void testConcurrentRegisterAndRoute() throws Exception
+    {
+        final int serverCount          = 4;
+        final int routerCount          = 4;
+        final int registrarCount       = 2;
+        final int servicesPerRegistrar = 200;
+
+        Map<String, OMAGServerServiceInstance> stableInstances = new ConcurrentHashMap<>();
+        List<String>                           serverNames     = new ArrayList<>();
+        List<OMAGServerServiceInstance>        newInstances    = new CopyOnWriteArrayList<>();
+        AtomicBoolean                          registering     = new AtomicBoolean(true);
+        List<Callable<Void>>                   registrars      = new ArrayList<>();
+        List<Callable<Void>>                   routers         = new ArrayList<>();
+
+        for (int serverNumber = 0; serverNumber < serverCount; serverNumber++)
+        {
+            String serverName = "ConcurrentRoutingServer" + serverNumber;
+
+            startServer(serverName);
+            serverNames.add(serverName);
+            stableInstances.put(serverName, registerService(serverName, stableService));
+        }
+
+        for (int registrarNumber = 0; registrarNumber < registrarCount; registrarNumber++)
+        {
+            final String servicePrefix = "Service" + registrarNumber + "-";
+
+            registrars.add(() ->
+                           {
+                               for (int serviceNumber = 0; serviceNumber < servicesPerRegistrar; serviceNumber++)
+                               {
+                                   String                    serverName      = serverNames.get(serviceNumber % serverCount);
+                                   OMAGServerServiceInstance serviceInstance = registerService(serverName, servicePrefix + serviceNumber);
+
+                                   newInstances.add(serviceInstance);
+
+                                   assertSame(platformInstanceMap.getServiceInstance(userId,
+                                                                                     serverName,
+                                                                                     servicePrefix + serviceNumber,
+                                                                                     operationName),
+                                              serviceInstance);
+                               }
+
+                               return null;
+                           });
+        }
+
+        for (int routerNumber = 0; routerNumber < routerCount; routerNumber++)
+        {
+            routers.add(() ->
+                        {
+                            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                            while (registering.get())
+                            {
+                                /*
+                                 * The services registered before the registrars started are always found.
+                                 */
+                                String serverName = serverNames.get(random.nextInt(serverCount));
+
+                                assertSame(platformInstanceMap.getServiceInstance(userId, serverName, stableService, operationName),
+                                           stableInstances.get(serverName));
+
+                                /*
+                                 * A service registered by another thread is found by this one.
+                                 */
+                                if (! newInstances.isEmpty())
+                                {
+                                    OMAGServerServiceInstance serviceInstance = newInstances.get(random.nextInt(newInstances.size()));
+
+                                    assertSame(platformInstanceMap.getServiceInstance(userId,
+                                                                                      serviceInstance.getServerName(),
+                                                                                      serviceInstance.getServiceName(),
+                                                                                      operationName),
+                                               serviceInstance);
+                                }
+                            }
+
+                            return null;
+                        });
+        }
+
+        List<Future<Void>> routerResults = new ArrayList<>();
+
+        for (Callable<Void> router : routers)
+        {
+            routerResults.add(executor.submit(router));
+        }
+
+        try
+        {
+            runConcurrently(registrars);
+        }
+        finally
+        {
+            registering.set(false);
+        }
+
+        for (Future<Void> routerResult : routerResults)
+        {
+            routerResult.get(60, TimeUnit.SECONDS);
+        }
+
+        assertEquals(newInstances.size(), registrarCount * servicesPerRegistrar);
+
+        for (String serverName : serverNames)
+        {
+            assertEquals(platformInstanceMap.getActiveServiceListForServer(userId, serverName).size(),
+                         1 + (registrarCount * servicesPerRegistrar / serverCount));
+        }
+    }
+
+
+    @Test
+    public void testRestartedServerIsAlwaysKnown() throws Exception
+    {
+        final String restartingServer = "RestartingServer";
+        final String runningServer    = "RunningServer";
+        final int    restartCount     = 500;
+
+        AtomicBoolean        restarting = new AtomicBoolean(true);
+        List<Callable<Void>> readers    = new ArrayList<>();
+
+        startServer(restartingServer);
+        startServer(runningServer);
+
+        OMAGServerServiceInstance runningInstance = registerService(runningServer, stableService);
+
+        for (int readerNumber = 0; readerNumber < 4; readerNumber++)
+        {
+            readers.add(() ->
+                        {
+                            while (restarting.get())
+                            {
+                                /*
+                                 * The restarting server moves between the active and inactive maps.  It is never
+                                 * reported as unknown, and requests to the other server are not affected.
+                                 */
+                                assertTrue(platformInstanceMap.isServerKnown(userId, restartingServer));
+                                assertTrue(platformInstanceMap.getKnownServerList(userId).contains(restartingServer));
+                                platformInstanceMap.getServerStartTime(userId, restartingServer);
+
+                                assertSame(platformInstanceMap.getServiceInstance(userId, runningServer, stableService, operationName),
+                                           runningInstance);
+                            }
+
+                            return null;
+                        });
+        }
+
+        List<Future<Void>> readerResults = new ArrayList<>();
+
+        for (Callable<Void> reader : readers)
+        {
+            readerResults.add(executor.submit(reader));
+        }
+
+        try
+        {
+            for (int restartNumber = 0; restartNumber < restartCount; restartNumber++)
+            {
+                platformInstanceMap.shutdownServerInstance(serverUserId, restartingServer, operationName);
+                platformInstanceMap.startUpServerInstance(serverUserId, restartingServer, null, null);
+            }
+        }
+        finally
+        {
+            restarting.set(false);
+        }
+
+        for (Future<Void> readerResult : readerResults)
+        {
+            readerResult.get(60, TimeUnit.SECONDS);
+        }
+
+        assertTrue(platformInstanceMap.isServerActive(userId, restartingServer));
+        assertEquals(platformInstanceMap.getServerHistory(userId, restartingServer).size(), restartCount);
+    }
+}
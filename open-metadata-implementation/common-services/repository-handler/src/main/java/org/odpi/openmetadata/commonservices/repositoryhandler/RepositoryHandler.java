@@ -3071,6 +3071,110 @@ public class RepositoryHandler
     }
 
 
+    /**
+     * Return the requested entities with a single call to the repository services.  Entities that are not known,
+     * are of the wrong type or are not appropriate for the caller (for example, they are not effective at the
+     * effective time) are left out of the result.  If the list request fails for any reason, each entity is
+     * retrieved in turn and the entities that can not be retrieved are left out of the result.
+     *
+     * @param userId calling user
+     * @param guids unique identifiers for the entities
+     * @param guidParameterName name of the guid parameter for error handling
+     * @param entityTypeName expected type of the entities
+     * @param forLineage the request is to support lineage retrieval this means entities with the Memento classification can be returned
+     * @param forDuplicateProcessing       the request is for duplicate processing and so must not deduplicate
+     * @param effectiveTime          the time that the retrieved elements must be effective for (null for any time, new Date() for now)
+     * @param methodName calling method name
+     *
+     * @return map of unique identifier to entity for the entities that were retrieved
+     */
+    public Map<String, EntityDetail> getEntitiesByGUIDs(String       userId,
+                                                        List<String> guids,
+                                                        String       guidParameterName,
+                                                        String       entityTypeName,
+                                                        boolean      forLineage,
+                                                        boolean      forDuplicateProcessing,
+                                                        Date         effectiveTime,
+                                                        String       methodName)
+    {
+        final String localMethodName = "getEntitiesByGUIDs";
+
+        Map<String, EntityDetail> results = new HashMap<>();
+
+        if ((guids == null) || (guids.isEmpty()))
+        {
+            return results;
+        }
+
+        List<EntityDetail> retrievedEntities;
+
+        try
+        {
+            retrievedEntities = metadataCollection.getEntitiesDetail(userId, guids);
+        }
+        catch (Exception error)
+        {
+            /*
+             * The repository does not support the list request, or one of the entities caused the whole
+             * request to fail.  The entities are retrieved one at a time so that only the entities that can
+             * not be retrieved are left out.
+             */
+            log.debug("List request " + localMethodName + " failed, retrieving each entity: " + error.getMessage());
+
+            for (String guid : guids)
+            {
+                try
+                {
+                    results.put(guid, this.getEntityByGUID(userId,
+                                                           guid,
+                                                           guidParameterName,
+                                                           entityTypeName,
+                                                           forLineage,
+                                                           forDuplicateProcessing,
+                                                           effectiveTime,
+                                                           methodName));
+                }
+                catch (InvalidParameterException | UserNotAuthorizedException | PropertyServerException notAvailable)
+                {
+                    log.debug("Skipping entity " + guid + ": " + notAvailable.getMessage());
+                }
+            }
+
+            return results;
+        }
+
+        if (retrievedEntities != null)
+        {
+            for (EntityDetail entity : retrievedEntities)
+            {
+                try
+                {
+                    errorHandler.validateInstanceType(entity, entityTypeName, methodName, localMethodName);
+
+                    EntityDetail verifiedEntity = this.validateRetrievedEntity(userId,
+                                                                               entity,
+                                                                               entityTypeName,
+                                                                               forLineage,
+                                                                               forDuplicateProcessing,
+                                                                               effectiveTime,
+                                                                               methodName);
+
+                    if (verifiedEntity != null)
+                    {
+                        results.put(entity.getGUID(), verifiedEntity);
+                    }
+                }
+                catch (InvalidParameterException | UserNotAuthorizedException | PropertyServerException notAvailable)
+                {
+                    log.debug("Skipping entity " + entity.getGUID() + ": " + notAvailable.getMessage());
+                }
+            }
+        }
+
+        return results;
+    }
+
+
     /**
      * Test whether an entity is of a particular type or not.
      *
@@ -16,6 +16,7 @@ import org.odpi.openmetadata.frameworks.governanceaction.properties.RequestSourc
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceEngineHandler;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceCache;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceHandler;
+import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceScheduler;
 
 import java.util.*;
 
@@ -95,7 +96,7 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
 
         if (discoveryServiceCache != null)
         {
-            return runDiscoveryService(assetGUID, discoveryRequestType, analysisParameters, methodName, annotationTypes, discoveryServiceCache);
+            return runDiscoveryService(assetGUID, discoveryRequestType, analysisParameters, methodName, annotationTypes, discoveryServiceCache, GovernanceServiceScheduler.requestPriority);
         }
 
         return null;
@@ -147,7 +148,8 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                                                 analysisParameters,
                                                 methodName + ": " + assetGUID,
                                                 annotationTypes,
-                                                discoveryServiceCache);
+                                                discoveryServiceCache,
+                                                GovernanceServiceScheduler.governanceActionPriority);
                         }
                     }
 
@@ -229,8 +231,10 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                                                                                               governanceActionGUID,
                                                                                               governanceServiceCache);
 
-            Thread thread = new Thread(discoveryServiceHandler, governanceServiceCache.getGovernanceServiceName() + assetGUID + new Date());
-            thread.start();
+            super.startGovernanceService(discoveryServiceHandler,
+                                         governanceRequestType,
+                                         GovernanceServiceScheduler.governanceActionPriority,
+                                         governanceServiceCache.getGovernanceServiceName() + assetGUID + new Date());
 
             return discoveryServiceHandler;
         }
@@ -247,6 +251,7 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
      * @param suppliedAnalysisParameters parameters for the discovery
      * @param annotationTypes types of annotations that can be returned
      * @param governanceServiceCache factory for discovery services.
+     * @param priority priority of the request - see GovernanceServiceScheduler
      *
      * @return unique identifier for this request.
      *
@@ -259,9 +264,10 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                                        Map<String, String>    suppliedAnalysisParameters,
                                        String                 firstAnalysisStep,
                                        List<String>           annotationTypes,
-                                       GovernanceServiceCache governanceServiceCache) throws InvalidParameterException,
-                                                                                             UserNotAuthorizedException,
-                                                                                             PropertyServerException
+                                       GovernanceServiceCache governanceServiceCache,
+                                       int                    priority) throws InvalidParameterException,
+                                                                               UserNotAuthorizedException,
+                                                                               PropertyServerException
     {
         DiscoveryServiceHandler discoveryServiceHandler = this.getDiscoveryServiceHandler(assetGUID,
                                                                                           discoveryRequestType,
@@ -271,8 +277,10 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                                                                                           null,
                                                                                           governanceServiceCache);
 
-        Thread thread = new Thread(discoveryServiceHandler, governanceServiceCache.getGovernanceServiceName() + assetGUID + new Date());
-        thread.start();
+        super.startGovernanceService(discoveryServiceHandler,
+                                     discoveryRequestType,
+                                     priority,
+                                     governanceServiceCache.getGovernanceServiceName() + assetGUID + new Date());
 
         return discoveryServiceHandler.getDiscoveryReportGUID();
     }
@@ -14,6 +14,7 @@ import org.odpi.openmetadata.frameworks.governanceaction.properties.RequestSourc
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceEngineHandler;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceCache;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceHandler;
+import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceScheduler;
 
 import java.util.*;
 
@@ -145,8 +146,10 @@ public class GovernanceActionEngineHandler extends GovernanceEngineHandler
                                                                                                                governanceListenerManager,
                                                                                                                auditLog);
 
-            Thread thread = new Thread(governanceActionServiceHandler, governanceServiceCache.getGovernanceServiceName() + governanceActionGUID + new Date());
-            thread.start();
+            super.startGovernanceService(governanceActionServiceHandler,
+                                         governanceRequestType,
+                                         GovernanceServiceScheduler.governanceActionPriority,
+                                         governanceServiceCache.getGovernanceServiceName() + governanceActionGUID + new Date());
 
             return governanceActionServiceHandler;
         }
@@ -13,6 +13,7 @@ import org.odpi.openmetadata.frameworks.governanceaction.properties.RequestSourc
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceEngineHandler;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceCache;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceHandler;
+import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceScheduler;
 import org.odpi.openmetadata.repositoryservices.clients.EnterpriseRepositoryServicesClient;
 
 import java.util.*;
@@ -102,8 +103,10 @@ public class RepositoryGovernanceEngineHandler extends GovernanceEngineHandler
                                                                                                                                governanceActionGUID,
                                                                                                                                governanceServiceCache);
 
-            Thread thread = new Thread(repositoryGovernanceServiceHandler, governanceServiceCache.getGovernanceServiceName() + new Date());
-            thread.start();
+            super.startGovernanceService(repositoryGovernanceServiceHandler,
+                                         governanceRequestType,
+                                         GovernanceServiceScheduler.governanceActionPriority,
+                                         governanceServiceCache.getGovernanceServiceName() + new Date());
 
             return repositoryGovernanceServiceHandler;
         }
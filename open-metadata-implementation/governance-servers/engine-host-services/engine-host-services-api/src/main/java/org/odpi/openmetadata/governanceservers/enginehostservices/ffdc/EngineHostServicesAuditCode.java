@@ -311,6 +311,21 @@ public enum EngineHostServicesAuditCode implements AuditLogMessageSet
                              "Review the error messages and resolve the cause of the problem.  Once resolved, it is possible to " +
                                      "retry the governance action by updating its status back to REQUESTED status."),
 
+    GOVERNANCE_ACTION_REJECTED("ENGINE-HOST-SERVICES-0035",
+                               OMRSAuditLogRecordSeverity.ERROR,
+                               "Governance engine {0} in server {1} did not claim governance action {2} because {3} governance service requests are already waiting to run",
+                               "The governance action is left in APPROVED status so that it can be run later or by another engine host server.",
+                               "Check the number of active and queued governance services reported in the governance engine summary.  If the " +
+                                       "governance engine is regularly overloaded, increase the maxActiveServicesPerEngine or maxQueuedServicesPerEngine " +
+                                       "properties in the engine host services configuration, or spread the work over more engine host servers."),
+
+    GOVERNANCE_ACTION_NOT_RUN("ENGINE-HOST-SERVICES-0036",
+                              OMRSAuditLogRecordSeverity.ERROR,
+                              "Governance action {0} for governance service {1} in governance engine {2} with request type {3} was not run because the engine host server is shutting down",
+                              "The governance action was waiting to run when the engine host server shut down.  It has been marked as FAILED.",
+                              "Once the engine host server is restarted, it is possible to retry the governance action by updating its " +
+                                      "status back to REQUESTED status."),
+
     NO_OMAS_SERVER_URL("ENGINE-HOST-SERVICES-0150",
                        OMRSAuditLogRecordSeverity.ERROR,
                        "{0} in server {1} is not configured with the platform URL root for the {2}",
@@ -264,6 +264,13 @@ public enum EngineHostServicesErrorCode implements ExceptionMessageSet
                        "the server to fail too.",
                "Add the qualified name for at least one engine to the engine service in this server's configuration document " +
                        "and then restart the server."),
+
+    GOVERNANCE_SERVICE_QUEUE_FULL(503, "ENGINE-HOST-SERVICES-503-001",
+                                  "Governance engine {0} in server {1} is unable to accept a request for governance request type {2} because {3} requests are already waiting to run",
+                                  "The request is rejected.  The governance engine is already running as many governance services as it is allowed and its queue of waiting requests is full.",
+                                  "Retry the request once the governance engine has worked through its queue.  If the governance engine is regularly " +
+                                          "overloaded, increase the maxActiveServicesPerEngine or maxQueuedServicesPerEngine properties in the engine host " +
+                                          "services configuration, or spread the work over more engine host servers."),
  ;
 
 
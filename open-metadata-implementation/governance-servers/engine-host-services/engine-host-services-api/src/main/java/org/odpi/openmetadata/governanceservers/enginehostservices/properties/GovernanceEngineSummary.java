@@ -31,6 +31,13 @@ public class GovernanceEngineSummary implements Serializable
     private String                 governanceEngineDescription = null;
     private GovernanceEngineStatus governanceEngineStatus      = null;
     private List<String>           governanceRequestTypes      = null;
+    private int                    activeServiceCount          = 0;
+    private int                    queuedServiceCount          = 0;
+    private long                   completedServiceCount       = 0;
+    private long                   rejectedServiceCount        = 0;
+    private long                   averageServiceQueueTime     = 0;
+    private long                   averageServiceRunTime       = 0;
+    private long                   maximumServiceRunTime       = 0;
 
 
     /**
@@ -57,6 +64,13 @@ public class GovernanceEngineSummary implements Serializable
             governanceEngineDescription = template.getGovernanceEngineDescription();
             governanceEngineStatus = template.getGovernanceEngineStatus();
             governanceRequestTypes = template.getGovernanceRequestTypes();
+            activeServiceCount = template.getActiveServiceCount();
+            queuedServiceCount = template.getQueuedServiceCount();
+            completedServiceCount = template.getCompletedServiceCount();
+            rejectedServiceCount = template.getRejectedServiceCount();
+            averageServiceQueueTime = template.getAverageServiceQueueTime();
+            averageServiceRunTime = template.getAverageServiceRunTime();
+            maximumServiceRunTime = template.getMaximumServiceRunTime();
         }
     }
 
@@ -224,6 +238,160 @@ public class GovernanceEngineSummary implements Serializable
     }
 
 
+    /**
+     * Return the number of governance services currently running for this governance engine.
+     *
+     * @return count
+     */
+    public int getActiveServiceCount()
+    {
+        return activeServiceCount;
+    }
+
+
+    /**
+     * Set up the number of governance services currently running for this governance engine.
+     *
+     * @param activeServiceCount count
+     */
+    public void setActiveServiceCount(int activeServiceCount)
+    {
+        this.activeServiceCount = activeServiceCount;
+    }
+
+
+    /**
+     * Return the number of governance service requests waiting to run for this governance engine.
+     *
+     * @return count
+     */
+    public int getQueuedServiceCount()
+    {
+        return queuedServiceCount;
+    }
+
+
+    /**
+     * Set up the number of governance service requests waiting to run for this governance engine.
+     *
+     * @param queuedServiceCount count
+     */
+    public void setQueuedServiceCount(int queuedServiceCount)
+    {
+        this.queuedServiceCount = queuedServiceCount;
+    }
+
+
+    /**
+     * Return the number of governance services that have finished running for this governance engine since the server started.
+     *
+     * @return count
+     */
+    public long getCompletedServiceCount()
+    {
+        return completedServiceCount;
+    }
+
+
+    /**
+     * Set up the number of governance services that have finished running for this governance engine since the server started.
+     *
+     * @param completedServiceCount count
+     */
+    public void setCompletedServiceCount(long completedServiceCount)
+    {
+        this.completedServiceCount = completedServiceCount;
+    }
+
+
+    /**
+     * Return the number of governance service requests rejected because the queue for this governance engine was full.
+     *
+     * @return count
+     */
+    public long getRejectedServiceCount()
+    {
+        return rejectedServiceCount;
+    }
+
+
+    /**
+     * Set up the number of governance service requests rejected because the queue for this governance engine was full.
+     *
+     * @param rejectedServiceCount count
+     */
+    public void setRejectedServiceCount(long rejectedServiceCount)
+    {
+        this.rejectedServiceCount = rejectedServiceCount;
+    }
+
+
+    /**
+     * Return the average time in milliseconds that governance service requests waited before they started to run.
+     *
+     * @return milliseconds
+     */
+    public long getAverageServiceQueueTime()
+    {
+        return averageServiceQueueTime;
+    }
+
+
+    /**
+     * Set up the average time in milliseconds that governance service requests waited before they started to run.
+     *
+     * @param averageServiceQueueTime milliseconds
+     */
+    public void setAverageServiceQueueTime(long averageServiceQueueTime)
+    {
+        this.averageServiceQueueTime = averageServiceQueueTime;
+    }
+
+
+    /**
+     * Return the average time in milliseconds taken by the governance services that have finished running.
+     *
+     * @return milliseconds
+     */
+    public long getAverageServiceRunTime()
+    {
+        return averageServiceRunTime;
+    }
+
+
+    /**
+     * Set up the average time in milliseconds taken by the governance services that have finished running.
+     *
+     * @param averageServiceRunTime milliseconds
+     */
+    public void setAverageServiceRunTime(long averageServiceRunTime)
+    {
+        this.averageServiceRunTime = averageServiceRunTime;
+    }
+
+
+    /**
+     * Return the longest time in milliseconds taken by a governance service that has finished running.
+     *
+     * @return milliseconds
+     */
+    public long getMaximumServiceRunTime()
+    {
+        return maximumServiceRunTime;
+    }
+
+
+    /**
+     * Set up the longest time in milliseconds taken by a governance service that has finished running.
+     *
+     * @param maximumServiceRunTime milliseconds
+     */
+    public void setMaximumServiceRunTime(long maximumServiceRunTime)
+    {
+        this.maximumServiceRunTime = maximumServiceRunTime;
+    }
+
+
     /**
      * JSON-style toString
      *
@@ -240,6 +408,13 @@ public class GovernanceEngineSummary implements Serializable
                        ", governanceEngineDescription='" + governanceEngineDescription + '\'' +
                        ", governanceEngineStatus=" + governanceEngineStatus +
                        ", governanceRequestTypes=" + governanceRequestTypes +
+                       ", activeServiceCount=" + activeServiceCount +
+                       ", queuedServiceCount=" + queuedServiceCount +
+                       ", completedServiceCount=" + completedServiceCount +
+                       ", rejectedServiceCount=" + rejectedServiceCount +
+                       ", averageServiceQueueTime=" + averageServiceQueueTime +
+                       ", averageServiceRunTime=" + averageServiceRunTime +
+                       ", maximumServiceRunTime=" + maximumServiceRunTime +
                        '}';
     }
 
@@ -268,7 +443,14 @@ public class GovernanceEngineSummary implements Serializable
                        Objects.equals(governanceEngineGUID, that.governanceEngineGUID) &&
                 Objects.equals(governanceEngineDescription, that.governanceEngineDescription) &&
                 governanceEngineStatus == that.governanceEngineStatus &&
-                Objects.equals(governanceRequestTypes, that.governanceRequestTypes);
+                Objects.equals(governanceRequestTypes, that.governanceRequestTypes) &&
+                activeServiceCount == that.activeServiceCount &&
+                queuedServiceCount == that.queuedServiceCount &&
+                completedServiceCount == that.completedServiceCount &&
+                rejectedServiceCount == that.rejectedServiceCount &&
+                averageServiceQueueTime == that.averageServiceQueueTime &&
+                averageServiceRunTime == that.averageServiceRunTime &&
+                maximumServiceRunTime == that.maximumServiceRunTime;
     }
 
 
@@ -281,6 +463,8 @@ public class GovernanceEngineSummary implements Serializable
    public int hashCode()
    {
        return Objects.hash(governanceEngineName, governanceEngineTypeName, governanceEngineService,
-                           governanceEngineGUID, governanceEngineDescription, governanceEngineStatus, governanceRequestTypes);
+                           governanceEngineGUID, governanceEngineDescription, governanceEngineStatus, governanceRequestTypes,
+                           activeServiceCount, queuedServiceCount, completedServiceCount, rejectedServiceCount,
+                           averageServiceQueueTime, averageServiceRunTime, maximumServiceRunTime);
    }
 }
@@ -52,6 +52,8 @@ public abstract class GovernanceEngineHandler
 
     private final GovernanceServiceCacheMap  governanceServiceLookupTable = new GovernanceServiceCacheMap();
 
+    private volatile GovernanceServiceScheduler serviceScheduler = null;
+
 
     /**
      * Create a client-side object for calling a governance engine.
@@ -101,6 +103,18 @@ public abstract class GovernanceEngineHandler
     }
 
 
+    /**
+     * Set up the scheduler that runs the governance services for all the governance engines in this server.
+     * If no scheduler is set, each governance service runs in its own new thread.
+     *
+     * @param serviceScheduler shared scheduler
+     */
+    public void setServiceScheduler(GovernanceServiceScheduler serviceScheduler)
+    {
+        this.serviceScheduler = serviceScheduler;
+    }
+
+
     /**
      * Return a summary of the governance engine
      *
@@ -133,6 +147,11 @@ public abstract class GovernanceEngineHandler
             mySummary.setGovernanceEngineStatus(GovernanceEngineStatus.RUNNING);
         }
 
+        if (serviceScheduler != null)
+        {
+            serviceScheduler.setSummaryMetrics(governanceEngineName, mySummary);
+        }
+
         return mySummary;
     }
 
@@ -450,17 +469,58 @@ public abstract class GovernanceEngineHandler
 
             if (latestGovernanceActionElement.getActionStatus() == GovernanceActionStatus.APPROVED)
             {
-                serverClient.claimGovernanceAction(serverUserId, governanceActionGUID);
-
-
-                serverClient.updateGovernanceActionStatus(serverUserId, governanceActionGUID, GovernanceActionStatus.IN_PROGRESS);
+                GovernanceServiceScheduler scheduler = serviceScheduler;
+
+                /*
+                 * The governance action is left approved if this governance engine is too busy to queue it.
+                 * This means it can be picked up later, or by another engine host server.  Otherwise, a place is
+                 * reserved in the queue before the governance action is claimed so its governance service can not be
+                 * rejected for lack of space once it is claimed.
+                 */
+                if ((scheduler != null) && (! scheduler.reserve(governanceEngineName, governanceActionGUID)))
+                {
+                    auditLog.logMessage(methodName,
+                                        EngineHostServicesAuditCode.GOVERNANCE_ACTION_REJECTED.getMessageDefinition(governanceEngineName,
+                                                                                                                    serverName,
+                                                                                                                    governanceActionGUID,
+                                                                                                                    Integer.toString(scheduler.getQueuedServiceCount(governanceEngineName))));
+                    return;
+                }
 
-                runGovernanceService(governanceActionGUID,
-                                     latestGovernanceActionElement.getRequestType(),
-                                     latestGovernanceActionElement.getStartTime(),
-                                     latestGovernanceActionElement.getRequestParameters(),
-                                     latestGovernanceActionElement.getRequestSourceElements(),
-                                     latestGovernanceActionElement.getActionTargetElements());
+                try
+                {
+                    serverClient.claimGovernanceAction(serverUserId, governanceActionGUID);
+
+
+                    serverClient.updateGovernanceActionStatus(serverUserId, governanceActionGUID, GovernanceActionStatus.IN_PROGRESS);
+
+                    try
+                    {
+                        runGovernanceService(governanceActionGUID,
+                                             latestGovernanceActionElement.getRequestType(),
+                                             latestGovernanceActionElement.getStartTime(),
+                                             latestGovernanceActionElement.getRequestParameters(),
+                                             latestGovernanceActionElement.getRequestSourceElements(),
+                                             latestGovernanceActionElement.getActionTargetElements());
+                    }
+                    catch (Exception notStarted)
+                    {
+                        /*
+                         * The governance service did not start, so the claimed governance action must not be left
+                         * in progress.
+                         */
+                        serverClient.updateGovernanceActionStatus(serverUserId, governanceActionGUID, GovernanceActionStatus.FAILED);
+
+                        throw notStarted;
+                    }
+                }
+                finally
+                {
+                    if (scheduler != null)
+                    {
+                        scheduler.releaseReservation(governanceEngineName, governanceActionGUID);
+                    }
+                }
             }
         }
         catch (Exception error)
@@ -501,6 +561,36 @@ public abstract class GovernanceEngineHandler
                                                                                                                           PropertyServerException;
 
 
+    /**
+     * Start a governance service.  If the engine host server has a scheduler, the governance service is queued
+     * to run on one of its worker threads.  Otherwise, it runs in a new thread.
+     *
+     * @param serviceHandler handler for the governance service
+     * @param governanceRequestType governance request type that selected the governance service
+     * @param priority priority of the request - see GovernanceServiceScheduler
+     * @param threadName name of the thread while the governance service is running
+     * @throws PropertyServerException the governance engine is too busy to accept the request
+     */
+    protected void startGovernanceService(GovernanceServiceHandler serviceHandler,
+                                          String                   governanceRequestType,
+                                          int                      priority,
+                                          String                   threadName) throws PropertyServerException
+    {
+        GovernanceServiceScheduler scheduler = serviceScheduler;
+
+        if (scheduler == null)
+        {
+            Thread thread = new Thread(serviceHandler, threadName);
+
+            thread.start();
+        }
+        else
+        {
+            scheduler.submit(governanceEngineName, governanceRequestType, serviceHandler, threadName, priority);
+        }
+    }
+
+
     /**
      * Pass on the watchdog event to any governance service that supports them.
      *
@@ -254,6 +254,36 @@ public abstract class GovernanceServiceHandler implements Runnable
     }
 
 
+    /**
+     * Record that the governance service did not run because the engine host server shutdown before it started.
+     * The governance action that requested the governance service is set to FAILED so that it is not left
+     * IN_PROGRESS.
+     *
+     * @throws InvalidParameterException the governance action is not recognized
+     * @throws UserNotAuthorizedException the engine host server is not authorized to update the governance action
+     * @throws PropertyServerException there is a problem connecting to the metadata store
+     */
+    public void recordNotRun() throws InvalidParameterException,
+                                      UserNotAuthorizedException,
+                                      PropertyServerException
+    {
+        final String methodName = "recordNotRun";
+
+        if (governanceActionGUID != null)
+        {
+            if (auditLog != null)
+            {
+                auditLog.logMessage(methodName, EngineHostServicesAuditCode.GOVERNANCE_ACTION_NOT_RUN.getMessageDefinition(governanceActionGUID,
+                                                                                                                          governanceServiceName,
+                                                                                                                          getGovernanceEngineName(),
+                                                                                                                          serviceRequestType));
+            }
+
+            governanceActionClient.updateGovernanceActionStatus(engineHostUserId, governanceActionGUID, GovernanceActionStatus.FAILED);
+        }
+    }
+
+
     /**
      * Disconnect the governance action service.  Called because the governance action service had set a completion status or
      * the server is shutting down.
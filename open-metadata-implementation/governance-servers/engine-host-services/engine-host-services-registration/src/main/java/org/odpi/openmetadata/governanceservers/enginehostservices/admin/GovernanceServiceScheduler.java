@@ -0,0 +1,546 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.enginehostservices.admin;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.governanceservers.enginehostservices.ffdc.EngineHostServicesAuditCode;
+import org.odpi.openmetadata.governanceservers.enginehostservices.ffdc.EngineHostServicesErrorCode;
+import org.odpi.openmetadata.governanceservers.enginehostservices.properties.GovernanceEngineSummary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * GovernanceServiceScheduler runs the governance services for all the governance engines in an engine host server
+ * on a bounded set of worker threads.  Each governance engine has its own queue of waiting requests and a limit on
+ * the number of its governance services that run at the same time, so one busy governance engine can not take all
+ * the workers.  A request is rejected when its governance engine's queue is full.  A governance action reserves
+ * a place in the queue before it is claimed so that, once claimed, its governance service is not rejected.
+ * <p>
+ * When a worker is free, it takes the highest priority request that is allowed to run.  Governance engines with
+ * requests of equal priority take turns.  Within a governance engine, requests of equal priority run in the order
+ * they were submitted.
+ * <p>
+ * Worker threads are started as they are needed, up to the maximum, and stop when the scheduler is shutdown.
+ * The governance actions of the requests still waiting at shutdown are set to FAILED.
+ */
+public class GovernanceServiceScheduler
+{
+    /**
+     * Priority of a request made directly by a caller, such as a request to analyse an asset.
+     */
+    public static final int requestPriority          = 10;
+
+    /**
+     * Priority of a request to run a governance action.
+     */
+    public static final int governanceActionPriority = 5;
+
+    public static final int defaultMaxActiveServicesPerEngine = 10;
+    public static final int defaultMaxQueuedServicesPerEngine = 1000;
+
+    private final String   serverName;
+    private final AuditLog auditLog;
+    private final int      maxWorkerThreads;
+    private final int      maxActiveServicesPerEngine;
+    private final int      maxQueuedServicesPerEngine;
+
+    private final ReentrantLock            lock          = new ReentrantLock();
+    private final Condition                workAvailable = lock.newCondition();
+    private final Map<String, EngineQueue> engineQueues  = new HashMap<>();
+    private final List<EngineQueue>        engineOrder   = new ArrayList<>();
+    private final List<Thread>             workers       = new ArrayList<>();
+
+    private int     nextEngine      = 0;
+    private int     idleWorkerCount = 0;
+    private long    nextSequence    = 0;
+    private boolean keepRunning     = true;
+
+
+    /**
+     * Constructor.  A limit of zero or less means use the default.
+     *
+     * @param serverName name of the engine host server
+     * @param auditLog destination for messages about failing governance services
+     * @param maxWorkerThreads maximum number of threads running governance services for all governance engines
+     * @param maxActiveServicesPerEngine maximum number of governance services running for each governance engine
+     * @param maxQueuedServicesPerEngine maximum number of requests waiting to run for each governance engine
+     */
+    public GovernanceServiceScheduler(String   serverName,
+                                      AuditLog auditLog,
+                                      int      maxWorkerThreads,
+                                      int      maxActiveServicesPerEngine,
+                                      int      maxQueuedServicesPerEngine)
+    {
+        this.serverName = serverName;
+        this.auditLog = auditLog;
+        this.maxWorkerThreads = (maxWorkerThreads > 0) ? maxWorkerThreads : Runtime.getRuntime().availableProcessors() * 4;
+        this.maxActiveServicesPerEngine = (maxActiveServicesPerEngine > 0) ? maxActiveServicesPerEngine : defaultMaxActiveServicesPerEngine;
+        this.maxQueuedServicesPerEngine = (maxQueuedServicesPerEngine > 0) ? maxQueuedServicesPerEngine : defaultMaxQueuedServicesPerEngine;
+    }
+
+
+    /**
+     * QueuedRequest is a governance service waiting to run.
+     */
+    private static class QueuedRequest
+    {
+        final EngineQueue              engineQueue;
+        final GovernanceServiceHandler serviceHandler;
+        final String                   requestName;
+        final int                      priority;
+        final long                     sequence;
+        final long                     queuedTime = System.currentTimeMillis();
+
+        QueuedRequest(EngineQueue              engineQueue,
+                      GovernanceServiceHandler serviceHandler,
+                      String                   requestName,
+                      int                      priority,
+                      long                     sequence)
+        {
+            this.engineQueue = engineQueue;
+            this.serviceHandler = serviceHandler;
+            this.requestName = requestName;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+
+    /**
+     * EngineQueue holds the waiting requests, the places reserved by governance actions and the metrics for one
+     * governance engine.  It is only accessed while holding the scheduler's lock.
+     */
+    private static class EngineQueue
+    {
+        final PriorityQueue<QueuedRequest> queuedRequests = new PriorityQueue<>(Comparator.comparingInt((QueuedRequest request) -> - request.priority)
+                                                                                          .thenComparingLong(request -> request.sequence));
+        final Set<String>                  reservations   = new HashSet<>();
+        int  activeCount    = 0;
+        long completedCount = 0;
+        long rejectedCount  = 0;
+        long startedCount   = 0;
+        long totalQueueTime = 0;
+        long totalRunTime   = 0;
+        long maximumRunTime = 0;
+    }
+
+
+    /**
+     * Return the queue for a governance engine, creating it if this is the first request.
+     *
+     * @param governanceEngineName name of governance engine
+     * @return queue
+     */
+    private EngineQueue getEngineQueue(String governanceEngineName)
+    {
+        EngineQueue engineQueue = engineQueues.get(governanceEngineName);
+
+        if (engineQueue == null)
+        {
+            engineQueue = new EngineQueue();
+            engineQueues.put(governanceEngineName, engineQueue);
+            engineOrder.add(engineQueue);
+        }
+
+        return engineQueue;
+    }
+
+
+    /**
+     * Return whether a governance engine's queue, including the reserved places, is full.  Must be called holding
+     * the lock.
+     *
+     * @param engineQueue queue for the governance engine
+     * @return boolean flag
+     */
+    private boolean isFull(EngineQueue engineQueue)
+    {
+        return engineQueue.queuedRequests.size() + engineQueue.reservations.size() >= maxQueuedServicesPerEngine;
+    }
+
+
+    /**
+     * Reserve a place in a governance engine's queue for a governance action.  The place is taken when the
+     * governance action's service is submitted.  A reservation that is not used must be released.
+     *
+     * @param governanceEngineName name of governance engine
+     * @param governanceActionGUID unique identifier of the governance action
+     * @return false if the governance engine's queue is full or the server is shutting down
+     */
+    public boolean reserve(String governanceEngineName,
+                           String governanceActionGUID)
+    {
+        lock.lock();
+
+        try
+        {
+            EngineQueue engineQueue = getEngineQueue(governanceEngineName);
+
+            if ((! keepRunning) || (isFull(engineQueue)))
+            {
+                engineQueue.rejectedCount++;
+
+                return false;
+            }
+
+            engineQueue.reservations.add(governanceActionGUID);
+
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Release a reserved place that was not used.  Nothing happens if the place has been taken.
+     *
+     * @param governanceEngineName name of governance engine
+     * @param governanceActionGUID unique identifier of the governance action
+     */
+    public void releaseReservation(String governanceEngineName,
+                                   String governanceActionGUID)
+    {
+        lock.lock();
+
+        try
+        {
+            getEngineQueue(governanceEngineName).reservations.remove(governanceActionGUID);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of requests waiting to run for a governance engine.
+     *
+     * @param governanceEngineName name of governance engine
+     * @return count
+     */
+    public int getQueuedServiceCount(String governanceEngineName)
+    {
+        lock.lock();
+
+        try
+        {
+            return getEngineQueue(governanceEngineName).queuedRequests.size();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Queue a governance service to run.  A governance service for a governance action that has reserved a place
+     * in the queue takes that place, and is only rejected if the server is shutting down.
+     *
+     * @param governanceEngineName name of the governance engine running the service
+     * @param governanceRequestType request type used in the rejection message
+     * @param serviceHandler handler that runs the governance service
+     * @param requestName name given to the worker thread while the governance service runs
+     * @param priority priority of the request - higher values run first
+     * @throws PropertyServerException the governance engine's queue is full or the server is shutting down
+     */
+    public void submit(String                   governanceEngineName,
+                       String                   governanceRequestType,
+                       GovernanceServiceHandler serviceHandler,
+                       String                   requestName,
+                       int                      priority) throws PropertyServerException
+    {
+        final String methodName = "submit";
+
+        lock.lock();
+
+        try
+        {
+            EngineQueue engineQueue = getEngineQueue(governanceEngineName);
+            boolean     reserved    = (serviceHandler.governanceActionGUID != null) &&
+                                      (engineQueue.reservations.remove(serviceHandler.governanceActionGUID));
+
+            if ((! keepRunning) || ((! reserved) && (isFull(engineQueue))))
+            {
+                engineQueue.rejectedCount++;
+
+                throw new PropertyServerException(EngineHostServicesErrorCode.GOVERNANCE_SERVICE_QUEUE_FULL.getMessageDefinition(governanceEngineName,
+                                                                                                                              serverName,
+                                                                                                                              governanceRequestType,
+                                                                                                                              Integer.toString(engineQueue.queuedRequests.size())),
+                                                  this.getClass().getName(),
+                                                  methodName);
+            }
+
+            engineQueue.queuedRequests.add(new QueuedRequest(engineQueue, serviceHandler, requestName, priority, nextSequence++));
+
+            if ((idleWorkerCount == 0) && (workers.size() < maxWorkerThreads))
+            {
+                Thread worker = new Thread(this::runWorker, serverName + " GovernanceServiceScheduler-" + workers.size());
+
+                worker.setDaemon(true);
+                workers.add(worker);
+                worker.start();
+            }
+            else
+            {
+                workAvailable.signal();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Remove the next request to run from its queue.  The highest priority request from a governance engine that is
+     * below its limit of active services is chosen.  The search starts after the governance engine that was chosen
+     * last time so that engines with requests of the same priority take turns.  Must be called holding the lock.
+     *
+     * @return request or null if nothing can run
+     */
+    private QueuedRequest takeNextRequest()
+    {
+        EngineQueue chosenQueue = null;
+        int         chosenIndex = 0;
+
+        for (int offset = 0; offset < engineOrder.size(); offset++)
+        {
+            int           index       = (nextEngine + offset) % engineOrder.size();
+            EngineQueue   engineQueue = engineOrder.get(index);
+            QueuedRequest head        = engineQueue.queuedRequests.peek();
+
+            if ((head != null) && (engineQueue.activeCount < maxActiveServicesPerEngine))
+            {
+                if ((chosenQueue == null) || (head.priority > chosenQueue.queuedRequests.peek().priority))
+                {
+                    chosenQueue = engineQueue;
+                    chosenIndex = index;
+                }
+            }
+        }
+
+        if (chosenQueue == null)
+        {
+            return null;
+        }
+
+        nextEngine = (chosenIndex + 1) % engineOrder.size();
+
+        QueuedRequest request = chosenQueue.queuedRequests.poll();
+
+        chosenQueue.activeCount++;
+        chosenQueue.startedCount++;
+        chosenQueue.totalQueueTime = chosenQueue.totalQueueTime + (System.currentTimeMillis() - request.queuedTime);
+
+        return request;
+    }
+
+
+    /**
+     * The work of a worker thread.  It runs requests until the scheduler is shutdown.
+     */
+    private void runWorker()
+    {
+        final String methodName = "runGovernanceService";
+
+        Thread workerThread = Thread.currentThread();
+        String workerName   = workerThread.getName();
+
+        while (true)
+        {
+            QueuedRequest request;
+
+            lock.lock();
+
+            try
+            {
+                request = takeNextRequest();
+
+                while ((request == null) && (keepRunning))
+                {
+                    idleWorkerCount++;
+
+                    try
+                    {
+                        workAvailable.await();
+                    }
+                    catch (InterruptedException interrupted)
+                    {
+                        /*
+                         * Only expected at shutdown - the loop checks keepRunning.
+                         */
+                    }
+                    finally
+                    {
+                        idleWorkerCount--;
+                    }
+
+                    request = takeNextRequest();
+                }
+
+                if (request == null)
+                {
+                    return;
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            long startTime = System.currentTimeMillis();
+
+            try
+            {
+                workerThread.setName(request.requestName);
+                request.serviceHandler.run();
+            }
+            catch (Exception error)
+            {
+                if (auditLog != null)
+                {
+                    auditLog.logException(methodName,
+                                          EngineHostServicesAuditCode.ACTION_PROCESSING_ERROR.getMessageDefinition(request.serviceHandler.getGovernanceServiceName(),
+                                                                                                                   error.getClass().getName(),
+                                                                                                                   request.serviceHandler.governanceActionGUID,
+                                                                                                                   error.getMessage()),
+                                          error);
+                }
+            }
+            finally
+            {
+                workerThread.setName(workerName);
+
+                long runTime = System.currentTimeMillis() - startTime;
+
+                lock.lock();
+
+                try
+                {
+                    EngineQueue engineQueue = request.engineQueue;
+
+                    engineQueue.activeCount--;
+                    engineQueue.completedCount++;
+                    engineQueue.totalRunTime = engineQueue.totalRunTime + runTime;
+                    engineQueue.maximumRunTime = Math.max(engineQueue.maximumRunTime, runTime);
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Add the scheduler's metrics for a governance engine to its summary.  Times are in milliseconds.
+     *
+     * @param governanceEngineName name of governance engine
+     * @param governanceEngineSummary summary to update
+     */
+    public void setSummaryMetrics(String                  governanceEngineName,
+                                  GovernanceEngineSummary governanceEngineSummary)
+    {
+        lock.lock();
+
+        try
+        {
+            EngineQueue engineQueue = getEngineQueue(governanceEngineName);
+
+            governanceEngineSummary.setActiveServiceCount(engineQueue.activeCount);
+            governanceEngineSummary.setQueuedServiceCount(engineQueue.queuedRequests.size());
+            governanceEngineSummary.setCompletedServiceCount(engineQueue.completedCount);
+            governanceEngineSummary.setRejectedServiceCount(engineQueue.rejectedCount);
+            governanceEngineSummary.setMaximumServiceRunTime(engineQueue.maximumRunTime);
+
+            if (engineQueue.startedCount > 0)
+            {
+                governanceEngineSummary.setAverageServiceQueueTime(engineQueue.totalQueueTime / engineQueue.startedCount);
+            }
+
+            if (engineQueue.completedCount > 0)
+            {
+                governanceEngineSummary.setAverageServiceRunTime(engineQueue.totalRunTime / engineQueue.completedCount);
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Stop the worker threads.  Requests that are waiting are discarded and new requests are rejected.
+     * The governance actions of the discarded requests are set to FAILED so that they are not left IN_PROGRESS.
+     * Governance services that are running are left to finish.
+     */
+    public void shutdown()
+    {
+        final String methodName = "shutdown";
+
+        List<QueuedRequest> discardedRequests = new ArrayList<>();
+
+        lock.lock();
+
+        try
+        {
+            keepRunning = false;
+
+            for (EngineQueue engineQueue : engineOrder)
+            {
+                discardedRequests.addAll(engineQueue.queuedRequests);
+                engineQueue.queuedRequests.clear();
+                engineQueue.reservations.clear();
+            }
+
+            workAvailable.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        /*
+         * The metadata server is called without holding the lock.
+         */
+        for (QueuedRequest request : discardedRequests)
+        {
+            try
+            {
+                request.serviceHandler.recordNotRun();
+            }
+            catch (Exception error)
+            {
+                if (auditLog != null)
+                {
+                    auditLog.logException(methodName,
+                                          EngineHostServicesAuditCode.ACTION_PROCESSING_ERROR.getMessageDefinition(request.serviceHandler.getGovernanceServiceName(),
+                                                                                                                   error.getClass().getName(),
+                                                                                                                   request.serviceHandler.governanceActionGUID,
+                                                                                                                   error.getMessage()),
+                                          error);
+                }
+            }
+        }
+    }
+}
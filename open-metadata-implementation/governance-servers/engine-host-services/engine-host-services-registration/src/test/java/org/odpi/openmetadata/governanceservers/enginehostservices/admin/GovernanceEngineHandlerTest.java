@@ -0,0 +1,222 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.enginehostservices.admin;
+
+import org.odpi.openmetadata.accessservices.governanceengine.client.GovernanceEngineClient;
+import org.odpi.openmetadata.accessservices.governanceengine.metadataelements.GovernanceActionElement;
+import org.odpi.openmetadata.adminservices.configuration.properties.EngineConfig;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.frameworks.governanceaction.properties.ActionTargetElement;
+import org.odpi.openmetadata.frameworks.governanceaction.properties.GovernanceActionStatus;
+import org.odpi.openmetadata.frameworks.governanceaction.properties.RequestSourceElement;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate that a governance action claimed by GovernanceEngineHandler is either queued to run or marked as failed,
+ * and never left in progress because the governance engine's queue filled up after it was claimed.
+ */
+public class GovernanceEngineHandlerTest
+{
+    private static final String engineName = "testEngine";
+    private static final String userId     = "testServerUser";
+
+    private GovernanceEngineClient     client;
+    private GovernanceServiceScheduler scheduler;
+    private TestEngineHandler          engineHandler;
+    private List<String>               runOrder;
+    private CountDownLatch             release;
+
+
+    /**
+     * Governance engine handler that runs a test governance service for each governance action.
+     */
+    private class TestEngineHandler extends GovernanceEngineHandler
+    {
+        /**
+         * Constructor.
+         *
+         * @param engineConfig configuration of the governance engine
+         */
+        TestEngineHandler(EngineConfig engineConfig)
+        {
+            super(engineConfig, "testServer", userId, "testEngineService", null, client, mock(AuditLog.class), 100);
+        }
+
+
+        /**
+         * Queue the test governance service.
+         */
+        @Override
+        public GovernanceServiceHandler runGovernanceService(String                     governanceActionGUID,
+                                                             String                     governanceRequestType,
+                                                             Date                       startDate,
+                                                             Map<String, String>        requestParameters,
+                                                             List<RequestSourceElement> requestSourceElements,
+                                                             List<ActionTargetElement>  actionTargetElements) throws PropertyServerException
+        {
+            GovernanceServiceHandler serviceHandler = new GovernanceServiceSchedulerTest.TestServiceHandler(governanceActionGUID,
+                                                                                                            client,
+                                                                                                            governanceActionGUID,
+                                                                                                            runOrder,
+                                                                                                            null);
+
+            super.startGovernanceService(serviceHandler,
+                                         governanceRequestType,
+                                         GovernanceServiceScheduler.governanceActionPriority,
+                                         governanceActionGUID);
+
+            return serviceHandler;
+        }
+    }
+
+
+    @BeforeMethod
+    public void setUp() throws Exception
+    {
+        client = mock(GovernanceEngineClient.class);
+        runOrder = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+
+        GovernanceActionElement governanceAction = new GovernanceActionElement();
+
+        governanceAction.setActionStatus(GovernanceActionStatus.APPROVED);
+        governanceAction.setRequestType("testRequestType");
+
+        when(client.getGovernanceAction(anyString(), anyString())).thenReturn(governanceAction);
+
+        EngineConfig engineConfig = new EngineConfig();
+
+        engineConfig.setEngineQualifiedName(engineName);
+
+        /*
+         * One worker that is kept busy, and room for one waiting request.
+         */
+        scheduler = new GovernanceServiceScheduler("testServer", null, 1, 1, 1);
+        engineHandler = new TestEngineHandler(engineConfig);
+        engineHandler.setServiceScheduler(scheduler);
+
+        scheduler.submit(engineName,
+                         "testRequestType",
+                         new GovernanceServiceSchedulerTest.TestServiceHandler(null, null, "blocker", runOrder, release),
+                         "blocker",
+                         GovernanceServiceScheduler.requestPriority);
+
+        GovernanceServiceSchedulerTest.waitFor(() -> runOrder.contains("blocker"));
+    }
+
+
+    @AfterMethod
+    public void tearDown()
+    {
+        release.countDown();
+        scheduler.shutdown();
+    }
+
+
+    @Test
+    public void testGovernanceActionNotClaimedWhenQueueIsFull() throws Exception
+    {
+        scheduler.submit(engineName,
+                         "testRequestType",
+                         new GovernanceServiceSchedulerTest.TestServiceHandler(null, null, "request1", runOrder, null),
+                         "request1",
+                         GovernanceServiceScheduler.requestPriority);
+
+        engineHandler.executeGovernanceAction("action1GUID");
+
+        /*
+         * The governance action is left approved for another engine host server.
+         */
+        verify(client, never()).claimGovernanceAction(anyString(), anyString());
+        verify(client, never()).updateGovernanceActionStatus(anyString(), anyString(), any(GovernanceActionStatus.class));
+    }
+
+
+    @Test
+    public void testClaimedGovernanceActionKeepsItsPlace() throws Exception
+    {
+        List<Exception> rejections = new ArrayList<>();
+
+        /*
+         * Another request arrives while the governance action is being claimed.
+         */
+        doAnswer(invocation ->
+                 {
+                     try
+                     {
+                         scheduler.submit(engineName,
+                                          "testRequestType",
+                                          new GovernanceServiceSchedulerTest.TestServiceHandler(null, null, "request1", runOrder, null),
+                                          "request1",
+                                          GovernanceServiceScheduler.requestPriority);
+                     }
+                     catch (PropertyServerException rejected)
+                     {
+                         rejections.add(rejected);
+                     }
+
+                     return null;
+                 }).when(client).claimGovernanceAction(userId, "action1GUID");
+
+        engineHandler.executeGovernanceAction("action1GUID");
+
+        assertEquals(rejections.size(), 1);
+        assertEquals(scheduler.getQueuedServiceCount(engineName), 1);
+        verify(client).updateGovernanceActionStatus(userId, "action1GUID", GovernanceActionStatus.IN_PROGRESS);
+        verify(client, never()).updateGovernanceActionStatus(userId, "action1GUID", GovernanceActionStatus.FAILED);
+
+        release.countDown();
+
+        GovernanceServiceSchedulerTest.waitFor(() -> runOrder.size() == 2);
+
+        assertEquals(runOrder, Arrays.asList("blocker", "action1GUID"));
+
+        /*
+         * The place was used, so the queue has room again.
+         */
+        assertTrue(scheduler.reserve(engineName, "action2GUID"));
+    }
+
+
+    @Test
+    public void testClaimedGovernanceActionFailsWhenNotQueued() throws Exception
+    {
+        /*
+         * The server shuts down while the governance action is being claimed.
+         */
+        doAnswer(invocation ->
+                 {
+                     scheduler.shutdown();
+
+                     return null;
+                 }).when(client).claimGovernanceAction(userId, "action1GUID");
+
+        engineHandler.executeGovernanceAction("action1GUID");
+
+        verify(client).updateGovernanceActionStatus(userId, "action1GUID", GovernanceActionStatus.IN_PROGRESS);
+        verify(client).updateGovernanceActionStatus(userId, "action1GUID", GovernanceActionStatus.FAILED);
+        assertEquals(runOrder, Collections.singletonList("blocker"));
+    }
+}
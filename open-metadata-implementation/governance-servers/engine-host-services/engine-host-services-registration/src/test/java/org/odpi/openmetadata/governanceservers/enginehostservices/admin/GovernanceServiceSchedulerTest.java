@@ -0,0 +1,332 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.enginehostservices.admin;
+
+import org.odpi.openmetadata.accessservices.governanceengine.client.GovernanceEngineClient;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.frameworks.governanceaction.properties.GovernanceActionStatus;
+import org.odpi.openmetadata.governanceservers.enginehostservices.properties.GovernanceEngineSummary;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Validate the order that GovernanceServiceScheduler runs requests in, the limit on the number of waiting requests
+ * and the handling of waiting requests when the scheduler is shutdown.
+ */
+public class GovernanceServiceSchedulerTest
+{
+    private static final String engineName  = "testEngine";
+    private static final String requestType = "testRequestType";
+
+
+    /**
+     * Governance service handler that records when it runs.
+     */
+    static class TestServiceHandler extends GovernanceServiceHandler
+    {
+        private final List<String>   runOrder;
+        private final CountDownLatch release;
+
+
+        /**
+         * Constructor.
+         *
+         * @param governanceActionGUID governance action that requested the service (may be null)
+         * @param governanceActionClient client for updating the governance action (may be null)
+         * @param serviceName name recorded when the service runs
+         * @param runOrder list of the services that have run
+         * @param release latch that the service waits for before it completes (may be null)
+         */
+        TestServiceHandler(String                 governanceActionGUID,
+                           GovernanceEngineClient governanceActionClient,
+                           String                 serviceName,
+                           List<String>           runOrder,
+                           CountDownLatch         release)
+        {
+            super(null,
+                  "testEngineGUID",
+                  "testUser",
+                  governanceActionGUID,
+                  governanceActionClient,
+                  requestType,
+                  "testServiceGUID",
+                  serviceName,
+                  null,
+                  null);
+
+            this.runOrder = runOrder;
+            this.release = release;
+        }
+
+
+        /**
+         * Record the service and wait to be released.
+         */
+        @Override
+        public void run()
+        {
+            runOrder.add(governanceServiceName);
+
+            if (release != null)
+            {
+                try
+                {
+                    release.await(30, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Wait for a condition to become true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted
+     */
+    static void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + 10000L;
+
+        while ((! condition.getAsBoolean()) && (System.currentTimeMillis() < endTime))
+        {
+            Thread.sleep(10L);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+
+    /**
+     * Submit a request and wait for it to start running so that the single worker is busy.
+     *
+     * @param scheduler scheduler
+     * @param runOrder list of the services that have run
+     * @param release latch that releases the request
+     * @throws Exception the request was rejected
+     */
+    private void submitBlockingRequest(GovernanceServiceScheduler scheduler,
+                                       List<String>               runOrder,
+                                       CountDownLatch             release) throws Exception
+    {
+        scheduler.submit(engineName,
+                         requestType,
+                         new TestServiceHandler(null, null, "blocker", runOrder, release),
+                         "blocker",
+                         GovernanceServiceScheduler.requestPriority);
+
+        waitFor(() -> runOrder.contains("blocker"));
+    }
+
+
+    /**
+     * Submit a request that does not wait.
+     *
+     * @param scheduler scheduler
+     * @param serviceName name of the service
+     * @param governanceActionGUID governance action that requested the service (may be null)
+     * @param governanceActionClient client for updating the governance action (may be null)
+     * @param runOrder list of the services that have run
+     * @param priority priority of the request
+     * @throws PropertyServerException the request was rejected
+     */
+    private void submitRequest(GovernanceServiceScheduler scheduler,
+                               String                     serviceName,
+                               String                     governanceActionGUID,
+                               GovernanceEngineClient     governanceActionClient,
+                               List<String>               runOrder,
+                               int                        priority) throws PropertyServerException
+    {
+        scheduler.submit(engineName,
+                         requestType,
+                         new TestServiceHandler(governanceActionGUID, governanceActionClient, serviceName, runOrder, null),
+                         serviceName,
+                         priority);
+    }
+
+
+    @Test
+    public void testPriorityOrder() throws Exception
+    {
+        GovernanceServiceScheduler scheduler = new GovernanceServiceScheduler("testServer", null, 1, 1, 10);
+        List<String>               runOrder  = new CopyOnWriteArrayList<>();
+        CountDownLatch             release   = new CountDownLatch(1);
+
+        try
+        {
+            submitBlockingRequest(scheduler, runOrder, release);
+
+            submitRequest(scheduler, "action1", null, null, runOrder, GovernanceServiceScheduler.governanceActionPriority);
+            submitRequest(scheduler, "request1", null, null, runOrder, GovernanceServiceScheduler.requestPriority);
+            submitRequest(scheduler, "action2", null, null, runOrder, GovernanceServiceScheduler.governanceActionPriority);
+            submitRequest(scheduler, "request2", null, null, runOrder, GovernanceServiceScheduler.requestPriority);
+
+            assertEquals(scheduler.getQueuedServiceCount(engineName), 4);
+
+            release.countDown();
+
+            waitFor(() -> runOrder.size() == 5);
+
+            /*
+             * Higher priority requests run first and requests of the same priority run in the order they were submitted.
+             */
+            assertEquals(runOrder, Arrays.asList("blocker", "request1", "request2", "action1", "action2"));
+        }
+        finally
+        {
+            release.countDown();
+            scheduler.shutdown();
+        }
+    }
+
+
+    @Test
+    public void testQueueCapacity() throws Exception
+    {
+        GovernanceServiceScheduler scheduler = new GovernanceServiceScheduler("testServer", null, 1, 1, 2);
+        List<String>               runOrder  = new CopyOnWriteArrayList<>();
+        CountDownLatch             release   = new CountDownLatch(1);
+
+        try
+        {
+            submitBlockingRequest(scheduler, runOrder, release);
+
+            /*
+             * A reserved place counts towards the capacity of the queue.
+             */
+            assertTrue(scheduler.reserve(engineName, "action1GUID"));
+
+            submitRequest(scheduler, "request1", null, null, runOrder, GovernanceServiceScheduler.requestPriority);
+
+            try
+            {
+                submitRequest(scheduler, "request2", null, null, runOrder, GovernanceServiceScheduler.requestPriority);
+                fail("Request accepted when the queue is full");
+            }
+            catch (PropertyServerException expected)
+            {
+                /*
+                 * The queue is full.
+                 */
+            }
+
+            assertFalse(scheduler.reserve(engineName, "action2GUID"));
+
+            /*
+             * The governance action takes its reserved place.
+             */
+            submitRequest(scheduler, "action1", "action1GUID", null, runOrder, GovernanceServiceScheduler.governanceActionPriority);
+            scheduler.releaseReservation(engineName, "action1GUID");
+
+            assertEquals(scheduler.getQueuedServiceCount(engineName), 2);
+
+            /*
+             * A reservation that is not used is released.
+             */
+            release.countDown();
+
+            waitFor(() -> scheduler.getQueuedServiceCount(engineName) == 0);
+
+            assertTrue(scheduler.reserve(engineName, "action3GUID"));
+            assertTrue(scheduler.reserve(engineName, "action4GUID"));
+            assertFalse(scheduler.reserve(engineName, "action5GUID"));
+
+            scheduler.releaseReservation(engineName, "action3GUID");
+
+            assertTrue(scheduler.reserve(engineName, "action5GUID"));
+
+            GovernanceEngineSummary summary = new GovernanceEngineSummary();
+
+            waitFor(() ->
+                    {
+                        scheduler.setSummaryMetrics(engineName, summary);
+
+                        return summary.getCompletedServiceCount() == 3L;
+                    });
+
+            assertEquals(runOrder, Arrays.asList("blocker", "request1", "action1"));
+            assertEquals(summary.getRejectedServiceCount(), 3L);
+        }
+        finally
+        {
+            release.countDown();
+            scheduler.shutdown();
+        }
+    }
+
+
+    @Test
+    public void testShutdownFailsWaitingGovernanceActions() throws Exception
+    {
+        GovernanceServiceScheduler scheduler = new GovernanceServiceScheduler("testServer", null, 1, 1, 10);
+        GovernanceEngineClient     client    = mock(GovernanceEngineClient.class);
+        List<String>               runOrder  = new CopyOnWriteArrayList<>();
+        CountDownLatch             release   = new CountDownLatch(1);
+
+        try
+        {
+            submitBlockingRequest(scheduler, runOrder, release);
+
+            submitRequest(scheduler, "action1", "action1GUID", client, runOrder, GovernanceServiceScheduler.governanceActionPriority);
+            submitRequest(scheduler, "request1", null, client, runOrder, GovernanceServiceScheduler.requestPriority);
+
+            scheduler.shutdown();
+
+            /*
+             * The waiting governance action is not left in progress.  The request that is not for a governance
+             * action has nothing to update.
+             */
+            verify(client).updateGovernanceActionStatus("testUser", "action1GUID", GovernanceActionStatus.FAILED);
+            verify(client, times(1)).updateGovernanceActionStatus(anyString(), anyString(), any(GovernanceActionStatus.class));
+
+            assertEquals(scheduler.getQueuedServiceCount(engineName), 0);
+            assertFalse(scheduler.reserve(engineName, "action2GUID"));
+
+            try
+            {
+                submitRequest(scheduler, "request2", null, null, runOrder, GovernanceServiceScheduler.requestPriority);
+                fail("Request accepted after shutdown");
+            }
+            catch (PropertyServerException expected)
+            {
+                /*
+                 * The scheduler is shutdown.
+                 */
+            }
+
+            /*
+             * The running governance service is left to finish and nothing else runs.
+             */
+            release.countDown();
+            Thread.sleep(200L);
+
+            assertEquals(runOrder, Collections.singletonList("blocker"));
+        }
+        finally
+        {
+            release.countDown();
+            scheduler.shutdown();
+        }
+    }
+}
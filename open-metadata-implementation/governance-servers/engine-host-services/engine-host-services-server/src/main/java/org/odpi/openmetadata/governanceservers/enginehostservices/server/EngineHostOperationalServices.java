@@ -20,6 +20,7 @@ import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.EngineServiceAdmin;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceEngineHandler;
+import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceScheduler;
 import org.odpi.openmetadata.governanceservers.enginehostservices.ffdc.EngineHostServicesAuditCode;
 import org.odpi.openmetadata.governanceservers.enginehostservices.ffdc.EngineHostServicesErrorCode;
 import org.odpi.openmetadata.governanceservers.enginehostservices.threads.EngineConfigurationRefreshThread;
@@ -51,6 +52,7 @@ public class EngineHostOperationalServices
     private final InvalidParameterHandler invalidParameterHandler = new InvalidParameterHandler();
 
     private List<EngineServiceAdmin> engineServiceAdminList = null;
+    private GovernanceServiceScheduler serviceScheduler     = null;
 
     /**
      * Constructor used at server startup.
@@ -177,6 +179,24 @@ public class EngineHostOperationalServices
                                                                          serviceEngineLists,
                                                                          governanceEngineHandlers);
 
+            /*
+             * All governance engines share one scheduler so that the number of threads running governance services
+             * in this server is bounded.
+             */
+            serviceScheduler = new GovernanceServiceScheduler(localServerName,
+                                                              auditLog,
+                                                              configuration.getMaxServiceWorkerThreads(),
+                                                              configuration.getMaxActiveServicesPerEngine(),
+                                                              configuration.getMaxQueuedServicesPerEngine());
+
+            for (GovernanceEngineHandler governanceEngineHandler : governanceEngineHandlers.values())
+            {
+                if (governanceEngineHandler != null)
+                {
+                    governanceEngineHandler.setServiceScheduler(serviceScheduler);
+                }
+            }
+
             /*
              * Register a listener for the Governance Engine OMAS out topic.  This call will fail if
              * the metadata server is not running so a separate thread is created to retry the registration request at
@@ -429,6 +449,10 @@ public class EngineHostOperationalServices
             }
         }
 
+        if (serviceScheduler != null)
+        {
+            serviceScheduler.shutdown();
+        }
 
         auditLog.logMessage(actionDescription, EngineHostServicesAuditCode.SERVER_SHUTDOWN.getMessageDefinition(localServerName));
     }
@@ -307,6 +307,15 @@ public enum IntegrationDaemonServicesAuditCode implements AuditLogMessageSet
                     "Use the message from the exception and knowledge of the integration connector's behavior to " +
                             "track down and resolve the cause of the error and then restart the connector.  The integration daemon thread will then continue to call the connector."),
 
+    DAEMON_CONNECTOR_REFRESH_OVERRUN("INTEGRATION-DAEMON-SERVICES-0046",
+                             OMRSAuditLogRecordSeverity.INFO,
+                             "The integration connector {0} in integration daemon {1} took {2} milliseconds to refresh, which is longer than " +
+                                     "its refresh interval of {3} minutes",
+                             "The next refresh of this connector is scheduled for its refresh interval after this refresh completed.  " +
+                                     "Other integration connectors are not delayed.",
+                             "If this happens regularly, increase the refresh time interval in the connector's configuration, or reduce the " +
+                                     "work done by the connector on each refresh."),
+
     SERVER_NOT_AUTHORIZED("INTEGRATION-DAEMON-SERVICES-0050",
                           OMRSAuditLogRecordSeverity.SECURITY,
                           "Integration service {0} is not authorized to call its partner " +
@@ -34,6 +34,9 @@ public class IntegrationConnectorReport implements Serializable
     private Date                       lastStatusChange         = null;
     private Date                       lastRefreshTime          = null;
     private long                       minMinutesBetweenRefresh = 0L;
+    private long                       lastRefreshDuration      = 0L;
+    private long                       lastRefreshLag           = 0L;
+    private long                       refreshOverrunCount      = 0L;
     private String                     failingExceptionMessage  = null;
     private Map<String, Object>        statistics               = null;
 
@@ -63,6 +66,9 @@ public class IntegrationConnectorReport implements Serializable
             lastStatusChange         = template.getLastStatusChange();
             lastRefreshTime          = template.getLastRefreshTime();
             minMinutesBetweenRefresh = template.getMinMinutesBetweenRefresh();
+            lastRefreshDuration      = template.getLastRefreshDuration();
+            lastRefreshLag           = template.getLastRefreshLag();
+            refreshOverrunCount      = template.getRefreshOverrunCount();
             failingExceptionMessage  = template.getFailingExceptionMessage();
             statistics               = template.getStatistics();
         }
@@ -250,6 +256,72 @@ public class IntegrationConnectorReport implements Serializable
     }
 
 
+    /**
+     * Return the number of milliseconds that the last call to refresh took to complete.
+     *
+     * @return milliseconds
+     */
+    public long getLastRefreshDuration()
+    {
+        return lastRefreshDuration;
+    }
+
+
+    /**
+     * Set up the number of milliseconds that the last call to refresh took to complete.
+     *
+     * @param lastRefreshDuration milliseconds
+     */
+    public void setLastRefreshDuration(long lastRefreshDuration)
+    {
+        this.lastRefreshDuration = lastRefreshDuration;
+    }
+
+
+    /**
+     * Return the number of milliseconds between the time that the last periodic refresh was due and the time it started.
+     *
+     * @return milliseconds
+     */
+    public long getLastRefreshLag()
+    {
+        return lastRefreshLag;
+    }
+
+
+    /**
+     * Set up the number of milliseconds between the time that the last periodic refresh was due and the time it started.
+     *
+     * @param lastRefreshLag milliseconds
+     */
+    public void setLastRefreshLag(long lastRefreshLag)
+    {
+        this.lastRefreshLag = lastRefreshLag;
+    }
+
+
+    /**
+     * Return the number of calls to refresh that took longer than the time between refreshes.
+     *
+     * @return count
+     */
+    public long getRefreshOverrunCount()
+    {
+        return refreshOverrunCount;
+    }
+
+
+    /**
+     * Set up the number of calls to refresh that took longer than the time between refreshes.
+     *
+     * @param refreshOverrunCount count
+     */
+    public void setRefreshOverrunCount(long refreshOverrunCount)
+    {
+        this.refreshOverrunCount = refreshOverrunCount;
+    }
+
+
     /**
      * Return the message extracted from an exception returned by the connector.  This is only set if the connectorStatus
      * is FAILED.  The full exception is logged in the server's audit log.
@@ -313,6 +385,9 @@ public class IntegrationConnectorReport implements Serializable
                        ", lastStatusChange=" + lastStatusChange +
                        ", lastRefreshTime=" + lastRefreshTime +
                        ", minMinutesBetweenRefresh=" + minMinutesBetweenRefresh +
+                       ", lastRefreshDuration=" + lastRefreshDuration +
+                       ", lastRefreshLag=" + lastRefreshLag +
+                       ", refreshOverrunCount=" + refreshOverrunCount +
                        ", failingExceptionMessage='" + failingExceptionMessage + '\'' +
                        ", statistics=" + statistics +
                        '}';
@@ -338,6 +413,9 @@ public class IntegrationConnectorReport implements Serializable
         }
         IntegrationConnectorReport that = (IntegrationConnectorReport) objectToCompare;
         return minMinutesBetweenRefresh == that.minMinutesBetweenRefresh &&
+                       lastRefreshDuration == that.lastRefreshDuration &&
+                       lastRefreshLag == that.lastRefreshLag &&
+                       refreshOverrunCount == that.refreshOverrunCount &&
                        Objects.equals(connectorId, that.connectorId) &&
                        Objects.equals(connectorName, that.connectorName) &&
                        Objects.equals(connection, that.connection) &&
@@ -359,6 +437,7 @@ public class IntegrationConnectorReport implements Serializable
     public int hashCode()
     {
         return Objects.hash(connectorId, connectorName, connection, connectorInstanceId, connectorStatus, lastStatusChange,
-                            lastRefreshTime, minMinutesBetweenRefresh, failingExceptionMessage, statistics);
+                            lastRefreshTime, minMinutesBetweenRefresh, lastRefreshDuration, lastRefreshLag, refreshOverrunCount,
+                            failingExceptionMessage, statistics);
     }
 }
@@ -58,6 +58,9 @@ public class IntegrationConnectorHandler implements Serializable
     private Date                                lastStatusChange                    = null;
     private String                              failingExceptionMessage             = null;
     private Date                                lastRefreshTime                     = null;
+    private long                                lastRefreshDuration                 = 0L;
+    private long                                lastRefreshLag                      = 0L;
+    private long                                refreshOverrunCount                 = 0L;
 
 
     /**
@@ -206,6 +209,39 @@ public class IntegrationConnectorHandler implements Serializable
     }
 
 
+    /**
+     * Return the number of milliseconds that the last call to the connector's refresh() method took.
+     *
+     * @return milliseconds
+     */
+    long getLastRefreshDuration()
+    {
+        return lastRefreshDuration;
+    }
+
+
+    /**
+     * Return the number of milliseconds between the time that the last periodic refresh was due and the time it started.
+     *
+     * @return milliseconds
+     */
+    long getLastRefreshLag()
+    {
+        return lastRefreshLag;
+    }
+
+
+    /**
+     * Return the number of calls to the connector's refresh() method that took longer than the time between refreshes.
+     *
+     * @return count
+     */
+    long getRefreshOverrunCount()
+    {
+        return refreshOverrunCount;
+    }
+
+
     /**
      * Return the configured minimum time between calls to refresh.  This gives an indication of when the
      * next refresh is due.  Null means refresh is only called at server start up and in response to an API request.
@@ -451,6 +487,22 @@ public class IntegrationConnectorHandler implements Serializable
      */
     public synchronized void refreshConnector(String   actionDescription,
                                               boolean  firstCall)
+    {
+        this.refreshConnector(actionDescription, firstCall, null);
+    }
+
+
+    /**
+     * Call refresh on the connector provided it is in the correct state.  This version is called for a periodic
+     * refresh so that the delay between the time the refresh was due and the time it starts can be reported.
+     *
+     * @param actionDescription external caller's activity
+     * @param firstCall is this the first call to refresh?
+     * @param scheduledRefreshTime time that the refresh was due or null if it was requested through the API
+     */
+    public synchronized void refreshConnector(String   actionDescription,
+                                              boolean  firstCall,
+                                              Date     scheduledRefreshTime)
     {
         final String operationName = "refresh";
 
@@ -468,6 +520,11 @@ public class IntegrationConnectorHandler implements Serializable
             {
                 Date refreshStart = new Date();
 
+                if (scheduledRefreshTime != null)
+                {
+                    this.lastRefreshLag = Math.max(0L, refreshStart.getTime() - scheduledRefreshTime.getTime());
+                }
+
                 if (auditLog != null)
                 {
                     if (firstCall)
@@ -486,15 +543,7 @@ public class IntegrationConnectorHandler implements Serializable
 
                 integrationConnector.refresh();
 
-                if (auditLog != null)
-                {
-                    Date refreshEnd = new Date();
-
-                    auditLog.logMessage(actionDescription,
-                                        IntegrationDaemonServicesAuditCode.DAEMON_CONNECTOR_REFRESH_COMPLETE.getMessageDefinition(integrationConnectorName,
-                                                                                                                                  integrationDaemonName,
-                                                                                                                                  Long.toString(refreshEnd.getTime() - refreshStart.getTime())));
-                }
+                this.recordRefreshDuration(actionDescription, refreshStart, new Date());
             }
 
             this.lastRefreshTime = new Date();
@@ -506,6 +555,44 @@ public class IntegrationConnectorHandler implements Serializable
     }
 
 
+    /**
+     * Record how long a call to the connector's refresh() method took.  A refresh that takes longer than the
+     * time between refreshes is counted as an overrun.
+     *
+     * @param actionDescription external caller's activity
+     * @param refreshStart time that the refresh started
+     * @param refreshEnd time that the refresh completed
+     */
+    void recordRefreshDuration(String actionDescription,
+                               Date   refreshStart,
+                               Date   refreshEnd)
+    {
+        this.lastRefreshDuration = refreshEnd.getTime() - refreshStart.getTime();
+
+        if (auditLog != null)
+        {
+            auditLog.logMessage(actionDescription,
+                                IntegrationDaemonServicesAuditCode.DAEMON_CONNECTOR_REFRESH_COMPLETE.getMessageDefinition(integrationConnectorName,
+                                                                                                                          integrationDaemonName,
+                                                                                                                          Long.toString(lastRefreshDuration)));
+        }
+
+        if ((minMinutesBetweenRefresh > 0) && (lastRefreshDuration > minMinutesBetweenRefresh * 60000))
+        {
+            this.refreshOverrunCount++;
+
+            if (auditLog != null)
+            {
+                auditLog.logMessage(actionDescription,
+                                    IntegrationDaemonServicesAuditCode.DAEMON_CONNECTOR_REFRESH_OVERRUN.getMessageDefinition(integrationConnectorName,
+                                                                                                                             integrationDaemonName,
+                                                                                                                             Long.toString(lastRefreshDuration),
+                                                                                                                             Long.toString(minMinutesBetweenRefresh)));
+            }
+        }
+    }
+
+
     /**
      * Shutdown the connector handler.
      *
@@ -149,6 +149,9 @@ public class IntegrationServiceHandler
                     connectorReport.setLastStatusChange(connectorHandler.getLastStatusChange());
                     connectorReport.setLastRefreshTime(connectorHandler.getLastRefreshTime());
                     connectorReport.setMinMinutesBetweenRefresh(connectorHandler.getMinMinutesBetweenRefresh());
+                    connectorReport.setLastRefreshDuration(connectorHandler.getLastRefreshDuration());
+                    connectorReport.setLastRefreshLag(connectorHandler.getLastRefreshLag());
+                    connectorReport.setRefreshOverrunCount(connectorHandler.getRefreshOverrunCount());
 
                     connectorReports.add(connectorReport);
                 }
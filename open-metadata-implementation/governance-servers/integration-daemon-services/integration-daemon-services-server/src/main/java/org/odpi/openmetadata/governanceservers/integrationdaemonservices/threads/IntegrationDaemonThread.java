@@ -6,26 +6,43 @@ package org.odpi.openmetadata.governanceservers.integrationdaemonservices.thread
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.governanceservers.integrationdaemonservices.ffdc.IntegrationDaemonServicesAuditCode;
 import org.odpi.openmetadata.governanceservers.integrationdaemonservices.handlers.IntegrationConnectorHandler;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * IntegrationDaemonThread is the class responsible for managing executing integration connectors
  * within an integration daemon.  It manages the automated refresh of the connectors.
  * The connectors are also being refreshed through the REST API.
+ * <p>
+ * Each connector's refresh is scheduled for the time it is next due, based on the time it was last refreshed
+ * and its minimum minutes between refresh.  The refreshes run on a bounded pool of threads so a slow connector
+ * does not delay the others.  A connector's next refresh is only scheduled once its current refresh has
+ * completed, so the refreshes of one connector never overlap.
+ * <p>
+ * A connector that has not been refreshed since it was (re)initialized is refreshed straight away.
  */
-public class IntegrationDaemonThread implements Runnable
+public class IntegrationDaemonThread
 {
-    private static final Logger log = LoggerFactory.getLogger(IntegrationDaemonThread.class);
+    /*
+     * How often to check for connectors that have been restarted and so need their first refresh.
+     */
+    private static final long restartCheckInterval = 1000;
 
     private String                            integrationDaemonName;
     private List<IntegrationConnectorHandler> connectorHandlers;
     private AuditLog                          auditLog;
 
+    private final List<ConnectorRefreshTask>  refreshTasks = new ArrayList<>();
+    private ScheduledThreadPoolExecutor       scheduler    = null;
 
     private final AtomicBoolean running = new AtomicBoolean(false);
 
@@ -48,98 +65,248 @@ public class IntegrationDaemonThread implements Runnable
 
 
     /**
-     * Requests that the integration daemon thread starts
+     * Requests that the integration daemon thread starts.  Each connector is scheduled for its first refresh.
      */
-    public void start()
+    public synchronized void start()
     {
-        final String threadName = "::IntegrationDaemonThread";
+        final String actionDescription = "Periodic refresh of connector";
+
+        running.set(true);
+
+        auditLog.logMessage(actionDescription,
+                            IntegrationDaemonServicesAuditCode.DAEMON_THREAD_STARTING.getMessageDefinition(integrationDaemonName));
+
+        int poolSize = Math.max(1, Math.min(connectorHandlers.size(), Runtime.getRuntime().availableProcessors() * 2));
+
+        scheduler = new ScheduledThreadPoolExecutor(poolSize, new RefreshThreadFactory());
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        for (IntegrationConnectorHandler connectorHandler : connectorHandlers)
+        {
+            if (connectorHandler != null)
+            {
+                ConnectorRefreshTask refreshTask = new ConnectorRefreshTask(connectorHandler);
+
+                refreshTasks.add(refreshTask);
+                refreshTask.scheduleRefresh(0);
+            }
+        }
 
-        Thread worker = new Thread(this, integrationDaemonName + threadName);
-        worker.start();
+        scheduler.scheduleWithFixedDelay(this::checkForRestartedConnectors, restartCheckInterval, restartCheckInterval, TimeUnit.MILLISECONDS);
     }
 
 
     /**
-     * Requests that the integration daemon thread shuts down.
+     * Requests that the integration daemon thread shuts down.  Refreshes that are in progress are allowed to complete.
      */
-    public void stop()
+    public synchronized void stop()
     {
-        running.set(false);
+        final String actionDescription = "Periodic refresh of connector";
+
+        if (running.getAndSet(false))
+        {
+            scheduler.shutdown();
+
+            auditLog.logMessage(actionDescription,
+                                IntegrationDaemonServicesAuditCode.DAEMON_THREAD_TERMINATING.getMessageDefinition(integrationDaemonName));
+        }
     }
 
 
     /**
-     * This is the method that runs in the new thread when it is started.
+     * Bring forward the refresh of any connector that has been reinitialized since its last refresh.
      */
-    @Override
-    public void run()
+    private void checkForRestartedConnectors()
     {
-        final String actionDescription = "Periodic refresh of connector";
+        for (ConnectorRefreshTask refreshTask : refreshTasks)
+        {
+            refreshTask.refreshIfRestarted();
+        }
+    }
 
-        running.set(true);
 
-        auditLog.logMessage(actionDescription,
-                            IntegrationDaemonServicesAuditCode.DAEMON_THREAD_STARTING.getMessageDefinition(integrationDaemonName));
+    /**
+     * ConnectorRefreshTask refreshes a single connector and then schedules its next refresh.
+     */
+    private class ConnectorRefreshTask implements Runnable
+    {
+        private final IntegrationConnectorHandler connectorHandler;
+
+        private ScheduledFuture<?> pendingRefresh = null;
+        private Date               dueTime        = null;
+        private boolean            refreshing     = false;
+
+
+        /**
+         * Constructor.
+         *
+         * @param connectorHandler connector to refresh
+         */
+        ConnectorRefreshTask(IntegrationConnectorHandler connectorHandler)
+        {
+            this.connectorHandler = connectorHandler;
+        }
+
+
+        /**
+         * Schedule the next refresh.  Nothing is scheduled once the daemon is stopping.
+         *
+         * @param delay milliseconds until the refresh is due
+         */
+        synchronized void scheduleRefresh(long delay)
+        {
+            if (running.get())
+            {
+                try
+                {
+                    dueTime = new Date(System.currentTimeMillis() + delay);
+                    pendingRefresh = scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+                }
+                catch (RejectedExecutionException stopping)
+                {
+                    /*
+                     * The daemon stopped after the running flag was checked.
+                     */
+                    pendingRefresh = null;
+                }
+            }
+        }
+
 
-        while (running.get())
+        /**
+         * Work out when the connector is next due to be refreshed and schedule it.  A connector with no refresh
+         * interval is not scheduled again unless it is restarted.  Must be called holding the task's lock.
+         */
+        private void scheduleNextRefresh()
         {
-            Date now = new Date();
+            Date lastRefreshTime          = connectorHandler.getLastRefreshTime();
+            long minMinutesBetweenRefresh = connectorHandler.getMinMinutesBetweenRefresh();
+
+            if (lastRefreshTime == null)
+            {
+                /*
+                 * The refresh failed or the connector was restarted while it was running - try again shortly.
+                 */
+                this.scheduleRefresh(restartCheckInterval);
+            }
+            else if (minMinutesBetweenRefresh > 0)
+            {
+                long nextRefreshTime = lastRefreshTime.getTime() + (minMinutesBetweenRefresh * 60000);
+
+                this.scheduleRefresh(Math.max(0L, nextRefreshTime - System.currentTimeMillis()));
+            }
+        }
+
 
-            for (IntegrationConnectorHandler connectorHandler : connectorHandlers)
+        /**
+         * If the connector has been restarted, and so needs its first refresh, run it now rather than waiting
+         * for the next scheduled refresh.
+         */
+        synchronized void refreshIfRestarted()
+        {
+            if ((! refreshing) && (connectorHandler.getLastRefreshTime() == null))
             {
-                if (connectorHandler != null)
+                if (pendingRefresh != null)
                 {
-                    try
+                    if (pendingRefresh.getDelay(TimeUnit.MILLISECONDS) <= 0)
                     {
-                        if (connectorHandler.getLastRefreshTime() == null)
-                        {
-                            connectorHandler.refreshConnector(actionDescription, true);
-                        }
-                        else if (connectorHandler.getMinMinutesBetweenRefresh() > 0)
-                        {
-                            long nextRefreshTime =
-                                    connectorHandler.getLastRefreshTime().getTime() +
-                                            (connectorHandler.getMinMinutesBetweenRefresh() * 60000);
-
-                            if (nextRefreshTime < now.getTime())
-                            {
-                                connectorHandler.refreshConnector(actionDescription, false);
-                            }
-                        }
+                        return;
                     }
-                    catch (Exception error)
+
+                    if (! pendingRefresh.cancel(false))
                     {
-                        auditLog.logMessage(actionDescription,
-                                            IntegrationDaemonServicesAuditCode.DAEMON_THREAD_CONNECTOR_ERROR.getMessageDefinition(integrationDaemonName,
-                                                                                                                                  error.getClass().getName(),
-                                                                                                                                  error.getMessage()));
+                        /*
+                         * The refresh has just started.
+                         */
+                        return;
                     }
                 }
-            }
 
-            waitToRetry();
+                this.scheduleRefresh(0);
+            }
         }
 
-        auditLog.logMessage(actionDescription,
-                            IntegrationDaemonServicesAuditCode.DAEMON_THREAD_TERMINATING.getMessageDefinition(integrationDaemonName));
 
+        /**
+         * Refresh the connector if it is due.  It may not be due if it has been refreshed through the REST API
+         * since this refresh was scheduled.
+         */
+        @Override
+        public void run()
+        {
+            final String actionDescription = "Periodic refresh of connector";
+
+            Date scheduledRefreshTime;
+
+            synchronized (this)
+            {
+                refreshing = true;
+                pendingRefresh = null;
+                scheduledRefreshTime = dueTime;
+            }
+
+            try
+            {
+                if (connectorHandler.getLastRefreshTime() == null)
+                {
+                    connectorHandler.refreshConnector(actionDescription, true, scheduledRefreshTime);
+                }
+                else if (connectorHandler.getMinMinutesBetweenRefresh() > 0)
+                {
+                    long nextRefreshTime =
+                            connectorHandler.getLastRefreshTime().getTime() +
+                                    (connectorHandler.getMinMinutesBetweenRefresh() * 60000);
+
+                    if (nextRefreshTime <= System.currentTimeMillis())
+                    {
+                        connectorHandler.refreshConnector(actionDescription, false, scheduledRefreshTime);
+                    }
+                }
+            }
+            catch (Exception error)
+            {
+                auditLog.logMessage(actionDescription,
+                                    IntegrationDaemonServicesAuditCode.DAEMON_THREAD_CONNECTOR_ERROR.getMessageDefinition(integrationDaemonName,
+                                                                                                                          error.getClass().getName(),
+                                                                                                                          error.getMessage()));
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    refreshing = false;
+                    this.scheduleNextRefresh();
+                }
+            }
+        }
     }
 
 
     /**
-     * Wait before retrying ...
+     * RefreshThreadFactory names the threads that refresh the connectors.  They are daemon threads so they
+     * do not prevent the JVM from exiting.
      */
-    private void waitToRetry()
+    private class RefreshThreadFactory implements ThreadFactory
     {
-        final int  sleepTime = 1000;
+        private final AtomicInteger threadCount = new AtomicInteger(0);
 
-        try
+        /**
+         * Create a new refresh thread.
+         *
+         * @param runnable work for the thread
+         * @return new thread
+         */
+        @Override
+        public Thread newThread(Runnable runnable)
         {
-            Thread.sleep(sleepTime);
-        }
-        catch (Exception error)
-        {
-            log.error("Ignored exception from sleep - probably ok", error);
+            final String threadName = "::IntegrationDaemonThread-";
+
+            Thread thread = new Thread(runnable, integrationDaemonName + threadName + threadCount.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
         }
     }
 }
@@ -0,0 +1,196 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.integrationdaemonservices.handlers;
+
+import org.odpi.openmetadata.adminservices.configuration.properties.IntegrationConnectorConfig;
+import org.odpi.openmetadata.adminservices.configuration.properties.PermittedSynchronization;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.AuditLogMessageDefinition;
+import org.odpi.openmetadata.frameworks.connectors.ConnectorProviderBase;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.connectors.IntegrationConnectorBase;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.contextmanager.IntegrationContextManager;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.ffdc.IntegrationDaemonServicesAuditCode;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.properties.IntegrationConnectorStatus;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate that IntegrationConnectorHandler reports the lag of periodic refreshes, the duration of each refresh
+ * and the refreshes that take longer than the connector's refresh interval.
+ */
+public class IntegrationConnectorHandlerTest
+{
+    private static final String actionDescription = "Test refresh";
+
+    private AuditLog     auditLog;
+    private List<String> loggedMessageIds;
+
+
+    /**
+     * Integration connector that does nothing when it is refreshed.
+     */
+    public static class TestIntegrationConnector extends IntegrationConnectorBase
+    {
+        @Override
+        public void refresh()
+        {
+        }
+    }
+
+
+    /**
+     * Connector provider for the test integration connector.
+     */
+    public static class TestIntegrationConnectorProvider extends ConnectorProviderBase
+    {
+        /**
+         * Constructor sets up the class of the connector.
+         */
+        public TestIntegrationConnectorProvider()
+        {
+            super.setConnectorClassName(TestIntegrationConnector.class.getName());
+        }
+    }
+
+
+    @BeforeMethod
+    public void setUp()
+    {
+        auditLog = mock(AuditLog.class);
+        loggedMessageIds = new ArrayList<>();
+
+        doAnswer(invocation ->
+                 {
+                     loggedMessageIds.add(invocation.getArgument(1, AuditLogMessageDefinition.class).getMessageId());
+
+                     return null;
+                 }).when(auditLog).logMessage(anyString(), any(AuditLogMessageDefinition.class));
+    }
+
+
+    /**
+     * Create a handler for the test integration connector.
+     *
+     * @param refreshTimeInterval minutes between refreshes
+     * @return connector handler
+     */
+    private IntegrationConnectorHandler getConnectorHandler(long refreshTimeInterval)
+    {
+        IntegrationConnectorConfig connectorConfig = new IntegrationConnectorConfig();
+        Connection                 connection      = new Connection();
+        ConnectorType              connectorType   = new ConnectorType();
+
+        connectorType.setConnectorProviderClassName(TestIntegrationConnectorProvider.class.getName());
+        connection.setConnectorType(connectorType);
+
+        connectorConfig.setConnectorId("testConnectorId");
+        connectorConfig.setConnectorName("testConnector");
+        connectorConfig.setConnection(connection);
+        connectorConfig.setRefreshTimeInterval(refreshTimeInterval);
+        connectorConfig.setPermittedSynchronization(PermittedSynchronization.BOTH_DIRECTIONS);
+
+        IntegrationConnectorHandler connectorHandler = new IntegrationConnectorHandler(connectorConfig,
+                                                                                       "Test Integration Service",
+                                                                                       null,
+                                                                                       "testDaemon",
+                                                                                       mock(IntegrationContextManager.class),
+                                                                                       auditLog);
+
+        assertEquals(connectorHandler.getIntegrationConnectorStatus(), IntegrationConnectorStatus.INITIALIZED);
+
+        return connectorHandler;
+    }
+
+
+    @Test
+    public void testRefreshLagIsRecorded()
+    {
+        IntegrationConnectorHandler connectorHandler = getConnectorHandler(1);
+
+        connectorHandler.refreshConnector(actionDescription, true, new Date(System.currentTimeMillis() - 5000L));
+
+        long lastRefreshLag = connectorHandler.getLastRefreshLag();
+
+        assertEquals(connectorHandler.getIntegrationConnectorStatus(), IntegrationConnectorStatus.RUNNING);
+        assertNotNull(connectorHandler.getLastRefreshTime());
+        assertTrue(lastRefreshLag >= 5000L);
+        assertTrue(connectorHandler.getLastRefreshDuration() >= 0L);
+        assertEquals(connectorHandler.getRefreshOverrunCount(), 0L);
+
+        /*
+         * A refresh requested through the API was not scheduled so it does not change the lag.
+         */
+        connectorHandler.refreshConnector(actionDescription, false);
+
+        assertEquals(connectorHandler.getLastRefreshLag(), lastRefreshLag);
+
+        /*
+         * A refresh that starts before it is due has no lag.
+         */
+        connectorHandler.refreshConnector(actionDescription, false, new Date(System.currentTimeMillis() + 60000L));
+
+        assertEquals(connectorHandler.getLastRefreshLag(), 0L);
+        assertTrue(loggedMessageIds.contains(IntegrationDaemonServicesAuditCode.DAEMON_CONNECTOR_REFRESH_COMPLETE.getMessageDefinition().getMessageId()));
+    }
+
+
+    @Test
+    public void testRefreshOverrunIsCounted()
+    {
+        final String overrunMessageId = IntegrationDaemonServicesAuditCode.DAEMON_CONNECTOR_REFRESH_OVERRUN.getMessageDefinition().getMessageId();
+
+        IntegrationConnectorHandler connectorHandler = getConnectorHandler(1);
+        long                        refreshStart     = System.currentTimeMillis();
+
+        connectorHandler.recordRefreshDuration(actionDescription, new Date(refreshStart), new Date(refreshStart + 30000L));
+
+        assertEquals(connectorHandler.getLastRefreshDuration(), 30000L);
+        assertEquals(connectorHandler.getRefreshOverrunCount(), 0L);
+        assertFalse(loggedMessageIds.contains(overrunMessageId));
+
+        /*
+         * A refresh that takes exactly the refresh interval is not an overrun.
+         */
+        connectorHandler.recordRefreshDuration(actionDescription, new Date(refreshStart), new Date(refreshStart + 60000L));
+
+        assertEquals(connectorHandler.getRefreshOverrunCount(), 0L);
+
+        connectorHandler.recordRefreshDuration(actionDescription, new Date(refreshStart), new Date(refreshStart + 120000L));
+        connectorHandler.recordRefreshDuration(actionDescription, new Date(refreshStart), new Date(refreshStart + 90000L));
+
+        assertEquals(connectorHandler.getLastRefreshDuration(), 90000L);
+        assertEquals(connectorHandler.getRefreshOverrunCount(), 2L);
+        assertEquals(loggedMessageIds.stream().filter(overrunMessageId::equals).count(), 2L);
+    }
+
+
+    @Test
+    public void testNoOverrunWithoutRefreshInterval()
+    {
+        IntegrationConnectorHandler connectorHandler = getConnectorHandler(0);
+        long                        refreshStart     = System.currentTimeMillis();
+
+        /*
+         * A connector that is only refreshed at start up and through the API has no interval to overrun.
+         */
+        connectorHandler.recordRefreshDuration(actionDescription, new Date(refreshStart), new Date(refreshStart + 600000L));
+
+        assertEquals(connectorHandler.getLastRefreshDuration(), 600000L);
+        assertEquals(connectorHandler.getRefreshOverrunCount(), 0L);
+    }
+}
@@ -0,0 +1,358 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.integrationdaemonservices.threads;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.handlers.IntegrationConnectorHandler;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate that IntegrationDaemonThread schedules each connector's refresh for the time it is due, runs an overdue
+ * refresh straight away, brings forward the refresh of a restarted connector and does not let a slow connector
+ * delay the others.
+ */
+public class IntegrationDaemonThreadTest
+{
+    private IntegrationDaemonThread daemonThread = null;
+
+
+    /**
+     * A refresh of the test connector.
+     */
+    private static class Refresh
+    {
+        final boolean firstCall;
+        final Date    scheduledRefreshTime;
+        final long    startTime;
+
+
+        /**
+         * Constructor.
+         *
+         * @param firstCall is this the first call to refresh?
+         * @param scheduledRefreshTime time that the refresh was due
+         */
+        Refresh(boolean firstCall,
+                Date    scheduledRefreshTime)
+        {
+            this.firstCall = firstCall;
+            this.scheduledRefreshTime = scheduledRefreshTime;
+            this.startTime = System.currentTimeMillis();
+        }
+    }
+
+
+    /**
+     * Test connector, represented by a mock connector handler that records its refreshes.
+     */
+    private static class TestConnector
+    {
+        final IntegrationConnectorHandler connectorHandler = mock(IntegrationConnectorHandler.class);
+        final AtomicReference<Date>       lastRefreshTime  = new AtomicReference<>(null);
+        final List<Refresh>               refreshes        = new CopyOnWriteArrayList<>();
+
+        volatile CountDownLatch release         = null;
+        volatile boolean        failNextRefresh = false;
+
+
+        /**
+         * Constructor.
+         *
+         * @param minMinutesBetweenRefresh minutes between refreshes
+         */
+        TestConnector(long minMinutesBetweenRefresh)
+        {
+            when(connectorHandler.getMinMinutesBetweenRefresh()).thenReturn(minMinutesBetweenRefresh);
+            when(connectorHandler.getLastRefreshTime()).thenAnswer(invocation -> lastRefreshTime.get());
+
+            doAnswer(invocation ->
+                     {
+                         refreshes.add(new Refresh(invocation.getArgument(1), invocation.getArgument(2)));
+
+                         if (release != null)
+                         {
+                             release.await(30, TimeUnit.SECONDS);
+                         }
+
+                         if (failNextRefresh)
+                         {
+                             failNextRefresh = false;
+                             throw new IllegalStateException("Test refresh failure");
+                         }
+
+                         /*
+                          * The handler records the time that the refresh completed.
+                          */
+                         lastRefreshTime.set(new Date());
+
+                         return null;
+                     }).when(connectorHandler).refreshConnector(anyString(), anyBoolean(), any());
+        }
+
+
+        /**
+         * Simulate a restart of the connector through the API.
+         */
+        void restart()
+        {
+            lastRefreshTime.set(null);
+        }
+    }
+
+
+    /**
+     * Wait for a condition to become true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + 10000L;
+
+        while ((! condition.getAsBoolean()) && (System.currentTimeMillis() < endTime))
+        {
+            Thread.sleep(10L);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+
+    /**
+     * Start the integration daemon thread for the test connectors.
+     *
+     * @param connectors connectors to refresh
+     */
+    private void startDaemonThread(TestConnector... connectors)
+    {
+        List<IntegrationConnectorHandler> connectorHandlers = new ArrayList<>();
+
+        for (TestConnector connector : connectors)
+        {
+            connectorHandlers.add(connector.connectorHandler);
+        }
+
+        connectorHandlers.add(null);
+
+        daemonThread = new IntegrationDaemonThread("testDaemon", connectorHandlers, mock(AuditLog.class));
+        daemonThread.start();
+    }
+
+
+    @BeforeMethod
+    public void setUp()
+    {
+        daemonThread = null;
+    }
+
+
+    @AfterMethod
+    public void tearDown()
+    {
+        if (daemonThread != null)
+        {
+            daemonThread.stop();
+        }
+    }
+
+
+    @Test
+    public void testFirstRefreshAndNextRefreshTime() throws Exception
+    {
+        TestConnector periodicConnector = new TestConnector(1);
+        TestConnector startUpConnector  = new TestConnector(0);
+
+        startDaemonThread(periodicConnector, startUpConnector);
+
+        waitFor(() -> periodicConnector.refreshes.size() == 1 && startUpConnector.refreshes.size() == 1);
+
+        Refresh firstRefresh = periodicConnector.refreshes.get(0);
+
+        assertTrue(firstRefresh.firstCall);
+        assertTrue(firstRefresh.startTime >= firstRefresh.scheduledRefreshTime.getTime());
+
+        /*
+         * The periodic connector is not due again for a minute, and the connector without a refresh interval
+         * is only refreshed at start up.
+         */
+        Thread.sleep(1500L);
+
+        assertEquals(periodicConnector.refreshes.size(), 1);
+        assertEquals(startUpConnector.refreshes.size(), 1);
+    }
+
+
+    @Test
+    public void testRefreshIsSkippedWhenNotDue() throws Exception
+    {
+        TestConnector connector = new TestConnector(1);
+
+        /*
+         * The connector was refreshed through the API just before the daemon thread started.
+         */
+        connector.lastRefreshTime.set(new Date());
+
+        startDaemonThread(connector);
+
+        Thread.sleep(1500L);
+
+        assertTrue(connector.refreshes.isEmpty());
+    }
+
+
+    @Test
+    public void testOverdueRefreshRunsStraightAway() throws Exception
+    {
+        TestConnector connector = new TestConnector(1);
+
+        /*
+         * The last refresh overran, so the next refresh was due before the daemon thread started.
+         */
+        connector.lastRefreshTime.set(new Date(System.currentTimeMillis() - 120000L));
+
+        startDaemonThread(connector);
+
+        waitFor(() -> connector.refreshes.size() == 1);
+
+        Refresh overdueRefresh = connector.refreshes.get(0);
+
+        assertFalse(overdueRefresh.firstCall);
+        assertTrue(overdueRefresh.startTime >= overdueRefresh.scheduledRefreshTime.getTime());
+        assertTrue(overdueRefresh.startTime - overdueRefresh.scheduledRefreshTime.getTime() < 1000L);
+
+        /*
+         * The next refresh is due a minute after this one completed, so the refreshes do not run back to back.
+         */
+        Thread.sleep(1500L);
+
+        assertEquals(connector.refreshes.size(), 1);
+    }
+
+
+    @Test
+    public void testRestartedConnectorIsRefreshedStraightAway() throws Exception
+    {
+        TestConnector connector = new TestConnector(60);
+
+        startDaemonThread(connector);
+
+        waitFor(() -> connector.refreshes.size() == 1);
+
+        /*
+         * The next periodic refresh is due in an hour.  The restart brings it forward.
+         */
+        connector.restart();
+
+        waitFor(() -> connector.refreshes.size() == 2);
+
+        assertTrue(connector.refreshes.get(1).firstCall);
+
+        /*
+         * The connector is restarted again and its refresh is slow.  A second refresh is not started alongside it,
+         * even though the connector has not yet recorded its refresh.
+         */
+        connector.release = new CountDownLatch(1);
+        connector.restart();
+
+        waitFor(() -> connector.refreshes.size() == 3);
+
+        Thread.sleep(1500L);
+
+        assertEquals(connector.refreshes.size(), 3);
+
+        connector.release.countDown();
+
+        Thread.sleep(1500L);
+
+        assertEquals(connector.refreshes.size(), 3);
+    }
+
+
+    @Test
+    public void testFailedRefreshIsRetried() throws Exception
+    {
+        TestConnector connector = new TestConnector(60);
+
+        connector.failNextRefresh = true;
+
+        startDaemonThread(connector);
+
+        /*
+         * The failed refresh did not set the last refresh time so the refresh is tried again shortly.
+         */
+        waitFor(() -> connector.refreshes.size() == 2);
+
+        assertTrue(connector.refreshes.get(1).firstCall);
+        assertTrue(connector.lastRefreshTime.get() != null);
+    }
+
+
+    @Test
+    public void testSlowConnectorDoesNotDelayOthers() throws Exception
+    {
+        TestConnector slowConnector = new TestConnector(1);
+        TestConnector fastConnector = new TestConnector(1);
+
+        slowConnector.release = new CountDownLatch(1);
+
+        try
+        {
+            startDaemonThread(slowConnector, fastConnector);
+
+            waitFor(() -> slowConnector.refreshes.size() == 1 && fastConnector.refreshes.size() == 1);
+
+            /*
+             * The slow connector is still in its first refresh.  The fast connector is restarted and refreshed again.
+             */
+            fastConnector.restart();
+
+            waitFor(() -> fastConnector.refreshes.size() == 2);
+
+            assertEquals(slowConnector.refreshes.size(), 1);
+        }
+        finally
+        {
+            slowConnector.release.countDown();
+        }
+    }
+
+
+    @Test
+    public void testNoRefreshAfterStop() throws Exception
+    {
+        TestConnector connector = new TestConnector(60);
+
+        startDaemonThread(connector);
+
+        waitFor(() -> connector.refreshes.size() == 1);
+
+        daemonThread.stop();
+        connector.restart();
+
+        Thread.sleep(1500L);
+
+        assertEquals(connector.refreshes.size(), 1);
+    }
+}
@@ -0,0 +1,184 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OMRSJSONCodecBenchmark compares the cost of converting OMRS events and instance properties to and from JSON
+ * using a new ObjectMapper for each call (the original approach) with the shared readers and writers of
+ * OMRSJSONCodec.  Run it with "mvn -Djmh integration-test" from the repository-services-apis module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OMRSJSONCodecBenchmark
+{
+    private OMRSEventV1        event;
+    private String             eventJSON;
+    private InstanceProperties instanceProperties;
+    private String             instancePropertiesJSON;
+
+
+    /**
+     * Build a typical instance event and its JSON.
+     *
+     * @throws JsonProcessingException unable to convert to JSON
+     */
+    @Setup
+    public void setUp() throws JsonProcessingException
+    {
+        instanceProperties = new InstanceProperties();
+
+        for (int propertyNumber = 0; propertyNumber < 10; propertyNumber++)
+        {
+            PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+            propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+            propertyValue.setPrimitiveValue("Value of property " + propertyNumber);
+
+            instanceProperties.setProperty("property" + propertyNumber, propertyValue);
+        }
+
+        InstanceType instanceType = new InstanceType(TypeDefCategory.ENTITY_DEF,
+                                                     UUID.randomUUID().toString(),
+                                                     "Asset",
+                                                     1L,
+                                                     null,
+                                                     null,
+                                                     null,
+                                                     null,
+                                                     null);
+
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(UUID.randomUUID().toString());
+        entity.setType(instanceType);
+        entity.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        entity.setMetadataCollectionId(UUID.randomUUID().toString());
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setCreatedBy("benchmark");
+        entity.setCreateTime(new Date());
+        entity.setVersion(1L);
+        entity.setProperties(instanceProperties);
+
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+
+        instanceSection.setEventType(OMRSInstanceEventType.NEW_ENTITY_EVENT);
+        instanceSection.setTypeDefGUID(instanceType.getTypeDefGUID());
+        instanceSection.setTypeDefName(instanceType.getTypeDefName());
+        instanceSection.setInstanceGUID(entity.getGUID());
+        instanceSection.setEntity(entity);
+
+        OMRSEventOriginator originator = new OMRSEventOriginator();
+
+        originator.setMetadataCollectionId(entity.getMetadataCollectionId());
+        originator.setServerName("benchmarkServer");
+        originator.setServerType("Metadata Access Store");
+
+        event = new OMRSEventV1();
+        event.setTimestamp(new Date());
+        event.setOriginator(originator);
+        event.setEventCategory(OMRSEventCategory.INSTANCE);
+        event.setInstanceEventSection(instanceSection);
+
+        eventJSON = OMRSJSONCodec.writeOMRSEvent(event);
+        instancePropertiesJSON = OMRSJSONCodec.writeInstanceProperties(instanceProperties);
+    }
+
+
+    @Benchmark
+    public String writeEventWithNewObjectMapper() throws JsonProcessingException
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        return objectMapper.writeValueAsString(event);
+    }
+
+
+    @Benchmark
+    public String writeEventWithCodec() throws JsonProcessingException
+    {
+        return OMRSJSONCodec.writeOMRSEvent(event);
+    }
+
+
+    @Benchmark
+    public OMRSEventBean readEventWithNewObjectMapper() throws JsonProcessingException
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        return objectMapper.readValue(eventJSON, OMRSEventBean.class);
+    }
+
+
+    @Benchmark
+    public OMRSEventBean readEventWithCodec() throws JsonProcessingException
+    {
+        return OMRSJSONCodec.readOMRSEvent(eventJSON);
+    }
+
+
+    @Benchmark
+    public String writeInstancePropertiesWithNewObjectMapper() throws JsonProcessingException
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        return objectMapper.writeValueAsString(instanceProperties);
+    }
+
+
+    @Benchmark
+    public String writeInstancePropertiesWithCodec() throws JsonProcessingException
+    {
+        return OMRSJSONCodec.writeInstanceProperties(instanceProperties);
+    }
+
+
+    @Benchmark
+    public InstanceProperties readInstancePropertiesWithNewObjectMapper() throws JsonProcessingException
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        return objectMapper.readValue(instancePropertiesJSON, InstanceProperties.class);
+    }
+
+
+    @Benchmark
+    public InstanceProperties readInstancePropertiesWithCodec() throws JsonProcessingException
+    {
+        return OMRSJSONCodec.readInstanceProperties(instancePropertiesJSON);
+    }
+}
@@ -23,6 +23,17 @@ public class OMRSAuditLogDestination extends AuditLogDestination
 {
     private final OMRSAuditLogRecordOriginator omrsOriginator = new OMRSAuditLogRecordOriginator();
     private       List<OMRSAuditLogStore>      auditLogStores = null;
+    private       OMRSAuditLogPipeline         pipeline       = null;
+
+    /**
+     * Default number of log records that may wait for delivery to the audit log stores.
+     */
+    public static final int defaultQueueSize = 10000;
+
+    /**
+     * Default maximum number of log records passed to an audit log store in one call.
+     */
+    public static final int defaultBatchSize = 100;
 
     private static final Logger log = LoggerFactory.getLogger(OMRSAuditLogDestination.class);
 
@@ -30,6 +41,7 @@ public class OMRSAuditLogDestination extends AuditLogDestination
     /**
      * Initialize the static values used in all log records.  These values help to pinpoint the source of messages
      * when audit log records from many servers are consolidated into centralized operational tooling.
+     * The log records are delivered to the audit log stores asynchronously using the default queue and batch sizes.
      *
      * @param localServerName name of the local server
      * @param localServerType type of the local server
@@ -40,6 +52,29 @@ public class OMRSAuditLogDestination extends AuditLogDestination
                                    String                  localServerType,
                                    String                  localOrganizationName,
                                    List<OMRSAuditLogStore> auditLogStores)
+    {
+        this(localServerName, localServerType, localOrganizationName, auditLogStores, defaultQueueSize, defaultBatchSize);
+    }
+
+
+    /**
+     * Initialize the static values used in all log records and set up the delivery of the log records to the
+     * audit log stores.
+     *
+     * @param localServerName name of the local server
+     * @param localServerType type of the local server
+     * @param localOrganizationName name of the organization that owns the local server
+     * @param auditLogStores list of destinations for the audit log records
+     * @param queueSize maximum number of log records waiting for delivery to the audit log stores - zero means
+     *                  the records are written to the stores on the thread that logs them
+     * @param batchSize maximum number of log records passed to an audit log store in one call
+     */
+    public OMRSAuditLogDestination(String                  localServerName,
+                                   String                  localServerType,
+                                   String                  localOrganizationName,
+                                   List<OMRSAuditLogStore> auditLogStores,
+                                   int                     queueSize,
+                                   int                     batchSize)
     {
         super();
 
@@ -64,6 +99,11 @@ public class OMRSAuditLogDestination extends AuditLogDestination
         if (auditLogStores != null)
         {
             this.auditLogStores = new ArrayList<>(auditLogStores);
+
+            if (queueSize > 0)
+            {
+                this.pipeline = new OMRSAuditLogPipeline(localServerName, this.auditLogStores, queueSize, batchSize);
+            }
         }
     }
 
@@ -111,6 +151,11 @@ public class OMRSAuditLogDestination extends AuditLogDestination
      */
     void addLogRecord(OMRSAuditLogRecord logRecord)
     {
+        if ((pipeline != null) && (pipeline.addLogRecord(logRecord)))
+        {
+            return;
+        }
+
         if (auditLogStores != null)
         {
             for (OMRSAuditLogStore auditLogStore : auditLogStores)
@@ -131,6 +176,19 @@ public class OMRSAuditLogDestination extends AuditLogDestination
     }
 
 
+    /**
+     * Write any log records waiting for delivery to the audit log stores and stop the asynchronous delivery.
+     * Log records received after this call are written to the stores on the thread that logs them.
+     */
+    public void shutdown()
+    {
+        if (pipeline != null)
+        {
+            pipeline.shutdown();
+        }
+    }
+
+
     /**
      * Return information about the audit log stores configured for this server.
      *
@@ -0,0 +1,320 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * OMRSAuditLogPipeline passes audit log records to the audit log stores on its own thread so that the threads
+ * logging the records are not delayed by a slow store.  The records wait in a bounded queue and are delivered to
+ * each store in batches, in the order they were logged.
+ * <p>
+ * When the queue is full, records with a severity that is only of interest for diagnostics (such as Information,
+ * Event or Trace) are discarded and counted.  The thread logging any other record waits until there is space
+ * on the queue.
+ * <p>
+ * The queue is flushed to the stores by the delivery thread when the pipeline is shutdown.  Records logged after
+ * shutdown are written to the stores on the logging thread.
+ */
+class OMRSAuditLogPipeline
+{
+    private static final Logger log = LoggerFactory.getLogger(OMRSAuditLogPipeline.class);
+
+    private static final long defaultShutdownTimeout = 30000;   /* milliseconds */
+
+    private static final Set<String> discardableSeverities = new HashSet<>();
+
+    static
+    {
+        discardableSeverities.add(OMRSAuditLogRecordSeverity.INFO.getName());
+        discardableSeverities.add(OMRSAuditLogRecordSeverity.EVENT.getName());
+        discardableSeverities.add(OMRSAuditLogRecordSeverity.DECISION.getName());
+        discardableSeverities.add(OMRSAuditLogRecordSeverity.TYPES.getName());
+        discardableSeverities.add(OMRSAuditLogRecordSeverity.COHORT.getName());
+        discardableSeverities.add(OMRSAuditLogRecordSeverity.TRACE.getName());
+        discardableSeverities.add(OMRSAuditLogRecordSeverity.PERFMON.getName());
+    }
+
+    private final List<OMRSAuditLogStore>           auditLogStores;
+    private final BlockingQueue<OMRSAuditLogRecord> recordQueue;
+    private final int                               batchSize;
+    private final long                              shutdownTimeout;
+    private final Thread                            deliveryThread;
+
+    /*
+     * The read lock is held while a record is queued and the write lock is taken to stop the pipeline.
+     * This means no record can be queued after the final flush.
+     */
+    private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+
+    private volatile boolean keepRunning = true;
+
+    private final AtomicLong discardedRecordCount = new AtomicLong(0);
+
+
+    /**
+     * Constructor starts the delivery thread.
+     *
+     * @param serverName name of the local server used in the thread name
+     * @param auditLogStores destinations for the log records
+     * @param queueSize maximum number of records waiting for delivery
+     * @param batchSize maximum number of records passed to a store in one call
+     */
+    OMRSAuditLogPipeline(String                  serverName,
+                         List<OMRSAuditLogStore> auditLogStores,
+                         int                     queueSize,
+                         int                     batchSize)
+    {
+        this(serverName, auditLogStores, queueSize, batchSize, defaultShutdownTimeout);
+    }
+
+
+    /**
+     * Constructor starts the delivery thread.
+     *
+     * @param serverName name of the local server used in the thread name
+     * @param auditLogStores destinations for the log records
+     * @param queueSize maximum number of records waiting for delivery
+     * @param batchSize maximum number of records passed to a store in one call
+     * @param shutdownTimeout milliseconds that shutdown waits for the delivery thread to flush the queue
+     */
+    OMRSAuditLogPipeline(String                  serverName,
+                         List<OMRSAuditLogStore> auditLogStores,
+                         int                     queueSize,
+                         int                     batchSize,
+                         long                    shutdownTimeout)
+    {
+        this.auditLogStores = auditLogStores;
+        this.recordQueue = new ArrayBlockingQueue<>(Math.max(queueSize, 1));
+        this.batchSize = Math.max(batchSize, 1);
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.deliveryThread = new Thread(this::deliverRecords, serverName + " OMRSAuditLogPipeline");
+        this.deliveryThread.setDaemon(true);
+        this.deliveryThread.start();
+    }
+
+
+    /**
+     * Queue a log record for delivery to the stores.
+     *
+     * @param logRecord the log record
+     * @return false if the pipeline is not running and the caller must write the record to the stores
+     */
+    boolean addLogRecord(OMRSAuditLogRecord logRecord)
+    {
+        if (Thread.currentThread() == deliveryThread)
+        {
+            /*
+             * A record logged while delivering to a store must not wait for the queue to empty.
+             */
+            return false;
+        }
+
+        shutdownLock.readLock().lock();
+
+        try
+        {
+            if (! keepRunning)
+            {
+                return false;
+            }
+
+            if (! recordQueue.offer(logRecord))
+            {
+                if (discardableSeverities.contains(logRecord.getSeverity()))
+                {
+                    if (discardedRecordCount.getAndIncrement() == 0)
+                    {
+                        log.warn("Audit log queue is full: discarding diagnostic log records until the audit log stores catch up");
+                    }
+                }
+                else
+                {
+                    recordQueue.put(logRecord);
+                }
+            }
+
+            return true;
+        }
+        catch (InterruptedException interrupted)
+        {
+            Thread.currentThread().interrupt();
+
+            return false;
+        }
+        finally
+        {
+            shutdownLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * The work of the delivery thread.  Records are taken from the queue in batches and passed to each store until
+     * the pipeline is shutdown.  The records still on the queue are then delivered before the thread ends.
+     */
+    private void deliverRecords()
+    {
+        List<OMRSAuditLogRecord> batch = new ArrayList<>(batchSize);
+
+        while (keepRunning)
+        {
+            try
+            {
+                OMRSAuditLogRecord firstRecord = recordQueue.poll(1, TimeUnit.SECONDS);
+
+                if (firstRecord != null)
+                {
+                    batch.add(firstRecord);
+                    recordQueue.drainTo(batch, batchSize - 1);
+
+                    this.deliverBatch(batch);
+                    batch.clear();
+                }
+            }
+            catch (InterruptedException wakeUp)
+            {
+                log.debug("Audit log delivery thread interrupted");
+            }
+        }
+
+        /*
+         * No more records can be queued once the pipeline has stopped.
+         */
+        while (recordQueue.drainTo(batch, batchSize) > 0)
+        {
+            this.deliverBatch(batch);
+            batch.clear();
+        }
+    }
+
+
+    /**
+     * Pass a batch of records to each store.  Each store receives its own copy of the records.
+     *
+     * @param batch records to deliver
+     */
+    private void deliverBatch(List<OMRSAuditLogRecord> batch)
+    {
+        for (OMRSAuditLogStore auditLogStore : auditLogStores)
+        {
+            if (auditLogStore != null)
+            {
+                List<OMRSAuditLogRecord> storeBatch = new ArrayList<>(batch.size());
+
+                for (OMRSAuditLogRecord logRecord : batch)
+                {
+                    storeBatch.add(new OMRSAuditLogRecord(logRecord));
+                }
+
+                try
+                {
+                    auditLogStore.storeLogRecords(storeBatch);
+                }
+                catch (Exception error)
+                {
+                    log.error("Error: " + error + " writing " + batch.size() + " audit log records to destination " + auditLogStore.getClass().getName());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the number of records discarded because the queue was full.
+     *
+     * @return count
+     */
+    long getDiscardedRecordCount()
+    {
+        return discardedRecordCount.get();
+    }
+
+
+    /**
+     * Return the number of records waiting for delivery.
+     *
+     * @return count
+     */
+    int getQueueDepth()
+    {
+        return recordQueue.size();
+    }
+
+
+    /**
+     * Stop the delivery thread and wait for it to write any records still on the queue to the stores.  If a store
+     * is so slow that the delivery thread is still running after the shutdown timeout, the remaining records are
+     * left for it to deliver rather than being written by the calling thread at the same time.
+     */
+    void shutdown()
+    {
+        shutdownLock.writeLock().lock();
+
+        try
+        {
+            if (! keepRunning)
+            {
+                return;
+            }
+
+            keepRunning = false;
+        }
+        finally
+        {
+            shutdownLock.writeLock().unlock();
+        }
+
+        /*
+         * The delivery thread is not interrupted since an interrupt may close a store's file channel.
+         * It notices the shutdown within a second of finishing its current batch.
+         */
+        try
+        {
+            deliveryThread.join(shutdownTimeout);
+        }
+        catch (InterruptedException interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if (deliveryThread.isAlive())
+        {
+            log.warn("Audit log delivery thread is still writing to the audit log stores after " + shutdownTimeout +
+                             " milliseconds: " + recordQueue.size() + " queued audit log records will be written when the stores catch up");
+        }
+        else
+        {
+            /*
+             * Only reached if the delivery thread ended without flushing the queue.
+             */
+            List<OMRSAuditLogRecord> batch = new ArrayList<>(batchSize);
+
+            while (recordQueue.drainTo(batch, batchSize) > 0)
+            {
+                this.deliverBatch(batch);
+                batch.clear();
+            }
+        }
+
+        if (discardedRecordCount.get() > 0)
+        {
+            log.warn("Audit log discarded " + discardedRecordCount.get() + " diagnostic log records because the audit log stores could not keep up");
+        }
+    }
+}
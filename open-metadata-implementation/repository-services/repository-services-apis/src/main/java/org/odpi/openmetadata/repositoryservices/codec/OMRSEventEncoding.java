@@ -0,0 +1,247 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * OMRSEventEncoding defines the encodings that may be used for OMRS events on the cohort topics.
+ * <ul>
+ *     <li>
+ *         JSON: the event is sent as a JSON document.  This is understood by every member of the cohort and is
+ *         always used for registry events.
+ *     </li>
+ *     <li>
+ *         COMPRESSED_JSON_V1: the JSON document is compressed with the deflate algorithm and sent as Base64 text
+ *         after a prefix that identifies the encoding and its version.  The instance events that carry
+ *         entities, relationships and instance batches are typically several times smaller.
+ *     </li>
+ * </ul>
+ * The receiver detects the encoding from the start of the event so an event with either encoding can be received
+ * by any member that supports the encoding.  Members announce the encodings they support in their registry events.
+ */
+public enum OMRSEventEncoding
+{
+    JSON               (0, "JSON", null,
+                        "The event is a JSON document."),
+    COMPRESSED_JSON_V1 (1, "CompressedJSONV1", "OMRS-ZJSON1:",
+                        "The event is a JSON document compressed with the deflate algorithm and encoded in Base64.");
+
+    private static final int bufferSize = 8192;
+
+    private final int    ordinal;
+    private final String name;
+    private final String prefix;
+    private final String description;
+
+
+    /**
+     * Constructor to set up a single instances of the enum.
+     *
+     * @param ordinal numerical representation of the encoding
+     * @param name default string name of the encoding
+     * @param prefix start of an event that uses this encoding
+     * @param description default string description of the encoding
+     */
+    OMRSEventEncoding(int    ordinal,
+                      String name,
+                      String prefix,
+                      String description)
+    {
+        this.ordinal = ordinal;
+        this.name = name;
+        this.prefix = prefix;
+        this.description = description;
+    }
+
+
+    /**
+     * Return the numeric representation of the encoding.
+     *
+     * @return int ordinal
+     */
+    public int getOrdinal() { return ordinal; }
+
+
+    /**
+     * Return the default name of the encoding.  This is the name used in the registry events.
+     *
+     * @return String name
+     */
+    public String getName() { return name; }
+
+
+    /**
+     * Return the default description of the encoding.
+     *
+     * @return String description
+     */
+    public String getDescription() { return description; }
+
+
+    /**
+     * Return the encoding with the supplied name.
+     *
+     * @param name name of the encoding
+     * @return matching encoding or null if the name is not recognized
+     */
+    public static OMRSEventEncoding getEncoding(String name)
+    {
+        for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+        {
+            if (encoding.getName().equalsIgnoreCase(name))
+            {
+                return encoding;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the names of the encodings that this server can decode.
+     *
+     * @return list of encoding names
+     */
+    public static List<String> getSupportedEncodingNames()
+    {
+        List<String> encodingNames = new ArrayList<>();
+
+        for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+        {
+            encodingNames.add(encoding.getName());
+        }
+
+        return encodingNames;
+    }
+
+
+    /**
+     * Encode a JSON event for sending on the topic.
+     *
+     * @param json event as a JSON document
+     * @return encoded event
+     * @throws IOException unable to compress the event
+     */
+    public String encode(String json) throws IOException
+    {
+        if (prefix == null)
+        {
+            return json;
+        }
+
+        ByteArrayOutputStream compressedEvent = new ByteArrayOutputStream(json.length() / 4 + 64);
+        Deflater              deflater        = new Deflater(Deflater.BEST_SPEED);
+
+        try (OutputStream outputStream = new DeflaterOutputStream(Base64.getEncoder().wrap(compressedEvent), deflater, bufferSize))
+        {
+            outputStream.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        return prefix + compressedEvent.toString(StandardCharsets.US_ASCII);
+    }
+
+
+    /**
+     * Return the JSON document from an event received from the topic.  An event that does not start with the
+     * prefix of a known encoding is assumed to be JSON.
+     *
+     * @param event event from the topic
+     * @return event as a JSON document
+     * @throws IOException unable to decompress the event
+     */
+    public static String decode(String event) throws IOException
+    {
+        InputStream decodedEvent = getDecodedStream(event);
+
+        if (decodedEvent == null)
+        {
+            return event;
+        }
+
+        try (InputStream inputStream = decodedEvent)
+        {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+
+    /**
+     * Return a stream that decodes an event received from the topic as it is read.  This allows a caller that
+     * only needs the start of the JSON document to avoid decoding the whole event.  The caller must close the stream.
+     *
+     * @param event event from the topic
+     * @return stream of the UTF-8 JSON document or null if the event is not encoded (that is, it is already JSON)
+     */
+    public static InputStream getDecodedStream(String event)
+    {
+        if ((event == null) || (event.isEmpty()) || (event.charAt(0) == '{'))
+        {
+            return null;
+        }
+
+        for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+        {
+            if ((encoding.prefix != null) && (event.startsWith(encoding.prefix)))
+            {
+                byte[] compressedEvent = event.substring(encoding.prefix.length()).getBytes(StandardCharsets.US_ASCII);
+
+                /*
+                 * Closing the stream also releases the native resources of its inflater.
+                 */
+                return new InflaterInputStream(Base64.getDecoder().wrap(new ByteArrayInputStream(compressedEvent)),
+                                               new Inflater(),
+                                               bufferSize)
+                {
+                    @Override
+                    public void close() throws IOException
+                    {
+                        try
+                        {
+                            super.close();
+                        }
+                        finally
+                        {
+                            inf.end();
+                        }
+                    }
+                };
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSEventEncoding{" +
+                       "ordinal=" + ordinal +
+                       ", name='" + name + '\'' +
+                       ", description='" + description + '\'' +
+                       '}';
+    }
+}
@@ -0,0 +1,183 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OMRSJSONCodec converts the open metadata beans to and from JSON.  It replaces the creation of a new
+ * ObjectMapper for each event or record.  Creating an ObjectMapper is expensive, and a new ObjectMapper has to
+ * introspect each bean class again before it can use it.  OMRSJSONCodec shares one ObjectMapper along with
+ * ObjectReaders and ObjectWriters that are built the first time a class is used.  ObjectReaders and ObjectWriters
+ * are immutable, so they can be used by many threads at once.
+ * <p>
+ * The shared ObjectMapper has the default configuration, so the JSON produced is the same as that produced by
+ * new ObjectMapper().  The readers and writers for the OMRS events and instance properties are built when the
+ * class is loaded since these are used for every event sent and received on the cohort topics.
+ */
+public class OMRSJSONCodec
+{
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final ObjectReader omrsEventReader          = objectMapper.readerFor(OMRSEventBean.class);
+    private static final ObjectWriter omrsEventWriter          = objectMapper.writerFor(OMRSEventV1.class);
+    private static final ObjectReader instancePropertiesReader = objectMapper.readerFor(InstanceProperties.class);
+    private static final ObjectWriter instancePropertiesWriter = objectMapper.writerFor(InstanceProperties.class);
+    private static final ObjectWriter defaultWriter            = objectMapper.writer();
+
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    static
+    {
+        readers.put(OMRSEventBean.class, omrsEventReader);
+        readers.put(InstanceProperties.class, instancePropertiesReader);
+        writers.put(OMRSEventV1.class, omrsEventWriter);
+        writers.put(InstanceProperties.class, instancePropertiesWriter);
+    }
+
+
+    /**
+     * Private constructor - all methods are static.
+     */
+    private OMRSJSONCodec()
+    {
+    }
+
+
+    /**
+     * Return the reader for a bean class.
+     *
+     * @param beanClass class of the bean
+     * @return shared reader
+     */
+    public static ObjectReader getReader(Class<?> beanClass)
+    {
+        return readers.computeIfAbsent(beanClass, objectMapper::readerFor);
+    }
+
+
+    /**
+     * Return the writer for a bean class.
+     *
+     * @param beanClass class of the bean
+     * @return shared writer
+     */
+    public static ObjectWriter getWriter(Class<?> beanClass)
+    {
+        return writers.computeIfAbsent(beanClass, objectMapper::writerFor);
+    }
+
+
+    /**
+     * Parse an OMRS event.  The result is the subclass of OMRSEventBean that matches the protocol version
+     * of the event.
+     *
+     * @param json event received from the topic
+     * @return event bean
+     * @throws JsonProcessingException the event is not valid
+     */
+    public static OMRSEventBean readOMRSEvent(String json) throws JsonProcessingException
+    {
+        return omrsEventReader.readValue(json);
+    }
+
+
+    /**
+     * Convert an OMRS event to JSON.
+     *
+     * @param event event to send
+     * @return JSON string
+     * @throws JsonProcessingException the event could not be converted
+     */
+    public static String writeOMRSEvent(OMRSEventV1 event) throws JsonProcessingException
+    {
+        return omrsEventWriter.writeValueAsString(event);
+    }
+
+
+    /**
+     * Parse a set of instance properties.
+     *
+     * @param json stored properties
+     * @return instance properties
+     * @throws JsonProcessingException the JSON is not valid
+     */
+    public static InstanceProperties readInstanceProperties(String json) throws JsonProcessingException
+    {
+        return instancePropertiesReader.readValue(json);
+    }
+
+
+    /**
+     * Convert a set of instance properties to JSON.
+     *
+     * @param instanceProperties properties to store
+     * @return JSON string
+     * @throws JsonProcessingException the properties could not be converted
+     */
+    public static String writeInstanceProperties(InstanceProperties instanceProperties) throws JsonProcessingException
+    {
+        return instancePropertiesWriter.writeValueAsString(instanceProperties);
+    }
+
+
+    /**
+     * Parse JSON into a bean of the requested class.
+     *
+     * @param json JSON string
+     * @param beanClass class of the bean
+     * @param <T> type of the bean
+     * @return bean
+     * @throws JsonProcessingException the JSON is not valid
+     */
+    public static <T> T readValue(String   json,
+                                  Class<T> beanClass) throws JsonProcessingException
+    {
+        return getReader(beanClass).readValue(json);
+    }
+
+
+    /**
+     * Parse JSON into a generic type such as a map or list of beans.
+     *
+     * @param json JSON string
+     * @param typeReference type to return
+     * @param <T> type of the result
+     * @return result
+     * @throws JsonProcessingException the JSON is not valid
+     */
+    public static <T> T readValue(String           json,
+                                  TypeReference<T> typeReference) throws JsonProcessingException
+    {
+        return objectMapper.readerFor(typeReference).readValue(json);
+    }
+
+
+    /**
+     * Convert a bean to JSON.  The writer is chosen from the class of the bean.
+     *
+     * @param bean bean to convert (may be null)
+     * @return JSON string
+     * @throws JsonProcessingException the bean could not be converted
+     */
+    public static String writeValueAsString(Object bean) throws JsonProcessingException
+    {
+        if (bean == null)
+        {
+            return defaultWriter.writeValueAsString(null);
+        }
+
+        return getWriter(bean.getClass()).writeValueAsString(bean);
+    }
+}
@@ -2,7 +2,8 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSEventEncoding;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.auditlog.ComponentDescription;
@@ -16,17 +17,26 @@ import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.Ope
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicListener;
 import org.odpi.openmetadata.repositoryservices.events.OMRSEventProtocolVersion;
 import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
 import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventType;
 import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
 import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
 import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1RegistrySection;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -54,6 +64,15 @@ import java.util.List;
  *         connectors that implement OpenMetadataTopic.
  *     </li>
  * </ul>
+ * <p>
+ *     The encoding of the events is negotiated through the registry events.  Every registry event is sent as JSON and
+ *     lists the encodings supported by the sending server.  If the eventEncoding configuration property requests a
+ *     more compact encoding, it is used for the type and instance events only once every known member of the cohort
+ *     has announced that it supports it.  The known members are the servers that have sent registry events through
+ *     this topic and the members recorded in the cohort registry store (see setKnownCohortMembers()).  Until then,
+ *     and whenever a member without support is present, the events are sent as JSON so that back-level servers
+ *     can still read them.  Inbound events are decoded whatever their encoding.
+ * </p>
  */
 public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
                                                                  VirtualConnectorExtension,
@@ -64,12 +83,26 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
     private List<Connector> embeddedConnectors = null;
 
-    private final List<OMRSTopicListener>          internalTopicListeners = new ArrayList<>();
-    private final List<OpenMetadataTopicConnector> eventBusConnectors     = new ArrayList<>();
+    private static final int          defaultListenerQueueSize = 1000;
+
+    private final List<OMRSTopicListenerDispatcher> listenerDispatchers = new CopyOnWriteArrayList<>();
+    private final OMRSTopicInterestIndex            interestIndex       = new OMRSTopicInterestIndex();
+    private final AtomicLong                        skippedEventCount   = new AtomicLong(0);
+    private final List<OpenMetadataTopicConnector>  eventBusConnectors  = new ArrayList<>();
 
     private String                    connectionName       = OMRSAuditingComponent.OMRS_TOPIC_CONNECTOR.getComponentName();
     private String                    topicName = "<Unknown>";
     private OMRSEventProtocolVersion  eventProtocolVersion = OMRSEventProtocolVersion.V1;
+    private OMRSEventEncoding         eventEncoding        = OMRSEventEncoding.JSON;
+
+    /*
+     * The event encodings supported by each known member of the cohort.  The map is from metadata collection id
+     * (or server name if the server does not have a repository) to the names of the encodings the server announced
+     * in its last registry event.  A member that is known from the cohort registry but has not yet sent a registry
+     * event has an empty list.  When the cohort uses separate topics, the connectors for the types and instances
+     * topics share the map of the connector for the registration topic since only it receives the registry events.
+     */
+    private volatile Map<String, List<String>> memberEventEncodings = new ConcurrentHashMap<>();
 
     protected AuditLog auditLog = null;
 
@@ -153,7 +186,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         if (topicListener != null)
         {
-            internalTopicListeners.add(new OMRSTopicListenerWrapper(topicListener, auditLog));
+            this.addListener(new OMRSTopicListenerWrapper(topicListener, auditLog), this.getEventInterest(topicListener));
         }
         else
         {
@@ -179,9 +212,10 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         if (topicListener != null)
         {
-            internalTopicListeners.add(new OMRSTopicListenerWrapper(topicListener,
-                                                                    serviceName,
-                                                                    auditLog.createNewAuditLog(OMRSAuditingComponent.ENTERPRISE_TOPIC_LISTENER)));
+            this.addListener(new OMRSTopicListenerWrapper(topicListener,
+                                                          serviceName,
+                                                          auditLog.createNewAuditLog(OMRSAuditingComponent.ENTERPRISE_TOPIC_LISTENER)),
+                             this.getEventInterest(topicListener));
         }
         else
         {
@@ -207,9 +241,10 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         if (topicListener != null)
         {
-            internalTopicListeners.add(new OMRSTopicListenerWrapper(topicListener,
-                                                                    serviceName,
-                                                                    auditLog.createNewAuditLog(OMRSAuditingComponent.ENTERPRISE_TOPIC_LISTENER)));
+            this.addListener(new OMRSTopicListenerWrapper(topicListener,
+                                                          serviceName,
+                                                          auditLog.createNewAuditLog(OMRSAuditingComponent.ENTERPRISE_TOPIC_LISTENER)),
+                             this.getEventInterest(topicListener));
         }
         else
         {
@@ -222,6 +257,107 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     }
 
 
+    /**
+     * Return the events that a listener wishes to receive.  Listeners that extend OMRSTopicListenerBase may
+     * declare their interest.  Other listeners receive all events.
+     *
+     * @param topicListener listener being registered
+     * @return interest or null for all events
+     */
+    private OMRSTopicListenerInterest getEventInterest(OMRSTopicRepositoryEventListener topicListener)
+    {
+        if (topicListener instanceof OMRSTopicListenerBase)
+        {
+            return ((OMRSTopicListenerBase) topicListener).getEventInterest();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Set up the worker threads that pass inbound events to a new listener.
+     *
+     * @param topicListener wrapped listener
+     * @param interest events that the listener wishes to receive - null for all events
+     */
+    private void addListener(OMRSTopicListenerWrapper  topicListener,
+                             OMRSTopicListenerInterest interest)
+    {
+        interestIndex.addInterest(interest);
+
+        listenerDispatchers.add(new OMRSTopicListenerDispatcher(topicListener.getServiceName(),
+                                                                interest,
+                                                                (event) -> this.passEventToListener(event, topicListener),
+                                                                this.getIntegerProperty(OMRSTopicProvider.listenerWorkersProperty, 1),
+                                                                this.getIntegerProperty(OMRSTopicProvider.listenerQueueSizeProperty, defaultListenerQueueSize)));
+    }
+
+
+    /**
+     * Return the value of a numeric configuration property.
+     *
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
+     */
+    private int getIntegerProperty(String propertyName,
+                                   int    defaultValue)
+    {
+        if ((connectionProperties != null) && (connectionProperties.getConfigurationProperties() != null))
+        {
+            Object propertyValue = connectionProperties.getConfigurationProperties().get(propertyName);
+
+            if (propertyValue instanceof Integer)
+            {
+                return (Integer)propertyValue;
+            }
+            else if (propertyValue != null)
+            {
+                try
+                {
+                    return Integer.parseInt(propertyValue.toString());
+                }
+                catch (NumberFormatException error)
+                {
+                    log.debug("Ignoring invalid value for " + propertyName + ": " + propertyValue);
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Return the number of inbound events that were discarded because none of the listeners wanted them.
+     *
+     * @return count
+     */
+    public long getSkippedEventCount()
+    {
+        return skippedEventCount.get();
+    }
+
+
+    /**
+     * Return the statistics for each of the internal listeners.
+     *
+     * @return list of statistics snapshots
+     */
+    public List<OMRSTopicListenerStatistics> getListenerStatistics()
+    {
+        List<OMRSTopicListenerStatistics> listenerStatistics = new ArrayList<>();
+
+        for (OMRSTopicListenerDispatcher listenerDispatcher : listenerDispatchers)
+        {
+            listenerStatistics.add(listenerDispatcher.getStatistics());
+        }
+
+        return listenerStatistics;
+    }
+
+
     /**
      * Indicates that the connector is completely configured and can begin processing.
      * OMRSTopicConnector needs to pass on the start() to its embedded connectors.
@@ -242,6 +378,8 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
         log.debug("Initializing OMRSTopicConnector: " + connectionName);
 
+        this.setUpEventEncoding(methodName);
+
         /*
          * Step through the embedded connectors, selecting only the OpenMetadataTopicConnectors
          * to use.
@@ -309,11 +447,194 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
                 auditLog.logMessage(methodName,
                                     OMRSAuditCode.OMRS_TOPIC_LISTENER_STARTED.getMessageDefinition(topicName),
                                     this.getConnection().toString());
+
+                if (eventEncoding != OMRSEventEncoding.JSON)
+                {
+                    auditLog.logMessage(methodName,
+                                        OMRSAuditCode.OMRS_TOPIC_EVENT_ENCODING.getMessageDefinition(topicName,
+                                                                                                    this.getOutboundEventEncoding().getName()));
+                }
             }
         }
     }
 
 
+    /**
+     * Extract the requested event encoding from the configuration properties.
+     *
+     * @param methodName calling method
+     */
+    private void setUpEventEncoding(String methodName)
+    {
+        if (connectionProperties != null)
+        {
+            Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+            if (configurationProperties != null)
+            {
+                Object encodingName = configurationProperties.get(OMRSTopicProvider.eventEncodingProperty);
+
+                if (encodingName != null)
+                {
+                    OMRSEventEncoding configuredEncoding = OMRSEventEncoding.getEncoding(encodingName.toString());
+
+                    if (configuredEncoding != null)
+                    {
+                        eventEncoding = configuredEncoding;
+                    }
+                    else if (auditLog != null)
+                    {
+                        auditLog.logMessage(methodName,
+                                            OMRSAuditCode.OMRS_TOPIC_UNKNOWN_EVENT_ENCODING.getMessageDefinition(topicName,
+                                                                                                                encodingName.toString(),
+                                                                                                                OMRSEventEncoding.getSupportedEncodingNames().toString()));
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Add the members of the cohort recorded in the cohort registry store.  This is called when the server
+     * connects to the cohort.  The configured encoding is not used until each of these members has announced
+     * that it supports it, since a member that was registered before this server restarted may be back-level.
+     *
+     * @param metadataCollectionIds identifiers of the remote members of the cohort
+     */
+    public void setKnownCohortMembers(List<String> metadataCollectionIds)
+    {
+        if (metadataCollectionIds != null)
+        {
+            for (String metadataCollectionId : metadataCollectionIds)
+            {
+                if (metadataCollectionId != null)
+                {
+                    memberEventEncodings.putIfAbsent(metadataCollectionId, Collections.emptyList());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Use the encodings announced to the connector for the cohort's registration topic.  This is used when the
+     * cohort has separate topics for registry, type and instance events, because the registry events that
+     * announce the encodings only arrive on the registration topic.
+     *
+     * @param registrationTopicConnector connector for the registration topic
+     */
+    public void shareCohortMemberEncodings(OMRSTopicConnector registrationTopicConnector)
+    {
+        if (registrationTopicConnector != null)
+        {
+            this.memberEventEncodings = registrationTopicConnector.memberEventEncodings;
+        }
+    }
+
+
+    /**
+     * Return the encoding to use for type and instance events.  This is the configured encoding if every known
+     * member of the cohort has announced that it supports it.  Otherwise, including when no members are known yet,
+     * it is JSON.
+     *
+     * @return encoding
+     */
+    private OMRSEventEncoding getOutboundEventEncoding()
+    {
+        if (eventEncoding == OMRSEventEncoding.JSON)
+        {
+            return OMRSEventEncoding.JSON;
+        }
+
+        Map<String, List<String>> currentEventEncodings = memberEventEncodings;
+
+        if (currentEventEncodings.isEmpty())
+        {
+            return OMRSEventEncoding.JSON;
+        }
+
+        for (List<String> supportedEncodings : currentEventEncodings.values())
+        {
+            if (! supportedEncodings.contains(eventEncoding.getName()))
+            {
+                return OMRSEventEncoding.JSON;
+            }
+        }
+
+        return eventEncoding;
+    }
+
+
+    /**
+     * Record the encodings supported by the server that sent a registry event.
+     *
+     * @param event inbound registry event
+     */
+    private void updateMemberEncodings(OMRSEventV1 event)
+    {
+        final String methodName = "updateMemberEncodings";
+
+        OMRSEventV1RegistrySection registrySection = event.getRegistryEventSection();
+        OMRSEventOriginator        originator      = event.getOriginator();
+
+        if ((registrySection == null) || (originator == null))
+        {
+            return;
+        }
+
+        String memberId = originator.getMetadataCollectionId();
+
+        if (memberId == null)
+        {
+            memberId = originator.getServerName();
+        }
+
+        if ((memberId == null) || (registrySection.getRegistryEventType() == OMRSRegistryEventType.REGISTRATION_ERROR_EVENT))
+        {
+            return;
+        }
+
+        OMRSEventEncoding previousEncoding = this.getOutboundEventEncoding();
+
+        if (registrySection.getRegistryEventType() == OMRSRegistryEventType.UN_REGISTRATION_EVENT)
+        {
+            memberEventEncodings.remove(memberId);
+        }
+        else
+        {
+            List<String> supportedEncodings = registrySection.getSupportedEventEncodings();
+
+            if (supportedEncodings == null)
+            {
+                supportedEncodings = Collections.emptyList();
+            }
+
+            List<String> previousEncodings = memberEventEncodings.put(memberId, supportedEncodings);
+
+            if ((eventEncoding != OMRSEventEncoding.JSON) &&
+                        (! supportedEncodings.contains(eventEncoding.getName())) &&
+                        ((previousEncodings == null) || (previousEncodings.contains(eventEncoding.getName()))) &&
+                        (auditLog != null))
+            {
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.OMRS_TOPIC_EVENT_ENCODING_NOT_SUPPORTED.getMessageDefinition(topicName,
+                                                                                                              originator.getServerName(),
+                                                                                                              originator.getMetadataCollectionId(),
+                                                                                                              eventEncoding.getName()));
+            }
+        }
+
+        OMRSEventEncoding currentEncoding = this.getOutboundEventEncoding();
+
+        if ((previousEncoding != currentEncoding) && (auditLog != null))
+        {
+            auditLog.logMessage(methodName,
+                                OMRSAuditCode.OMRS_TOPIC_EVENT_ENCODING.getMessageDefinition(topicName, currentEncoding.getName()));
+        }
+    }
+
+
     /**
      * Log that this connector does not support the requested event protocol.
      * This protocol level is requested in the configuration.
@@ -345,7 +666,14 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
         if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
         {
-            this.sendEvent(registryEvent.getOMRSEventV1(), true);
+            OMRSEventV1 event = registryEvent.getOMRSEventV1();
+
+            if (event.getRegistryEventSection() != null)
+            {
+                event.getRegistryEventSection().setSupportedEventEncodings(OMRSEventEncoding.getSupportedEncodingNames());
+            }
+
+            this.sendEvent(event, OMRSEventEncoding.JSON, true);
         }
         else
         {
@@ -367,7 +695,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
         if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
         {
-            this.sendEvent(typeDefEvent.getOMRSEventV1(), false);
+            this.sendEvent(typeDefEvent.getOMRSEventV1(), this.getOutboundEventEncoding(), false);
         }
         else
         {
@@ -390,7 +718,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
         if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
         {
-            this.sendEvent(instanceEvent.getOMRSEventV1(), true);
+            this.sendEvent(instanceEvent.getOMRSEventV1(), this.getOutboundEventEncoding(), true);
         }
         else
         {
@@ -403,11 +731,13 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
      * Sends the supplied event outbound to the OMRSTopicListeners using the event bus connectors.
      *
      * @param event OMRSEvent object containing the event properties
+     * @param encoding encoding to use for the event
      * @param logEvent should an audit log message be created?
      * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
      */
-    private void sendEvent(OMRSEventV1 event,
-                           boolean     logEvent) throws ConnectorCheckedException
+    private void sendEvent(OMRSEventV1       event,
+                           OMRSEventEncoding encoding,
+                           boolean           logEvent) throws ConnectorCheckedException
     {
         final String methodName = "send";
 
@@ -415,9 +745,8 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
         {
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                String eventString = objectMapper.writeValueAsString(event);
+                String eventString  = OMRSJSONCodec.writeOMRSEvent(event);
+                String encodedEvent = encoding.encode(eventString);
 
                 if ((auditLog != null) && (logEvent))
                 {
@@ -431,7 +760,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
                 {
                     if (eventBusConnector != null)
                     {
-                        eventBusConnector.sendEvent(eventString);
+                        eventBusConnector.sendEvent(encodedEvent);
                     }
                 }
             }
@@ -474,20 +803,27 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     public void processEvent(String event)
     {
         final String actionDescription = "Process an OMRS Event";
-        final String methodName = "processEvent";
 
         if (event != null)
         {
             OMRSEventBean   eventBean = null;
 
             /*
-             * Parse the string (JSON) event into a bean.
+             * Decode the event and parse the resulting JSON into a bean, unless none of the listeners want it.
+             * The interest check only scans the start of the event, so an event that is discarded is never
+             * converted into a bean, and one that is wanted is converted straight from the JSON.
              */
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
+                String json = OMRSEventEncoding.decode(event);
+
+                if (! interestIndex.mayBeOfInterest(json))
+                {
+                    skippedEventCount.incrementAndGet();
+                    return;
+                }
 
-                eventBean = objectMapper.readValue(event, OMRSEventBean.class);
+                eventBean = OMRSJSONCodec.readOMRSEvent(json);
             }
             catch (Exception   exception)
             {
@@ -505,28 +841,53 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
              */
             if (eventBean instanceof OMRSEventV1)
             {
-                OMRSEventBean finalEventBean = eventBean;
-                internalTopicListeners.parallelStream().forEach((topicListener) ->
+                OMRSEventV1 eventV1 = (OMRSEventV1) eventBean;
+
+                if (eventV1.getEventCategory() == OMRSEventCategory.REGISTRY)
                 {
-                    try
-                    {
-                        this.processOMRSEvent((OMRSEventV1) finalEventBean, topicListener);
-                    }
-                    catch (Throwable  error)
-                    {
-                        log.debug("Unable to pass event to one of the topic listeners");
+                    this.updateMemberEncodings(eventV1);
+                }
 
-                        if (auditLog != null)
+                /*
+                 * Each listener processes the event on its own worker threads.  The event is not complete until
+                 * every listener has processed it.
+                 */
+                InternalOMRSEventProcessingContext processingContext = InternalOMRSEventProcessingContext.getInstance();
+
+                String instanceGUID = null;
+
+                if ((eventV1.getEventCategory() == OMRSEventCategory.INSTANCE) && (eventV1.getInstanceEventSection() != null))
+                {
+                    instanceGUID = eventV1.getInstanceEventSection().getInstanceGUID();
+                }
+
+                OMRSTopicInterestIndex.EventSummary eventSummary = null;
+
+                if (! interestIndex.acceptsAllEvents())
+                {
+                    eventSummary = OMRSTopicInterestIndex.summarizeEvent(eventV1);
+                }
+
+                try
+                {
+                    for (OMRSTopicListenerDispatcher listenerDispatcher : listenerDispatchers)
+                    {
+                        if ((eventSummary != null) && (! eventSummary.isOfInterest(listenerDispatcher.getInterest())))
                         {
-                            auditLog.logException(methodName,
-                                                  OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event,
-                                                                                                            error.toString(),
-                                                                                                            topicListener.toString()),
-                                                  event,
-                                                  error);
+                            continue;
                         }
+
+                        processingContext.addAsyncProcessingResult(listenerDispatcher.dispatchEvent(eventV1,
+                                                                                                    instanceGUID,
+                                                                                                    processingContext.getCurrentMessageId()));
                     }
-                });
+                }
+                catch (InterruptedException interrupted)
+                {
+                    log.debug("Interrupted while passing event to the topic listeners");
+
+                    Thread.currentThread().interrupt();
+                }
             }
         }
         else
@@ -541,6 +902,38 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     }
 
 
+    /**
+     * Pass an event to a listener, logging any error.  This is called on one of the listener's worker threads.
+     *
+     * @param event inbound event
+     * @param topicListener listener that will receive the event.
+     */
+    private void passEventToListener(OMRSEventV1       event,
+                                     OMRSTopicListener topicListener)
+    {
+        final String methodName = "passEventToListener";
+
+        try
+        {
+            this.processOMRSEvent(event, topicListener);
+        }
+        catch (Throwable  error)
+        {
+            log.debug("Unable to pass event to one of the topic listeners");
+
+            if (auditLog != null)
+            {
+                auditLog.logException(methodName,
+                                      OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event.toString(),
+                                                                                                error.toString(),
+                                                                                                topicListener.toString()),
+                                      event.toString(),
+                                      error);
+            }
+        }
+    }
+
+
     /**
      * Process the OMRS Event bean.  The processing is careful of nulls and ignores an event
      * that is incorrectly formatted.  The assumption is that the unformatted part of the message
@@ -623,6 +1016,25 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
             eventBusConnector.disconnect();
         }
 
+        for (OMRSTopicListenerDispatcher listenerDispatcher : listenerDispatchers)
+        {
+            listenerDispatcher.shutdown();
+
+            if (auditLog != null)
+            {
+                OMRSTopicListenerStatistics statistics = listenerDispatcher.getStatistics();
+
+                auditLog.logMessage(actionDescription,
+                                    OMRSAuditCode.OMRS_TOPIC_LISTENER_STATISTICS.getMessageDefinition(topicName,
+                                                                                                     statistics.getListenerName(),
+                                                                                                     Long.toString(statistics.getProcessedEventCount()),
+                                                                                                     Long.toString(statistics.getAverageLag()),
+                                                                                                     Long.toString(statistics.getMaximumLag()),
+                                                                                                     Integer.toString(statistics.getQueueDepth())),
+                                    statistics.toString());
+            }
+        }
+
         if (auditLog != null)
         {
             auditLog.logMessage(actionDescription,
@@ -0,0 +1,574 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * OMRSTopicInterestIndex combines the interests of the listeners registered with an OMRSTopicConnector.  It is
+ * used to discard an inbound event that none of the listeners want before the event is converted into a bean.
+ * The decision is made from a streaming scan of the JSON that stops as soon as the event category and instance
+ * event type are enough to decide.  Only if a listener that wants the event type filters on names is the
+ * instance section scanned for every type name and name in the event.  The names found are a superset of the
+ * type, super type and classification names of the instance that the event is about, so the scan may let
+ * through an event that no listener wants, but never discards one that a listener does want.
+ * <p>
+ * The index is rebuilt each time a listener is added, so a listener's interest must be set up before it is
+ * registered.  If any listener has not declared an interest, every event is passed on.
+ */
+class OMRSTopicInterestIndex
+{
+    private static final Logger      log         = LoggerFactory.getLogger(OMRSTopicInterestIndex.class);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final List<OMRSTopicListenerInterest> interests = new ArrayList<>();
+
+    private volatile CompiledIndex compiledIndex = new CompiledIndex();
+
+
+    /**
+     * Add the interest of a new listener and rebuild the index.
+     *
+     * @param interest interest of the listener - null means all events
+     */
+    synchronized void addInterest(OMRSTopicListenerInterest interest)
+    {
+        interests.add(interest);
+
+        CompiledIndex newIndex = new CompiledIndex();
+
+        for (OMRSTopicListenerInterest listenerInterest : interests)
+        {
+            if (listenerInterest == null)
+            {
+                newIndex.acceptAll = true;
+                break;
+            }
+
+            newIndex.interests.add(listenerInterest);
+
+            if (listenerInterest.getInstanceEventTypes() == null)
+            {
+                newIndex.allInstanceEventTypes = true;
+            }
+            else
+            {
+                newIndex.instanceEventTypes.addAll(listenerInterest.getInstanceEventTypes());
+            }
+
+            if ((listenerInterest.getInstanceTypeNames() == null) && (listenerInterest.getClassificationNames() == null))
+            {
+                newIndex.allNames = true;
+
+                if (listenerInterest.getInstanceEventTypes() == null)
+                {
+                    newIndex.allEventTypesForAllNames = true;
+                }
+                else
+                {
+                    newIndex.eventTypesForAllNames.addAll(listenerInterest.getInstanceEventTypes());
+                }
+            }
+            else
+            {
+                if (listenerInterest.getInstanceTypeNames() != null)
+                {
+                    newIndex.names.addAll(listenerInterest.getInstanceTypeNames());
+                }
+
+                if (listenerInterest.getClassificationNames() != null)
+                {
+                    newIndex.names.addAll(listenerInterest.getClassificationNames());
+                }
+            }
+        }
+
+        compiledIndex = newIndex;
+    }
+
+
+    /**
+     * Return whether every event is passed on.
+     *
+     * @return boolean
+     */
+    boolean acceptsAllEvents()
+    {
+        return compiledIndex.acceptAll;
+    }
+
+
+    /**
+     * Return whether any listener may want the event.  The JSON is scanned only as far as is needed to decide.
+     *
+     * @param json inbound event
+     * @return false if the event can be discarded
+     */
+    boolean mayBeOfInterest(String json)
+    {
+        CompiledIndex index = compiledIndex;
+
+        if ((index.acceptAll) || (json == null))
+        {
+            return true;
+        }
+
+        EventSummary summary = new EventSummary();
+
+        try (JsonParser parser = jsonFactory.createParser(json))
+        {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+            {
+                return true;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                String    fieldName = parser.getCurrentName();
+                JsonToken token     = parser.nextToken();
+
+                if (("eventCategory".equals(fieldName)) && (token == JsonToken.VALUE_STRING))
+                {
+                    summary.category = getEventCategory(parser.getText());
+
+                    /*
+                     * Registry and type events are always passed on since the topic connector itself uses the
+                     * registry events, and they are rare compared with instance events.
+                     */
+                    if (summary.category != OMRSEventCategory.INSTANCE)
+                    {
+                        return true;
+                    }
+                }
+                else if (("instanceEventSection".equals(fieldName)) && (token == JsonToken.START_OBJECT))
+                {
+                    Boolean decision = scanInstanceSection(parser, index, summary);
+
+                    if (decision != null)
+                    {
+                        return decision;
+                    }
+
+                    if (summary.category == OMRSEventCategory.INSTANCE)
+                    {
+                        return isOfInterest(index, summary);
+                    }
+                }
+                else
+                {
+                    parser.skipChildren();
+                }
+            }
+        }
+        catch (IOException error)
+        {
+            log.debug("Unable to scan event for interest index: " + error.getMessage());
+
+            return true;
+        }
+
+        if (summary.category != OMRSEventCategory.INSTANCE)
+        {
+            return true;
+        }
+
+        return isOfInterest(index, summary);
+    }
+
+
+    /**
+     * Scan the instance section of an event for its event type and names.  The names are only collected if the
+     * event type is of interest to a listener that filters on names.  If the event category is already known, the
+     * scan stops as soon as the event type shows that the event is not wanted, or is wanted whatever its names.
+     *
+     * @param parser parser positioned at the start of the instance section
+     * @param index combined interests of the listeners
+     * @param summary summary of the event to fill in
+     * @return decision, or null if the decision needs the rest of the event
+     * @throws IOException the JSON is not valid
+     */
+    private static Boolean scanInstanceSection(JsonParser    parser,
+                                               CompiledIndex index,
+                                               EventSummary  summary) throws IOException
+    {
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String    fieldName = parser.getCurrentName();
+            JsonToken token     = parser.nextToken();
+
+            if (("eventType".equals(fieldName)) && (token == JsonToken.VALUE_STRING))
+            {
+                summary.instanceEventType = getInstanceEventType(parser.getText());
+
+                if (summary.category == OMRSEventCategory.INSTANCE)
+                {
+                    if ((! index.allInstanceEventTypes) && (! index.instanceEventTypes.contains(summary.instanceEventType)))
+                    {
+                        return false;
+                    }
+
+                    if ((index.allEventTypesForAllNames) || (index.eventTypesForAllNames.contains(summary.instanceEventType)))
+                    {
+                        return true;
+                    }
+                }
+            }
+            else if (("typeDefName".equals(fieldName)) && (token == JsonToken.VALUE_STRING))
+            {
+                summary.typeNames.add(parser.getText());
+            }
+            else
+            {
+                addNames(parser, summary.typeNames);
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return whether any listener may want an instance event from the summary built by the scan.
+     *
+     * @param index combined interests of the listeners
+     * @param summary summary of the event
+     * @return false if the event can be discarded
+     */
+    private static boolean isOfInterest(CompiledIndex index,
+                                        EventSummary  summary)
+    {
+        if ((! index.allInstanceEventTypes) && (! index.instanceEventTypes.contains(summary.instanceEventType)))
+        {
+            return false;
+        }
+
+        /*
+         * Any name may be a classification name.
+         */
+        summary.classificationNames = summary.typeNames;
+
+        if (! index.allNames)
+        {
+            boolean nameFound = false;
+
+            for (String name : summary.typeNames)
+            {
+                if (index.names.contains(name))
+                {
+                    nameFound = true;
+                    break;
+                }
+            }
+
+            if (! nameFound)
+            {
+                return false;
+            }
+        }
+
+        for (OMRSTopicListenerInterest interest : index.interests)
+        {
+            if (summary.isOfInterest(interest))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Add the values of every typeDefName and name field within the current value of the parser.  The instance
+     * properties are skipped since they hold the values of the instance rather than its type.
+     *
+     * @param parser parser positioned at the value to scan
+     * @param names set of names to add to
+     * @throws IOException the JSON is not valid
+     */
+    private static void addNames(JsonParser  parser,
+                                 Set<String> names) throws IOException
+    {
+        if ((parser.currentToken() != JsonToken.START_OBJECT) && (parser.currentToken() != JsonToken.START_ARRAY))
+        {
+            return;
+        }
+
+        JsonToken token = parser.nextToken();
+
+        while ((token != null) && (token != JsonToken.END_OBJECT) && (token != JsonToken.END_ARRAY))
+        {
+            if (token == JsonToken.FIELD_NAME)
+            {
+                String fieldName = parser.getCurrentName();
+
+                token = parser.nextToken();
+
+                if ((("typeDefName".equals(fieldName)) || ("name".equals(fieldName))) && (token == JsonToken.VALUE_STRING))
+                {
+                    names.add(parser.getText());
+                }
+                else if ("properties".equals(fieldName))
+                {
+                    parser.skipChildren();
+                }
+                else
+                {
+                    addNames(parser, names);
+                }
+            }
+            else
+            {
+                addNames(parser, names);
+            }
+
+            token = parser.nextToken();
+        }
+    }
+
+
+    /**
+     * Return the event category with the supplied name.
+     *
+     * @param name name of the enum value
+     * @return event category or UNKNOWN
+     */
+    private static OMRSEventCategory getEventCategory(String name)
+    {
+        for (OMRSEventCategory eventCategory : OMRSEventCategory.values())
+        {
+            if (eventCategory.name().equals(name))
+            {
+                return eventCategory;
+            }
+        }
+
+        return OMRSEventCategory.UNKNOWN;
+    }
+
+
+    /**
+     * Return the instance event type with the supplied name.
+     *
+     * @param name name of the enum value
+     * @return event type or UNKNOWN_INSTANCE_EVENT
+     */
+    private static OMRSInstanceEventType getInstanceEventType(String name)
+    {
+        for (OMRSInstanceEventType eventType : OMRSInstanceEventType.values())
+        {
+            if (eventType.name().equals(name))
+            {
+                return eventType;
+            }
+        }
+
+        return OMRSInstanceEventType.UNKNOWN_INSTANCE_EVENT;
+    }
+
+
+    /**
+     * Return the summary of an event bean that is used to test the interest of each listener.
+     *
+     * @param event inbound event
+     * @return summary
+     */
+    static EventSummary summarizeEvent(OMRSEventV1 event)
+    {
+        EventSummary summary = new EventSummary();
+
+        summary.category = event.getEventCategory();
+
+        OMRSEventV1InstanceSection instanceSection = event.getInstanceEventSection();
+
+        if ((summary.category == OMRSEventCategory.INSTANCE) && (instanceSection != null))
+        {
+            summary.instanceEventType = instanceSection.getEventType();
+
+            if (instanceSection.getTypeDefName() != null)
+            {
+                summary.typeNames.add(instanceSection.getTypeDefName());
+            }
+
+            if (instanceSection.getOriginalTypeDefSummary() != null)
+            {
+                summary.typeNames.add(instanceSection.getOriginalTypeDefSummary().getName());
+            }
+
+            summary.addEntity(instanceSection.getOriginalEntity());
+            summary.addEntity(instanceSection.getEntity());
+            summary.addEntity(instanceSection.getEntityProxy());
+            summary.addInstance(instanceSection.getOriginalRelationship());
+            summary.addInstance(instanceSection.getRelationship());
+            summary.addClassification(instanceSection.getOriginalClassification());
+            summary.addClassification(instanceSection.getClassification());
+
+            InstanceGraph instanceBatch = instanceSection.getInstanceBatch();
+
+            if (instanceBatch != null)
+            {
+                if (instanceBatch.getEntities() != null)
+                {
+                    for (EntityDetail entity : instanceBatch.getEntities())
+                    {
+                        summary.addEntity(entity);
+                    }
+                }
+
+                if (instanceBatch.getRelationships() != null)
+                {
+                    for (Relationship relationship : instanceBatch.getRelationships())
+                    {
+                        summary.addInstance(relationship);
+                    }
+                }
+            }
+        }
+
+        return summary;
+    }
+
+
+    /**
+     * EventSummary holds the properties of an event that are used to decide whether it is of interest to a
+     * listener.
+     */
+    static class EventSummary
+    {
+        private OMRSEventCategory     category            = OMRSEventCategory.UNKNOWN;
+        private OMRSInstanceEventType instanceEventType   = null;
+        private final Set<String>     typeNames           = new HashSet<>();
+        private Set<String>           classificationNames = new HashSet<>();
+
+
+        /**
+         * Add the type names and classification names of an entity.
+         *
+         * @param entity entity from the event
+         */
+        private void addEntity(EntitySummary entity)
+        {
+            if (entity != null)
+            {
+                this.addInstance(entity);
+
+                if (entity.getClassifications() != null)
+                {
+                    for (Classification classification : entity.getClassifications())
+                    {
+                        this.addClassification(classification);
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Add the type name and super type names of an instance.
+         *
+         * @param instance instance from the event
+         */
+        private void addInstance(InstanceAuditHeader instance)
+        {
+            if ((instance != null) && (instance.getType() != null))
+            {
+                InstanceType instanceType = instance.getType();
+
+                typeNames.add(instanceType.getTypeDefName());
+
+                if (instanceType.getTypeDefSuperTypes() != null)
+                {
+                    for (TypeDefLink superType : instanceType.getTypeDefSuperTypes())
+                    {
+                        if (superType != null)
+                        {
+                            typeNames.add(superType.getName());
+                        }
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Add the name of a classification.
+         *
+         * @param classification classification from the event
+         */
+        private void addClassification(Classification classification)
+        {
+            if (classification != null)
+            {
+                classificationNames.add(classification.getName());
+            }
+        }
+
+
+        /**
+         * Return whether the event is of interest to a listener.
+         *
+         * @param interest interest of the listener - null means all events
+         * @return boolean
+         */
+        boolean isOfInterest(OMRSTopicListenerInterest interest)
+        {
+            if (interest == null)
+            {
+                return true;
+            }
+
+            switch (category)
+            {
+                case REGISTRY:
+                    return interest.getRegistryEvents();
+
+                case TYPEDEF:
+                    return interest.getTypeDefEvents();
+
+                case INSTANCE:
+                    return interest.isInterestedInInstanceEvent(instanceEventType, typeNames, classificationNames);
+
+                default:
+                    return true;
+            }
+        }
+    }
+
+
+    /**
+     * CompiledIndex is an immutable combination of the listeners' interests.
+     */
+    private static class CompiledIndex
+    {
+        private boolean                               acceptAll                = false;
+        private boolean                               allInstanceEventTypes    = false;
+        private boolean                               allNames                 = false;
+        private boolean                               allEventTypesForAllNames = false;
+        private final Set<OMRSInstanceEventType>      instanceEventTypes       = new HashSet<>();
+        private final Set<OMRSInstanceEventType>      eventTypesForAllNames    = new HashSet<>();
+        private final Set<String>                     names                    = new HashSet<>();
+        private final List<OMRSTopicListenerInterest> interests                = new ArrayList<>();
+    }
+}
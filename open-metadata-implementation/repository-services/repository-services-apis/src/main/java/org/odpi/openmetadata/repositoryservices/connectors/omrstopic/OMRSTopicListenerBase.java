@@ -27,6 +27,8 @@ public class OMRSTopicListenerBase implements OMRSTopicListener
     protected String   serviceName;
     protected AuditLog auditLog = null;
 
+    private OMRSTopicListenerInterest eventInterest = null;
+
 
     /**
      * Name of the service that this is listening on behalf of.
@@ -53,6 +55,30 @@ public class OMRSTopicListenerBase implements OMRSTopicListener
     }
 
 
+    /**
+     * Return the events that this listener wishes to receive.  The OMRSTopicConnector discards the other events
+     * before they reach the listener.
+     *
+     * @return interest or null for all events
+     */
+    public OMRSTopicListenerInterest getEventInterest()
+    {
+        return eventInterest;
+    }
+
+
+    /**
+     * Set up the events that this listener wishes to receive.  This must be called before the listener is
+     * registered with the OMRSTopicConnector.
+     *
+     * @param eventInterest interest or null for all events
+     */
+    protected void setEventInterest(OMRSTopicListenerInterest eventInterest)
+    {
+        this.eventInterest = eventInterest;
+    }
+
+
     /**
      * Log an audit log message to record an unexpected exception.  We should never see this message.
      * It indicates a logic error in the service that threw the exception.
@@ -0,0 +1,374 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.future.OMRSFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * OMRSTopicListenerDispatcher passes inbound OMRS events to one of the OMRSTopicConnector's internal listeners on
+ * the listener's own worker threads.  This means a slow listener does not delay the other listeners.
+ * <p>
+ * Each worker thread has a bounded queue.  Instance events are assigned to a worker using the hash of the instance's
+ * GUID so the events for an instance are processed in the order they were received.  Registry and type events
+ * are processed by the first worker once all the other workers have finished with the events received before them.
+ * The other workers wait until the event is processed.  This keeps the instance events in order with the type
+ * events that they depend on.  With a single worker (the default), the listener sees all events in the order they
+ * were received.
+ * <p>
+ * When a worker's queue is full, the thread passing in the event waits.  This slows the topic connector's listener
+ * thread and so the event bus connector stops retrieving events from the event bus until the listeners catch up.
+ * The wait ends when the dispatcher is shutdown so that a slow listener can not prevent the topic from disconnecting.
+ */
+class OMRSTopicListenerDispatcher
+{
+    private static final Logger log = LoggerFactory.getLogger(OMRSTopicListenerDispatcher.class);
+
+    /*
+     * How often (in milliseconds) a thread waiting for space on a worker's queue checks whether the
+     * dispatcher has been shutdown.
+     */
+    private static final long queueWaitTime = 100L;
+
+    private final String                               listenerName;
+    private final OMRSTopicListenerInterest            interest;
+    private final Consumer<OMRSEventV1>                eventProcessor;
+    private final List<BlockingQueue<DispatchedEvent>> workerQueues  = new ArrayList<>();
+    private final List<Thread>                         workerThreads = new ArrayList<>();
+
+    private volatile boolean keepRunning = true;
+
+    private final AtomicLong processedEventCount = new AtomicLong(0);
+    private final AtomicLong totalLag            = new AtomicLong(0);
+    private final AtomicLong maxLag              = new AtomicLong(0);
+
+
+    /**
+     * Constructor starts the worker threads.
+     *
+     * @param listenerName name of the listener used in thread names and statistics
+     * @param interest events that the listener wishes to receive - null means all events
+     * @param eventProcessor function that passes an event to the listener
+     * @param workerCount number of worker threads
+     * @param queueSize maximum number of events waiting for each worker
+     */
+    OMRSTopicListenerDispatcher(String                    listenerName,
+                                OMRSTopicListenerInterest interest,
+                                Consumer<OMRSEventV1>     eventProcessor,
+                                int                       workerCount,
+                                int                       queueSize)
+    {
+        this.listenerName = listenerName;
+        this.interest = interest;
+        this.eventProcessor = eventProcessor;
+
+        for (int workerIndex = 0; workerIndex < Math.max(workerCount, 1); workerIndex++)
+        {
+            final BlockingQueue<DispatchedEvent> workerQueue  = new ArrayBlockingQueue<>(Math.max(queueSize, 1));
+            final Thread                         workerThread = new Thread(() -> this.processEvents(workerQueue),
+                                                                           listenerName + " OMRSTopicListener:" + workerIndex);
+
+            workerThread.setDaemon(true);
+            workerThread.start();
+
+            workerQueues.add(workerQueue);
+            workerThreads.add(workerThread);
+        }
+    }
+
+
+    /**
+     * Return the events that the listener wishes to receive.
+     *
+     * @return interest or null for all events
+     */
+    OMRSTopicListenerInterest getInterest()
+    {
+        return interest;
+    }
+
+
+    /**
+     * Queue an event for the listener.  This method waits if the queue for the event's worker is full.
+     * It must be called from one thread at a time so that the events are queued in the same order for every worker.
+     *
+     * @param event event to pass to the listener
+     * @param instanceGUID unique identifier of the instance that the event is about - null for registry and type events
+     * @param messageId identifier of the event on the event bus
+     * @return future that completes once the listener has processed the event
+     * @throws InterruptedException the calling thread was interrupted while waiting for space on a queue, or the
+     *                              dispatcher has been shutdown
+     */
+    synchronized OMRSFuture dispatchEvent(OMRSEventV1 event,
+                                          String      instanceGUID,
+                                          String      messageId) throws InterruptedException
+    {
+        DispatchedEvent dispatchedEvent = new DispatchedEvent(event, messageId);
+
+        if (workerQueues.size() == 1)
+        {
+            this.queueEvent(workerQueues.get(0), dispatchedEvent);
+        }
+        else if (instanceGUID != null)
+        {
+            this.queueEvent(workerQueues.get(Math.floorMod(instanceGUID.hashCode(), workerQueues.size())), dispatchedEvent);
+        }
+        else
+        {
+            /*
+             * The other workers wait at the barrier until the first worker has processed the event.
+             */
+            dispatchedEvent.barrierArrivals = new CountDownLatch(workerQueues.size() - 1);
+            dispatchedEvent.barrierRelease  = new CountDownLatch(1);
+
+            for (int workerIndex = 1; workerIndex < workerQueues.size(); workerIndex++)
+            {
+                this.queueEvent(workerQueues.get(workerIndex), new DispatchedEvent(dispatchedEvent));
+            }
+
+            this.queueEvent(workerQueues.get(0), dispatchedEvent);
+        }
+
+        return dispatchedEvent;
+    }
+
+
+    /**
+     * Add an event to a worker's queue, waiting while the queue is full.
+     *
+     * @param workerQueue queue for the worker
+     * @param dispatchedEvent event to add
+     * @throws InterruptedException the calling thread was interrupted or the dispatcher has been shutdown
+     */
+    private void queueEvent(BlockingQueue<DispatchedEvent> workerQueue,
+                            DispatchedEvent                dispatchedEvent) throws InterruptedException
+    {
+        while (keepRunning)
+        {
+            if (workerQueue.offer(dispatchedEvent, queueWaitTime, TimeUnit.MILLISECONDS))
+            {
+                if (keepRunning)
+                {
+                    return;
+                }
+
+                /*
+                 * The shutdown cleared the queue just before this event was added.
+                 */
+                workerQueue.remove(dispatchedEvent);
+            }
+        }
+
+        throw new InterruptedException("The dispatcher for listener " + listenerName + " has been shutdown");
+    }
+
+
+    /**
+     * The work of a worker thread.  Events are taken from the queue and passed to the listener until the
+     * dispatcher is shutdown.
+     *
+     * @param workerQueue queue for this worker
+     */
+    private void processEvents(BlockingQueue<DispatchedEvent> workerQueue)
+    {
+        while (keepRunning)
+        {
+            DispatchedEvent dispatchedEvent;
+
+            try
+            {
+                dispatchedEvent = workerQueue.take();
+            }
+            catch (InterruptedException wakeUp)
+            {
+                continue;
+            }
+
+            try
+            {
+                if (dispatchedEvent.event == null)
+                {
+                    /*
+                     * This is a barrier for a registry or type event that is processed by the first worker.
+                     */
+                    dispatchedEvent.barrierArrivals.countDown();
+                    dispatchedEvent.barrierRelease.await();
+                }
+                else
+                {
+                    if (dispatchedEvent.barrierArrivals != null)
+                    {
+                        dispatchedEvent.barrierArrivals.await();
+                    }
+
+                    this.processEvent(dispatchedEvent);
+                }
+            }
+            catch (InterruptedException wakeUp)
+            {
+                log.debug("Worker for listener " + listenerName + " interrupted at a barrier");
+            }
+            finally
+            {
+                if ((dispatchedEvent.event != null) && (dispatchedEvent.barrierRelease != null))
+                {
+                    dispatchedEvent.barrierRelease.countDown();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Pass an event to the listener, recording any asynchronous processing started by the listener.
+     *
+     * @param dispatchedEvent event to process
+     */
+    private void processEvent(DispatchedEvent dispatchedEvent)
+    {
+        long lag = System.currentTimeMillis() - dispatchedEvent.dispatchTime;
+
+        processedEventCount.incrementAndGet();
+        totalLag.addAndGet(lag);
+        maxLag.accumulateAndGet(lag, Math::max);
+
+        InternalOMRSEventProcessingContext.clear();
+        InternalOMRSEventProcessingContext.getInstance().setCurrentMessageId(dispatchedEvent.messageId);
+
+        try
+        {
+            eventProcessor.accept(dispatchedEvent.event);
+        }
+        finally
+        {
+            dispatchedEvent.asyncProcessingResult = InternalOMRSEventProcessingContext.getInstance().getOverallAsyncProcessingResult();
+            dispatchedEvent.processed = true;
+
+            InternalOMRSEventProcessingContext.clear();
+        }
+    }
+
+
+    /**
+     * Stop the worker threads.  Events still on the queues are not processed.  A thread waiting to add an event
+     * to a queue stops waiting.
+     */
+    void shutdown()
+    {
+        keepRunning = false;
+
+        for (Thread workerThread : workerThreads)
+        {
+            workerThread.interrupt();
+        }
+
+        for (BlockingQueue<DispatchedEvent> workerQueue : workerQueues)
+        {
+            workerQueue.clear();
+        }
+    }
+
+
+    /**
+     * Return the current statistics for the listener.
+     *
+     * @return statistics snapshot
+     */
+    OMRSTopicListenerStatistics getStatistics()
+    {
+        int queueDepth = 0;
+
+        for (BlockingQueue<DispatchedEvent> workerQueue : workerQueues)
+        {
+            queueDepth = queueDepth + workerQueue.size();
+        }
+
+        long eventCount = processedEventCount.get();
+
+        return new OMRSTopicListenerStatistics(listenerName,
+                                               workerQueues.size(),
+                                               queueDepth,
+                                               eventCount,
+                                               eventCount == 0 ? 0 : totalLag.get() / eventCount,
+                                               maxLag.get());
+    }
+
+
+    /**
+     * DispatchedEvent is an event on a worker's queue.  It is also the future returned to the caller.  A barrier
+     * entry for the workers that do not process a registry or type event has no event.
+     */
+    private static class DispatchedEvent implements OMRSFuture
+    {
+        private final OMRSEventV1 event;
+        private final String      messageId;
+        private final long        dispatchTime;
+
+        private CountDownLatch barrierArrivals = null;
+        private CountDownLatch barrierRelease  = null;
+
+        private volatile boolean    processed             = false;
+        private volatile OMRSFuture asyncProcessingResult = null;
+
+
+        /**
+         * Constructor for an event to process.
+         *
+         * @param event event to pass to the listener
+         * @param messageId identifier of the event on the event bus
+         */
+        DispatchedEvent(OMRSEventV1 event,
+                        String      messageId)
+        {
+            this.event = event;
+            this.messageId = messageId;
+            this.dispatchTime = System.currentTimeMillis();
+        }
+
+
+        /**
+         * Constructor for a barrier entry.
+         *
+         * @param barrierEvent event that the barrier waits for
+         */
+        DispatchedEvent(DispatchedEvent barrierEvent)
+        {
+            this.event = null;
+            this.messageId = barrierEvent.messageId;
+            this.dispatchTime = barrierEvent.dispatchTime;
+            this.barrierArrivals = barrierEvent.barrierArrivals;
+            this.barrierRelease = barrierEvent.barrierRelease;
+        }
+
+
+        /**
+         * The event is done once the listener has processed it and any asynchronous processing that the
+         * listener started is complete.
+         *
+         * @return boolean
+         */
+        @Override
+        public boolean isDone()
+        {
+            if (! processed)
+            {
+                return false;
+            }
+
+            OMRSFuture asyncResult = asyncProcessingResult;
+
+            return (asyncResult == null) || (asyncResult.isDone());
+        }
+    }
+}
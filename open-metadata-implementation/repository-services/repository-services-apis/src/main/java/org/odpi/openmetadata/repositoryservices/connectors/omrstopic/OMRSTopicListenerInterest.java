@@ -0,0 +1,227 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * OMRSTopicListenerInterest describes the events that a topic listener wishes to receive.  It is used by the
+ * OMRSTopicConnector to discard events before they are passed to the listener.  By default, every event is of
+ * interest.  A listener narrows its interest by turning off registry and type events and by listing the
+ * instance event types, type names and classification names it cares about.
+ * <p>
+ * An instance event is of interest if its event type is listed (or no event types are listed) and either
+ * no type names or classification names are listed, or the type (or one of the super types) of the instance
+ * that the event is about is listed, or the instance has one of the listed classifications.
+ */
+public class OMRSTopicListenerInterest
+{
+    private boolean                     registryEvents      = true;
+    private boolean                     typeDefEvents       = true;
+    private List<OMRSInstanceEventType> instanceEventTypes  = null;
+    private List<String>                instanceTypeNames   = null;
+    private List<String>                classificationNames = null;
+
+
+    /**
+     * Default constructor - every event is of interest.
+     */
+    public OMRSTopicListenerInterest()
+    {
+    }
+
+
+    /**
+     * Return whether registry events are of interest.
+     *
+     * @return boolean
+     */
+    public boolean getRegistryEvents()
+    {
+        return registryEvents;
+    }
+
+
+    /**
+     * Set up whether registry events are of interest.
+     *
+     * @param registryEvents boolean
+     */
+    public void setRegistryEvents(boolean registryEvents)
+    {
+        this.registryEvents = registryEvents;
+    }
+
+
+    /**
+     * Return whether type events are of interest.
+     *
+     * @return boolean
+     */
+    public boolean getTypeDefEvents()
+    {
+        return typeDefEvents;
+    }
+
+
+    /**
+     * Set up whether type events are of interest.
+     *
+     * @param typeDefEvents boolean
+     */
+    public void setTypeDefEvents(boolean typeDefEvents)
+    {
+        this.typeDefEvents = typeDefEvents;
+    }
+
+
+    /**
+     * Return the instance event types of interest.  Null means all instance event types.
+     *
+     * @return list of event types
+     */
+    public List<OMRSInstanceEventType> getInstanceEventTypes()
+    {
+        if (instanceEventTypes == null)
+        {
+            return null;
+        }
+
+        return new ArrayList<>(instanceEventTypes);
+    }
+
+
+    /**
+     * Set up the instance event types of interest.  Null means all instance event types.
+     *
+     * @param instanceEventTypes list of event types
+     */
+    public void setInstanceEventTypes(List<OMRSInstanceEventType> instanceEventTypes)
+    {
+        this.instanceEventTypes = instanceEventTypes == null ? null : new ArrayList<>(instanceEventTypes);
+    }
+
+
+    /**
+     * Return the names of the types of instance that are of interest.  Instances of subtypes are also of interest.
+     *
+     * @return list of type names
+     */
+    public List<String> getInstanceTypeNames()
+    {
+        if (instanceTypeNames == null)
+        {
+            return null;
+        }
+
+        return new ArrayList<>(instanceTypeNames);
+    }
+
+
+    /**
+     * Set up the names of the types of instance that are of interest.  Instances of subtypes are also of interest.
+     *
+     * @param instanceTypeNames list of type names
+     */
+    public void setInstanceTypeNames(List<String> instanceTypeNames)
+    {
+        this.instanceTypeNames = instanceTypeNames == null ? null : new ArrayList<>(instanceTypeNames);
+    }
+
+
+    /**
+     * Return the names of the classifications that make an entity of interest.
+     *
+     * @return list of classification names
+     */
+    public List<String> getClassificationNames()
+    {
+        if (classificationNames == null)
+        {
+            return null;
+        }
+
+        return new ArrayList<>(classificationNames);
+    }
+
+
+    /**
+     * Set up the names of the classifications that make an entity of interest.
+     *
+     * @param classificationNames list of classification names
+     */
+    public void setClassificationNames(List<String> classificationNames)
+    {
+        this.classificationNames = classificationNames == null ? null : new ArrayList<>(classificationNames);
+    }
+
+
+    /**
+     * Return whether an instance event is of interest.
+     *
+     * @param eventType type of instance event (may be null for unknown event types)
+     * @param typeNames names of the type of the instance and its super types
+     * @param classificationNames names of the classifications of the instance
+     * @return boolean
+     */
+    boolean isInterestedInInstanceEvent(OMRSInstanceEventType eventType,
+                                        Set<String>           typeNames,
+                                        Set<String>           classificationNames)
+    {
+        if ((instanceEventTypes != null) && (! instanceEventTypes.contains(eventType)))
+        {
+            return false;
+        }
+
+        if ((this.instanceTypeNames == null) && (this.classificationNames == null))
+        {
+            return true;
+        }
+
+        if (this.instanceTypeNames != null)
+        {
+            for (String typeName : this.instanceTypeNames)
+            {
+                if (typeNames.contains(typeName))
+                {
+                    return true;
+                }
+            }
+        }
+
+        if (this.classificationNames != null)
+        {
+            for (String classificationName : this.classificationNames)
+            {
+                if (classificationNames.contains(classificationName))
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSTopicListenerInterest{" +
+                       "registryEvents=" + registryEvents +
+                       ", typeDefEvents=" + typeDefEvents +
+                       ", instanceEventTypes=" + instanceEventTypes +
+                       ", instanceTypeNames=" + instanceTypeNames +
+                       ", classificationNames=" + classificationNames +
+                       '}';
+    }
+}
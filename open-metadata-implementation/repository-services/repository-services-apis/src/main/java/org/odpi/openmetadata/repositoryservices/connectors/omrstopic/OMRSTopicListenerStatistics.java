@@ -0,0 +1,129 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+/**
+ * OMRSTopicListenerStatistics is a snapshot of the statistics of one of the OMRSTopicConnector's internal listeners.
+ * The lag is the time between the event being passed to the listener's queue and the listener starting to
+ * process it.
+ */
+public class OMRSTopicListenerStatistics
+{
+    private final String listenerName;
+    private final int    workerCount;
+    private final int    queueDepth;
+    private final long   processedEventCount;
+    private final long   averageLag;
+    private final long   maximumLag;
+
+
+    /**
+     * Constructor
+     *
+     * @param listenerName name of the service that owns the listener
+     * @param workerCount number of worker threads for the listener
+     * @param queueDepth number of events waiting for the listener
+     * @param processedEventCount number of events passed to the listener
+     * @param averageLag average lag in milliseconds
+     * @param maximumLag maximum lag in milliseconds
+     */
+    OMRSTopicListenerStatistics(String listenerName,
+                                int    workerCount,
+                                int    queueDepth,
+                                long   processedEventCount,
+                                long   averageLag,
+                                long   maximumLag)
+    {
+        this.listenerName = listenerName;
+        this.workerCount = workerCount;
+        this.queueDepth = queueDepth;
+        this.processedEventCount = processedEventCount;
+        this.averageLag = averageLag;
+        this.maximumLag = maximumLag;
+    }
+
+
+    /**
+     * Return the name of the service that owns the listener.
+     *
+     * @return name
+     */
+    public String getListenerName()
+    {
+        return listenerName;
+    }
+
+
+    /**
+     * Return the number of worker threads for the listener.
+     *
+     * @return count
+     */
+    public int getWorkerCount()
+    {
+        return workerCount;
+    }
+
+
+    /**
+     * Return the number of events waiting for the listener.
+     *
+     * @return count
+     */
+    public int getQueueDepth()
+    {
+        return queueDepth;
+    }
+
+
+    /**
+     * Return the number of events passed to the listener.
+     *
+     * @return count
+     */
+    public long getProcessedEventCount()
+    {
+        return processedEventCount;
+    }
+
+
+    /**
+     * Return the average time that events have waited for the listener.
+     *
+     * @return milliseconds
+     */
+    public long getAverageLag()
+    {
+        return averageLag;
+    }
+
+
+    /**
+     * Return the longest time that an event has waited for the listener.
+     *
+     * @return milliseconds
+     */
+    public long getMaximumLag()
+    {
+        return maximumLag;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSTopicListenerStatistics{" +
+                       "listenerName='" + listenerName + '\'' +
+                       ", workerCount=" + workerCount +
+                       ", queueDepth=" + queueDepth +
+                       ", processedEventCount=" + processedEventCount +
+                       ", averageLag=" + averageLag +
+                       ", maximumLag=" + maximumLag +
+                       '}';
+    }
+}
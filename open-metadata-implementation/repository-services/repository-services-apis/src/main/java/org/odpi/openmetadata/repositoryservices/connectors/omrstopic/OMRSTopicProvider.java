@@ -11,6 +11,23 @@ import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
  */
 public class OMRSTopicProvider extends ConnectorProviderBase
 {
+    /**
+     * Name of the encoding to use for the instance and type events sent to the cohort (see OMRSEventEncoding).
+     * The default is JSON.
+     */
+    public static final String eventEncodingProperty = "eventEncoding";
+
+    /**
+     * Number of worker threads that pass inbound events to each internal listener.  The default is one, which
+     * means each listener receives the events in the order they were received from the topic.
+     */
+    public static final String listenerWorkersProperty = "listenerWorkers";
+
+    /**
+     * Maximum number of inbound events waiting for each worker thread.  The default is 1000.
+     */
+    public static final String listenerQueueSizeProperty = "listenerQueueSize";
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * OMRS Connector implementation.
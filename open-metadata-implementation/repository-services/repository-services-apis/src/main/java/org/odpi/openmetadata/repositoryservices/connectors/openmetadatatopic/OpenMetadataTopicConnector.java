@@ -2,19 +2,36 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.auditlog.ComponentDescription;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSEventEncoding;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.InternalOMRSEventProcessingContext;
+import org.odpi.openmetadata.repositoryservices.events.future.OMRSFutureImpl;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
 import org.slf4j.Logger;
@@ -26,7 +43,10 @@ import org.slf4j.LoggerFactory;
  * extend this class to include the interaction with the eventing/messaging layer.
  * <ul>
  *     <li>
- *         For inbound events it should call the protected distributeEvents() method.
+ *         For inbound events it should call the protected pushIncomingEvent() method as each event arrives.
+ *         Alternatively, it can override checkForIncomingEvents() to return the events that have arrived since
+ *         the last call.  This is called whenever the listener thread has no events to process, and at least
+ *         every sleepTime milliseconds.
  *     </li>
  *     <li>
  *         For outbound events, callers will invoke the sendEvent() method.
@@ -35,6 +55,15 @@ import org.slf4j.LoggerFactory;
  *         When the server no longer needs the topic, it will call disconnect().
  *     </li>
  * </ul>
+ * The listener thread passes each event to the registered listeners in turn.  If the listenerThreads configuration
+ * property is set, each listener is given its own pool of worker threads.  Events with the same ordering key
+ * (by default the first instance GUID in the event) are always passed to the same worker thread, so that each
+ * listener sees the events for an instance in the order they were received.  Events with no ordering key (OMRS
+ * registry and type events) are processed by the first worker thread once all the other worker threads have
+ * finished with the events received before them.  The other worker threads wait until the event is processed.
+ * This keeps the instance events in order with the type events that they depend on.  Each worker thread has a
+ * queue that holds up to listenerQueueSize events.  When it is full, the listener thread waits for the worker
+ * thread to catch up.
  */
 public abstract class OpenMetadataTopicConnector extends ConnectorBase implements OpenMetadataTopic,
                                                                                   Runnable,
@@ -45,12 +74,35 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     private static final String       defaultThreadName = "OpenMetadataTopicListener";
     private static final String       defaultTopicName  = "OpenMetadataTopic";
 
+    private static final String       instanceEventCategory = "INSTANCE";
+
+    private static final JsonFactory  jsonFactory = new JsonFactory();
+
     private volatile boolean keepRunning = false;
 
     private final List<OpenMetadataTopicListener> topicListeners     = new ArrayList<>();
     private String                                listenerThreadName = defaultThreadName;
     private String                                topicName          = defaultTopicName;
     private int                                   sleepTime          = 100;
+    private int                                   listenerThreads    = 0;
+    private int                                   listenerQueueSize  = 1000;
+
+    private final BlockingQueue<IncomingEvent>    incomingEvents     = new LinkedBlockingQueue<>();
+
+    /*
+     * Worker threads for each listener - only used when listenerThreads is greater than zero.
+     * They are created by the listener thread as it passes the first event to each listener.
+     */
+    private final Map<OpenMetadataTopicListener, ThreadPoolExecutor[]> listenerWorkers = new IdentityHashMap<>();
+
+    /*
+     * All the worker threads, so that other threads can count the events waiting in their queues.
+     */
+    private final List<ThreadPoolExecutor> allWorkers = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong dispatchedEventCount  = new AtomicLong(0);
+    private final AtomicLong totalDispatchLatency  = new AtomicLong(0);
+    private final AtomicLong maxDispatchLatency    = new AtomicLong(0);
 
     protected AuditLog auditLog = null;
 
@@ -102,8 +154,17 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
             auditLog.logMessage(listenerThreadName,
                                 OMRSAuditCode.OPEN_METADATA_TOPIC_LISTENER_START.getMessageDefinition(topicName),
                                 this.getConnection().toString());
+
+            if (listenerThreads > 0)
+            {
+                auditLog.logMessage(listenerThreadName,
+                                    OMRSAuditCode.OPEN_METADATA_TOPIC_LISTENER_WORKERS.getMessageDefinition(topicName,
+                                                                                                             Integer.toString(listenerThreads)));
+            }
         }
 
+        boolean eventsDispatched = false;
+
         while (keepRunning)
         {
             try
@@ -112,13 +173,13 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                 {
                     List<IncomingEvent> receivedEvents = checkForIncomingEvents();
 
-                    if ((receivedEvents != null) && (!receivedEvents.isEmpty()))
+                    if (receivedEvents != null)
                     {
                         for (IncomingEvent event : receivedEvents)
                         {
                             if (event != null)
                             {
-                                this.distributeEvent(event);
+                                incomingEvents.add(event);
                             }
                         }
                     }
@@ -128,7 +189,36 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                     log.error("Bad exception from checkForEvents", error);
                 }
 
-                Thread.sleep(sleepTime);
+                /*
+                 * Only wait for new events if the last pass found nothing to do.  Otherwise, go straight
+                 * back to look for more.  An event pushed onto the queue ends the wait immediately.
+                 */
+                IncomingEvent event;
+
+                if (eventsDispatched)
+                {
+                    event = incomingEvents.poll();
+                }
+                else
+                {
+                    event = incomingEvents.poll(sleepTime, TimeUnit.MILLISECONDS);
+                }
+
+                eventsDispatched = (event != null);
+
+                while (event != null)
+                {
+                    try
+                    {
+                        this.distributeEvent(event);
+                    }
+                    catch (Throwable   error)
+                    {
+                        log.error("Bad exception from distributeEvent", error);
+                    }
+
+                    event = incomingEvents.poll();
+                }
             }
             catch (InterruptedException   wakeUp)
             {
@@ -136,8 +226,19 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
             }
         }
 
+        for (ThreadPoolExecutor worker : allWorkers)
+        {
+            worker.shutdown();
+        }
+
         if (auditLog != null)
         {
+            auditLog.logMessage(listenerThreadName,
+                                OMRSAuditCode.OPEN_METADATA_TOPIC_DISPATCH_STATISTICS.getMessageDefinition(topicName,
+                                                                                                        Long.toString(this.getDispatchedEventCount()),
+                                                                                                        Long.toString(this.getAverageDispatchLatency()),
+                                                                                                        Long.toString(this.getMaximumDispatchLatency())));
+
             auditLog.logMessage(listenerThreadName,
                                 OMRSAuditCode.OPEN_METADATA_TOPIC_LISTENER_SHUTDOWN.getMessageDefinition(topicName),
                                 this.getConnection().toString());
@@ -152,28 +253,21 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
      */
     private void distributeEvent(IncomingEvent event)
     {
+        this.recordDispatchLatency(System.currentTimeMillis() - event.getCreationTime());
+
+        if (listenerThreads > 0)
+        {
+            this.distributeEventToWorkers(event);
+            return;
+        }
+
         //Initially clear the async event processing context to ensure that it will only
         //have results from processing this event
         InternalOMRSEventProcessingContext.clear();
         InternalOMRSEventProcessingContext.getInstance().setCurrentMessageId(event.getMessageId());
         for (OpenMetadataTopicListener  topicListener : topicListeners)
         {
-            try
-            {
-                topicListener.processEvent(event.getJson());
-            }
-            catch (Exception  error)
-            {
-                final String   actionDescription = "distributeEvent";
-
-                if (auditLog != null)
-                {
-                    auditLog.logException(actionDescription,
-                                          OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event.getJson(), error.toString()),
-                                          event.getJson(),
-                                          error);
-                }
-            }
+            this.passEventToListener(topicListener, event);
         }
         
         //Change the state once all listeners have at least seen the event
@@ -188,6 +282,400 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Pass an event to the worker thread of each registered listener that is responsible for the event's
+     * ordering key.  An event without an ordering key is passed to the first worker thread, and a barrier is
+     * queued for each of the other worker threads.  The work done by each worker thread is recorded as
+     * asynchronous processing for the event so the event is not reported as fully processed until every
+     * listener has finished with it.
+     *
+     * @param event OMRSEvent to distribute
+     */
+    private void distributeEventToWorkers(IncomingEvent event)
+    {
+        String orderingKey = this.getOrderingKey(event);
+
+        for (OpenMetadataTopicListener  topicListener : topicListeners)
+        {
+            ThreadPoolExecutor[] workers = this.getListenerWorkers(topicListener);
+            Future<?>            processingResult;
+
+            if ((orderingKey != null) || (listenerThreads == 1))
+            {
+                int workerIndex = (orderingKey == null) ? 0 : Math.floorMod(orderingKey.hashCode(), listenerThreads);
+
+                processingResult = workers[workerIndex].submit(() -> this.processEventOnWorker(topicListener, event));
+            }
+            else
+            {
+                /*
+                 * The other workers wait at the barrier until the first worker has processed the event.
+                 */
+                final CountDownLatch barrierArrivals = new CountDownLatch(listenerThreads - 1);
+                final CountDownLatch barrierRelease  = new CountDownLatch(1);
+
+                for (int workerIndex = 1; workerIndex < listenerThreads; workerIndex++)
+                {
+                    workers[workerIndex].submit(() ->
+                    {
+                        barrierArrivals.countDown();
+                        this.waitAtBarrier(barrierRelease);
+                    });
+                }
+
+                processingResult = workers[0].submit(() ->
+                {
+                    try
+                    {
+                        if (this.waitAtBarrier(barrierArrivals))
+                        {
+                            this.processEventOnWorker(topicListener, event);
+                        }
+                    }
+                    finally
+                    {
+                        barrierRelease.countDown();
+                    }
+                });
+            }
+
+            event.addAsyncProcessingResult(new OMRSFutureImpl(processingResult));
+        }
+
+        event.setState(IncomingEventState.DISTRIBUTED_TO_ALL_TOPIC_LISTENERS);
+    }
+
+
+    /**
+     * Return the worker threads for a listener, creating them when the first event is passed to the listener.
+     *
+     * @param topicListener listener
+     * @return worker thread pools - one for each of the listenerThreads
+     */
+    private ThreadPoolExecutor[] getListenerWorkers(OpenMetadataTopicListener topicListener)
+    {
+        ThreadPoolExecutor[] workers = listenerWorkers.get(topicListener);
+
+        if (workers == null)
+        {
+            workers = new ThreadPoolExecutor[listenerThreads];
+
+            for (int i = 0; i < listenerThreads; i++)
+            {
+                final String workerThreadName = listenerThreadName + ":" + topicListener.getClass().getSimpleName() + ":" + i;
+
+                workers[i] = new ThreadPoolExecutor(1,
+                                                    1,
+                                                    0L,
+                                                    TimeUnit.MILLISECONDS,
+                                                    new LinkedBlockingQueue<>(listenerQueueSize),
+                                                    runnable -> new Thread(runnable, workerThreadName),
+                                                    this::waitForWorkerQueue);
+                allWorkers.add(workers[i]);
+            }
+
+            listenerWorkers.put(topicListener, workers);
+        }
+
+        return workers;
+    }
+
+
+    /**
+     * Pass an event to a listener on one of its worker threads, recording any asynchronous processing that
+     * the listener starts.
+     *
+     * @param topicListener listener to call
+     * @param event OMRSEvent to pass on
+     */
+    private void processEventOnWorker(OpenMetadataTopicListener topicListener,
+                                      IncomingEvent             event)
+    {
+        InternalOMRSEventProcessingContext.clear();
+        InternalOMRSEventProcessingContext.getInstance().setCurrentMessageId(event.getMessageId());
+
+        this.passEventToListener(topicListener, event);
+
+        event.addAsyncProcessingResult(InternalOMRSEventProcessingContext.getInstance().getOverallAsyncProcessingResult());
+    }
+
+
+    /**
+     * Called by a worker thread to wait at a barrier for an event without an ordering key.  The wait ends
+     * if the connector is disconnected, since the rest of the barrier may never be queued.
+     *
+     * @param barrier latch to wait for
+     * @return boolean indicating whether the barrier was reached
+     */
+    private boolean waitAtBarrier(CountDownLatch barrier)
+    {
+        try
+        {
+            while (! barrier.await(sleepTime, TimeUnit.MILLISECONDS))
+            {
+                if (! keepRunning)
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+
+            log.debug("Worker thread for topic {} interrupted at a barrier", topicName);
+
+            return false;
+        }
+    }
+
+
+    /**
+     * Called by a worker thread pool when its queue is full.  The listener thread waits for space in the queue,
+     * which stops it taking more events from the incoming queue.  The wait ends if the connector is disconnected.
+     *
+     * @param work task to queue
+     * @param worker worker thread pool with the full queue
+     */
+    private void waitForWorkerQueue(Runnable           work,
+                                    ThreadPoolExecutor worker)
+    {
+        try
+        {
+            while (! worker.getQueue().offer(work, sleepTime, TimeUnit.MILLISECONDS))
+            {
+                if ((! keepRunning) || (worker.isShutdown()))
+                {
+                    throw new RejectedExecutionException("Topic " + topicName + " is shutting down");
+                }
+            }
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new RejectedExecutionException("Interrupted while waiting for worker thread on topic " + topicName, error);
+        }
+    }
+
+
+    /**
+     * Pass an event to a single listener, logging any exception that it throws.
+     *
+     * @param topicListener listener to call
+     * @param event OMRSEvent to pass on
+     */
+    private void passEventToListener(OpenMetadataTopicListener topicListener,
+                                     IncomingEvent             event)
+    {
+        try
+        {
+            topicListener.processEvent(event.getJson());
+        }
+        catch (Exception  error)
+        {
+            final String   actionDescription = "distributeEvent";
+
+            if (auditLog != null)
+            {
+                auditLog.logException(actionDescription,
+                                      OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event.getJson(), error.toString()),
+                                      event.getJson(),
+                                      error);
+            }
+        }
+    }
+
+
+    /**
+     * Return the key used to choose the worker thread for an event when listenerThreads is set.  Events with the
+     * same key are processed in the order they were received.  Events without a key are processed in the order
+     * they were received with respect to all other events.  The default implementation scans the event for the
+     * first instanceGUID or guid field, which is the instance that an OMRS or OMAS event is about.  Compressed
+     * events are decoded only as far as this field.  OMRS registry and type events, which name their event
+     * category before any GUID, and events without a GUID have no key.  A subclass may override this method
+     * if its events are structured differently.
+     *
+     * @param event event received from the topic
+     * @return ordering key or null if the event must be ordered with all other events
+     */
+    protected String getOrderingKey(IncomingEvent event)
+    {
+        if (event.getJson() != null)
+        {
+            try (JsonParser parser = this.createParser(event.getJson()))
+            {
+                JsonToken token = parser.nextToken();
+
+                while (token != null)
+                {
+                    if (token == JsonToken.FIELD_NAME)
+                    {
+                        String fieldName = parser.getCurrentName();
+
+                        if ("eventCategory".equals(fieldName))
+                        {
+                            if ((parser.nextToken() == JsonToken.VALUE_STRING) && (! instanceEventCategory.equals(parser.getText())))
+                            {
+                                return null;
+                            }
+                        }
+                        else if (("instanceGUID".equals(fieldName)) || ("guid".equals(fieldName)))
+                        {
+                            if (parser.nextToken() == JsonToken.VALUE_STRING)
+                            {
+                                return parser.getText();
+                            }
+                        }
+                    }
+
+                    token = parser.nextToken();
+                }
+            }
+            catch (IOException error)
+            {
+                log.debug("Unable to find ordering key in event {}", event.getMessageId());
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Create a JSON parser for an event in any of the encodings used on the topic.
+     *
+     * @param json event received from the topic
+     * @return parser
+     * @throws IOException unable to create the parser
+     */
+    private JsonParser createParser(String json) throws IOException
+    {
+        InputStream decodedEvent = OMRSEventEncoding.getDecodedStream(json);
+
+        if (decodedEvent == null)
+        {
+            return jsonFactory.createParser(json);
+        }
+
+        return jsonFactory.createParser(decodedEvent);
+    }
+
+
+    /**
+     * Add the time that an event has waited to be passed to the listeners to the statistics.
+     *
+     * @param latency time in milliseconds
+     */
+    private void recordDispatchLatency(long latency)
+    {
+        dispatchedEventCount.incrementAndGet();
+        totalDispatchLatency.addAndGet(latency);
+        maxDispatchLatency.accumulateAndGet(latency, Math::max);
+    }
+
+
+    /**
+     * Pass an event that has been received from the event bus to the listener thread.  The listener
+     * thread is woken up if it is waiting for events.  This method may be called from any thread.
+     *
+     * @param event event received from the topic
+     */
+    protected void pushIncomingEvent(IncomingEvent event)
+    {
+        if (event != null)
+        {
+            incomingEvents.add(event);
+        }
+    }
+
+
+    /**
+     * Return the number of events received from the topic that are waiting to be passed to the listeners.
+     *
+     * @return count
+     */
+    public int getIncomingEventQueueDepth()
+    {
+        return incomingEvents.size();
+    }
+
+
+    /**
+     * Return the number of events waiting in the queues of the listener worker threads.  An event is counted
+     * once for each listener that has not started to process it.  This is always zero if listenerThreads is not set.
+     *
+     * @return count
+     */
+    public int getListenerQueueDepth()
+    {
+        int queueDepth = 0;
+
+        for (ThreadPoolExecutor worker : allWorkers)
+        {
+            queueDepth = queueDepth + worker.getQueue().size();
+        }
+
+        return queueDepth;
+    }
+
+
+    /**
+     * Return the number of events received from the topic that are waiting to be processed by the listeners,
+     * either in the incoming queue or in the queues of the listener worker threads.
+     *
+     * @return count
+     */
+    public int getUnprocessedEventCount()
+    {
+        return this.getIncomingEventQueueDepth() + this.getListenerQueueDepth();
+    }
+
+
+    /**
+     * Return the number of events that have been passed to the listeners.
+     *
+     * @return count
+     */
+    public long getDispatchedEventCount()
+    {
+        return dispatchedEventCount.get();
+    }
+
+
+    /**
+     * Return the average time that events have waited between being received from the topic and being
+     * passed to the listeners.
+     *
+     * @return time in milliseconds
+     */
+    public long getAverageDispatchLatency()
+    {
+        long eventCount = dispatchedEventCount.get();
+
+        if (eventCount == 0)
+        {
+            return 0;
+        }
+
+        return totalDispatchLatency.get() / eventCount;
+    }
+
+
+    /**
+     * Return the longest time that an event has waited between being received from the topic and being
+     * passed to the listeners.
+     *
+     * @return time in milliseconds
+     */
+    public long getMaximumDispatchLatency()
+    {
+        return maxDispatchLatency.get();
+    }
+
+
     /**
      * Look to see if there is one of more new events to process.
      *
@@ -283,6 +771,42 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                 {
                     this.sleepTime = (Integer)sleepTime;
                 }
+
+                Object   listenerThreads = configurationProperties.get(OpenMetadataTopicProvider.listenerThreadsProperty);
+
+                if (listenerThreads instanceof Integer)
+                {
+                    this.listenerThreads = (Integer)listenerThreads;
+                }
+                else if (listenerThreads != null)
+                {
+                    try
+                    {
+                        this.listenerThreads = Integer.parseInt(listenerThreads.toString());
+                    }
+                    catch (NumberFormatException error)
+                    {
+                        log.error("Ignoring invalid listenerThreads value {}", listenerThreads);
+                    }
+                }
+
+                Object   listenerQueueSize = configurationProperties.get(OpenMetadataTopicProvider.listenerQueueSizeProperty);
+
+                if (listenerQueueSize instanceof Integer)
+                {
+                    this.listenerQueueSize = Math.max(1, (Integer)listenerQueueSize);
+                }
+                else if (listenerQueueSize != null)
+                {
+                    try
+                    {
+                        this.listenerQueueSize = Math.max(1, Integer.parseInt(listenerQueueSize.toString()));
+                    }
+                    catch (NumberFormatException error)
+                    {
+                        log.error("Ignoring invalid listenerQueueSize value {}", listenerQueueSize);
+                    }
+                }
             }
         }
 
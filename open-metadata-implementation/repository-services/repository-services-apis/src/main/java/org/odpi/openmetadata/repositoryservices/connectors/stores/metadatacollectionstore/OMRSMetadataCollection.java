@@ -861,6 +861,37 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
                                                                              UserNotAuthorizedException;
 
 
+    /**
+     * Return the header, classifications and properties of each of the requested entities.  This is equivalent to
+     * calling getEntityDetail for each GUID but allows the repository to retrieve the entities in a single request.
+     * Entities that are not known to the metadata collection, or are only stored as proxies, are omitted from the
+     * results rather than causing the request to fail.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of the entities that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws FunctionNotSupportedException the repository does not support batch retrieval.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           FunctionNotSupportedException,
+                                                                           UserNotAuthorizedException
+    {
+        final String  methodName = "getEntitiesDetail";
+
+        throw new FunctionNotSupportedException(OMRSErrorCode.METHOD_NOT_IMPLEMENTED.getMessageDefinition(methodName,
+                                                                                                          this.getClass().getName(),
+                                                                                                          repositoryName),
+                                                this.getClass().getName(),
+                                                methodName);
+    }
+
+
     /**
      * Return all historical versions of an entity within the bounds of the provided timestamps. To retrieve all historical
      * versions of an entity, set both the 'fromTime' and 'toTime' to null.
@@ -1229,6 +1260,37 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
                                                                             UserNotAuthorizedException;
 
 
+    /**
+     * Return the current version of each of the requested relationships.  This is equivalent to calling
+     * getRelationship for each GUID but allows the repository to retrieve the relationships in a single request.
+     * Relationships that are not known to the metadata collection are omitted from the results rather than causing
+     * the request to fail.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of the relationships that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws FunctionNotSupportedException the repository does not support batch retrieval.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationshipsByGUIDs(String       userId,
+                                                      List<String> guids) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 FunctionNotSupportedException,
+                                                                                 UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipsByGUIDs";
+
+        throw new FunctionNotSupportedException(OMRSErrorCode.METHOD_NOT_IMPLEMENTED.getMessageDefinition(methodName,
+                                                                                                          this.getClass().getName(),
+                                                                                                          repositoryName),
+                                                this.getClass().getName(),
+                                                methodName);
+    }
+
+
     /**
      * Return all historical versions of a relationship within the bounds of the provided timestamps. To retrieve all
      * historical versions of a relationship, set both the 'fromTime' and 'toTime' to null.
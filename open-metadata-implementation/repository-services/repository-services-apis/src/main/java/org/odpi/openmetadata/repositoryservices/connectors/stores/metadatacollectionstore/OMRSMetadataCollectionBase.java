@@ -12,6 +12,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSSearchPlan;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -509,6 +510,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     {
         if (typeDefName != null)
         {
+            OMRSSearchPlan        searchPlan      = OMRSSearchPlan.getSearchPlan(typeDefName);
             List<TypeDef>         matchedTypeDefs = new ArrayList<>();
 
             if (allTypeDefs != null)
@@ -517,7 +519,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
                 {
                     if (typeDef != null)
                     {
-                        if (typeDef.getName().matches(typeDefName))
+                        if (searchPlan.matches(typeDef.getName()))
                         {
                             matchedTypeDefs.add(typeDef);
                         }
@@ -533,7 +535,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
                 {
                     if (attributeTypeDef != null)
                     {
-                        if (attributeTypeDef.getName().matches(typeDefName))
+                        if (searchPlan.matches(attributeTypeDef.getName()))
                         {
                             matchedAttributeTypeDefs.add(attributeTypeDef);
                         }
@@ -975,13 +977,14 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     {
         if (allTypes != null)
         {
-            List<TypeDef> matchedTypeDefs = new ArrayList<>();
+            OMRSSearchPlan searchPlan      = OMRSSearchPlan.getSearchPlan(searchCriteria);
+            List<TypeDef>  matchedTypeDefs = new ArrayList<>();
 
             for (TypeDef typeDef : allTypes)
             {
                 if (typeDef != null)
                 {
-                    if (typeDef.getName().matches(searchCriteria))
+                    if (searchPlan.matches(typeDef.getName()))
                     {
                         matchedTypeDefs.add(typeDef);
                     }
@@ -1843,6 +1846,38 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Validate the parameters for a retrieve of a list of instances.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the instances.
+     * @param methodName name of calling method.
+     * @throws InvalidParameterException one of the guids is null
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     */
+    protected  void getInstancesParameterValidation(String       userId,
+                                                    List<String> guids,
+                                                    String       methodName) throws InvalidParameterException,
+                                                                                    RepositoryErrorException
+    {
+        final String  guidsParameterName = "guids";
+
+        /*
+         * Validate parameters
+         */
+        super.basicRequestValidation(userId, methodName);
+
+        if (guids != null)
+        {
+            for (String guid : guids)
+            {
+                repositoryValidator.validateGUID(repositoryName, guidsParameterName, guid, methodName);
+            }
+        }
+    }
+
+
     /**
      * Validate the parameters for a retrieve multiple historical versions of an instance.
      *
@@ -2771,6 +2806,70 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Return the header, classifications and properties of each of the requested entities.  This implementation
+     * retrieves the entities one at a time.  Repositories that are able to retrieve a list of entities in a single
+     * request should override it.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of the entities that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           UserNotAuthorizedException
+    {
+        final String  methodName = "getEntitiesDetail";
+
+        /*
+         * Validate parameters
+         */
+        this.getInstancesParameterValidation(userId, guids, methodName);
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        /*
+         * Perform operation
+         */
+        List<EntityDetail> results = new ArrayList<>();
+
+        for (String guid : new LinkedHashSet<>(guids))
+        {
+            try
+            {
+                EntityDetail entity = this.getEntityDetail(userId, guid);
+
+                if (entity != null)
+                {
+                    results.add(entity);
+                }
+            }
+            catch (EntityNotKnownException | EntityProxyOnlyException notAvailable)
+            {
+                /*
+                 * Omitted from the results.
+                 */
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
     /**
      * Return all historical versions of an entity within the bounds of the provided timestamps. To retrieve all historical
      * versions of an entity, set both the 'fromTime' and 'toTime' to null.
@@ -3325,6 +3424,70 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Return the current version of each of the requested relationships.  This implementation retrieves the
+     * relationships one at a time.  Repositories that are able to retrieve a list of relationships in a single
+     * request should override it.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of the relationships that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<Relationship> getRelationshipsByGUIDs(String       userId,
+                                                      List<String> guids) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipsByGUIDs";
+
+        /*
+         * Validate parameters
+         */
+        this.getInstancesParameterValidation(userId, guids, methodName);
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        /*
+         * Perform operation
+         */
+        List<Relationship> results = new ArrayList<>();
+
+        for (String guid : new LinkedHashSet<>(guids))
+        {
+            try
+            {
+                Relationship relationship = this.getRelationship(userId, guid);
+
+                if (relationship != null)
+                {
+                    results.add(relationship);
+                }
+            }
+            catch (RelationshipNotKnownException notKnown)
+            {
+                /*
+                 * Omitted from the results.
+                 */
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
     /**
      * Return all historical versions of a relationship within the bounds of the provided timestamps. To retrieve all
      * historical versions of a relationship, set both the 'fromTime' and 'toTime' to null.
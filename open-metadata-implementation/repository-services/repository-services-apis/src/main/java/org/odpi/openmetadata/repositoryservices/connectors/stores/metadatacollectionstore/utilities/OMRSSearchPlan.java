@@ -0,0 +1,474 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * OMRSSearchPlan is the compiled form of a regular expression used as search criteria.  The search criteria
+ * produced by the repository helper's getExactMatchRegex, getStartsWithRegex, getEndsWithRegex and
+ * getContainsRegex methods (with or without the case-insensitive flag), and plain strings that contain no regular
+ * expression characters, are recognized and evaluated with string comparisons.  Any other search criteria is
+ * compiled into a Pattern once.
+ *
+ * The plans are held in a bounded cache so that a search criteria supplied on a find request is compiled once,
+ * rather than once for every instance property that is tested against it.  The cache does not lock - when it is
+ * full it is cleared, and the plans in use are added again as they are requested.  The result of matches() is the same
+ * as String.matches(searchCriteria) - including throwing PatternSyntaxException when the search criteria is not
+ * a valid regular expression.
+ */
+public class OMRSSearchPlan
+{
+    /**
+     * The type of comparison needed to evaluate the search criteria.
+     */
+    public enum MatchType
+    {
+        /**
+         * The value must be equal to the literal.
+         */
+        EXACT,
+
+        /**
+         * The value must start with the literal.
+         */
+        STARTS_WITH,
+
+        /**
+         * The value must end with the literal.
+         */
+        ENDS_WITH,
+
+        /**
+         * The value must contain the literal.
+         */
+        CONTAINS,
+
+        /**
+         * The search criteria is evaluated as a regular expression.
+         */
+        REGEX
+    }
+
+
+    private static final int    maxCachedPlans    = 1000;
+    private static final String caseInsensitive   = "(?i)";
+    private static final String anyCharacters     = ".*";
+    private static final String quoteStart        = "\\Q";
+    private static final String quoteEnd          = "\\E";
+    private static final String regexCharacters   = "\\^$.|?*+()[]{}";
+
+    private static final Map<String, OMRSSearchPlan> planCache = new ConcurrentHashMap<>();
+
+    private final String                 searchCriteria;
+    private final MatchType              matchType;
+    private final String                 literal;
+    private final boolean                ignoreCase;
+    private final Pattern                pattern;
+    private final PatternSyntaxException patternError;
+
+
+    /**
+     * Return the search plan for the supplied search criteria.  Plans are reused from the cache when possible.
+     *
+     * @param searchCriteria regular expression
+     * @return search plan or null if the search criteria is null
+     */
+    public static OMRSSearchPlan getSearchPlan(String searchCriteria)
+    {
+        if (searchCriteria == null)
+        {
+            return null;
+        }
+
+        OMRSSearchPlan searchPlan = planCache.get(searchCriteria);
+
+        if (searchPlan == null)
+        {
+            /*
+             * Plans are cheap to rebuild, so rather than tracking which plan was used least recently, the whole
+             * cache is dropped when it fills up.  Concurrent callers may briefly push it past the limit.
+             */
+            if (planCache.size() >= maxCachedPlans)
+            {
+                planCache.clear();
+            }
+
+            OMRSSearchPlan newSearchPlan = new OMRSSearchPlan(searchCriteria);
+
+            searchPlan = planCache.putIfAbsent(searchCriteria, newSearchPlan);
+
+            if (searchPlan == null)
+            {
+                searchPlan = newSearchPlan;
+            }
+        }
+
+        return searchPlan;
+    }
+
+
+    /**
+     * Test whether the value matches the search criteria.  This is equivalent to value.matches(searchCriteria).
+     *
+     * @param value value to test
+     * @param searchCriteria regular expression
+     * @return boolean result
+     * @throws PatternSyntaxException the search criteria is not a valid regular expression
+     */
+    public static boolean matches(String value,
+                                  String searchCriteria) throws PatternSyntaxException
+    {
+        return getSearchPlan(searchCriteria).matches(value);
+    }
+
+
+    /**
+     * Constructor builds the plan for the search criteria.  A search criteria that is not a valid regular
+     * expression is remembered so that the error is reported each time the plan is used.
+     *
+     * @param searchCriteria regular expression
+     */
+    private OMRSSearchPlan(String searchCriteria)
+    {
+        this.searchCriteria = searchCriteria;
+
+        String  expression  = searchCriteria;
+        boolean insensitive = false;
+
+        if (expression.startsWith(caseInsensitive))
+        {
+            insensitive = true;
+            expression  = expression.substring(caseInsensitive.length());
+        }
+
+        boolean prefixed = false;
+        boolean suffixed = false;
+
+        String quotedLiteral = expression;
+
+        if (quotedLiteral.startsWith(anyCharacters))
+        {
+            prefixed = true;
+            quotedLiteral = quotedLiteral.substring(anyCharacters.length());
+        }
+
+        if (quotedLiteral.endsWith(anyCharacters))
+        {
+            suffixed = true;
+            quotedLiteral = quotedLiteral.substring(0, quotedLiteral.length() - anyCharacters.length());
+        }
+
+        String unquotedLiteral = this.getQuotedLiteral(quotedLiteral);
+
+        if ((unquotedLiteral == null) && (! prefixed) && (! suffixed) && (isPlainLiteral(expression)))
+        {
+            unquotedLiteral = expression;
+        }
+
+        if (unquotedLiteral == null)
+        {
+            this.matchType  = MatchType.REGEX;
+            this.literal    = null;
+            this.ignoreCase = insensitive;
+
+            Pattern                compiledPattern = null;
+            PatternSyntaxException compileError    = null;
+
+            try
+            {
+                compiledPattern = Pattern.compile(searchCriteria);
+            }
+            catch (PatternSyntaxException error)
+            {
+                compileError = error;
+            }
+
+            this.pattern      = compiledPattern;
+            this.patternError = compileError;
+        }
+        else
+        {
+            if (prefixed && suffixed)
+            {
+                this.matchType = MatchType.CONTAINS;
+            }
+            else if (prefixed)
+            {
+                this.matchType = MatchType.ENDS_WITH;
+            }
+            else if (suffixed)
+            {
+                this.matchType = MatchType.STARTS_WITH;
+            }
+            else
+            {
+                this.matchType = MatchType.EXACT;
+            }
+
+            this.literal      = unquotedLiteral;
+            this.ignoreCase   = insensitive;
+            this.pattern      = null;
+            this.patternError = null;
+        }
+    }
+
+
+    /**
+     * Return the content of a string that has been quoted with Pattern.quote().  Quoted strings that themselves
+     * contained the end of quote sequence are not recognized.
+     *
+     * @param quotedString string to test
+     * @return unquoted string or null if the string is not a simple quoted string
+     */
+    private String getQuotedLiteral(String quotedString)
+    {
+        if ((quotedString.length() >= quoteStart.length() + quoteEnd.length())
+                && (quotedString.startsWith(quoteStart))
+                && (quotedString.indexOf(quoteEnd) == quotedString.length() - quoteEnd.length()))
+        {
+            return quotedString.substring(quoteStart.length(), quotedString.length() - quoteEnd.length());
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return whether the string contains no characters that have a special meaning in a regular expression.
+     *
+     * @param expression string to test
+     * @return boolean
+     */
+    private boolean isPlainLiteral(String expression)
+    {
+        for (int i = 0; i < expression.length(); i++)
+        {
+            if (regexCharacters.indexOf(expression.charAt(i)) != -1)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return the search criteria that this plan evaluates.
+     *
+     * @return regular expression
+     */
+    public String getSearchCriteria()
+    {
+        return searchCriteria;
+    }
+
+
+    /**
+     * Return the type of comparison used to evaluate the search criteria.
+     *
+     * @return match type enum
+     */
+    public MatchType getMatchType()
+    {
+        return matchType;
+    }
+
+
+    /**
+     * Return the literal string that the value is compared with.  This is null for the REGEX match type.
+     *
+     * @return string
+     */
+    public String getLiteral()
+    {
+        return literal;
+    }
+
+
+    /**
+     * Return whether the comparison ignores the case of ASCII letters.
+     *
+     * @return boolean
+     */
+    public boolean isCaseInsensitive()
+    {
+        return ignoreCase;
+    }
+
+
+    /**
+     * Test whether the value matches the search criteria.
+     *
+     * @param value value to test
+     * @return boolean result
+     * @throws PatternSyntaxException the search criteria is not a valid regular expression
+     */
+    public boolean matches(String value) throws PatternSyntaxException
+    {
+        if (matchType == MatchType.REGEX)
+        {
+            return matchesPattern(value);
+        }
+
+        int offset;
+
+        switch (matchType)
+        {
+            case EXACT:
+                return (value.length() == literal.length()) && regionMatches(value, 0);
+
+            case STARTS_WITH:
+                offset = 0;
+                break;
+
+            case ENDS_WITH:
+                offset = value.length() - literal.length();
+                break;
+
+            default:
+                offset = indexOf(value);
+                break;
+        }
+
+        if ((offset < 0) || (offset + literal.length() > value.length()) || (! regionMatches(value, offset)))
+        {
+            return false;
+        }
+
+        /*
+         * The ".*" either side of the literal does not match line terminators.  These rare values are passed
+         * to the regular expression so the result is the same.
+         */
+        if (containsLineTerminator(value))
+        {
+            return matchesPattern(value);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Test the value using the regular expression.  This is only needed for literal plans when the
+     * value contains a line terminator.
+     *
+     * @param value value to test
+     * @return boolean result
+     * @throws PatternSyntaxException the search criteria is not a valid regular expression
+     */
+    private boolean matchesPattern(String value) throws PatternSyntaxException
+    {
+        if (patternError != null)
+        {
+            throw patternError;
+        }
+
+        if (pattern != null)
+        {
+            return pattern.matcher(value).matches();
+        }
+
+        return value.matches(searchCriteria);
+    }
+
+
+    /**
+     * Return the first position of the literal in the value.
+     *
+     * @param value value to search
+     * @return offset or -1 if not found
+     */
+    private int indexOf(String value)
+    {
+        if (! ignoreCase)
+        {
+            return value.indexOf(literal);
+        }
+
+        for (int offset = 0; offset + literal.length() <= value.length(); offset++)
+        {
+            if (regionMatches(value, offset))
+            {
+                return offset;
+            }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Compare the literal with the value starting at the requested offset.  When the case is ignored,
+     * only ASCII letters are folded - the same as a regular expression with the (?i) flag.
+     *
+     * @param value value to compare
+     * @param offset starting position in the value
+     * @return boolean result
+     */
+    private boolean regionMatches(String value,
+                                  int    offset)
+    {
+        if (! ignoreCase)
+        {
+            return value.startsWith(literal, offset);
+        }
+
+        for (int i = 0; i < literal.length(); i++)
+        {
+            char valueChar   = value.charAt(offset + i);
+            char literalChar = literal.charAt(i);
+
+            if ((valueChar != literalChar) && (toLowerASCII(valueChar) != toLowerASCII(literalChar)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return the lower case version of an ASCII letter.  Other characters are unchanged.
+     *
+     * @param character character to convert
+     * @return converted character
+     */
+    private static char toLowerASCII(char character)
+    {
+        if ((character >= 'A') && (character <= 'Z'))
+        {
+            return (char)(character + ('a' - 'A'));
+        }
+
+        return character;
+    }
+
+
+    /**
+     * Return whether the value contains any of the characters that "." does not match.
+     *
+     * @param value value to test
+     * @return boolean
+     */
+    private static boolean containsLineTerminator(String value)
+    {
+        for (int i = 0; i < value.length(); i++)
+        {
+            char character = value.charAt(i);
+
+            if ((character == '\n') || (character == '\r') || (character == '\u0085') || (character == '\u2028') || (character == '\u2029'))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -10,6 +10,7 @@ import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventType;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.List;
 
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
@@ -28,6 +29,7 @@ public class OMRSEventV1RegistrySection implements Serializable
     private Date                  registrationTimestamp  = null;
     private String                metadataCollectionName = null;
     private Connection            remoteConnection       = null;
+    private List<String>          supportedEventEncodings = null;
 
 
     public OMRSEventV1RegistrySection()
@@ -83,6 +85,29 @@ public class OMRSEventV1RegistrySection implements Serializable
     }
 
 
+    /**
+     * Return the names of the event encodings that the sending server is able to receive.  Null means the server
+     * only supports JSON.
+     *
+     * @return list of encoding names
+     */
+    public List<String> getSupportedEventEncodings()
+    {
+        return supportedEventEncodings;
+    }
+
+
+    /**
+     * Set up the names of the event encodings that the sending server is able to receive.
+     *
+     * @param supportedEventEncodings list of encoding names
+     */
+    public void setSupportedEventEncodings(List<String> supportedEventEncodings)
+    {
+        this.supportedEventEncodings = supportedEventEncodings;
+    }
+
+
     /**
      * JSON-style toString.
      *
@@ -96,6 +121,7 @@ public class OMRSEventV1RegistrySection implements Serializable
                        ", registrationTimestamp=" + registrationTimestamp +
                        ", metadataCollectionName='" + metadataCollectionName + '\'' +
                        ", remoteConnection=" + remoteConnection +
+                       ", supportedEventEncodings=" + supportedEventEncodings +
                        '}';
     }
 }
@@ -444,6 +444,48 @@ public enum OMRSAuditCode implements AuditLogMessageSet
                          "The local server has started up the logging destinations defined in the configuration document.",
                          "Validate that all the logging destinations are working."),
 
+    OPEN_METADATA_TOPIC_LISTENER_WORKERS("OMRS-AUDIT-0065",
+                                         OMRSAuditLogRecordSeverity.STARTUP,
+                                         "The listener thread for topic {0} is passing inbound events to {1} worker threads for each registered listener",
+                                         "Events for the same instance are always processed by the same worker thread so they are processed in the order they were received.  " +
+                                                 "Events for different instances may be processed in parallel.  Registry and type events are processed " +
+                                                 "once the events received before them are complete, and before any later events.",
+                                         "Verify that the listeners registered with this topic are able to process events in parallel.  " +
+                                                 "If they are not, remove the listenerThreads property from the topic connection."),
+
+    OPEN_METADATA_TOPIC_DISPATCH_STATISTICS("OMRS-AUDIT-0066",
+                                            OMRSAuditLogRecordSeverity.INFO,
+                                            "The listener thread for topic {0} dispatched {1} events with an average wait of {2} ms and a maximum wait of {3} ms",
+                                            "The wait is the time between the event being received from the topic and it being passed to the listeners.",
+                                            "Use these figures to tune the listener configuration of the topic.  A long wait suggests that the " +
+                                                    "listeners are not keeping up with the events arriving on the topic."),
+
+    OMRS_TOPIC_EVENT_ENCODING("OMRS-AUDIT-0067",
+                              OMRSAuditLogRecordSeverity.INFO,
+                              "The OMRS Topic Connector is sending events to topic {0} using the {1} encoding",
+                              "Registry events are always sent as JSON.  The configured encoding is used for the other events once " +
+                                      "every known member of the cohort has announced that it supports it.  Otherwise JSON is used.",
+                              "No action is required.  This message records the encoding used for events after a change in the cohort membership."),
+
+    OMRS_TOPIC_EVENT_ENCODING_NOT_SUPPORTED("OMRS-AUDIT-0068",
+                                            OMRSAuditLogRecordSeverity.INFO,
+                                            "The OMRS Topic Connector for topic {0} has received a registry event from server {1} (metadata collection id {2}) that does not support the {3} encoding",
+                                            "Events are sent as JSON until this server leaves the cohort or registers again with support for the encoding.",
+                                            "Upgrade server {1} to a level that supports the encoding to reduce the size of the events on the topic."),
+
+    OMRS_TOPIC_UNKNOWN_EVENT_ENCODING("OMRS-AUDIT-0069",
+                                      OMRSAuditLogRecordSeverity.ERROR,
+                                      "The OMRS Topic Connector for topic {0} has been configured with an unknown event encoding of {1}",
+                                      "The encoding is ignored and events are sent as JSON.",
+                                      "Correct the eventEncoding property in the OMRS Topic Connection for the cohort.  The supported encodings are {2}."),
+
+    OMRS_TOPIC_LISTENER_STATISTICS("OMRS-AUDIT-0070",
+                                   OMRSAuditLogRecordSeverity.INFO,
+                                   "The OMRS Topic Connector for topic {0} passed {2} events to the listener for {1} with an average lag of {3} ms and a maximum lag of {4} ms; {5} events were still queued",
+                                   "The lag is the time between the event being queued for the listener and the listener starting to process it.",
+                                   "A long lag suggests that the listener is not keeping up with the events from the cohort.  " +
+                                           "Consider increasing the listenerWorkers property of the OMRS Topic Connection."),
+
     EVENT_PARSING_ERROR("OMRS-AUDIT-0100",
                         OMRSAuditLogRecordSeverity.EXCEPTION,
                         "Unable parse an incoming event {0} due to exception {1}",
@@ -948,6 +990,35 @@ public enum OMRSAuditCode implements AuditLogMessageSet
                                        "The local server is processing a federated query to all members of the connected cohorts.  However one of the members is not responding correctly and so it has been skipped from the call. The remote server is probably not running, or has been incorrectly configured.",
                                        "Validate the availability and configuration of the remote server.  It may be a temporary failure due to an outage in the network or the server itself.  However, if the remote server is not configured correctly, or has changed its metadata collection id, then this wil lbe a permanent error and this server will not be included in the federated query until it is fixed."),
 
+    COHORT_MEMBER_SUSPENDED("OMRS-AUDIT-0402",
+                            OMRSAuditLogRecordSeverity.ACTION,
+                            "Requests to the repository with metadata collection id {0} are suspended for {1} milliseconds after {2} consecutive failed requests",
+                            "The enterprise connector has stopped calling this member of the cohort because its recent requests have failed.  " +
+                                    "Once the suspension time has passed, a single trial request is issued.  If it succeeds, the member is " +
+                                    "included in federated requests again, otherwise it is suspended for another period.",
+                            "Validate the availability and configuration of the remote server.  The enterprise connector resumes calling it " +
+                                    "automatically once it is responding."),
+
+    COHORT_MEMBER_RESUMED("OMRS-AUDIT-0403",
+                          OMRSAuditLogRecordSeverity.INFO,
+                          "Requests to the repository with metadata collection id {0} are resumed",
+                          "A trial request to a member of the cohort that was suspended has succeeded.  It is included in federated requests again.",
+                          "No action is required.  This message indicates that the problem reported in OMRS-AUDIT-0402 for this repository has been resolved."),
+
+    ENTERPRISE_INSTANCE_CACHE_ENABLED("OMRS-AUDIT-0404",
+                                      OMRSAuditLogRecordSeverity.INFO,
+                                      "The enterprise repository connector for {0} is caching up to {1} instances for a maximum of {2} milliseconds",
+                                      "Entities, relationships and the relationships for an entity retrieved through the enterprise repository connector " +
+                                              "are cached.  Cached values are removed when an instance event for the instance is received from the " +
+                                              "enterprise OMRS topic.",
+                                      "No action is required.  The cache is controlled by the enterprise access configuration of the server."),
+
+    ENTERPRISE_INSTANCE_CACHE_STATISTICS("OMRS-AUDIT-0405",
+                                         OMRSAuditLogRecordSeverity.INFO,
+                                         "The instance cache for the enterprise repository connector for {0} had {1} hits, {2} misses, {3} evictions and {4} invalidations",
+                                         "The enterprise repository connector is disconnecting and its instance cache is discarded.",
+                                         "Use these statistics to tune the size and time to live of the instance cache."),
+
     PROCESS_UNKNOWN_EVENT("OMRS-AUDIT-8001",
                           OMRSAuditLogRecordSeverity.ERROR,
                           "Received unknown event: {0}",
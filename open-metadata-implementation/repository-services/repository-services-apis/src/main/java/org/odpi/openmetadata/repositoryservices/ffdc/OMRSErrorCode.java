@@ -579,6 +579,14 @@ public enum OMRSErrorCode implements ExceptionMessageSet
             "The system is unable to store the log record to this destination because it is not able to" +
                                               " convert its contents into a suitable format.",
             "Investigate and correct the cause of the conversion failure."),
+    NEGATIVE_AUDIT_LOG_PAGING_PARAMETER(400, "OMRS-AUDIT-LOG-400-009",
+            "A negative value of {0} has been passed on the {1} parameter of a {2} query to the Audit Log destination {3}",
+            "The system is unable to process the query request and throws the PagingErrorException.",
+            "The offset and maximumRecords parameters are supplied by the caller.  Correct the caller's code to pass zero or a positive value."),
+    INVALID_AUDIT_LOG_QUERY_PARAMETER(400, "OMRS-AUDIT-LOG-400-010",
+            "The {0} parameter passed on a {1} query to the Audit Log destination {2} is not valid",
+            "The system is unable to process the query request and throws the InvalidParameterException.",
+            "The query parameters are supplied by the caller.  A severity or component name is needed and the start date must not be after the end date.  Correct the caller's code and retry the query."),
     REPOSITORY_NOT_AVAILABLE(404, "OMRS-REPOSITORY-404-001",
             "The open metadata repository connector for server {0} is not active and is unable to service the {1} request",
             "The system is unable to retrieve any metadata properties from this repository.",
@@ -874,6 +882,16 @@ public enum OMRSErrorCode implements ExceptionMessageSet
             "The enterprise repository services has detected a repository connector from cohort {0} for metadata collection identifier {1} that has a null metadata collection API object.",
             "There is an internal error in the OMRS Repository Connector implementation.",
             "Raise a Github issue on the Egeria project to get this fixed."),
+    ENTERPRISE_REQUEST_TIMEOUT(503, "OMRS-ENTERPRISE-REPOSITORY-503-004",
+            "The enterprise repository services call to repository {0} for method {1} did not complete within {2} milliseconds",
+            "The request to this repository was cancelled and the federated request continued with the results from the other repositories.",
+            "Check that the remote server is running and is able to respond in a timely manner.  It may be a temporary failure " +
+                    "due to an outage or a heavy load in the network or the server itself."),
+    ENTERPRISE_WORKER_POOL_FULL(503, "OMRS-ENTERPRISE-REPOSITORY-503-005",
+            "The enterprise repository services are unable to call repository {0} for method {1} because all of the federation worker threads are busy",
+            "The request to this repository was not issued and the federated request continued with the results from the other repositories.",
+            "This is caused by a high volume of federated requests or by repositories that are slow to respond.  Check the response times " +
+                    "of the cohort members and retry the request once the load has reduced."),
     NULL_CONTENT_MANAGER(503, "OMRS-LOCAL-REPOSITORY-503-001",
             "A null repository content manager has been passed to one of the local repository's components on method {0}.",
             "There is an internal error in the OMRS Local Repository Connector implementation, or the way it has been initialized.",
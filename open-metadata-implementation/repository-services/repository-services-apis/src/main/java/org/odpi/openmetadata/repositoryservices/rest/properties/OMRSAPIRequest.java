@@ -28,7 +28,8 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
                 @JsonSubTypes.Type(value = InstanceGraphRequest.class, name = "InstanceGraphRequest"),
                 @JsonSubTypes.Type(value = MetadataCollectionIdRequest.class, name = "MetadataCollectionIdRequest"),
                 @JsonSubTypes.Type(value = EntityCreateRequest.class, name = "EntityCreateRequest"),
-                @JsonSubTypes.Type(value = RelationshipCreateRequest.class, name = "RelationshipCreateRequest")
+                @JsonSubTypes.Type(value = RelationshipCreateRequest.class, name = "RelationshipCreateRequest"),
+                @JsonSubTypes.Type(value = InstanceGUIDListRequest.class, name = "InstanceGUIDListRequest")
         })
 public class OMRSAPIRequest implements Serializable
 {
@@ -0,0 +1,190 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.MockOMRSAuditLogStoreConnectorBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that OMRSAuditLogPipeline delivers records in order, discards only diagnostic records when the queue
+ * is full and flushes the queue on shutdown.
+ */
+public class TestOMRSAuditLogPipeline
+{
+    /**
+     * SlowAuditLogStore waits for the test to release it before storing the first batch.
+     */
+    private static class SlowAuditLogStore extends MockOMRSAuditLogStoreConnectorBase
+    {
+        private final CountDownLatch           firstBatchStarted = new CountDownLatch(1);
+        private final CountDownLatch           release           = new CountDownLatch(1);
+        private final List<OMRSAuditLogRecord> storedRecords     = Collections.synchronizedList(new ArrayList<>());
+
+
+        /**
+         * Store the records once released.
+         *
+         * @param logRecords log records to store
+         * @return null identifiers
+         */
+        @Override
+        public List<String> storeLogRecords(List<OMRSAuditLogRecord> logRecords)
+        {
+            firstBatchStarted.countDown();
+
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            storedRecords.addAll(logRecords);
+
+            return null;
+        }
+    }
+
+
+    /**
+     * Create a log record.
+     *
+     * @param messageId identifier used to check the order of the records
+     * @param severity severity of the record
+     * @return log record
+     */
+    private OMRSAuditLogRecord getLogRecord(String                     messageId,
+                                            OMRSAuditLogRecordSeverity severity)
+    {
+        OMRSAuditLogRecord logRecord = new OMRSAuditLogRecord();
+
+        logRecord.setMessageId(messageId);
+        logRecord.setSeverityCode(severity.getOrdinal());
+        logRecord.setSeverity(severity.getName());
+
+        return logRecord;
+    }
+
+
+    /**
+     * Fill the queue while the store is blocked and check what is delivered.
+     *
+     * @throws Exception problem with the test threads
+     */
+    @Test public void testOverflowAndFlush() throws Exception
+    {
+        SlowAuditLogStore       store          = new SlowAuditLogStore();
+        List<OMRSAuditLogStore> auditLogStores = new ArrayList<>();
+
+        auditLogStores.add(store);
+
+        OMRSAuditLogPipeline pipeline = new OMRSAuditLogPipeline("TestServer", auditLogStores, 4, 10);
+
+        assertTrue(pipeline.addLogRecord(getLogRecord("0", OMRSAuditLogRecordSeverity.STARTUP)));
+        assertTrue(store.firstBatchStarted.await(10, TimeUnit.SECONDS));
+
+        for (int recordNumber = 1; recordNumber <= 4; recordNumber++)
+        {
+            assertTrue(pipeline.addLogRecord(getLogRecord(Integer.toString(recordNumber), OMRSAuditLogRecordSeverity.INFO)));
+        }
+
+        assertTrue(pipeline.addLogRecord(getLogRecord("discarded", OMRSAuditLogRecordSeverity.TRACE)));
+        assertTrue(pipeline.addLogRecord(getLogRecord("discarded", OMRSAuditLogRecordSeverity.INFO)));
+        assertEquals(pipeline.getDiscardedRecordCount(), 2);
+        assertEquals(pipeline.getQueueDepth(), 4);
+
+        /*
+         * The error record waits for space on the queue so the store is released from another thread.
+         */
+        Thread releaseThread = new Thread(() ->
+                                          {
+                                              try
+                                              {
+                                                  Thread.sleep(200);
+                                              }
+                                              catch (InterruptedException interrupted)
+                                              {
+                                                  Thread.currentThread().interrupt();
+                                              }
+
+                                              store.release.countDown();
+                                          });
+        releaseThread.start();
+
+        assertTrue(pipeline.addLogRecord(getLogRecord("5", OMRSAuditLogRecordSeverity.ERROR)));
+
+        pipeline.shutdown();
+
+        assertFalse(pipeline.addLogRecord(getLogRecord("late", OMRSAuditLogRecordSeverity.INFO)));
+
+        assertEquals(store.storedRecords.size(), 6);
+
+        for (int recordNumber = 0; recordNumber < store.storedRecords.size(); recordNumber++)
+        {
+            assertEquals(store.storedRecords.get(recordNumber).getMessageId(), Integer.toString(recordNumber));
+        }
+    }
+
+
+    /**
+     * When the store is still busy after the shutdown timeout, the queued records are left for the delivery
+     * thread rather than being written by the thread calling shutdown.
+     *
+     * @throws Exception problem with the test threads
+     */
+    @Test public void testShutdownTimeout() throws Exception
+    {
+        SlowAuditLogStore       store          = new SlowAuditLogStore();
+        List<OMRSAuditLogStore> auditLogStores = new ArrayList<>();
+
+        auditLogStores.add(store);
+
+        OMRSAuditLogPipeline pipeline = new OMRSAuditLogPipeline("TestServer", auditLogStores, 4, 10, 100);
+
+        assertTrue(pipeline.addLogRecord(getLogRecord("0", OMRSAuditLogRecordSeverity.STARTUP)));
+        assertTrue(store.firstBatchStarted.await(10, TimeUnit.SECONDS));
+
+        for (int recordNumber = 1; recordNumber <= 3; recordNumber++)
+        {
+            assertTrue(pipeline.addLogRecord(getLogRecord(Integer.toString(recordNumber), OMRSAuditLogRecordSeverity.ERROR)));
+        }
+
+        pipeline.shutdown();
+
+        /*
+         * The calling thread would have blocked in the store if it had written the queued records.
+         */
+        assertEquals(store.storedRecords.size(), 0);
+        assertEquals(pipeline.getQueueDepth(), 3);
+
+        store.release.countDown();
+
+        long endTime = System.currentTimeMillis() + 10000;
+
+        while ((store.storedRecords.size() < 4) && (System.currentTimeMillis() < endTime))
+        {
+            Thread.sleep(10);
+        }
+
+        assertEquals(store.storedRecords.size(), 4);
+
+        for (int recordNumber = 0; recordNumber < store.storedRecords.size(); recordNumber++)
+        {
+            assertEquals(store.storedRecords.get(recordNumber).getMessageId(), Integer.toString(recordNumber));
+        }
+    }
+}
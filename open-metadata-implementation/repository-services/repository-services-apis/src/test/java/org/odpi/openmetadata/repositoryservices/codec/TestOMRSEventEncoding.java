@@ -0,0 +1,115 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.codec;
+
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify the OMRSEventEncoding enum contains unique ordinals, non-null names and descriptions and that events
+ * can be encoded and decoded again.
+ */
+public class TestOMRSEventEncoding
+{
+    private List<Integer> existingOrdinals = null;
+
+    /**
+     * Validate that a supplied ordinal is unique.
+     *
+     * @param ordinal value to test
+     * @return boolean result
+     */
+    private boolean isUniqueOrdinal(int  ordinal)
+    {
+        Integer       newOrdinal = ordinal;
+
+        if (existingOrdinals.contains(newOrdinal))
+        {
+            return false;
+        }
+        else
+        {
+            existingOrdinals.add(newOrdinal);
+            return true;
+        }
+    }
+
+
+    /**
+     * Validated the values of the enum.
+     */
+    @Test public void testEnumValues()
+    {
+        existingOrdinals = new ArrayList<>();
+
+        for (OMRSEventEncoding testValue : OMRSEventEncoding.values())
+        {
+            assertTrue(isUniqueOrdinal(testValue.getOrdinal()));
+            assertTrue(testValue.getName() != null);
+            assertTrue(testValue.getDescription() != null);
+            assertTrue(OMRSEventEncoding.getEncoding(testValue.getName()) == testValue);
+            assertTrue(OMRSEventEncoding.getSupportedEncodingNames().contains(testValue.getName()));
+        }
+
+        assertTrue(OMRSEventEncoding.getEncoding("Unknown") == null);
+    }
+
+
+    /**
+     * Validate that an event is unchanged after it has been encoded and decoded with each encoding.
+     */
+    @Test public void testEncodeDecode()
+    {
+        OMRSEventOriginator originator = new OMRSEventOriginator();
+
+        originator.setMetadataCollectionId("TestMetadataCollectionId");
+        originator.setServerName("TestServer");
+
+        OMRSEventV1 event = new OMRSEventV1();
+
+        event.setEventCategory(OMRSEventCategory.INSTANCE);
+        event.setOriginator(originator);
+
+        try
+        {
+            String json = OMRSJSONCodec.writeOMRSEvent(event);
+
+            for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+            {
+                String encodedEvent = encoding.encode(json);
+
+                assertEquals(OMRSEventEncoding.decode(encodedEvent), json);
+
+                OMRSEventBean eventBean = OMRSJSONCodec.readOMRSEvent(OMRSEventEncoding.decode(encodedEvent));
+
+                assertTrue(eventBean instanceof OMRSEventV1);
+                assertEquals(((OMRSEventV1) eventBean).getOriginator().getServerName(), "TestServer");
+            }
+
+            assertEquals(OMRSEventEncoding.JSON.encode(json), json);
+        }
+        catch (Throwable  exc)
+        {
+            assertTrue(false, "Exception: " + exc.getMessage());
+        }
+    }
+
+
+    /**
+     * Test that toString is overridden.
+     */
+    @Test public void testToString()
+    {
+        assertTrue(OMRSEventEncoding.JSON.toString().contains("OMRSEventEncoding"));
+    }
+}
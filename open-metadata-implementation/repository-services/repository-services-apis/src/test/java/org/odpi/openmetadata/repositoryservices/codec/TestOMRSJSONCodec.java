@@ -0,0 +1,482 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventErrorCode;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventType;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1ErrorSection;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1RegistrySection;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1TypeDefSection;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verify that the shared ObjectMapper in OMRSJSONCodec produces exactly the same JSON as a new ObjectMapper
+ * with the default configuration for each category of OMRS event, so servers using the codec remain compatible
+ * with the rest of the cohort.
+ */
+public class TestOMRSJSONCodec
+{
+    private static final Date timestamp = new Date(1600000000000L);
+
+
+    /**
+     * Check that the codec and a default ObjectMapper produce the same bytes for an event, and that the event
+     * is unchanged after it is read back.
+     *
+     * @param event event to write
+     * @throws Exception problem converting the event
+     */
+    private void checkEvent(OMRSEventV1 event) throws Exception
+    {
+        String expectedJSON = new ObjectMapper().writeValueAsString(event);
+        String codecJSON    = OMRSJSONCodec.writeOMRSEvent(event);
+
+        assertEquals(codecJSON.getBytes(StandardCharsets.UTF_8), expectedJSON.getBytes(StandardCharsets.UTF_8));
+        assertEquals(OMRSJSONCodec.writeValueAsString(event), expectedJSON);
+
+        OMRSEventV1 readEvent = (OMRSEventV1) OMRSJSONCodec.readOMRSEvent(codecJSON);
+
+        assertEquals(OMRSJSONCodec.writeOMRSEvent(readEvent), expectedJSON);
+        assertEquals(new ObjectMapper().writeValueAsString(new ObjectMapper().readValue(expectedJSON, OMRSEventV1.class)), expectedJSON);
+    }
+
+
+    /**
+     * Create an event with the common header fields.
+     *
+     * @param eventCategory category of the event
+     * @return event
+     */
+    private OMRSEventV1 getEvent(OMRSEventCategory eventCategory)
+    {
+        OMRSEventOriginator originator = new OMRSEventOriginator();
+
+        originator.setMetadataCollectionId("TestMetadataCollectionId");
+        originator.setServerName("TestServer");
+        originator.setServerType("Metadata Server");
+        originator.setOrganizationName("TestOrganization");
+
+        OMRSEventV1 event = new OMRSEventV1();
+
+        event.setTimestamp(timestamp);
+        event.setOriginator(originator);
+        event.setEventCategory(eventCategory);
+
+        return event;
+    }
+
+
+    /**
+     * Create the connection for a cohort member.
+     *
+     * @return connection
+     */
+    private Connection getConnection()
+    {
+        Endpoint endpoint = new Endpoint();
+
+        endpoint.setAddress("https://localhost:9443/servers/TestServer");
+
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put("sleepTime", 100);
+        configurationProperties.put("listenerThreads", "4");
+
+        Connection connection = new Connection();
+
+        connection.setGUID("connection-guid");
+        connection.setQualifiedName("TestServer.Connection");
+        connection.setDisplayName("TestServer Connection");
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        return connection;
+    }
+
+
+    /**
+     * Create the type of an instance.
+     *
+     * @param typeDefName name of the type
+     * @param category category of the type
+     * @return instance type
+     */
+    private InstanceType getInstanceType(String          typeDefName,
+                                         TypeDefCategory category)
+    {
+        InstanceType instanceType = new InstanceType();
+
+        instanceType.setTypeDefGUID(typeDefName + "-guid");
+        instanceType.setTypeDefName(typeDefName);
+        instanceType.setTypeDefVersion(1L);
+        instanceType.setTypeDefCategory(category);
+
+        return instanceType;
+    }
+
+
+    /**
+     * Create a primitive property value.
+     *
+     * @param category primitive type
+     * @param value value
+     * @return property value
+     */
+    private PrimitivePropertyValue getPrimitive(PrimitiveDefCategory category,
+                                                Object               value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+        propertyValue.setPrimitiveDefCategory(category);
+        propertyValue.setPrimitiveValue(value);
+        propertyValue.setTypeName(category.getName());
+
+        return propertyValue;
+    }
+
+
+    /**
+     * Create properties that use each category of property value.
+     *
+     * @return instance properties
+     */
+    private InstanceProperties getInstanceProperties()
+    {
+        InstanceProperties properties = new InstanceProperties();
+
+        properties.setProperty("qualifiedName", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "Term \"1\" é中"));
+        properties.setProperty("usageCount", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT, 42));
+        properties.setProperty("confidence", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_DOUBLE, 0.25D));
+        properties.setProperty("isPublic", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_BOOLEAN, true));
+        properties.setProperty("createTime", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_DATE, timestamp.getTime()));
+
+        EnumPropertyValue status = new EnumPropertyValue();
+
+        status.setOrdinal(1);
+        status.setSymbolicName("Draft");
+        status.setDescription("The term is being written.");
+        properties.setProperty("status", status);
+
+        ArrayPropertyValue arrayValue = new ArrayPropertyValue();
+
+        arrayValue.setArrayCount(2);
+        arrayValue.setArrayValue(0, getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "first"));
+        arrayValue.setArrayValue(1, getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "second"));
+        properties.setProperty("examples", arrayValue);
+
+        MapPropertyValue mapValue = new MapPropertyValue();
+
+        mapValue.setMapValue("key1", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "value1"));
+        mapValue.setMapValue("key2", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_LONG, 2L));
+        properties.setProperty("additionalProperties", mapValue);
+
+        InstanceProperties structAttributes = new InstanceProperties();
+
+        structAttributes.setProperty("name", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "nested"));
+
+        StructPropertyValue structValue = new StructPropertyValue();
+
+        structValue.setAttributes(structAttributes);
+        properties.setProperty("details", structValue);
+
+        properties.setEffectiveFromTime(timestamp);
+
+        return properties;
+    }
+
+
+    /**
+     * Fill in the header of an instance.
+     *
+     * @param instance instance to update
+     * @param guid unique identifier
+     * @param type type of the instance
+     */
+    private void setHeader(InstanceHeader instance,
+                           String         guid,
+                           InstanceType   type)
+    {
+        instance.setGUID(guid);
+        instance.setType(type);
+        instance.setMetadataCollectionId("TestMetadataCollectionId");
+        instance.setMetadataCollectionName("TestMetadataCollection");
+        instance.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        instance.setStatus(InstanceStatus.ACTIVE);
+        instance.setCreatedBy("testUser");
+        instance.setCreateTime(timestamp);
+        instance.setMaintainedBy(Arrays.asList("testUser", "otherUser"));
+        instance.setVersion(3L);
+    }
+
+
+    /**
+     * Create an entity with properties and a classification.
+     *
+     * @param guid unique identifier
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        setHeader(entity, guid, getInstanceType("GlossaryTerm", TypeDefCategory.ENTITY_DEF));
+        entity.setProperties(getInstanceProperties());
+
+        Classification classification = new Classification();
+
+        classification.setName("Confidentiality");
+        classification.setType(getInstanceType("Confidentiality", TypeDefCategory.CLASSIFICATION_DEF));
+        classification.setClassificationOrigin(ClassificationOrigin.ASSIGNED);
+        classification.setStatus(InstanceStatus.ACTIVE);
+        classification.setVersion(1L);
+
+        InstanceProperties classificationProperties = new InstanceProperties();
+
+        classificationProperties.setProperty("level", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT, 2));
+        classification.setProperties(classificationProperties);
+
+        entity.setClassifications(Collections.singletonList(classification));
+
+        return entity;
+    }
+
+
+    /**
+     * Create a proxy for an entity.
+     *
+     * @param guid unique identifier
+     * @return entity proxy
+     */
+    private EntityProxy getEntityProxy(String guid)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        setHeader(entityProxy, guid, getInstanceType("GlossaryTerm", TypeDefCategory.ENTITY_DEF));
+
+        InstanceProperties uniqueProperties = new InstanceProperties();
+
+        uniqueProperties.setProperty("qualifiedName", getPrimitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "Term." + guid));
+        entityProxy.setUniqueProperties(uniqueProperties);
+
+        return entityProxy;
+    }
+
+
+    /**
+     * Create an entity type with attributes.
+     *
+     * @return entity type
+     */
+    private EntityDef getEntityDef()
+    {
+        TypeDefLink superType = new TypeDefLink();
+
+        superType.setGUID("Referenceable-guid");
+        superType.setName("Referenceable");
+
+        List<TypeDefAttribute> attributes = new ArrayList<>();
+
+        for (String attributeName : Arrays.asList("displayName", "summary"))
+        {
+            TypeDefAttribute attribute = new TypeDefAttribute();
+
+            attribute.setAttributeName(attributeName);
+            attribute.setAttributeType(new PrimitiveDef(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING));
+            attribute.setAttributeDescription("The " + attributeName + " of the term.");
+            attributes.add(attribute);
+        }
+
+        EntityDef entityDef = new EntityDef();
+
+        entityDef.setGUID("GlossaryTerm-guid");
+        entityDef.setName("GlossaryTerm");
+        entityDef.setVersion(1L);
+        entityDef.setVersionName("1.0");
+        entityDef.setSuperType(superType);
+        entityDef.setDescription("A semantic description of something.");
+        entityDef.setOrigin("Egeria");
+        entityDef.setCreatedBy("ODPi Egeria");
+        entityDef.setCreateTime(timestamp);
+        entityDef.setPropertiesDefinition(attributes);
+        entityDef.setValidInstanceStatusList(Arrays.asList(InstanceStatus.DRAFT, InstanceStatus.ACTIVE, InstanceStatus.DELETED));
+        entityDef.setInitialStatus(InstanceStatus.ACTIVE);
+
+        return entityDef;
+    }
+
+
+    /**
+     * Validate a registry event.
+     *
+     * @throws Exception problem converting the event
+     */
+    @Test public void testRegistryEvent() throws Exception
+    {
+        OMRSEventV1RegistrySection registrySection = new OMRSEventV1RegistrySection();
+
+        registrySection.setRegistryEventType(OMRSRegistryEventType.REGISTRATION_EVENT);
+        registrySection.setRegistrationTimestamp(timestamp);
+        registrySection.setMetadataCollectionName("TestMetadataCollection");
+        registrySection.setRemoteConnection(getConnection());
+        registrySection.setSupportedEventEncodings(OMRSEventEncoding.getSupportedEncodingNames());
+
+        OMRSEventV1 event = getEvent(OMRSEventCategory.REGISTRY);
+
+        event.setRegistryEventSection(registrySection);
+
+        checkEvent(event);
+    }
+
+
+    /**
+     * Validate type events for a TypeDef and an AttributeTypeDef.
+     *
+     * @throws Exception problem converting the event
+     */
+    @Test public void testTypeDefEvents() throws Exception
+    {
+        OMRSEventV1TypeDefSection typeDefSection = new OMRSEventV1TypeDefSection();
+
+        typeDefSection.setTypeDefEventType(OMRSTypeDefEventType.NEW_TYPEDEF_EVENT);
+        typeDefSection.setTypeDefGUID("GlossaryTerm-guid");
+        typeDefSection.setTypeDefName("GlossaryTerm");
+        typeDefSection.setTypeDef(getEntityDef());
+
+        OMRSEventV1 event = getEvent(OMRSEventCategory.TYPEDEF);
+
+        event.setTypeDefEventSection(typeDefSection);
+
+        checkEvent(event);
+
+        EnumElementDef draft = new EnumElementDef();
+
+        draft.setOrdinal(1);
+        draft.setValue("Draft");
+        draft.setDescription("The term is being written.");
+
+        EnumDef enumDef = new EnumDef();
+
+        enumDef.setGUID("TermStatus-guid");
+        enumDef.setName("TermStatus");
+        enumDef.setElementDefs(Collections.singletonList(draft));
+        enumDef.setDefaultValue(draft);
+
+        OMRSEventV1TypeDefSection attributeTypeDefSection = new OMRSEventV1TypeDefSection();
+
+        attributeTypeDefSection.setTypeDefEventType(OMRSTypeDefEventType.NEW_ATTRIBUTE_TYPEDEF_EVENT);
+        attributeTypeDefSection.setAttributeTypeDef(enumDef);
+
+        event = getEvent(OMRSEventCategory.TYPEDEF);
+
+        event.setTypeDefEventSection(attributeTypeDefSection);
+
+        checkEvent(event);
+    }
+
+
+    /**
+     * Validate instance events for an entity and a relationship.
+     *
+     * @throws Exception problem converting the event
+     */
+    @Test public void testInstanceEvents() throws Exception
+    {
+        EntityDetail entity = getEntity("entity-guid");
+
+        OMRSEventV1InstanceSection entitySection = new OMRSEventV1InstanceSection();
+
+        entitySection.setEventType(OMRSInstanceEventType.UPDATED_ENTITY_EVENT);
+        entitySection.setTypeDefGUID(entity.getType().getTypeDefGUID());
+        entitySection.setTypeDefName(entity.getType().getTypeDefName());
+        entitySection.setInstanceGUID(entity.getGUID());
+        entitySection.setOriginalEntity(getEntity("entity-guid"));
+        entitySection.setEntity(entity);
+
+        OMRSEventV1 event = getEvent(OMRSEventCategory.INSTANCE);
+
+        event.setInstanceEventSection(entitySection);
+
+        checkEvent(event);
+
+        Relationship relationship = new Relationship();
+
+        setHeader(relationship, "relationship-guid", getInstanceType("RelatedTerm", TypeDefCategory.RELATIONSHIP_DEF));
+        relationship.setEntityOneProxy(getEntityProxy("end1-guid"));
+        relationship.setEntityTwoProxy(getEntityProxy("end2-guid"));
+        relationship.setProperties(getInstanceProperties());
+
+        OMRSEventV1InstanceSection relationshipSection = new OMRSEventV1InstanceSection();
+
+        relationshipSection.setEventType(OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT);
+        relationshipSection.setTypeDefGUID(relationship.getType().getTypeDefGUID());
+        relationshipSection.setTypeDefName(relationship.getType().getTypeDefName());
+        relationshipSection.setInstanceGUID(relationship.getGUID());
+        relationshipSection.setRelationship(relationship);
+
+        event = getEvent(OMRSEventCategory.INSTANCE);
+
+        event.setInstanceEventSection(relationshipSection);
+
+        checkEvent(event);
+
+        assertEquals(OMRSJSONCodec.writeInstanceProperties(entity.getProperties()),
+                     new ObjectMapper().writeValueAsString(entity.getProperties()));
+        assertEquals(OMRSJSONCodec.writeValueAsString(entity), new ObjectMapper().writeValueAsString(entity));
+        assertEquals(OMRSJSONCodec.writeValueAsString(relationship), new ObjectMapper().writeValueAsString(relationship));
+    }
+
+
+    /**
+     * Validate an error event.
+     *
+     * @throws Exception problem converting the event
+     */
+    @Test public void testErrorEvent() throws Exception
+    {
+        TypeDefSummary typeDefSummary = new TypeDefSummary();
+
+        typeDefSummary.setGUID("GlossaryTerm-guid");
+        typeDefSummary.setName("GlossaryTerm");
+        typeDefSummary.setVersion(2L);
+        typeDefSummary.setVersionName("2.0");
+        typeDefSummary.setCategory(TypeDefCategory.ENTITY_DEF);
+
+        OMRSEventV1ErrorSection errorSection = new OMRSEventV1ErrorSection();
+
+        errorSection.setErrorCode(OMRSEventErrorCode.CONFLICTING_TYPEDEFS);
+        errorSection.setErrorMessage("Conflicting TypeDefs");
+        errorSection.setTargetMetadataCollectionId("OtherMetadataCollectionId");
+        errorSection.setTargetRemoteConnection(getConnection());
+        errorSection.setTargetTypeDefSummary(typeDefSummary);
+        errorSection.setOtherTypeDef(getEntityDef());
+
+        OMRSEventV1 event = getEvent(OMRSEventCategory.GENERIC);
+
+        event.setErrorSection(errorSection);
+
+        checkEvent(event);
+    }
+}
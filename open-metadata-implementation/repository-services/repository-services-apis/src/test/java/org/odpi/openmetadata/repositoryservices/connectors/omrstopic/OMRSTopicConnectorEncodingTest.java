@@ -0,0 +1,244 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.frameworks.connectors.Connector;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSEventEncoding;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1RegistrySection;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate that the OMRSTopicConnector only sends type and instance events in the configured encoding once every
+ * known member of the cohort has announced that it supports it.
+ */
+public class OMRSTopicConnectorEncodingTest
+{
+    private static final OMRSEventEncoding compressedEncoding = OMRSEventEncoding.COMPRESSED_JSON_V1;
+
+    private List<String>       sentEvents;
+    private OMRSTopicConnector topicConnector;
+
+
+    /**
+     * Event bus connector that records the events sent to it.
+     */
+    private class TestEventBusConnector extends OpenMetadataTopicConnector
+    {
+        @Override
+        public void sendEvent(String event)
+        {
+            sentEvents.add(event);
+        }
+    }
+
+
+    /**
+     * Create an OMRS topic connector that is configured to use an encoding.
+     *
+     * @param encoding configured encoding
+     * @return started connector
+     * @throws Exception unable to start the connector
+     */
+    private OMRSTopicConnector getTopicConnector(OMRSEventEncoding encoding) throws Exception
+    {
+        OMRSTopicConnector    omrsTopicConnector      = new OMRSTopicConnector();
+        TestEventBusConnector eventBusConnector       = new TestEventBusConnector();
+        Connection            connection              = new Connection();
+        Map<String, Object>   configurationProperties = new HashMap<>();
+
+        configurationProperties.put(OMRSTopicProvider.eventEncodingProperty, encoding.getName());
+        connection.setConfigurationProperties(configurationProperties);
+
+        eventBusConnector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(new Connection()));
+        omrsTopicConnector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+        omrsTopicConnector.initializeEmbeddedConnectors(Collections.singletonList((Connector) eventBusConnector));
+        omrsTopicConnector.start();
+
+        return omrsTopicConnector;
+    }
+
+
+    @BeforeMethod
+    public void setUp() throws Exception
+    {
+        sentEvents = new CopyOnWriteArrayList<>();
+        topicConnector = getTopicConnector(compressedEncoding);
+    }
+
+
+    @AfterMethod
+    public void tearDown() throws Exception
+    {
+        topicConnector.disconnect();
+    }
+
+
+    /**
+     * Pass a registry event from another member to the topic connector.
+     *
+     * @param connector connector that receives the event
+     * @param eventType type of registry event
+     * @param metadataCollectionId identifier of the member
+     * @param supportedEncodings encodings announced by the member (null for a back-level server)
+     * @throws Exception unable to create the event
+     */
+    private void receiveRegistryEvent(OMRSTopicConnector    connector,
+                                      OMRSRegistryEventType eventType,
+                                      String                metadataCollectionId,
+                                      List<String>          supportedEncodings) throws Exception
+    {
+        OMRSEventV1                event           = new OMRSEventV1();
+        OMRSEventOriginator        originator      = new OMRSEventOriginator();
+        OMRSEventV1RegistrySection registrySection = new OMRSEventV1RegistrySection();
+
+        originator.setMetadataCollectionId(metadataCollectionId);
+        originator.setServerName(metadataCollectionId + "Server");
+        registrySection.setRegistryEventType(eventType);
+        registrySection.setSupportedEventEncodings(supportedEncodings);
+        event.setEventCategory(OMRSEventCategory.REGISTRY);
+        event.setOriginator(originator);
+        event.setRegistryEventSection(registrySection);
+
+        connector.processEvent(OMRSJSONCodec.writeOMRSEvent(event));
+    }
+
+
+    /**
+     * Send an instance event and return whether it was compressed.
+     *
+     * @return true if the event was compressed
+     * @throws Exception unable to send the event
+     */
+    private boolean sendInstanceEventIsCompressed() throws Exception
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(UUID.randomUUID().toString());
+
+        sentEvents.clear();
+        topicConnector.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, entity));
+
+        assertEquals(sentEvents.size(), 1);
+
+        return ! sentEvents.get(0).startsWith("{");
+    }
+
+
+    @Test
+    public void testJSONIsUsedUntilMembersAnnounceSupport() throws Exception
+    {
+        /*
+         * No members are known at start-up.
+         */
+        assertFalse(sendInstanceEventIsCompressed());
+
+        receiveRegistryEvent(topicConnector,
+                             OMRSRegistryEventType.REGISTRATION_EVENT,
+                             "member1",
+                             OMRSEventEncoding.getSupportedEncodingNames());
+
+        assertTrue(sendInstanceEventIsCompressed());
+    }
+
+
+    @Test
+    public void testRestartWithOlderPeer() throws Exception
+    {
+        /*
+         * The server restarts.  The cohort registry store knows about a newer member and an older member.
+         */
+        topicConnector.setKnownCohortMembers(List.of("newMember", "oldMember"));
+
+        /*
+         * The newer member answers the re-registration first.  The older member has not been heard from
+         * so the events must still be readable by it.
+         */
+        receiveRegistryEvent(topicConnector,
+                             OMRSRegistryEventType.RE_REGISTRATION_EVENT,
+                             "newMember",
+                             OMRSEventEncoding.getSupportedEncodingNames());
+
+        assertFalse(sendInstanceEventIsCompressed());
+
+        /*
+         * The older member answers without announcing any encodings.
+         */
+        receiveRegistryEvent(topicConnector, OMRSRegistryEventType.RE_REGISTRATION_EVENT, "oldMember", null);
+
+        assertFalse(sendInstanceEventIsCompressed());
+
+        /*
+         * The older member is upgraded.
+         */
+        receiveRegistryEvent(topicConnector,
+                             OMRSRegistryEventType.RE_REGISTRATION_EVENT,
+                             "oldMember",
+                             OMRSEventEncoding.getSupportedEncodingNames());
+
+        assertTrue(sendInstanceEventIsCompressed());
+
+        /*
+         * Another older member joins and then leaves the cohort.
+         */
+        receiveRegistryEvent(topicConnector, OMRSRegistryEventType.REGISTRATION_EVENT, "otherMember", null);
+
+        assertFalse(sendInstanceEventIsCompressed());
+
+        receiveRegistryEvent(topicConnector, OMRSRegistryEventType.UN_REGISTRATION_EVENT, "otherMember", null);
+
+        assertTrue(sendInstanceEventIsCompressed());
+    }
+
+
+    @Test
+    public void testSeparateTopicsShareMemberEncodings() throws Exception
+    {
+        OMRSTopicConnector registrationTopicConnector = getTopicConnector(OMRSEventEncoding.JSON);
+
+        try
+        {
+            topicConnector.shareCohortMemberEncodings(registrationTopicConnector);
+            registrationTopicConnector.setKnownCohortMembers(List.of("member1"));
+
+            assertFalse(sendInstanceEventIsCompressed());
+
+            /*
+             * The registry events only arrive on the registration topic.
+             */
+            receiveRegistryEvent(registrationTopicConnector,
+                                 OMRSRegistryEventType.RE_REGISTRATION_EVENT,
+                                 "member1",
+                                 OMRSEventEncoding.getSupportedEncodingNames());
+
+            assertTrue(sendInstanceEventIsCompressed());
+        }
+        finally
+        {
+            registrationTopicConnector.disconnect();
+        }
+    }
+}
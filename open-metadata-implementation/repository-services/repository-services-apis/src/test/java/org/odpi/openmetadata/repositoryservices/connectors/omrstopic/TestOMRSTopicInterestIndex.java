@@ -0,0 +1,211 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that OMRSTopicInterestIndex only discards events that none of the listeners want.
+ */
+public class TestOMRSTopicInterestIndex
+{
+    /**
+     * Create an entity event.
+     *
+     * @param eventType type of instance event
+     * @param typeName name of the entity's type
+     * @param superTypeName name of the entity's super type
+     * @param classificationName name of a classification of the entity (may be null)
+     * @return event
+     */
+    private OMRSEventV1 getEntityEvent(OMRSInstanceEventType eventType,
+                                       String                typeName,
+                                       String                superTypeName,
+                                       String                classificationName)
+    {
+        TypeDefLink superType = new TypeDefLink();
+
+        superType.setName(superTypeName);
+
+        InstanceType instanceType = new InstanceType();
+
+        instanceType.setTypeDefName(typeName);
+        instanceType.setTypeDefSuperTypes(Collections.singletonList(superType));
+
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID("testGUID");
+        entity.setType(instanceType);
+
+        if (classificationName != null)
+        {
+            Classification classification = new Classification();
+
+            classification.setName(classificationName);
+            entity.setClassifications(Collections.singletonList(classification));
+        }
+
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+
+        instanceSection.setEventType(eventType);
+        instanceSection.setTypeDefName(typeName);
+        instanceSection.setEntity(entity);
+
+        OMRSEventV1 event = new OMRSEventV1();
+
+        event.setEventCategory(OMRSEventCategory.INSTANCE);
+        event.setInstanceEventSection(instanceSection);
+
+        return event;
+    }
+
+
+    /**
+     * Return whether the index passes on an event, checking that the scan of the JSON never discards an event
+     * that the exact test would pass on.
+     *
+     * @param index index to test
+     * @param interest interest of the single listener
+     * @param event event to test
+     * @return boolean
+     * @throws Exception unable to serialize the event
+     */
+    private boolean isPassedOn(OMRSTopicInterestIndex    index,
+                               OMRSTopicListenerInterest interest,
+                               OMRSEventV1               event) throws Exception
+    {
+        boolean mayBeOfInterest = index.mayBeOfInterest(OMRSJSONCodec.writeOMRSEvent(event));
+        boolean isOfInterest    = OMRSTopicInterestIndex.summarizeEvent(event).isOfInterest(interest);
+
+        if (isOfInterest)
+        {
+            assertTrue(mayBeOfInterest);
+        }
+
+        return mayBeOfInterest && isOfInterest;
+    }
+
+
+    /**
+     * Test filtering on event type, type name, super type name and classification name.
+     *
+     * @throws Exception unable to serialize an event
+     */
+    @Test public void testInstanceInterest() throws Exception
+    {
+        OMRSTopicListenerInterest interest = new OMRSTopicListenerInterest();
+
+        interest.setRegistryEvents(false);
+        interest.setTypeDefEvents(false);
+        interest.setInstanceEventTypes(Collections.singletonList(OMRSInstanceEventType.NEW_ENTITY_EVENT));
+        interest.setInstanceTypeNames(Collections.singletonList("Asset"));
+        interest.setClassificationNames(Collections.singletonList("Confidentiality"));
+
+        OMRSTopicInterestIndex index = new OMRSTopicInterestIndex();
+
+        index.addInterest(interest);
+
+        assertFalse(index.acceptsAllEvents());
+
+        assertTrue(isPassedOn(index, interest, getEntityEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, "Asset", "Referenceable", null)));
+        assertTrue(isPassedOn(index, interest, getEntityEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, "DataSet", "Asset", null)));
+        assertTrue(isPassedOn(index, interest, getEntityEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, "GlossaryTerm", "Referenceable", "Confidentiality")));
+
+        assertFalse(isPassedOn(index, interest, getEntityEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, "Asset", "Referenceable", null)));
+        assertFalse(isPassedOn(index, interest, getEntityEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, "GlossaryTerm", "Referenceable", null)));
+        assertFalse(isPassedOn(index, interest, getEntityEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, "GlossaryTerm", "Referenceable", "Criticality")));
+
+        OMRSEventV1 typeDefEvent = new OMRSEventV1();
+
+        typeDefEvent.setEventCategory(OMRSEventCategory.TYPEDEF);
+
+        assertTrue(index.mayBeOfInterest(OMRSJSONCodec.writeOMRSEvent(typeDefEvent)));
+        assertFalse(OMRSTopicInterestIndex.summarizeEvent(typeDefEvent).isOfInterest(interest));
+    }
+
+
+    /**
+     * A listener without an interest receives every event.
+     *
+     * @throws Exception unable to serialize an event
+     */
+    @Test public void testNoInterest() throws Exception
+    {
+        OMRSTopicInterestIndex index = new OMRSTopicInterestIndex();
+
+        index.addInterest(new OMRSTopicListenerInterest());
+        assertFalse(index.acceptsAllEvents());
+
+        index.addInterest(null);
+        assertTrue(index.acceptsAllEvents());
+
+        assertTrue(isPassedOn(index, null, getEntityEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, "GlossaryTerm", "Referenceable", null)));
+    }
+
+
+    /**
+     * An event is rejected from its header alone, so the rest of it is never read, let alone converted into a bean.
+     * The events are cut short after the instance event type so that reading any further would fail.
+     *
+     * @throws Exception unable to serialize an event
+     */
+    @Test public void testRejectedEventIsNotRead() throws Exception
+    {
+        OMRSTopicListenerInterest interest = new OMRSTopicListenerInterest();
+
+        interest.setInstanceEventTypes(Collections.singletonList(OMRSInstanceEventType.NEW_ENTITY_EVENT));
+
+        OMRSTopicInterestIndex index = new OMRSTopicInterestIndex();
+
+        index.addInterest(interest);
+
+        String rejectedJSON = getEventHeader(OMRSInstanceEventType.UPDATED_ENTITY_EVENT);
+        String acceptedJSON = getEventHeader(OMRSInstanceEventType.NEW_ENTITY_EVENT);
+
+        assertFalse(index.mayBeOfInterest(rejectedJSON));
+        assertTrue(index.mayBeOfInterest(acceptedJSON));
+
+        try
+        {
+            OMRSJSONCodec.readOMRSEvent(rejectedJSON);
+            fail("A truncated event can not be converted into a bean");
+        }
+        catch (IOException expected)
+        {
+            // expected
+        }
+    }
+
+
+    /**
+     * Return the JSON of an entity event cut short just after its instance event type.
+     *
+     * @param eventType type of instance event
+     * @return truncated JSON
+     * @throws Exception unable to serialize the event
+     */
+    private String getEventHeader(OMRSInstanceEventType eventType) throws Exception
+    {
+        String json      = OMRSJSONCodec.writeOMRSEvent(getEntityEvent(eventType, "Asset", "Referenceable", null));
+        String eventName = "\"" + eventType.name() + "\"";
+
+        return json.substring(0, json.indexOf(eventName) + eventName.length()) + ",\"entity\":{\"class\":";
+    }
+}
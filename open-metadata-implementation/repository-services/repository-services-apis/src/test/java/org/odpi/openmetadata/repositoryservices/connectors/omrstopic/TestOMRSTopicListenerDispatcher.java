@@ -0,0 +1,235 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.odpi.openmetadata.repositoryservices.events.future.OMRSFuture;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that OMRSTopicListenerDispatcher keeps the events for an instance in order and processes type events
+ * after the instance events that were received before them.  Also verify that a shutdown is not held up by
+ * a thread waiting for space on a worker's queue.
+ */
+public class TestOMRSTopicListenerDispatcher
+{
+    private static final int workerCount    = 4;
+    private static final int instanceCount  = 20;
+    private static final int eventsPerType  = 200;
+
+
+    /**
+     * Create an instance event.
+     *
+     * @param instanceGUID instance that the event is about
+     * @param sequenceNumber position of the event in the test
+     * @return event
+     */
+    private OMRSEventV1 getInstanceEvent(String instanceGUID,
+                                         int    sequenceNumber)
+    {
+        OMRSEventV1                event           = new OMRSEventV1();
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+
+        instanceSection.setInstanceGUID(instanceGUID);
+        instanceSection.setTypeDefName(Integer.toString(sequenceNumber));
+
+        event.setEventCategory(OMRSEventCategory.INSTANCE);
+        event.setInstanceEventSection(instanceSection);
+
+        return event;
+    }
+
+
+    /**
+     * Dispatch a mix of instance and type events and check the order they were processed in.
+     */
+    @Test public void testEventOrder()
+    {
+        List<OMRSEventV1> processedEvents = Collections.synchronizedList(new ArrayList<>());
+
+        OMRSTopicListenerDispatcher dispatcher = new OMRSTopicListenerDispatcher("TestListener",
+                                                                                 null,
+                                                                                 processedEvents::add,
+                                                                                 workerCount,
+                                                                                 10);
+
+        List<OMRSEventV1> typeEvents = new ArrayList<>();
+        List<OMRSFuture>  results    = new ArrayList<>();
+
+        try
+        {
+            for (int typeNumber = 0; typeNumber < 3; typeNumber++)
+            {
+                OMRSEventV1 typeEvent = new OMRSEventV1();
+
+                typeEvent.setEventCategory(OMRSEventCategory.TYPEDEF);
+                typeEvents.add(typeEvent);
+
+                results.add(dispatcher.dispatchEvent(typeEvent, null, null));
+
+                for (int eventNumber = 0; eventNumber < eventsPerType; eventNumber++)
+                {
+                    String instanceGUID = "Instance" + (eventNumber % instanceCount);
+
+                    results.add(dispatcher.dispatchEvent(this.getInstanceEvent(instanceGUID, results.size()), instanceGUID, null));
+                }
+            }
+
+            long timeout = System.currentTimeMillis() + 10000;
+
+            for (OMRSFuture result : results)
+            {
+                while ((! result.isDone()) && (System.currentTimeMillis() < timeout))
+                {
+                    Thread.sleep(5);
+                }
+
+                assertTrue(result.isDone());
+            }
+        }
+        catch (InterruptedException interrupted)
+        {
+            assertTrue(false, "Interrupted");
+        }
+        finally
+        {
+            dispatcher.shutdown();
+        }
+
+        assertEquals(processedEvents.size(), results.size());
+
+        /*
+         * Each type event follows every instance event dispatched before it.
+         */
+        for (int typeNumber = 0; typeNumber < typeEvents.size(); typeNumber++)
+        {
+            assertEquals(processedEvents.indexOf(typeEvents.get(typeNumber)), typeNumber * (eventsPerType + 1));
+        }
+
+        /*
+         * The events for each instance are processed in the order they were dispatched.
+         */
+        Map<String, Integer> lastSequenceNumbers = new HashMap<>();
+
+        for (OMRSEventV1 event : processedEvents)
+        {
+            if (event.getInstanceEventSection() != null)
+            {
+                String  instanceGUID   = event.getInstanceEventSection().getInstanceGUID();
+                int     sequenceNumber = Integer.parseInt(event.getInstanceEventSection().getTypeDefName());
+                Integer lastNumber     = lastSequenceNumbers.put(instanceGUID, sequenceNumber);
+
+                assertTrue((lastNumber == null) || (lastNumber < sequenceNumber));
+            }
+        }
+
+        OMRSTopicListenerStatistics statistics = dispatcher.getStatistics();
+
+        assertEquals(statistics.getProcessedEventCount(), results.size());
+        assertEquals(statistics.getWorkerCount(), workerCount);
+        assertEquals(statistics.getQueueDepth(), 0);
+        assertTrue(statistics.toString().contains("TestListener"));
+    }
+
+
+    /**
+     * Shutdown the dispatcher while an event is waiting for space on a full worker queue.
+     */
+    @Test public void testShutdownReleasesWaitingDispatcher() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+
+        OMRSTopicListenerDispatcher dispatcher = new OMRSTopicListenerDispatcher("TestListener",
+                                                                                 null,
+                                                                                 event ->
+                                                                                 {
+                                                                                     try
+                                                                                     {
+                                                                                         release.await(30, TimeUnit.SECONDS);
+                                                                                     }
+                                                                                     catch (InterruptedException interrupted)
+                                                                                     {
+                                                                                         Thread.currentThread().interrupt();
+                                                                                     }
+                                                                                 },
+                                                                                 1,
+                                                                                 1);
+        ExecutorService eventThread = Executors.newSingleThreadExecutor();
+
+        try
+        {
+            /*
+             * The first event is being processed and the second fills the queue.
+             */
+            dispatcher.dispatchEvent(this.getInstanceEvent("Instance1", 1), "Instance1", null);
+
+            long timeout = System.currentTimeMillis() + 10000;
+
+            while ((dispatcher.getStatistics().getQueueDepth() != 0) && (System.currentTimeMillis() < timeout))
+            {
+                Thread.sleep(5);
+            }
+
+            dispatcher.dispatchEvent(this.getInstanceEvent("Instance1", 2), "Instance1", null);
+
+            Future<OMRSFuture> waitingEvent = eventThread.submit(() -> dispatcher.dispatchEvent(this.getInstanceEvent("Instance1", 3),
+                                                                                              "Instance1",
+                                                                                              null));
+
+            Thread.sleep(200);
+
+            assertTrue(! waitingEvent.isDone());
+
+            dispatcher.shutdown();
+
+            try
+            {
+                waitingEvent.get(5, TimeUnit.SECONDS);
+                fail("Event queued after shutdown");
+            }
+            catch (ExecutionException expected)
+            {
+                assertTrue(expected.getCause() instanceof InterruptedException);
+            }
+
+            /*
+             * Nothing can be dispatched once the dispatcher is shutdown.
+             */
+            try
+            {
+                dispatcher.dispatchEvent(this.getInstanceEvent("Instance1", 4), "Instance1", null);
+                fail("Event dispatched after shutdown");
+            }
+            catch (InterruptedException expected)
+            {
+                assertEquals(dispatcher.getStatistics().getQueueDepth(), 0);
+            }
+        }
+        finally
+        {
+            release.countDown();
+            dispatcher.shutdown();
+            eventThread.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSEventEncoding;
+import org.odpi.openmetadata.repositoryservices.codec.OMRSJSONCodec;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1TypeDefSection;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate that OpenMetadataTopicConnector finds the ordering key of events in every encoding, that the
+ * queues of the listener worker threads are bounded and included in the count of unprocessed events, and
+ * that registry and type events are processed in order with the instance events.
+ */
+public class OpenMetadataTopicConnectorTest
+{
+    private static final String typeDefEventJSON = "{\"eventCategory\":\"TYPEDEF\"," +
+                                                           "\"typeDefEventSection\":{\"typeDef\":{\"guid\":\"typeDefGUID\"}}}";
+    private static final String eventJSON = "{\"eventCategory\":\"INSTANCE\"," +
+                                                    "\"instanceEventSection\":{\"eventType\":\"UPDATED_ENTITY_EVENT\"," +
+                                                    "\"entity\":{\"type\":{\"typeDefName\":\"GlossaryTerm\"},\"guid\":\"guid1\"}}}";
+
+
+    /**
+     * Topic connector that receives events from the test.
+     */
+    private static class TestTopicConnector extends OpenMetadataTopicConnector
+    {
+        @Override
+        public void sendEvent(String event)
+        {
+        }
+
+
+        /**
+         * Pass an event to the listener thread.
+         *
+         * @param json event
+         */
+        void receiveEvent(String json)
+        {
+            super.pushIncomingEvent(new IncomingEvent(json, UUID.randomUUID().toString()));
+        }
+    }
+
+
+    /**
+     * Create a started topic connector.
+     *
+     * @param listenerThreads number of worker threads for each listener
+     * @param listenerQueueSize size of the queue for each worker thread
+     * @param listener listener to register
+     * @return connector
+     * @throws Exception unable to start the connector
+     */
+    private TestTopicConnector getConnector(int                       listenerThreads,
+                                            int                       listenerQueueSize,
+                                            OpenMetadataTopicListener listener) throws Exception
+    {
+        TestTopicConnector  connector               = new TestTopicConnector();
+        Connection          connection              = new Connection();
+        Endpoint            endpoint                = new Endpoint();
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        endpoint.setAddress("testTopic");
+        configurationProperties.put(OpenMetadataTopicProvider.listenerThreadsProperty, listenerThreads);
+        configurationProperties.put(OpenMetadataTopicProvider.listenerQueueSizeProperty, Integer.toString(listenerQueueSize));
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+
+        if (listener != null)
+        {
+            connector.registerListener(listener);
+        }
+
+        connector.start();
+
+        return connector;
+    }
+
+
+    /**
+     * Wait for a condition to become true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + 10000L;
+
+        while ((! condition.getAsBoolean()) && (System.currentTimeMillis() < endTime))
+        {
+            Thread.sleep(10L);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+
+    @Test
+    public void testOrderingKeyForEveryEncoding() throws Exception
+    {
+        TestTopicConnector connector = getConnector(0, 1, null);
+
+        try
+        {
+            for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+            {
+                IncomingEvent event = new IncomingEvent(encoding.encode(eventJSON), "event1");
+
+                assertEquals(connector.getOrderingKey(event), "guid1", encoding.getName());
+            }
+
+            /*
+             * Registry and type events have no ordering key, even when they include a GUID.
+             */
+            EntityDef typeDef = new EntityDef();
+            typeDef.setGUID("typeDefGUID");
+            typeDef.setName("GlossaryTerm");
+
+            OMRSEventV1TypeDefSection typeDefSection = new OMRSEventV1TypeDefSection();
+            typeDefSection.setTypeDef(typeDef);
+
+            OMRSEventV1 typeDefEvent = new OMRSEventV1();
+            typeDefEvent.setEventCategory(OMRSEventCategory.TYPEDEF);
+            typeDefEvent.setTypeDefEventSection(typeDefSection);
+
+            for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+            {
+                IncomingEvent event = new IncomingEvent(encoding.encode(OMRSJSONCodec.writeOMRSEvent(typeDefEvent)), "event2");
+
+                assertNull(connector.getOrderingKey(event), encoding.getName());
+            }
+
+            assertNull(connector.getOrderingKey(new IncomingEvent("{\"eventCategory\":\"REGISTRY\"}", "event3")));
+            assertNull(connector.getOrderingKey(new IncomingEvent("not an event", "event4")));
+        }
+        finally
+        {
+            connector.disconnect();
+        }
+    }
+
+
+    @Test
+    public void testWorkerQueuesAreBoundedAndCounted() throws Exception
+    {
+        CountDownLatch release         = new CountDownLatch(1);
+        List<String>   processedEvents = new CopyOnWriteArrayList<>();
+
+        OpenMetadataTopicListener listener = event ->
+        {
+            try
+            {
+                release.await(30, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            processedEvents.add(event);
+        };
+
+        TestTopicConnector connector = getConnector(1, 2, listener);
+
+        try
+        {
+            for (int i = 0; i < 5; i++)
+            {
+                connector.receiveEvent(eventJSON);
+            }
+
+            /*
+             * One event is being processed and two are waiting for the worker thread.  The listener thread
+             * waits for space in the worker queue with the fourth event so the fifth stays in the incoming queue.
+             */
+            waitFor(() -> connector.getListenerQueueDepth() == 2 && connector.getIncomingEventQueueDepth() == 1);
+
+            Thread.sleep(200L);
+
+            assertEquals(connector.getListenerQueueDepth(), 2);
+            assertEquals(connector.getIncomingEventQueueDepth(), 1);
+            assertEquals(connector.getUnprocessedEventCount(), 3);
+            assertTrue(processedEvents.isEmpty());
+
+            release.countDown();
+
+            waitFor(() -> processedEvents.size() == 5);
+
+            assertEquals(connector.getUnprocessedEventCount(), 0);
+        }
+        finally
+        {
+            release.countDown();
+            connector.disconnect();
+        }
+    }
+
+
+    @Test
+    public void testCompressedEventsAreSpreadAcrossWorkers() throws Exception
+    {
+        Map<String, Set<String>> workerThreads = new ConcurrentHashMap<>();
+        CountDownLatch           processed     = new CountDownLatch(20);
+
+        OpenMetadataTopicListener listener = event ->
+        {
+            try
+            {
+                String guid = OMRSEventEncoding.decode(event).replaceAll(".*\"guid\":\"([^\"]*)\".*", "$1");
+
+                workerThreads.computeIfAbsent(guid, key -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+            }
+            catch (IOException error)
+            {
+                workerThreads.put("error", Collections.singleton(error.getMessage()));
+            }
+
+            processed.countDown();
+        };
+
+        TestTopicConnector connector = getConnector(4, 10, listener);
+
+        try
+        {
+            for (int i = 0; i < 20; i++)
+            {
+                connector.receiveEvent(OMRSEventEncoding.COMPRESSED_JSON_V1.encode(eventJSON.replace("guid1", "guid" + (i % 10))));
+            }
+
+            assertTrue(processed.await(10, TimeUnit.SECONDS));
+
+            /*
+             * Events for the same instance always go to the same worker, and compressed events are not all
+             * sent to one worker.
+             */
+            Set<String> allThreads = new HashSet<>();
+
+            assertEquals(workerThreads.size(), 10);
+
+            for (Set<String> threads : workerThreads.values())
+            {
+                assertEquals(threads.size(), 1);
+                allThreads.addAll(threads);
+            }
+
+            assertTrue(allThreads.size() > 1);
+        }
+        finally
+        {
+            connector.disconnect();
+        }
+    }
+
+
+    @Test
+    public void testTypeEventsAreOrderedWithInstanceEvents() throws Exception
+    {
+        List<String>   processedEvents    = new CopyOnWriteArrayList<>();
+        List<Integer>  seenByTypeDefEvent = new CopyOnWriteArrayList<>();
+        CountDownLatch processed          = new CountDownLatch(17);
+
+        OpenMetadataTopicListener listener = event ->
+        {
+            try
+            {
+                if (event.equals(typeDefEventJSON))
+                {
+                    seenByTypeDefEvent.add(processedEvents.size());
+                    Thread.sleep(100L);
+                    processedEvents.add("typeDef");
+                }
+                else
+                {
+                    Thread.sleep(20L);
+                    processedEvents.add(event.replaceAll(".*\"guid\":\"([^\"]*)\".*", "$1"));
+                }
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            processed.countDown();
+        };
+
+        TestTopicConnector connector = getConnector(4, 10, listener);
+
+        try
+        {
+            for (int i = 0; i < 8; i++)
+            {
+                connector.receiveEvent(eventJSON.replace("guid1", "before" + i));
+            }
+
+            connector.receiveEvent(typeDefEventJSON);
+
+            for (int i = 0; i < 8; i++)
+            {
+                connector.receiveEvent(eventJSON.replace("guid1", "after" + i));
+            }
+
+            assertTrue(processed.await(10, TimeUnit.SECONDS));
+
+            /*
+             * The type event waits for all the instance events received before it, and the instance events
+             * received after it wait for the type event - whichever worker thread they are assigned to.
+             */
+            assertEquals((int)seenByTypeDefEvent.get(0), 8);
+            assertEquals(processedEvents.get(8), "typeDef");
+
+            for (int i = 0; i < 8; i++)
+            {
+                assertTrue(processedEvents.get(i).startsWith("before"), processedEvents.toString());
+                assertTrue(processedEvents.get(i + 9).startsWith("after"), processedEvents.toString());
+            }
+        }
+        finally
+        {
+            connector.disconnect();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import org.testng.annotations.Test;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that OMRSSearchPlan recognizes the search criteria produced by the repository helper and returns
+ * the same results as String.matches().
+ */
+public class OMRSSearchPlanTest
+{
+    private static final String[] literals = new String[]{ "Asset", "asset", "ASSET", "", "my.Asset", "a\\Eb", "\u017f", "\u03a9", "[Asset]" };
+
+    private static final String[] values = new String[]{ "Asset", "asset", "ASSET", "", "MyAsset", "AssetType",
+                                                         "TheAssetType", "my.Asset", "myXAsset", "a\\Eb", "s", "S",
+                                                         "\u017f", "\u03c9", "\u03a9", "[Asset]", "My\nAsset", "Asset\r\n", " Asset" };
+
+
+    /**
+     * Check that a search criteria gives the same results as String.matches() for each test value.
+     *
+     * @param searchCriteria regular expression
+     */
+    private void checkSearchCriteria(String searchCriteria)
+    {
+        OMRSSearchPlan searchPlan = OMRSSearchPlan.getSearchPlan(searchCriteria);
+
+        for (String value : values)
+        {
+            assertEquals(searchPlan.matches(value), value.matches(searchCriteria), searchCriteria + " with " + value);
+        }
+    }
+
+
+    /**
+     * Validate the results for the search criteria produced by the repository helper.
+     */
+    @Test public void testGeneratedSearchCriteria()
+    {
+        for (String literal : literals)
+        {
+            String quoted = Pattern.quote(literal);
+
+            for (String flag : new String[]{ "", "(?i)" })
+            {
+                checkSearchCriteria(flag + quoted);
+                checkSearchCriteria(flag + quoted + ".*");
+                checkSearchCriteria(flag + ".*" + quoted);
+                checkSearchCriteria(flag + ".*" + quoted + ".*");
+            }
+        }
+    }
+
+
+    /**
+     * Validate the results for search criteria that are not produced by the repository helper.
+     */
+    @Test public void testOtherSearchCriteria()
+    {
+        for (String searchCriteria : new String[]{ "Asset", "(?i)asset", ".*", ".*Asset.*", "Asset.*", "A.*t", "[Aa]sset", "\\QAsset" })
+        {
+            checkSearchCriteria(searchCriteria);
+        }
+    }
+
+
+    /**
+     * Validate the match types that are selected.
+     */
+    @Test public void testMatchTypes()
+    {
+        assertEquals(OMRSSearchPlan.getSearchPlan("\\QAsset\\E").getMatchType(), OMRSSearchPlan.MatchType.EXACT);
+        assertEquals(OMRSSearchPlan.getSearchPlan("Asset").getMatchType(), OMRSSearchPlan.MatchType.EXACT);
+        assertEquals(OMRSSearchPlan.getSearchPlan("\\QAsset\\E.*").getMatchType(), OMRSSearchPlan.MatchType.STARTS_WITH);
+        assertEquals(OMRSSearchPlan.getSearchPlan(".*\\QAsset\\E").getMatchType(), OMRSSearchPlan.MatchType.ENDS_WITH);
+        assertEquals(OMRSSearchPlan.getSearchPlan("(?i).*\\QAsset\\E.*").getMatchType(), OMRSSearchPlan.MatchType.CONTAINS);
+        assertEquals(OMRSSearchPlan.getSearchPlan("A.*t").getMatchType(), OMRSSearchPlan.MatchType.REGEX);
+        assertEquals(OMRSSearchPlan.getSearchPlan(Pattern.quote("a\\Eb")).getMatchType(), OMRSSearchPlan.MatchType.REGEX);
+
+        OMRSSearchPlan searchPlan = OMRSSearchPlan.getSearchPlan("(?i)\\Qmy.Asset\\E");
+
+        assertEquals(searchPlan.getLiteral(), "my.Asset");
+        assertTrue(searchPlan.isCaseInsensitive());
+        assertSame(OMRSSearchPlan.getSearchPlan("(?i)\\Qmy.Asset\\E"), searchPlan);
+        assertNull(OMRSSearchPlan.getSearchPlan(null));
+    }
+
+
+    /**
+     * Validate that an invalid regular expression is reported each time it is used.
+     */
+    @Test public void testInvalidSearchCriteria()
+    {
+        for (int i = 0; i < 2; i++)
+        {
+            try
+            {
+                OMRSSearchPlan.matches("Asset", "[Asset");
+                fail("PatternSyntaxException expected");
+            }
+            catch (PatternSyntaxException error)
+            {
+                // expected
+            }
+        }
+    }
+
+
+    /**
+     * Validate that the cache keeps returning correct plans after it has filled up and been cleared.
+     */
+    @Test public void testCacheEviction()
+    {
+        for (int i = 0; i < 2500; i++)
+        {
+            String         searchCriteria = "Asset" + i;
+            OMRSSearchPlan searchPlan     = OMRSSearchPlan.getSearchPlan(searchCriteria);
+
+            assertEquals(searchPlan.getSearchCriteria(), searchCriteria);
+            assertTrue(searchPlan.matches(searchCriteria));
+            assertSame(OMRSSearchPlan.getSearchPlan(searchCriteria), searchPlan);
+        }
+    }
+}
@@ -1254,6 +1254,44 @@ public abstract class MetadataCollectionServicesClient implements AuditLoggingCo
     }
 
 
+    /**
+     * Return the header, classifications and properties of each of the requested entities.  Entities that are
+     * not known, or are only stored as proxies, are omitted from the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of the entities that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException     one of the guids is null.
+     * @throws RepositoryErrorException      there is a problem communicating with the metadata repository where
+     *                                       the metadata collection is stored.
+     * @throws FunctionNotSupportedException the repository does not support batch retrieval.
+     * @throws UserNotAuthorizedException    the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           FunctionNotSupportedException,
+                                                                           UserNotAuthorizedException
+    {
+        final String methodName           = "getEntitiesDetail";
+        final String operationSpecificURL = "instances/entities/by-guids";
+
+        InstanceGUIDListRequest requestBody = new InstanceGUIDListRequest();
+        requestBody.setGUIDs(guids);
+        EntityListResponse restResult = this.callEntityListPostRESTCall(methodName,
+                                                                        restURLRoot + rootServiceNameInURL + userIdInURL + serviceURLMarker + operationSpecificURL,
+                                                                        requestBody,
+                                                                        userId);
+
+        this.detectAndThrowInvalidParameterException(methodName, restResult);
+        this.detectAndThrowFunctionNotSupportedException(methodName, restResult);
+        this.detectAndThrowUserNotAuthorizedException(methodName, restResult);
+        this.detectAndThrowRepositoryErrorException(methodName, restResult);
+
+        return restResult.getEntities();
+    }
+
+
     /**
      * Return all historical versions of an entity within the bounds of the provided timestamps. To retrieve all historical
      * versions of an entity, set both the 'fromTime' and 'toTime' to null.
@@ -1974,6 +2012,44 @@ public abstract class MetadataCollectionServicesClient implements AuditLoggingCo
     }
 
 
+    /**
+     * Return the current version of each of the requested relationships.  Relationships that are not known are omitted
+     * from the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of the relationships that were found, in the order that their GUIDs were supplied; null means none were found.
+     * @throws InvalidParameterException     one of the guids is null.
+     * @throws RepositoryErrorException      there is a problem communicating with the metadata repository where
+     *                                       the metadata collection is stored.
+     * @throws FunctionNotSupportedException the repository does not support batch retrieval.
+     * @throws UserNotAuthorizedException    the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationshipsByGUIDs(String       userId,
+                                                      List<String> guids) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 FunctionNotSupportedException,
+                                                                                 UserNotAuthorizedException
+    {
+        final String methodName           = "getRelationshipsByGUIDs";
+        final String operationSpecificURL = "instances/relationships/by-guids";
+
+        InstanceGUIDListRequest requestBody = new InstanceGUIDListRequest();
+        requestBody.setGUIDs(guids);
+        RelationshipListResponse restResult = this.callRelationshipListPostRESTCall(methodName,
+                                                                                    restURLRoot + rootServiceNameInURL + userIdInURL + serviceURLMarker + operationSpecificURL,
+                                                                                    requestBody,
+                                                                                    userId);
+
+        this.detectAndThrowInvalidParameterException(methodName, restResult);
+        this.detectAndThrowFunctionNotSupportedException(methodName, restResult);
+        this.detectAndThrowUserNotAuthorizedException(methodName, restResult);
+        this.detectAndThrowRepositoryErrorException(methodName, restResult);
+
+        return restResult.getRelationships();
+    }
+
+
     /**
      * Return all historical versions of a relationship within the bounds of the provided timestamps. To retrieve all
      * historical versions of a relationship, set both the 'fromTime' and 'toTime' to null.
@@ -0,0 +1,129 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PropertyErrorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OMRSRepositoryContentHelperBenchmark compares the cost of returning the first page of a large, sequenced set of
+ * entity results by sorting all of the results with the instance and property comparators (the original approach)
+ * with formatEntityResults.  Run it with "mvn -Djmh integration-test" from the repository-services-implementation
+ * module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OMRSRepositoryContentHelperBenchmark
+{
+    private static final String sequencingProperty = "qualifiedName";
+
+    @Param({"200000"})
+    private int candidateCount;
+
+    @Param({"0", "100"})
+    private int fromElement;
+
+    @Param({"25"})
+    private int pageSize;
+
+    @Param({"GUID", "CREATION_DATE_RECENT", "LAST_UPDATE_RECENT", "PROPERTY_ASCENDING"})
+    private SequencingOrder sequencingOrder;
+
+    private OMRSRepositoryContentHelper repositoryHelper;
+    private List<EntityDetail>          candidates;
+
+
+    /**
+     * Build the candidate entities in an arbitrary order.
+     */
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(42);
+        long   now    = System.currentTimeMillis();
+
+        repositoryHelper = new OMRSRepositoryContentHelper(null);
+        candidates = new ArrayList<>(candidateCount);
+
+        for (int candidateNumber = 0; candidateNumber < candidateCount; candidateNumber++)
+        {
+            PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+            propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+            propertyValue.setTypeName(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING.getName());
+            propertyValue.setPrimitiveValue("asset-" + random.nextInt(candidateCount));
+
+            InstanceProperties instanceProperties = new InstanceProperties();
+
+            instanceProperties.setProperty(sequencingProperty, propertyValue);
+
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID(UUID.randomUUID().toString());
+            entity.setCreateTime(new Date(now - random.nextInt(Integer.MAX_VALUE)));
+            entity.setUpdateTime(new Date(now - random.nextInt(Integer.MAX_VALUE)));
+            entity.setProperties(instanceProperties);
+
+            candidates.add(entity);
+        }
+    }
+
+
+    @Benchmark
+    public List<EntityDetail> sortAllResults()
+    {
+        List<EntityDetail> fullResults = new ArrayList<>(candidates);
+
+        if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
+        {
+            fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareProperties(one.getProperties(),
+                                                                                         two.getProperties(),
+                                                                                         sequencingProperty,
+                                                                                         sequencingOrder));
+        }
+        else
+        {
+            fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder));
+        }
+
+        return new ArrayList<>(fullResults.subList(fromElement, fromElement + pageSize));
+    }
+
+
+    @Benchmark
+    public List<EntityDetail> formatEntityResults() throws PagingErrorException, PropertyErrorException
+    {
+        return repositoryHelper.formatEntityResults(new ArrayList<>(candidates),
+                                                    fromElement,
+                                                    sequencingProperty,
+                                                    sequencingOrder,
+                                                    pageSize);
+    }
+}
@@ -28,6 +28,9 @@ import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRS
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSEnterpriseConnectorManager;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSConnection;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache.EnterpriseInstanceCache;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache.EnterpriseInstanceCacheListener;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.CohortMemberRouterListener;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventExchangeRule;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSConfigErrorException;
@@ -89,6 +92,8 @@ public class OMRSOperationalServices
     private String                         enterpriseMetadataCollectionName    = null;
     private OMRSTopicConnector             enterpriseOMRSTopicConnector        = null;
     private OMRSTopicConnector             remoteEnterpriseOMRSTopicConnector  = null;
+    private int                            enterpriseInstanceCacheSize         = 0;
+    private long                           enterpriseInstanceCacheTimeToLive   = 0;
     private LocalOMRSRepositoryConnector   localRepositoryConnector            = null;
     private OMRSArchiveManager             archiveManager                      = null;
     private OMRSAuditLogDestination        auditLogDestination                 = null;
@@ -172,6 +177,37 @@ public class OMRSOperationalServices
                 omrsRepositoryConnector.setCallingServiceName(callingServiceName);
                 omrsRepositoryConnector.setMaxPageSize(maxPageSize);
 
+                /*
+                 * The instance events keep the cache of instance homes used to route requests up to date.
+                 */
+                if ((enterpriseOMRSTopicConnector != null) && (omrsRepositoryConnector.getMemberRouter() != null))
+                {
+                    enterpriseOMRSTopicConnector.registerListener(new CohortMemberRouterListener(callingServiceName,
+                                                                                                 auditLog,
+                                                                                                 omrsRepositoryConnector.getMemberRouter()),
+                                                                  callingServiceName);
+                }
+
+                /*
+                 * The instance cache is only safe to use if it receives the instance events that invalidate its contents.
+                 */
+                if ((enterpriseOMRSTopicConnector != null) && (enterpriseInstanceCacheSize > 0))
+                {
+                    EnterpriseInstanceCache instanceCache = new EnterpriseInstanceCache(enterpriseInstanceCacheSize,
+                                                                                        enterpriseInstanceCacheTimeToLive);
+
+                    enterpriseOMRSTopicConnector.registerListener(new EnterpriseInstanceCacheListener(callingServiceName,
+                                                                                                      auditLog,
+                                                                                                      instanceCache),
+                                                                  callingServiceName);
+                    omrsRepositoryConnector.setInstanceCache(instanceCache);
+
+                    auditLog.logMessage(actionDescription,
+                                        OMRSAuditCode.ENTERPRISE_INSTANCE_CACHE_ENABLED.getMessageDefinition(callingServiceName,
+                                                                                                             Integer.toString(instanceCache.getMaximumSize()),
+                                                                                                             Long.toString(instanceCache.getTimeToLive())));
+                }
+
                 auditLog.logMessage(actionDescription, OMRSAuditCode.NEW_ENTERPRISE_CONNECTOR.getMessageDefinition(callingServiceName));
 
                 omrsRepositoryConnector.start();
@@ -354,6 +390,12 @@ public class OMRSOperationalServices
         enterpriseOMRSTopicConnector = initializeEnterpriseOMRSTopicConnector(enterpriseAccessConfig);
         remoteEnterpriseOMRSTopicConnector = initializeRemoteEnterpriseOMRSTopicConnector(enterpriseAccessConfig);
 
+        if (enterpriseAccessConfig != null)
+        {
+            enterpriseInstanceCacheSize = enterpriseAccessConfig.getEnterpriseInstanceCacheSize();
+            enterpriseInstanceCacheTimeToLive = enterpriseAccessConfig.getEnterpriseInstanceCacheTimeToLive();
+        }
+
         /*
          * The archive manager loads pre-defined types and instances that are stored in open metadata archives.
          */
@@ -1014,6 +1056,14 @@ public class OMRSOperationalServices
 
         auditLog.logMessage(actionDescription, OMRSAuditCode.OMRS_DISCONNECTED.getMessageDefinition());
 
+        /*
+         * Flush the log records waiting for the audit log stores.  Any later log records are written directly.
+         */
+        if (auditLogDestination != null)
+        {
+            auditLogDestination.shutdown();
+        }
+
         return true;
     }
 
@@ -14,6 +14,9 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.PagingContinuationCache;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache.EnterpriseInstanceCache;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.CohortMemberRouter;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationControl;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.ParallelFederationControl;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.SequentialFederationControl;
@@ -60,8 +63,19 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
      */
     private final EnterpriseOMRSRepositoryConnector enterpriseParentConnector;
     private final String                            localMetadataCollectionId;
+    private final CohortMemberRouter                memberRouter;
     private final AuditLog                          auditLog;
 
+    /*
+     * Where each federated query reached in each repository after returning a page of results.
+     */
+    private final PagingContinuationCache           pagingContinuations = new PagingContinuationCache();
+
+    /*
+     * Optional cache of entities and relationships retrieved from the cohort.
+     */
+    private volatile EnterpriseInstanceCache        instanceCache       = null;
+
 
     /**
      * Constructor ensures the metadata collection is linked to its connector and knows its metadata collection Id.
@@ -74,6 +88,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
      * @param metadataCollectionId unique Identifier of the enterprise metadata collection Id.
      * @param localMetadataCollectionId unique Identifier of the local repository's metadata collection Id (will be null
      *                                  if no local repository.
+     * @param memberRouter tracks the availability of the cohort members and the home repository of instances.
+     * @param auditLog logging destination.
      */
     EnterpriseOMRSMetadataCollection(EnterpriseOMRSRepositoryConnector enterpriseParentConnector,
                                      String                            repositoryName,
@@ -81,7 +97,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                      OMRSRepositoryValidator repositoryValidator,
                                      String                            metadataCollectionId,
                                      String                            localMetadataCollectionId,
-                                     AuditLog auditLog)
+                                     CohortMemberRouter                memberRouter,
+                                     AuditLog                          auditLog)
     {
         /*
          * The metadata collection Id is the unique identifier for the metadata collection.  It is managed by the super class.
@@ -94,10 +111,22 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         this.enterpriseParentConnector = enterpriseParentConnector;
         this.localMetadataCollectionId = localMetadataCollectionId;
+        this.memberRouter              = memberRouter;
         this.auditLog                  = auditLog;
     }
 
 
+    /**
+     * Set up the optional cache of entities and relationships.
+     *
+     * @param instanceCache cache or null to disable caching
+     */
+    void setInstanceCache(EnterpriseInstanceCache instanceCache)
+    {
+        this.instanceCache = instanceCache;
+    }
+
+
     /* ==============================
      * Group 2: Working with typedefs
      */
@@ -134,7 +163,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetAllTypesExecutor executor = new GetAllTypesExecutor(userId,
                                                                methodName,
                                                                localMetadataCollectionId,
@@ -672,7 +701,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl     federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl     federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         VerifyTypeDefExecutor executor          = new VerifyTypeDefExecutor(userId, typeDef, auditLog, methodName);
 
         /*
@@ -725,7 +754,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl              federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl              federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         VerifyAttributeTypeDefExecutor executor          = new VerifyAttributeTypeDefExecutor(userId, attributeTypeDef, auditLog, methodName);
 
         /*
@@ -892,9 +921,9 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * The list of cohort connectors are retrieved for each request to ensure that any changes in
          * the shape of the cohort are reflected immediately.
          */
-        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(guid, methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, false, auditLog, methodName);
 
         /*
@@ -904,7 +933,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.isEntityKnown();
+        return this.saveInstanceHome(executor.isEntityKnown());
     }
 
 
@@ -941,9 +970,9 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * The list of cohort connectors are retrieved for each request to ensure that any changes in
          * the shape of the cohort are reflected immediately.
          */
-        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(guid, methodName);
 
-        FederationControl        federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl        federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetEntitySummaryExecutor executor          = new GetEntitySummaryExecutor(userId, guid, auditLog, methodName);
 
         /*
@@ -953,7 +982,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getEntitySummary();
+        return this.saveInstanceHome(executor.getEntitySummary());
     }
 
 
@@ -985,20 +1014,45 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         super.getInstanceParameterValidation(userId, guid, methodName);
 
+        /*
+         * Use the cached copy of the entity if there is one.
+         */
+        EnterpriseInstanceCache cache        = instanceCache;
+        long                    readSequence = 0;
+
+        if (cache != null)
+        {
+            EntityDetail cachedEntity = cache.getEntityDetail(userId, guid);
+
+            if (cachedEntity != null)
+            {
+                return cachedEntity;
+            }
+
+            readSequence = cache.getReadSequence();
+        }
+
         /*
          * Validation complete, ok to continue with request
          *
          * The list of cohort connectors are retrieved for each request to ensure that any changes in
          * the shape of the cohort are reflected immediately.
          */
-        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(guid, methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, true, auditLog, methodName);
 
         federationControl.executeCommand(executor);
 
-        return executor.getEntityDetail();
+        EntityDetail entity = this.saveInstanceHome(executor.getEntityDetail());
+
+        if (cache != null)
+        {
+            cache.saveEntityDetail(userId, entity, readSequence);
+        }
+
+        return entity;
     }
 
 
@@ -1041,9 +1095,9 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * The list of cohort connectors are retrieved for each request to ensure that any changes in
          * the shape of the cohort are reflected immediately.
          */
-        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(guid, methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, asOfTime, auditLog, methodName);
 
         /*
@@ -1063,9 +1117,9 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
             }
             catch (EntityProxyOnlyException | EntityNotKnownException proxyException)
             {
-                cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+                cohortConnectors = enterpriseParentConnector.getCohortConnectors(guid, methodName);
 
-                federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+                federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
                 executor          = new GetEntityDetailExecutor(userId, guid, asOfTime, auditLog, methodName);
 
                 retryCount ++;
@@ -1079,6 +1133,104 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return the header, classifications and properties of a list of entities.  Entities that are not known,
+     * or are only proxies, are left out of the results.  The entities that are not in the instance cache are
+     * retrieved from each member of the cohort(s) with a single call.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of entities in the order they were requested, or null if none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           UserNotAuthorizedException
+    {
+        final String  methodName = "getEntitiesDetail";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstancesParameterValidation(userId, guids, methodName);
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        /*
+         * Use the cached copies of the entities where there are any.
+         */
+        EnterpriseInstanceCache   cache        = instanceCache;
+        long                      readSequence = 0;
+        Map<String, EntityDetail> entities     = new HashMap<>();
+        List<String>              missingGUIDs = new ArrayList<>();
+
+        for (String guid : new LinkedHashSet<>(guids))
+        {
+            EntityDetail cachedEntity = null;
+
+            if (cache != null)
+            {
+                cachedEntity = cache.getEntityDetail(userId, guid);
+            }
+
+            if (cachedEntity != null)
+            {
+                entities.put(guid, cachedEntity);
+            }
+            else
+            {
+                missingGUIDs.add(guid);
+            }
+        }
+
+        if (! missingGUIDs.isEmpty())
+        {
+            if (cache != null)
+            {
+                readSequence = cache.getReadSequence();
+            }
+
+            /*
+             * Validation complete, ok to continue with request
+             *
+             * The list of cohort connectors are retrieved for each request to ensure that any changes in
+             * the shape of the cohort are reflected immediately.
+             */
+            List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+
+            FederationControl         federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
+            GetEntitiesDetailExecutor executor          = new GetEntitiesDetailExecutor(userId, missingGUIDs, auditLog, methodName);
+
+            federationControl.executeCommand(executor);
+
+            List<EntityDetail> retrievedEntities = this.saveInstanceHomes(executor.getEntitiesDetail());
+
+            if (retrievedEntities != null)
+            {
+                for (EntityDetail entity : retrievedEntities)
+                {
+                    if (cache != null)
+                    {
+                        cache.saveEntityDetail(userId, entity, readSequence);
+                    }
+
+                    entities.put(entity.getGUID(), entity);
+                }
+            }
+        }
+
+        return this.getResultsInRequestOrder(guids, entities);
+    }
+
+
     /**
      * Return the relationships for a specific entity.
      *
@@ -1143,6 +1295,38 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                            sequencingOrder,
                                                            pageSize);
 
+        /*
+         * Use the cached relationships if there are any.  Historical queries are not cached.
+         */
+        EnterpriseInstanceCache cache        = null;
+        String                  queryKey     = null;
+        long                    readSequence = 0;
+
+        if (asOfTime == null)
+        {
+            cache = instanceCache;
+        }
+
+        if (cache != null)
+        {
+            queryKey = relationshipTypeGUID + "|" + fromRelationshipElement + "|" + limitResultsByStatus + "|" +
+                               sequencingProperty + "|" + sequencingOrder + "|" + pageSize;
+
+            List<Relationship> cachedRelationships = cache.getRelationshipsForEntity(userId, entityGUID, queryKey);
+
+            if (cachedRelationships != null)
+            {
+                if (cachedRelationships.isEmpty())
+                {
+                    return null;
+                }
+
+                return cachedRelationships;
+            }
+
+            readSequence = cache.getReadSequence();
+        }
+
         /*
          * Validation complete, ok to continue with request
          *
@@ -1151,7 +1335,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                 federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                 federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetRelationshipsForEntityExecutor executor          = new GetRelationshipsForEntityExecutor(userId,
                                                                                                     entityGUID,
                                                                                                     relationshipTypeGUID,
@@ -1166,6 +1350,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                     repositoryValidator,
                                                                                                     methodName);
 
+        executor.setPagingContinuations(pagingContinuations);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1173,7 +1359,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        List<Relationship> results = executor.getResults(enterpriseParentConnector);
+        List<Relationship> results = this.saveInstanceHomes(executor.getResults(enterpriseParentConnector));
 
         if ((results == null) || (results.isEmpty()))
         {
@@ -1186,6 +1372,11 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
             results = null;
         }
 
+        if (cache != null)
+        {
+            cache.saveRelationshipsForEntity(userId, entityGUID, queryKey, results, readSequence);
+        }
+
         return results;
     }
 
@@ -1270,7 +1461,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         FindEntitiesByPropertyExecutor executor          = new FindEntitiesByPropertyExecutor(userId,
                                                                                               entityTypeGUID,
                                                                                               matchProperties,
@@ -1287,6 +1478,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                               repositoryValidator,
                                                                                               methodName);
 
+        executor.setPagingContinuations(pagingContinuations);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1294,7 +1487,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector, this);
+        return this.saveInstanceHomes(executor.getResults(enterpriseParentConnector, this));
     }
 
 
@@ -1376,7 +1569,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl    federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl    federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         FindEntitiesExecutor executor          = new FindEntitiesExecutor(userId,
                                                                           entityTypeGUID,
                                                                           entitySubtypeGUIDs,
@@ -1393,6 +1586,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                           repositoryValidator,
                                                                           methodName);
 
+        executor.setPagingContinuations(pagingContinuations);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1400,7 +1595,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector, this);
+        return this.saveInstanceHomes(executor.getResults(enterpriseParentConnector, this));
     }
 
 
@@ -1488,7 +1683,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                    federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                    federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         FindEntitiesByClassificationExecutor executor          = new FindEntitiesByClassificationExecutor(userId,
                                                                                                           entityTypeGUID,
                                                                                                           classificationName,
@@ -1505,6 +1700,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                           repositoryValidator,
                                                                                                           methodName);
 
+        executor.setPagingContinuations(pagingContinuations);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1512,7 +1709,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector, this);
+        return this.saveInstanceHomes(executor.getResults(enterpriseParentConnector, this));
     }
 
 
@@ -1596,7 +1793,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         FindEntitiesByPropertyValueExecutor executor          = new FindEntitiesByPropertyValueExecutor(userId,
                                                                                                         entityTypeGUID,
                                                                                                         searchCriteria,
@@ -1612,6 +1809,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         repositoryValidator,
                                                                                                         methodName);
 
+        executor.setPagingContinuations(pagingContinuations);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1619,7 +1818,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector, this);
+        return this.saveInstanceHomes(executor.getResults(enterpriseParentConnector, this));
     }
 
 
@@ -1654,9 +1853,9 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * The list of cohort connectors are retrieved for each request to ensure that any changes in
          * the shape of the cohort are reflected immediately.
          */
-        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(guid, methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, false, auditLog, methodName);
 
         /*
@@ -1666,7 +1865,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.isRelationshipKnown();
+        return this.saveInstanceHome(executor.isRelationshipKnown());
     }
 
 
@@ -1697,15 +1896,33 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         super.getInstanceParameterValidation(userId, guid, methodName);
 
+        /*
+         * Use the cached copy of the relationship if there is one.
+         */
+        EnterpriseInstanceCache cache        = instanceCache;
+        long                    readSequence = 0;
+
+        if (cache != null)
+        {
+            Relationship cachedRelationship = cache.getRelationship(userId, guid);
+
+            if (cachedRelationship != null)
+            {
+                return cachedRelationship;
+            }
+
+            readSequence = cache.getReadSequence();
+        }
+
         /*
          * Validation complete, ok to continue with request
          *
          * The list of cohort connectors are retrieved for each request to ensure that any changes in
          * the shape of the cohort are reflected immediately.
          */
-        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(guid, methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, true, auditLog, methodName);
 
         /*
@@ -1715,7 +1932,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getRelationship();
+        Relationship relationship = this.saveInstanceHome(executor.getRelationship());
+
+        if (cache != null)
+        {
+            cache.saveRelationship(userId, relationship, readSequence);
+        }
+
+        return relationship;
     }
 
 
@@ -1756,9 +1980,9 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * The list of cohort connectors are retrieved for each request to ensure that any changes in
          * the shape of the cohort are reflected immediately.
          */
-        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(guid, methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, asOfTime, auditLog, methodName);
 
         /*
@@ -1772,6 +1996,108 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return a list of relationships.  Relationships that are not known are left out of the results.
+     * The relationships that are not in the instance cache are requested from the members of the cohort(s)
+     * with a single call to each until they have all been found.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of relationships in the order they were requested, or null if none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<Relationship> getRelationshipsByGUIDs(String       userId,
+                                                      List<String> guids) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipsByGUIDs";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstancesParameterValidation(userId, guids, methodName);
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        /*
+         * Use the cached copies of the relationships where there are any.
+         */
+        EnterpriseInstanceCache   cache         = instanceCache;
+        long                      readSequence  = 0;
+        Map<String, Relationship> relationships = new HashMap<>();
+        List<String>              missingGUIDs  = new ArrayList<>();
+
+        for (String guid : new LinkedHashSet<>(guids))
+        {
+            Relationship cachedRelationship = null;
+
+            if (cache != null)
+            {
+                cachedRelationship = cache.getRelationship(userId, guid);
+            }
+
+            if (cachedRelationship != null)
+            {
+                relationships.put(guid, cachedRelationship);
+            }
+            else
+            {
+                missingGUIDs.add(guid);
+            }
+        }
+
+        if (! missingGUIDs.isEmpty())
+        {
+            if (cache != null)
+            {
+                readSequence = cache.getReadSequence();
+            }
+
+            /*
+             * Validation complete, ok to continue with request
+             *
+             * The list of cohort connectors are retrieved for each request to ensure that any changes in
+             * the shape of the cohort are reflected immediately.
+             */
+            List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+
+            FederationControl               federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
+            GetRelationshipsByGUIDsExecutor executor          = new GetRelationshipsByGUIDsExecutor(userId, missingGUIDs, auditLog, methodName);
+
+            /*
+             * Ready to process the request.  The repositories are called in turn until all the relationships
+             * have been found.
+             */
+            federationControl.executeCommand(executor);
+
+            List<Relationship> retrievedRelationships = this.saveInstanceHomes(executor.getRelationshipsByGUIDs());
+
+            if (retrievedRelationships != null)
+            {
+                for (Relationship relationship : retrievedRelationships)
+                {
+                    if (cache != null)
+                    {
+                        cache.saveRelationship(userId, relationship, readSequence);
+                    }
+
+                    relationships.put(relationship.getGUID(), relationship);
+                }
+            }
+        }
+
+        return this.getResultsInRequestOrder(guids, relationships);
+    }
+
+
     /**
      * Return a list of relationships that match the requested conditions.  The results can be received as a series of
      * pages.
@@ -1850,7 +2176,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl         federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl         federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         FindRelationshipsExecutor executor          = new FindRelationshipsExecutor(userId,
                                                                                     relationshipTypeGUID,
                                                                                     relationshipSubtypeGUIDs,
@@ -1866,6 +2192,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                     repositoryValidator,
                                                                                     methodName);
 
+        executor.setPagingContinuations(pagingContinuations);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1873,7 +2201,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector);
+        return this.saveInstanceHomes(executor.getResults(enterpriseParentConnector));
     }
 
 
@@ -1955,7 +2283,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         FindRelationshipsByPropertyExecutor executor          = new FindRelationshipsByPropertyExecutor(userId,
                                                                                                         relationshipTypeGUID,
                                                                                                         matchProperties,
@@ -1971,6 +2299,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         repositoryValidator,
                                                                                                         methodName);
 
+        executor.setPagingContinuations(pagingContinuations);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1978,7 +2308,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector);
+        return this.saveInstanceHomes(executor.getResults(enterpriseParentConnector));
     }
 
 
@@ -2059,7 +2389,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                        federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                        federationControl = new ParallelFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         FindRelationshipsByPropertyValueExecutor executor          = new FindRelationshipsByPropertyValueExecutor(userId,
                                                                                                                   relationshipTypeGUID,
                                                                                                                   searchCriteria,
@@ -2074,6 +2404,8 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                                   repositoryValidator,
                                                                                                                   methodName);
 
+        executor.setPagingContinuations(pagingContinuations);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -2081,7 +2413,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector);
+        return this.saveInstanceHomes(executor.getResults(enterpriseParentConnector));
     }
 
 
@@ -2651,7 +2983,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         AddEntityExecutor executor = new AddEntityExecutor(userId,
                                                            entityTypeGUID,
                                                            initialProperties,
@@ -2666,7 +2998,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getNewEntity();
+        return this.saveInstanceHome(executor.getNewEntity());
     }
 
 
@@ -2734,7 +3066,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         AddEntityExecutor executor = new AddEntityExecutor(userId,
                                                            entityTypeGUID,
                                                            externalSourceGUID,
@@ -2752,7 +3084,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getNewEntity();
+        return this.saveInstanceHome(executor.getNewEntity());
     }
 
 
@@ -2818,7 +3150,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.updateEntityStatus(userId, entityGUID, newStatus);
+            try
+            {
+                return metadataCollection.updateEntityStatus(userId, entityGUID, newStatus);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
         }
 
         return null;
@@ -2870,7 +3209,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.updateEntityProperties(userId, entityGUID, properties);
+            try
+            {
+                return metadataCollection.updateEntityProperties(userId, entityGUID, properties);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
         }
 
         return null;
@@ -2918,7 +3264,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.undoEntityUpdate(userId, entityGUID);
+            try
+            {
+                return metadataCollection.undoEntityUpdate(userId, entityGUID);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
         }
 
         return null;
@@ -2980,7 +3333,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.deleteEntity(userId, typeDefGUID, typeDefName, obsoleteEntityGUID);
+            try
+            {
+                return metadataCollection.deleteEntity(userId, typeDefGUID, typeDefName, obsoleteEntityGUID);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
         }
 
         return null;
@@ -3036,7 +3396,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         PurgeEntityExecutor executor = new PurgeEntityExecutor(userId,
                                                                typeDefGUID,
                                                                typeDefName,
@@ -3049,7 +3409,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
          * there are no positive results from any repository.
          */
-        federationControl.executeCommand(executor);
+        try
+        {
+            federationControl.executeCommand(executor);
+        }
+        finally
+        {
+            this.invalidateCachedInstance(deletedEntityGUID);
+        }
 
         executor.getResult();
     }
@@ -3094,7 +3461,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         RestoreEntityExecutor executor = new RestoreEntityExecutor(userId,
                                                                    deletedEntityGUID,
                                                                    auditLog,
@@ -3105,7 +3472,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
          * there are no positive results from any repository.
          */
-        federationControl.executeCommand(executor);
+        try
+        {
+            federationControl.executeCommand(executor);
+        }
+        finally
+        {
+            this.invalidateCachedInstance(deletedEntityGUID);
+        }
 
         return executor.getRestoredEntity();
     }
@@ -3168,7 +3542,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
              */
             List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getHomeLocalRemoteConnectors(entity, methodName);
 
-            FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+            FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
             ClassifyEntityExecutor executor = new ClassifyEntityExecutor(userId,
                                                                          entityGUID,
                                                                          null,
@@ -3186,7 +3560,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
              * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
              * there are no positive results from any repository.
              */
-            federationControl.executeCommand(executor);
+            try
+            {
+                federationControl.executeCommand(executor);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
 
             return executor.getUpdatedEntity();
         }
@@ -3256,7 +3637,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
              */
             List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getHomeLocalRemoteConnectors(entity, methodName);
 
-            FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+            FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
             ClassifyEntityExecutor executor = new ClassifyEntityExecutor(userId,
                                                                          entityProxy.getGUID(),
                                                                          entityProxy,
@@ -3274,7 +3655,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
              * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
              * there are no positive results from any repository.
              */
-            federationControl.executeCommand(executor);
+            try
+            {
+                federationControl.executeCommand(executor);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
 
             return executor.getAddedClassification();
         }
@@ -3350,7 +3738,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
              */
             List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getHomeLocalRemoteConnectors(entity, methodName);
 
-            FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+            FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
             ClassifyEntityExecutor executor = new ClassifyEntityExecutor(userId,
                                                                          entityGUID,
                                                                          null,
@@ -3368,7 +3756,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
              * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
              * there are no positive results from any repository.
              */
-            federationControl.executeCommand(executor);
+            try
+            {
+                federationControl.executeCommand(executor);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
 
             return executor.getUpdatedEntity();
         }
@@ -3442,7 +3837,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
              */
             List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getHomeLocalRemoteConnectors(entity, methodName);
 
-            FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+            FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
             ClassifyEntityExecutor executor = new ClassifyEntityExecutor(userId,
                                                                          entityProxy.getGUID(),
                                                                          entityProxy,
@@ -3460,7 +3855,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
              * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
              * there are no positive results from any repository.
              */
-            federationControl.executeCommand(executor);
+            try
+            {
+                federationControl.executeCommand(executor);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
 
             return executor.getAddedClassification();
         }
@@ -3515,7 +3917,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         OMRSMetadataCollection metadataCollection = enterpriseParentConnector.getHomeMetadataCollection(classification, methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.declassifyEntity(userId, entityGUID, classificationName);
+            try
+            {
+                return metadataCollection.declassifyEntity(userId, entityGUID, classificationName);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
         }
 
         return null;
@@ -3565,7 +3974,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         OMRSMetadataCollection metadataCollection = enterpriseParentConnector.getHomeMetadataCollection(classification, methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.declassifyEntity(userId, entityProxy, classificationName);
+            try
+            {
+                return metadataCollection.declassifyEntity(userId, entityProxy, classificationName);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
         }
 
         return null;
@@ -3620,10 +4036,17 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         OMRSMetadataCollection metadataCollection = enterpriseParentConnector.getHomeMetadataCollection(classification, methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.updateEntityClassification(userId,
-                                                                 entityGUID,
-                                                                 classificationName,
-                                                                 properties);
+            try
+            {
+                return metadataCollection.updateEntityClassification(userId,
+                                                                     entityGUID,
+                                                                     classificationName,
+                                                                     properties);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
         }
 
         return null;
@@ -3679,10 +4102,17 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         OMRSMetadataCollection metadataCollection = enterpriseParentConnector.getHomeMetadataCollection(classification, methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.updateEntityClassification(userId,
-                                                                 entityProxy,
-                                                                 classificationName,
-                                                                 properties);
+            try
+            {
+                return metadataCollection.updateEntityClassification(userId,
+                                                                     entityProxy,
+                                                                     classificationName,
+                                                                     properties);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(entity.getGUID());
+            }
         }
 
         return null;
@@ -3762,7 +4192,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         AddRelationshipExecutor executor = new AddRelationshipExecutor(userId,
                                                                        relationshipTypeGUID,
                                                                        initialProperties,
@@ -3777,9 +4207,17 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
          * there are no positive results from any repository.
          */
-        federationControl.executeCommand(executor);
+        try
+        {
+            federationControl.executeCommand(executor);
+        }
+        finally
+        {
+            this.invalidateCachedRelationships(entityOneGUID);
+            this.invalidateCachedRelationships(entityTwoGUID);
+        }
 
-        return executor.getNewRelationship();
+        return this.saveInstanceHome(executor.getNewRelationship());
     }
 
 
@@ -3854,7 +4292,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         AddRelationshipExecutor executor = new AddRelationshipExecutor(userId,
                                                                        relationshipTypeGUID,
                                                                        externalSourceGUID,
@@ -3871,9 +4309,17 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
          * there are no positive results from any repository.
          */
-        federationControl.executeCommand(executor);
+        try
+        {
+            federationControl.executeCommand(executor);
+        }
+        finally
+        {
+            this.invalidateCachedRelationships(entityOneGUID);
+            this.invalidateCachedRelationships(entityTwoGUID);
+        }
 
-        return executor.getNewRelationship();
+        return this.saveInstanceHome(executor.getNewRelationship());
     }
 
 
@@ -3922,7 +4368,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.updateRelationshipStatus(userId, relationshipGUID, newStatus);
+            try
+            {
+                return metadataCollection.updateRelationshipStatus(userId, relationshipGUID, newStatus);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(relationship.getGUID());
+            }
         }
 
         return null;
@@ -3974,7 +4427,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.updateRelationshipProperties(userId, relationshipGUID, properties);
+            try
+            {
+                return metadataCollection.updateRelationshipProperties(userId, relationshipGUID, properties);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(relationship.getGUID());
+            }
         }
 
         return null;
@@ -4022,7 +4482,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.undoRelationshipUpdate(userId, relationshipGUID);
+            try
+            {
+                return metadataCollection.undoRelationshipUpdate(userId, relationshipGUID);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(relationship.getGUID());
+            }
         }
 
         return null;
@@ -4082,10 +4549,17 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                                         methodName);
         if (metadataCollection != null)
         {
-            return metadataCollection.deleteRelationship(userId,
-                                                         typeDefGUID,
-                                                         typeDefName,
-                                                         obsoleteRelationshipGUID);
+            try
+            {
+                return metadataCollection.deleteRelationship(userId,
+                                                             typeDefGUID,
+                                                             typeDefName,
+                                                             obsoleteRelationshipGUID);
+            }
+            finally
+            {
+                this.invalidateCachedInstance(relationship.getGUID());
+            }
         }
 
         return null;
@@ -4139,7 +4613,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         PurgeRelationshipExecutor executor = new PurgeRelationshipExecutor(userId,
                                                                            typeDefGUID,
                                                                            typeDefName,
@@ -4152,7 +4626,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
          * there are no positive results from any repository.
          */
-        federationControl.executeCommand(executor);
+        try
+        {
+            federationControl.executeCommand(executor);
+        }
+        finally
+        {
+            this.invalidateCachedInstance(deletedRelationshipGUID);
+        }
 
         executor.getResult();
     }
@@ -4198,7 +4679,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
         RestoreRelationshipExecutor executor = new RestoreRelationshipExecutor(userId,
                                                                                deletedRelationshipGUID,
                                                                                auditLog,
@@ -4209,7 +4690,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
          * there are no positive results from any repository.
          */
-        federationControl.executeCommand(executor);
+        try
+        {
+            federationControl.executeCommand(executor);
+        }
+        finally
+        {
+            this.invalidateCachedInstance(deletedRelationshipGUID);
+        }
 
         return executor.getRestoredRelationship();
     }
@@ -4858,6 +5346,112 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Remove an instance that has just been changed from the instance cache.  This is called once the request
+     * to change the instance has completed, whether or not it succeeded.  A request that read the instance
+     * before the change was complete does not save its result because it started before this invalidation
+     * (see EnterpriseInstanceCache.getReadSequence).  The instance event that follows the change also invalidates
+     * the instance, but this ensures that the caller sees its own change straight away.
+     *
+     * @param guid unique identifier of the instance
+     */
+    private void invalidateCachedInstance(String guid)
+    {
+        EnterpriseInstanceCache cache = instanceCache;
+
+        if (cache != null)
+        {
+            cache.invalidate(guid);
+        }
+    }
+
+
+    /**
+     * Remove the cached relationships for an entity once a request to add a relationship to it has completed.
+     *
+     * @param entityGUID unique identifier of the entity
+     */
+    private void invalidateCachedRelationships(String entityGUID)
+    {
+        EnterpriseInstanceCache cache = instanceCache;
+
+        if (cache != null)
+        {
+            cache.invalidateRelationshipsForEntity(entityGUID);
+        }
+    }
+
+
+    /**
+     * Remember the home repository of an instance returned by the cohort so that later requests for
+     * the instance are sent to its home repository first.
+     *
+     * @param instance instance returned from the cohort (may be null)
+     * @param <T> type of instance
+     * @return the supplied instance
+     */
+    private <T extends InstanceHeader> T saveInstanceHome(T instance)
+    {
+        if (memberRouter != null)
+        {
+            memberRouter.saveInstanceHome(instance);
+        }
+
+        return instance;
+    }
+
+
+    /**
+     * Remember the home repository of each of the instances returned by the cohort.
+     *
+     * @param instances instances returned from the cohort (may be null)
+     * @param <T> type of instance
+     * @return the supplied list
+     */
+    private <T extends InstanceHeader> List<T> saveInstanceHomes(List<T> instances)
+    {
+        if (memberRouter != null)
+        {
+            memberRouter.saveInstanceHomes(instances);
+        }
+
+        return instances;
+    }
+
+
+    /**
+     * Assemble the retrieved instances in the order they were requested.  Each instance is returned once
+     * even if its guid was requested more than once.
+     *
+     * @param guids requested unique identifiers
+     * @param instances retrieved instances mapped from their unique identifiers
+     * @param <T> type of instance
+     * @return list of instances or null if none were retrieved
+     */
+    private <T extends InstanceHeader> List<T> getResultsInRequestOrder(List<String>   guids,
+                                                                       Map<String, T> instances)
+    {
+        List<T> results = new ArrayList<>();
+
+        for (String guid : new LinkedHashSet<>(guids))
+        {
+            T instance = instances.get(guid);
+
+            if (instance != null)
+            {
+                results.add(instance);
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
     /**
      * Verify that a cohort member's metadata collection is not null.
      *
@@ -3,6 +3,9 @@
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector;
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache.EnterpriseInstanceCache;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache.EnterpriseInstanceCacheStatistics;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.CohortMemberRouter;
 import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.OMRSInstanceRetrievalEventProcessor;
 import org.slf4j.Logger;
@@ -44,6 +47,8 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     private OMRSInstanceRetrievalEventProcessor localEventProcessor       = null;
     private String                              localMetadataCollectionId = null;
     private List<FederatedConnector>            remoteCohortConnectors    = new ArrayList<>();
+    private CohortMemberRouter                  memberRouter              = null;
+    private EnterpriseInstanceCache             instanceCache             = null;
 
     private String callingServiceName = null;
 
@@ -74,16 +79,59 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
 
         if (metadataCollectionId != null)
         {
+            this.memberRouter = new CohortMemberRouter(auditLog);
+
             super.metadataCollection = new EnterpriseOMRSMetadataCollection(this,
                                                                             super.serverName,
                                                                             repositoryHelper,
                                                                             repositoryValidator,
                                                                             metadataCollectionId,
                                                                             localMetadataCollectionId,
+                                                                            memberRouter,
                                                                             auditLog);
         }
     }
 
+
+    /**
+     * Return the object that tracks the availability of each member of the cohort(s) and the home repository
+     * of the instances that have passed through this connector.
+     *
+     * @return router object (null if the connector is not yet configured)
+     */
+    public CohortMemberRouter getMemberRouter()
+    {
+        return memberRouter;
+    }
+
+
+    /**
+     * Set up the optional cache of entities and relationships.  The caller is responsible for ensuring that the
+     * cache receives the instance events that invalidate its contents.
+     *
+     * @param instanceCache cache for this connector
+     */
+    public void setInstanceCache(EnterpriseInstanceCache instanceCache)
+    {
+        this.instanceCache = instanceCache;
+
+        if (super.metadataCollection instanceof EnterpriseOMRSMetadataCollection)
+        {
+            ((EnterpriseOMRSMetadataCollection) super.metadataCollection).setInstanceCache(instanceCache);
+        }
+    }
+
+
+    /**
+     * Return the optional cache of entities and relationships.
+     *
+     * @return cache (null if there is no cache)
+     */
+    public EnterpriseInstanceCache getInstanceCache()
+    {
+        return instanceCache;
+    }
+
     /**
      * Set the unique id of the metadata collection that is collocated with the Enterprise Metadata Collection
      *
@@ -153,6 +201,18 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
             final String actionDescription = "disconnect";
 
             auditLog.logMessage(actionDescription, OMRSAuditCode.DISCONNECTING_ENTERPRISE_CONNECTOR.getMessageDefinition(callingServiceName));
+
+            if (instanceCache != null)
+            {
+                EnterpriseInstanceCacheStatistics statistics = instanceCache.getStatistics();
+
+                auditLog.logMessage(actionDescription,
+                                    OMRSAuditCode.ENTERPRISE_INSTANCE_CACHE_STATISTICS.getMessageDefinition(callingServiceName,
+                                                                                                            Long.toString(statistics.getHitCount()),
+                                                                                                            Long.toString(statistics.getMissCount()),
+                                                                                                            Long.toString(statistics.getEvictionCount()),
+                                                                                                            Long.toString(statistics.getInvalidationCount())));
+            }
         }
 
         if ((connectorManager != null) && (connectorConsumerId != null))
@@ -449,10 +509,37 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
      * @throws RepositoryErrorException the enterprise services are not available
      */
     synchronized List<OMRSRepositoryConnector> getCohortConnectors(String methodName) throws RepositoryErrorException
+    {
+        return this.getCohortConnectors(null, methodName);
+    }
+
+
+    /**
+     * Returns the list of repository connectors to call for a request about a specific instance.  If the home
+     * repository of the instance is known, it is placed first in the list so that it is called before the
+     * other members of the cohort(s).
+     *
+     * Remote repositories that are suspended because of repeated failures are left out of the list.  This only
+     * checks the state of each member's circuit breaker.  The trial request to a member whose suspension has
+     * ended is taken by the federation control when it issues the request.  The local repository is always included.
+     *
+     * @param instanceGUID unique identifier of the instance (or null if the request is not for a specific instance)
+     * @param methodName name of method making the request (used for logging)
+     * @return OMRSRepositoryConnector List
+     * @throws RepositoryErrorException the enterprise services are not available
+     */
+    synchronized List<OMRSRepositoryConnector> getCohortConnectors(String instanceGUID,
+                                                                   String methodName) throws RepositoryErrorException
     {
         this.validateRepositoryIsActive(methodName);
 
-        List<OMRSRepositoryConnector> cohortConnectors = new ArrayList<>();
+        List<OMRSRepositoryConnector> cohortConnectors         = new ArrayList<>();
+        String                        homeMetadataCollectionId = null;
+
+        if (memberRouter != null)
+        {
+            homeMetadataCollectionId = memberRouter.getInstanceHome(instanceGUID);
+        }
 
         /*
          * Make sure the local connector is first.
@@ -463,11 +550,23 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
         }
 
         /*
-         * Now add the remote connectors.
+         * Now add the remote connectors - unless the home repository of the instance is known, in which
+         * case it moves to the front.
          */
         for (FederatedConnector federatedConnector : remoteCohortConnectors)
         {
-            cohortConnectors.add(federatedConnector.getConnector());
+            if ((memberRouter != null) && (memberRouter.isSuspended(federatedConnector.getMetadataCollectionId())))
+            {
+                log.debug("Skipping suspended cohort member " + federatedConnector.getMetadataCollectionId());
+            }
+            else if ((homeMetadataCollectionId != null) && (homeMetadataCollectionId.equals(federatedConnector.getMetadataCollectionId())))
+            {
+                cohortConnectors.add(0, federatedConnector.getConnector());
+            }
+            else
+            {
+                cohortConnectors.add(federatedConnector.getConnector());
+            }
         }
 
         if (! cohortConnectors.isEmpty())
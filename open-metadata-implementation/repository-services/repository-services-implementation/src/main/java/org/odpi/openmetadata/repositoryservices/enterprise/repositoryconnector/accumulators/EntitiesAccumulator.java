@@ -7,6 +7,8 @@ import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 
@@ -111,6 +113,8 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addEntities(List<EntityDetail>   entities,
                                          String               metadataCollectionId)
     {
+        super.saveMemberResults(metadataCollectionId, entities);
+
         if (entities != null)
         {
             for (EntityDetail entity : entities)
@@ -222,15 +226,20 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
 
 
     /**
-     * Return the list of GUIDs for the entities returned from the query.
+     * Return the list of GUIDs for the entities in the requested page of results.
      *
      * @return null or list of GUIDs
      */
-    public List<String> getResultsForAugmentation()
+    public synchronized List<String> getResultsForAugmentation()
     {
         if (! accumulatedEntities.isEmpty())
         {
-           return new ArrayList<>(accumulatedEntities.keySet());
+            List<String> pageGUIDs = super.getPageGUIDs(this::getEntityProperties);
+
+            if (! pageGUIDs.isEmpty())
+            {
+                return new ArrayList<>(pageGUIDs);
+            }
         }
 
         return null;
@@ -239,8 +248,8 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
 
     /**
      * Extract the results - this will be a unique list of entities selected from the instances
-     * supplied to this accumulator.  It should be called once all the executors have completed processing
-     * their request(s).
+     * supplied to this accumulator, in the order of the requested page.  It should be called once all the
+     * executors have completed processing their request(s).
      *
      * @param repositoryConnector enterprise connector
      * @param metadataCollection enterprise metadata collection
@@ -261,8 +270,10 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
 
             if (metadataCollection != null)
             {
-                for (EntityDetail accumulatedEntity : accumulatedEntities.values())
+                for (String entityGUID : super.getPageGUIDs(this::getEntityProperties))
                 {
+                    EntityDetail accumulatedEntity = accumulatedEntities.get(entityGUID);
+
                     if (accumulatedEntity != null)
                     {
                         EntityDetail resultEntity = new EntityDetail(accumulatedEntity);
@@ -286,6 +297,18 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
     }
 
 
+    /**
+     * Return the properties of an entity for property-based ordering of the results.
+     *
+     * @param instance entity returned from a member
+     * @return properties or null
+     */
+    private InstanceProperties getEntityProperties(InstanceHeader instance)
+    {
+        return ((EntityDetail)instance).getProperties();
+    }
+
+
     /**
      * Return the list of entities that where retrieved from other repositories and not stored in the local repository.
      * The local repository may use this list to send out refresh requests on the OMRS Topic.  If the rules allow, and
@@ -0,0 +1,166 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EntityDetailListAccumulator accumulates the entities received from a collection of open metadata repositories
+ * in response to a request for a list of entities.  Each requested entity has its own EntityDetailAccumulator
+ * to choose the latest version of the entity and gather its classifications.  The exceptions that apply to
+ * the whole request are saved in this accumulator.
+ */
+public class EntityDetailListAccumulator extends MaintenanceAccumulator
+{
+    private final Map<String, EntityDetailAccumulator> entityAccumulators = new LinkedHashMap<>();
+
+
+    /**
+     * Construct an entity list accumulator.  Its base class manages the common variables needed to
+     * control the execution of requests across all members of the cohort(s).
+     *
+     * @param entityGUIDs unique identifiers of the requested entities
+     * @param auditLog audit log provides destination for log messages
+     */
+    public EntityDetailListAccumulator(List<String> entityGUIDs,
+                                       AuditLog     auditLog)
+    {
+        super(auditLog);
+
+        if (entityGUIDs != null)
+        {
+            for (String entityGUID : entityGUIDs)
+            {
+                if (entityGUID != null)
+                {
+                    entityAccumulators.put(entityGUID, new EntityDetailAccumulator(auditLog));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the accumulator for a specific requested entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return accumulator or null if the entity was not requested
+     */
+    public EntityDetailAccumulator getEntityAccumulator(String entityGUID)
+    {
+        return entityAccumulators.get(entityGUID);
+    }
+
+
+    /**
+     * Return the unique identifiers of the requested entities whose home repository has not yet returned the entity.
+     *
+     * @return null or list of GUIDs
+     */
+    public List<String> getGUIDsInPhaseOne()
+    {
+        List<String> entityGUIDs = new ArrayList<>();
+
+        for (Map.Entry<String, EntityDetailAccumulator> entry : entityAccumulators.entrySet())
+        {
+            if (entry.getValue().isInPhaseOne())
+            {
+                entityGUIDs.add(entry.getKey());
+            }
+        }
+
+        if (entityGUIDs.isEmpty())
+        {
+            return null;
+        }
+
+        return entityGUIDs;
+    }
+
+
+    /**
+     * Provide an entity received from an open metadata repository.  Entities that were not requested are ignored.
+     *
+     * @param incomingEntity entity returned from an open metadata repository
+     * @param metadataCollectionId unique identifier for the collection of metadata stored in this repository
+     */
+    public void addEntity(EntityDetail incomingEntity,
+                          String       metadataCollectionId)
+    {
+        if (incomingEntity != null)
+        {
+            EntityDetailAccumulator entityAccumulator = entityAccumulators.get(incomingEntity.getGUID());
+
+            if (entityAccumulator != null)
+            {
+                entityAccumulator.addContributingMetadataCollection(metadataCollectionId);
+                entityAccumulator.addEntity(incomingEntity, metadataCollectionId);
+            }
+        }
+    }
+
+
+    /**
+     * Return the list of GUIDs for the entities that have been retrieved.  Their classifications are
+     * augmented from the repositories that did not return the entity.
+     *
+     * @return null or list of GUIDs
+     */
+    public List<String> getResultsForAugmentation()
+    {
+        List<String> entityGUIDs = new ArrayList<>();
+
+        for (EntityDetailAccumulator entityAccumulator : entityAccumulators.values())
+        {
+            List<String> resultGUIDs = entityAccumulator.getResultsForAugmentation();
+
+            if (resultGUIDs != null)
+            {
+                entityGUIDs.addAll(resultGUIDs);
+            }
+        }
+
+        if (entityGUIDs.isEmpty())
+        {
+            return null;
+        }
+
+        return entityGUIDs;
+    }
+
+
+    /**
+     * Extract the resulting entities, with their accumulated classifications, in the order they were requested.
+     * It should be called once all the executors have completed processing their request(s).
+     *
+     * @return null or list of entities
+     */
+    public List<EntityDetail> getResults()
+    {
+        List<EntityDetail> results = new ArrayList<>();
+
+        for (EntityDetailAccumulator entityAccumulator : entityAccumulators.values())
+        {
+            EntityDetail entity = entityAccumulator.getResult();
+
+            if (entity != null)
+            {
+                results.add(entity);
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+}
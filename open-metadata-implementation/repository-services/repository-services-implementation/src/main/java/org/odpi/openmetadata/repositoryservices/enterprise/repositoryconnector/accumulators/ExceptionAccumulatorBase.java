@@ -7,6 +7,9 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * ExceptionAccumulatorBase collections exception responses from multiple queries.
  */
@@ -34,6 +37,11 @@ public class ExceptionAccumulatorBase
     TypeErrorException              typeErrorException              = null;
     UserNotAuthorizedException      userNotAuthorizedException      = null;
 
+    /*
+     * Metadata collections that returned a repository error or an unexpected exception
+     */
+    private final Set<String>       failedMetadataCollections       = new HashSet<>();
+
 
     /**
      * Constructor restricted to use by this package
@@ -46,6 +54,33 @@ public class ExceptionAccumulatorBase
     }
 
 
+    /**
+     * Record that a request to a repository failed because of a problem in the repository
+     * rather than a problem with the request.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection that failed
+     */
+    synchronized void captureRepositoryFailure(String metadataCollectionId)
+    {
+        if (metadataCollectionId != null)
+        {
+            failedMetadataCollections.add(metadataCollectionId);
+        }
+    }
+
+
+    /**
+     * Return whether the request to a repository failed because of a problem in the repository.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection
+     * @return boolean
+     */
+    public synchronized boolean isRepositoryFailure(String metadataCollectionId)
+    {
+        return failedMetadataCollections.contains(metadataCollectionId);
+    }
+
+
     /**
      * Throw a ClassificationErrorException if it was returned by one of the calls to a cohort connector.
      *
@@ -144,6 +144,20 @@ public class MaintenanceAccumulator extends ExceptionAccumulatorBase
     }
 
 
+    /**
+     * Save the supplied exception and record that the repository has failed.
+     *
+     * @param metadataCollectionId unique identifier for metadata collection this issued this exception
+     * @param exception  exception from remote call
+     */
+    public synchronized void captureException(String                   metadataCollectionId,
+                                              RepositoryErrorException exception)
+    {
+        captureRepositoryFailure(metadataCollectionId);
+        repositoryErrorException = exception;
+    }
+
+
     /**
      * Save the supplied exception.
      *
@@ -166,6 +180,7 @@ public class MaintenanceAccumulator extends ExceptionAccumulatorBase
                                                      String     metadataCollectionId,
                                                      Exception  exception)
     {
+        captureRepositoryFailure(metadataCollectionId);
         anotherException = exception;
 
         auditLog.logException(actionDescription,
@@ -0,0 +1,75 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PagingContinuation remembers where a federated query reached in the results of each cohort member once
+ * a page of results has been returned.  It allows the next page to be retrieved from each member starting
+ * from the first result that has not been consumed rather than from the first result of the query.
+ * The unique identifiers of the instances already returned are kept so that copies of these instances
+ * from other members are not returned again.
+ */
+class PagingContinuation
+{
+    private final Map<String, Integer> memberOffsets;
+    private final Set<String>          returnedGUIDs;
+    private final long                 creationTime = System.currentTimeMillis();
+
+
+    /**
+     * Constructor
+     *
+     * @param memberOffsets map of metadata collection id to the number of its results consumed so far
+     * @param returnedGUIDs unique identifiers of the instances returned so far
+     */
+    PagingContinuation(Map<String, Integer> memberOffsets,
+                       Set<String>          returnedGUIDs)
+    {
+        this.memberOffsets = memberOffsets;
+        this.returnedGUIDs = returnedGUIDs;
+    }
+
+
+    /**
+     * Return the starting element for the next request to a cohort member.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return offset (zero if the member did not take part in the previous page)
+     */
+    int getMemberOffset(String metadataCollectionId)
+    {
+        Integer offset = memberOffsets.get(metadataCollectionId);
+
+        if (offset == null)
+        {
+            return 0;
+        }
+
+        return offset;
+    }
+
+
+    /**
+     * Return the unique identifiers of the instances returned so far.
+     *
+     * @return set of guids
+     */
+    Set<String> getReturnedGUIDs()
+    {
+        return returnedGUIDs;
+    }
+
+
+    /**
+     * Return the time that the continuation was created.
+     *
+     * @return time in milliseconds
+     */
+    long getCreationTime()
+    {
+        return creationTime;
+    }
+}
@@ -0,0 +1,71 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PagingContinuationCache holds the paging continuations for the federated queries issued through the enterprise
+ * repository connector.  Each continuation is stored under a token made from the parameters of the query and
+ * the starting element of the page that follows it.  The caller simply asks for the next page with the
+ * usual paging parameters and the continuation is picked up from this cache if it is still present.
+ *
+ * The cache is bounded.  The least recently used continuations are removed when it is full and continuations
+ * expire after a few minutes, after which the page is retrieved by querying each member from the start.
+ */
+public class PagingContinuationCache
+{
+    private static final int  MAX_CONTINUATIONS    = 500;
+    private static final long CONTINUATION_TIMEOUT = 5 * 60 * 1000L;
+
+    private final Map<String, PagingContinuation> continuations = new LinkedHashMap<String, PagingContinuation>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PagingContinuation> eldest)
+        {
+            return size() > MAX_CONTINUATIONS;
+        }
+    };
+
+
+    /**
+     * Default constructor
+     */
+    public PagingContinuationCache()
+    {
+    }
+
+
+    /**
+     * Return the continuation for the token.
+     *
+     * @param token query parameters and starting element
+     * @return continuation or null if it is unknown or expired
+     */
+    synchronized PagingContinuation get(String token)
+    {
+        PagingContinuation continuation = continuations.get(token);
+
+        if ((continuation != null) && (System.currentTimeMillis() - continuation.getCreationTime() > CONTINUATION_TIMEOUT))
+        {
+            continuations.remove(token);
+            return null;
+        }
+
+        return continuation;
+    }
+
+
+    /**
+     * Save a continuation.
+     *
+     * @param token query parameters and starting element
+     * @param continuation continuation to save
+     */
+    synchronized void put(String             token,
+                          PagingContinuation continuation)
+    {
+        continuations.put(token, continuation);
+    }
+}
@@ -216,6 +216,7 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
                                               RepositoryErrorException exception)
     {
         setRequestReturned(metadataCollectionId, 0);
+        captureRepositoryFailure(metadataCollectionId);
         repositoryErrorException = exception;
     }
 
@@ -260,6 +261,7 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
                                                      Exception  exception)
     {
         setRequestReturned(metadataCollectionId, 0);
+        captureRepositoryFailure(metadataCollectionId);
         anotherException = exception;
 
         auditLog.logException(actionDescription,
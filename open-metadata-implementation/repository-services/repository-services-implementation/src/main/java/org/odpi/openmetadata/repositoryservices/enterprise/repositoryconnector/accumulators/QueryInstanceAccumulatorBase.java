@@ -4,19 +4,45 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * QueryAccumulatorBase acts as a base class to the accumulators that need to visit each repository and
  * combine results.
+ *
+ * It also manages the paging of the combined results.  Each cohort member is asked for enough results to fill
+ * the requested page (that is the starting element plus the page size) in the requested order.  The ordered
+ * results from each member are then merged, removing duplicates, to select the exact page of results.
+ * Once a page is complete, a continuation is saved that remembers how many results from each member were
+ * consumed.  When the next page is requested, each member is asked for its results starting from where it
+ * left off rather than from the first result.  The request still runs to the same end point as a full query
+ * because the results a member has not yet supplied may include copies of instances that other members have
+ * already returned.  These are skipped by the merge so they do not count towards the page.
  */
 public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
 {
     protected List<String>            locallyStoredInstancesGUIDs = new ArrayList<>();
 
+    private int             fromElement        = 0;
+    private int             pageSize           = 0;
+    private String          sequencingProperty = null;
+    private SequencingOrder sequencingOrder    = null;
+
+    private PagingContinuationCache pagingContinuations = null;
+    private String                  queryKey            = null;
+    private PagingContinuation      continuation        = null;
+
+    private final Set<String>                       requestedMembers = new HashSet<>();
+    private final Map<String, List<InstanceHeader>> memberResults    = new LinkedHashMap<>();
+    private       List<String>                      pageGUIDs        = null;
+
     /**
      * Construct a query accumulator.  This base class manages the common variables needed to
      * control the execution of requests across all members of the cohort(s).
@@ -54,4 +80,323 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
     {
         return ! (locallyStoredInstancesGUIDs.contains(instanceGUID));
     }
+
+
+    /**
+     * Set up the paging parameters from the original request.
+     *
+     * @param fromElement starting element of the requested page
+     * @param pageSize maximum number of elements in the page (zero means no limit)
+     * @param sequencingProperty property used for ordering (optional)
+     * @param sequencingOrder ordering of results
+     */
+    public synchronized void setPagingParameters(int             fromElement,
+                                                 int             pageSize,
+                                                 String          sequencingProperty,
+                                                 SequencingOrder sequencingOrder)
+    {
+        this.fromElement = fromElement;
+        this.pageSize = pageSize;
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder = sequencingOrder;
+    }
+
+
+    /**
+     * Set up the cache of paging continuations and retrieve the continuation for this page (if any).
+     * This must be called before the requests are issued to the cohort members.
+     *
+     * @param pagingContinuations cache of continuations
+     * @param queryKey string made from the parameters of the query (excluding the paging parameters)
+     */
+    public synchronized void setPagingContinuations(PagingContinuationCache pagingContinuations,
+                                                    String                  queryKey)
+    {
+        this.pagingContinuations = pagingContinuations;
+        this.queryKey = queryKey;
+
+        if ((pagingContinuations != null) && (fromElement > 0) && (pageSize > 0))
+        {
+            this.continuation = pagingContinuations.get(this.getContinuationToken(fromElement));
+        }
+    }
+
+
+    /**
+     * Return the starting element to use on the request to a cohort member.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return starting element
+     */
+    public synchronized int getMemberStartingElement(String metadataCollectionId)
+    {
+        requestedMembers.add(metadataCollectionId);
+
+        if (continuation != null)
+        {
+            return continuation.getMemberOffset(metadataCollectionId);
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Return the page size to use on the request to a cohort member.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return page size (zero means no limit)
+     */
+    public synchronized int getMemberPageSize(String metadataCollectionId)
+    {
+        if (pageSize == 0)
+        {
+            return 0;
+        }
+
+        if (continuation != null)
+        {
+            return fromElement + pageSize - continuation.getMemberOffset(metadataCollectionId);
+        }
+
+        return fromElement + pageSize;
+    }
+
+
+    /**
+     * Save the ordered results returned by a cohort member.  This is called from the synchronized methods
+     * that add the results to the subclass.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @param results results in the order returned by the member
+     */
+    void saveMemberResults(String                         metadataCollectionId,
+                           List<? extends InstanceHeader> results)
+    {
+        if (metadataCollectionId != null)
+        {
+            List<InstanceHeader> orderedResults = new ArrayList<>();
+
+            if (results != null)
+            {
+                for (InstanceHeader result : results)
+                {
+                    if ((result != null) && (result.getGUID() != null))
+                    {
+                        orderedResults.add(result);
+                    }
+                }
+            }
+
+            memberResults.put(metadataCollectionId, orderedResults);
+        }
+    }
+
+
+    /**
+     * Merge the ordered results from each cohort member to select the unique identifiers of the instances
+     * in the requested page.  A continuation for the following page is saved if the page is full and every
+     * member that was called returned results.  The page is only selected once, so this should be called
+     * after all the members have returned their results.
+     *
+     * @param propertiesGetter function to extract the properties of an instance for property-based ordering
+     * @return unique identifiers of the instances in the requested page, in order
+     */
+    List<String> getPageGUIDs(Function<InstanceHeader, InstanceProperties> propertiesGetter)
+    {
+        if (pageGUIDs == null)
+        {
+            pageGUIDs = this.selectPage(propertiesGetter);
+        }
+
+        return pageGUIDs;
+    }
+
+
+    /**
+     * Work through the results from each member in order to select the page.  Results that are equal in the
+     * requested order are ordered by their unique identifier and then by the metadata collection id of the
+     * member that returned them.  This means the page does not depend on the order that the members responded,
+     * which varies from request to request when the members are called in parallel.
+     *
+     * @param propertiesGetter function to extract the properties of an instance for property-based ordering
+     * @return unique identifiers of the instances in the requested page, in order
+     */
+    private List<String> selectPage(Function<InstanceHeader, InstanceProperties> propertiesGetter)
+    {
+        Comparator<InstanceHeader> instanceComparator = this.getInstanceComparator(propertiesGetter);
+        PriorityQueue<MemberCursor> cursors = new PriorityQueue<>((one, two) ->
+        {
+            int result = instanceComparator.compare(one.getHead(), two.getHead());
+
+            if (result == 0)
+            {
+                result = one.getHead().getGUID().compareTo(two.getHead().getGUID());
+            }
+
+            if (result == 0)
+            {
+                result = one.metadataCollectionId.compareTo(two.metadataCollectionId);
+            }
+
+            return result;
+        });
+
+        List<MemberCursor> allCursors = new ArrayList<>();
+
+        for (Map.Entry<String, List<InstanceHeader>> entry : memberResults.entrySet())
+        {
+            MemberCursor cursor = new MemberCursor(entry.getKey(), entry.getValue());
+
+            allCursors.add(cursor);
+
+            if (cursor.hasHead())
+            {
+                cursors.add(cursor);
+            }
+        }
+
+        Set<String>  returnedGUIDs = new HashSet<>();
+        int          skipCount     = fromElement;
+        List<String> selectedGUIDs = new ArrayList<>();
+
+        if (continuation != null)
+        {
+            returnedGUIDs.addAll(continuation.getReturnedGUIDs());
+            skipCount = 0;
+        }
+
+        while ((! cursors.isEmpty()) && ((pageSize == 0) || (selectedGUIDs.size() < pageSize)))
+        {
+            MemberCursor   cursor   = cursors.poll();
+            InstanceHeader instance = cursor.getHead();
+
+            cursor.position++;
+
+            if (cursor.hasHead())
+            {
+                cursors.add(cursor);
+            }
+
+            if (returnedGUIDs.add(instance.getGUID()))
+            {
+                if (skipCount > 0)
+                {
+                    skipCount--;
+                }
+                else
+                {
+                    selectedGUIDs.add(instance.getGUID());
+                }
+            }
+        }
+
+        if ((pagingContinuations != null) &&
+                    (pageSize > 0) &&
+                    (selectedGUIDs.size() == pageSize) &&
+                    (memberResults.keySet().containsAll(requestedMembers)))
+        {
+            Map<String, Integer> memberOffsets = new HashMap<>();
+
+            for (MemberCursor cursor : allCursors)
+            {
+                int previousOffset = 0;
+
+                if (continuation != null)
+                {
+                    previousOffset = continuation.getMemberOffset(cursor.metadataCollectionId);
+                }
+
+                memberOffsets.put(cursor.metadataCollectionId, previousOffset + cursor.position);
+            }
+
+            pagingContinuations.put(this.getContinuationToken(fromElement + pageSize),
+                                    new PagingContinuation(memberOffsets, returnedGUIDs));
+        }
+
+        return selectedGUIDs;
+    }
+
+
+    /**
+     * Return the token used to store the continuation for a page.
+     *
+     * @param pageStartingElement starting element of the page
+     * @return token
+     */
+    private String getContinuationToken(int pageStartingElement)
+    {
+        return queryKey + "#" + pageStartingElement;
+    }
+
+
+    /**
+     * Return the comparator that matches the requested sequencing order.
+     *
+     * @param propertiesGetter function to extract the properties of an instance for property-based ordering
+     * @return comparator
+     */
+    private Comparator<InstanceHeader> getInstanceComparator(Function<InstanceHeader, InstanceProperties> propertiesGetter)
+    {
+        if ((sequencingOrder == null) || (sequencingOrder == SequencingOrder.ANY))
+        {
+            return (one, two) -> 0;
+        }
+        else if ((sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) || (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING))
+        {
+            return (one, two) -> OMRSRepositoryContentHelper.compareProperties(propertiesGetter.apply(one),
+                                                                               propertiesGetter.apply(two),
+                                                                               sequencingProperty,
+                                                                               sequencingOrder);
+        }
+
+        return (one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder);
+    }
+
+
+    /**
+     * Position in the ordered results from a single cohort member.
+     */
+    private static class MemberCursor
+    {
+        private final String               metadataCollectionId;
+        private final List<InstanceHeader> results;
+        private       int                  position = 0;
+
+
+        /**
+         * Constructor
+         *
+         * @param metadataCollectionId unique identifier of the member's metadata collection
+         * @param results ordered results from the member
+         */
+        MemberCursor(String               metadataCollectionId,
+                     List<InstanceHeader> results)
+        {
+            this.metadataCollectionId = metadataCollectionId;
+            this.results = results;
+        }
+
+
+        /**
+         * Return whether there are any results left to consume.
+         *
+         * @return boolean
+         */
+        boolean hasHead()
+        {
+            return position < results.size();
+        }
+
+
+        /**
+         * Return the next result to consume.
+         *
+         * @return instance
+         */
+        InstanceHeader getHead()
+        {
+            return results.get(position);
+        }
+    }
 }
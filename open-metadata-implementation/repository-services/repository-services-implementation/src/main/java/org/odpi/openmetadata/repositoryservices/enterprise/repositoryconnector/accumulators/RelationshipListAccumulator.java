@@ -0,0 +1,123 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RelationshipListAccumulator accumulates the relationships received from a collection of open metadata
+ * repositories in response to a request for a list of relationships.  It keeps the latest version of
+ * each requested relationship.
+ */
+public class RelationshipListAccumulator extends MaintenanceAccumulator
+{
+    private final Map<String, Relationship> accumulatedRelationships = new LinkedHashMap<>();
+
+
+    /**
+     * Construct a relationship list accumulator.  Its base class manages the common variables needed to
+     * control the execution of requests across all members of the cohort(s).
+     *
+     * @param relationshipGUIDs unique identifiers of the requested relationships
+     * @param auditLog audit log provides destination for log messages
+     */
+    public RelationshipListAccumulator(List<String> relationshipGUIDs,
+                                       AuditLog     auditLog)
+    {
+        super(auditLog);
+
+        if (relationshipGUIDs != null)
+        {
+            for (String relationshipGUID : relationshipGUIDs)
+            {
+                if (relationshipGUID != null)
+                {
+                    accumulatedRelationships.put(relationshipGUID, null);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the unique identifiers of the requested relationships that have not yet been retrieved.
+     *
+     * @return null or list of GUIDs
+     */
+    public synchronized List<String> getGUIDsNotRetrieved()
+    {
+        List<String> relationshipGUIDs = new ArrayList<>();
+
+        for (Map.Entry<String, Relationship> entry : accumulatedRelationships.entrySet())
+        {
+            if (entry.getValue() == null)
+            {
+                relationshipGUIDs.add(entry.getKey());
+            }
+        }
+
+        if (relationshipGUIDs.isEmpty())
+        {
+            return null;
+        }
+
+        return relationshipGUIDs;
+    }
+
+
+    /**
+     * Provide a relationship received from an open metadata repository.  Relationships that were not requested
+     * are ignored.
+     *
+     * @param incomingRelationship relationship returned from an open metadata repository
+     */
+    public synchronized void addRelationship(Relationship incomingRelationship)
+    {
+        if ((incomingRelationship != null) && (accumulatedRelationships.containsKey(incomingRelationship.getGUID())))
+        {
+            Relationship currentSavedRelationship = accumulatedRelationships.get(incomingRelationship.getGUID());
+
+            /*
+             * This incoming instance is ignored if we already have a later version.
+             */
+            if (! super.currentInstanceIsBest(currentSavedRelationship, incomingRelationship))
+            {
+                accumulatedRelationships.put(incomingRelationship.getGUID(), incomingRelationship);
+            }
+        }
+    }
+
+
+    /**
+     * Extract the resulting relationships in the order they were requested.  It should be called once all the
+     * executors have completed processing their request(s).
+     *
+     * @return null or list of relationships
+     */
+    public synchronized List<Relationship> getResults()
+    {
+        List<Relationship> results = new ArrayList<>();
+
+        for (Relationship relationship : accumulatedRelationships.values())
+        {
+            if (relationship != null)
+            {
+                results.add(relationship);
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+}
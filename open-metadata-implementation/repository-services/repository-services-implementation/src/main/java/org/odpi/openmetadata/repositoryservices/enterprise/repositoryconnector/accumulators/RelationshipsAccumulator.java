@@ -3,6 +3,8 @@
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
@@ -85,6 +87,8 @@ public class RelationshipsAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addRelationships(List<Relationship>   relationships,
                                               String               metadataCollectionId)
     {
+        super.saveMemberResults(metadataCollectionId, relationships);
+
         if (relationships != null)
         {
             for (Relationship relationship : relationships)
@@ -109,8 +113,8 @@ public class RelationshipsAccumulator extends QueryInstanceAccumulatorBase
 
     /**
      * Extract the results - this will the a unique list of relationships selected from the instances
-     * supplied to this accumulator.  It should be called once all the executors have completed processing
-     * their request(s).
+     * supplied to this accumulator, in the order of the requested page.  It should be called once all the
+     * executors have completed processing their request(s).
      *
      * @param repositoryConnector enterprise connector
      * @return list of relationships
@@ -124,11 +128,41 @@ public class RelationshipsAccumulator extends QueryInstanceAccumulatorBase
         else
         {
             this.makeRefreshRecommendations(repositoryConnector);
-            return new ArrayList<>(accumulatedRelationships.values());
+
+            List<Relationship> results = new ArrayList<>();
+
+            for (String relationshipGUID : super.getPageGUIDs(this::getRelationshipProperties))
+            {
+                Relationship accumulatedRelationship = accumulatedRelationships.get(relationshipGUID);
+
+                if (accumulatedRelationship != null)
+                {
+                    results.add(accumulatedRelationship);
+                }
+            }
+
+            if (results.isEmpty())
+            {
+                return null;
+            }
+
+            return results;
         }
     }
 
 
+    /**
+     * Return the properties of a relationship for property-based ordering of the results.
+     *
+     * @param instance relationship returned from a member
+     * @return properties or null
+     */
+    private InstanceProperties getRelationshipProperties(InstanceHeader instance)
+    {
+        return ((Relationship)instance).getProperties();
+    }
+
+
     /**
      * Return the list of relationships that where retrieved from other repositories and not stored in the local repository.
      * The local repository may use this list to send out refresh requests on the OMRS Topic.  If the rules allow, and
@@ -0,0 +1,684 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * EnterpriseInstanceCache is an optional read-through cache for the enterprise repository connector.  It holds the
+ * results of getEntityDetail, getRelationship and getRelationshipsForEntity requests so that repeated requests
+ * for the same instances do not have to be sent to every member of the cohort(s).
+ * <p>
+ * Values are cached for each instance guid.  Since the repositories may return different results to different
+ * users, each value is also keyed by the userId that retrieved it.  The relationships for an entity are keyed by
+ * the paging and filtering parameters of the request too.
+ * </p>
+ * <p>
+ * The size of the cache is bounded by the number of instances.  New instances enter a small window.  When the
+ * window is full, its least recently used instance competes with the least recently used instance in the main area
+ * of the cache and the one that has been requested most often (according to a FrequencySketch) is kept.  This
+ * keeps popular instances in the cache when there is a burst of requests for instances that are only used once.
+ * Each value also expires after the time to live.
+ * </p>
+ * <p>
+ * Values are removed (invalidated) when an instance event reports that the instance has changed.  Relationships,
+ * and the relationships for an entity, include details of the entities at each end, so the cache remembers which
+ * instances each cached value refers to and invalidates the value when any of them change.  A request that was
+ * in progress when one of its instances was invalidated does not save its result in the cache.
+ * </p>
+ */
+public class EnterpriseInstanceCache
+{
+    /**
+     * Default time (in milliseconds) that a value is cached.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 5 * 60 * 1000L;
+
+    private static final int MAX_VALUES_PER_INSTANCE  = 32;
+    private static final int MAX_RECENT_INVALIDATIONS = 10000;
+
+    private static final String ENTITY_PREFIX        = "E:";
+    private static final String RELATIONSHIP_PREFIX  = "R:";
+    private static final String RELATIONSHIPS_PREFIX = "L:";
+
+    private final int  windowSize;
+    private final int  mainSize;
+    private final long timeToLive;
+
+    private final Map<String, CachedInstance> window     = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CachedInstance> main       = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>>    dependents = new HashMap<>();
+    private final FrequencySketch             sketch;
+
+    /*
+     * The sequence number of the most recent invalidation of each instance.  These are checked before a
+     * result is saved so that results retrieved before the instance changed are not cached.
+     */
+    private final Map<String, Long> recentInvalidations = new LinkedHashMap<String, Long>()
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest)
+        {
+            if (size() > MAX_RECENT_INVALIDATIONS)
+            {
+                forgottenInvalidation = eldest.getValue();
+                return true;
+            }
+
+            return false;
+        }
+    };
+
+    private long invalidationSequence  = 0;
+    private long forgottenInvalidation = 0;
+
+    private long hitCount          = 0;
+    private long missCount         = 0;
+    private long evictionCount     = 0;
+    private long invalidationCount = 0;
+
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize maximum number of instances to cache
+     * @param timeToLive maximum time (in milliseconds) that a value is cached - zero or less means use the default
+     */
+    public EnterpriseInstanceCache(int  maximumSize,
+                                   long timeToLive)
+    {
+        int cacheSize = Math.max(maximumSize, 1);
+
+        this.windowSize = Math.max(cacheSize / 100, 1);
+        this.mainSize = Math.max(cacheSize - windowSize, 1);
+        this.sketch = new FrequencySketch(cacheSize);
+
+        if (timeToLive > 0)
+        {
+            this.timeToLive = timeToLive;
+        }
+        else
+        {
+            this.timeToLive = DEFAULT_TIME_TO_LIVE;
+        }
+    }
+
+
+    /**
+     * Return the maximum number of instances that are cached.
+     *
+     * @return count
+     */
+    public int getMaximumSize()
+    {
+        return windowSize + mainSize;
+    }
+
+
+    /**
+     * Return the maximum time that a value is cached.
+     *
+     * @return time in milliseconds
+     */
+    public long getTimeToLive()
+    {
+        return timeToLive;
+    }
+
+
+    /**
+     * Return the current read sequence.  This must be retrieved before a request is sent to the cohort and
+     * passed when the result is saved.
+     *
+     * @return sequence number
+     */
+    public synchronized long getReadSequence()
+    {
+        return invalidationSequence;
+    }
+
+
+    /**
+     * Return the cached entity.
+     *
+     * @param userId calling user
+     * @param guid unique identifier of the entity
+     * @return copy of the cached entity or null if it is not cached
+     */
+    public EntityDetail getEntityDetail(String userId,
+                                        String guid)
+    {
+        EntityDetail entity = (EntityDetail) this.getValue(guid, ENTITY_PREFIX + userId);
+
+        if (entity != null)
+        {
+            return new EntityDetail(entity);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Save an entity retrieved from the cohort.
+     *
+     * @param userId calling user
+     * @param entity retrieved entity
+     * @param readSequence read sequence from before the request was issued
+     */
+    public void saveEntityDetail(String       userId,
+                                 EntityDetail entity,
+                                 long         readSequence)
+    {
+        if ((entity != null) && (entity.getGUID() != null))
+        {
+            this.saveValue(entity.getGUID(), ENTITY_PREFIX + userId, new EntityDetail(entity), new HashSet<>(), readSequence);
+        }
+    }
+
+
+    /**
+     * Return the cached relationship.
+     *
+     * @param userId calling user
+     * @param guid unique identifier of the relationship
+     * @return copy of the cached relationship or null if it is not cached
+     */
+    public Relationship getRelationship(String userId,
+                                        String guid)
+    {
+        Relationship relationship = (Relationship) this.getValue(guid, RELATIONSHIP_PREFIX + userId);
+
+        if (relationship != null)
+        {
+            return new Relationship(relationship);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Save a relationship retrieved from the cohort.
+     *
+     * @param userId calling user
+     * @param relationship retrieved relationship
+     * @param readSequence read sequence from before the request was issued
+     */
+    public void saveRelationship(String       userId,
+                                 Relationship relationship,
+                                 long         readSequence)
+    {
+        if ((relationship != null) && (relationship.getGUID() != null))
+        {
+            Set<String> references = new HashSet<>();
+
+            this.addEntityReferences(references, relationship);
+
+            this.saveValue(relationship.getGUID(), RELATIONSHIP_PREFIX + userId, new Relationship(relationship), references, readSequence);
+        }
+    }
+
+
+    /**
+     * Return the cached relationships for an entity.
+     *
+     * @param userId calling user
+     * @param entityGUID unique identifier of the entity
+     * @param queryKey string made from the filtering and paging parameters of the request
+     * @return copy of the cached relationships (possibly empty) or null if they are not cached
+     */
+    @SuppressWarnings(value = "unchecked")
+    public List<Relationship> getRelationshipsForEntity(String userId,
+                                                        String entityGUID,
+                                                        String queryKey)
+    {
+        List<Relationship> relationships = (List<Relationship>) this.getValue(entityGUID, RELATIONSHIPS_PREFIX + userId + "#" + queryKey);
+
+        if (relationships != null)
+        {
+            List<Relationship> results = new ArrayList<>();
+
+            for (Relationship relationship : relationships)
+            {
+                results.add(new Relationship(relationship));
+            }
+
+            return results;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Save the relationships for an entity retrieved from the cohort.
+     *
+     * @param userId calling user
+     * @param entityGUID unique identifier of the entity
+     * @param queryKey string made from the filtering and paging parameters of the request
+     * @param relationships retrieved relationships (null means there are none)
+     * @param readSequence read sequence from before the request was issued
+     */
+    public void saveRelationshipsForEntity(String             userId,
+                                           String             entityGUID,
+                                           String             queryKey,
+                                           List<Relationship> relationships,
+                                           long               readSequence)
+    {
+        if (entityGUID != null)
+        {
+            List<Relationship> cachedRelationships = new ArrayList<>();
+            Set<String>        references          = new HashSet<>();
+
+            if (relationships != null)
+            {
+                for (Relationship relationship : relationships)
+                {
+                    if ((relationship != null) && (relationship.getGUID() != null))
+                    {
+                        cachedRelationships.add(new Relationship(relationship));
+                        references.add(relationship.getGUID());
+
+                        this.addEntityReferences(references, relationship);
+                    }
+                }
+            }
+
+            references.remove(entityGUID);
+
+            this.saveValue(entityGUID, RELATIONSHIPS_PREFIX + userId + "#" + queryKey, cachedRelationships, references, readSequence);
+        }
+    }
+
+
+    /**
+     * Remove all the cached values for an instance along with any cached values that refer to it.
+     *
+     * @param guid unique identifier of the instance that has changed
+     */
+    public synchronized void invalidate(String guid)
+    {
+        if (guid != null)
+        {
+            this.recordInvalidation(guid);
+
+            if (this.removeInstance(guid))
+            {
+                invalidationCount++;
+            }
+
+            Set<String> dependentGUIDs = dependents.remove(guid);
+
+            if (dependentGUIDs != null)
+            {
+                for (String dependentGUID : new ArrayList<>(dependentGUIDs))
+                {
+                    if (this.removeInstance(dependentGUID))
+                    {
+                        invalidationCount++;
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Remove the cached relationships for an entity - typically because a relationship has been added to the entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     */
+    public synchronized void invalidateRelationshipsForEntity(String entityGUID)
+    {
+        if (entityGUID != null)
+        {
+            this.recordInvalidation(entityGUID);
+
+            CachedInstance instance = this.getInstance(entityGUID);
+
+            if ((instance != null) && (instance.values.keySet().removeIf(valueKey -> valueKey.startsWith(RELATIONSHIPS_PREFIX))))
+            {
+                invalidationCount++;
+
+                if (instance.values.isEmpty())
+                {
+                    this.removeInstance(entityGUID);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the statistics of the cache.
+     *
+     * @return statistics snapshot
+     */
+    public synchronized EnterpriseInstanceCacheStatistics getStatistics()
+    {
+        return new EnterpriseInstanceCacheStatistics(hitCount,
+                                                     missCount,
+                                                     evictionCount,
+                                                     invalidationCount,
+                                                     window.size() + main.size());
+    }
+
+
+    /**
+     * Return the cached value if it has not expired.
+     *
+     * @param guid unique identifier of the instance
+     * @param valueKey key of the value within the instance
+     * @return cached value or null
+     */
+    private synchronized Object getValue(String guid,
+                                         String valueKey)
+    {
+        if (guid == null)
+        {
+            return null;
+        }
+
+        sketch.increment(guid);
+
+        CachedInstance instance = this.getInstance(guid);
+
+        if (instance != null)
+        {
+            CachedValue cachedValue = instance.values.get(valueKey);
+
+            if (cachedValue != null)
+            {
+                if (cachedValue.expiryTime > System.currentTimeMillis())
+                {
+                    hitCount++;
+                    return cachedValue.value;
+                }
+
+                instance.values.remove(valueKey);
+
+                if (instance.values.isEmpty())
+                {
+                    this.removeInstance(guid);
+                }
+            }
+        }
+
+        missCount++;
+        return null;
+    }
+
+
+    /**
+     * Save a value in the cache unless the instance, or any of the instances it refers to, has been invalidated
+     * since the request started.
+     *
+     * @param guid unique identifier of the instance
+     * @param valueKey key of the value within the instance
+     * @param value value to cache
+     * @param references unique identifiers of other instances included in the value
+     * @param readSequence read sequence from before the request was issued
+     */
+    private synchronized void saveValue(String      guid,
+                                        String      valueKey,
+                                        Object      value,
+                                        Set<String> references,
+                                        long        readSequence)
+    {
+        if (this.invalidatedSince(guid, readSequence))
+        {
+            return;
+        }
+
+        for (String reference : references)
+        {
+            if (this.invalidatedSince(reference, readSequence))
+            {
+                return;
+            }
+        }
+
+        CachedInstance instance = this.getInstance(guid);
+
+        if (instance == null)
+        {
+            instance = new CachedInstance();
+
+            window.put(guid, instance);
+            this.evictInstances();
+        }
+
+        instance.values.put(valueKey, new CachedValue(value, System.currentTimeMillis() + timeToLive));
+
+        if (instance.values.size() > MAX_VALUES_PER_INSTANCE)
+        {
+            Iterator<String> oldestValueKey = instance.values.keySet().iterator();
+
+            oldestValueKey.next();
+            oldestValueKey.remove();
+        }
+
+        for (String reference : references)
+        {
+            instance.references.add(reference);
+            dependents.computeIfAbsent(reference, dependentGUIDs -> new HashSet<>()).add(guid);
+        }
+    }
+
+
+    /**
+     * Move instances from the window to the main area of the cache.  If the main area is full, either the instance
+     * from the window or the least recently used instance in the main area is evicted, depending on which has been
+     * requested least often.
+     */
+    private void evictInstances()
+    {
+        while (window.size() > windowSize)
+        {
+            Iterator<Map.Entry<String, CachedInstance>> windowIterator = window.entrySet().iterator();
+            Map.Entry<String, CachedInstance>           candidate      = windowIterator.next();
+
+            windowIterator.remove();
+
+            if (main.size() < mainSize)
+            {
+                main.put(candidate.getKey(), candidate.getValue());
+            }
+            else
+            {
+                Iterator<Map.Entry<String, CachedInstance>> mainIterator = main.entrySet().iterator();
+                Map.Entry<String, CachedInstance>           victim       = mainIterator.next();
+
+                if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey()))
+                {
+                    mainIterator.remove();
+                    this.removeReferences(victim.getKey(), victim.getValue());
+
+                    main.put(candidate.getKey(), candidate.getValue());
+                }
+                else
+                {
+                    this.removeReferences(candidate.getKey(), candidate.getValue());
+                }
+
+                evictionCount++;
+            }
+        }
+    }
+
+
+    /**
+     * Return the cached instance.
+     *
+     * @param guid unique identifier of the instance
+     * @return cached instance or null
+     */
+    private CachedInstance getInstance(String guid)
+    {
+        CachedInstance instance = window.get(guid);
+
+        if (instance == null)
+        {
+            instance = main.get(guid);
+        }
+
+        return instance;
+    }
+
+
+    /**
+     * Remove an instance from the cache.
+     *
+     * @param guid unique identifier of the instance
+     * @return boolean true if the instance was cached
+     */
+    private boolean removeInstance(String guid)
+    {
+        CachedInstance instance = window.remove(guid);
+
+        if (instance == null)
+        {
+            instance = main.remove(guid);
+        }
+
+        if (instance != null)
+        {
+            this.removeReferences(guid, instance);
+
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Remove the record of the instances that a cached instance refers to.
+     *
+     * @param guid unique identifier of the cached instance
+     * @param instance cached instance
+     */
+    private void removeReferences(String         guid,
+                                  CachedInstance instance)
+    {
+        for (String reference : instance.references)
+        {
+            Set<String> dependentGUIDs = dependents.get(reference);
+
+            if (dependentGUIDs != null)
+            {
+                dependentGUIDs.remove(guid);
+
+                if (dependentGUIDs.isEmpty())
+                {
+                    dependents.remove(reference);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Record that an instance has been invalidated.
+     *
+     * @param guid unique identifier of the instance
+     */
+    private void recordInvalidation(String guid)
+    {
+        invalidationSequence++;
+
+        recentInvalidations.remove(guid);
+        recentInvalidations.put(guid, invalidationSequence);
+    }
+
+
+    /**
+     * Return whether an instance may have been invalidated since the request started.
+     *
+     * @param guid unique identifier of the instance
+     * @param readSequence read sequence from before the request was issued
+     * @return boolean
+     */
+    private boolean invalidatedSince(String guid,
+                                     long   readSequence)
+    {
+        if (readSequence < forgottenInvalidation)
+        {
+            return true;
+        }
+
+        Long invalidation = recentInvalidations.get(guid);
+
+        return (invalidation != null) && (invalidation > readSequence);
+    }
+
+
+    /**
+     * Add the unique identifiers of the entities at each end of a relationship.
+     *
+     * @param references set of references to update
+     * @param relationship relationship
+     */
+    private void addEntityReferences(Set<String>  references,
+                                     Relationship relationship)
+    {
+        EntityProxy entityOneProxy = relationship.getEntityOneProxy();
+        EntityProxy entityTwoProxy = relationship.getEntityTwoProxy();
+
+        if ((entityOneProxy != null) && (entityOneProxy.getGUID() != null))
+        {
+            references.add(entityOneProxy.getGUID());
+        }
+
+        if ((entityTwoProxy != null) && (entityTwoProxy.getGUID() != null))
+        {
+            references.add(entityTwoProxy.getGUID());
+        }
+    }
+
+
+    /**
+     * The values cached for an instance along with the other instances that these values refer to.
+     */
+    private static class CachedInstance
+    {
+        private final Map<String, CachedValue> values     = new LinkedHashMap<>();
+        private final Set<String>              references = new HashSet<>();
+    }
+
+
+    /**
+     * A cached value and the time it expires.
+     */
+    private static class CachedValue
+    {
+        private final Object value;
+        private final long   expiryTime;
+
+
+        /**
+         * Constructor
+         *
+         * @param value value to cache
+         * @param expiryTime time (in milliseconds since the epoch) that the value expires
+         */
+        CachedValue(Object value,
+                    long   expiryTime)
+        {
+            this.value = value;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
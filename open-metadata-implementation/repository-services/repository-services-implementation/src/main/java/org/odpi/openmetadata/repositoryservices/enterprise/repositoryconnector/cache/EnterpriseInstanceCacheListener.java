@@ -0,0 +1,156 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicListenerBase;
+import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicListenerInterest;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+
+/**
+ * EnterpriseInstanceCacheListener removes instances from an EnterpriseInstanceCache when they change.  It receives
+ * the instance events from the enterprise OMRS topic.  These are the events that the repository event managers
+ * pass on from the local repository and the cohort(s).  Any instance named in an event is invalidated, and
+ * relationship events also invalidate the cached relationships for the entities at each end.
+ */
+public class EnterpriseInstanceCacheListener extends OMRSTopicListenerBase
+{
+    private final EnterpriseInstanceCache instanceCache;
+
+
+    /**
+     * Constructor
+     *
+     * @param serviceName name of the service using the enterprise connector
+     * @param auditLog logging destination
+     * @param instanceCache cache for the enterprise connector
+     */
+    public EnterpriseInstanceCacheListener(String                  serviceName,
+                                           AuditLog                auditLog,
+                                           EnterpriseInstanceCache instanceCache)
+    {
+        super(serviceName, auditLog);
+
+        this.instanceCache = instanceCache;
+
+        OMRSTopicListenerInterest eventInterest = new OMRSTopicListenerInterest();
+
+        eventInterest.setRegistryEvents(false);
+        eventInterest.setTypeDefEvents(false);
+
+        super.setEventInterest(eventInterest);
+    }
+
+
+    /**
+     * Invalidate the instances named in an instance event.
+     *
+     * @param instanceEvent event to unpack
+     */
+    @Override
+    public void processInstanceEvent(OMRSInstanceEvent instanceEvent)
+    {
+        if (instanceEvent == null)
+        {
+            return;
+        }
+
+        OMRSInstanceEventType instanceEventType = instanceEvent.getInstanceEventType();
+
+        if ((instanceEventType == OMRSInstanceEventType.REFRESH_ENTITY_REQUEST) ||
+                    (instanceEventType == OMRSInstanceEventType.REFRESH_RELATIONSHIP_REQUEST))
+        {
+            /*
+             * Requests for refresh do not change any instances.
+             */
+            return;
+        }
+
+        instanceCache.invalidate(instanceEvent.getInstanceGUID());
+        instanceCache.invalidate(instanceEvent.getOriginalInstanceGUID());
+
+        this.invalidateEntity(instanceEvent.getOriginalEntity());
+        this.invalidateEntity(instanceEvent.getEntity());
+        this.invalidateEntityProxy(instanceEvent.getEntityProxy());
+        this.invalidateRelationship(instanceEvent.getOriginalRelationship());
+        this.invalidateRelationship(instanceEvent.getRelationship());
+
+        InstanceGraph instanceBatch = instanceEvent.getInstanceBatch();
+
+        if (instanceBatch != null)
+        {
+            if (instanceBatch.getEntities() != null)
+            {
+                for (EntityDetail entity : instanceBatch.getEntities())
+                {
+                    this.invalidateEntity(entity);
+                }
+            }
+
+            if (instanceBatch.getRelationships() != null)
+            {
+                for (Relationship relationship : instanceBatch.getRelationships())
+                {
+                    this.invalidateRelationship(relationship);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Invalidate an entity.
+     *
+     * @param entity entity from the event
+     */
+    private void invalidateEntity(EntityDetail entity)
+    {
+        if (entity != null)
+        {
+            instanceCache.invalidate(entity.getGUID());
+        }
+    }
+
+
+    /**
+     * Invalidate an entity from its proxy.
+     *
+     * @param entityProxy entity proxy from the event
+     */
+    private void invalidateEntityProxy(EntityProxy entityProxy)
+    {
+        if (entityProxy != null)
+        {
+            instanceCache.invalidate(entityProxy.getGUID());
+        }
+    }
+
+
+    /**
+     * Invalidate a relationship and the cached relationships for the entities at each end.
+     *
+     * @param relationship relationship from the event
+     */
+    private void invalidateRelationship(Relationship relationship)
+    {
+        if (relationship != null)
+        {
+            instanceCache.invalidate(relationship.getGUID());
+
+            if (relationship.getEntityOneProxy() != null)
+            {
+                instanceCache.invalidateRelationshipsForEntity(relationship.getEntityOneProxy().getGUID());
+            }
+
+            if (relationship.getEntityTwoProxy() != null)
+            {
+                instanceCache.invalidateRelationshipsForEntity(relationship.getEntityTwoProxy().getGUID());
+            }
+        }
+    }
+}
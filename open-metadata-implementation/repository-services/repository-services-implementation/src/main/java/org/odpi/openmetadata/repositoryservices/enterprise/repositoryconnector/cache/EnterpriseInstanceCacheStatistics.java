@@ -0,0 +1,129 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache;
+
+/**
+ * EnterpriseInstanceCacheStatistics is a snapshot of the statistics of an EnterpriseInstanceCache.
+ */
+public class EnterpriseInstanceCacheStatistics
+{
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long invalidationCount;
+    private final int  size;
+
+
+    /**
+     * Constructor
+     *
+     * @param hitCount number of requests satisfied from the cache
+     * @param missCount number of requests that had to be sent to the cohort
+     * @param evictionCount number of instances removed to make space for other instances
+     * @param invalidationCount number of instances removed because they changed
+     * @param size number of instances in the cache
+     */
+    EnterpriseInstanceCacheStatistics(long hitCount,
+                                      long missCount,
+                                      long evictionCount,
+                                      long invalidationCount,
+                                      int  size)
+    {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+        this.size = size;
+    }
+
+
+    /**
+     * Return the number of requests satisfied from the cache.
+     *
+     * @return count
+     */
+    public long getHitCount()
+    {
+        return hitCount;
+    }
+
+
+    /**
+     * Return the number of requests that had to be sent to the cohort.
+     *
+     * @return count
+     */
+    public long getMissCount()
+    {
+        return missCount;
+    }
+
+
+    /**
+     * Return the proportion of requests satisfied from the cache.
+     *
+     * @return ratio between 0 and 1
+     */
+    public double getHitRatio()
+    {
+        long requestCount = hitCount + missCount;
+
+        if (requestCount == 0)
+        {
+            return 0;
+        }
+
+        return (double) hitCount / requestCount;
+    }
+
+
+    /**
+     * Return the number of instances removed from the cache to make space for other instances.
+     *
+     * @return count
+     */
+    public long getEvictionCount()
+    {
+        return evictionCount;
+    }
+
+
+    /**
+     * Return the number of instances removed from the cache because an event reported that they had changed.
+     *
+     * @return count
+     */
+    public long getInvalidationCount()
+    {
+        return invalidationCount;
+    }
+
+
+    /**
+     * Return the number of instances in the cache.
+     *
+     * @return count
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "EnterpriseInstanceCacheStatistics{" +
+                       "hitCount=" + hitCount +
+                       ", missCount=" + missCount +
+                       ", evictionCount=" + evictionCount +
+                       ", invalidationCount=" + invalidationCount +
+                       ", size=" + size +
+                       '}';
+    }
+}
@@ -0,0 +1,123 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache;
+
+/**
+ * FrequencySketch estimates how often each instance has been requested from the EnterpriseInstanceCache.
+ * It is a count-min sketch with four small counters for each key.  The estimate is the smallest of the key's
+ * counters, so it may be too high (because of collisions) but is never too low.  The counters are halved once
+ * the number of increments reaches ten times the size of the cache so that the estimates favour recent requests.
+ *
+ * The sketch is used to decide whether a new instance should replace an existing instance when the cache is full.
+ * It is not thread-safe - the caller is responsible for synchronization.
+ */
+class FrequencySketch
+{
+    private static final int[] SEEDS     = { 0x97cb3127, 0x5ee5c7b1, 0x8d3ae01f, 0x3c6ef372 };
+    private static final int   MAX_COUNT = 15;
+
+    private final byte[] counters;
+    private final int    mask;
+    private final int    sampleSize;
+    private       int    increments = 0;
+
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize maximum number of instances in the cache
+     */
+    FrequencySketch(int maximumSize)
+    {
+        int tableSize = 16;
+
+        while ((tableSize < maximumSize * 4) && (tableSize < (1 << 26)))
+        {
+            tableSize = tableSize << 1;
+        }
+
+        this.counters = new byte[tableSize];
+        this.mask = tableSize - 1;
+        this.sampleSize = Math.max(maximumSize, 10) * 10;
+    }
+
+
+    /**
+     * Record a request for the key.
+     *
+     * @param key unique identifier of the instance
+     */
+    void increment(String key)
+    {
+        int     hash  = key.hashCode();
+        boolean added = false;
+
+        for (int row = 0; row < SEEDS.length; row++)
+        {
+            int index = this.indexOf(hash, row);
+
+            if (counters[index] < MAX_COUNT)
+            {
+                counters[index]++;
+                added = true;
+            }
+        }
+
+        if ((added) && (++increments >= sampleSize))
+        {
+            this.age();
+        }
+    }
+
+
+    /**
+     * Return the estimated number of recent requests for the key.
+     *
+     * @param key unique identifier of the instance
+     * @return estimated count
+     */
+    int frequency(String key)
+    {
+        int hash      = key.hashCode();
+        int frequency = MAX_COUNT;
+
+        for (int row = 0; row < SEEDS.length; row++)
+        {
+            frequency = Math.min(frequency, counters[this.indexOf(hash, row)]);
+        }
+
+        return frequency;
+    }
+
+
+    /**
+     * Halve all the counters so that old requests count for less.
+     */
+    private void age()
+    {
+        for (int index = 0; index < counters.length; index++)
+        {
+            counters[index] = (byte) (counters[index] >>> 1);
+        }
+
+        increments = increments / 2;
+    }
+
+
+    /**
+     * Return the index of the counter for the key in a row of the sketch.
+     *
+     * @param hash hash code of the key
+     * @param row row number
+     * @return index into the counters
+     */
+    private int indexOf(int hash,
+                        int row)
+    {
+        int index = (hash ^ SEEDS[row]) * 0x9e3779b9;
+
+        index = index ^ (index >>> 16);
+
+        return index & mask;
+    }
+}
@@ -0,0 +1,268 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CohortMemberRouter supports the enterprise connector in choosing which members of the cohort(s) to call.
+ * It maintains the request statistics and circuit breaker for each member (see CohortMemberStatus) so
+ * that members that are failing are skipped rather than costing every request a timeout.
+ * It also caches the metadata collection id of the home repository for the instances that pass through
+ * the enterprise connector so that requests for a specific instance are sent to its home repository first.
+ *
+ * There is one CohortMemberRouter for each enterprise connector and it is called from multiple threads.
+ */
+public class CohortMemberRouter
+{
+    /**
+     * Default number of consecutive failed requests that suspends calls to a member.
+     */
+    public static final int  DEFAULT_FAILURE_THRESHOLD = 3;
+
+    /**
+     * Default time (in milliseconds) that calls to a member are suspended before a trial request.
+     */
+    public static final long DEFAULT_SUSPENSION_TIME   = 30000L;
+
+    private static final int MAX_INSTANCE_HOMES = 10000;
+
+    private final Map<String, CohortMemberStatus> memberStatuses = new ConcurrentHashMap<>();
+    private final Map<String, String>             instanceHomes  = new LinkedHashMap<String, String>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+        {
+            return size() > MAX_INSTANCE_HOMES;
+        }
+    };
+
+    private final AuditLog auditLog;
+    private final int      failureThreshold;
+    private final long     suspensionTime;
+
+
+    /**
+     * Constructor using the default circuit breaker settings.
+     *
+     * @param auditLog logging destination
+     */
+    public CohortMemberRouter(AuditLog auditLog)
+    {
+        this(auditLog, DEFAULT_FAILURE_THRESHOLD, DEFAULT_SUSPENSION_TIME);
+    }
+
+
+    /**
+     * Constructor
+     *
+     * @param auditLog logging destination
+     * @param failureThreshold number of consecutive failed requests that suspends calls to a member
+     * @param suspensionTime time (in milliseconds) that calls to a member are suspended before a trial request
+     */
+    public CohortMemberRouter(AuditLog auditLog,
+                              int      failureThreshold,
+                              long     suspensionTime)
+    {
+        this.auditLog = auditLog;
+        this.failureThreshold = failureThreshold;
+        this.suspensionTime = suspensionTime;
+    }
+
+
+    /**
+     * Return whether requests to a member of the cohort are suspended.  This returns true while the
+     * member's circuit breaker is open, or while another request is making the trial call to the member.
+     * It does not take the trial request, so it is used to choose the members to call.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return boolean
+     */
+    public boolean isSuspended(String metadataCollectionId)
+    {
+        if (metadataCollectionId == null)
+        {
+            return false;
+        }
+
+        CohortMemberStatus status = memberStatuses.get(metadataCollectionId);
+
+        return (status != null) && (status.isSuspended(suspensionTime));
+    }
+
+
+    /**
+     * Acquire permission to issue a request to a member of the cohort.  This is called immediately before
+     * the request is issued.  If the member's circuit breaker is ready for a trial request, this caller is
+     * given the trial.  The outcome of the request must then be passed to recordRequest.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return boolean true if the request may be issued
+     */
+    public boolean acquirePermit(String metadataCollectionId)
+    {
+        if (metadataCollectionId == null)
+        {
+            return true;
+        }
+
+        return this.getStatus(metadataCollectionId).acquirePermit(suspensionTime);
+    }
+
+
+    /**
+     * Record the outcome of a request to a member of the cohort.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @param responseTime time (in milliseconds) taken by the request
+     * @param failed true if the member did not respond, or responded with a repository error
+     */
+    public void recordRequest(String  metadataCollectionId,
+                              long    responseTime,
+                              boolean failed)
+    {
+        final String methodName = "recordRequest";
+
+        if (metadataCollectionId == null)
+        {
+            return;
+        }
+
+        CohortMemberStatus status = this.getStatus(metadataCollectionId);
+
+        if (failed)
+        {
+            if ((status.recordFailure(responseTime, failureThreshold)) && (auditLog != null))
+            {
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.COHORT_MEMBER_SUSPENDED.getMessageDefinition(metadataCollectionId,
+                                                                                               Long.toString(suspensionTime),
+                                                                                               Integer.toString(status.getConsecutiveFailures())));
+            }
+        }
+        else
+        {
+            if ((status.recordSuccess(responseTime)) && (auditLog != null))
+            {
+                auditLog.logMessage(methodName, OMRSAuditCode.COHORT_MEMBER_RESUMED.getMessageDefinition(metadataCollectionId));
+            }
+        }
+    }
+
+
+    /**
+     * Return the status of a member of the cohort, creating it if this is the first request.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return status object
+     */
+    private CohortMemberStatus getStatus(String metadataCollectionId)
+    {
+        return memberStatuses.computeIfAbsent(metadataCollectionId, CohortMemberStatus::new);
+    }
+
+
+    /**
+     * Return the status of each member of the cohort that has been called.
+     *
+     * @return list of status objects
+     */
+    public List<CohortMemberStatus> getMemberStatuses()
+    {
+        return new ArrayList<>(memberStatuses.values());
+    }
+
+
+    /**
+     * Remember the home repository of an instance.  For instances from external sources, this is the
+     * repository that replicates the instance into the cohort.
+     *
+     * @param instance instance retrieved from, or sent by, a member of the cohort
+     */
+    public void saveInstanceHome(InstanceHeader instance)
+    {
+        if ((instance != null) && (instance.getGUID() != null))
+        {
+            if (instance.getReplicatedBy() != null)
+            {
+                this.saveInstanceHome(instance.getGUID(), instance.getReplicatedBy());
+            }
+            else if (instance.getMetadataCollectionId() != null)
+            {
+                this.saveInstanceHome(instance.getGUID(), instance.getMetadataCollectionId());
+            }
+        }
+    }
+
+
+    /**
+     * Remember the home repository of each of the instances.
+     *
+     * @param instances instances retrieved from members of the cohort
+     */
+    public void saveInstanceHomes(List<? extends InstanceHeader> instances)
+    {
+        if (instances != null)
+        {
+            for (InstanceHeader instance : instances)
+            {
+                this.saveInstanceHome(instance);
+            }
+        }
+    }
+
+
+    /**
+     * Remember the home repository of an instance.
+     *
+     * @param instanceGUID unique identifier of the instance
+     * @param homeMetadataCollectionId unique identifier of the metadata collection of its home repository
+     */
+    public synchronized void saveInstanceHome(String instanceGUID,
+                                              String homeMetadataCollectionId)
+    {
+        if ((instanceGUID != null) && (homeMetadataCollectionId != null))
+        {
+            instanceHomes.put(instanceGUID, homeMetadataCollectionId);
+        }
+    }
+
+
+    /**
+     * Return the home repository of an instance if it is known.
+     *
+     * @param instanceGUID unique identifier of the instance
+     * @return metadata collection id or null
+     */
+    public synchronized String getInstanceHome(String instanceGUID)
+    {
+        if (instanceGUID == null)
+        {
+            return null;
+        }
+
+        return instanceHomes.get(instanceGUID);
+    }
+
+
+    /**
+     * Forget the home repository of an instance - typically because it has been purged or re-identified.
+     *
+     * @param instanceGUID unique identifier of the instance
+     */
+    public synchronized void removeInstanceHome(String instanceGUID)
+    {
+        if (instanceGUID != null)
+        {
+            instanceHomes.remove(instanceGUID);
+        }
+    }
+}
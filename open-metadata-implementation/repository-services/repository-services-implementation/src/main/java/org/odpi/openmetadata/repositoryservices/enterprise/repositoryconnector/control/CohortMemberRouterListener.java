@@ -0,0 +1,386 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicListenerBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+/**
+ * CohortMemberRouterListener keeps the instance homes cached in a CohortMemberRouter up to date from the
+ * instance events passed to the enterprise OMRS topic.  New, updated, re-homed and refreshed instances
+ * record the home repository of the instance.  Purged and re-identified instances remove the old guid.
+ */
+public class CohortMemberRouterListener extends OMRSTopicListenerBase
+{
+    private final CohortMemberRouter memberRouter;
+
+
+    /**
+     * Constructor
+     *
+     * @param serviceName name of the service using the enterprise connector
+     * @param auditLog logging destination
+     * @param memberRouter router for the enterprise connector
+     */
+    public CohortMemberRouterListener(String             serviceName,
+                                      AuditLog           auditLog,
+                                      CohortMemberRouter memberRouter)
+    {
+        super(serviceName, auditLog);
+
+        this.memberRouter = memberRouter;
+    }
+
+
+    /**
+     * A new entity has been created.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param entity                         details of the new entity
+     */
+    @Override
+    public void processNewEntityEvent(String       sourceName,
+                                      String       originatorMetadataCollectionId,
+                                      String       originatorServerName,
+                                      String       originatorServerType,
+                                      String       originatorOrganizationName,
+                                      EntityDetail entity)
+    {
+        memberRouter.saveInstanceHome(entity);
+    }
+
+
+    /**
+     * An existing entity has been updated.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param oldEntity                      original values for the entity.
+     * @param newEntity                      details of the new version of the entity.
+     */
+    @Override
+    public void processUpdatedEntityEvent(String       sourceName,
+                                          String       originatorMetadataCollectionId,
+                                          String       originatorServerName,
+                                          String       originatorServerType,
+                                          String       originatorOrganizationName,
+                                          EntityDetail oldEntity,
+                                          EntityDetail newEntity)
+    {
+        memberRouter.saveInstanceHome(newEntity);
+    }
+
+
+    /**
+     * An existing entity has been purged.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param typeDefGUID                    unique identifier for this entity's TypeDef.
+     * @param typeDefName                    name of this entity's TypeDef.
+     * @param instanceGUID                   unique identifier for the entity.
+     */
+    @Override
+    public void processPurgedEntityEvent(String sourceName,
+                                         String originatorMetadataCollectionId,
+                                         String originatorServerName,
+                                         String originatorServerType,
+                                         String originatorOrganizationName,
+                                         String typeDefGUID,
+                                         String typeDefName,
+                                         String instanceGUID)
+    {
+        memberRouter.removeInstanceHome(instanceGUID);
+    }
+
+
+    /**
+     * An existing entity has been deleted and purged in a single action.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param entity                         deleted entity
+     */
+    @Override
+    public void processDeletePurgedEntityEvent(String       sourceName,
+                                               String       originatorMetadataCollectionId,
+                                               String       originatorServerName,
+                                               String       originatorServerType,
+                                               String       originatorOrganizationName,
+                                               EntityDetail entity)
+    {
+        if (entity != null)
+        {
+            memberRouter.removeInstanceHome(entity.getGUID());
+        }
+    }
+
+
+    /**
+     * The guid of an existing entity has been changed to a new value.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param originalEntityGUID             the existing identifier for the entity.
+     * @param entity                         new values for this entity, including the new guid.
+     */
+    @Override
+    public void processReIdentifiedEntityEvent(String       sourceName,
+                                               String       originatorMetadataCollectionId,
+                                               String       originatorServerName,
+                                               String       originatorServerType,
+                                               String       originatorOrganizationName,
+                                               String       originalEntityGUID,
+                                               EntityDetail entity)
+    {
+        memberRouter.removeInstanceHome(originalEntityGUID);
+        memberRouter.saveInstanceHome(entity);
+    }
+
+
+    /**
+     * An existing entity has changed home repository.
+     *
+     * @param sourceName                       name of the source of the event.
+     * @param originatorMetadataCollectionId   unique identifier for the metadata collection hosted by the server that
+     *                                         sent the event.
+     * @param originatorServerName             name of the server that the event came from.
+     * @param originatorServerType             type of server that the event came from.
+     * @param originatorOrganizationName       name of the organization that owns the server that sent the event.
+     * @param originalHomeMetadataCollectionId unique identifier for the original home repository.
+     * @param entity                           new values for this entity, including the new home information.
+     */
+    @Override
+    public void processReHomedEntityEvent(String       sourceName,
+                                          String       originatorMetadataCollectionId,
+                                          String       originatorServerName,
+                                          String       originatorServerType,
+                                          String       originatorOrganizationName,
+                                          String       originalHomeMetadataCollectionId,
+                                          EntityDetail entity)
+    {
+        memberRouter.saveInstanceHome(entity);
+    }
+
+
+    /**
+     * A remote repository in the cohort has sent entity details in response to a refresh request.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param entity                         details of the requested entity
+     */
+    @Override
+    public void processRefreshEntityEvent(String       sourceName,
+                                          String       originatorMetadataCollectionId,
+                                          String       originatorServerName,
+                                          String       originatorServerType,
+                                          String       originatorOrganizationName,
+                                          EntityDetail entity)
+    {
+        memberRouter.saveInstanceHome(entity);
+    }
+
+
+    /**
+     * A new relationship has been created.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param relationship                   details of the new relationship
+     */
+    @Override
+    public void processNewRelationshipEvent(String       sourceName,
+                                            String       originatorMetadataCollectionId,
+                                            String       originatorServerName,
+                                            String       originatorServerType,
+                                            String       originatorOrganizationName,
+                                            Relationship relationship)
+    {
+        memberRouter.saveInstanceHome(relationship);
+    }
+
+
+    /**
+     * An existing relationship has been updated.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param oldRelationship                original details of the relationship.
+     * @param newRelationship                details of the new version of the relationship.
+     */
+    @Override
+    public void processUpdatedRelationshipEvent(String       sourceName,
+                                                String       originatorMetadataCollectionId,
+                                                String       originatorServerName,
+                                                String       originatorServerType,
+                                                String       originatorOrganizationName,
+                                                Relationship oldRelationship,
+                                                Relationship newRelationship)
+    {
+        memberRouter.saveInstanceHome(newRelationship);
+    }
+
+
+    /**
+     * A deleted relationship has been permanently removed from the repository.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param typeDefGUID                    unique identifier for this relationship's TypeDef.
+     * @param typeDefName                    name of this relationship's TypeDef.
+     * @param instanceGUID                   unique identifier for the relationship.
+     */
+    @Override
+    public void processPurgedRelationshipEvent(String sourceName,
+                                               String originatorMetadataCollectionId,
+                                               String originatorServerName,
+                                               String originatorServerType,
+                                               String originatorOrganizationName,
+                                               String typeDefGUID,
+                                               String typeDefName,
+                                               String instanceGUID)
+    {
+        memberRouter.removeInstanceHome(instanceGUID);
+    }
+
+
+    /**
+     * An active relationship has been deleted and purged from the repository in a single action.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param relationship                   deleted relationship
+     */
+    @Override
+    public void processDeletePurgedRelationshipEvent(String       sourceName,
+                                                     String       originatorMetadataCollectionId,
+                                                     String       originatorServerName,
+                                                     String       originatorServerType,
+                                                     String       originatorOrganizationName,
+                                                     Relationship relationship)
+    {
+        if (relationship != null)
+        {
+            memberRouter.removeInstanceHome(relationship.getGUID());
+        }
+    }
+
+
+    /**
+     * The guid of an existing relationship has changed.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param originalRelationshipGUID       the existing identifier for the relationship.
+     * @param relationship                   new values for this relationship, including the new guid.
+     */
+    @Override
+    public void processReIdentifiedRelationshipEvent(String       sourceName,
+                                                     String       originatorMetadataCollectionId,
+                                                     String       originatorServerName,
+                                                     String       originatorServerType,
+                                                     String       originatorOrganizationName,
+                                                     String       originalRelationshipGUID,
+                                                     Relationship relationship)
+    {
+        memberRouter.removeInstanceHome(originalRelationshipGUID);
+        memberRouter.saveInstanceHome(relationship);
+    }
+
+
+    /**
+     * An existing relationship has changed home repository.
+     *
+     * @param sourceName                       name of the source of the event.
+     * @param originatorMetadataCollectionId   unique identifier for the metadata collection hosted by the server that
+     *                                         sent the event.
+     * @param originatorServerName             name of the server that the event came from.
+     * @param originatorServerType             type of server that the event came from.
+     * @param originatorOrganizationName       name of the organization that owns the server that sent the event.
+     * @param originalHomeMetadataCollectionId unique identifier for the original home repository.
+     * @param relationship                     new values for this relationship, including the new home information.
+     */
+    @Override
+    public void processReHomedRelationshipEvent(String       sourceName,
+                                                String       originatorMetadataCollectionId,
+                                                String       originatorServerName,
+                                                String       originatorServerType,
+                                                String       originatorOrganizationName,
+                                                String       originalHomeMetadataCollectionId,
+                                                Relationship relationship)
+    {
+        memberRouter.saveInstanceHome(relationship);
+    }
+
+
+    /**
+     * The local repository is refreshing the information about a relationship for the other
+     * repositories in the cohort.
+     *
+     * @param sourceName                     name of the source of the event.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param originatorServerType           type of server that the event came from.
+     * @param originatorOrganizationName     name of the organization that owns the server that sent the event.
+     * @param relationship                   relationship details
+     */
+    @Override
+    public void processRefreshRelationshipEvent(String       sourceName,
+                                                String       originatorMetadataCollectionId,
+                                                String       originatorServerName,
+                                                String       originatorServerType,
+                                                String       originatorOrganizationName,
+                                                Relationship relationship)
+    {
+        memberRouter.saveInstanceHome(relationship);
+    }
+}
@@ -0,0 +1,297 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+/**
+ * CohortMemberStatus holds the request statistics for a single member of the cohort(s) along with the
+ * state of its circuit breaker.  The circuit breaker is closed while the member is responding.  After a number
+ * of consecutive failed requests it opens and the member is skipped by federated requests.  Once the suspension
+ * time has passed, the circuit breaker is half-open and a single trial request is allowed through.  The result of
+ * this request either closes the circuit breaker or opens it for another suspension period.
+ */
+public class CohortMemberStatus
+{
+    /**
+     * The states of the circuit breaker.
+     */
+    public enum CircuitState
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /*
+     * Weighting given to the latest request when calculating the average response time.
+     */
+    private static final double LATENCY_WEIGHTING = 0.2;
+
+    private final String metadataCollectionId;
+
+    private long         requestCount        = 0;
+    private long         failureCount        = 0;
+    private int          consecutiveFailures = 0;
+    private double       averageResponseTime = 0;
+    private long         lastResponseTime    = 0;
+    private long         lastFailureTime     = 0;
+    private CircuitState circuitState        = CircuitState.CLOSED;
+    private long         circuitOpenedTime   = 0;
+    private boolean      trialInProgress     = false;
+    private long         trialStartTime      = 0;
+
+
+    /**
+     * Constructor
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     */
+    CohortMemberStatus(String metadataCollectionId)
+    {
+        this.metadataCollectionId = metadataCollectionId;
+    }
+
+
+    /**
+     * Return whether requests to the member are suspended.  This is true while the circuit breaker is open, or
+     * while it is half-open and another request holds the trial.  It does not change the state of the circuit
+     * breaker, so it may be used to choose which members to call before any request is issued.
+     *
+     * @param suspensionTime time (in milliseconds) that the circuit breaker stays open
+     * @return boolean
+     */
+    synchronized boolean isSuspended(long suspensionTime)
+    {
+        long now = System.currentTimeMillis();
+
+        if (circuitState == CircuitState.OPEN)
+        {
+            return (now - circuitOpenedTime < suspensionTime);
+        }
+        else if (circuitState == CircuitState.HALF_OPEN)
+        {
+            return (trialInProgress) && (now - trialStartTime < suspensionTime);
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Acquire permission to issue a request to the member.  This is called just before the request is issued.
+     * If the circuit breaker is open and the suspension time has passed, the circuit breaker moves to half-open
+     * and this caller is given the trial request.  The trial is released when the result of the request is
+     * recorded.  If the result of a trial request is never recorded, another trial is allowed after the
+     * suspension time.
+     *
+     * @param suspensionTime time (in milliseconds) that the circuit breaker stays open
+     * @return boolean
+     */
+    synchronized boolean acquirePermit(long suspensionTime)
+    {
+        if (circuitState == CircuitState.CLOSED)
+        {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+
+        if ((circuitState == CircuitState.OPEN) && (now - circuitOpenedTime >= suspensionTime))
+        {
+            circuitState = CircuitState.HALF_OPEN;
+            trialInProgress = false;
+        }
+
+        if ((circuitState == CircuitState.HALF_OPEN) && ((! trialInProgress) || (now - trialStartTime >= suspensionTime)))
+        {
+            trialInProgress = true;
+            trialStartTime = now;
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Record a successful request.
+     *
+     * @param responseTime time (in milliseconds) taken by the request
+     * @return boolean true if this request closed the circuit breaker
+     */
+    synchronized boolean recordSuccess(long responseTime)
+    {
+        this.recordResponseTime(responseTime);
+
+        consecutiveFailures = 0;
+
+        if (circuitState != CircuitState.CLOSED)
+        {
+            circuitState = CircuitState.CLOSED;
+            trialInProgress = false;
+
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Record a failed request.
+     *
+     * @param responseTime time (in milliseconds) taken by the request
+     * @param failureThreshold number of consecutive failures that opens the circuit breaker
+     * @return boolean true if this request opened the circuit breaker
+     */
+    synchronized boolean recordFailure(long responseTime,
+                                       int  failureThreshold)
+    {
+        this.recordResponseTime(responseTime);
+
+        failureCount++;
+        consecutiveFailures++;
+        lastFailureTime = System.currentTimeMillis();
+
+        if ((circuitState == CircuitState.HALF_OPEN) ||
+                ((circuitState == CircuitState.CLOSED) && (consecutiveFailures >= failureThreshold)))
+        {
+            circuitState = CircuitState.OPEN;
+            circuitOpenedTime = lastFailureTime;
+            trialInProgress = false;
+
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Update the response time statistics.
+     *
+     * @param responseTime time (in milliseconds) taken by the request
+     */
+    private void recordResponseTime(long responseTime)
+    {
+        requestCount++;
+        lastResponseTime = responseTime;
+
+        if (requestCount == 1)
+        {
+            averageResponseTime = responseTime;
+        }
+        else
+        {
+            averageResponseTime = (LATENCY_WEIGHTING * responseTime) + ((1 - LATENCY_WEIGHTING) * averageResponseTime);
+        }
+    }
+
+
+    /**
+     * Return the unique identifier of the member's metadata collection.
+     *
+     * @return string guid
+     */
+    public String getMetadataCollectionId()
+    {
+        return metadataCollectionId;
+    }
+
+
+    /**
+     * Return the number of requests issued to the member.
+     *
+     * @return count
+     */
+    public synchronized long getRequestCount()
+    {
+        return requestCount;
+    }
+
+
+    /**
+     * Return the number of requests to the member that failed.
+     *
+     * @return count
+     */
+    public synchronized long getFailureCount()
+    {
+        return failureCount;
+    }
+
+
+    /**
+     * Return the number of requests that have failed since the last successful request.
+     *
+     * @return count
+     */
+    public synchronized int getConsecutiveFailures()
+    {
+        return consecutiveFailures;
+    }
+
+
+    /**
+     * Return the average response time, weighted towards the most recent requests.
+     *
+     * @return time in milliseconds
+     */
+    public synchronized long getAverageResponseTime()
+    {
+        return Math.round(averageResponseTime);
+    }
+
+
+    /**
+     * Return the response time of the most recent request.
+     *
+     * @return time in milliseconds
+     */
+    public synchronized long getLastResponseTime()
+    {
+        return lastResponseTime;
+    }
+
+
+    /**
+     * Return the time of the most recent failed request.
+     *
+     * @return time in milliseconds since the epoch (zero if there have been no failures)
+     */
+    public synchronized long getLastFailureTime()
+    {
+        return lastFailureTime;
+    }
+
+
+    /**
+     * Return the current state of the circuit breaker.
+     *
+     * @return enum
+     */
+    public synchronized CircuitState getCircuitState()
+    {
+        return circuitState;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public synchronized String toString()
+    {
+        return "CohortMemberStatus{" +
+                       "metadataCollectionId='" + metadataCollectionId + '\'' +
+                       ", requestCount=" + requestCount +
+                       ", failureCount=" + failureCount +
+                       ", consecutiveFailures=" + consecutiveFailures +
+                       ", averageResponseTime=" + Math.round(averageResponseTime) +
+                       ", lastResponseTime=" + lastResponseTime +
+                       ", lastFailureTime=" + lastFailureTime +
+                       ", circuitState=" + circuitState +
+                       '}';
+    }
+}
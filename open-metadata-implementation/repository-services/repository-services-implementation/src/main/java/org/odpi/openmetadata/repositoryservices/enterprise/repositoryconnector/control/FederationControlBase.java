@@ -10,6 +10,7 @@ import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.e
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSRepositoryConnector;
 
 import java.util.List;
 
@@ -31,6 +32,7 @@ public abstract class FederationControlBase implements FederationControl
     protected List<OMRSRepositoryConnector>     cohortConnectors;
     protected AuditLog                          auditLog;
     protected String                            methodName;
+    protected CohortMemberRouter                memberRouter;
 
 
     /**
@@ -45,9 +47,29 @@ public abstract class FederationControlBase implements FederationControl
                                  List<OMRSRepositoryConnector> cohortConnectors,
                                  AuditLog                      auditLog,
                                  String                        methodName)
+    {
+        this(userId, cohortConnectors, null, auditLog, methodName);
+    }
+
+
+    /**
+     * Constructor for a federated query that records the outcome of each request to a cohort member.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param memberRouter maintains the request statistics for each cohort member (may be null)
+     * @param auditLog logging destination
+     * @param methodName calling method
+     */
+    public FederationControlBase(String                        userId,
+                                 List<OMRSRepositoryConnector> cohortConnectors,
+                                 CohortMemberRouter            memberRouter,
+                                 AuditLog                      auditLog,
+                                 String                        methodName)
     {
         this.userId = userId;
         this.cohortConnectors = cohortConnectors;
+        this.memberRouter = memberRouter;
         this.auditLog = auditLog;
         this.methodName = methodName;
     }
@@ -105,4 +127,87 @@ public abstract class FederationControlBase implements FederationControl
             return null;
         }
     }
+
+
+    /**
+     * Return whether a connector is the connector to the local repository.  The local repository is always
+     * called, so it is not given a circuit breaker by the member router.
+     *
+     * @param cohortConnector connector to a member of the cohort(s)
+     * @return boolean
+     */
+    boolean isLocalRepository(OMRSRepositoryConnector cohortConnector)
+    {
+        return cohortConnector instanceof LocalOMRSRepositoryConnector;
+    }
+
+
+    /**
+     * Record a request to a remote member of the cohort that failed before it reached the member, for example
+     * because it was rejected or timed out.  Failures of the local repository are not recorded.
+     *
+     * @param cohortConnector connector to the member
+     * @param responseTime time (in milliseconds) taken by the request
+     */
+    void recordRequestFailure(OMRSRepositoryConnector cohortConnector,
+                              long                    responseTime)
+    {
+        if ((memberRouter != null) && (! this.isLocalRepository(cohortConnector)))
+        {
+            memberRouter.recordRequest(cohortConnector.getMetadataCollectionId(), responseTime, true);
+        }
+    }
+
+
+    /**
+     * Pass the request to the executor for a single cohort member, recording its response time and whether it
+     * failed with the member router.  The request is skipped if the member router does not give permission
+     * to call the member, for example because another request is making the trial call to a member that
+     * has been failing.  Requests to the local repository are always issued and are not recorded.
+     *
+     * @param executor command to execute
+     * @param cohortConnector connector to the member
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @param metadataCollection member's metadata collection
+     * @return boolean true means that the required results have been achieved
+     */
+    boolean issueRequestToRepository(RepositoryExecutor      executor,
+                                     OMRSRepositoryConnector cohortConnector,
+                                     String                  metadataCollectionId,
+                                     OMRSMetadataCollection  metadataCollection)
+    {
+        CohortMemberRouter requestRouter = memberRouter;
+
+        if (this.isLocalRepository(cohortConnector))
+        {
+            requestRouter = null;
+        }
+
+        if ((requestRouter != null) && (! requestRouter.acquirePermit(metadataCollectionId)))
+        {
+            return false;
+        }
+
+        long    startTime = System.currentTimeMillis();
+        boolean failed    = true;
+
+        try
+        {
+            boolean result = executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+
+            failed = executor.requestFailed(metadataCollectionId);
+
+            return result;
+        }
+        finally
+        {
+            /*
+             * A request that was cancelled by the federation control is recorded by the federation control.
+             */
+            if ((requestRouter != null) && (! Thread.currentThread().isInterrupted()))
+            {
+                requestRouter.recordRequest(metadataCollectionId, System.currentTimeMillis() - startTime, failed);
+            }
+        }
+    }
 }
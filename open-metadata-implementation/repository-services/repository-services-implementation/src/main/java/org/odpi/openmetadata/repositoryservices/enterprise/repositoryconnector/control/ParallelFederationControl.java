@@ -3,19 +3,63 @@
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ParallelFederationControl uses multiple worker threads to perform the calls to different systems in parallel.
+ *
+ * The executor is cloned for each repository and the clones run on a worker pool that is shared by all
+ * federated requests in the server.  The clones share the executor's accumulator so the results
+ * are combined as each repository responds.  A repository that does not respond within the request timeout
+ * has its call cancelled and a RepositoryErrorException is saved in the accumulator in its place.  If the worker
+ * pool is saturated, the call to a repository is rejected rather than run on the calling thread (which would not be
+ * subject to the timeout) and it is recorded as a failed request.
+ *
+ * Executors that are not cloneable are designed to stop as soon as one repository has the answer, so they
+ * are passed to the sequential federation control.
  */
 public class ParallelFederationControl extends FederationControlBase
 {
-    // todo at this point the parallel federation control uses the sequential federation control since the worker threads are not implemented.
+    /**
+     * Default time (in milliseconds) allowed for each repository to respond.
+     */
+    public static final long DEFAULT_REQUEST_TIMEOUT = 60000L;
+
+    /*
+     * The calls to the repositories spend most of their time waiting for remote servers so the pool
+     * is larger than the number of processors.  When the queue is full, new requests are rejected.
+     */
+    private static final int WORKER_POOL_SIZE  = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+    private static final int WORKER_QUEUE_SIZE = 1000;
+
+    private static final ExecutorService sharedWorkerPool = createWorkerPool();
+
     private final SequentialFederationControl sequentialFederationControl;
+    private final long                        requestTimeout;
+    private final ExecutorService             workerPool;
+
 
     /**
      * Constructor for a federated query
@@ -30,9 +74,130 @@ public class ParallelFederationControl extends FederationControlBase
                                      AuditLog                      auditLog,
                                      String                        methodName)
     {
-        super(userId, cohortConnectors, auditLog, methodName);
+        this(userId, cohortConnectors, null, auditLog, methodName, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+
+    /**
+     * Constructor for a federated query that records the outcome of each request to a cohort member.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param memberRouter maintains the request statistics for each cohort member
+     * @param auditLog logging destination
+     * @param methodName calling method
+     */
+    public ParallelFederationControl(String                        userId,
+                                     List<OMRSRepositoryConnector> cohortConnectors,
+                                     CohortMemberRouter            memberRouter,
+                                     AuditLog                      auditLog,
+                                     String                        methodName)
+    {
+        this(userId, cohortConnectors, memberRouter, auditLog, methodName, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+
+    /**
+     * Constructor for a federated query with a specific timeout.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param auditLog logging destination
+     * @param methodName calling method
+     * @param requestTimeout time (in milliseconds) allowed for each repository to respond
+     */
+    public ParallelFederationControl(String                        userId,
+                                     List<OMRSRepositoryConnector> cohortConnectors,
+                                     AuditLog                      auditLog,
+                                     String                        methodName,
+                                     long                          requestTimeout)
+    {
+        this(userId, cohortConnectors, null, auditLog, methodName, requestTimeout);
+    }
+
+
+    /**
+     * Constructor for a federated query with a specific timeout that records the outcome of each request
+     * to a cohort member.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param memberRouter maintains the request statistics for each cohort member (may be null)
+     * @param auditLog logging destination
+     * @param methodName calling method
+     * @param requestTimeout time (in milliseconds) allowed for each repository to respond
+     */
+    public ParallelFederationControl(String                        userId,
+                                     List<OMRSRepositoryConnector> cohortConnectors,
+                                     CohortMemberRouter            memberRouter,
+                                     AuditLog                      auditLog,
+                                     String                        methodName,
+                                     long                          requestTimeout)
+    {
+        this(userId, cohortConnectors, memberRouter, auditLog, methodName, requestTimeout, sharedWorkerPool);
+    }
+
+
+    /**
+     * Constructor for a federated query that runs on a specific worker pool.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param memberRouter maintains the request statistics for each cohort member (may be null)
+     * @param auditLog logging destination
+     * @param methodName calling method
+     * @param requestTimeout time (in milliseconds) allowed for each repository to respond
+     * @param workerPool worker threads that issue the requests
+     */
+    ParallelFederationControl(String                        userId,
+                              List<OMRSRepositoryConnector> cohortConnectors,
+                              CohortMemberRouter            memberRouter,
+                              AuditLog                      auditLog,
+                              String                        methodName,
+                              long                          requestTimeout,
+                              ExecutorService               workerPool)
+    {
+        super(userId, cohortConnectors, memberRouter, auditLog, methodName);
+
+        this.sequentialFederationControl = new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName);
+        this.requestTimeout = requestTimeout;
+        this.workerPool = workerPool;
+    }
+
+
+    /**
+     * Create the worker pool shared by all parallel federated requests.
+     *
+     * @return executor service
+     */
+    private static ExecutorService createWorkerPool()
+    {
+        ThreadFactory threadFactory = new ThreadFactory()
+        {
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "ParallelFederationControl-" + threadNumber.getAndIncrement());
+
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        };
+
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(WORKER_POOL_SIZE,
+                                                               WORKER_POOL_SIZE,
+                                                               60L,
+                                                               TimeUnit.SECONDS,
+                                                               new ArrayBlockingQueue<>(WORKER_QUEUE_SIZE),
+                                                               threadFactory,
+                                                               new ThreadPoolExecutor.AbortPolicy());
 
-        sequentialFederationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        threadPool.allowCoreThreadTimeOut(true);
+
+        return threadPool;
     }
 
 
@@ -45,6 +210,289 @@ public class ParallelFederationControl extends FederationControlBase
      */
     public void executeCommand(RepositoryExecutor executor) throws RepositoryErrorException
     {
-        sequentialFederationControl.executeCommand(executor);
+        if (! (executor instanceof CloneableRepositoryExecutor))
+        {
+            sequentialFederationControl.executeCommand(executor);
+            return;
+        }
+
+        if (super.cohortConnectors != null)
+        {
+            CloneableRepositoryExecutor cloneableExecutor = (CloneableRepositoryExecutor)executor;
+
+            /*
+             * This is the first sweep of the repositories - used to gather the results.  Each repository
+             * is called by its own clone of the executor.  Each sweep has its own completion service so that
+             * requests cancelled in one sweep are not returned by the next.
+             */
+            CompletionService<Boolean>                   completionService = new ExecutorCompletionService<>(workerPool);
+            Map<Future<Boolean>, OMRSRepositoryConnector> requests          = new HashMap<>();
+
+            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+            {
+                if (cohortConnector != null)
+                {
+                    RepositoryExecutor clone = cloneableExecutor.getClone();
+
+                    try
+                    {
+                        requests.put(completionService.submit(() -> this.issueRequest(cohortConnector, clone)), cohortConnector);
+                    }
+                    catch (RejectedExecutionException error)
+                    {
+                        RepositoryErrorException rejectedException = this.logRequestRejected(cohortConnector);
+
+                        cloneableExecutor.captureRequestFailure(cohortConnector.getMetadataCollectionId(), rejectedException);
+
+                        this.recordRequestFailure(cohortConnector, 0L);
+                    }
+                }
+            }
+
+            List<OMRSRepositoryConnector> respondingConnectors = new ArrayList<>(requests.values());
+
+            for (OMRSRepositoryConnector slowConnector : this.waitForRequests(completionService, requests))
+            {
+                respondingConnectors.remove(slowConnector);
+
+                RepositoryErrorException timeoutException = this.logRequestTimeout(slowConnector);
+
+                cloneableExecutor.captureRequestFailure(slowConnector.getMetadataCollectionId(), timeoutException);
+
+                this.recordRequestFailure(slowConnector, requestTimeout);
+            }
+
+            /*
+             * All repositories have been called.
+             * The executor may choose to augment each result element by making another sweep of the repositories.
+             * Each repository works through the list of results in its own worker thread.  Repositories that
+             * timed out in the first sweep are not called again.
+             */
+            List<String> resultGUIDs = executor.getResultsForAugmentation();
+
+            if ((resultGUIDs != null) && (! resultGUIDs.isEmpty()))
+            {
+                CompletionService<Boolean>                   augmentService  = new ExecutorCompletionService<>(workerPool);
+                Map<Future<Boolean>, OMRSRepositoryConnector> augmentRequests = new HashMap<>();
+
+                for (OMRSRepositoryConnector cohortConnector : respondingConnectors)
+                {
+                    try
+                    {
+                        augmentRequests.put(augmentService.submit(() -> this.augmentResults(cohortConnector, executor, resultGUIDs)), cohortConnector);
+                    }
+                    catch (RejectedExecutionException error)
+                    {
+                        this.logRequestRejected(cohortConnector);
+                    }
+                }
+
+                for (OMRSRepositoryConnector slowConnector : this.waitForRequests(augmentService, augmentRequests))
+                {
+                    this.logRequestTimeout(slowConnector);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Issue the request to a single repository.  This runs in a worker thread.
+     *
+     * @param cohortConnector connector to the repository
+     * @param executor clone of the executor for this repository
+     * @return boolean true means that the required results have been achieved
+     * @throws RepositoryErrorException null metadata collection
+     */
+    private boolean issueRequest(OMRSRepositoryConnector cohortConnector,
+                                 RepositoryExecutor      executor) throws RepositoryErrorException
+    {
+        OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+        String metadataCollectionId = this.validateMetadataCollection(cohortConnector, metadataCollection, methodName);
+
+        if (metadataCollectionId != null)
+        {
+            return this.issueRequestToRepository(executor, cohortConnector, metadataCollectionId, metadataCollection);
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Augment each of the results from a single repository.  This runs in a worker thread.
+     *
+     * @param cohortConnector connector to the repository
+     * @param executor executor for the request
+     * @param resultGUIDs unique identifiers of the results
+     * @return false (augmentation never completes the request)
+     * @throws RepositoryErrorException null metadata collection
+     */
+    private boolean augmentResults(OMRSRepositoryConnector cohortConnector,
+                                   RepositoryExecutor      executor,
+                                   List<String>            resultGUIDs) throws RepositoryErrorException
+    {
+        OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+        String metadataCollectionId = this.validateMetadataCollection(cohortConnector, metadataCollection, methodName);
+
+        if (metadataCollectionId != null)
+        {
+            for (String resultGUID : resultGUIDs)
+            {
+                if (Thread.currentThread().isInterrupted())
+                {
+                    break;
+                }
+
+                executor.augmentResultFromRepository(resultGUID, metadataCollectionId, metadataCollection);
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Wait for the requests to complete or for the request timeout to pass.  Once a request reports that the
+     * executor has all the results it needs, or the timeout passes, the outstanding requests are cancelled.
+     *
+     * @param completionService service that returns the requests as they complete
+     * @param requests map of outstanding requests to the connector they are calling
+     * @return the connectors that did not respond in time
+     * @throws RepositoryErrorException one of the repositories has a null metadata collection
+     */
+    private List<OMRSRepositoryConnector> waitForRequests(CompletionService<Boolean>                   completionService,
+                                                          Map<Future<Boolean>, OMRSRepositoryConnector> requests) throws RepositoryErrorException
+    {
+        long                     deadline   = System.currentTimeMillis() + requestTimeout;
+        boolean                  complete   = false;
+        RepositoryErrorException logicError = null;
+
+        try
+        {
+            while ((! complete) && (logicError == null) && (! requests.isEmpty()))
+            {
+                long            remainingTime = deadline - System.currentTimeMillis();
+                Future<Boolean> request       = null;
+
+                if (remainingTime > 0)
+                {
+                    request = completionService.poll(remainingTime, TimeUnit.MILLISECONDS);
+                }
+
+                if (request == null)
+                {
+                    break;
+                }
+
+                OMRSRepositoryConnector cohortConnector = requests.remove(request);
+
+                if ((cohortConnector == null) || (request.isCancelled()))
+                {
+                    /*
+                     * Not a request that this call is waiting for.
+                     */
+                    continue;
+                }
+
+                try
+                {
+                    /*
+                     * The executor returns true if it has all the results it needs.
+                     */
+                    complete = request.get();
+                }
+                catch (ExecutionException error)
+                {
+                    if (error.getCause() instanceof RepositoryErrorException)
+                    {
+                        logicError = (RepositoryErrorException)error.getCause();
+                    }
+                    else
+                    {
+                        auditLog.logException(methodName,
+                                              OMRSAuditCode.UNEXPECTED_EXCEPTION_FROM_REPOSITORY.getMessageDefinition(error.getCause().getClass().getName(),
+                                                                                                                      cohortConnector.getMetadataCollectionId(),
+                                                                                                                      methodName,
+                                                                                                                      error.getCause().getMessage()),
+                                              error.getCause());
+                    }
+                }
+            }
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+            complete = true;
+        }
+
+        List<OMRSRepositoryConnector> slowConnectors = new ArrayList<>();
+
+        for (Future<Boolean> request : requests.keySet())
+        {
+            request.cancel(true);
+
+            if ((! complete) && (logicError == null))
+            {
+                slowConnectors.add(requests.get(request));
+            }
+        }
+
+        if (logicError != null)
+        {
+            throw logicError;
+        }
+
+        return slowConnectors;
+    }
+
+
+    /**
+     * Log that a request to a repository could not be issued because the worker pool is full and return the
+     * exception that describes it.
+     *
+     * @param rejectedConnector connector to the repository
+     * @return exception to save in the accumulator
+     */
+    private RepositoryErrorException logRequestRejected(OMRSRepositoryConnector rejectedConnector)
+    {
+        RepositoryErrorException rejectedException = new RepositoryErrorException(
+                OMRSErrorCode.ENTERPRISE_WORKER_POOL_FULL.getMessageDefinition(rejectedConnector.getRepositoryName(),
+                                                                               methodName),
+                this.getClass().getName(),
+                methodName);
+
+        auditLog.logMessage(methodName,
+                            OMRSAuditCode.SKIPPING_METADATA_COLLECTION.getMessageDefinition(rejectedConnector.getRepositoryName(),
+                                                                                            rejectedException.getClass().getName(),
+                                                                                            rejectedException.getMessage()));
+
+        return rejectedException;
+    }
+
+
+    /**
+     * Log that a repository did not respond in time and return the exception that describes it.
+     *
+     * @param slowConnector connector to the repository
+     * @return exception to save in the accumulator
+     */
+    private RepositoryErrorException logRequestTimeout(OMRSRepositoryConnector slowConnector)
+    {
+        RepositoryErrorException timeoutException = new RepositoryErrorException(
+                OMRSErrorCode.ENTERPRISE_REQUEST_TIMEOUT.getMessageDefinition(slowConnector.getRepositoryName(),
+                                                                              methodName,
+                                                                              Long.toString(requestTimeout)),
+                this.getClass().getName(),
+                methodName);
+
+        auditLog.logMessage(methodName,
+                            OMRSAuditCode.SKIPPING_METADATA_COLLECTION.getMessageDefinition(slowConnector.getRepositoryName(),
+                                                                                            timeoutException.getClass().getName(),
+                                                                                            timeoutException.getMessage()));
+
+        return timeoutException;
     }
 }
@@ -33,6 +33,26 @@ public class SequentialFederationControl extends FederationControlBase
     }
 
 
+    /**
+     * Constructor for a sequential federated query controller that records the outcome of each request
+     * to a cohort member.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param memberRouter maintains the request statistics for each cohort member
+     * @param auditLog logging destination
+     * @param methodName calling method
+     */
+    public SequentialFederationControl(String                        userId,
+                                       List<OMRSRepositoryConnector> cohortConnectors,
+                                       CohortMemberRouter            memberRouter,
+                                       AuditLog                      auditLog,
+                                       String                        methodName)
+    {
+        super(userId, cohortConnectors, memberRouter, auditLog, methodName);
+    }
+
+
     /**
      * Issue the federated command.
      *
@@ -57,7 +77,7 @@ public class SequentialFederationControl extends FederationControlBase
 
                     if (metadataCollectionId != null)
                     {
-                        if (executor.issueRequestToRepository(metadataCollectionId, metadataCollection))
+                        if (this.issueRequestToRepository(executor, cohortConnector, metadataCollectionId, metadataCollection))
                         {
                             /*
                              * The executor returns true if it has all the results it needs.
@@ -2,11 +2,13 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
 
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+
 /**
  * CloneableRepositoryExecutor describes the interface for a repository executor that can be cloned to run
  * in parallel.  They use a shared accumulator to gather and assemble the result.
  */
-public interface CloneableRepositoryExecutor
+public interface CloneableRepositoryExecutor extends RepositoryExecutor
 {
     /**
      * Return a clone of this executor with the same command parameters and accumulator instance.
@@ -14,4 +16,16 @@ public interface CloneableRepositoryExecutor
      * @return clone of this executor
      */
     CloneableRepositoryExecutor getClone();
+
+
+    /**
+     * Record that the request to a repository could not be completed by the federation control (for example,
+     * because it did not respond in time).  The exception is saved in the shared accumulator in the same way
+     * as an exception returned by the repository.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @param exception exception describing the failure
+     */
+    void captureRequestFailure(String                   metadataCollectionId,
+                               RepositoryErrorException exception);
 }
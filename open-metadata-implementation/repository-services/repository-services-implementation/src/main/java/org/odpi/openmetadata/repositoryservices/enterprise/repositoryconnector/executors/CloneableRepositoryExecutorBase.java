@@ -3,6 +3,7 @@
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
 
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.QueryAccumulatorBase;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
 
 /**
@@ -11,12 +12,42 @@ import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.a
  */
 abstract class CloneableRepositoryExecutorBase extends RepositoryExecutorBase implements CloneableRepositoryExecutor
 {
+    private final QueryAccumulatorBase queryAccumulator;
+
     CloneableRepositoryExecutorBase(String               userId,
                                     String               methodName,
                                     QueryAccumulatorBase accumulator)
     {
         super(userId, methodName);
 
+        this.queryAccumulator = accumulator;
+
         accumulator.registerExecutor();
     }
+
+
+    /**
+     * Record that the request to a repository could not be completed by the federation control.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @param exception exception describing the failure
+     */
+    public void captureRequestFailure(String                   metadataCollectionId,
+                                      RepositoryErrorException exception)
+    {
+        queryAccumulator.captureException(metadataCollectionId, exception);
+    }
+
+
+    /**
+     * Return whether the request to a repository failed because of a problem in the repository.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @return boolean
+     */
+    @Override
+    public boolean requestFailed(String metadataCollectionId)
+    {
+        return queryAccumulator.isRepositoryFailure(metadataCollectionId);
+    }
 }
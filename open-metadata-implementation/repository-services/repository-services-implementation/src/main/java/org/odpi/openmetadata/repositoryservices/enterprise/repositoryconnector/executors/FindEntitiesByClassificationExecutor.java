@@ -166,6 +166,20 @@ public class FindEntitiesByClassificationExecutor extends PageableEntityReposito
     }
 
 
+    /**
+     * Return the parameters specific to this query as a string.
+     *
+     * @return string
+     */
+    @Override
+    String getQueryParameters()
+    {
+        return classificationName + "|" +
+               matchClassificationProperties + "|" +
+               matchCriteria;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -186,12 +200,12 @@ public class FindEntitiesByClassificationExecutor extends PageableEntityReposito
                                                                                          classificationName,
                                                                                          matchClassificationProperties,
                                                                                          matchCriteria,
-                                                                                         startingElement,
+                                                                                         getStartingElement(metadataCollectionId),
                                                                                          limitResultsByStatus,
                                                                                          asOfTime,
                                                                                          sequencingProperty,
                                                                                          sequencingOrder,
-                                                                                         pageSize);
+                                                                                         getPageSize(metadataCollectionId));
 
             accumulator.addEntities(results, metadataCollectionId);
 
@@ -165,6 +165,20 @@ public class FindEntitiesByPropertyExecutor extends PageableEntityRepositoryExec
     }
 
 
+    /**
+     * Return the parameters specific to this query as a string.
+     *
+     * @return string
+     */
+    @Override
+    String getQueryParameters()
+    {
+        return matchProperties + "|" +
+               matchCriteria + "|" +
+               limitResultsByClassification;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -184,13 +198,13 @@ public class FindEntitiesByPropertyExecutor extends PageableEntityRepositoryExec
                                                                                    instanceTypeGUID,
                                                                                    matchProperties,
                                                                                    matchCriteria,
-                                                                                   startingElement,
+                                                                                   getStartingElement(metadataCollectionId),
                                                                                    limitResultsByStatus,
                                                                                    limitResultsByClassification,
                                                                                    asOfTime,
                                                                                    sequencingProperty,
                                                                                    sequencingOrder,
-                                                                                   pageSize);
+                                                                                   getPageSize(metadataCollectionId));
 
             accumulator.addEntities(results, metadataCollectionId);
         }
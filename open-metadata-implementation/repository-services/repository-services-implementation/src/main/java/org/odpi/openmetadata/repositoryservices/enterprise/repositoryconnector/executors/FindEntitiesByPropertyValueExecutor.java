@@ -159,6 +159,19 @@ public class FindEntitiesByPropertyValueExecutor extends PageableEntityRepositor
     }
 
 
+    /**
+     * Return the parameters specific to this query as a string.
+     *
+     * @return string
+     */
+    @Override
+    String getQueryParameters()
+    {
+        return searchCriteria + "|" +
+               limitResultsByClassification;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -177,13 +190,13 @@ public class FindEntitiesByPropertyValueExecutor extends PageableEntityRepositor
             List<EntityDetail> results = metadataCollection.findEntitiesByPropertyValue(userId,
                                                                                         instanceTypeGUID,
                                                                                         searchCriteria,
-                                                                                        startingElement,
+                                                                                        getStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         limitResultsByClassification,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        getPageSize(metadataCollectionId));
 
             accumulator.addEntities(results, metadataCollectionId);
         }
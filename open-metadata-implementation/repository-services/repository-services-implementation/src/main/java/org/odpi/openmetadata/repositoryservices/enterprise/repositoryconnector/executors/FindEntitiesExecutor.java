@@ -168,6 +168,20 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
     }
 
 
+    /**
+     * Return the parameters specific to this query as a string.
+     *
+     * @return string
+     */
+    @Override
+    String getQueryParameters()
+    {
+        return matchProperties + "|" +
+               matchClassifications + "|" +
+               instanceSubtypeGUIDs;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -187,13 +201,13 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
                                                                          instanceTypeGUID,
                                                                          instanceSubtypeGUIDs,
                                                                          matchProperties,
-                                                                         startingElement,
+                                                                         getStartingElement(metadataCollectionId),
                                                                          limitResultsByStatus,
                                                                          matchClassifications,
                                                                          asOfTime,
                                                                          sequencingProperty,
                                                                          sequencingOrder,
-                                                                         pageSize);
+                                                                         getPageSize(metadataCollectionId));
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -169,6 +169,19 @@ public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecu
     }
 
 
+    /**
+     * Return the parameters specific to this query as a string.
+     *
+     * @return string
+     */
+    @Override
+    String getQueryParameters()
+    {
+        return matchProperties + "|" +
+               matchCriteria;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -188,12 +201,12 @@ public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecu
                                                                                         instanceTypeGUID,
                                                                                         matchProperties,
                                                                                         matchCriteria,
-                                                                                        startingElement,
+                                                                                        getStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        getPageSize(metadataCollectionId));
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -158,6 +158,18 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
     }
 
 
+    /**
+     * Return the parameters specific to this query as a string.
+     *
+     * @return string
+     */
+    @Override
+    String getQueryParameters()
+    {
+        return String.valueOf(searchCriteria);
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -176,12 +188,12 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
             List<Relationship> results = metadataCollection.findRelationshipsByPropertyValue(userId,
                                                                                              instanceTypeGUID,
                                                                                              searchCriteria,
-                                                                                             startingElement,
+                                                                                             getStartingElement(metadataCollectionId),
                                                                                              limitResultsByStatus,
                                                                                              asOfTime,
                                                                                              sequencingProperty,
                                                                                              sequencingOrder,
-                                                                                             pageSize);
+                                                                                             getPageSize(metadataCollectionId));
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
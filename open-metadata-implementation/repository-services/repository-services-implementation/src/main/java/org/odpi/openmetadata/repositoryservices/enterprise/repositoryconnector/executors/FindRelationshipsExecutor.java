@@ -167,6 +167,19 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
     }
 
 
+    /**
+     * Return the parameters specific to this query as a string.
+     *
+     * @return string
+     */
+    @Override
+    String getQueryParameters()
+    {
+        return matchProperties + "|" +
+               instanceSubtypeGUIDs;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -186,12 +199,12 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
                                                                               instanceTypeGUID,
                                                                               instanceSubtypeGUIDs,
                                                                               matchProperties,
-                                                                              startingElement,
+                                                                              getStartingElement(metadataCollectionId),
                                                                               limitResultsByStatus,
                                                                               asOfTime,
                                                                               sequencingProperty,
                                                                               sequencingOrder,
-                                                                              pageSize);
+                                                                              getPageSize(metadataCollectionId));
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
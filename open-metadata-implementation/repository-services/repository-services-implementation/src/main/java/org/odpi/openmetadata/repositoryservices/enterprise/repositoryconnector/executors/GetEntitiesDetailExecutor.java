@@ -0,0 +1,287 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.EntityDetailAccumulator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.EntityDetailListAccumulator;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
+
+import java.util.List;
+
+/**
+ * GetEntitiesDetailExecutor provides the executor for the getEntitiesDetail method.  Each repository is asked
+ * for all of the requested entities whose home repository has not yet returned them in a single call.
+ * The latest version of each entity and its classifications are gathered as for getEntityDetail.
+ *
+ * Repositories that do not support the list call are asked for each entity in turn.  A repository that fails
+ * the list call with a repository error is not asked for the entities one at a time.  Once the entities
+ * have been retrieved, the repositories that did not return an entity are asked for its home classifications.
+ */
+public class GetEntitiesDetailExecutor extends RepositoryExecutorBase implements CloneableRepositoryExecutor
+{
+    private final EntityDetailListAccumulator accumulator;
+
+
+    /**
+     * Constructor takes the parameters for the request.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUIDs unique identifiers (guids) for the entities.
+     * @param auditLog logging destination
+     * @param methodName calling method
+     */
+    public GetEntitiesDetailExecutor(String       userId,
+                                     List<String> entityGUIDs,
+                                     AuditLog     auditLog,
+                                     String       methodName)
+    {
+        this(userId, new EntityDetailListAccumulator(entityGUIDs, auditLog), methodName);
+    }
+
+
+    /**
+     * Constructor used when cloning the executor.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param accumulator to use
+     * @param methodName calling method
+     */
+    private GetEntitiesDetailExecutor(String                      userId,
+                                      EntityDetailListAccumulator accumulator,
+                                      String                      methodName)
+    {
+        super(userId, methodName);
+
+        this.accumulator = accumulator;
+    }
+
+
+    /**
+     * Return a clone of this executor with the same command parameters and accumulator instance.
+     *
+     * @return clone of this executor
+     */
+    @Override
+    public CloneableRepositoryExecutor getClone()
+    {
+        return new GetEntitiesDetailExecutor(userId, accumulator, methodName);
+    }
+
+
+    /**
+     * Record that the request to a repository could not be completed by the federation control.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @param exception exception describing the failure
+     */
+    @Override
+    public void captureRequestFailure(String                   metadataCollectionId,
+                                      RepositoryErrorException exception)
+    {
+        accumulator.captureException(metadataCollectionId, exception);
+    }
+
+
+    /**
+     * Return whether the request to a repository failed because of a problem in the repository.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @return boolean
+     */
+    @Override
+    public boolean requestFailed(String metadataCollectionId)
+    {
+        return accumulator.isRepositoryFailure(metadataCollectionId);
+    }
+
+
+    /**
+     * Perform the required action for the supplied repository.
+     * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
+     * there are no positive results from any repository.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param metadataCollection metadata collection object for the repository
+     * @return boolean true means that the required results have been achieved
+     */
+    @Override
+    public boolean issueRequestToRepository(String                 metadataCollectionId,
+                                            OMRSMetadataCollection metadataCollection)
+    {
+        List<String> entityGUIDs = accumulator.getGUIDsInPhaseOne();
+
+        if (entityGUIDs == null)
+        {
+            /*
+             * All entities have been returned by their home repository.  The classifications from this
+             * repository are gathered when the results are augmented.
+             */
+            return false;
+        }
+
+        try
+        {
+            List<EntityDetail> retrievedEntities = metadataCollection.getEntitiesDetail(userId, entityGUIDs);
+
+            if (retrievedEntities != null)
+            {
+                for (EntityDetail retrievedEntity : retrievedEntities)
+                {
+                    accumulator.addEntity(retrievedEntity, metadataCollectionId);
+                }
+            }
+        }
+        catch (FunctionNotSupportedException error)
+        {
+            /*
+             * The repository does not support the list call so the entities are requested one at a time.
+             */
+            getEntitiesOneByOne(metadataCollectionId, metadataCollection, entityGUIDs);
+        }
+        catch (RepositoryErrorException error)
+        {
+            /*
+             * The repository is failing - it is not sent a request for each entity.
+             */
+            accumulator.captureException(metadataCollectionId, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            accumulator.captureException(error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            accumulator.captureException(error);
+        }
+        catch (Exception error)
+        {
+            accumulator.captureGenericException(methodName, metadataCollectionId, error);
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Retrieve each of the entities with a separate call to the repository.  Entities that are not known,
+     * or are only proxies, in this repository are skipped.  The request stops if the repository fails.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param metadataCollection metadata collection object for the repository
+     * @param entityGUIDs unique identifiers of the entities to retrieve
+     */
+    private void getEntitiesOneByOne(String                 metadataCollectionId,
+                                     OMRSMetadataCollection metadataCollection,
+                                     List<String>           entityGUIDs)
+    {
+        for (String entityGUID : entityGUIDs)
+        {
+            try
+            {
+                accumulator.addEntity(metadataCollection.getEntityDetail(userId, entityGUID), metadataCollectionId);
+            }
+            catch (EntityNotKnownException | EntityProxyOnlyException error)
+            {
+                // the home classifications are requested when the results are augmented.
+            }
+            catch (InvalidParameterException error)
+            {
+                accumulator.captureException(error);
+            }
+            catch (UserNotAuthorizedException error)
+            {
+                accumulator.captureException(error);
+            }
+            catch (RepositoryErrorException error)
+            {
+                accumulator.captureException(metadataCollectionId, error);
+                return;
+            }
+            catch (Exception error)
+            {
+                accumulator.captureGenericException(methodName, metadataCollectionId, error);
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Return the results that need further augmentation.
+     *
+     * @return null (if no augmentation of results is required) or a list containing the guids of the results.
+     */
+    @Override
+    public List<String> getResultsForAugmentation()
+    {
+        return accumulator.getResultsForAugmentation();
+    }
+
+
+    /**
+     * Retrieve the home classifications for an entity from a repository that did not return the entity.
+     *
+     * @param resultGUID unique identifier of result.
+     * @param metadataCollectionId identifier for the metadata collection
+     * @param metadataCollection metadata collection object for the repository
+     */
+    @Override
+    public void augmentResultFromRepository(String                 resultGUID,
+                                            String                 metadataCollectionId,
+                                            OMRSMetadataCollection metadataCollection)
+    {
+        EntityDetailAccumulator entityAccumulator = accumulator.getEntityAccumulator(resultGUID);
+
+        if (entityAccumulator != null)
+        {
+            List<String> contributingMetadataCollections = entityAccumulator.getContributingMetadataCollections();
+
+            if ((contributingMetadataCollections == null) || (! contributingMetadataCollections.contains(metadataCollectionId)))
+            {
+                try
+                {
+                    List<Classification> homeClassifications = metadataCollection.getHomeClassifications(userId, resultGUID);
+
+                    entityAccumulator.saveClassifications(homeClassifications);
+                }
+                catch (Exception error)
+                {
+                    // ignore exceptions because the returned exceptions come from the retrieval of the entities.
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the entities that were found, in the order they were requested.
+     *
+     * @return list of entities or null if none were found
+     * @throws InvalidParameterException one of the guids is invalid.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> getEntitiesDetail() throws InvalidParameterException,
+                                                         RepositoryErrorException,
+                                                         UserNotAuthorizedException
+    {
+        List<EntityDetail> results = accumulator.getResults();
+
+        if (results != null)
+        {
+            return results;
+        }
+
+        accumulator.throwCapturedRepositoryErrorException();
+        accumulator.throwCapturedUserNotAuthorizedException();
+        accumulator.throwCapturedInvalidParameterException();
+
+        return null;
+    }
+}
@@ -193,7 +193,7 @@ public class GetEntityDetailExecutor extends GetEntityExecutor
         }
         catch (RepositoryErrorException error)
         {
-            accumulator.captureException(error);
+            accumulator.captureException(metadataCollectionId, error);
         }
         catch (UserNotAuthorizedException error)
         {
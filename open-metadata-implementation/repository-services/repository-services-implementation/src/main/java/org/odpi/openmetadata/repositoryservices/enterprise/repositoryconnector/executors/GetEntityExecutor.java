@@ -52,6 +52,19 @@ public abstract class GetEntityExecutor extends RepositoryExecutorBase
     }
 
 
+    /**
+     * Return whether the request to a repository failed because of a problem in the repository.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @return boolean
+     */
+    @Override
+    public boolean requestFailed(String metadataCollectionId)
+    {
+        return accumulator.isRepositoryFailure(metadataCollectionId);
+    }
+
+
     /**
      * Perform the required action to augment a result by calling a specific repository.
      *
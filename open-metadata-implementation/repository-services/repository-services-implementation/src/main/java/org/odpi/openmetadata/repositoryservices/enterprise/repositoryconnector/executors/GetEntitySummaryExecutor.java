@@ -99,7 +99,7 @@ public class GetEntitySummaryExecutor extends GetEntityExecutor
         }
         catch (RepositoryErrorException error)
         {
-            accumulator.captureException(error);
+            accumulator.captureException(metadataCollectionId, error);
         }
         catch (UserNotAuthorizedException error)
         {
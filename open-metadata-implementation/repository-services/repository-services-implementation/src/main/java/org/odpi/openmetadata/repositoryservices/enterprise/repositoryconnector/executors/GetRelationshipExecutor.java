@@ -128,7 +128,7 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
         }
         catch (RepositoryErrorException error)
         {
-            accumulator.captureException(error);
+            accumulator.captureException(metadataCollectionId, error);
         }
         catch (UserNotAuthorizedException error)
         {
@@ -145,6 +145,19 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
     }
 
 
+    /**
+     * Return whether the request to a repository failed because of a problem in the repository.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @return boolean
+     */
+    @Override
+    public boolean requestFailed(String metadataCollectionId)
+    {
+        return accumulator.isRepositoryFailure(metadataCollectionId);
+    }
+
+
     /**
      * Returns a boolean indicating if the relationship is stored in the metadata collection.
      *
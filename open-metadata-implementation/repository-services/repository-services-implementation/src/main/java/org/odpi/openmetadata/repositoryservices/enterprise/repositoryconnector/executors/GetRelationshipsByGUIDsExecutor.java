@@ -0,0 +1,231 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.RelationshipListAccumulator;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
+
+import java.util.List;
+
+/**
+ * GetRelationshipsByGUIDsExecutor provides the executor for the getRelationshipsByGUIDs method.  Each repository
+ * is asked for all of the requested relationships that have not yet been retrieved in a single call.
+ * Repositories that do not support the list call are asked for each relationship in turn.  A repository that
+ * fails the list call with a repository error is not asked for the relationships one at a time.
+ */
+public class GetRelationshipsByGUIDsExecutor extends RepositoryExecutorBase implements CloneableRepositoryExecutor
+{
+    private final RelationshipListAccumulator accumulator;
+
+
+    /**
+     * Constructor takes the parameters for the request.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipGUIDs unique identifiers (guids) for the relationships.
+     * @param auditLog logging destination
+     * @param methodName calling method
+     */
+    public GetRelationshipsByGUIDsExecutor(String       userId,
+                                           List<String> relationshipGUIDs,
+                                           AuditLog     auditLog,
+                                           String       methodName)
+    {
+        this(userId, new RelationshipListAccumulator(relationshipGUIDs, auditLog), methodName);
+    }
+
+
+    /**
+     * Constructor used when cloning the executor.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param accumulator to use
+     * @param methodName calling method
+     */
+    private GetRelationshipsByGUIDsExecutor(String                      userId,
+                                            RelationshipListAccumulator accumulator,
+                                            String                      methodName)
+    {
+        super(userId, methodName);
+
+        this.accumulator = accumulator;
+    }
+
+
+    /**
+     * Return a clone of this executor with the same command parameters and accumulator instance.
+     *
+     * @return clone of this executor
+     */
+    @Override
+    public CloneableRepositoryExecutor getClone()
+    {
+        return new GetRelationshipsByGUIDsExecutor(userId, accumulator, methodName);
+    }
+
+
+    /**
+     * Record that the request to a repository could not be completed by the federation control.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @param exception exception describing the failure
+     */
+    @Override
+    public void captureRequestFailure(String                   metadataCollectionId,
+                                      RepositoryErrorException exception)
+    {
+        accumulator.captureException(metadataCollectionId, exception);
+    }
+
+
+    /**
+     * Return whether the request to a repository failed because of a problem in the repository.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @return boolean
+     */
+    @Override
+    public boolean requestFailed(String metadataCollectionId)
+    {
+        return accumulator.isRepositoryFailure(metadataCollectionId);
+    }
+
+
+    /**
+     * Perform the required action for the supplied repository.
+     * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
+     * there are no positive results from any repository.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param metadataCollection metadata collection object for the repository
+     * @return boolean true means that all of the relationships have been retrieved
+     */
+    @Override
+    public boolean issueRequestToRepository(String                 metadataCollectionId,
+                                            OMRSMetadataCollection metadataCollection)
+    {
+        List<String> relationshipGUIDs = accumulator.getGUIDsNotRetrieved();
+
+        if (relationshipGUIDs == null)
+        {
+            return true;
+        }
+
+        try
+        {
+            List<Relationship> retrievedRelationships = metadataCollection.getRelationshipsByGUIDs(userId, relationshipGUIDs);
+
+            if (retrievedRelationships != null)
+            {
+                for (Relationship retrievedRelationship : retrievedRelationships)
+                {
+                    accumulator.addRelationship(retrievedRelationship);
+                }
+            }
+        }
+        catch (FunctionNotSupportedException error)
+        {
+            /*
+             * The repository does not support the list call so the relationships are requested one at a time.
+             */
+            getRelationshipsOneByOne(metadataCollectionId, metadataCollection, relationshipGUIDs);
+        }
+        catch (RepositoryErrorException error)
+        {
+            /*
+             * The repository is failing - it is not sent a request for each relationship.
+             */
+            accumulator.captureException(metadataCollectionId, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            accumulator.captureException(error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            accumulator.captureException(error);
+        }
+        catch (Exception error)
+        {
+            accumulator.captureGenericException(methodName, metadataCollectionId, error);
+        }
+
+        return accumulator.getGUIDsNotRetrieved() == null;
+    }
+
+
+    /**
+     * Retrieve each of the relationships with a separate call to the repository.  Relationships that are
+     * not known in this repository are skipped.  The request stops if the repository fails.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param metadataCollection metadata collection object for the repository
+     * @param relationshipGUIDs unique identifiers of the relationships to retrieve
+     */
+    private void getRelationshipsOneByOne(String                 metadataCollectionId,
+                                          OMRSMetadataCollection metadataCollection,
+                                          List<String>           relationshipGUIDs)
+    {
+        for (String relationshipGUID : relationshipGUIDs)
+        {
+            try
+            {
+                accumulator.addRelationship(metadataCollection.getRelationship(userId, relationshipGUID));
+            }
+            catch (RelationshipNotKnownException error)
+            {
+                // not stored in this repository
+            }
+            catch (InvalidParameterException error)
+            {
+                accumulator.captureException(error);
+            }
+            catch (UserNotAuthorizedException error)
+            {
+                accumulator.captureException(error);
+            }
+            catch (RepositoryErrorException error)
+            {
+                accumulator.captureException(metadataCollectionId, error);
+                return;
+            }
+            catch (Exception error)
+            {
+                accumulator.captureGenericException(methodName, metadataCollectionId, error);
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Return the relationships that were found, in the order they were requested.
+     *
+     * @return list of relationships or null if none were found
+     * @throws InvalidParameterException one of the guids is invalid.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationshipsByGUIDs() throws InvalidParameterException,
+                                                               RepositoryErrorException,
+                                                               UserNotAuthorizedException
+    {
+        List<Relationship> results = accumulator.getResults();
+
+        if (results != null)
+        {
+            return results;
+        }
+
+        accumulator.throwCapturedRepositoryErrorException();
+        accumulator.throwCapturedUserNotAuthorizedException();
+        accumulator.throwCapturedInvalidParameterException();
+
+        return null;
+    }
+}
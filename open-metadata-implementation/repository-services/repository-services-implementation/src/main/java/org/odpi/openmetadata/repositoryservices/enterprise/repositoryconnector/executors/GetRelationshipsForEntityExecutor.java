@@ -153,6 +153,18 @@ public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecuto
     }
 
 
+    /**
+     * Return the parameters specific to this query as a string.
+     *
+     * @return string
+     */
+    @Override
+    String getQueryParameters()
+    {
+        return String.valueOf(entityGUID);
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -171,12 +183,12 @@ public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecuto
             List<Relationship> results = metadataCollection.getRelationshipsForEntity(userId,
                                                                                       entityGUID,
                                                                                       instanceTypeGUID,
-                                                                                      startingElement,
+                                                                                      getStartingElement(metadataCollectionId),
                                                                                       limitResultsByStatus,
                                                                                       asOfTime,
                                                                                       sequencingProperty,
                                                                                       sequencingOrder,
-                                                                                      pageSize);
+                                                                                      getPageSize(metadataCollectionId));
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
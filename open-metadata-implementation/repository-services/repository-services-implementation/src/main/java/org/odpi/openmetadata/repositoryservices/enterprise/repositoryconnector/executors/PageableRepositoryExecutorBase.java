@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.PagingContinuationCache;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.QueryInstanceAccumulatorBase;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -12,8 +13,9 @@ import java.util.Date;
 import java.util.List;
 
 /**
- * CloneableRepositoryExecutorBase provides a base class for executors that can be cloned and run in
- * parallel so the call to each repository runs in a different thread.
+ * PageableRepositoryExecutorBase provides a base class for the cloneable executors that return a page of
+ * instances.  Each repository is asked for the instances it needs to contribute to the requested page and
+ * the accumulator merges the results to select the exact page.
  */
 abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecutorBase
 {
@@ -66,6 +68,62 @@ abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecuto
         this.asOfTime = asOfTime;
 
         this.queryInstanceAccumulator = accumulator;
+
+        accumulator.setPagingParameters(startingElement, pageSize, sequencingProperty, sequencingOrder);
+    }
+
+
+    /**
+     * Supply the cache of paging continuations so that a request for the next page of results can continue
+     * from where the previous page finished in each repository.  This is called before the executor is run.
+     *
+     * @param pagingContinuations cache of continuations maintained by the enterprise metadata collection
+     */
+    public void setPagingContinuations(PagingContinuationCache pagingContinuations)
+    {
+        String queryKey = methodName + "|" +
+                          userId + "|" +
+                          instanceTypeGUID + "|" +
+                          limitResultsByStatus + "|" +
+                          (asOfTime == null ? null : asOfTime.getTime()) + "|" +
+                          sequencingProperty + "|" +
+                          sequencingOrder + "|" +
+                          this.getQueryParameters();
+
+        queryInstanceAccumulator.setPagingContinuations(pagingContinuations, queryKey);
+    }
+
+
+    /**
+     * Return the parameters specific to the query as a string.  This is combined with the common parameters
+     * to identify the query when saving paging continuations.
+     *
+     * @return string
+     */
+    abstract String getQueryParameters();
+
+
+    /**
+     * Return the starting element to request from a repository.
+     *
+     * @param metadataCollectionId unique identifier of the repository's metadata collection
+     * @return starting element
+     */
+    int getStartingElement(String metadataCollectionId)
+    {
+        return queryInstanceAccumulator.getMemberStartingElement(metadataCollectionId);
+    }
+
+
+    /**
+     * Return the page size to request from a repository.
+     *
+     * @param metadataCollectionId unique identifier of the repository's metadata collection
+     * @return page size (zero means no limit)
+     */
+    int getPageSize(String metadataCollectionId)
+    {
+        return queryInstanceAccumulator.getMemberPageSize(metadataCollectionId);
     }
 
 
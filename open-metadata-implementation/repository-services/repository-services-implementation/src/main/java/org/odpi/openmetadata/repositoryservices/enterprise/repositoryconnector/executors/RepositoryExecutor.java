@@ -43,4 +43,18 @@ public interface RepositoryExecutor
                                              OMRSMetadataCollection metadataCollection)
     {
     }
+
+
+    /**
+     * Return whether the request to a repository failed because of a problem in the repository (rather than
+     * a problem with the request, or the instance not being found).  This is used to maintain the
+     * availability statistics for each repository.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @return boolean
+     */
+    default boolean requestFailed(String metadataCollectionId)
+    {
+        return false;
+    }
 }
@@ -1891,6 +1891,68 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
         return this.getValidatedEntity(userId, entity);
     }
 
+
+    /**
+     * Return the header, classifications and properties of a list of entities.  Entities that are not known,
+     * or are only proxies, are left out of the results.  If the real repository does not support the
+     * request, each entity is retrieved in turn.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of entities in the order they were requested, or null if none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           UserNotAuthorizedException
+    {
+        final String  methodName = "getEntitiesDetail";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstancesParameterValidation(userId, guids, methodName);
+
+        /*
+         * Perform operation
+         */
+        List<EntityDetail> entities;
+
+        try
+        {
+            entities = realMetadataCollection.getEntitiesDetail(userId, guids);
+        }
+        catch (FunctionNotSupportedException error)
+        {
+            return super.getEntitiesDetail(userId, guids);
+        }
+
+        if (entities != null)
+        {
+            for (EntityDetail entity : entities)
+            {
+                if (entity != null)
+                {
+                    try
+                    {
+                        repositoryValidator.validateEntityFromStore(repositoryName, entity.getGUID(), entity, methodName);
+                    }
+                    catch (EntityNotKnownException error)
+                    {
+                        // not thrown for a retrieved entity
+                    }
+                }
+            }
+        }
+
+        return this.securityVerifyReadEntityList(userId, setLocalProvenanceInEntityList(entities));
+    }
+
     
     /**
      * Return all historical versions of an entity within the bounds of the provided timestamps. To retrieve all historical
@@ -2505,6 +2567,67 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return a list of relationships.  Relationships that are not known are left out of the results.
+     * If the real repository does not support the request, each relationship is retrieved in turn.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of relationships in the order they were requested, or null if none were found.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<Relationship> getRelationshipsByGUIDs(String       userId,
+                                                      List<String> guids) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipsByGUIDs";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstancesParameterValidation(userId, guids, methodName);
+
+        /*
+         * Process operation
+         */
+        List<Relationship> relationships;
+
+        try
+        {
+            relationships = realMetadataCollection.getRelationshipsByGUIDs(userId, guids);
+        }
+        catch (FunctionNotSupportedException error)
+        {
+            return super.getRelationshipsByGUIDs(userId, guids);
+        }
+
+        if (relationships != null)
+        {
+            for (Relationship relationship : relationships)
+            {
+                if (relationship != null)
+                {
+                    try
+                    {
+                        repositoryValidator.validateRelationshipFromStore(repositoryName, relationship.getGUID(), relationship, methodName);
+                    }
+                    catch (RelationshipNotKnownException error)
+                    {
+                        // not thrown for a retrieved relationship
+                    }
+                }
+            }
+        }
+
+        return this.securityVerifyReadRelationshipList(userId, setLocalProvenanceInRelationshipList(relationships));
+    }
+
+
     /**
      * Return all historical versions of a relationship within the bounds of the provided timestamps. To retrieve all
      * historical versions of a relationship, set both the 'fromTime' and 'toTime' to null.
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 /**
@@ -33,6 +34,12 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
 {
     private static final Logger log = LoggerFactory.getLogger(OMRSRepositoryContentHelper.class);
 
+    /*
+     * A bounded heap is used to pick out the requested page of sequenced results when the end of the page
+     * is no further than this fraction of the way through the full results.  Otherwise the full results are sorted.
+     */
+    private static final int PAGE_SELECTION_RATIO = 4;
+
     private final OMRSRepositoryContentManager repositoryContentManager;
 
 
@@ -527,36 +534,7 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
 
         validateRepositoryContentManager(methodName);
 
-        List<String>  subTypeNames = new ArrayList<>();
-        List<TypeDef> typeDefs = repositoryContentManager.getKnownTypeDefs();
-
-        if (typeDefs != null)
-        {
-            for (TypeDef typeDef : typeDefs)
-            {
-                if (typeDef != null)
-                {
-                    if (! superTypeName.equals(typeDef.getName()))
-                    {
-                        if (repositoryContentManager.isTypeOf(sourceName,
-                                                              typeDef.getName(),
-                                                              superTypeName))
-                        {
-                            subTypeNames.add(typeDef.getName());
-                        }
-                    }
-                }
-            }
-        }
-
-        if (subTypeNames.isEmpty())
-        {
-            return null;
-        }
-        else
-        {
-            return subTypeNames;
-        }
+        return repositoryContentManager.getSubTypesOf(superTypeName);
     }
 
 
@@ -2437,21 +2415,13 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
         // If there is no sequencing order, or it is defined as 'ANY', there is no sorting to do
         if (sequencingOrder != null && !sequencingOrder.equals(SequencingOrder.ANY))
         {
-            if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
-            {
-                // If the sequencing is property-based, handover to the property comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareProperties(
-                        one.getProperties(),
-                        two.getProperties(),
-                        sequencingProperty,
-                        sequencingOrder
-                ));
-            }
-            else
+            if (isPageSelectable(fromElement, pageSize, fullResultsSize))
             {
-                // Otherwise, handover to the instance comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder));
+                // Only the instances up to the end of the requested page need to be put in sequence
+                return selectSequencedPage(fullResults, EntityDetail::getProperties, fromElement, sequencingProperty, sequencingOrder, pageSize);
             }
+
+            sortSequencedResults(fullResults, EntityDetail::getProperties, sequencingProperty, sequencingOrder);
         }
 
         if ((fromElement == 0) && (pageSize > fullResultsSize))
@@ -2509,21 +2479,13 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
         // If there is no sequencing order, or it is defined as 'ANY', there is no sorting to do
         if (sequencingOrder != null && !sequencingOrder.equals(SequencingOrder.ANY))
         {
-            if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
-            {
-                // If the sequencing is property-based, handover to the property comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareProperties(
-                        one.getProperties(),
-                        two.getProperties(),
-                        sequencingProperty,
-                        sequencingOrder
-                ));
-            }
-            else
+            if (isPageSelectable(fromElement, pageSize, fullResultsSize))
             {
-                // Otherwise, handover to the instance comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder));
+                // Only the instances up to the end of the requested page need to be put in sequence
+                return selectSequencedPage(fullResults, Relationship::getProperties, fromElement, sequencingProperty, sequencingOrder, pageSize);
             }
+
+            sortSequencedResults(fullResults, Relationship::getProperties, sequencingProperty, sequencingOrder);
         }
 
         if ((fromElement == 0) && (pageSize == 0 || pageSize > fullResultsSize))
@@ -2540,6 +2502,325 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
     }
 
 
+    /**
+     * Return whether the requested page is a small enough part of the full results to be picked out with a
+     * bounded heap rather than by sorting all of the results.
+     *
+     * @param fromElement starting element number of the instances to return
+     * @param pageSize maximum number of instances to return - zero means all of them
+     * @param fullResultsSize number of instances in the full results
+     * @return boolean
+     */
+    private boolean isPageSelectable(int fromElement,
+                                     int pageSize,
+                                     int fullResultsSize)
+    {
+        return (fromElement >= 0) && (pageSize > 0) && ((long) fromElement + pageSize <= fullResultsSize / PAGE_SELECTION_RATIO);
+    }
+
+
+    /**
+     * Sort the full results into the nominated order.  The order of instances that sequence equally is unchanged.
+     *
+     * @param fullResults the full list of results in an arbitrary order
+     * @param propertiesAccessor function returning the properties of an instance
+     * @param sequencingProperty name of the property to sequence on for the property orders
+     * @param sequencingOrder nominated sort order
+     * @param <T> type of instance
+     */
+    private <T extends InstanceHeader> void sortSequencedResults(List<T>                          fullResults,
+                                                                 Function<T, InstanceProperties>  propertiesAccessor,
+                                                                 String                           sequencingProperty,
+                                                                 SequencingOrder                  sequencingOrder)
+    {
+        List<SequencingKey<T>> sequencingKeys = new ArrayList<>(fullResults.size());
+        int                    position       = 0;
+
+        for (T instance : fullResults)
+        {
+            sequencingKeys.add(new SequencingKey<>(instance, position++, propertiesAccessor, sequencingProperty, sequencingOrder));
+        }
+
+        Collections.sort(sequencingKeys);
+
+        ListIterator<T> iterator = fullResults.listIterator();
+
+        for (SequencingKey<T> sequencingKey : sequencingKeys)
+        {
+            iterator.next();
+            iterator.set(sequencingKey.instance);
+        }
+    }
+
+
+    /**
+     * Return the requested page of the results in the nominated order, without sorting the full results.  A bounded
+     * heap keeps the instances that belong up to the end of the page, so the cost is proportional to the number
+     * of results multiplied by the log of the page end.  The full results are not reordered.
+     *
+     * @param fullResults the full list of results in an arbitrary order
+     * @param propertiesAccessor function returning the properties of an instance
+     * @param fromElement starting element number of the instances to return
+     * @param sequencingProperty name of the property to sequence on for the property orders
+     * @param sequencingOrder nominated sort order
+     * @param pageSize maximum number of instances to return
+     * @param <T> type of instance
+     * @return requested page of results
+     */
+    private <T extends InstanceHeader> List<T> selectSequencedPage(List<T>                          fullResults,
+                                                                   Function<T, InstanceProperties>  propertiesAccessor,
+                                                                   int                              fromElement,
+                                                                   String                           sequencingProperty,
+                                                                   SequencingOrder                  sequencingOrder,
+                                                                   int                              pageSize)
+    {
+        int                             selectionSize = fromElement + pageSize;
+        PriorityQueue<SequencingKey<T>> selection     = new PriorityQueue<>(selectionSize + 1, Collections.reverseOrder());
+        int                             position      = 0;
+
+        for (T instance : fullResults)
+        {
+            SequencingKey<T> sequencingKey = new SequencingKey<>(instance, position++, propertiesAccessor, sequencingProperty, sequencingOrder);
+
+            if (selection.size() < selectionSize)
+            {
+                selection.add(sequencingKey);
+            }
+            else if (sequencingKey.compareTo(selection.peek()) < 0)
+            {
+                /*
+                 * The new instance belongs before the last instance currently selected.
+                 */
+                selection.poll();
+                selection.add(sequencingKey);
+            }
+        }
+
+        List<SequencingKey<T>> selectedKeys = new ArrayList<>(selection);
+
+        Collections.sort(selectedKeys);
+
+        List<T> page = new ArrayList<>(pageSize);
+
+        for (SequencingKey<T> sequencingKey : selectedKeys.subList(fromElement, selectedKeys.size()))
+        {
+            page.add(sequencingKey.instance);
+        }
+
+        return page;
+    }
+
+
+    /**
+     * SequencingKey holds the value that an instance is sequenced by.  It is extracted from the instance once, so
+     * that the comparisons made while ordering the results do not look up the property values again.  The results
+     * of the comparisons are the same as compareInstances and compareProperties.  Instances that sequence equally
+     * are ordered by their position in the full results.
+     *
+     * @param <T> type of instance
+     */
+    private static class SequencingKey<T extends InstanceHeader> implements Comparable<SequencingKey<T>>
+    {
+        private final T               instance;
+        private final int             position;
+        private final SequencingOrder sequencingOrder;
+        private final String          propertyTypeName;
+        private final Object          value;
+
+
+        /**
+         * Extract the value to sequence on from the instance.
+         *
+         * @param instance instance to sequence
+         * @param position position of the instance in the full results
+         * @param propertiesAccessor function returning the properties of the instance
+         * @param sequencingProperty name of the property to sequence on for the property orders
+         * @param sequencingOrder nominated sort order
+         */
+        SequencingKey(T                               instance,
+                      int                             position,
+                      Function<T, InstanceProperties> propertiesAccessor,
+                      String                          sequencingProperty,
+                      SequencingOrder                 sequencingOrder)
+        {
+            this.instance        = instance;
+            this.position        = position;
+            this.sequencingOrder = sequencingOrder;
+
+            String propertyTypeName = null;
+            Object value            = null;
+
+            switch (sequencingOrder)
+            {
+                case PROPERTY_ASCENDING:
+                case PROPERTY_DESCENDING:
+                    InstanceProperties properties = propertiesAccessor.apply(instance);
+
+                    if (properties != null)
+                    {
+                        InstancePropertyValue propertyValue = properties.getPropertyValue(sequencingProperty);
+
+                        if ((propertyValue != null) && (propertyValue.getInstancePropertyCategory() == InstancePropertyCategory.PRIMITIVE))
+                        {
+                            propertyTypeName = propertyValue.getTypeName();
+                            value            = ((PrimitivePropertyValue) propertyValue).getPrimitiveValue();
+                        }
+                    }
+                    break;
+
+                case GUID:
+                    if (instance != null)
+                    {
+                        value = instance.getGUID();
+                    }
+                    break;
+
+                case LAST_UPDATE_RECENT:
+                case LAST_UPDATE_OLDEST:
+                    if (instance != null)
+                    {
+                        value = instance.getUpdateTime();
+                    }
+                    break;
+
+                case CREATION_DATE_RECENT:
+                case CREATION_DATE_OLDEST:
+                    if (instance != null)
+                    {
+                        value = instance.getCreateTime();
+                    }
+                    break;
+            }
+
+            this.propertyTypeName = propertyTypeName;
+            this.value            = value;
+        }
+
+
+        /**
+         * Compare with another key for the same sequencing order.
+         *
+         * @param other key to compare with
+         * @return sort result
+         */
+        @Override
+        public int compareTo(SequencingKey<T> other)
+        {
+            int sortResult;
+
+            if ((sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) || (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING))
+            {
+                sortResult = compareProperty(other);
+            }
+            else
+            {
+                sortResult = compareInstance(other);
+            }
+
+            if (sortResult == 0)
+            {
+                sortResult = Integer.compare(position, other.position);
+            }
+
+            return sortResult;
+        }
+
+
+        /**
+         * Compare the property values in the same way as compareProperties.
+         *
+         * @param other key to compare with
+         * @return sort result
+         */
+        private int compareProperty(SequencingKey<T> other)
+        {
+            int sortResult;
+
+            if (propertyTypeName == null && other.propertyTypeName == null)
+            {
+                sortResult = 0;
+            }
+            else if (propertyTypeName != null && other.propertyTypeName == null)
+            {
+                sortResult = 1;
+            }
+            else if (propertyTypeName == null)
+            {
+                sortResult = -1;
+            }
+            else if (!propertyTypeName.equals(other.propertyTypeName))
+            {
+                sortResult = 0;
+            }
+            else
+            {
+                sortResult = typeSpecificCompare(propertyTypeName, value, other.value);
+            }
+
+            if (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING)
+            {
+                sortResult = sortResult * (-1);
+            }
+
+            return sortResult;
+        }
+
+
+        /**
+         * Compare the header values in the same way as compareInstances.
+         *
+         * @param other key to compare with
+         * @return sort result
+         */
+        private int compareInstance(SequencingKey<T> other)
+        {
+            if (instance == null && other.instance == null)
+            {
+                return 0;
+            }
+            else if (instance != null && other.instance == null)
+            {
+                return 1;
+            }
+            else if (instance == null)
+            {
+                return -1;
+            }
+
+            int sortResult;
+
+            if (value == null && other.value == null)
+            {
+                sortResult = 0;
+            }
+            else if (value != null && other.value == null)
+            {
+                sortResult = 1;
+            }
+            else if (value == null)
+            {
+                sortResult = -1;
+            }
+            else if (sequencingOrder == SequencingOrder.GUID)
+            {
+                sortResult = ((String) value).compareTo((String) other.value);
+            }
+            else
+            {
+                sortResult = ((Date) value).compareTo((Date) other.value);
+            }
+
+            if ((sequencingOrder == SequencingOrder.LAST_UPDATE_RECENT) || (sequencingOrder == SequencingOrder.CREATION_DATE_RECENT))
+            {
+                // invert the result
+                sortResult = -sortResult;
+            }
+
+            return sortResult;
+        }
+    }
+
+
     /**
      * Compare the two instances and determine the sort order based on the nominated non-property sort order.
      *
@@ -2548,9 +2829,9 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
      * @param sequencingOrder nominated non-property sort order
      * @return sort result
      */
-    private static int  compareInstances(InstanceHeader  one,
-                                         InstanceHeader  two,
-                                         SequencingOrder sequencingOrder)
+    public static int  compareInstances(InstanceHeader  one,
+                                        InstanceHeader  two,
+                                        SequencingOrder sequencingOrder)
     {
 
         int sortResult;
@@ -2667,10 +2948,10 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
      * @param sequencingOrder ascending or descending order
      * @return sort result
      */
-    private static int  compareProperties(InstanceProperties     instance1Properties,
-                                          InstanceProperties     instance2Properties,
-                                          String                 propertyName,
-                                          SequencingOrder        sequencingOrder)
+    public static int  compareProperties(InstanceProperties     instance1Properties,
+                                         InstanceProperties     instance2Properties,
+                                         String                 propertyName,
+                                         SequencingOrder        sequencingOrder)
     {
 
         // todo need to add support for properties in the instance header eg createdBy
@@ -21,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OMRSRepositoryContentManager supports an in-memory cache of TypeDefs for the local server.  It is used by the OMRS
@@ -52,19 +53,29 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     private OMRSRepositoryEventManager      outboundRepositoryEventManager = null;
     private String                          openTypesOriginGUID            = null;
 
-    private final Map<String, TypeDef>            knownTypeDefGUIDs              = new HashMap<>();
-    private final Map<String, TypeDef>            knownTypeDefNames              = new HashMap<>();
+    /*
+     * The TypeDef lookups are made without locking while the TypeDefs are being cached, so these maps are
+     * concurrent.  Their keys can not be null so they are read through getKnownTypeDefByName() and
+     * getKnownTypeDefByGUID().
+     */
+    private final Map<String, TypeDef>            knownTypeDefGUIDs              = new ConcurrentHashMap<>();
+    private final Map<String, TypeDef>            knownTypeDefNames              = new ConcurrentHashMap<>();
     private final Map<String, AttributeTypeDef>   knownAttributeTypeDefGUIDs     = new HashMap<>();
     private final Map<String, AttributeTypeDef>   knownAttributeTypeDefNames     = new HashMap<>();
     private final Map<String, TypeDef>            activeTypeDefGUIDs             = new HashMap<>();
     private final Map<String, TypeDef>            activeTypeDefNames             = new HashMap<>();
     private final Map<String, AttributeTypeDef>   activeAttributeTypeDefGUIDs    = new HashMap<>();
     private final Map<String, AttributeTypeDef>   activeAttributeTypeDefNames    = new HashMap<>();
-    private final Map<String, List<TypeDefLink>>  typeDefSuperTypes              = new HashMap<>();
     private final Map<String, InstanceType>       knownInstanceTypes             = new HashMap<>();
     private final Map<String, String>             metadataCollectionNames        = new HashMap<>();
     private final Map<String, Set<String>>        knownPropertyToTypeDefNames    = new HashMap<>();
 
+    /*
+     * The type system snapshot is built from knownTypeDefNames and knownPropertyToTypeDefNames the first time
+     * it is needed after the TypeDefs change.  It is immutable so the type hierarchy can be queried without locking.
+     */
+    private volatile OMRSTypeSystemSnapshot       typeSystemSnapshot             = null;
+
 
     /*
      * The audit log provides a verifiable record of the open metadata archives that have been loaded into
@@ -150,10 +161,17 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
      * @param newTypeDef TypeDef structure describing the new TypeDef.
      * @param isLocallySupported indicates whether the TypeDef is supported by the local repository.
      */
-    private void cacheTypeDef(String  sourceName, TypeDef      newTypeDef, boolean isLocallySupported)
+    private synchronized void cacheTypeDef(String  sourceName, TypeDef      newTypeDef, boolean isLocallySupported)
     {
-        knownTypeDefGUIDs.put(newTypeDef.getGUID(), newTypeDef);
-        knownTypeDefNames.put(newTypeDef.getName(), newTypeDef);
+        if (newTypeDef.getGUID() != null)
+        {
+            knownTypeDefGUIDs.put(newTypeDef.getGUID(), newTypeDef);
+        }
+
+        if (newTypeDef.getName() != null)
+        {
+            knownTypeDefNames.put(newTypeDef.getName(), newTypeDef);
+        }
 
         if (isLocallySupported)
         {
@@ -167,6 +185,8 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             log.debug("New Known Type {} from {}. Full TypeDef: {}", newTypeDef.getName(), sourceName, newTypeDef);
         }
         cacheTypeDefPropertyLookup(sourceName, newTypeDef);
+
+        typeSystemSnapshot = null;
     }
 
 
@@ -231,13 +251,20 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
      * @param obsoleteTypeDefName unique name for the type.
      * @param isLocallySupported indicates whether the TypeDef is supported by the local repository.
      */
-    private void uncacheTypeDef(String  sourceName,
-                                String  obsoleteTypeDefGUID,
-                                String  obsoleteTypeDefName,
-                                boolean isLocallySupported)
+    private synchronized void uncacheTypeDef(String  sourceName,
+                                             String  obsoleteTypeDefGUID,
+                                             String  obsoleteTypeDefName,
+                                             boolean isLocallySupported)
     {
-        knownTypeDefGUIDs.remove(obsoleteTypeDefGUID);
-        knownTypeDefNames.remove(obsoleteTypeDefName);
+        if (obsoleteTypeDefGUID != null)
+        {
+            knownTypeDefGUIDs.remove(obsoleteTypeDefGUID);
+        }
+
+        if (obsoleteTypeDefName != null)
+        {
+            knownTypeDefNames.remove(obsoleteTypeDefName);
+        }
 
         if (isLocallySupported)
         {
@@ -247,6 +274,8 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
         log.debug("Removed Type {} from {}", obsoleteTypeDefName, sourceName);
         uncacheTypeDefPropertyLookup(sourceName, obsoleteTypeDefName);
+
+        typeSystemSnapshot = null;
     }
 
 
@@ -337,9 +366,9 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
      * @param obsoleteTypeDefName String unique name for the TypeDef.
      */
     @Override
-    public void deleteTypeDef(String    sourceName,
-                              String    obsoleteTypeDefGUID,
-                              String    obsoleteTypeDefName)
+    public synchronized void deleteTypeDef(String    sourceName,
+                                           String    obsoleteTypeDefGUID,
+                                           String    obsoleteTypeDefName)
     {
         if (this.validTypeId(sourceName, obsoleteTypeDefGUID, obsoleteTypeDefName))
         {
@@ -353,6 +382,8 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
                 log.debug("Deleted Active TypeDef " + obsoleteTypeDefName + " from " + sourceName);
             }
+
+            typeSystemSnapshot = null;
         }
     }
 
@@ -501,7 +532,79 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
 
     /**
-     * Evaluate the superTypes for a type.  The results are cached in typeDefSuperTypes.
+     * Return the cached TypeDef with the supplied name.
+     *
+     * @param typeDefName unique name of the TypeDef (may be null)
+     * @return TypeDef or null if the TypeDef is not known
+     */
+    private TypeDef getKnownTypeDefByName(String typeDefName)
+    {
+        if (typeDefName == null)
+        {
+            return null;
+        }
+
+        return knownTypeDefNames.get(typeDefName);
+    }
+
+
+    /**
+     * Return the cached TypeDef with the supplied unique identifier.
+     *
+     * @param typeDefGUID unique identifier of the TypeDef (may be null)
+     * @return TypeDef or null if the TypeDef is not known
+     */
+    private TypeDef getKnownTypeDefByGUID(String typeDefGUID)
+    {
+        if (typeDefGUID == null)
+        {
+            return null;
+        }
+
+        return knownTypeDefGUIDs.get(typeDefGUID);
+    }
+
+
+    /**
+     * Return the current type system snapshot, building it if the TypeDefs have changed since it was last used.
+     *
+     * @return immutable snapshot of the type hierarchy
+     */
+    private OMRSTypeSystemSnapshot getTypeSystemSnapshot()
+    {
+        OMRSTypeSystemSnapshot typeSystem = typeSystemSnapshot;
+
+        if (typeSystem == null)
+        {
+            typeSystem = this.buildTypeSystemSnapshot();
+        }
+
+        return typeSystem;
+    }
+
+
+    /**
+     * Build a new type system snapshot from the cached TypeDefs.  This is synchronized with the methods
+     * that change the cached TypeDefs.
+     *
+     * @return immutable snapshot of the type hierarchy
+     */
+    private synchronized OMRSTypeSystemSnapshot buildTypeSystemSnapshot()
+    {
+        if (typeSystemSnapshot == null)
+        {
+            typeSystemSnapshot = new OMRSTypeSystemSnapshot(knownTypeDefNames, knownPropertyToTypeDefNames);
+
+            log.debug("New type system snapshot built for {} types", knownTypeDefNames.size());
+        }
+
+        return typeSystemSnapshot;
+    }
+
+
+    /**
+     * Evaluate the superTypes for a type.  The results are taken from the type system snapshot.  If the type,
+     * or one of its supertypes, is not known, the supertype links are walked to report the error.
      *
      * @param sourceName source of the request (used for logging)
      * @param typeName name of type to process
@@ -514,67 +617,65 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         final String  thisMethodName = "getSuperTypes";
 
-        List<TypeDefLink>   typeHierarchy = typeDefSuperTypes.get(typeName);
+        OMRSTypeSystemSnapshot typeSystem = this.getTypeSystemSnapshot();
+        int                    typeId     = typeSystem.getTypeId(typeName);
 
-        if (typeHierarchy == null)
+        if (typeId != OMRSTypeSystemSnapshot.UNKNOWN_TYPE)
         {
-            /*
-             * The type hierarchy is not known at this time (it is evaluated lazily).
-             */
-            typeHierarchy = new ArrayList<>();
+            return typeSystem.getSuperTypes(typeId);
+        }
 
-            TypeDef typeDef = knownTypeDefNames.get(typeName);
+        /*
+         * The type hierarchy could not be resolved in the snapshot.
+         */
+        List<TypeDefLink>   typeHierarchy = new ArrayList<>();
 
-            if (typeDef != null)
+        TypeDef typeDef = this.getKnownTypeDefByName(typeName);
+
+        if (typeDef != null)
+        {
+            TypeDefLink superTypeLink = typeDef.getSuperType();
+
+            while (superTypeLink != null)
             {
-                TypeDefLink superTypeLink = typeDef.getSuperType();
+                String superTypeName = superTypeLink.getName();
 
-                while (superTypeLink != null)
+                if (superTypeName != null)
                 {
-                    String superTypeName = superTypeLink.getName();
+                    log.debug(typeName + " has super type " + superTypeName);
 
-                    if (superTypeName != null)
-                    {
-                        log.debug(typeName + " has super type " + superTypeName);
+                    typeHierarchy.add(superTypeLink);
 
-                        typeHierarchy.add(superTypeLink);
+                    /*
+                     * Retrieve the TypeDef for this super type
+                     */
+                    TypeDef superTypeDef = this.getKnownTypeDefByName(superTypeName);
 
+                    if (superTypeDef != null)
+                    {
                         /*
-                         * Retrieve the TypeDef for this super type
+                         * Retrieve the super type for this super typeDef.  It will be null if the type is top-level.
                          */
-                        TypeDef superTypeDef = knownTypeDefNames.get(superTypeName);
-
-                        if (superTypeDef != null)
-                        {
-                            /*
-                             * Retrieve the super type for this super typeDef.  It will be null if the type is top-level.
-                             */
-                            superTypeLink = superTypeDef.getSuperType();
-                        }
-                        else
-                        {
-                            log.error(superTypeName + " supertype is not known in TypeDef cache");
-                            throwContentManagerLogicError(sourceName, methodName, thisMethodName);
-                        }
+                        superTypeLink = superTypeDef.getSuperType();
                     }
                     else
                     {
-                        log.error("Corrupted TypeDef cache, no name for " + superTypeLink);
+                        log.error(superTypeName + " supertype is not known in TypeDef cache");
                         throwContentManagerLogicError(sourceName, methodName, thisMethodName);
                     }
                 }
-
-                /*
-                 * Cache the resulting superType list
-                 */
-                typeDefSuperTypes.put(typeName, typeHierarchy);
-            }
-            else
-            {
-                log.error(typeName + " type is not known in TypeDef cache");
-                throwContentManagerLogicError(sourceName, methodName, thisMethodName + "(" + typeName + ")");
+                else
+                {
+                    log.error("Corrupted TypeDef cache, no name for " + superTypeLink);
+                    throwContentManagerLogicError(sourceName, methodName, thisMethodName);
+                }
             }
         }
+        else
+        {
+            log.error(typeName + " type is not known in TypeDef cache");
+            throwContentManagerLogicError(sourceName, methodName, thisMethodName + "(" + typeName + ")");
+        }
 
         if (typeHierarchy.isEmpty())
         {
@@ -585,9 +686,6 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
         }
         else
         {
-            /*
-             * The type hierarchy is known and can be returned directly.
-             */
             return typeHierarchy;
         }
     }
@@ -637,8 +735,16 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
         }
 
         /*
-         * Looking for a match in the superTypes.
+         * Looking for a match in the superTypes.  The snapshot answers this directly for all known types.
          */
+        OMRSTypeSystemSnapshot typeSystem   = this.getTypeSystemSnapshot();
+        int                    actualTypeId = typeSystem.getTypeId(actualTypeName);
+
+        if (actualTypeId != OMRSTypeSystemSnapshot.UNKNOWN_TYPE)
+        {
+            return typeSystem.isTypeOf(actualTypeId, typeSystem.getTypeId(expectedTypeName));
+        }
+
         List<TypeDefLink>   typeHierarchy = this.getSuperTypes(sourceName, actualTypeName, methodName);
 
         if (typeHierarchy != null)
@@ -713,9 +819,18 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
         }
 
         /*
-         * Looking for a match in the superTypes.
+         * Looking for a match in the superTypes.  The snapshot answers this directly when both types are known.
          */
-       List<TypeDefLink>   typeHierarchy = this.getSuperTypes(sourceName, actualTypeName, methodName);
+        OMRSTypeSystemSnapshot typeSystem     = this.getTypeSystemSnapshot();
+        int                    actualTypeId   = typeSystem.getTypeId(actualTypeName);
+        int                    expectedTypeId = typeSystem.getTypeIdByGUID(expectedTypeGUID);
+
+        if ((actualTypeId != OMRSTypeSystemSnapshot.UNKNOWN_TYPE) && (expectedTypeId != OMRSTypeSystemSnapshot.UNKNOWN_TYPE))
+        {
+            return typeSystem.isTypeOf(actualTypeId, expectedTypeId);
+        }
+
+        List<TypeDefLink>   typeHierarchy = this.getSuperTypes(sourceName, actualTypeName, methodName);
 
         if (typeHierarchy != null)
         {
@@ -770,7 +885,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             /*
              * The instance type has not yet been created. (They are created lazily.)
              */
-            TypeDef typeDef = knownTypeDefNames.get(typeName);
+            TypeDef typeDef = this.getKnownTypeDefByName(typeName);
 
             if (typeDef != null)
             {
@@ -819,7 +934,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                         /*
                          * Retrieve the TypeDef for this super type
                          */
-                        TypeDef         superTypeDef  = knownTypeDefNames.get(superTypeName);
+                        TypeDef         superTypeDef  = this.getKnownTypeDefByName(superTypeName);
 
                         if (superTypeDef != null)
                         {
@@ -918,7 +1033,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             return false;
         }
 
-        TypeDef   typeDef = knownTypeDefNames.get(typeName);
+        TypeDef   typeDef = this.getKnownTypeDefByName(typeName);
 
         if (typeDef != null)
         {
@@ -970,7 +1085,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             if ((isValidTypeCategory(sourceName, TypeDefCategory.CLASSIFICATION_DEF, classificationTypeName, methodName)) &&
                 (isValidTypeCategory(sourceName, TypeDefCategory.ENTITY_DEF, entityTypeName, methodName)))
             {
-                ClassificationDef  classificationTypeDef = (ClassificationDef) knownTypeDefNames.get(classificationTypeName);
+                ClassificationDef  classificationTypeDef = (ClassificationDef) this.getKnownTypeDefByName(classificationTypeName);
 
                 if (classificationTypeDef != null)
                 {
@@ -1003,7 +1118,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                             TypeDefLink superTypeLink=typeDef.getSuperType();
                             String parentName= superTypeLink.getName();
                             entityTypes.add(parentName);
-                            typeDef  = this.knownTypeDefGUIDs.get(superTypeLink.getGUID());
+                            typeDef  = this.getKnownTypeDefByGUID(superTypeLink.getGUID());
                         }
 
                         for (TypeDefLink  allowedEntityDefLink : entityDefs)
@@ -1060,7 +1175,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             this.throwContentManagerLogicError(sourceName, thisMethodName, originalMethodName);
         }
 
-        TypeDef   typeDef = knownTypeDefNames.get(typeName);
+        TypeDef   typeDef = this.getKnownTypeDefByName(typeName);
 
         if (typeDef == null)
         {
@@ -1251,7 +1366,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
      */
     TypeDef  getTypeDefByName(String    typeDefName)
     {
-        return knownTypeDefNames.get(typeDefName);
+        return this.getKnownTypeDefByName(typeDefName);
     }
 
 
@@ -1290,7 +1405,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
         if (typeDefGUID != null)
         {
-            TypeDef typeDef = knownTypeDefGUIDs.get(typeDefGUID);
+            TypeDef typeDef = this.getKnownTypeDefByGUID(typeDefGUID);
 
             if (typeDef == null)
             {
@@ -1370,7 +1485,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         if (validTypeId(sourceName, typeDefGUID, typeDefName))
         {
-            return knownTypeDefNames.get(typeDefName);
+            return this.getKnownTypeDefByName(typeDefName);
         }
         else
         {
@@ -1538,7 +1653,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
         while (superTypeLink != null)
         {
-            TypeDef                superTypeDef                  = this.knownTypeDefGUIDs.get(superTypeLink.getGUID());
+            TypeDef                superTypeDef                  = this.getKnownTypeDefByGUID(superTypeLink.getGUID());
             List<TypeDefAttribute> superTypePropertiesDefinition = superTypeDef.getPropertiesDefinition();
 
             if (superTypePropertiesDefinition != null)
@@ -1573,7 +1688,21 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             return null;
         }
 
-        return knownPropertyToTypeDefNames.getOrDefault(propertyName, null);
+        return this.getTypeSystemSnapshot().getTypeDefsForProperty(propertyName);
+    }
+
+
+    /**
+     * Return the names of all the subtypes of a type.
+     *
+     * @param superTypeName name of the super type - this value is not included in the result.
+     * @return list of type names (a null means the type is not known, or it has no subtypes)
+     */
+    List<String> getSubTypesOf(String superTypeName)
+    {
+        OMRSTypeSystemSnapshot typeSystem = this.getTypeSystemSnapshot();
+
+        return typeSystem.getSubTypeNames(typeSystem.getTypeId(superTypeName));
     }
 
 
@@ -1589,9 +1718,9 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
      * @param methodName name of calling method
      * @throws RepositoryErrorException a conflicting or invalid TypeDef has been returned
      */
-    void   validateEnterpriseTypeDefs(String        sourceName,
-                                      List<TypeDef> typeDefs,
-                                      String        methodName) throws RepositoryErrorException
+    synchronized void   validateEnterpriseTypeDefs(String        sourceName,
+                                                   List<TypeDef> typeDefs,
+                                                   String        methodName) throws RepositoryErrorException
     {
         for (TypeDef typeDef : typeDefs)
         {
@@ -1600,6 +1729,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                 if (!isKnownType(sourceName, typeDef.getGUID(), typeDef.getName()))
                 {
                     knownTypeDefNames.put(typeDef.getName(), typeDef);
+                    typeSystemSnapshot = null;
                 }
             }
             else
@@ -1659,7 +1789,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         if (validTypeId(sourceName, typeGUID, typeName))
         {
-            TypeDef typeDef = knownTypeDefNames.get(typeName);
+            TypeDef typeDef = this.getKnownTypeDefByName(typeName);
 
             if (typeDef == null)
             {
@@ -1694,7 +1824,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         if (typeGUID != null)
         {
-            TypeDef typeDef = knownTypeDefGUIDs.get(typeGUID);
+            TypeDef typeDef = this.getKnownTypeDefByGUID(typeGUID);
             if (typeDef != null)
             {
                 String originGUID = typeDef.getOrigin();
@@ -1720,7 +1850,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         if (this.validTypeId(sourceName, typeGUID, typeName))
         {
-            TypeDef  typeDef = knownTypeDefNames.get(typeName);
+            TypeDef  typeDef = this.getKnownTypeDefByName(typeName);
 
             if (typeDef == null)
             {
@@ -1762,7 +1892,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         if (typeGUID != null)
         {
-            if (knownTypeDefGUIDs.get(typeGUID) != null)
+            if (this.getKnownTypeDefByGUID(typeGUID) != null)
             {
                 return true;
             }
@@ -1869,7 +1999,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             return false;
         }
 
-        TypeDef typeDef = knownTypeDefNames.get(typeName);
+        TypeDef typeDef = this.getKnownTypeDefByName(typeName);
 
         if (typeDef != null)
         {
@@ -2070,7 +2200,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             return false;
         }
 
-        TypeDef typeDef = knownTypeDefNames.get(typeDefName);
+        TypeDef typeDef = this.getKnownTypeDefByName(typeDefName);
 
         if (typeDef != null)
         {
@@ -2278,7 +2408,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             return false;
         }
 
-        TypeDef   typeDef = knownTypeDefNames.get(typeDefName);
+        TypeDef   typeDef = this.getKnownTypeDefByName(typeDefName);
 
         if (typeDef == null)
         {
@@ -2786,7 +2916,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                                                                        localRepositoryConnector.getOrganizationName(),
                                                                        typeDef,
                                                                        originatorMetadataCollectionId,
-                                                                       knownTypeDefNames.get(typeDef.getName()),
+                                                                       this.getKnownTypeDefByName(typeDef.getName()),
                                                                        error.getReportedErrorMessage());
         }
         catch (InvalidTypeDefException error)
@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.localrepository.repositoryconte
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRepositoryPropertiesUtilities;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSSearchPlan;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -3702,6 +3703,13 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                         String           matchPropertyValueString = this.getStringFromPropertyValue(matchPropertyValue);
                         Iterator<String> instancePropertyNames    = instanceProperties.getPropertyNames();
 
+                        /*
+                         * The search plans for the match value are looked up once for this match property,
+                         * on first use, rather than for each comparison.
+                         */
+                        OMRSSearchPlan   fullMatchPlan            = null;
+                        OMRSSearchPlan   containsMatchPlan        = null;
+
                         while (instancePropertyNames.hasNext())
                         {
                             String instancePropertyName = instancePropertyNames.next();
@@ -3792,8 +3800,6 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                                                 break;
 
                                             case RegexContainsMatch:
-                                                matchPropertyValueString = ".*" + matchPropertyValueString + ".*";
-                                                // deliberate no break; let this drop through with the modified match string
                                             case RegexFullMatch:
                                                 /*
                                                  * Does a regex match work? It must match the complete regex...
@@ -3802,9 +3808,28 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                                                 if (instancePropertyValueString != null)
                                                 {
+                                                    OMRSSearchPlan searchPlan = null;
+
                                                     try
                                                     {
-                                                        if (instancePropertyValueString.matches(matchPropertyValueString))
+                                                        if (matchOption == MatchOption.RegexContainsMatch)
+                                                        {
+                                                            if (containsMatchPlan == null)
+                                                            {
+                                                                containsMatchPlan = OMRSSearchPlan.getSearchPlan(".*" + matchPropertyValueString + ".*");
+                                                            }
+                                                            searchPlan = containsMatchPlan;
+                                                        }
+                                                        else
+                                                        {
+                                                            if (fullMatchPlan == null)
+                                                            {
+                                                                fullMatchPlan = OMRSSearchPlan.getSearchPlan(matchPropertyValueString);
+                                                            }
+                                                            searchPlan = fullMatchPlan;
+                                                        }
+
+                                                        if (searchPlan.matches(instancePropertyValueString))
                                                         {
                                                             matchingProperties++;
                                                         }
@@ -3813,7 +3838,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                                                     {
                                                         throw new InvalidParameterException(
                                                                 OMRSErrorCode.INVALID_SEARCH_CRITERIA.getMessageDefinition(error.getClass().getName(),
-                                                                                                                           matchPropertyValueString,
+                                                                                                                           (searchPlan == null) ? matchPropertyValueString : searchPlan.getSearchCriteria(),
                                                                                                                            instancePropertyValueString,
                                                                                                                            error.getMessage(),
                                                                                                                            methodName),
@@ -3863,7 +3888,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                     if (matchValue != null)
                     {
-                        if (expectedValue.matches(matchValue))
+                        if (OMRSSearchPlan.matches(expectedValue, matchValue))
                         {
                             result = true;
                         }
@@ -4221,7 +4246,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                             else
                             {
                                 String actual = actualValue.valueAsString();
-                                matchesProperties = actual.matches(test);
+                                matchesProperties = OMRSSearchPlan.matches(actual, test);
                             }
                         }
                         else
@@ -4471,6 +4496,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
         }
 
         Iterator<String>  propertyNames = properties.getPropertyNames();
+        OMRSSearchPlan    searchPlan    = OMRSSearchPlan.getSearchPlan(searchCriteria);
 
         try
         {
@@ -4488,7 +4514,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                             if (stringProperty != null)
                             {
-                                if (stringProperty.matches(searchCriteria))
+                                if (searchPlan.matches(stringProperty))
                                 {
                                     return true;
                                 }
@@ -4502,7 +4528,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                         String  enumValue = enumPropertyValue.getSymbolicName();
                         if (enumValue != null)
                         {
-                            if (enumValue.matches(searchCriteria))
+                            if (searchPlan.matches(enumValue))
                             {
                                 return true;
                             }
@@ -0,0 +1,271 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OMRSTypeSystemSnapshot is an immutable view of the type hierarchy held by the OMRSRepositoryContentManager.
+ * Each known TypeDef is given a dense integer identifier and the supertypes and subtypes of each type are
+ * held as bitsets of these identifiers.  This means type comparisons and subtype lookups do not need to walk
+ * the supertype links.  The snapshot also holds the names of the TypeDefs that define each property name.
+ *
+ * A new snapshot is built after the TypeDefs change.  Since it is never updated, it can be read by many
+ * threads without locking.
+ */
+final class OMRSTypeSystemSnapshot
+{
+    /**
+     * Identifier returned for a type that is not known, or whose supertypes could not be resolved.
+     */
+    static final int UNKNOWN_TYPE = -1;
+
+    private final Map<String, Integer>       typeIds;
+    private final Map<String, Integer>       typeGUIDIds;
+    private final String[]                   typeNames;
+    private final List<List<TypeDefLink>>    superTypes;
+    private final BitSet[]                   superTypeClosures;
+    private final BitSet[]                   subTypeClosures;
+    private final BitSet                     resolvedTypes;
+    private final Map<String, Set<String>>   propertyToTypeDefNames;
+
+
+    /**
+     * Build the snapshot from the content manager's caches.  The caller must prevent these maps from
+     * changing while the snapshot is being built.
+     *
+     * @param knownTypeDefNames map of type name to TypeDef
+     * @param knownPropertyToTypeDefNames map of property name to the names of the TypeDefs that define it
+     */
+    OMRSTypeSystemSnapshot(Map<String, TypeDef>     knownTypeDefNames,
+                           Map<String, Set<String>> knownPropertyToTypeDefNames)
+    {
+        int typeCount = knownTypeDefNames.size();
+
+        Map<String, Integer> nameToId = new HashMap<>(typeCount * 2);
+        Map<String, Integer> guidToId = new HashMap<>(typeCount * 2);
+        String[]             names    = new String[typeCount];
+        TypeDef[]            typeDefs = new TypeDef[typeCount];
+
+        int typeId = 0;
+
+        for (Map.Entry<String, TypeDef> entry : knownTypeDefNames.entrySet())
+        {
+            TypeDef typeDef = entry.getValue();
+
+            nameToId.put(entry.getKey(), typeId);
+
+            if ((typeDef != null) && (typeDef.getGUID() != null))
+            {
+                guidToId.putIfAbsent(typeDef.getGUID(), typeId);
+            }
+
+            names[typeId] = entry.getKey();
+            typeDefs[typeId] = typeDef;
+            typeId++;
+        }
+
+        this.typeIds = nameToId;
+        this.typeGUIDIds = guidToId;
+        this.typeNames = names;
+        this.superTypes = new ArrayList<>(typeCount);
+        this.superTypeClosures = new BitSet[typeCount];
+        this.subTypeClosures = new BitSet[typeCount];
+        this.resolvedTypes = new BitSet(typeCount);
+
+        for (typeId = 0; typeId < typeCount; typeId++)
+        {
+            subTypeClosures[typeId] = new BitSet(typeCount);
+        }
+
+        /*
+         * Walk the supertype links of each type once.  A type is only resolved if every one of its
+         * supertypes is known.  The content manager reports the others when they are used.
+         */
+        for (typeId = 0; typeId < typeCount; typeId++)
+        {
+            List<TypeDefLink> typeHierarchy = new ArrayList<>();
+            BitSet            closure       = new BitSet(typeCount);
+            boolean           resolved      = (typeDefs[typeId] != null);
+
+            closure.set(typeId);
+
+            TypeDefLink superTypeLink = resolved ? typeDefs[typeId].getSuperType() : null;
+
+            while (resolved && (superTypeLink != null))
+            {
+                Integer superTypeId = (superTypeLink.getName() == null) ? null : nameToId.get(superTypeLink.getName());
+
+                if ((superTypeId == null) || (typeDefs[superTypeId] == null) || (closure.get(superTypeId)))
+                {
+                    resolved = false;
+                }
+                else
+                {
+                    typeHierarchy.add(superTypeLink);
+                    closure.set(superTypeId);
+                    superTypeLink = typeDefs[superTypeId].getSuperType();
+                }
+            }
+
+            superTypeClosures[typeId] = closure;
+
+            if (resolved)
+            {
+                resolvedTypes.set(typeId);
+                superTypes.add(typeHierarchy.isEmpty() ? null : Collections.unmodifiableList(typeHierarchy));
+
+                for (int superTypeId = closure.nextSetBit(0); superTypeId >= 0; superTypeId = closure.nextSetBit(superTypeId + 1))
+                {
+                    subTypeClosures[superTypeId].set(typeId);
+                }
+            }
+            else
+            {
+                superTypes.add(null);
+            }
+        }
+
+        Map<String, Set<String>> propertyLookup = new HashMap<>(knownPropertyToTypeDefNames.size() * 2);
+
+        for (Map.Entry<String, Set<String>> entry : knownPropertyToTypeDefNames.entrySet())
+        {
+            if (entry.getValue() != null)
+            {
+                propertyLookup.put(entry.getKey(), Collections.unmodifiableSet(new HashSet<>(entry.getValue())));
+            }
+        }
+
+        this.propertyToTypeDefNames = propertyLookup;
+    }
+
+
+    /**
+     * Return the identifier for a type name.
+     *
+     * @param typeName name of the type
+     * @return identifier or UNKNOWN_TYPE if the type is not known or its supertypes could not be resolved
+     */
+    int getTypeId(String typeName)
+    {
+        Integer typeId = (typeName == null) ? null : typeIds.get(typeName);
+
+        if ((typeId == null) || (! resolvedTypes.get(typeId)))
+        {
+            return UNKNOWN_TYPE;
+        }
+
+        return typeId;
+    }
+
+
+    /**
+     * Return the identifier for a type's unique identifier.
+     *
+     * @param typeGUID unique identifier of the type
+     * @return identifier or UNKNOWN_TYPE if the type is not known or its supertypes could not be resolved
+     */
+    int getTypeIdByGUID(String typeGUID)
+    {
+        Integer typeId = (typeGUID == null) ? null : typeGUIDIds.get(typeGUID);
+
+        if ((typeId == null) || (! resolvedTypes.get(typeId)))
+        {
+            return UNKNOWN_TYPE;
+        }
+
+        return typeId;
+    }
+
+
+    /**
+     * Return whether the actual type is the expected type or one of its subtypes.
+     *
+     * @param actualTypeId identifier of the actual type
+     * @param expectedTypeId identifier of the expected type
+     * @return boolean (false if either type is unknown)
+     */
+    boolean isTypeOf(int actualTypeId,
+                     int expectedTypeId)
+    {
+        if ((actualTypeId == UNKNOWN_TYPE) || (expectedTypeId == UNKNOWN_TYPE))
+        {
+            return false;
+        }
+
+        return superTypeClosures[actualTypeId].get(expectedTypeId);
+    }
+
+
+    /**
+     * Return the supertype links for a type, starting with its immediate supertype.
+     *
+     * @param typeId identifier of the type
+     * @return unmodifiable list of supertype links or null if the type is top level or unknown
+     */
+    List<TypeDefLink> getSuperTypes(int typeId)
+    {
+        if (typeId == UNKNOWN_TYPE)
+        {
+            return null;
+        }
+
+        return superTypes.get(typeId);
+    }
+
+
+    /**
+     * Return the names of the subtypes of a type.
+     *
+     * @param typeId identifier of the type - this type is not included in the result.
+     * @return list of type names (null if the type is unknown or has no subtypes)
+     */
+    List<String> getSubTypeNames(int typeId)
+    {
+        if (typeId == UNKNOWN_TYPE)
+        {
+            return null;
+        }
+
+        BitSet subTypes = subTypeClosures[typeId];
+
+        if (subTypes.cardinality() <= 1)
+        {
+            return null;
+        }
+
+        List<String> subTypeNames = new ArrayList<>(subTypes.cardinality() - 1);
+
+        for (int subTypeId = subTypes.nextSetBit(0); subTypeId >= 0; subTypeId = subTypes.nextSetBit(subTypeId + 1))
+        {
+            if (subTypeId != typeId)
+            {
+                subTypeNames.add(typeNames[subTypeId]);
+            }
+        }
+
+        return subTypeNames;
+    }
+
+
+    /**
+     * Return the names of the TypeDefs that define a property with the supplied name.
+     *
+     * @param propertyName name of the property
+     * @return unmodifiable set of type names or null if no TypeDef defines this property
+     */
+    Set<String> getTypeDefsForProperty(String propertyName)
+    {
+        return propertyToTypeDefNames.get(propertyName);
+    }
+}
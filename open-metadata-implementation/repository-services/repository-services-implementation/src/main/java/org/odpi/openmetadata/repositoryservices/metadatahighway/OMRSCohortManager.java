@@ -144,6 +144,23 @@ public class OMRSCohortManager
             this.cohortInstancesTopicConnector  = cohortInstancesTopicConnector;
             this.localMetadataCollectionId = localMetadataCollectionId;
 
+            /*
+             * When the cohort uses separate topics, the registry events that announce the event encodings
+             * supported by each member only arrive on the registration topic.
+             */
+            if (cohortRegistrationTopicConnector != null)
+            {
+                if (cohortTypesTopicConnector != null)
+                {
+                    cohortTypesTopicConnector.shareCohortMemberEncodings(cohortRegistrationTopicConnector);
+                }
+
+                if (cohortInstancesTopicConnector != null)
+                {
+                    cohortInstancesTopicConnector.shareCohortMemberEncodings(cohortRegistrationTopicConnector);
+                }
+            }
+
             /*
              * Create the event manager for processing incoming events from the cohort's OMRS Topic.
              */
@@ -336,6 +353,22 @@ public class OMRSCohortManager
                                                                           securityVerifier,
                                                                           auditLog.createNewAuditLog(OMRSAuditingComponent.EVENT_LISTENER));
 
+            /*
+             * Members that registered before this server restarted may not support the configured event
+             * encoding, so they must announce their encodings again before it is used.
+             */
+            List<String> knownMemberIds = this.getRemoteMemberIds();
+
+            if (cohortSingleTopicConnector != null)
+            {
+                cohortSingleTopicConnector.setKnownCohortMembers(knownMemberIds);
+            }
+
+            if (cohortRegistrationTopicConnector != null)
+            {
+                cohortRegistrationTopicConnector.setKnownCohortMembers(knownMemberIds);
+            }
+
             if (cohortSingleTopicConnector != null)
             {
                 cohortSingleTopicConnector.registerListener(cohortEventListener, cohortName + " (single)");
@@ -407,6 +440,31 @@ public class OMRSCohortManager
 
 
 
+    /**
+     * Return the metadata collection ids of the remote members recorded in the cohort registry.
+     *
+     * @return list of metadata collection ids
+     */
+    private List<String> getRemoteMemberIds()
+    {
+        List<String>             memberIds     = new ArrayList<>();
+        List<MemberRegistration> remoteMembers = cohortRegistry.getRemoteMembers();
+
+        if (remoteMembers != null)
+        {
+            for (MemberRegistration remoteMember : remoteMembers)
+            {
+                if ((remoteMember != null) && (remoteMember.getMetadataCollectionId() != null))
+                {
+                    memberIds.add(remoteMember.getMetadataCollectionId());
+                }
+            }
+        }
+
+        return memberIds;
+    }
+
+
     /**
      * Return the name of the cohort.
      *
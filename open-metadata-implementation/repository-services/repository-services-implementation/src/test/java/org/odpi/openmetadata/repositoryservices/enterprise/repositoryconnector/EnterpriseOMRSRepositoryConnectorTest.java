@@ -0,0 +1,166 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.CohortMemberRouter;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.CohortMemberStatus;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSRepositoryConnector;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Validate that the enterprise connector routes requests for an instance to its home repository first and
+ * leaves out the cohort members that are suspended.
+ */
+public class EnterpriseOMRSRepositoryConnectorTest
+{
+    private static final String methodName = "testMethod";
+
+    private EnterpriseOMRSRepositoryConnector enterpriseConnector;
+    private OMRSRepositoryConnector           remote1;
+    private OMRSRepositoryConnector           remote2;
+    private OMRSRepositoryConnector           remote3;
+
+
+    /**
+     * Create a connector to a remote member.
+     *
+     * @param serverName name of the member's server
+     * @return mock connector
+     */
+    private OMRSRepositoryConnector getRemoteConnector(String serverName)
+    {
+        OMRSRepositoryConnector remoteConnector = mock(OMRSRepositoryConnector.class);
+
+        when(remoteConnector.getServerName()).thenReturn(serverName);
+
+        return remoteConnector;
+    }
+
+
+    @BeforeMethod
+    public void setUp() throws Exception
+    {
+        enterpriseConnector = new EnterpriseOMRSRepositoryConnector(mock(OMRSConnectorManager.class));
+        enterpriseConnector.setMetadataCollectionId("enterprise");
+        enterpriseConnector.start();
+
+        remote1 = getRemoteConnector("server1");
+        remote2 = getRemoteConnector("server2");
+        remote3 = getRemoteConnector("server3");
+
+        enterpriseConnector.addRemoteConnector("remote1", remote1);
+        enterpriseConnector.addRemoteConnector("remote2", remote2);
+        enterpriseConnector.addRemoteConnector("remote3", remote3);
+    }
+
+
+    /**
+     * Open the circuit breaker of a member.
+     *
+     * @param metadataCollectionId identifier of the member
+     */
+    private void suspendMember(String metadataCollectionId)
+    {
+        CohortMemberRouter memberRouter = enterpriseConnector.getMemberRouter();
+
+        for (int i = 0; i < CohortMemberRouter.DEFAULT_FAILURE_THRESHOLD; i++)
+        {
+            memberRouter.recordRequest(metadataCollectionId, 10L, true);
+        }
+    }
+
+
+    @Test
+    public void testHomeRepositoryIsCalledFirst() throws Exception
+    {
+        LocalOMRSRepositoryConnector localConnector = mock(LocalOMRSRepositoryConnector.class);
+
+        enterpriseConnector.setLocalConnector("local", localConnector);
+
+        assertEquals(enterpriseConnector.getCohortConnectors(methodName),
+                     Arrays.asList(localConnector, remote1, remote2, remote3));
+
+        enterpriseConnector.getMemberRouter().saveInstanceHome("guid1", "remote2");
+
+        assertEquals(enterpriseConnector.getCohortConnectors("guid1", methodName),
+                     Arrays.asList(remote2, localConnector, remote1, remote3));
+
+        /*
+         * Other instances are unaffected.
+         */
+        assertEquals(enterpriseConnector.getCohortConnectors("guid2", methodName),
+                     Arrays.asList(localConnector, remote1, remote2, remote3));
+    }
+
+
+    @Test
+    public void testSuspendedMembersAreSkipped() throws Exception
+    {
+        enterpriseConnector.getMemberRouter().saveInstanceHome("guid1", "remote2");
+
+        suspendMember("remote2");
+
+        assertEquals(enterpriseConnector.getCohortConnectors(methodName), Arrays.asList(remote1, remote3));
+        assertEquals(enterpriseConnector.getCohortConnectors("guid1", methodName), Arrays.asList(remote1, remote3));
+    }
+
+
+    @Test
+    public void testChoosingMembersDoesNotChangeTheCircuitBreakers() throws Exception
+    {
+        CohortMemberRouter memberRouter = enterpriseConnector.getMemberRouter();
+
+        suspendMember("remote2");
+
+        for (int i = 0; i < 3; i++)
+        {
+            enterpriseConnector.getCohortConnectors(methodName);
+        }
+
+        /*
+         * Only the member with recorded requests has a status and its circuit breaker is unchanged.
+         * Permission to call a member is only taken when the request is issued.
+         */
+        assertEquals(memberRouter.getMemberStatuses().size(), 1);
+        assertEquals(memberRouter.getMemberStatuses().get(0).getCircuitState(), CohortMemberStatus.CircuitState.OPEN);
+        assertEquals(memberRouter.getMemberStatuses().get(0).getRequestCount(), (long) CohortMemberRouter.DEFAULT_FAILURE_THRESHOLD);
+        assertTrue(memberRouter.acquirePermit("remote1"));
+        assertFalse(memberRouter.acquirePermit("remote2"));
+    }
+
+
+    @Test
+    public void testNoAvailableMembers()
+    {
+        suspendMember("remote1");
+        suspendMember("remote2");
+        suspendMember("remote3");
+
+        try
+        {
+            List<OMRSRepositoryConnector> cohortConnectors = enterpriseConnector.getCohortConnectors(methodName);
+
+            fail("Suspended members returned: " + cohortConnectors);
+        }
+        catch (RepositoryErrorException expected)
+        {
+            /*
+             * The request fails quickly rather than waiting for members that are known to be failing.
+             */
+        }
+    }
+}
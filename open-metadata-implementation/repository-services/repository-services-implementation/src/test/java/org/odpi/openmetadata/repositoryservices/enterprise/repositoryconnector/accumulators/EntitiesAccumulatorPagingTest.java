@@ -0,0 +1,481 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Validate the selection of an exact page of results from the ordered results of several cohort members
+ * and the use of paging continuations to retrieve the following pages.
+ */
+public class EntitiesAccumulatorPagingTest
+{
+    private static final String queryKey = "findEntities#testQuery";
+
+    private final OMRSMetadataCollection metadataCollection = mock(OMRSMetadataCollection.class);
+    private final AuditLog               auditLog           = mock(AuditLog.class);
+
+
+    /**
+     * Create an entity.
+     *
+     * @param guid unique identifier
+     * @param updateTime last update time in milliseconds
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid,
+                                   long   updateTime)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setVersion(updateTime);
+        entity.setUpdateTime(new Date(updateTime));
+
+        return entity;
+    }
+
+
+    /**
+     * Create the ordered results of a member.
+     *
+     * @param guids unique identifiers in GUID order
+     * @return entities
+     */
+    private List<EntityDetail> getEntities(String... guids)
+    {
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (String guid : guids)
+        {
+            entities.add(getEntity(guid, 1L));
+        }
+
+        return entities;
+    }
+
+
+    /**
+     * Return the unique identifiers of a page selected from the full results in the same way as the
+     * local repository does for a single member.
+     *
+     * @param memberResults results of each member
+     * @param fromElement starting element
+     * @param pageSize page size
+     * @return unique identifiers
+     */
+    private List<String> getExpectedPage(Map<String, List<EntityDetail>> memberResults,
+                                         int                             fromElement,
+                                         int                             pageSize)
+    {
+        List<String> allGUIDs = new ArrayList<>();
+
+        for (List<EntityDetail> results : memberResults.values())
+        {
+            for (EntityDetail entity : results)
+            {
+                allGUIDs.add(entity.getGUID());
+            }
+        }
+
+        Collections.sort(allGUIDs);
+
+        List<String> uniqueGUIDs = new ArrayList<>(new LinkedHashSet<>(allGUIDs));
+
+        if (fromElement >= uniqueGUIDs.size())
+        {
+            return Collections.emptyList();
+        }
+
+        return uniqueGUIDs.subList(fromElement, Math.min(fromElement + pageSize, uniqueGUIDs.size()));
+    }
+
+
+    /**
+     * Issue a federated query for a page in the way that the find executors do.  Each member returns the page
+     * of its own results that the accumulator asks for.
+     *
+     * @param memberResults full ordered results of each member
+     * @param pagingContinuations cache of continuations (or null)
+     * @param fromElement starting element
+     * @param pageSize page size
+     * @param sequencingOrder order of results
+     * @param memberRequests records the starting element and page size sent to each member
+     * @return unique identifiers of the page
+     */
+    private List<String> getPage(Map<String, List<EntityDetail>> memberResults,
+                                 PagingContinuationCache         pagingContinuations,
+                                 int                             fromElement,
+                                 int                             pageSize,
+                                 SequencingOrder                 sequencingOrder,
+                                 Map<String, int[]>              memberRequests)
+    {
+        EntitiesAccumulator accumulator = new EntitiesAccumulator(null, auditLog, null);
+
+        accumulator.setPagingParameters(fromElement, pageSize, null, sequencingOrder);
+        accumulator.setPagingContinuations(pagingContinuations, queryKey);
+
+        for (Map.Entry<String, List<EntityDetail>> entry : memberResults.entrySet())
+        {
+            int memberStart    = accumulator.getMemberStartingElement(entry.getKey());
+            int memberPageSize = accumulator.getMemberPageSize(entry.getKey());
+
+            if (memberRequests != null)
+            {
+                memberRequests.put(entry.getKey(), new int[]{ memberStart, memberPageSize });
+            }
+
+            List<EntityDetail> results = entry.getValue();
+
+            if (memberStart < results.size())
+            {
+                int end = (memberPageSize == 0) ? results.size() : Math.min(memberStart + memberPageSize, results.size());
+
+                accumulator.addEntities(new ArrayList<>(results.subList(memberStart, end)), entry.getKey());
+            }
+            else
+            {
+                accumulator.addEntities(null, entry.getKey());
+            }
+        }
+
+        List<String>       pageGUIDs = new ArrayList<>();
+        List<EntityDetail> results   = accumulator.getResults(null, metadataCollection);
+
+        if (results != null)
+        {
+            for (EntityDetail entity : results)
+            {
+                pageGUIDs.add(entity.getGUID());
+            }
+        }
+
+        return pageGUIDs;
+    }
+
+
+    /**
+     * Three members with overlapping results.
+     *
+     * @return member results
+     */
+    private Map<String, List<EntityDetail>> getOverlappingMembers()
+    {
+        Map<String, List<EntityDetail>> memberResults = new LinkedHashMap<>();
+
+        memberResults.put("member1", getEntities("guid01", "guid03", "guid05", "guid07", "guid09", "guid11"));
+        memberResults.put("member2", getEntities("guid02", "guid03", "guid04", "guid08", "guid09", "guid12"));
+        memberResults.put("member3", getEntities("guid03", "guid06", "guid10", "guid11", "guid13"));
+
+        return memberResults;
+    }
+
+
+    @Test
+    public void testExactPageAtEveryBoundary()
+    {
+        Map<String, List<EntityDetail>> memberResults = getOverlappingMembers();
+
+        for (int pageSize = 1; pageSize <= 14; pageSize++)
+        {
+            for (int fromElement = 0; fromElement <= 14; fromElement++)
+            {
+                assertEquals(getPage(memberResults, null, fromElement, pageSize, SequencingOrder.GUID, null),
+                             getExpectedPage(memberResults, fromElement, pageSize),
+                             "fromElement=" + fromElement + " pageSize=" + pageSize);
+            }
+        }
+    }
+
+
+    @Test
+    public void testContinuationsMatchFullQueries()
+    {
+        Map<String, List<EntityDetail>> memberResults = getOverlappingMembers();
+
+        for (int pageSize = 1; pageSize <= 5; pageSize++)
+        {
+            PagingContinuationCache pagingContinuations = new PagingContinuationCache();
+            List<String>            allGUIDs            = new ArrayList<>();
+
+            for (int fromElement = 0; fromElement < 16; fromElement += pageSize)
+            {
+                List<String> page = getPage(memberResults, pagingContinuations, fromElement, pageSize, SequencingOrder.GUID, null);
+
+                assertEquals(page,
+                             getExpectedPage(memberResults, fromElement, pageSize),
+                             "fromElement=" + fromElement + " pageSize=" + pageSize);
+
+                allGUIDs.addAll(page);
+            }
+
+            /*
+             * Every instance is returned once, even though guid03, guid09 and guid11 come from several members.
+             */
+            assertEquals(allGUIDs, getExpectedPage(memberResults, 0, 100));
+        }
+    }
+
+
+    @Test
+    public void testContinuationTokenDrivesMemberRequests()
+    {
+        Map<String, List<EntityDetail>> memberResults       = getOverlappingMembers();
+        PagingContinuationCache         pagingContinuations = new PagingContinuationCache();
+        Map<String, int[]>              memberRequests      = new LinkedHashMap<>();
+
+        /*
+         * The first page asks each member for a full page.
+         */
+        assertEquals(getPage(memberResults, pagingContinuations, 0, 4, SequencingOrder.GUID, memberRequests),
+                     Arrays.asList("guid01", "guid02", "guid03", "guid04"));
+
+        for (int[] memberRequest : memberRequests.values())
+        {
+            assertEquals(memberRequest[0], 0);
+            assertEquals(memberRequest[1], 4);
+        }
+
+        /*
+         * The next page starts from the results each member has not yet supplied and runs to the end of
+         * the page.  All three members returned guid03.
+         */
+        memberRequests.clear();
+
+        assertEquals(getPage(memberResults, pagingContinuations, 4, 4, SequencingOrder.GUID, memberRequests),
+                     Arrays.asList("guid05", "guid06", "guid07", "guid08"));
+        assertEquals(memberRequests.get("member1")[0], 2);
+        assertEquals(memberRequests.get("member1")[1], 6);
+        assertEquals(memberRequests.get("member2")[0], 3);
+        assertEquals(memberRequests.get("member2")[1], 5);
+        assertEquals(memberRequests.get("member3")[0], 1);
+        assertEquals(memberRequests.get("member3")[1], 7);
+
+        /*
+         * A different query does not pick up the continuation.
+         */
+        EntitiesAccumulator otherQuery = new EntitiesAccumulator(null, auditLog, null);
+
+        otherQuery.setPagingParameters(8, 4, null, SequencingOrder.GUID);
+        otherQuery.setPagingContinuations(pagingContinuations, queryKey + "#other");
+
+        assertEquals(otherQuery.getMemberStartingElement("member1"), 0);
+        assertEquals(otherQuery.getMemberPageSize("member1"), 12);
+
+        /*
+         * Neither does a page that does not follow a retrieved page.
+         */
+        EntitiesAccumulator skippedPage = new EntitiesAccumulator(null, auditLog, null);
+
+        skippedPage.setPagingParameters(12, 4, null, SequencingOrder.GUID);
+        skippedPage.setPagingContinuations(pagingContinuations, queryKey);
+
+        assertEquals(skippedPage.getMemberStartingElement("member1"), 0);
+        assertEquals(skippedPage.getMemberPageSize("member1"), 16);
+    }
+
+
+    @Test
+    public void testDuplicateAcrossPagesIsNotReturnedTwice()
+    {
+        /*
+         * The reference copy in member2 is older than the home copy in member1, so with the most recently
+         * updated first it appears on the page after the one where member1 returned it.
+         */
+        Map<String, List<EntityDetail>> memberResults = new LinkedHashMap<>();
+
+        memberResults.put("member1", Arrays.asList(getEntity("shared", 100L),
+                                                   getEntity("guid1", 90L),
+                                                   getEntity("guid2", 80L)));
+        memberResults.put("member2", Arrays.asList(getEntity("guid3", 95L),
+                                                   getEntity("guid4", 85L),
+                                                   getEntity("shared", 75L),
+                                                   getEntity("guid5", 70L)));
+
+        PagingContinuationCache pagingContinuations = new PagingContinuationCache();
+
+        assertEquals(getPage(memberResults, pagingContinuations, 0, 3, SequencingOrder.LAST_UPDATE_RECENT, null),
+                     Arrays.asList("shared", "guid3", "guid1"));
+        assertEquals(getPage(memberResults, pagingContinuations, 3, 3, SequencingOrder.LAST_UPDATE_RECENT, null),
+                     Arrays.asList("guid4", "guid2", "guid5"));
+        assertEquals(getPage(memberResults, pagingContinuations, 6, 3, SequencingOrder.LAST_UPDATE_RECENT, null),
+                     Collections.emptyList());
+
+        /*
+         * The same pages are returned without the continuations.
+         */
+        assertEquals(getPage(memberResults, null, 3, 3, SequencingOrder.LAST_UPDATE_RECENT, null),
+                     Arrays.asList("guid4", "guid2", "guid5"));
+    }
+
+
+    @Test
+    public void testEqualResultsDoNotDependOnArrivalOrder()
+    {
+        /*
+         * Many of the results have the same update time so their order is decided by the tie break.
+         */
+        List<EntityDetail> member1Results = Arrays.asList(getEntity("guid5", 100L),
+                                                          getEntity("guid2", 100L),
+                                                          getEntity("guid7", 50L),
+                                                          getEntity("guid1", 50L));
+        List<EntityDetail> member2Results = Arrays.asList(getEntity("guid4", 100L),
+                                                          getEntity("guid2", 100L),
+                                                          getEntity("guid6", 50L),
+                                                          getEntity("guid3", 50L));
+        List<EntityDetail> member3Results = Arrays.asList(getEntity("guid8", 100L),
+                                                          getEntity("guid9", 50L),
+                                                          getEntity("guid1", 50L));
+
+        List<List<String>> arrivalOrders = Arrays.asList(Arrays.asList("member1", "member2", "member3"),
+                                                         Arrays.asList("member1", "member3", "member2"),
+                                                         Arrays.asList("member2", "member1", "member3"),
+                                                         Arrays.asList("member2", "member3", "member1"),
+                                                         Arrays.asList("member3", "member1", "member2"),
+                                                         Arrays.asList("member3", "member2", "member1"));
+
+        for (SequencingOrder sequencingOrder : new SequencingOrder[]{ SequencingOrder.LAST_UPDATE_RECENT, SequencingOrder.ANY })
+        {
+            for (int pageSize = 1; pageSize <= 4; pageSize++)
+            {
+                List<List<String>> expectedPages = null;
+
+                for (List<String> arrivalOrder : arrivalOrders)
+                {
+                    Map<String, List<EntityDetail>> memberResults = new LinkedHashMap<>();
+
+                    for (String member : arrivalOrder)
+                    {
+                        if ("member1".equals(member))
+                        {
+                            memberResults.put(member, member1Results);
+                        }
+                        else if ("member2".equals(member))
+                        {
+                            memberResults.put(member, member2Results);
+                        }
+                        else
+                        {
+                            memberResults.put(member, member3Results);
+                        }
+                    }
+
+                    /*
+                     * The continuations are shared across the arrival orders, as they would be when the
+                     * members respond in a different order for each page.
+                     */
+                    PagingContinuationCache pagingContinuations = new PagingContinuationCache();
+                    List<List<String>>      pages               = new ArrayList<>();
+
+                    for (int fromElement = 0; fromElement < 10; fromElement += pageSize)
+                    {
+                        pages.add(getPage(memberResults, pagingContinuations, fromElement, pageSize, sequencingOrder, null));
+                    }
+
+                    if (expectedPages == null)
+                    {
+                        expectedPages = pages;
+
+                        List<String> allGUIDs = new ArrayList<>();
+
+                        for (List<String> page : pages)
+                        {
+                            allGUIDs.addAll(page);
+                        }
+
+                        assertEquals(new LinkedHashSet<>(allGUIDs).size(), 9);
+                        assertEquals(allGUIDs.size(), 9);
+                    }
+                    else
+                    {
+                        assertEquals(pages, expectedPages, sequencingOrder + " pageSize=" + pageSize + " arrival=" + arrivalOrder);
+                    }
+                }
+            }
+        }
+
+        /*
+         * The equal results are ordered by their unique identifiers.
+         */
+        Map<String, List<EntityDetail>> memberResults = new LinkedHashMap<>();
+
+        memberResults.put("member3", member3Results);
+        memberResults.put("member2", member2Results);
+        memberResults.put("member1", member1Results);
+
+        assertEquals(getPage(memberResults, null, 0, 4, SequencingOrder.LAST_UPDATE_RECENT, null),
+                     Arrays.asList("guid4", "guid2", "guid5", "guid8"));
+    }
+
+
+    @Test
+    public void testContinuedPagesMatchAcrossArrivalOrders()
+    {
+        Map<String, List<EntityDetail>> forwardResults = new LinkedHashMap<>();
+        Map<String, List<EntityDetail>> reverseResults = new LinkedHashMap<>();
+
+        forwardResults.put("member1", getEntities("guid1", "guid2", "guid3", "guid4"));
+        forwardResults.put("member2", getEntities("guid2", "guid5", "guid6"));
+        reverseResults.put("member2", forwardResults.get("member2"));
+        reverseResults.put("member1", forwardResults.get("member1"));
+
+        /*
+         * The first page arrives in one order and the next page in the other.  The pages neither repeat
+         * nor skip an instance.
+         */
+        PagingContinuationCache pagingContinuations = new PagingContinuationCache();
+        List<String>            allGUIDs            = new ArrayList<>();
+
+        allGUIDs.addAll(getPage(forwardResults, pagingContinuations, 0, 2, SequencingOrder.ANY, null));
+        allGUIDs.addAll(getPage(reverseResults, pagingContinuations, 2, 2, SequencingOrder.ANY, null));
+        allGUIDs.addAll(getPage(forwardResults, pagingContinuations, 4, 2, SequencingOrder.ANY, null));
+
+        assertEquals(allGUIDs, Arrays.asList("guid1", "guid2", "guid3", "guid4", "guid5", "guid6"));
+    }
+
+
+    @Test
+    public void testNoContinuationForIncompleteResults()
+    {
+        Map<String, List<EntityDetail>> memberResults       = getOverlappingMembers();
+        PagingContinuationCache         pagingContinuations = new PagingContinuationCache();
+
+        /*
+         * The last page is not full so there is nothing to continue from.
+         */
+        getPage(memberResults, pagingContinuations, 10, 5, SequencingOrder.GUID, null);
+        assertNull(pagingContinuations.get(queryKey + "#15"));
+
+        /*
+         * A member that was called but did not return (for example because it failed) means the
+         * page may be wrong for later requests so no continuation is saved.
+         */
+        EntitiesAccumulator accumulator = new EntitiesAccumulator(null, auditLog, null);
+
+        accumulator.setPagingParameters(0, 2, null, SequencingOrder.GUID);
+        accumulator.setPagingContinuations(pagingContinuations, queryKey);
+        accumulator.getMemberStartingElement("member1");
+        accumulator.getMemberStartingElement("member2");
+        accumulator.addEntities(getEntities("guid01", "guid03"), "member1");
+
+        assertEquals(accumulator.getResults(null, metadataCollection).size(), 2);
+        assertNull(pagingContinuations.get(queryKey + "#2"));
+    }
+}
@@ -0,0 +1,344 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.cache;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate the expiry, eviction and invalidation of the values in the EnterpriseInstanceCache, including
+ * invalidations that happen while a request to the cohort is in progress.
+ */
+public class EnterpriseInstanceCacheTest
+{
+    private static final String userId = "testUser";
+
+
+    /**
+     * Create an entity.
+     *
+     * @param guid unique identifier
+     * @param version version number
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid,
+                                   long   version)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setVersion(version);
+
+        return entity;
+    }
+
+
+    /**
+     * Create a relationship between two entities.
+     *
+     * @param guid unique identifier of the relationship
+     * @param entityOneGUID unique identifier of the entity at end one
+     * @param entityTwoGUID unique identifier of the entity at end two
+     * @return relationship
+     */
+    private Relationship getRelationship(String guid,
+                                         String entityOneGUID,
+                                         String entityTwoGUID)
+    {
+        Relationship relationship = new Relationship();
+        EntityProxy  entityOne    = new EntityProxy();
+        EntityProxy  entityTwo    = new EntityProxy();
+
+        entityOne.setGUID(entityOneGUID);
+        entityTwo.setGUID(entityTwoGUID);
+
+        relationship.setGUID(guid);
+        relationship.setEntityOneProxy(entityOne);
+        relationship.setEntityTwoProxy(entityTwo);
+
+        return relationship;
+    }
+
+
+    @Test
+    public void testValuesExpire() throws Exception
+    {
+        EnterpriseInstanceCache cache = new EnterpriseInstanceCache(100, 100L);
+
+        cache.saveEntityDetail(userId, getEntity("guid1", 1L), cache.getReadSequence());
+
+        assertNotNull(cache.getEntityDetail(userId, "guid1"));
+
+        /*
+         * Values are cached for each user.
+         */
+        assertNull(cache.getEntityDetail("otherUser", "guid1"));
+
+        Thread.sleep(150L);
+
+        assertNull(cache.getEntityDetail(userId, "guid1"));
+        assertEquals(cache.getStatistics().getSize(), 0);
+        assertEquals(cache.getStatistics().getHitCount(), 1L);
+        assertEquals(cache.getStatistics().getMissCount(), 2L);
+    }
+
+
+    @Test
+    public void testCachedValuesAreCopies()
+    {
+        EnterpriseInstanceCache cache  = new EnterpriseInstanceCache(100, 0L);
+        EntityDetail            entity = getEntity("guid1", 1L);
+
+        cache.saveEntityDetail(userId, entity, cache.getReadSequence());
+        entity.setVersion(2L);
+
+        EntityDetail cachedEntity = cache.getEntityDetail(userId, "guid1");
+
+        assertEquals(cachedEntity.getVersion(), 1L);
+
+        cachedEntity.setVersion(3L);
+
+        assertEquals(cache.getEntityDetail(userId, "guid1").getVersion(), 1L);
+    }
+
+
+    @Test
+    public void testFrequentlyUsedInstancesSurviveEviction()
+    {
+        EnterpriseInstanceCache cache = new EnterpriseInstanceCache(100, 0L);
+
+        for (int i = 0; i < 20; i++)
+        {
+            cache.getEntityDetail(userId, "popular");
+        }
+
+        cache.saveEntityDetail(userId, getEntity("popular", 1L), cache.getReadSequence());
+
+        /*
+         * A burst of instances that are only requested once.
+         */
+        for (int i = 0; i < 1000; i++)
+        {
+            String guid = "oneOff" + i;
+
+            cache.getEntityDetail(userId, guid);
+            cache.saveEntityDetail(userId, getEntity(guid, 1L), cache.getReadSequence());
+        }
+
+        EnterpriseInstanceCacheStatistics statistics = cache.getStatistics();
+
+        assertTrue(statistics.getSize() <= cache.getMaximumSize());
+        assertTrue(statistics.getEvictionCount() >= 1000 - cache.getMaximumSize());
+        assertNotNull(cache.getEntityDetail(userId, "popular"));
+    }
+
+
+    @Test
+    public void testInvalidationRemovesDependentValues()
+    {
+        EnterpriseInstanceCache cache = new EnterpriseInstanceCache(100, 0L);
+
+        cache.saveEntityDetail(userId, getEntity("entity1", 1L), cache.getReadSequence());
+        cache.saveRelationship(userId, getRelationship("relationship1", "entity1", "entity2"), cache.getReadSequence());
+        cache.saveRelationshipsForEntity(userId,
+                                         "entity2",
+                                         "query",
+                                         Collections.singletonList(getRelationship("relationship1", "entity1", "entity2")),
+                                         cache.getReadSequence());
+
+        assertNotNull(cache.getRelationship(userId, "relationship1"));
+        assertEquals(cache.getRelationshipsForEntity(userId, "entity2", "query").size(), 1);
+
+        /*
+         * A change to the entity at one end of the relationship removes the cached values that include it.
+         */
+        cache.invalidate("entity1");
+
+        assertNull(cache.getEntityDetail(userId, "entity1"));
+        assertNull(cache.getRelationship(userId, "relationship1"));
+        assertNull(cache.getRelationshipsForEntity(userId, "entity2", "query"));
+        assertEquals(cache.getStatistics().getInvalidationCount(), 3L);
+
+        /*
+         * A new relationship for an entity only removes its cached relationships.
+         */
+        cache.saveEntityDetail(userId, getEntity("entity2", 1L), cache.getReadSequence());
+        cache.saveRelationshipsForEntity(userId, "entity2", "query", null, cache.getReadSequence());
+
+        assertEquals(cache.getRelationshipsForEntity(userId, "entity2", "query").size(), 0);
+
+        cache.invalidateRelationshipsForEntity("entity2");
+
+        assertNull(cache.getRelationshipsForEntity(userId, "entity2", "query"));
+        assertNotNull(cache.getEntityDetail(userId, "entity2"));
+    }
+
+
+    @Test
+    public void testResultReadBeforeChangeIsNotCached()
+    {
+        EnterpriseInstanceCache cache = new EnterpriseInstanceCache(100, 0L);
+
+        /*
+         * A request starts, and reads the entity before it is updated.
+         */
+        long         readSequence = cache.getReadSequence();
+        EntityDetail oldEntity    = getEntity("guid1", 1L);
+
+        /*
+         * The update completes and then invalidates the entity.
+         */
+        cache.invalidate("guid1");
+
+        /*
+         * The result of the request is not cached.
+         */
+        cache.saveEntityDetail(userId, oldEntity, readSequence);
+
+        assertNull(cache.getEntityDetail(userId, "guid1"));
+
+        /*
+         * The same applies to a relationship that includes the entity.
+         */
+        readSequence = cache.getReadSequence();
+        cache.invalidate("entity1");
+        cache.saveRelationship(userId, getRelationship("relationship1", "entity1", "entity2"), readSequence);
+
+        assertNull(cache.getRelationship(userId, "relationship1"));
+
+        /*
+         * Requests that start after the invalidation are cached.
+         */
+        cache.saveEntityDetail(userId, getEntity("guid1", 2L), cache.getReadSequence());
+
+        assertEquals(cache.getEntityDetail(userId, "guid1").getVersion(), 2L);
+    }
+
+
+    @Test
+    public void testConcurrentReadsAndUpdatesLeaveNoStaleValues() throws Exception
+    {
+        final int guidCount = 20;
+
+        EnterpriseInstanceCache cache    = new EnterpriseInstanceCache(guidCount * 2, 0L);
+        Map<String, Long>       store    = new ConcurrentHashMap<>();
+        AtomicBoolean           running  = new AtomicBoolean(true);
+        CountDownLatch          start    = new CountDownLatch(1);
+        ExecutorService         threads  = Executors.newFixedThreadPool(8);
+        List<Future<?>>         results  = new ArrayList<>();
+
+        for (int i = 0; i < guidCount; i++)
+        {
+            store.put("guid" + i, 1L);
+        }
+
+        try
+        {
+            /*
+             * Readers use the cache as the enterprise connector does: take the read sequence, read the
+             * instance from the store and then save it.
+             */
+            for (int reader = 0; reader < 6; reader++)
+            {
+                results.add(threads.submit(() ->
+                                           {
+                                               start.await();
+
+                                               while (running.get())
+                                               {
+                                                   String guid = "guid" + ThreadLocalRandom.current().nextInt(guidCount);
+
+                                                   if (cache.getEntityDetail(userId, guid) == null)
+                                                   {
+                                                       long readSequence = cache.getReadSequence();
+                                                       long version      = store.get(guid);
+
+                                                       Thread.yield();
+
+                                                       cache.saveEntityDetail(userId, getEntity(guid, version), readSequence);
+                                                   }
+                                               }
+
+                                               return null;
+                                           }));
+            }
+
+            /*
+             * Writers update the store and then invalidate the instance once the update is complete.
+             */
+            for (int writer = 0; writer < 2; writer++)
+            {
+                results.add(threads.submit(() ->
+                                           {
+                                               start.await();
+
+                                               for (int update = 0; update < 2000; update++)
+                                               {
+                                                   String guid = "guid" + ThreadLocalRandom.current().nextInt(guidCount);
+
+                                                   store.merge(guid, 1L, Long::sum);
+
+                                                   Thread.yield();
+
+                                                   cache.invalidate(guid);
+                                               }
+
+                                               return null;
+                                           }));
+            }
+
+            start.countDown();
+
+            for (Future<?> result : results.subList(6, 8))
+            {
+                result.get(60, TimeUnit.SECONDS);
+            }
+
+            running.set(false);
+
+            for (Future<?> result : results.subList(0, 6))
+            {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            running.set(false);
+            threads.shutdownNow();
+        }
+
+        /*
+         * Every value left in the cache is the latest version.
+         */
+        for (int i = 0; i < guidCount; i++)
+        {
+            String       guid         = "guid" + i;
+            EntityDetail cachedEntity = cache.getEntityDetail(userId, guid);
+
+            if (cachedEntity != null)
+            {
+                assertEquals(cachedEntity.getVersion(), (long) store.get(guid), guid);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate the request statistics, circuit breaker and instance home routing maintained by CohortMemberRouter.
+ */
+public class CohortMemberRouterTest
+{
+    private static final String memberId       = "member1";
+    private static final long   suspensionTime = 200L;
+
+    private AuditLog           auditLog;
+    private CohortMemberRouter memberRouter;
+
+
+    @BeforeMethod
+    public void setUp()
+    {
+        auditLog = mock(AuditLog.class);
+        memberRouter = new CohortMemberRouter(auditLog, 2, suspensionTime);
+    }
+
+
+    /**
+     * Return the status of the test member.
+     *
+     * @return status
+     */
+    private CohortMemberStatus getMemberStatus()
+    {
+        for (CohortMemberStatus memberStatus : memberRouter.getMemberStatuses())
+        {
+            if (memberId.equals(memberStatus.getMetadataCollectionId()))
+            {
+                return memberStatus;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Open the circuit breaker of the test member.
+     */
+    private void suspendMember()
+    {
+        memberRouter.recordRequest(memberId, 10L, true);
+        memberRouter.recordRequest(memberId, 10L, true);
+
+        assertEquals(getMemberStatus().getCircuitState(), CohortMemberStatus.CircuitState.OPEN);
+    }
+
+
+    @Test
+    public void testStatistics()
+    {
+        memberRouter.recordRequest(memberId, 100L, false);
+        memberRouter.recordRequest(memberId, 200L, false);
+        memberRouter.recordRequest(memberId, 300L, true);
+
+        CohortMemberStatus memberStatus = getMemberStatus();
+
+        assertEquals(memberStatus.getRequestCount(), 3L);
+        assertEquals(memberStatus.getFailureCount(), 1L);
+        assertEquals(memberStatus.getConsecutiveFailures(), 1);
+        assertEquals(memberStatus.getLastResponseTime(), 300L);
+        assertTrue(memberStatus.getLastFailureTime() > 0);
+
+        /*
+         * The average is weighted towards the latest requests: 100, then 0.2*200 + 0.8*100 = 120,
+         * then 0.2*300 + 0.8*120 = 156.
+         */
+        assertEquals(memberStatus.getAverageResponseTime(), 156L);
+
+        memberRouter.recordRequest(memberId, 100L, false);
+
+        assertEquals(memberStatus.getConsecutiveFailures(), 0);
+        assertEquals(memberStatus.getCircuitState(), CohortMemberStatus.CircuitState.CLOSED);
+
+        /*
+         * Requests for unknown members are ignored.
+         */
+        memberRouter.recordRequest(null, 100L, true);
+        assertEquals(memberRouter.getMemberStatuses().size(), 1);
+    }
+
+
+    @Test
+    public void testCircuitBreakerOpensAfterConsecutiveFailures()
+    {
+        assertFalse(memberRouter.isSuspended(memberId));
+        assertTrue(memberRouter.acquirePermit(memberId));
+
+        memberRouter.recordRequest(memberId, 10L, true);
+        assertFalse(memberRouter.isSuspended(memberId));
+
+        memberRouter.recordRequest(memberId, 10L, true);
+        assertTrue(memberRouter.isSuspended(memberId));
+        assertFalse(memberRouter.acquirePermit(memberId));
+
+        verify(auditLog).logMessage(anyString(),
+                                    argThat(message -> OMRSAuditCode.COHORT_MEMBER_SUSPENDED.getMessageDefinition().getMessageId().equals(message.getMessageId())));
+    }
+
+
+    @Test
+    public void testCheckingSuspensionDoesNotTakeTheTrial() throws Exception
+    {
+        suspendMember();
+
+        Thread.sleep(suspensionTime + 50L);
+
+        /*
+         * Choosing the members to call does not use up the trial request.
+         */
+        for (int i = 0; i < 5; i++)
+        {
+            assertFalse(memberRouter.isSuspended(memberId));
+        }
+
+        assertEquals(getMemberStatus().getCircuitState(), CohortMemberStatus.CircuitState.OPEN);
+
+        /*
+         * Only one request gets the trial.
+         */
+        assertTrue(memberRouter.acquirePermit(memberId));
+        assertEquals(getMemberStatus().getCircuitState(), CohortMemberStatus.CircuitState.HALF_OPEN);
+        assertTrue(memberRouter.isSuspended(memberId));
+        assertFalse(memberRouter.acquirePermit(memberId));
+
+        /*
+         * A successful trial closes the circuit breaker.
+         */
+        memberRouter.recordRequest(memberId, 10L, false);
+
+        assertEquals(getMemberStatus().getCircuitState(), CohortMemberStatus.CircuitState.CLOSED);
+        assertFalse(memberRouter.isSuspended(memberId));
+        assertTrue(memberRouter.acquirePermit(memberId));
+        assertTrue(memberRouter.acquirePermit(memberId));
+
+        verify(auditLog).logMessage(anyString(),
+                                    argThat(message -> OMRSAuditCode.COHORT_MEMBER_RESUMED.getMessageDefinition().getMessageId().equals(message.getMessageId())));
+    }
+
+
+    @Test
+    public void testFailedTrialReopensCircuitBreaker() throws Exception
+    {
+        suspendMember();
+
+        Thread.sleep(suspensionTime + 50L);
+
+        assertTrue(memberRouter.acquirePermit(memberId));
+
+        memberRouter.recordRequest(memberId, 10L, true);
+
+        assertEquals(getMemberStatus().getCircuitState(), CohortMemberStatus.CircuitState.OPEN);
+        assertTrue(memberRouter.isSuspended(memberId));
+        assertFalse(memberRouter.acquirePermit(memberId));
+
+        verify(auditLog, times(2)).logMessage(anyString(),
+                                              argThat(message -> OMRSAuditCode.COHORT_MEMBER_SUSPENDED.getMessageDefinition().getMessageId().equals(message.getMessageId())));
+    }
+
+
+    @Test
+    public void testAbandonedTrialExpires() throws Exception
+    {
+        suspendMember();
+
+        Thread.sleep(suspensionTime + 50L);
+
+        assertTrue(memberRouter.acquirePermit(memberId));
+        assertFalse(memberRouter.acquirePermit(memberId));
+
+        /*
+         * The result of the trial is never recorded so another trial is allowed after the suspension time.
+         */
+        Thread.sleep(suspensionTime + 50L);
+
+        assertFalse(memberRouter.isSuspended(memberId));
+        assertTrue(memberRouter.acquirePermit(memberId));
+    }
+
+
+    @Test
+    public void testInstanceHomes()
+    {
+        EntityDetail homeEntity       = new EntityDetail();
+        EntityDetail replicatedEntity = new EntityDetail();
+
+        homeEntity.setGUID("guid1");
+        homeEntity.setMetadataCollectionId("home1");
+
+        replicatedEntity.setGUID("guid2");
+        replicatedEntity.setMetadataCollectionId("externalSource");
+        replicatedEntity.setReplicatedBy("home2");
+
+        memberRouter.saveInstanceHomes(Arrays.asList(homeEntity, replicatedEntity, null));
+
+        assertEquals(memberRouter.getInstanceHome("guid1"), "home1");
+        assertEquals(memberRouter.getInstanceHome("guid2"), "home2");
+        assertNull(memberRouter.getInstanceHome("guid3"));
+        assertNull(memberRouter.getInstanceHome(null));
+
+        memberRouter.removeInstanceHome("guid1");
+
+        assertNull(memberRouter.getInstanceHome("guid1"));
+        assertEquals(memberRouter.getInstanceHome("guid2"), "home2");
+    }
+
+
+    @Test
+    public void testInstanceHomesAreBounded()
+    {
+        memberRouter.saveInstanceHome("first", "home");
+        memberRouter.saveInstanceHome("recent", "home");
+
+        for (int i = 0; i < 10000; i++)
+        {
+            memberRouter.saveInstanceHome("guid" + i, "home");
+
+            if (i % 100 == 0)
+            {
+                memberRouter.getInstanceHome("recent");
+            }
+        }
+
+        /*
+         * The least recently used homes are forgotten.
+         */
+        assertNull(memberRouter.getInstanceHome("first"));
+        assertEquals(memberRouter.getInstanceHome("recent"), "home");
+        assertEquals(memberRouter.getInstanceHome("guid9999"), "home");
+    }
+}
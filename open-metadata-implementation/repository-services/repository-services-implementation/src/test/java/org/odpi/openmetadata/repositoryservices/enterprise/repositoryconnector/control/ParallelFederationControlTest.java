@@ -0,0 +1,484 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSRepositoryConnector;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Validate that ParallelFederationControl cancels repositories that do not respond in time, does not confuse
+ * the requests of its two sweeps, rejects requests when its worker pool is saturated and never suspends
+ * the local repository.
+ */
+public class ParallelFederationControlTest
+{
+    private static final String userId     = "testUser";
+    private static final String methodName = "testMethod";
+    private static final long   slowDelay  = 10000L;
+
+    private ExecutorService workerPool;
+    private AuditLog        auditLog;
+
+
+    @BeforeMethod
+    public void setUp()
+    {
+        workerPool = Executors.newFixedThreadPool(4);
+        auditLog = mock(AuditLog.class);
+    }
+
+
+    @AfterMethod
+    public void tearDown()
+    {
+        workerPool.shutdownNow();
+    }
+
+
+    /**
+     * Create a connector to a cohort member.
+     *
+     * @param metadataCollectionId identifier of the member
+     * @return mock connector
+     * @throws Exception mock setup
+     */
+    private OMRSRepositoryConnector getConnector(String metadataCollectionId) throws Exception
+    {
+        OMRSRepositoryConnector connector          = mock(OMRSRepositoryConnector.class);
+        OMRSMetadataCollection  metadataCollection = mock(OMRSMetadataCollection.class);
+
+        when(metadataCollection.getMetadataCollectionId(anyString())).thenReturn(metadataCollectionId);
+        when(connector.getMetadataCollection()).thenReturn(metadataCollection);
+        when(connector.getMetadataCollectionId()).thenReturn(metadataCollectionId);
+        when(connector.getRepositoryName()).thenReturn(metadataCollectionId + "Repository");
+
+        return connector;
+    }
+
+
+    /**
+     * Create a connector to the local repository.
+     *
+     * @param metadataCollectionId identifier of the local repository
+     * @return mock connector
+     * @throws Exception mock setup
+     */
+    private OMRSRepositoryConnector getLocalConnector(String metadataCollectionId) throws Exception
+    {
+        LocalOMRSRepositoryConnector connector          = mock(LocalOMRSRepositoryConnector.class);
+        OMRSMetadataCollection       metadataCollection = mock(OMRSMetadataCollection.class);
+
+        when(metadataCollection.getMetadataCollectionId(anyString())).thenReturn(metadataCollectionId);
+        when(connector.getMetadataCollection()).thenReturn(metadataCollection);
+        when(connector.getMetadataCollectionId()).thenReturn(metadataCollectionId);
+        when(connector.getRepositoryName()).thenReturn(metadataCollectionId + "Repository");
+
+        return connector;
+    }
+
+
+    @Test
+    public void testSlowMemberTimesOut() throws Exception
+    {
+        TestExecutor       executor     = new TestExecutor(Collections.singleton("slow"), null, null);
+        CohortMemberRouter memberRouter = new CohortMemberRouter(auditLog);
+
+        ParallelFederationControl federationControl = new ParallelFederationControl(userId,
+                                                                                    Arrays.asList(getConnector("fast1"),
+                                                                                                  getConnector("slow"),
+                                                                                                  getConnector("fast2")),
+                                                                                    memberRouter,
+                                                                                    auditLog,
+                                                                                    methodName,
+                                                                                    200L,
+                                                                                    workerPool);
+        long startTime = System.currentTimeMillis();
+
+        federationControl.executeCommand(executor);
+
+        assertTrue(System.currentTimeMillis() - startTime < slowDelay);
+        assertEquals(executor.responded, new HashSet<>(Arrays.asList("fast1", "fast2")));
+        assertEquals(executor.failures.keySet(), Collections.singleton("slow"));
+        assertEquals(executor.failures.get("slow").getReportedErrorMessageId(),
+                     OMRSErrorCode.ENTERPRISE_REQUEST_TIMEOUT.getMessageDefinition().getMessageId());
+
+        /*
+         * The slow request is cancelled.
+         */
+        assertTrue(executor.interrupted.await(5, TimeUnit.SECONDS));
+
+        for (CohortMemberStatus memberStatus : memberRouter.getMemberStatuses())
+        {
+            if ("slow".equals(memberStatus.getMetadataCollectionId()))
+            {
+                assertEquals(memberStatus.getFailureCount(), 1L);
+            }
+        }
+    }
+
+
+    @Test
+    public void testCancelledRequestsAreNotReturnedToTheAugmentationSweep() throws Exception
+    {
+        TestExecutor executor = new TestExecutor(Collections.singleton("slow"), null, Arrays.asList("guid1", "guid2"));
+
+        ParallelFederationControl federationControl = new ParallelFederationControl(userId,
+                                                                                    Arrays.asList(getConnector("fast1"),
+                                                                                                  getConnector("slow"),
+                                                                                                  getConnector("fast2")),
+                                                                                    null,
+                                                                                    auditLog,
+                                                                                    methodName,
+                                                                                    200L,
+                                                                                    workerPool);
+
+        federationControl.executeCommand(executor);
+
+        /*
+         * Only the members that responded in the first sweep are called in the second.
+         */
+        assertEquals(executor.augmented.keySet(), new HashSet<>(Arrays.asList("fast1", "fast2")));
+        assertEquals(executor.augmented.get("fast1"), Arrays.asList("guid1", "guid2"));
+        assertEquals(executor.augmented.get("fast2"), Arrays.asList("guid1", "guid2"));
+        assertEquals(executor.failures.keySet(), Collections.singleton("slow"));
+    }
+
+
+    @Test
+    public void testCompleteResultCancelsOtherRequests() throws Exception
+    {
+        TestExecutor executor = new TestExecutor(Collections.singleton("slow"), "fast1", null);
+
+        ParallelFederationControl federationControl = new ParallelFederationControl(userId,
+                                                                                    Arrays.asList(getConnector("slow"),
+                                                                                                  getConnector("fast1")),
+                                                                                    null,
+                                                                                    auditLog,
+                                                                                    methodName,
+                                                                                    slowDelay * 2,
+                                                                                    workerPool);
+        long startTime = System.currentTimeMillis();
+
+        federationControl.executeCommand(executor);
+
+        assertTrue(System.currentTimeMillis() - startTime < slowDelay);
+        assertTrue(executor.interrupted.await(5, TimeUnit.SECONDS));
+
+        /*
+         * A request cancelled because the results are complete is not a failure.
+         */
+        assertTrue(executor.failures.isEmpty());
+    }
+
+
+    @Test
+    public void testSaturatedPoolRejectsRequests() throws Exception
+    {
+        ThreadPoolExecutor saturatedPool = new ThreadPoolExecutor(1,
+                                                                  1,
+                                                                  60L,
+                                                                  TimeUnit.SECONDS,
+                                                                  new SynchronousQueue<>(),
+                                                                  new ThreadPoolExecutor.AbortPolicy());
+        CountDownLatch     release       = new CountDownLatch(1);
+
+        try
+        {
+            saturatedPool.execute(() ->
+                                  {
+                                      try
+                                      {
+                                          release.await();
+                                      }
+                                      catch (InterruptedException error)
+                                      {
+                                          Thread.currentThread().interrupt();
+                                      }
+                                  });
+
+            TestExecutor       executor     = new TestExecutor(Collections.emptySet(), null, null);
+            CohortMemberRouter memberRouter = new CohortMemberRouter(auditLog);
+
+            ParallelFederationControl federationControl = new ParallelFederationControl(userId,
+                                                                                        Arrays.asList(getConnector("member1"),
+                                                                                                      getConnector("member2")),
+                                                                                        memberRouter,
+                                                                                        auditLog,
+                                                                                        methodName,
+                                                                                        200L,
+                                                                                        saturatedPool);
+
+            federationControl.executeCommand(executor);
+
+            /*
+             * The requests are not run on the calling thread.
+             */
+            assertTrue(executor.responded.isEmpty());
+            assertFalse(executor.callingThreads.contains(Thread.currentThread()));
+            assertEquals(executor.failures.keySet(), new HashSet<>(Arrays.asList("member1", "member2")));
+            assertEquals(executor.failures.get("member1").getReportedErrorMessageId(),
+                         OMRSErrorCode.ENTERPRISE_WORKER_POOL_FULL.getMessageDefinition().getMessageId());
+            assertEquals(memberRouter.getMemberStatuses().size(), 2);
+
+            for (CohortMemberStatus memberStatus : memberRouter.getMemberStatuses())
+            {
+                assertEquals(memberStatus.getFailureCount(), 1L);
+            }
+        }
+        finally
+        {
+            release.countDown();
+            saturatedPool.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void testLocalMemberStaysReachableAfterRepeatedErrors() throws Exception
+    {
+        final int requestCount = CohortMemberRouter.DEFAULT_FAILURE_THRESHOLD * 3;
+
+        CohortMemberRouter            memberRouter     = new CohortMemberRouter(auditLog);
+        List<OMRSRepositoryConnector> cohortConnectors = Arrays.asList(getLocalConnector("local"),
+                                                                       getConnector("remote"));
+        FailingExecutor               executor         = new FailingExecutor();
+
+        for (int request = 0; request < requestCount; request++)
+        {
+            new ParallelFederationControl(userId,
+                                          cohortConnectors,
+                                          memberRouter,
+                                          auditLog,
+                                          methodName,
+                                          5000L,
+                                          workerPool).executeCommand(executor);
+        }
+
+        /*
+         * Every request reaches the local repository and its errors are not recorded.  The remote member
+         * is suspended once it reaches the failure threshold.
+         */
+        assertEquals(executor.getCallCount("local"), requestCount);
+        assertEquals(executor.getCallCount("remote"), CohortMemberRouter.DEFAULT_FAILURE_THRESHOLD);
+        assertFalse(memberRouter.isSuspended("local"));
+        assertTrue(memberRouter.isSuspended("remote"));
+
+        for (CohortMemberStatus memberStatus : memberRouter.getMemberStatuses())
+        {
+            assertEquals(memberStatus.getMetadataCollectionId(), "remote");
+        }
+
+        /*
+         * The sequential federation control behaves in the same way.
+         */
+        new SequentialFederationControl(userId, cohortConnectors, memberRouter, auditLog, methodName).executeCommand(executor);
+
+        assertEquals(executor.getCallCount("local"), requestCount + 1);
+        assertEquals(executor.getCallCount("remote"), CohortMemberRouter.DEFAULT_FAILURE_THRESHOLD);
+    }
+
+
+    /**
+     * Executor where every request fails with a repository error.
+     */
+    private static class FailingExecutor implements CloneableRepositoryExecutor
+    {
+        private final Map<String, AtomicInteger> callCounts = new ConcurrentHashMap<>();
+
+
+        int getCallCount(String metadataCollectionId)
+        {
+            AtomicInteger callCount = callCounts.get(metadataCollectionId);
+
+            return (callCount == null) ? 0 : callCount.get();
+        }
+
+
+        @Override
+        public CloneableRepositoryExecutor getClone()
+        {
+            return this;
+        }
+
+
+        @Override
+        public void captureRequestFailure(String                   metadataCollectionId,
+                                          RepositoryErrorException exception)
+        {
+        }
+
+
+        @Override
+        public boolean issueRequestToRepository(String                 metadataCollectionId,
+                                                OMRSMetadataCollection metadataCollection)
+        {
+            callCounts.computeIfAbsent(metadataCollectionId, key -> new AtomicInteger()).incrementAndGet();
+
+            return false;
+        }
+
+
+        @Override
+        public boolean requestFailed(String metadataCollectionId)
+        {
+            return true;
+        }
+
+
+        @Override
+        public List<String> getResultsForAugmentation()
+        {
+            return null;
+        }
+
+
+        @Override
+        public void augmentResultFromRepository(String                 resultGUID,
+                                                String                 metadataCollectionId,
+                                                OMRSMetadataCollection metadataCollection)
+        {
+        }
+    }
+
+
+    /**
+     * Executor that records the members it is called for.  The slow members wait until they are cancelled.
+     * The completing member waits for a slow member to start before it returns.
+     */
+    private static class TestExecutor implements CloneableRepositoryExecutor
+    {
+        private final Set<String>                           slowMembers;
+        private final String                                completingMember;
+        private final List<String>                          augmentationGUIDs;
+        private final Set<String>                           responded;
+        private final Set<Thread>                           callingThreads;
+        private final Map<String, RepositoryErrorException> failures;
+        private final Map<String, List<String>>             augmented;
+        private final CountDownLatch                        slowStarted;
+        private final CountDownLatch                        interrupted;
+
+
+        TestExecutor(Set<String>  slowMembers,
+                     String       completingMember,
+                     List<String> augmentationGUIDs)
+        {
+            this.slowMembers = slowMembers;
+            this.completingMember = completingMember;
+            this.augmentationGUIDs = augmentationGUIDs;
+            this.responded = ConcurrentHashMap.newKeySet();
+            this.callingThreads = ConcurrentHashMap.newKeySet();
+            this.failures = new ConcurrentHashMap<>();
+            this.augmented = new ConcurrentHashMap<>();
+            this.slowStarted = new CountDownLatch(1);
+            this.interrupted = new CountDownLatch(1);
+        }
+
+
+        @Override
+        public CloneableRepositoryExecutor getClone()
+        {
+            return this;
+        }
+
+
+        @Override
+        public void captureRequestFailure(String                   metadataCollectionId,
+                                          RepositoryErrorException exception)
+        {
+            failures.put(metadataCollectionId, exception);
+        }
+
+
+        @Override
+        public boolean issueRequestToRepository(String                 metadataCollectionId,
+                                                OMRSMetadataCollection metadataCollection)
+        {
+            callingThreads.add(Thread.currentThread());
+
+            if (slowMembers.contains(metadataCollectionId))
+            {
+                slowStarted.countDown();
+
+                try
+                {
+                    Thread.sleep(slowDelay);
+                }
+                catch (InterruptedException error)
+                {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+
+                return false;
+            }
+
+            responded.add(metadataCollectionId);
+
+            if (metadataCollectionId.equals(completingMember))
+            {
+                /*
+                 * Make sure the slow request is running so that it is interrupted rather than never started.
+                 */
+                try
+                {
+                    slowStarted.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+
+
+        @Override
+        public List<String> getResultsForAugmentation()
+        {
+            return augmentationGUIDs;
+        }
+
+
+        @Override
+        public void augmentResultFromRepository(String                 resultGUID,
+                                                String                 metadataCollectionId,
+                                                OMRSMetadataCollection metadataCollection)
+        {
+            augmented.computeIfAbsent(metadataCollectionId, key -> Collections.synchronizedList(new ArrayList<>())).add(resultGUID);
+        }
+    }
+}
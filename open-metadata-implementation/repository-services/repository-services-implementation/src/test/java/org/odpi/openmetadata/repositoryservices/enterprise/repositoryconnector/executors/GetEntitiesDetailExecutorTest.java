@@ -0,0 +1,209 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.FunctionNotSupportedException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Validate that GetEntitiesDetailExecutor returns the entities in the order they were requested, leaves out
+ * the entities that are not known, and only asks for the entities one at a time when a member does not
+ * support the list request.
+ */
+public class GetEntitiesDetailExecutorTest
+{
+    private static final String userId     = "testUser";
+    private static final String methodName = "getEntitiesDetail";
+
+    private final AuditLog auditLog = mock(AuditLog.class);
+
+
+    /**
+     * Create an entity.
+     *
+     * @param guid unique identifier
+     * @param metadataCollectionId home metadata collection
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid,
+                                   String metadataCollectionId)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setVersion(1L);
+
+        return entity;
+    }
+
+
+    /**
+     * Return the unique identifiers of the entities.
+     *
+     * @param entities retrieved entities
+     * @return unique identifiers
+     */
+    private List<String> getGUIDs(List<EntityDetail> entities)
+    {
+        List<String> guids = new ArrayList<>();
+
+        if (entities != null)
+        {
+            for (EntityDetail entity : entities)
+            {
+                guids.add(entity.getGUID());
+            }
+        }
+
+        return guids;
+    }
+
+
+    @Test
+    public void testResultsAreInRequestOrder() throws Exception
+    {
+        List<String>           requestedGUIDs = Arrays.asList("guid3", "missing", "guid1", "guid2");
+        OMRSMetadataCollection member1        = mock(OMRSMetadataCollection.class);
+        OMRSMetadataCollection member2        = mock(OMRSMetadataCollection.class);
+
+        when(member1.getEntitiesDetail(eq(userId), anyList())).thenReturn(Arrays.asList(getEntity("guid1", "member1"),
+                                                                                         getEntity("guid2", "member1")));
+        when(member2.getEntitiesDetail(eq(userId), anyList())).thenReturn(Collections.singletonList(getEntity("guid3", "member2")));
+
+        GetEntitiesDetailExecutor executor = new GetEntitiesDetailExecutor(userId, requestedGUIDs, auditLog, methodName);
+
+        executor.issueRequestToRepository("member1", member1);
+        executor.getClone().issueRequestToRepository("member2", member2);
+
+        /*
+         * The second member is only asked for the entities that the first did not return from their home.
+         */
+        verify(member2).getEntitiesDetail(userId, Arrays.asList("guid3", "missing"));
+
+        assertEquals(getGUIDs(executor.getEntitiesDetail()), Arrays.asList("guid3", "guid1", "guid2"));
+    }
+
+
+    @Test
+    public void testNoEntitiesFound() throws Exception
+    {
+        OMRSMetadataCollection member1 = mock(OMRSMetadataCollection.class);
+
+        when(member1.getEntitiesDetail(eq(userId), anyList())).thenReturn(null);
+
+        GetEntitiesDetailExecutor executor = new GetEntitiesDetailExecutor(userId, Arrays.asList("missing1", "missing2"), auditLog, methodName);
+
+        executor.issueRequestToRepository("member1", member1);
+
+        assertNull(executor.getEntitiesDetail());
+        assertFalse(executor.requestFailed("member1"));
+    }
+
+
+    @Test
+    public void testFunctionNotSupportedFallsBackToSingleRequests() throws Exception
+    {
+        OMRSMetadataCollection member1 = mock(OMRSMetadataCollection.class);
+
+        when(member1.getEntitiesDetail(eq(userId), anyList())).thenThrow(new FunctionNotSupportedException(OMRSErrorCode.METHOD_NOT_IMPLEMENTED.getMessageDefinition(methodName, "member1", "test"),
+                                                                                                            this.getClass().getName(),
+                                                                                                            methodName));
+        when(member1.getEntityDetail(userId, "guid1")).thenReturn(getEntity("guid1", "member1"));
+        when(member1.getEntityDetail(userId, "guid2")).thenReturn(getEntity("guid2", "member1"));
+        when(member1.getEntityDetail(userId, "missing")).thenThrow(new EntityNotKnownException(OMRSErrorCode.ENTITY_NOT_KNOWN.getMessageDefinition("missing", methodName, "member1"),
+                                                                                               this.getClass().getName(),
+                                                                                               methodName));
+
+        GetEntitiesDetailExecutor executor = new GetEntitiesDetailExecutor(userId, Arrays.asList("guid2", "missing", "guid1"), auditLog, methodName);
+
+        executor.issueRequestToRepository("member1", member1);
+
+        verify(member1, times(3)).getEntityDetail(eq(userId), anyString());
+        assertFalse(executor.requestFailed("member1"));
+        assertEquals(getGUIDs(executor.getEntitiesDetail()), Arrays.asList("guid2", "guid1"));
+    }
+
+
+    @Test
+    public void testRepositoryErrorDoesNotFallBack() throws Exception
+    {
+        OMRSMetadataCollection member1 = mock(OMRSMetadataCollection.class);
+
+        when(member1.getEntitiesDetail(eq(userId), anyList())).thenThrow(new RepositoryErrorException(OMRSErrorCode.REPOSITORY_NOT_AVAILABLE.getMessageDefinition("member1", methodName),
+                                                                                                       this.getClass().getName(),
+                                                                                                       methodName));
+
+        GetEntitiesDetailExecutor executor = new GetEntitiesDetailExecutor(userId, Arrays.asList("guid1", "guid2", "guid3"), auditLog, methodName);
+
+        executor.issueRequestToRepository("member1", member1);
+
+        /*
+         * A failing member is not sent a request for each entity, and its failure is reported.
+         */
+        verify(member1, never()).getEntityDetail(anyString(), anyString());
+        assertTrue(executor.requestFailed("member1"));
+
+        try
+        {
+            executor.getEntitiesDetail();
+            fail("The repository error was not returned");
+        }
+        catch (RepositoryErrorException error)
+        {
+            assertEquals(error.getReportedErrorMessageId(),
+                         OMRSErrorCode.REPOSITORY_NOT_AVAILABLE.getMessageDefinition().getMessageId());
+        }
+    }
+
+
+    @Test
+    public void testRepositoryErrorFromOneMember() throws Exception
+    {
+        OMRSMetadataCollection member1 = mock(OMRSMetadataCollection.class);
+        OMRSMetadataCollection member2 = mock(OMRSMetadataCollection.class);
+
+        when(member1.getEntitiesDetail(eq(userId), anyList())).thenThrow(new RepositoryErrorException(OMRSErrorCode.REPOSITORY_NOT_AVAILABLE.getMessageDefinition("member1", methodName),
+                                                                                                       this.getClass().getName(),
+                                                                                                       methodName));
+        when(member2.getEntitiesDetail(eq(userId), anyList())).thenReturn(Arrays.asList(getEntity("guid2", "member2"),
+                                                                                         getEntity("guid1", "member2")));
+
+        GetEntitiesDetailExecutor executor = new GetEntitiesDetailExecutor(userId, Arrays.asList("guid1", "guid2"), auditLog, methodName);
+
+        executor.issueRequestToRepository("member1", member1);
+        executor.getClone().issueRequestToRepository("member2", member2);
+
+        /*
+         * The entities from the other member are returned.
+         */
+        assertTrue(executor.requestFailed("member1"));
+        assertFalse(executor.requestFailed("member2"));
+        assertEquals(getGUIDs(executor.getEntitiesDetail()), Arrays.asList("guid1", "guid2"));
+    }
+}
@@ -7,15 +7,25 @@ import org.odpi.openmetadata.frameworks.auditlog.ComponentDevelopmentStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
 import org.testng.annotations.Test;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class OMRSRepositoryContentManagerTest
 {
@@ -46,4 +56,106 @@ public class OMRSRepositoryContentManagerTest
         assertEquals(instanceType.getTypeDefGUID(), entityDefGUID);
         assertEquals(instanceType.getValidStatusList(), validInstanceStatusList);
     }
+
+
+    /**
+     * Create an entity type.
+     *
+     * @param name name of the type
+     * @param superType super type or null
+     * @param propertyName name of the property defined by the type or null
+     * @return new type
+     */
+    private EntityDef getEntityDef(String    name,
+                                   EntityDef superType,
+                                   String    propertyName)
+    {
+        EntityDef entityDef = new EntityDef();
+
+        entityDef.setName(name);
+        entityDef.setVersion(1);
+        entityDef.setVersionName("1.0");
+        entityDef.setGUID(UUID.randomUUID().toString());
+
+        if (superType != null)
+        {
+            TypeDefLink superTypeLink = new TypeDefLink();
+
+            superTypeLink.setGUID(superType.getGUID());
+            superTypeLink.setName(superType.getName());
+            entityDef.setSuperType(superTypeLink);
+        }
+
+        if (propertyName != null)
+        {
+            TypeDefAttribute attribute = new TypeDefAttribute();
+
+            attribute.setAttributeName(propertyName);
+            entityDef.setPropertiesDefinition(Collections.singletonList(attribute));
+        }
+
+        return entityDef;
+    }
+
+
+    @Test
+    public void testTypeHierarchy()
+    {
+        AuditLog auditLog = new AuditLog(null, 1, ComponentDevelopmentStatus.IN_DEVELOPMENT, null, null, null);
+        OMRSRepositoryContentManager testSubject = new OMRSRepositoryContentManager("testserver", auditLog);
+
+        EntityDef referenceable = getEntityDef("Referenceable", null, "qualifiedName");
+        EntityDef asset         = getEntityDef("Asset", referenceable, "name");
+        EntityDef dataSet       = getEntityDef("DataSet", asset, "name");
+        EntityDef process       = getEntityDef("Process", referenceable, null);
+
+        testSubject.addTypeDef("unittest", referenceable);
+        testSubject.addTypeDef("unittest", asset);
+        testSubject.addTypeDef("unittest", dataSet);
+        testSubject.addTypeDef("unittest", process);
+
+        assertTrue(testSubject.isTypeOf("unittest", "DataSet", "Referenceable"));
+        assertTrue(testSubject.isTypeOf("unittest", "DataSet", "DataSet"));
+        assertTrue(testSubject.isTypeOf("unittest", "Asset", null));
+        assertFalse(testSubject.isTypeOf("unittest", "Process", "Asset"));
+        assertFalse(testSubject.isTypeOf("unittest", "Referenceable", "Asset"));
+        assertFalse(testSubject.isTypeOf("unittest", "Asset", "UnknownType"));
+        assertFalse(testSubject.isTypeOf("unittest", null, "Asset"));
+
+        assertTrue(testSubject.isTypeOfByGUID("unittest", dataSet.getGUID(), "DataSet", asset.getGUID()));
+        assertFalse(testSubject.isTypeOfByGUID("unittest", asset.getGUID(), "Asset", dataSet.getGUID()));
+
+        assertEquals(new HashSet<>(testSubject.getSubTypesOf("Referenceable")), new HashSet<>(List.of("Asset", "DataSet", "Process")));
+        assertEquals(testSubject.getSubTypesOf("Asset"), List.of("DataSet"));
+        assertNull(testSubject.getSubTypesOf("DataSet"));
+        assertNull(testSubject.getSubTypesOf("UnknownType"));
+
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "name", "testTypeHierarchy"), Set.of("Asset", "DataSet"));
+        assertNull(testSubject.getAllTypeDefsForProperty("unittest", "description", "testTypeHierarchy"));
+
+        /*
+         * Changes to the types are visible to the next query.
+         */
+        EntityDef table = getEntityDef("Table", dataSet, "description");
+
+        testSubject.addTypeDef("unittest", table);
+
+        assertTrue(testSubject.isTypeOf("unittest", "Table", "Asset"));
+        assertEquals(new HashSet<>(testSubject.getSubTypesOf("Asset")), new HashSet<>(List.of("DataSet", "Table")));
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "description", "testTypeHierarchy"), Set.of("Table"));
+
+        testSubject.deleteTypeDef("unittest", process.getGUID(), process.getName());
+
+        assertEquals(new HashSet<>(testSubject.getSubTypesOf("Referenceable")), new HashSet<>(List.of("Asset", "DataSet", "Table")));
+
+        try
+        {
+            testSubject.isTypeOf("unittest", "Process", "Referenceable");
+            fail("OMRSLogicErrorException expected");
+        }
+        catch (OMRSLogicErrorException error)
+        {
+            // expected
+        }
+    }
 }
@@ -4,6 +4,7 @@ package org.odpi.openmetadata.repositoryservices.localrepository.repositoryconte
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PropertyErrorException;
@@ -112,6 +113,56 @@ public class OMRSRepositoryHelperTest
 
     }
 
+    @Test
+    void testSequencedEntityResults() throws PropertyErrorException, PagingErrorException {
+        Random             random      = new Random(42);
+        List<EntityDetail> fullResults = new ArrayList<>();
+
+        for (int i = 0; i < 400; i++) {
+            EntityDetail entity = new EntityDetail();
+            entity.setGUID(UUID.randomUUID().toString());
+            entity.setCreateTime(new Date(random.nextInt(50)));
+            if (random.nextInt(10) != 0) {
+                entity.setUpdateTime(new Date(random.nextInt(50)));
+            }
+            if (random.nextInt(10) != 0) {
+                PrimitivePropertyValue name = new PrimitivePropertyValue();
+                name.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+                name.setTypeName(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING.getName());
+                name.setPrimitiveValue("name" + random.nextInt(30));
+                InstanceProperties properties = new InstanceProperties();
+                properties.setProperty("name", name);
+                entity.setProperties(properties);
+            }
+            fullResults.add(entity);
+        }
+
+        for (SequencingOrder sequencingOrder : SequencingOrder.values()) {
+            if (sequencingOrder == SequencingOrder.ANY) {
+                continue;
+            }
+
+            // the expected results come from a full sort using the instance and property comparators
+            List<EntityDetail> sortedResults = new ArrayList<>(fullResults);
+            if (sequencingOrder == SequencingOrder.PROPERTY_ASCENDING || sequencingOrder == SequencingOrder.PROPERTY_DESCENDING) {
+                sortedResults.sort((one, two) -> OMRSRepositoryContentHelper.compareProperties(one.getProperties(), two.getProperties(), "name", sequencingOrder));
+            } else {
+                sortedResults.sort((one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder));
+            }
+
+            // small pages are selected with a bounded heap, the last one sorts the full results
+            int[][] pages = { { 0, 25 }, { 10, 15 }, { 75, 25 }, { 150, 100 } };
+            for (int[] page : pages) {
+                List<EntityDetail> entities = createHelper().formatEntityResults(new ArrayList<>(fullResults),
+                                                                                 page[0],
+                                                                                 "name",
+                                                                                 sequencingOrder,
+                                                                                 page[1]);
+                assertEquals(entities, sortedResults.subList(page[0], page[0] + page[1]), sequencingOrder.getName());
+            }
+        }
+    }
+
     @Test
     void testRegexHelpers() {
 
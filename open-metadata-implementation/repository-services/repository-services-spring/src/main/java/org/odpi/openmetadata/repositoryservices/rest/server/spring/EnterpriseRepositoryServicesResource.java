@@ -484,6 +484,30 @@ public class EnterpriseRepositoryServicesResource
     }
 
 
+    /**
+     * Return the header, classifications and properties of each of the requested entities.  Entities that are
+     * not known, or are only stored as proxies, are omitted from the results.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return EntityListResponse:
+     * list of the entities that were found or
+     * InvalidParameterException one of the guids is null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored or
+     * FunctionNotSupportedException the repository does not support batch retrieval or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @PostMapping(path = "/instances/entities/by-guids")
+    public  EntityListResponse getEntitiesDetail(@PathVariable String                  serverName,
+                                                 @PathVariable String                  userId,
+                                                 @RequestBody  InstanceGUIDListRequest guids)
+    {
+        return restAPI.getEntitiesDetail(serverName, userId, guids);
+    }
+
+
     /**
      * Return the relationships for a specific entity.
      *
@@ -868,6 +892,30 @@ public class EnterpriseRepositoryServicesResource
     }
 
 
+    /**
+     * Return the current version of each of the requested relationships.  Relationships that are not known are omitted
+     * from the results.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return RelationshipListResponse:
+     * list of the relationships that were found or
+     * InvalidParameterException one of the guids is null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored or
+     * FunctionNotSupportedException the repository does not support batch retrieval or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @PostMapping(path = "/instances/relationships/by-guids")
+    public  RelationshipListResponse getRelationshipsByGUIDs(@PathVariable String                  serverName,
+                                                            @PathVariable String                  userId,
+                                                            @RequestBody  InstanceGUIDListRequest guids)
+    {
+        return restAPI.getRelationshipsByGUIDs(serverName, userId, guids);
+    }
+
+
     /**
      * Return a list of relationships that match the requested conditions.  The results can be broken into pages.
      *